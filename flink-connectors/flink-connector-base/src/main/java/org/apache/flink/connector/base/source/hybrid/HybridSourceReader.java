@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -131,6 +132,14 @@ public class HybridSourceReader<T> implements SourceReader<T, HybridSourceSplit>
         }
     }
 
+    @Override
+    public void pauseOrResumeSplits(
+            Collection<String> splitsToPause, Collection<String> splitsToResume) {
+        if (currentReader != null) {
+            currentReader.pauseOrResumeSplits(splitsToPause, splitsToResume);
+        }
+    }
+
     @Override
     public CompletableFuture<Void> isAvailable() {
         return availabilityFuture;
@@ -67,6 +67,12 @@ public class SplitFetcher<E, SplitT extends SourceSplit> implements Runnable {
     @GuardedBy("lock")
     private volatile boolean isIdle;
 
+    /**
+     * Flag whether the split reader supports pausing and resuming splits. This is only known once
+     * the split reader has been asked to, and is then reported to the caller of the next request.
+     */
+    private volatile boolean pausingSplitsSupported = true;
+
     SplitFetcher(
             int id,
             FutureCompletingBlockingQueue<RecordsWithSplitIds<E>> elementsQueue,
@@ -175,6 +181,33 @@ public class SplitFetcher<E, SplitT extends SourceSplit> implements Runnable {
         wakeUp(true);
     }
 
+    /**
+     * Pauses and resumes the given splits of this split fetcher, splits which are not assigned to
+     * this fetcher are ignored. This operation is asynchronous.
+     *
+     * @param splitIdsToPause the ids of the splits to pause.
+     * @param splitIdsToResume the ids of the splits to resume.
+     * @throws UnsupportedOperationException if the split reader turned out not to support pausing
+     *     splits on an earlier request.
+     */
+    public void pauseOrResumeSplits(
+            Collection<String> splitIdsToPause, Collection<String> splitIdsToResume) {
+        if (!pausingSplitsSupported) {
+            throw new UnsupportedOperationException(
+                    "The split reader "
+                            + splitReader
+                            + " does not support pausing or resuming splits.");
+        }
+        enqueueTask(
+                new PauseOrResumeSplitsTask<>(
+                        splitReader,
+                        splitIdsToPause,
+                        splitIdsToResume,
+                        assignedSplits,
+                        () -> pausingSplitsSupported = false));
+        wakeUp(true);
+    }
+
     public void enqueueTask(SplitFetcherTask task) {
         synchronized (lock) {
             taskQueue.offer(task);
@@ -142,6 +142,20 @@ public abstract class SplitFetcherManager<E, SplitT extends SourceSplit> {
 
     public abstract void addSplits(List<SplitT> splitsToAdd);
 
+    /**
+     * Pauses and resumes the given splits. The request is handed to all fetchers, each of which
+     * only handles the splits that are assigned to it.
+     *
+     * @param splitIdsToPause the ids of the splits to pause.
+     * @param splitIdsToResume the ids of the splits to resume.
+     */
+    public void pauseOrResumeSplits(
+            Collection<String> splitIdsToPause, Collection<String> splitIdsToResume) {
+        for (SplitFetcher<E, SplitT> fetcher : fetchers.values()) {
+            fetcher.pauseOrResumeSplits(splitIdsToPause, splitIdsToResume);
+        }
+    }
+
     protected void startFetcher(SplitFetcher<E, SplitT> fetcher) {
         executors.submit(fetcher);
     }
@@ -23,6 +23,7 @@ import org.apache.flink.api.connector.source.SourceSplit;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
 
 import java.io.IOException;
+import java.util.Collection;
 
 /**
  * An interface used to read from splits. The implementation could either read from a single split
@@ -62,6 +63,27 @@ public interface SplitReader<E, SplitT extends SourceSplit> {
     /** Wake up the split reader in case the fetcher thread is blocking in {@link #fetch()}. */
     void wakeUp();
 
+    /**
+     * Pauses or resumes reading of individual splits readers.
+     *
+     * <p>Note that no other methods can be called in parallel, so it's fine to non-atomically
+     * update subscriptions. This method is simply providing connectors with more expressive APIs
+     * the opportunity to update all subscriptions at once.
+     *
+     * <p>This is currently used to align the watermarks of splits, if watermark alignment is
+     * enabled. Split readers that do not support pausing splits keep the default implementation,
+     * in which case only the source as a whole is aligned.
+     *
+     * @param splitsToPause the splits to pause
+     * @param splitsToResume the splits to resume
+     * @throws UnsupportedOperationException if the split reader does not support pausing splits
+     */
+    default void pauseOrResumeSplits(
+            Collection<SplitT> splitsToPause, Collection<SplitT> splitsToResume) {
+        throw new UnsupportedOperationException(
+                "This split reader does not support pausing or resuming splits.");
+    }
+
     /**
      * Close the split reader.
      *
@@ -32,6 +32,8 @@ import org.apache.flink.util.ExceptionUtils;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.SortedSet;
@@ -42,6 +44,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 /** Unit test for {@link SplitFetcher}. */
@@ -256,6 +259,55 @@ public class SplitFetcherTest {
         assertTrue(splitReader.isClosed());
     }
 
+    @Test
+    public void testPauseOrResumeSplits() {
+        final TestingSplitReader<Object, TestingSourceSplit> splitReader =
+                new TestingSplitReader<>();
+        final SplitFetcher<Object, TestingSourceSplit> fetcher =
+                createFetcherWithSplit("test-split", splitReader);
+
+        // splits which are not assigned to the fetcher are ignored
+        fetcher.pauseOrResumeSplits(
+                Arrays.asList("test-split", "other-split"), Collections.emptyList());
+        while (splitReader.getPausedSplits().isEmpty()) {
+            fetcher.runOnce();
+        }
+        assertEquals(Collections.singleton("test-split"), splitReader.getPausedSplits());
+
+        fetcher.pauseOrResumeSplits(Collections.emptyList(), Collections.singleton("test-split"));
+        while (!splitReader.getPausedSplits().isEmpty()) {
+            fetcher.runOnce();
+        }
+    }
+
+    @Test
+    public void testPauseOrResumeSplitsUnsupported() {
+        final AtomicBoolean pauseRequested = new AtomicBoolean();
+        final TestingSplitReader<Object, TestingSourceSplit> splitReader =
+                new TestingSplitReader<Object, TestingSourceSplit>() {
+                    @Override
+                    public void pauseOrResumeSplits(
+                            Collection<TestingSourceSplit> splitsToPause,
+                            Collection<TestingSourceSplit> splitsToResume) {
+                        pauseRequested.set(true);
+                        throw new UnsupportedOperationException();
+                    }
+                };
+        final SplitFetcher<Object, TestingSourceSplit> fetcher =
+                createFetcherWithSplit("test-split", splitReader);
+
+        // the fetcher does not fail, but reports the missing support on the next request
+        fetcher.pauseOrResumeSplits(Collections.singleton("test-split"), Collections.emptyList());
+        while (!pauseRequested.get()) {
+            fetcher.runOnce();
+        }
+        assertThrows(
+                UnsupportedOperationException.class,
+                () ->
+                        fetcher.pauseOrResumeSplits(
+                                Collections.emptyList(), Collections.singleton("test-split")));
+    }
+
     // ------------------------------------------------------------------------
     //  testing utils
     // ------------------------------------------------------------------------
@@ -26,6 +26,9 @@ import org.apache.flink.connector.base.source.reader.splitreader.SplitsChange;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 /** A {@code SplitReader} that returns a pre-defined set of records (by split). */
 public class TestingSplitReader<E, SplitT extends SourceSplit> implements SplitReader<E, SplitT> {
@@ -33,6 +36,7 @@ public class TestingSplitReader<E, SplitT extends SourceSplit> implements SplitR
     private final ArrayDeque<RecordsWithSplitIds<E>> fetches;
     private volatile boolean closed;
     private volatile boolean closeWithException;
+    private final Set<String> pausedSplits = new HashSet<>();
 
     @SafeVarargs
     public TestingSplitReader(RecordsWithSplitIds<E>... fetches) {
@@ -69,6 +73,13 @@ public class TestingSplitReader<E, SplitT extends SourceSplit> implements SplitR
         }
     }
 
+    @Override
+    public void pauseOrResumeSplits(
+            Collection<SplitT> splitsToPause, Collection<SplitT> splitsToResume) {
+        splitsToPause.forEach(split -> pausedSplits.add(split.splitId()));
+        splitsToResume.forEach(split -> pausedSplits.remove(split.splitId()));
+    }
+
     @Override
     public void close() throws Exception {
         if (closeWithException) {
@@ -84,4 +95,8 @@ public class TestingSplitReader<E, SplitT extends SourceSplit> implements SplitR
     public boolean isClosed() {
         return closed;
     }
+
+    public Set<String> getPausedSplits() {
+        return pausedSplits;
+    }
 }
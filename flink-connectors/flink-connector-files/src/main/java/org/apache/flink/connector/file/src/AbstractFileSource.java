@@ -28,8 +28,10 @@ import org.apache.flink.api.connector.source.SplitEnumerator;
 import org.apache.flink.api.connector.source.SplitEnumeratorContext;
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
 import org.apache.flink.connector.file.src.assigners.FileSplitAssigner;
+import org.apache.flink.connector.file.src.enumerate.DynamicFileEnumerator;
 import org.apache.flink.connector.file.src.enumerate.FileEnumerator;
 import org.apache.flink.connector.file.src.impl.ContinuousFileSplitEnumerator;
+import org.apache.flink.connector.file.src.impl.DynamicFileSplitEnumerator;
 import org.apache.flink.connector.file.src.impl.FileSourceReader;
 import org.apache.flink.connector.file.src.impl.StaticFileSplitEnumerator;
 import org.apache.flink.connector.file.src.reader.BulkFormat;
@@ -130,6 +132,20 @@ public abstract class AbstractFileSource<T, SplitT extends FileSourceSplit>
     public SplitEnumerator<SplitT, PendingSplitsCheckpoint<SplitT>> createEnumerator(
             SplitEnumeratorContext<SplitT> enumContext) {
 
+        if (continuousEnumerationSettings == null
+                && enumeratorFactory instanceof DynamicFileEnumerator.Provider) {
+            // bounded case with dynamic filtering, the splits are enumerated lazily
+            @SuppressWarnings("unchecked")
+            final SplitEnumeratorContext<FileSourceSplit> fileSplitContext =
+                    (SplitEnumeratorContext<FileSourceSplit>) enumContext;
+            return castGeneric(
+                    new DynamicFileSplitEnumerator(
+                            fileSplitContext,
+                            (DynamicFileEnumerator.Provider) enumeratorFactory,
+                            assignerFactory,
+                            inputPaths));
+        }
+
         final FileEnumerator enumerator = enumeratorFactory.create();
 
         // read the initial set of splits (which is also the total set of splits for bounded
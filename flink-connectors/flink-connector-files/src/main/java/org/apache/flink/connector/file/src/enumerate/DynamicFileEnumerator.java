@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.src.enumerate;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+
+/**
+ * A {@link FileEnumerator} which supports dynamic filtering: the {@link DynamicFilteringData}
+ * collected at runtime is set before the splits are enumerated, and the enumerator may skip the
+ * files which can not contain any row matching the data.
+ *
+ * <p>The data may never be set, in which case all the files must be enumerated.
+ */
+@PublicEvolving
+public interface DynamicFileEnumerator extends FileEnumerator {
+
+    /** Sets the data used to filter the files when enumerating the splits. */
+    void setDynamicFilteringData(DynamicFilteringData data);
+
+    // ------------------------------------------------------------------------
+
+    /** Factory for the {@code DynamicFileEnumerator}. */
+    @FunctionalInterface
+    interface Provider extends FileEnumerator.Provider {
+
+        @Override
+        DynamicFileEnumerator create();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.src.impl;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.PendingSplitsCheckpoint;
+import org.apache.flink.connector.file.src.assigners.FileSplitAssigner;
+import org.apache.flink.connector.file.src.enumerate.DynamicFileEnumerator;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A SplitEnumerator implementation for bounded / batch file input which supports dynamic
+ * filtering.
+ *
+ * <p>Unlike the {@link StaticFileSplitEnumerator}, the splits are enumerated lazily: if a {@link
+ * DynamicFilteringEvent} is received before the first split request, the splits are enumerated
+ * with the {@link DynamicFilteringData} of the event, so that the files which can not contain any
+ * matching row are skipped. If a split is requested before the event arrives, all the splits are
+ * enumerated and the event is ignored, which is always correct since the join applies the filter
+ * again.
+ */
+@Internal
+public class DynamicFileSplitEnumerator
+        implements SplitEnumerator<FileSourceSplit, PendingSplitsCheckpoint<FileSourceSplit>> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DynamicFileSplitEnumerator.class);
+
+    private final SplitEnumeratorContext<FileSourceSplit> context;
+
+    private final DynamicFileEnumerator.Provider fileEnumeratorFactory;
+
+    private final FileSplitAssigner.Provider splitAssignerFactory;
+
+    private final Path[] paths;
+
+    /** The assigner of the enumerated splits, or null if the splits are not enumerated yet. */
+    @Nullable private FileSplitAssigner splitAssigner;
+
+    // ------------------------------------------------------------------------
+
+    public DynamicFileSplitEnumerator(
+            SplitEnumeratorContext<FileSourceSplit> context,
+            DynamicFileEnumerator.Provider fileEnumeratorFactory,
+            FileSplitAssigner.Provider splitAssignerFactory,
+            Path[] paths) {
+        this.context = checkNotNull(context);
+        this.fileEnumeratorFactory = checkNotNull(fileEnumeratorFactory);
+        this.splitAssignerFactory = checkNotNull(splitAssignerFactory);
+        this.paths = checkNotNull(paths);
+    }
+
+    @Override
+    public void start() {
+        // the splits are enumerated lazily, once the filtering data arrives or a split is requested
+    }
+
+    @Override
+    public void close() throws IOException {
+        // no resources to close
+    }
+
+    @Override
+    public void addReader(int subtaskId) {
+        // this source is purely lazy-pull-based, nothing to do upon registration
+    }
+
+    @Override
+    public void handleSplitRequest(int subtask, @Nullable String hostname) {
+        if (!context.registeredReaders().containsKey(subtask)) {
+            // reader failed between sending the request and now. skip this request.
+            return;
+        }
+
+        if (splitAssigner == null) {
+            LOG.info(
+                    "Received a split request before the dynamic filtering data, "
+                            + "enumerating all the splits.");
+            createSplitAssigner(null);
+        }
+
+        if (LOG.isInfoEnabled()) {
+            final String hostInfo =
+                    hostname == null ? "(no host locality info)" : "(on host '" + hostname + "')";
+            LOG.info("Subtask {} {} is requesting a file source split", subtask, hostInfo);
+        }
+
+        final Optional<FileSourceSplit> nextSplit = splitAssigner.getNext(hostname);
+        if (nextSplit.isPresent()) {
+            final FileSourceSplit split = nextSplit.get();
+            context.assignSplit(split, subtask);
+            LOG.info("Assigned split to subtask {} : {}", subtask, split);
+        } else {
+            context.signalNoMoreSplits(subtask);
+            LOG.info("No more splits available for subtask {}", subtask);
+        }
+    }
+
+    @Override
+    public void handleSourceEvent(int subtaskId, SourceEvent sourceEvent) {
+        if (!(sourceEvent instanceof DynamicFilteringEvent)) {
+            LOG.error("Received unrecognized event: {}", sourceEvent);
+            return;
+        }
+
+        if (splitAssigner != null) {
+            LOG.warn(
+                    "Received the dynamic filtering data after the splits have been enumerated, "
+                            + "ignoring it.");
+            return;
+        }
+
+        LOG.info("Received the dynamic filtering data, enumerating the splits.");
+        createSplitAssigner(((DynamicFilteringEvent) sourceEvent).getData());
+    }
+
+    private void createSplitAssigner(@Nullable DynamicFilteringData dynamicFilteringData) {
+        final DynamicFileEnumerator fileEnumerator = fileEnumeratorFactory.create();
+        if (dynamicFilteringData != null) {
+            fileEnumerator.setDynamicFilteringData(dynamicFilteringData);
+        }
+
+        final Collection<FileSourceSplit> splits;
+        try {
+            splits = fileEnumerator.enumerateSplits(paths, context.currentParallelism());
+        } catch (IOException e) {
+            throw new FlinkRuntimeException("Could not enumerate file splits", e);
+        }
+        LOG.info("Enumerated {} splits.", splits.size());
+        splitAssigner = splitAssignerFactory.create(splits);
+    }
+
+    @Override
+    public void addSplitsBack(List<FileSourceSplit> splits, int subtaskId) {
+        LOG.debug("File Source Enumerator adds splits back: {}", splits);
+        if (splitAssigner == null) {
+            // can not happen as splits are only added back after they have been assigned
+            createSplitAssigner(null);
+        }
+        splitAssigner.addSplits(splits);
+    }
+
+    @Override
+    public PendingSplitsCheckpoint<FileSourceSplit> snapshotState(long checkpointId) {
+        if (splitAssigner == null) {
+            // the restored enumerator does not filter, so all the splits must be in the snapshot
+            createSplitAssigner(null);
+        }
+        return PendingSplitsCheckpoint.fromCollectionSnapshot(splitAssigner.remainingSplits());
+    }
+}
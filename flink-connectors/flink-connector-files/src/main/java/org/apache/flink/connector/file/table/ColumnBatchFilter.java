@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.table;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.table.data.columnar.vector.VectorizedColumnBatch;
+
+import java.io.Serializable;
+
+/**
+ * A filter which is evaluated over the {@link VectorizedColumnBatch} produced by a columnar format
+ * before its rows are handed out, so that rows which can not match are never materialized.
+ *
+ * <p>A filter only has to be conservative: it may keep rows for which the original predicate does
+ * not hold, but it must never drop a row for which the predicate is true. Created by {@link
+ * ColumnBatchFilters}.
+ */
+@Internal
+public interface ColumnBatchFilter extends Serializable {
+
+    /**
+     * Narrows down the given selection vector to the rows that pass this filter.
+     *
+     * @param batch the batch to evaluate.
+     * @param selected the ascending ids of the currently selected rows of the batch, which are
+     *     overwritten with the ids of the rows that pass this filter.
+     * @param numSelected the number of valid entries in {@code selected}.
+     * @return the number of rows that pass this filter.
+     */
+    int filter(VectorizedColumnBatch batch, int[] selected, int numSelected);
+
+    /**
+     * Returns the instance of this filter that is used by a single reader. Filters which keep
+     * buffers between batches return a new instance, so that readers do not share their buffers.
+     */
+    default ColumnBatchFilter forReader() {
+        return this;
+    }
+}
@@ -0,0 +1,592 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.table;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.table.data.columnar.vector.ByteColumnVector;
+import org.apache.flink.table.data.columnar.vector.BytesColumnVector;
+import org.apache.flink.table.data.columnar.vector.ColumnVector;
+import org.apache.flink.table.data.columnar.vector.DoubleColumnVector;
+import org.apache.flink.table.data.columnar.vector.FloatColumnVector;
+import org.apache.flink.table.data.columnar.vector.IntColumnVector;
+import org.apache.flink.table.data.columnar.vector.LongColumnVector;
+import org.apache.flink.table.data.columnar.vector.ShortColumnVector;
+import org.apache.flink.table.data.columnar.vector.VectorizedColumnBatch;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class that converts the filters pushed into a columnar format into {@link
+ * ColumnBatchFilter}s, which are evaluated as loops over the {@link ColumnVector}s of a batch.
+ *
+ * <p>Supported are comparisons between a column and a literal of integral, date, floating point
+ * and string columns, {@code IS [NOT] NULL}, {@code NOT}, {@code AND} and {@code OR}. Unsupported
+ * parts of a conjunction are skipped, which is safe because the planner still evaluates all pushed
+ * filters on the produced rows.
+ */
+@Internal
+public class ColumnBatchFilters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ColumnBatchFilters.class);
+
+    /**
+     * Creates a {@link ColumnBatchFilter} for the given conjunctive filters on batches of the given
+     * row type. Returns null if none of the filters can be evaluated on column batches.
+     */
+    @Nullable
+    public static ColumnBatchFilter create(List<ResolvedExpression> filters, RowType rowType) {
+        List<ColumnBatchFilter> converted = new ArrayList<>();
+        for (ResolvedExpression filter : filters) {
+            ColumnBatchFilter batchFilter = convert(filter, rowType, false);
+            if (batchFilter != null) {
+                converted.add(batchFilter);
+            } else {
+                LOG.debug(
+                        "Unsupported predicate [{}] cannot be evaluated on column batches.",
+                        filter);
+            }
+        }
+        return and(converted);
+    }
+
+    /**
+     * Converts the given expression, or its negation if {@code negated} is set. Negations are
+     * pushed down to the leaves, so that the three-valued logic of SQL is preserved: a leaf never
+     * selects a row whose column is null.
+     */
+    @Nullable
+    private static ColumnBatchFilter convert(
+            ResolvedExpression expression, RowType rowType, boolean negated) {
+        if (!(expression instanceof CallExpression)) {
+            return null;
+        }
+        CallExpression call = (CallExpression) expression;
+        FunctionDefinition function = call.getFunctionDefinition();
+        List<ResolvedExpression> children = call.getResolvedChildren();
+
+        if (function == BuiltInFunctionDefinitions.AND) {
+            return negated
+                    ? convertDisjunction(children, rowType, true)
+                    : convertConjunction(children, rowType, false);
+        } else if (function == BuiltInFunctionDefinitions.OR) {
+            return negated
+                    ? convertConjunction(children, rowType, true)
+                    : convertDisjunction(children, rowType, false);
+        } else if (function == BuiltInFunctionDefinitions.NOT) {
+            return children.size() == 1 ? convert(children.get(0), rowType, !negated) : null;
+        } else if (function == BuiltInFunctionDefinitions.IS_NULL) {
+            return convertIsNull(children, rowType, negated);
+        } else if (function == BuiltInFunctionDefinitions.IS_NOT_NULL) {
+            return convertIsNull(children, rowType, !negated);
+        }
+
+        Comparison comparison = Comparison.of(function);
+        return comparison == null
+                ? null
+                : convertComparison(comparison, children, rowType, negated);
+    }
+
+    /** A conjunction can skip the children which can not be converted. */
+    @Nullable
+    private static ColumnBatchFilter convertConjunction(
+            List<ResolvedExpression> children, RowType rowType, boolean negated) {
+        List<ColumnBatchFilter> converted = new ArrayList<>();
+        for (ResolvedExpression child : children) {
+            ColumnBatchFilter filter = convert(child, rowType, negated);
+            if (filter != null) {
+                converted.add(filter);
+            }
+        }
+        return and(converted);
+    }
+
+    /** A disjunction can only be converted if all of its children can be converted. */
+    @Nullable
+    private static ColumnBatchFilter convertDisjunction(
+            List<ResolvedExpression> children, RowType rowType, boolean negated) {
+        List<ColumnBatchFilter> converted = new ArrayList<>();
+        for (ResolvedExpression child : children) {
+            ColumnBatchFilter filter = convert(child, rowType, negated);
+            if (filter == null) {
+                return null;
+            }
+            converted.add(filter);
+        }
+        if (converted.isEmpty()) {
+            return null;
+        }
+        return converted.size() == 1
+                ? converted.get(0)
+                : new OrFilter(converted.toArray(new ColumnBatchFilter[0]));
+    }
+
+    @Nullable
+    private static ColumnBatchFilter and(List<ColumnBatchFilter> filters) {
+        if (filters.isEmpty()) {
+            return null;
+        }
+        return filters.size() == 1
+                ? filters.get(0)
+                : new AndFilter(filters.toArray(new ColumnBatchFilter[0]));
+    }
+
+    @Nullable
+    private static ColumnBatchFilter convertIsNull(
+            List<ResolvedExpression> children, RowType rowType, boolean negated) {
+        if (children.size() != 1 || !(children.get(0) instanceof FieldReferenceExpression)) {
+            return null;
+        }
+        int index = rowType.getFieldIndex(((FieldReferenceExpression) children.get(0)).getName());
+        return index < 0 ? null : new IsNullFilter(index, negated);
+    }
+
+    @Nullable
+    private static ColumnBatchFilter convertComparison(
+            Comparison comparison,
+            List<ResolvedExpression> children,
+            RowType rowType,
+            boolean negated) {
+        if (children.size() != 2) {
+            return null;
+        }
+
+        FieldReferenceExpression reference;
+        ValueLiteralExpression literal;
+        if (children.get(0) instanceof FieldReferenceExpression
+                && children.get(1) instanceof ValueLiteralExpression) {
+            reference = (FieldReferenceExpression) children.get(0);
+            literal = (ValueLiteralExpression) children.get(1);
+        } else if (children.get(0) instanceof ValueLiteralExpression
+                && children.get(1) instanceof FieldReferenceExpression) {
+            reference = (FieldReferenceExpression) children.get(1);
+            literal = (ValueLiteralExpression) children.get(0);
+            comparison = comparison.reverse();
+        } else {
+            return null;
+        }
+
+        int index = rowType.getFieldIndex(reference.getName());
+        if (index < 0) {
+            return null;
+        }
+
+        final Comparison finalComparison = comparison;
+        LogicalTypeRoot typeRoot = rowType.getTypeAt(index).getTypeRoot();
+        switch (typeRoot) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                return literal.getValueAs(Number.class)
+                        .filter(ColumnBatchFilters::isIntegral)
+                        .map(
+                                value ->
+                                        (ColumnBatchFilter)
+                                                new IntegralComparisonFilter(
+                                                        index,
+                                                        negated,
+                                                        typeRoot,
+                                                        finalComparison,
+                                                        value.longValue()))
+                        .orElse(null);
+            case DATE:
+                return literal.getValueAs(LocalDate.class)
+                        .map(
+                                value ->
+                                        (ColumnBatchFilter)
+                                                new IntegralComparisonFilter(
+                                                        index,
+                                                        negated,
+                                                        typeRoot,
+                                                        finalComparison,
+                                                        value.toEpochDay()))
+                        .orElse(null);
+            case FLOAT:
+            case DOUBLE:
+                return literal.getValueAs(Number.class)
+                        .filter(value -> !(value instanceof BigDecimal))
+                        .map(
+                                value ->
+                                        (ColumnBatchFilter)
+                                                new FloatingPointComparisonFilter(
+                                                        index,
+                                                        negated,
+                                                        typeRoot,
+                                                        finalComparison,
+                                                        value.doubleValue()))
+                        .orElse(null);
+            case VARCHAR:
+                return literal.getValueAs(String.class)
+                        .map(
+                                value ->
+                                        (ColumnBatchFilter)
+                                                new StringComparisonFilter(
+                                                        index,
+                                                        negated,
+                                                        finalComparison,
+                                                        value.getBytes(StandardCharsets.UTF_8)))
+                        .orElse(null);
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Byte
+                || value instanceof Short
+                || value instanceof Integer
+                || value instanceof Long;
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    /** Comparison operators between a column and a literal. */
+    private enum Comparison {
+        EQUALS,
+        NOT_EQUALS,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL;
+
+        @Nullable
+        static Comparison of(FunctionDefinition function) {
+            if (function == BuiltInFunctionDefinitions.EQUALS) {
+                return EQUALS;
+            } else if (function == BuiltInFunctionDefinitions.NOT_EQUALS) {
+                return NOT_EQUALS;
+            } else if (function == BuiltInFunctionDefinitions.GREATER_THAN) {
+                return GREATER_THAN;
+            } else if (function == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL) {
+                return GREATER_THAN_OR_EQUAL;
+            } else if (function == BuiltInFunctionDefinitions.LESS_THAN) {
+                return LESS_THAN;
+            } else if (function == BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL) {
+                return LESS_THAN_OR_EQUAL;
+            }
+            return null;
+        }
+
+        /** Returns the comparison with swapped operands. */
+        Comparison reverse() {
+            switch (this) {
+                case GREATER_THAN:
+                    return LESS_THAN;
+                case GREATER_THAN_OR_EQUAL:
+                    return LESS_THAN_OR_EQUAL;
+                case LESS_THAN:
+                    return GREATER_THAN;
+                case LESS_THAN_OR_EQUAL:
+                    return GREATER_THAN_OR_EQUAL;
+                default:
+                    return this;
+            }
+        }
+
+        boolean test(int compareResult) {
+            switch (this) {
+                case EQUALS:
+                    return compareResult == 0;
+                case NOT_EQUALS:
+                    return compareResult != 0;
+                case GREATER_THAN:
+                    return compareResult > 0;
+                case GREATER_THAN_OR_EQUAL:
+                    return compareResult >= 0;
+                case LESS_THAN:
+                    return compareResult < 0;
+                case LESS_THAN_OR_EQUAL:
+                    return compareResult <= 0;
+                default:
+                    throw new IllegalStateException("Unknown comparison " + this);
+            }
+        }
+    }
+
+    /** Conjunction of filters, each filter only evaluates the rows selected by the previous one. */
+    private static class AndFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnBatchFilter[] filters;
+
+        private AndFilter(ColumnBatchFilter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            for (ColumnBatchFilter filter : filters) {
+                if (numSelected == 0) {
+                    break;
+                }
+                numSelected = filter.filter(batch, selected, numSelected);
+            }
+            return numSelected;
+        }
+
+        @Override
+        public ColumnBatchFilter forReader() {
+            return new AndFilter(instancesForReader(filters));
+        }
+    }
+
+    /**
+     * Disjunction of filters, each filter evaluates the rows selected before this filter. The
+     * buffers for the rows matched so far are kept between the batches of a reader.
+     */
+    private static class OrFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnBatchFilter[] filters;
+
+        /** Whether a row of the batch is matched by any filter, all false between batches. */
+        private transient boolean[] matched;
+
+        /** The rows that are evaluated by the current filter. */
+        private transient int[] candidates;
+
+        private OrFilter(ColumnBatchFilter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            if (numSelected == 0) {
+                return 0;
+            }
+
+            int maxRow = selected[numSelected - 1];
+            if (matched == null || matched.length <= maxRow) {
+                matched = new boolean[maxRow + 1];
+            }
+            if (candidates == null || candidates.length < numSelected) {
+                candidates = new int[numSelected];
+            }
+            for (ColumnBatchFilter filter : filters) {
+                System.arraycopy(selected, 0, candidates, 0, numSelected);
+                int numMatched = filter.filter(batch, candidates, numSelected);
+                for (int i = 0; i < numMatched; i++) {
+                    matched[candidates[i]] = true;
+                }
+            }
+
+            int n = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selected[i];
+                if (matched[row]) {
+                    // reset the flag for the next batch
+                    matched[row] = false;
+                    selected[n++] = row;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public ColumnBatchFilter forReader() {
+            return new OrFilter(instancesForReader(filters));
+        }
+    }
+
+    private static ColumnBatchFilter[] instancesForReader(ColumnBatchFilter[] filters) {
+        ColumnBatchFilter[] instances = new ColumnBatchFilter[filters.length];
+        for (int i = 0; i < filters.length; i++) {
+            instances[i] = filters[i].forReader();
+        }
+        return instances;
+    }
+
+    /** Selects the rows whose column is null, or not null if negated. */
+    private static class IsNullFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final boolean negated;
+
+        private IsNullFilter(int index, boolean negated) {
+            this.index = index;
+            this.negated = negated;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            ColumnVector vector = batch.columns[index];
+            int n = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selected[i];
+                if (vector.isNullAt(row) != negated) {
+                    selected[n++] = row;
+                }
+            }
+            return n;
+        }
+    }
+
+    /** Base class of the comparisons, which never select a row whose column is null. */
+    private abstract static class ComparisonFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final boolean negated;
+        protected final Comparison comparison;
+
+        private ComparisonFilter(int index, boolean negated, Comparison comparison) {
+            this.index = index;
+            this.negated = negated;
+            this.comparison = comparison;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            ColumnVector vector = batch.columns[index];
+            int n = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selected[i];
+                if (!vector.isNullAt(row) && test(vector, row) != negated) {
+                    selected[n++] = row;
+                }
+            }
+            return n;
+        }
+
+        protected abstract boolean test(ColumnVector vector, int row);
+    }
+
+    private static class IntegralComparisonFilter extends ComparisonFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LogicalTypeRoot typeRoot;
+        private final long literal;
+
+        private IntegralComparisonFilter(
+                int index,
+                boolean negated,
+                LogicalTypeRoot typeRoot,
+                Comparison comparison,
+                long literal) {
+            super(index, negated, comparison);
+            this.typeRoot = typeRoot;
+            this.literal = literal;
+        }
+
+        @Override
+        protected boolean test(ColumnVector vector, int row) {
+            final long value;
+            switch (typeRoot) {
+                case TINYINT:
+                    value = ((ByteColumnVector) vector).getByte(row);
+                    break;
+                case SMALLINT:
+                    value = ((ShortColumnVector) vector).getShort(row);
+                    break;
+                case INTEGER:
+                case DATE:
+                    value = ((IntColumnVector) vector).getInt(row);
+                    break;
+                case BIGINT:
+                    value = ((LongColumnVector) vector).getLong(row);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported type " + typeRoot);
+            }
+            return comparison.test(Long.compare(value, literal));
+        }
+    }
+
+    /** Compares like the generated code does, so that NaN is only unequal to any value. */
+    private static class FloatingPointComparisonFilter extends ComparisonFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LogicalTypeRoot typeRoot;
+        private final double literal;
+
+        private FloatingPointComparisonFilter(
+                int index,
+                boolean negated,
+                LogicalTypeRoot typeRoot,
+                Comparison comparison,
+                double literal) {
+            super(index, negated, comparison);
+            this.typeRoot = typeRoot;
+            this.literal = literal;
+        }
+
+        @Override
+        protected boolean test(ColumnVector vector, int row) {
+            final double value =
+                    typeRoot == LogicalTypeRoot.FLOAT
+                            ? ((FloatColumnVector) vector).getFloat(row)
+                            : ((DoubleColumnVector) vector).getDouble(row);
+            if (Double.isNaN(value) || Double.isNaN(literal)) {
+                return comparison == Comparison.NOT_EQUALS;
+            }
+            return comparison.test(value < literal ? -1 : (value > literal ? 1 : 0));
+        }
+    }
+
+    /** Compares the UTF-8 bytes in the same order as {@code BinaryStringData#compareTo}. */
+    private static class StringComparisonFilter extends ComparisonFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] literal;
+
+        private StringComparisonFilter(
+                int index, boolean negated, Comparison comparison, byte[] literal) {
+            super(index, negated, comparison);
+            this.literal = literal;
+        }
+
+        @Override
+        protected boolean test(ColumnVector vector, int row) {
+            BytesColumnVector.Bytes bytes = ((BytesColumnVector) vector).getBytes(row);
+            int len = Math.min(bytes.len, literal.length);
+            for (int i = 0; i < len; i++) {
+                int res = (bytes.data[bytes.offset + i] & 0xFF) - (literal[i] & 0xFF);
+                if (res != 0) {
+                    return comparison.test(res);
+                }
+            }
+            return comparison.test(bytes.len - literal.length);
+        }
+    }
+}
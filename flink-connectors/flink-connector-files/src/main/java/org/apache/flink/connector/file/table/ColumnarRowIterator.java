@@ -26,12 +26,18 @@ import org.apache.flink.connector.file.src.util.RecordAndPosition;
 import org.apache.flink.connector.file.src.util.RecyclableIterator;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.columnar.ColumnarRowData;
+import org.apache.flink.table.data.columnar.vector.VectorizedColumnBatch;
 
 import javax.annotation.Nullable;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
+
 /**
  * A {@link BulkFormat.RecordIterator} that returns {@link RowData}s. The next row is set by {@link
  * ColumnarRowData#setRowId}.
+ *
+ * <p>If a {@link ColumnBatchFilter} is given, it is evaluated over the whole batch first and only
+ * the selected rows are returned.
  */
 @Internal
 public class ColumnarRowIterator extends RecyclableIterator<RowData> {
@@ -39,13 +45,36 @@ public class ColumnarRowIterator extends RecyclableIterator<RowData> {
     private final ColumnarRowData rowData;
     private final MutableRecordAndPosition<RowData> recordAndPosition;
 
+    @Nullable private final VectorizedColumnBatch batch;
+    @Nullable private final ColumnBatchFilter filter;
+
+    private int[] selected;
+    private long offset;
+    private long recordSkipCount;
+
     private int num;
     private int pos;
 
     public ColumnarRowIterator(ColumnarRowData rowData, @Nullable Runnable recycler) {
+        this(rowData, null, null, recycler);
+    }
+
+    /**
+     * @param batch the batch which backs the given row, must be set if a filter is given.
+     * @param filter the filter to evaluate over each batch, or null to return all rows.
+     */
+    public ColumnarRowIterator(
+            ColumnarRowData rowData,
+            @Nullable VectorizedColumnBatch batch,
+            @Nullable ColumnBatchFilter filter,
+            @Nullable Runnable recycler) {
         super(recycler);
+        checkArgument(filter == null || batch != null, "A filter requires the column batch.");
         this.rowData = rowData;
         this.recordAndPosition = new MutableRecordAndPosition<>();
+        this.batch = batch;
+        this.filter = filter == null ? null : filter.forReader();
+        this.selected = new int[0];
     }
 
     /**
@@ -58,17 +87,37 @@ public class ColumnarRowIterator extends RecyclableIterator<RowData> {
 
     /** Set number rows in this batch and updates the position. */
     public void set(final int num, final long offset, final long recordSkipCount) {
-        this.num = num;
         this.pos = 0;
+        this.offset = offset;
+        this.recordSkipCount = recordSkipCount;
         this.recordAndPosition.set(null, offset, recordSkipCount);
+
+        if (filter == null) {
+            this.num = num;
+        } else {
+            if (selected.length < num) {
+                selected = new int[num];
+            }
+            for (int i = 0; i < num; i++) {
+                selected[i] = i;
+            }
+            this.num = filter.filter(batch, selected, num);
+        }
     }
 
     @Nullable
     @Override
     public RecordAndPosition<RowData> next() {
         if (pos < num) {
-            rowData.setRowId(pos++);
-            recordAndPosition.setNext(rowData);
+            if (filter == null) {
+                rowData.setRowId(pos++);
+                recordAndPosition.setNext(rowData);
+            } else {
+                // the position must still count the rows which have been filtered out
+                int rowId = selected[pos++];
+                rowData.setRowId(rowId);
+                recordAndPosition.set(rowData, offset, recordSkipCount + rowId + 1);
+            }
             return recordAndPosition;
         } else {
             return null;
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.src.impl;
+
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.assigners.SimpleSplitAssigner;
+import org.apache.flink.connector.file.src.enumerate.DynamicFileEnumerator;
+import org.apache.flink.connector.testutils.source.reader.TestingSplitEnumeratorContext;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for the {@link DynamicFileSplitEnumerator}. */
+public class DynamicFileSplitEnumeratorTest {
+
+    // this is no JUnit temporary folder, because we don't create actual files, we just
+    // need some random file path.
+    private static final File TMP_DIR = new File(System.getProperty("java.io.tmpdir"));
+
+    private static long splitId = 1L;
+
+    @Test
+    public void testEnumerateWithDynamicFilteringData() throws Exception {
+        final TestingSplitEnumeratorContext<FileSourceSplit> context =
+                new TestingSplitEnumeratorContext<>(4);
+        final FileSourceSplit split1 = createRandomSplit();
+        final FileSourceSplit split2 = createRandomSplit();
+        final DynamicFileSplitEnumerator enumerator = createEnumerator(context, split1, split2);
+
+        enumerator.handleSourceEvent(0, new DynamicFilteringEvent(createFilteringData(true)));
+
+        context.registerReader(1, "somehost");
+        enumerator.addReader(1);
+        enumerator.handleSplitRequest(1, "somehost");
+        enumerator.handleSplitRequest(1, "somehost");
+
+        assertThat(context.getSplitAssignments().get(1).getAssignedSplits(), contains(split1));
+        assertTrue(context.getSplitAssignments().get(1).hasReceivedNoMoreSplitsSignal());
+    }
+
+    @Test
+    public void testEnumerateWithNonFilteringData() throws Exception {
+        final TestingSplitEnumeratorContext<FileSourceSplit> context =
+                new TestingSplitEnumeratorContext<>(4);
+        final FileSourceSplit split1 = createRandomSplit();
+        final FileSourceSplit split2 = createRandomSplit();
+        final DynamicFileSplitEnumerator enumerator = createEnumerator(context, split1, split2);
+
+        enumerator.handleSourceEvent(0, new DynamicFilteringEvent(createFilteringData(false)));
+
+        assertThat(enumerator.snapshotState(1L).getSplits(), contains(split1, split2));
+    }
+
+    @Test
+    public void testSplitRequestBeforeDynamicFilteringData() throws Exception {
+        final TestingSplitEnumeratorContext<FileSourceSplit> context =
+                new TestingSplitEnumeratorContext<>(4);
+        final FileSourceSplit split1 = createRandomSplit();
+        final FileSourceSplit split2 = createRandomSplit();
+        final DynamicFileSplitEnumerator enumerator = createEnumerator(context, split1, split2);
+
+        context.registerReader(1, "somehost");
+        enumerator.addReader(1);
+        enumerator.handleSplitRequest(1, "somehost");
+
+        // the data arrives too late and is ignored
+        enumerator.handleSourceEvent(0, new DynamicFilteringEvent(createFilteringData(true)));
+        enumerator.handleSplitRequest(1, "somehost");
+
+        assertThat(
+                context.getSplitAssignments().get(1).getAssignedSplits(),
+                containsInAnyOrder(split1, split2));
+    }
+
+    @Test
+    public void testCheckpointBeforeEnumeration() throws Exception {
+        final TestingSplitEnumeratorContext<FileSourceSplit> context =
+                new TestingSplitEnumeratorContext<>(4);
+        final FileSourceSplit split1 = createRandomSplit();
+        final FileSourceSplit split2 = createRandomSplit();
+        final DynamicFileSplitEnumerator enumerator = createEnumerator(context, split1, split2);
+
+        assertThat(enumerator.snapshotState(1L).getSplits(), contains(split1, split2));
+    }
+
+    // ------------------------------------------------------------------------
+    //  test setup helpers
+    // ------------------------------------------------------------------------
+
+    private static FileSourceSplit createRandomSplit() {
+        return new FileSourceSplit(
+                String.valueOf(splitId++),
+                Path.fromLocalFile(new File(TMP_DIR, "foo")),
+                0L,
+                0L,
+                0L,
+                0L);
+    }
+
+    private static DynamicFilteringData createFilteringData(boolean isFiltering) {
+        return new DynamicFilteringData(
+                new GenericTypeInfo<>(RowData.class),
+                RowType.of(new IntType()),
+                Collections.emptyList(),
+                isFiltering);
+    }
+
+    private static DynamicFileSplitEnumerator createEnumerator(
+            final TestingSplitEnumeratorContext<FileSourceSplit> context,
+            final FileSourceSplit... splits) {
+        final List<FileSourceSplit> splitList = Arrays.asList(splits);
+        return new DynamicFileSplitEnumerator(
+                context,
+                () -> new TestDynamicFileEnumerator(splitList),
+                SimpleSplitAssigner::new,
+                new Path[] {Path.fromLocalFile(TMP_DIR)});
+    }
+
+    /** A {@link DynamicFileEnumerator} which only keeps the first split if the data filters. */
+    private static class TestDynamicFileEnumerator implements DynamicFileEnumerator {
+
+        private final List<FileSourceSplit> splits;
+        private boolean filtering;
+
+        private TestDynamicFileEnumerator(List<FileSourceSplit> splits) {
+            this.splits = splits;
+        }
+
+        @Override
+        public void setDynamicFilteringData(DynamicFilteringData data) {
+            filtering = data.isFiltering();
+        }
+
+        @Override
+        public Collection<FileSourceSplit> enumerateSplits(Path[] paths, int minDesiredSplits) {
+            return filtering ? Collections.singletonList(splits.get(0)) : new ArrayList<>(splits);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.table;
+
+import org.apache.flink.connector.file.src.util.CheckpointedPosition;
+import org.apache.flink.connector.file.src.util.RecordAndPosition;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.columnar.ColumnarRowData;
+import org.apache.flink.table.data.columnar.vector.ColumnVector;
+import org.apache.flink.table.data.columnar.vector.VectorizedColumnBatch;
+import org.apache.flink.table.data.columnar.vector.heap.HeapBytesVector;
+import org.apache.flink.table.data.columnar.vector.heap.HeapDoubleVector;
+import org.apache.flink.table.data.columnar.vector.heap.HeapIntVector;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.logical.DoubleType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link ColumnBatchFilters}. */
+class ColumnBatchFiltersTest {
+
+    private static final int NUM_ROWS = 10;
+
+    private static final RowType ROW_TYPE =
+            RowType.of(
+                    new LogicalType[] {
+                        new IntType(), new DoubleType(), new VarCharType(VarCharType.MAX_LENGTH)
+                    },
+                    new String[] {"a", "b", "c"});
+
+    private static final FieldReferenceExpression A =
+            new FieldReferenceExpression("a", DataTypes.INT(), 0, 0);
+    private static final FieldReferenceExpression B =
+            new FieldReferenceExpression("b", DataTypes.DOUBLE(), 0, 1);
+    private static final FieldReferenceExpression C =
+            new FieldReferenceExpression("c", DataTypes.STRING(), 0, 2);
+
+    private VectorizedColumnBatch batch;
+
+    /** Column a is i with a null in row 3, b is i with NaN in row 5 and c is "s" + i. */
+    @BeforeEach
+    void before() {
+        HeapIntVector a = new HeapIntVector(NUM_ROWS);
+        HeapDoubleVector b = new HeapDoubleVector(NUM_ROWS);
+        HeapBytesVector c = new HeapBytesVector(NUM_ROWS);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            a.vector[i] = i;
+            b.vector[i] = i == 5 ? Double.NaN : i;
+            byte[] bytes = ("s" + i).getBytes(StandardCharsets.UTF_8);
+            c.appendBytes(i, bytes, 0, bytes.length);
+        }
+        a.setNullAt(3);
+        batch = new VectorizedColumnBatch(new ColumnVector[] {a, b, c});
+        batch.setNumRows(NUM_ROWS);
+    }
+
+    @Test
+    void testComparisons() {
+        assertThat(select(call(BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL, A, literal(5))))
+                .containsExactly(5, 6, 7, 8, 9);
+        assertThat(select(call(BuiltInFunctionDefinitions.LESS_THAN, literal(5), A)))
+                .containsExactly(6, 7, 8, 9);
+        assertThat(select(call(BuiltInFunctionDefinitions.NOT_EQUALS, A, literal(1L))))
+                .containsExactly(0, 2, 4, 5, 6, 7, 8, 9);
+        assertThat(select(call(BuiltInFunctionDefinitions.EQUALS, C, literal("s7"))))
+                .containsExactly(7);
+        assertThat(select(call(BuiltInFunctionDefinitions.GREATER_THAN, C, literal("s"))))
+                .hasSize(NUM_ROWS);
+    }
+
+    @Test
+    void testNullsAreNeverSelectedByComparisons() {
+        assertThat(select(call(BuiltInFunctionDefinitions.IS_NULL, A))).containsExactly(3);
+        assertThat(select(call(BuiltInFunctionDefinitions.IS_NOT_NULL, A)))
+                .containsExactly(0, 1, 2, 4, 5, 6, 7, 8, 9);
+        assertThat(
+                        select(
+                                call(
+                                        BuiltInFunctionDefinitions.NOT,
+                                        call(BuiltInFunctionDefinitions.LESS_THAN, A, literal(5)))))
+                .containsExactly(5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void testNaN() {
+        assertThat(select(call(BuiltInFunctionDefinitions.GREATER_THAN, B, literal(4.0))))
+                .containsExactly(6, 7, 8, 9);
+        assertThat(select(call(BuiltInFunctionDefinitions.NOT_EQUALS, B, literal(1.0))))
+                .containsExactly(0, 2, 3, 4, 5, 6, 7, 8, 9);
+        ResolvedExpression lessThan = call(BuiltInFunctionDefinitions.LESS_THAN, B, literal(4.0));
+        assertThat(select(call(BuiltInFunctionDefinitions.NOT, lessThan)))
+                .containsExactly(4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void testConjunctionsAndDisjunctions() {
+        assertThat(
+                        select(
+                                call(
+                                        BuiltInFunctionDefinitions.OR,
+                                        call(BuiltInFunctionDefinitions.EQUALS, A, literal(1)),
+                                        call(BuiltInFunctionDefinitions.EQUALS, C, literal("s8")))))
+                .containsExactly(1, 8);
+        assertThat(
+                        select(
+                                call(BuiltInFunctionDefinitions.GREATER_THAN, A, literal(1)),
+                                call(BuiltInFunctionDefinitions.LESS_THAN, B, literal(4.0))))
+                .containsExactly(2);
+        // NOT (a < 2 OR a > 7) is a >= 2 AND a <= 7
+        assertThat(
+                        select(
+                                call(
+                                        BuiltInFunctionDefinitions.NOT,
+                                        call(
+                                                BuiltInFunctionDefinitions.OR,
+                                                call(
+                                                        BuiltInFunctionDefinitions.LESS_THAN,
+                                                        A,
+                                                        literal(2)),
+                                                call(
+                                                        BuiltInFunctionDefinitions.GREATER_THAN,
+                                                        A,
+                                                        literal(7))))))
+                .containsExactly(2, 4, 5, 6, 7);
+    }
+
+    @Test
+    void testDisjunctionOverConsecutiveBatches() {
+        ResolvedExpression disjunction =
+                call(
+                        BuiltInFunctionDefinitions.OR,
+                        call(BuiltInFunctionDefinitions.EQUALS, A, literal(1)),
+                        call(BuiltInFunctionDefinitions.EQUALS, C, literal("s8")));
+        ColumnBatchFilter filter =
+                ColumnBatchFilters.create(Collections.singletonList(disjunction), ROW_TYPE)
+                        .forReader();
+
+        // the buffers of the reader's instance do not carry matches over to the next batch
+        assertThat(select(filter, NUM_ROWS)).containsExactly(1, 8);
+        assertThat(select(filter, 5)).containsExactly(1);
+        assertThat(select(filter, NUM_ROWS)).containsExactly(1, 8);
+    }
+
+    @Test
+    void testUnsupportedPredicates() {
+        ResolvedExpression unsupported = call(BuiltInFunctionDefinitions.EQUALS, A, B);
+        ResolvedExpression supported = call(BuiltInFunctionDefinitions.LESS_THAN, A, literal(2));
+
+        assertThat(ColumnBatchFilters.create(Collections.singletonList(unsupported), ROW_TYPE))
+                .isNull();
+        ResolvedExpression disjunction =
+                call(BuiltInFunctionDefinitions.OR, supported, unsupported);
+        assertThat(ColumnBatchFilters.create(Collections.singletonList(disjunction), ROW_TYPE))
+                .isNull();
+        // the unsupported part of a conjunction is skipped
+        assertThat(select(call(BuiltInFunctionDefinitions.AND, supported, unsupported)))
+                .containsExactly(0, 1);
+        assertThat(select(supported, unsupported)).containsExactly(0, 1);
+    }
+
+    @Test
+    void testIteratorPositionCountsFilteredRows() {
+        ColumnBatchFilter filter =
+                ColumnBatchFilters.create(
+                        Collections.singletonList(
+                                call(BuiltInFunctionDefinitions.GREATER_THAN, A, literal(6))),
+                        ROW_TYPE);
+        ColumnarRowIterator iterator =
+                new ColumnarRowIterator(new ColumnarRowData(batch), batch, filter, null);
+        iterator.set(NUM_ROWS, CheckpointedPosition.NO_OFFSET, 100);
+
+        List<Long> skipCounts = new ArrayList<>();
+        RecordAndPosition<RowData> record;
+        while ((record = iterator.next()) != null) {
+            assertThat(record.getRecord().getInt(0)).isEqualTo(skipCounts.size() + 7);
+            skipCounts.add(record.getRecordSkipCount());
+        }
+        assertThat(skipCounts).containsExactly(108L, 109L, 110L);
+    }
+
+    private List<Integer> select(ResolvedExpression... filters) {
+        ColumnBatchFilter filter = ColumnBatchFilters.create(Arrays.asList(filters), ROW_TYPE);
+        assertThat(filter).isNotNull();
+        return select(filter, NUM_ROWS);
+    }
+
+    /** Evaluates the filter over the first rows of the batch. */
+    private List<Integer> select(ColumnBatchFilter filter, int numRows) {
+        int[] selected = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+            selected[i] = i;
+        }
+        int numSelected = filter.filter(batch, selected, numRows);
+
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < numSelected; i++) {
+            result.add(selected[i]);
+        }
+        return result;
+    }
+
+    private static CallExpression call(FunctionDefinition function, ResolvedExpression... args) {
+        return CallExpression.anonymous(function, Arrays.asList(args), DataTypes.BOOLEAN());
+    }
+
+    private static ValueLiteralExpression literal(Object value) {
+        return new ValueLiteralExpression(value);
+    }
+}
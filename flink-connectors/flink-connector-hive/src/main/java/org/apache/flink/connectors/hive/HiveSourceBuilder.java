@@ -24,6 +24,7 @@ import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.connector.file.src.ContinuousEnumerationSettings;
 import org.apache.flink.connector.file.src.assigners.FileSplitAssigner;
 import org.apache.flink.connector.file.src.assigners.SimpleSplitAssigner;
+import org.apache.flink.connector.file.src.enumerate.FileEnumerator;
 import org.apache.flink.connector.file.src.reader.BulkFormat;
 import org.apache.flink.connector.file.table.ContinuousPartitionFetcher;
 import org.apache.flink.connector.file.table.LimitableBulkFormat;
@@ -91,6 +92,7 @@ public class HiveSourceBuilder {
     private int[] projectedFields;
     private Long limit;
     private List<HiveTablePartition> partitions;
+    private List<String> dynamicFilterPartitionKeys;
 
     /**
      * Creates a builder to read a hive table.
@@ -179,6 +181,9 @@ public class HiveSourceBuilder {
         if (isStreamingSource()) {
             Preconditions.checkState(
                     partitions == null, "setPartitions shouldn't be called in streaming mode");
+            Preconditions.checkState(
+                    dynamicFilterPartitionKeys == null,
+                    "setDynamicFilterPartitionKeys shouldn't be called in streaming mode");
             if (partitionKeys.isEmpty()) {
                 HiveOptions.PartitionOrder partitionOrder =
                         configuration.get(STREAMING_SOURCE_PARTITION_ORDER);
@@ -233,12 +238,22 @@ public class HiveSourceBuilder {
                 continuousSourceSettings == null || partitionKeys.isEmpty()
                         ? DEFAULT_SPLIT_ASSIGNER
                         : SimpleSplitAssigner::new;
+        FileEnumerator.Provider fileEnumerator =
+                dynamicFilterPartitionKeys != null
+                        ? new HiveSourceDynamicFileEnumerator.Provider(
+                                tablePath.getFullName(),
+                                dynamicFilterPartitionKeys,
+                                partitions,
+                                hiveVersion,
+                                threadNum,
+                                new JobConfWrapper(jobConf))
+                        : new HiveSourceFileEnumerator.Provider(
+                                partitions != null ? partitions : Collections.emptyList(),
+                                threadNum,
+                                new JobConfWrapper(jobConf));
         return new HiveSource<>(
                 new Path[1],
-                new HiveSourceFileEnumerator.Provider(
-                        partitions != null ? partitions : Collections.emptyList(),
-                        threadNum,
-                        new JobConfWrapper(jobConf)),
+                fileEnumerator,
                 splitAssigner,
                 bulkFormat,
                 continuousSourceSettings,
@@ -259,6 +274,17 @@ public class HiveSourceBuilder {
         return this;
     }
 
+    /**
+     * Sets the partition keys used for dynamic filtering in batch mode. If set, the partitions are
+     * pruned with the {@link org.apache.flink.table.connector.source.DynamicFilteringData} received
+     * at runtime before the splits are enumerated.
+     */
+    public HiveSourceBuilder setDynamicFilterPartitionKeys(
+            List<String> dynamicFilterPartitionKeys) {
+        this.dynamicFilterPartitionKeys = dynamicFilterPartitionKeys;
+        return this;
+    }
+
     /** Sets the maximum number of records this source should return. */
     public HiveSourceBuilder setLimit(Long limit) {
         this.limit = limit;
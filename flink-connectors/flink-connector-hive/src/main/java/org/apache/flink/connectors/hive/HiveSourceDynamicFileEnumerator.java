@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connectors.hive;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.enumerate.DynamicFileEnumerator;
+import org.apache.flink.connectors.hive.util.HivePartitionUtils;
+import org.apache.flink.connectors.hive.util.JobConfUtils;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.table.catalog.hive.client.HiveShim;
+import org.apache.flink.table.catalog.hive.client.HiveShimLoader;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.util.DataFormatConverters;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.utils.TypeConversions;
+
+import org.apache.hadoop.mapred.JobConf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link DynamicFileEnumerator} implementation for hive source. It generates splits only for
+ * the {@link HiveTablePartition}s whose values of the dynamic filter partition keys are contained
+ * in the {@link DynamicFilteringData}.
+ */
+public class HiveSourceDynamicFileEnumerator implements DynamicFileEnumerator {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(HiveSourceDynamicFileEnumerator.class);
+
+    private final String table;
+    private final List<String> dynamicFilterPartitionKeys;
+    // For non-partition hive table, partitions only contains one partition which partitionValues is
+    // empty.
+    private final List<HiveTablePartition> allPartitions;
+    private final int threadNum;
+    private final JobConf jobConf;
+    private final HiveShim hiveShim;
+    private final String defaultPartitionName;
+
+    private List<HiveTablePartition> finalPartitions;
+
+    public HiveSourceDynamicFileEnumerator(
+            String table,
+            List<String> dynamicFilterPartitionKeys,
+            List<HiveTablePartition> allPartitions,
+            String hiveVersion,
+            int threadNum,
+            JobConf jobConf) {
+        this.table = checkNotNull(table);
+        this.dynamicFilterPartitionKeys = checkNotNull(dynamicFilterPartitionKeys);
+        this.allPartitions = checkNotNull(allPartitions);
+        this.threadNum = threadNum;
+        this.jobConf = checkNotNull(jobConf);
+        this.hiveShim = HiveShimLoader.loadHiveShim(hiveVersion);
+        this.defaultPartitionName = JobConfUtils.getDefaultPartitionName(jobConf);
+        this.finalPartitions = this.allPartitions;
+    }
+
+    @Override
+    public void setDynamicFilteringData(DynamicFilteringData data) {
+        LOG.debug("Filtering partitions of table {} based on the data: {}", table, data);
+        if (!data.isFiltering()) {
+            finalPartitions = allPartitions;
+            return;
+        }
+
+        RowType rowType = data.getRowType();
+        checkArgument(
+                rowType.getFieldCount() == dynamicFilterPartitionKeys.size(),
+                "The dynamic filtering data does not match the dynamic filter partition keys.");
+        finalPartitions = new ArrayList<>();
+        for (HiveTablePartition partition : allPartitions) {
+            RowData partitionRow = createRowData(rowType, partition);
+            if (partitionRow == null || data.contains(partitionRow)) {
+                finalPartitions.add(partition);
+            }
+        }
+        LOG.info(
+                "Dynamic filtering table {}, original partition number is {}, "
+                        + "remaining partition number {}",
+                table,
+                allPartitions.size(),
+                finalPartitions.size());
+    }
+
+    /**
+     * Returns the row of the values of the dynamic filter partition keys of the partition, or null
+     * if the values can not be converted, in which case the partition must be kept.
+     */
+    @Nullable
+    private RowData createRowData(RowType rowType, HiveTablePartition partition) {
+        GenericRowData rowData = new GenericRowData(rowType.getFieldCount());
+        for (int i = 0; i < rowType.getFieldCount(); i++) {
+            String valueString =
+                    partition.getPartitionSpec().get(dynamicFilterPartitionKeys.get(i));
+            LogicalType type = rowType.getTypeAt(i);
+            try {
+                Object value =
+                        HivePartitionUtils.restorePartitionValueFromType(
+                                hiveShim, valueString, type, defaultPartitionName);
+                rowData.setField(
+                        i,
+                        DataFormatConverters.getConverterForDataType(
+                                        TypeConversions.fromLogicalToDataType(type))
+                                .toInternal(value));
+            } catch (Exception e) {
+                LOG.warn(
+                        "Can not convert the value {} of partition key {} to type {}, "
+                                + "the partition is not filtered.",
+                        valueString,
+                        dynamicFilterPartitionKeys.get(i),
+                        type,
+                        e);
+                return null;
+            }
+        }
+        return rowData;
+    }
+
+    @Override
+    public Collection<FileSourceSplit> enumerateSplits(Path[] paths, int minDesiredSplits)
+            throws IOException {
+        return new ArrayList<>(
+                HiveSourceFileEnumerator.createInputSplits(
+                        minDesiredSplits, finalPartitions, threadNum, jobConf));
+    }
+
+    @VisibleForTesting
+    List<HiveTablePartition> getFinalPartitions() {
+        return finalPartitions;
+    }
+
+    /** A factory to create {@link HiveSourceDynamicFileEnumerator}. */
+    public static class Provider implements DynamicFileEnumerator.Provider {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String table;
+        private final List<String> dynamicFilterPartitionKeys;
+        private final List<HiveTablePartition> partitions;
+        private final String hiveVersion;
+        private final int threadNum;
+        private final JobConfWrapper jobConfWrapper;
+
+        public Provider(
+                String table,
+                List<String> dynamicFilterPartitionKeys,
+                List<HiveTablePartition> partitions,
+                String hiveVersion,
+                int threadNum,
+                JobConfWrapper jobConfWrapper) {
+            this.table = checkNotNull(table);
+            this.dynamicFilterPartitionKeys = checkNotNull(dynamicFilterPartitionKeys);
+            this.partitions = checkNotNull(partitions);
+            this.hiveVersion = checkNotNull(hiveVersion);
+            this.threadNum = threadNum;
+            this.jobConfWrapper = checkNotNull(jobConfWrapper);
+        }
+
+        @Override
+        public DynamicFileEnumerator create() {
+            return new HiveSourceDynamicFileEnumerator(
+                    table,
+                    dynamicFilterPartitionKeys,
+                    partitions,
+                    hiveVersion,
+                    threadNum,
+                    jobConfWrapper.conf());
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.apache.flink.table.connector.ProviderContext;
 import org.apache.flink.table.connector.source.DataStreamScanProvider;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.ScanTableSource;
+import org.apache.flink.table.connector.source.abilities.SupportsDynamicFiltering;
 import org.apache.flink.table.connector.source.abilities.SupportsLimitPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsPartitionPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsProjectionPushDown;
@@ -61,6 +62,7 @@ import javax.annotation.Nullable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -75,7 +77,8 @@ public class HiveTableSource
         implements ScanTableSource,
                 SupportsPartitionPushDown,
                 SupportsProjectionPushDown,
-                SupportsLimitPushDown {
+                SupportsLimitPushDown,
+                SupportsDynamicFiltering {
 
     private static final String HIVE_TRANSFORMATION = "hive";
 
@@ -91,6 +94,8 @@ public class HiveTableSource
     @Nullable private List<Map<String, String>> remainingPartitions = null;
     protected int[] projectedFields;
     private Long limit = null;
+    // The partition keys used for dynamic filtering. Null if dynamic filtering is not applied.
+    @Nullable private List<String> dynamicFilterPartitionKeys = null;
 
     public HiveTableSource(
             JobConf jobConf,
@@ -166,6 +171,7 @@ public class HiveTableSource
                             execEnv,
                             sourceBuilder
                                     .setPartitions(hivePartitionsToRead)
+                                    .setDynamicFilterPartitionKeys(dynamicFilterPartitionKeys)
                                     .buildWithDefaultBulkFormat())
                     .setParallelism(parallelism);
         }
@@ -232,6 +238,26 @@ public class HiveTableSource
         }
     }
 
+    @Override
+    public List<String> listAcceptedFilterFields() {
+        // dynamic filtering only applies to bounded reads, and only prunes partitions
+        return isStreamingSource() ? Collections.emptyList() : catalogTable.getPartitionKeys();
+    }
+
+    @Override
+    public void applyDynamicFiltering(List<String> candidateFilterFields) {
+        if (isStreamingSource()) {
+            throw new UnsupportedOperationException(
+                    "Should not apply dynamic filtering to a streaming source.");
+        }
+        Preconditions.checkArgument(
+                catalogTable.getPartitionKeys().containsAll(candidateFilterFields),
+                "The candidate filter fields %s must be partition keys of the table %s.",
+                candidateFilterFields,
+                tablePath);
+        this.dynamicFilterPartitionKeys = candidateFilterFields;
+    }
+
     @Override
     public boolean supportsNestedProjection() {
         return false;
@@ -258,6 +284,7 @@ public class HiveTableSource
         source.remainingPartitions = remainingPartitions;
         source.projectedFields = projectedFields;
         source.limit = limit;
+        source.dynamicFilterPartitionKeys = dynamicFilterPartitionKeys;
         return source;
     }
 
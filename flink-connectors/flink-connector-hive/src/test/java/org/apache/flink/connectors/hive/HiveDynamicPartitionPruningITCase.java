@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connectors.hive;
+
+import org.apache.flink.table.api.SqlDialect;
+import org.apache.flink.table.api.TableEnvironment;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.catalog.hive.HiveCatalog;
+import org.apache.flink.table.catalog.hive.HiveTestUtils;
+import org.apache.flink.types.Row;
+import org.apache.flink.util.CollectionUtil;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** IT case for the dynamic partition pruning of {@link HiveTableSource} in batch joins. */
+public class HiveDynamicPartitionPruningITCase {
+
+    private static HiveCatalog hiveCatalog;
+    private static TableEnvironment tableEnv;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        hiveCatalog = HiveTestUtils.createHiveCatalog();
+        hiveCatalog.open();
+        tableEnv = HiveTestUtils.createTableEnvInBatchMode(SqlDialect.HIVE);
+        tableEnv.registerCatalog(hiveCatalog.getName(), hiveCatalog);
+        tableEnv.useCatalog(hiveCatalog.getName());
+
+        tableEnv.executeSql("create database db1");
+        tableEnv.executeSql("create table db1.fact (x int, y string) partitioned by (p int)");
+        tableEnv.executeSql("create table db1.dim (k int, name string)");
+        for (int p = 1; p <= 3; p++) {
+            HiveTestUtils.createTextTableInserter(hiveCatalog, "db1", "fact")
+                    .addRow(new Object[] {p * 10, "a" + p})
+                    .addRow(new Object[] {p * 10 + 1, "b" + p})
+                    .commit("p=" + p);
+        }
+        HiveTestUtils.createTextTableInserter(hiveCatalog, "db1", "dim")
+                .addRow(new Object[] {1, "one"})
+                .addRow(new Object[] {2, "two"})
+                .addRow(new Object[] {3, "three"})
+                .commit();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (tableEnv != null) {
+            tableEnv.executeSql("drop database db1 cascade");
+        }
+        if (hiveCatalog != null) {
+            hiveCatalog.close();
+        }
+    }
+
+    @Before
+    public void before() {
+        tableEnv.getConfig().setSqlDialect(SqlDialect.DEFAULT);
+        tableEnv.getConfig()
+                .set(
+                        ExecutionConfigOptions.TABLE_EXEC_DISABLED_OPERATORS,
+                        "NestedLoopJoin,SortMergeJoin");
+        tableEnv.getConfig()
+                .set(OptimizerConfigOptions.TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED, true);
+    }
+
+    @Test
+    public void testInnerJoin() {
+        String sql = "SELECT x, y, p FROM db1.fact, db1.dim WHERE p = k AND name = 'two'";
+        assertTrue(tableEnv.explainSql(sql).contains("DynamicFilteringDataCollector"));
+        assertEquals(Arrays.asList("+I[20, a2, 2]", "+I[21, b2, 2]"), query(sql));
+    }
+
+    @Test
+    public void testSemiJoin() {
+        String sql =
+                "SELECT x, y, p FROM db1.fact WHERE p IN "
+                        + "(SELECT k FROM db1.dim WHERE name = 'one' OR name = 'three')";
+        assertTrue(tableEnv.explainSql(sql).contains("DynamicFilteringDataCollector"));
+        assertEquals(
+                Arrays.asList("+I[10, a1, 1]", "+I[11, b1, 1]", "+I[30, a3, 3]", "+I[31, b3, 3]"),
+                query(sql));
+    }
+
+    @Test
+    public void testNoMatchingPartition() {
+        String sql = "SELECT x, y, p FROM db1.fact, db1.dim WHERE p = k AND name = 'four'";
+        assertTrue(query(sql).isEmpty());
+    }
+
+    @Test
+    public void testDisabled() {
+        tableEnv.getConfig()
+                .set(OptimizerConfigOptions.TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED, false);
+        String sql = "SELECT x, y, p FROM db1.fact, db1.dim WHERE p = k AND name = 'two'";
+        assertFalse(tableEnv.explainSql(sql).contains("DynamicFilteringDataCollector"));
+        assertEquals(Arrays.asList("+I[20, a2, 2]", "+I[21, b2, 2]"), query(sql));
+    }
+
+    private static List<String> query(String sql) {
+        return CollectionUtil.iteratorToList(tableEnv.executeSql(sql).collect()).stream()
+                .map(Row::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
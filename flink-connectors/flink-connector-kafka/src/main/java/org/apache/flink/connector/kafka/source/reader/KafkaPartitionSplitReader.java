@@ -210,6 +210,24 @@ public class KafkaPartitionSplitReader
         consumer.wakeup();
     }
 
+    @Override
+    public void pauseOrResumeSplits(
+            Collection<KafkaPartitionSplit> splitsToPause,
+            Collection<KafkaPartitionSplit> splitsToResume) {
+        // partitions which have been finished and unassigned meanwhile can not be paused
+        Set<TopicPartition> assignment = consumer.assignment();
+        consumer.pause(
+                splitsToPause.stream()
+                        .map(KafkaPartitionSplit::getTopicPartition)
+                        .filter(assignment::contains)
+                        .collect(Collectors.toList()));
+        consumer.resume(
+                splitsToResume.stream()
+                        .map(KafkaPartitionSplit::getTopicPartition)
+                        .filter(assignment::contains)
+                        .collect(Collectors.toList()));
+    }
+
     @Override
     public void close() throws Exception {
         consumer.close();
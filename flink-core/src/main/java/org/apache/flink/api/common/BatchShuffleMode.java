@@ -36,6 +36,10 @@ import static org.apache.flink.configuration.description.TextElement.text;
  * some storage between stages. Downstream tasks then fetch these records after the upstream tasks
  * finished. Such an exchange reduces the resources required to execute the job as it does not need
  * to run upstream and downstream tasks simultaneously.
+ *
+ * <p>With hybrid exchanges, records are kept in memory and sent to the downstream tasks which are
+ * already running, while records are persisted for the downstream tasks which are not running yet
+ * or when memory runs short.
  */
 @PublicEvolving
 public enum BatchShuffleMode implements DescribedEnum {
@@ -60,7 +64,21 @@ public enum BatchShuffleMode implements DescribedEnum {
     ALL_EXCHANGES_BLOCKING(
             text(
                     "Upstream and downstream tasks run subsequently. This reduces the resource usage "
-                            + "as downstream tasks are started after upstream tasks finished."));
+                            + "as downstream tasks are started after upstream tasks finished.")),
+
+    /**
+     * Downstream tasks consume the results of upstream tasks while they are being produced, if the
+     * downstream tasks are running. The results are spilled to disk otherwise.
+     *
+     * <p>This keeps the resource flexibility of blocking exchanges, as upstream and downstream
+     * tasks do not need to run simultaneously, while avoiding disk I/O for running consumers.
+     */
+    ALL_EXCHANGES_HYBRID(
+            text(
+                    "Downstream tasks consume the results of upstream tasks while they are being "
+                            + "produced if the downstream tasks are running, otherwise the results "
+                            + "are spilled to disk. This keeps the resource flexibility of blocking "
+                            + "exchanges while avoiding disk I/O for running consumers."));
 
     private final InlineElement description;
 
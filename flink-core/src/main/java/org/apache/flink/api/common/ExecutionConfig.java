@@ -128,6 +128,9 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
     private boolean autoTypeRegistrationEnabled = true;
 
     private boolean forceAvro = false;
+
+    private boolean pojoSerializerCodeGeneration = false;
+
     private long autoWatermarkInterval = 200;
 
     // ---------- statebackend related configurations ------------------------------
@@ -712,6 +715,32 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
         return forceAvro;
     }
 
+    /**
+     * Lets the POJO serializer generate the code that accesses the fields of a POJO instead of
+     * accessing them through reflection. Public fields are accessed directly, other non-final
+     * fields through method handles. The serialized format is not affected.
+     */
+    @PublicEvolving
+    public void enablePojoSerializerCodeGeneration() {
+        pojoSerializerCodeGeneration = true;
+    }
+
+    /** Lets the POJO serializer access the fields of a POJO through reflection. */
+    @PublicEvolving
+    public void disablePojoSerializerCodeGeneration() {
+        pojoSerializerCodeGeneration = false;
+    }
+
+    /**
+     * Returns whether the POJO serializer generates the code that accesses the fields of a POJO.
+     *
+     * @see #enablePojoSerializerCodeGeneration()
+     */
+    @PublicEvolving
+    public boolean isPojoSerializerCodeGenerationEnabled() {
+        return pojoSerializerCodeGeneration;
+    }
+
     /**
      * Enables reusing objects that Flink internally uses for deserialization and passing data to
      * user-code functions. Keep in mind that this can lead to bugs when the user-code function of
@@ -942,6 +971,7 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
                     && objectReuse == other.objectReuse
                     && autoTypeRegistrationEnabled == other.autoTypeRegistrationEnabled
                     && forceAvro == other.forceAvro
+                    && pojoSerializerCodeGeneration == other.pojoSerializerCodeGeneration
                     && Objects.equals(globalJobParameters, other.globalJobParameters)
                     && autoWatermarkInterval == other.autoWatermarkInterval
                     && registeredTypesWithKryoSerializerClasses.equals(
@@ -970,6 +1000,7 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
                 objectReuse,
                 autoTypeRegistrationEnabled,
                 forceAvro,
+                pojoSerializerCodeGeneration,
                 globalJobParameters,
                 autoWatermarkInterval,
                 registeredTypesWithKryoSerializerClasses,
@@ -1006,6 +1037,8 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
                 + autoTypeRegistrationEnabled
                 + ", forceAvro="
                 + forceAvro
+                + ", pojoSerializerCodeGeneration="
+                + pojoSerializerCodeGeneration
                 + ", autoWatermarkInterval="
                 + autoWatermarkInterval
                 + ", latencyTrackingInterval="
@@ -1146,6 +1179,9 @@ public class ExecutionConfig implements Serializable, Archiveable<ArchivedExecut
                 .getOptional(PipelineOptions.CLOSURE_CLEANER_LEVEL)
                 .ifPresent(this::setClosureCleanerLevel);
         configuration.getOptional(PipelineOptions.FORCE_AVRO).ifPresent(b -> this.forceAvro = b);
+        configuration
+                .getOptional(PipelineOptions.POJO_SERIALIZER_CODE_GENERATION)
+                .ifPresent(b -> this.pojoSerializerCodeGeneration = b);
         configuration
                 .getOptional(PipelineOptions.GENERIC_TYPES)
                 .ifPresent(b -> this.disableGenericTypes = !b);
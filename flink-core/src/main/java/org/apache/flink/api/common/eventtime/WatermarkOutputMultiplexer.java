@@ -42,7 +42,9 @@ import static org.apache.flink.util.Preconditions.checkState;
  * <p>For registering a new multiplexed output, you must first call {@link
  * #registerNewOutput(String)} and then call {@link #getImmediateOutput(String)} or {@link
  * #getDeferredOutput(String)} with the output ID you get from that. You can get both an immediate
- * and deferred output for a given output ID, you can also call the getters multiple times.
+ * and deferred output for a given output ID, you can also call the getters multiple times. An
+ * output can be registered together with a {@link WatermarkUpdateListener}, which is notified
+ * whenever the watermark of that single output advances.
  *
  * <p><b>WARNING:</b>This class is not thread safe.
  */
@@ -61,6 +63,9 @@ public class WatermarkOutputMultiplexer {
      */
     private final Map<String, PartialWatermark> watermarkPerOutputId;
 
+    /** The listeners that are notified about the watermark updates of the single outputs. */
+    private final Map<String, WatermarkUpdateListener> watermarkUpdateListenerPerOutputId;
+
     private final CombinedWatermarkStatus combinedWatermarkStatus;
 
     /**
@@ -70,6 +75,7 @@ public class WatermarkOutputMultiplexer {
     public WatermarkOutputMultiplexer(WatermarkOutput underlyingOutput) {
         this.underlyingOutput = underlyingOutput;
         this.watermarkPerOutputId = new HashMap<>();
+        this.watermarkUpdateListenerPerOutputId = new HashMap<>();
         this.combinedWatermarkStatus = new CombinedWatermarkStatus();
     }
 
@@ -79,6 +85,14 @@ public class WatermarkOutputMultiplexer {
      * output.
      */
     public void registerNewOutput(String id) {
+        registerNewOutput(id, watermark -> {});
+    }
+
+    /**
+     * Registers a new multiplexed output like {@link #registerNewOutput(String)}, with a listener
+     * that is notified whenever the watermark of the new output advances.
+     */
+    public void registerNewOutput(String id, WatermarkUpdateListener onWatermarkUpdate) {
         final PartialWatermark outputState = new PartialWatermark();
 
         final PartialWatermark previouslyRegistered =
@@ -86,12 +100,14 @@ public class WatermarkOutputMultiplexer {
         checkState(previouslyRegistered == null, "Already contains an output for ID %s", id);
 
         combinedWatermarkStatus.add(outputState);
+        watermarkUpdateListenerPerOutputId.put(id, onWatermarkUpdate);
     }
 
     public boolean unregisterOutput(String id) {
         final PartialWatermark output = watermarkPerOutputId.remove(id);
         if (output != null) {
             combinedWatermarkStatus.remove(output);
+            watermarkUpdateListenerPerOutputId.remove(id);
             return true;
         } else {
             return false;
@@ -108,7 +124,8 @@ public class WatermarkOutputMultiplexer {
         final PartialWatermark outputState = watermarkPerOutputId.get(outputId);
         Preconditions.checkArgument(
                 outputState != null, "no output registered under id %s", outputId);
-        return new ImmediateOutput(outputState);
+        return new ImmediateOutput(
+                outputState, watermarkUpdateListenerPerOutputId.get(outputId));
     }
 
     /**
@@ -121,7 +138,7 @@ public class WatermarkOutputMultiplexer {
         final PartialWatermark outputState = watermarkPerOutputId.get(outputId);
         Preconditions.checkArgument(
                 outputState != null, "no output registered under id %s", outputId);
-        return new DeferredOutput(outputState);
+        return new DeferredOutput(outputState, watermarkUpdateListenerPerOutputId.get(outputId));
     }
 
     /**
@@ -153,15 +170,20 @@ public class WatermarkOutputMultiplexer {
     private class ImmediateOutput implements WatermarkOutput {
 
         private final PartialWatermark state;
+        private final WatermarkUpdateListener onWatermarkUpdate;
 
-        public ImmediateOutput(PartialWatermark state) {
+        public ImmediateOutput(PartialWatermark state, WatermarkUpdateListener onWatermarkUpdate) {
             this.state = state;
+            this.onWatermarkUpdate = onWatermarkUpdate;
         }
 
         @Override
         public void emitWatermark(Watermark watermark) {
             long timestamp = watermark.getTimestamp();
             boolean wasUpdated = state.setWatermark(timestamp);
+            if (wasUpdated) {
+                onWatermarkUpdate.onWatermarkUpdate(timestamp);
+            }
 
             // if it's higher than the max watermark so far we might have to update the
             // combined watermark
@@ -196,14 +218,19 @@ public class WatermarkOutputMultiplexer {
     private static class DeferredOutput implements WatermarkOutput {
 
         private final PartialWatermark state;
+        private final WatermarkUpdateListener onWatermarkUpdate;
 
-        public DeferredOutput(PartialWatermark state) {
+        public DeferredOutput(PartialWatermark state, WatermarkUpdateListener onWatermarkUpdate) {
             this.state = state;
+            this.onWatermarkUpdate = onWatermarkUpdate;
         }
 
         @Override
         public void emitWatermark(Watermark watermark) {
-            state.setWatermark(watermark.getTimestamp());
+            long timestamp = watermark.getTimestamp();
+            if (state.setWatermark(timestamp)) {
+                onWatermarkUpdate.onWatermarkUpdate(timestamp);
+            }
         }
 
         @Override
@@ -216,4 +243,12 @@ public class WatermarkOutputMultiplexer {
             state.setIdle(false);
         }
     }
+
+    /** A listener that is notified when the watermark of a single multiplexed output advances. */
+    @FunctionalInterface
+    public interface WatermarkUpdateListener {
+
+        /** Called when the watermark of the output advanced to the given watermark. */
+        void onWatermarkUpdate(long watermark);
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+
+/**
+ * Accesses the fields of the instances of one POJO class on behalf of the {@link PojoSerializer}.
+ * The implementations are generated by the {@link PojoFieldsCodecGenerator} for the field layout
+ * of a serializer, so that the fields are read and written without reflection.
+ *
+ * <p>The methods only handle the fields of the POJO class itself, the null and subclass tags of
+ * the instance are still written by the {@link PojoSerializer}. The format of the fields is the
+ * same as the one of the reflective code paths of the {@link PojoSerializer}.
+ */
+@Internal
+public abstract class PojoFieldsCodec {
+
+    /** The serializers of the fields, in the order of the fields of the serializer. */
+    protected final TypeSerializer<Object>[] fieldSerializers;
+
+    /** The fields of the serializer, which may contain null for fields that no longer exist. */
+    protected final Field[] fields;
+
+    protected PojoFieldsCodec(TypeSerializer<Object>[] fieldSerializers, Field[] fields) {
+        this.fieldSerializers = fieldSerializers;
+        this.fields = fields;
+    }
+
+    /** Creates a new instance of the POJO class without initializing its fields. */
+    public abstract Object newInstance();
+
+    /** Writes all fields of the given instance of the POJO class. */
+    public abstract void serializeFields(Object pojo, DataOutputView target) throws IOException;
+
+    /** Reads all fields into the given instance of the POJO class. */
+    public abstract void deserializeFields(Object pojo, DataInputView source) throws IOException;
+
+    /**
+     * Reads all fields into the given instance of the POJO class, reusing the current values of
+     * its fields where possible.
+     */
+    public abstract void deserializeFieldsWithReuse(Object reuse, DataInputView source)
+            throws IOException;
+
+    /** Copies all fields of one instance of the POJO class to the other one. */
+    public abstract void copyFields(Object from, Object to);
+
+    /**
+     * Copies all fields of one instance of the POJO class to the other one, reusing the current
+     * values of the fields of the target where possible.
+     */
+    public abstract void copyFieldsWithReuse(Object from, Object reuse);
+
+    // --------------------------------------------------------------------------------------------
+    //  Method handles of the fields that are accessed through handles by the generated code
+    // --------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the getters and setters of the fields for the static initializer of the generated
+     * class, the getter and the setter of a field are at twice its index and the position after it.
+     */
+    protected static MethodHandle[] takeFieldHandles(Class<?> codecClass) {
+        return PojoFieldsCodecGenerator.takeFieldHandles(codecClass);
+    }
+
+    // --------------------------------------------------------------------------------------------
+    //  Reflective access for the fields that can not be accessed by the generated code
+    // --------------------------------------------------------------------------------------------
+
+    protected final Object getField(Object pojo, int index) {
+        try {
+            return fields[index].get(pojo);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(
+                    "Error during POJO field access, this should not happen since we check the fields before.",
+                    e);
+        }
+    }
+
+    protected final void setField(Object pojo, int index, Object value) {
+        try {
+            fields[index].set(pojo, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(
+                    "Error during POJO field access, this should not happen since we check the fields before.",
+                    e);
+        }
+    }
+}
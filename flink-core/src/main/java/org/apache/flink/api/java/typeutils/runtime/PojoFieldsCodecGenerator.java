@@ -0,0 +1,930 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.BooleanSerializer;
+import org.apache.flink.api.common.typeutils.base.ByteSerializer;
+import org.apache.flink.api.common.typeutils.base.CharSerializer;
+import org.apache.flink.api.common.typeutils.base.DoubleSerializer;
+import org.apache.flink.api.common.typeutils.base.FloatSerializer;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.ShortSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import org.apache.flink.shaded.asm9.org.objectweb.asm.ClassWriter;
+import org.apache.flink.shaded.asm9.org.objectweb.asm.Label;
+import org.apache.flink.shaded.asm9.org.objectweb.asm.MethodVisitor;
+import org.apache.flink.shaded.asm9.org.objectweb.asm.Opcodes;
+import org.apache.flink.shaded.asm9.org.objectweb.asm.Type;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates the bytecode of the {@link PojoFieldsCodec} for the field layout of a {@link
+ * PojoSerializer}.
+ *
+ * <p>Public non-final fields are accessed directly. Other non-final fields of a public type are
+ * accessed through method handles, which are kept in constant fields of the generated class so
+ * that the JIT compiler can inline them. Final fields and fields of a non-public type are still
+ * accessed through reflection. Like the reflective code path, the generated code never calls the
+ * getters and setters of the POJO, which may do more than accessing the field. Primitive fields
+ * whose serializer is the default serializer of their type are written and read inline, without
+ * boxing.
+ *
+ * <p>The generated classes are defined in a class loader that is a child of the class loader of
+ * the POJO class and are cached per POJO class and field layout.
+ */
+@Internal
+final class PojoFieldsCodecGenerator implements Opcodes {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PojoFieldsCodecGenerator.class);
+
+    private static final String CODEC_NAME = Type.getInternalName(PojoFieldsCodec.class);
+    private static final String SERIALIZER_NAME = Type.getInternalName(TypeSerializer.class);
+    private static final String SERIALIZERS_DESC = Type.getDescriptor(TypeSerializer[].class);
+    private static final String OUTPUT_NAME = Type.getInternalName(DataOutputView.class);
+    private static final String INPUT_NAME = Type.getInternalName(DataInputView.class);
+    private static final String OBJECT_NAME = Type.getInternalName(Object.class);
+    private static final String HANDLE_NAME = Type.getInternalName(MethodHandle.class);
+
+    private static final String OBJECT_DESC = Type.getDescriptor(Object.class);
+    private static final String OUTPUT_DESC = Type.getDescriptor(DataOutputView.class);
+    private static final String INPUT_DESC = Type.getDescriptor(DataInputView.class);
+    private static final String HANDLE_DESC = Type.getDescriptor(MethodHandle.class);
+    private static final String HANDLES_DESC = Type.getDescriptor(MethodHandle[].class);
+
+    /** The serializers of primitive types whose format is written and read inline. */
+    private static final Map<Class<?>, Class<?>> INLINED_SERIALIZERS = new HashMap<>();
+
+    /** The primitive types and their wrappers. */
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+
+    static {
+        INLINED_SERIALIZERS.put(boolean.class, BooleanSerializer.class);
+        INLINED_SERIALIZERS.put(byte.class, ByteSerializer.class);
+        INLINED_SERIALIZERS.put(char.class, CharSerializer.class);
+        INLINED_SERIALIZERS.put(short.class, ShortSerializer.class);
+        INLINED_SERIALIZERS.put(int.class, IntSerializer.class);
+        INLINED_SERIALIZERS.put(long.class, LongSerializer.class);
+        INLINED_SERIALIZERS.put(float.class, FloatSerializer.class);
+        INLINED_SERIALIZERS.put(double.class, DoubleSerializer.class);
+
+        WRAPPERS.put(boolean.class, Boolean.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(short.class, Short.class);
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(double.class, Double.class);
+    }
+
+    /**
+     * The generated codec classes of a POJO class by their field layout. A {@link ClassValue} does
+     * not keep the POJO class and its class loader alive.
+     */
+    private static final ClassValue<Map<String, Class<?>>> CODEC_CLASSES =
+            new ClassValue<Map<String, Class<?>>>() {
+                @Override
+                protected Map<String, Class<?>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * The method handles of the codec classes which are being initialized, the getter and the
+     * setter of a field are at twice its index and the position after it.
+     */
+    private static final Map<Class<?>, MethodHandle[]> FIELD_HANDLES = new ConcurrentHashMap<>();
+
+    private PojoFieldsCodecGenerator() {}
+
+    /**
+     * Creates the codec for the given POJO class and field layout.
+     *
+     * @return the codec, or null if no code can be generated for the class, in which case the
+     *     fields have to be accessed through reflection.
+     */
+    @Nullable
+    static PojoFieldsCodec createCodec(
+            Class<?> clazz, Field[] fields, TypeSerializer<Object>[] fieldSerializers) {
+        if (!canInstantiate(clazz)) {
+            return null;
+        }
+
+        try {
+            FieldAccess[] accesses = new FieldAccess[fields.length];
+            StringBuilder layout = new StringBuilder();
+            for (int i = 0; i < fields.length; i++) {
+                accesses[i] = FieldAccess.of(clazz, i, fields[i], fieldSerializers[i]);
+                layout.append(accesses[i]).append(';');
+            }
+
+            Class<?> codecClass =
+                    CODEC_CLASSES
+                            .get(clazz)
+                            .computeIfAbsent(
+                                    layout.toString(), k -> defineCodecClass(clazz, accesses));
+            return (PojoFieldsCodec)
+                    codecClass
+                            .getConstructor(TypeSerializer[].class, Field[].class)
+                            .newInstance(fieldSerializers, fields);
+        } catch (Exception | LinkageError e) {
+            LOG.warn(
+                    "Could not generate the code to access the fields of POJO {}, "
+                            + "falling back to reflection.",
+                    clazz.getName(),
+                    e);
+            return null;
+        }
+    }
+
+    private static boolean canInstantiate(Class<?> clazz) {
+        if (!isAccessible(clazz)
+                || clazz.isInterface()
+                || Modifier.isAbstract(clazz.getModifiers())
+                || clazz.getClassLoader() == null) {
+            return false;
+        }
+        try {
+            clazz.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /** Checks whether the generated code, which lives in another package, may use the type. */
+    private static boolean isAccessible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> defineCodecClass(Class<?> clazz, FieldAccess[] accesses) {
+        byte[] code = new CodecWriter(clazz, accesses).generate();
+        Class<?> codecClass =
+                new CodecClassLoader(clazz.getClassLoader())
+                        .define(clazz.getName() + "$$PojoFieldsCodec", code);
+        if (!PojoFieldsCodec.class.isAssignableFrom(codecClass)) {
+            throw new IllegalStateException(
+                    "The class loader of the POJO resolves a different "
+                            + PojoFieldsCodec.class.getSimpleName()
+                            + " class.");
+        }
+
+        MethodHandle[] handles = new MethodHandle[2 * accesses.length];
+        for (FieldAccess access : accesses) {
+            if (access.kind == AccessKind.HANDLE) {
+                handles[2 * access.index] = access.getter;
+                handles[2 * access.index + 1] = access.setter;
+            }
+        }
+        // the static initializer of the codec class takes the handles, so the class has to be
+        // initialized before it is published
+        FIELD_HANDLES.put(codecClass, handles);
+        try {
+            Class.forName(codecClass.getName(), true, codecClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Could not initialize the generated class.", e);
+        } finally {
+            FIELD_HANDLES.remove(codecClass);
+        }
+        return codecClass;
+    }
+
+    /** Takes the method handles of the fields for the static initializer of the codec class. */
+    static MethodHandle[] takeFieldHandles(Class<?> codecClass) {
+        MethodHandle[] handles = FIELD_HANDLES.remove(codecClass);
+        if (handles == null) {
+            throw new IllegalStateException(
+                    "The class " + codecClass.getName() + " is not being initialized.");
+        }
+        return handles;
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    /** How the generated code accesses a field. */
+    private enum AccessKind {
+        /** The field no longer exists, its value is skipped when reading. */
+        MISSING,
+        /** The field is public and is accessed directly. */
+        DIRECT,
+        /** The field is not public and is accessed through method handles. */
+        HANDLE,
+        /** The field is accessed through reflection, its value is always boxed. */
+        REFLECTIVE
+    }
+
+    /** The access to one field of the POJO. */
+    private static final class FieldAccess {
+
+        private final int index;
+        private final AccessKind kind;
+        @Nullable private final Field field;
+
+        /** Whether the field is primitive and its value is written and read inline. */
+        private final boolean inlined;
+
+        /** The getter of the field, typed with the POJO class, if it is accessed by handles. */
+        @Nullable private final MethodHandle getter;
+
+        /** The setter of the field, typed with the POJO class, if it is accessed by handles. */
+        @Nullable private final MethodHandle setter;
+
+        private FieldAccess(int index, AccessKind kind, @Nullable Field field, boolean inlined) {
+            this(index, kind, field, inlined, null, null);
+        }
+
+        private FieldAccess(
+                int index,
+                AccessKind kind,
+                @Nullable Field field,
+                boolean inlined,
+                @Nullable MethodHandle getter,
+                @Nullable MethodHandle setter) {
+            this.index = index;
+            this.kind = kind;
+            this.field = field;
+            this.inlined = inlined;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        static FieldAccess of(
+                Class<?> clazz,
+                int index,
+                @Nullable Field field,
+                TypeSerializer<Object> fieldSerializer) {
+            if (field == null) {
+                return new FieldAccess(index, AccessKind.MISSING, null, false);
+            }
+            field.setAccessible(true);
+
+            Class<?> type = field.getType();
+            boolean inlined =
+                    type.isPrimitive()
+                            && INLINED_SERIALIZERS.get(type) == fieldSerializer.getClass();
+
+            int modifiers = field.getModifiers();
+            if (!isAccessible(type)
+                    || Modifier.isStatic(modifiers)
+                    || Modifier.isFinal(modifiers)) {
+                return new FieldAccess(index, AccessKind.REFLECTIVE, field, false);
+            }
+            if (Modifier.isPublic(modifiers)) {
+                return new FieldAccess(index, AccessKind.DIRECT, field, inlined);
+            }
+
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle getter =
+                        lookup.unreflectGetter(field).asType(MethodType.methodType(type, clazz));
+                MethodHandle setter =
+                        lookup.unreflectSetter(field)
+                                .asType(MethodType.methodType(void.class, clazz, type));
+                return new FieldAccess(index, AccessKind.HANDLE, field, inlined, getter, setter);
+            } catch (IllegalAccessException e) {
+                return new FieldAccess(index, AccessKind.REFLECTIVE, field, false);
+            }
+        }
+
+        /** Whether the generated code handles the value with the declared type of the field. */
+        boolean isTyped() {
+            return kind == AccessKind.DIRECT || kind == AccessKind.HANDLE;
+        }
+
+        /** Whether the generated code handles the value as a primitive. */
+        boolean isPrimitive() {
+            return isTyped() && field.getType().isPrimitive();
+        }
+
+        @Override
+        public String toString() {
+            if (field == null) {
+                return kind.name();
+            }
+            return kind
+                    + ":"
+                    + field.getDeclaringClass().getName()
+                    + "#"
+                    + field.getName()
+                    + (inlined ? ":inlined" : "");
+        }
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    /** Writes the bytecode of the codec class. */
+    private static final class CodecWriter {
+
+        private final String pojoName;
+        private final String codecName;
+        private final FieldAccess[] accesses;
+
+        private MethodVisitor mv;
+
+        CodecWriter(Class<?> clazz, FieldAccess[] accesses) {
+            this.pojoName = Type.getInternalName(clazz);
+            this.codecName = pojoName + "$$PojoFieldsCodec";
+            this.accesses = accesses;
+        }
+
+        byte[] generate() {
+            ClassWriter cw =
+                    new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+                        @Override
+                        protected String getCommonSuperClass(String type1, String type2) {
+                            // only reached for locals which are dead at the merge point, the
+                            // default implementation would have to load the classes
+                            return OBJECT_NAME;
+                        }
+                    };
+            cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, codecName, null, CODEC_NAME, null);
+
+            writeHandleFields(cw);
+
+            mv =
+                    cw.visitMethod(
+                            ACC_PUBLIC,
+                            "<init>",
+                            "(" + SERIALIZERS_DESC + Type.getDescriptor(Field[].class) + ")V",
+                            null,
+                            null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(
+                    INVOKESPECIAL,
+                    CODEC_NAME,
+                    "<init>",
+                    "(" + SERIALIZERS_DESC + Type.getDescriptor(Field[].class) + ")V",
+                    false);
+            mv.visitInsn(RETURN);
+            endMethod();
+
+            mv = cw.visitMethod(ACC_PUBLIC, "newInstance", "()" + OBJECT_DESC, null, null);
+            mv.visitCode();
+            mv.visitTypeInsn(NEW, pojoName);
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, pojoName, "<init>", "()V", false);
+            mv.visitInsn(ARETURN);
+            endMethod();
+
+            mv =
+                    cw.visitMethod(
+                            ACC_PUBLIC,
+                            "serializeFields",
+                            "(" + OBJECT_DESC + OUTPUT_DESC + ")V",
+                            null,
+                            null);
+            writeSerializeFields();
+
+            mv =
+                    cw.visitMethod(
+                            ACC_PUBLIC,
+                            "deserializeFields",
+                            "(" + OBJECT_DESC + INPUT_DESC + ")V",
+                            null,
+                            null);
+            writeDeserializeFields(false);
+
+            mv =
+                    cw.visitMethod(
+                            ACC_PUBLIC,
+                            "deserializeFieldsWithReuse",
+                            "(" + OBJECT_DESC + INPUT_DESC + ")V",
+                            null,
+                            null);
+            writeDeserializeFields(true);
+
+            mv =
+                    cw.visitMethod(
+                            ACC_PUBLIC,
+                            "copyFields",
+                            "(" + OBJECT_DESC + OBJECT_DESC + ")V",
+                            null,
+                            null);
+            writeCopyFields(false);
+
+            mv =
+                    cw.visitMethod(
+                            ACC_PUBLIC,
+                            "copyFieldsWithReuse",
+                            "(" + OBJECT_DESC + OBJECT_DESC + ")V",
+                            null,
+                            null);
+            writeCopyFields(true);
+
+            cw.visitEnd();
+            return cw.toByteArray();
+        }
+
+        /**
+         * Declares the constant fields of the method handles and the static initializer which takes
+         * them from the generator. Locals: 0 the method handles.
+         */
+        private void writeHandleFields(ClassWriter cw) {
+            boolean hasHandles = false;
+            for (FieldAccess access : accesses) {
+                if (access.kind == AccessKind.HANDLE) {
+                    declareHandleField(cw, getterName(access));
+                    declareHandleField(cw, setterName(access));
+                    hasHandles = true;
+                }
+            }
+            if (!hasHandles) {
+                return;
+            }
+
+            mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+            mv.visitCode();
+            mv.visitLdcInsn(Type.getObjectType(codecName));
+            mv.visitMethodInsn(
+                    INVOKESTATIC,
+                    CODEC_NAME,
+                    "takeFieldHandles",
+                    "(" + Type.getDescriptor(Class.class) + ")" + HANDLES_DESC,
+                    false);
+            mv.visitVarInsn(ASTORE, 0);
+            for (FieldAccess access : accesses) {
+                if (access.kind == AccessKind.HANDLE) {
+                    mv.visitVarInsn(ALOAD, 0);
+                    pushInt(2 * access.index);
+                    mv.visitInsn(AALOAD);
+                    mv.visitFieldInsn(PUTSTATIC, codecName, getterName(access), HANDLE_DESC);
+                    mv.visitVarInsn(ALOAD, 0);
+                    pushInt(2 * access.index + 1);
+                    mv.visitInsn(AALOAD);
+                    mv.visitFieldInsn(PUTSTATIC, codecName, setterName(access), HANDLE_DESC);
+                }
+            }
+            mv.visitInsn(RETURN);
+            endMethod();
+        }
+
+        private static void declareHandleField(ClassWriter cw, String name) {
+            cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, name, HANDLE_DESC, null, null)
+                    .visitEnd();
+        }
+
+        /** Locals: 1 the pojo, 2 the output, 3 the cast pojo, 4 the value of the field. */
+        private void writeSerializeFields() {
+            mv.visitCode();
+            castToPojo(1, 3);
+            for (FieldAccess access : accesses) {
+                if (access.kind == AccessKind.MISSING) {
+                    writeNullFlag(true);
+                } else if (access.inlined) {
+                    writeNullFlag(false);
+                    mv.visitVarInsn(ALOAD, 2);
+                    loadValue(access, 3);
+                    Class<?> type = access.field.getType();
+                    mv.visitMethodInsn(
+                            INVOKEINTERFACE,
+                            OUTPUT_NAME,
+                            "write" + capitalize(type.getName()),
+                            "(" + (isIntArgument(type) ? "I" : Type.getDescriptor(type)) + ")V",
+                            true);
+                } else {
+                    Label notNull = new Label();
+                    Label end = new Label();
+                    loadValue(access, 3);
+                    toObject(access);
+                    mv.visitVarInsn(ASTORE, 4);
+                    mv.visitVarInsn(ALOAD, 4);
+                    mv.visitJumpInsn(IFNONNULL, notNull);
+                    writeNullFlag(true);
+                    mv.visitJumpInsn(GOTO, end);
+                    mv.visitLabel(notNull);
+                    writeNullFlag(false);
+                    loadSerializer(access);
+                    mv.visitVarInsn(ALOAD, 4);
+                    mv.visitVarInsn(ALOAD, 2);
+                    mv.visitMethodInsn(
+                            INVOKEVIRTUAL,
+                            SERIALIZER_NAME,
+                            "serialize",
+                            "(" + OBJECT_DESC + OUTPUT_DESC + ")V",
+                            false);
+                    mv.visitLabel(end);
+                }
+            }
+            mv.visitInsn(RETURN);
+            endMethod();
+        }
+
+        /** Locals: 1 the pojo, 2 the input, 3 the cast pojo, 4 the reused value of the field. */
+        private void writeDeserializeFields(boolean withReuse) {
+            mv.visitCode();
+            castToPojo(1, 3);
+            for (FieldAccess access : accesses) {
+                Label end = new Label();
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEINTERFACE, INPUT_NAME, "readBoolean", "()Z", true);
+
+                if (access.kind == AccessKind.MISSING) {
+                    // read and dump a pre-existing field value
+                    mv.visitJumpInsn(IFNE, end);
+                    loadSerializer(access);
+                    mv.visitVarInsn(ALOAD, 2);
+                    invokeDeserialize();
+                    mv.visitInsn(POP);
+                    mv.visitLabel(end);
+                    continue;
+                }
+
+                Label notNull = new Label();
+                mv.visitJumpInsn(IFEQ, notNull);
+                storeNull(access, 3);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(notNull);
+
+                if (access.inlined) {
+                    Class<?> type = access.field.getType();
+                    beginStore(access, 3);
+                    mv.visitVarInsn(ALOAD, 2);
+                    mv.visitMethodInsn(
+                            INVOKEINTERFACE,
+                            INPUT_NAME,
+                            "read" + capitalize(type.getName()),
+                            "()" + Type.getDescriptor(type),
+                            true);
+                    endStore(access);
+                } else if (withReuse && !access.isPrimitive()) {
+                    Label fresh = new Label();
+                    Label join = new Label();
+                    loadValue(access, 3);
+                    mv.visitVarInsn(ASTORE, 4);
+                    beginStore(access, 3);
+                    mv.visitVarInsn(ALOAD, 4);
+                    mv.visitJumpInsn(IFNULL, fresh);
+                    loadSerializer(access);
+                    mv.visitVarInsn(ALOAD, 4);
+                    mv.visitVarInsn(ALOAD, 2);
+                    mv.visitMethodInsn(
+                            INVOKEVIRTUAL,
+                            SERIALIZER_NAME,
+                            "deserialize",
+                            "(" + OBJECT_DESC + INPUT_DESC + ")" + OBJECT_DESC,
+                            false);
+                    mv.visitJumpInsn(GOTO, join);
+                    mv.visitLabel(fresh);
+                    loadSerializer(access);
+                    mv.visitVarInsn(ALOAD, 2);
+                    invokeDeserialize();
+                    mv.visitLabel(join);
+                    fromObject(access);
+                    endStore(access);
+                } else {
+                    beginStore(access, 3);
+                    loadSerializer(access);
+                    mv.visitVarInsn(ALOAD, 2);
+                    invokeDeserialize();
+                    fromObject(access);
+                    endStore(access);
+                }
+                mv.visitLabel(end);
+            }
+            mv.visitInsn(RETURN);
+            endMethod();
+        }
+
+        /**
+         * Locals: 1 the source pojo, 2 the target pojo, 3 and 4 the cast pojos, 5 the value of the
+         * field, 6 the reused value of the field.
+         */
+        private void writeCopyFields(boolean withReuse) {
+            mv.visitCode();
+            castToPojo(1, 3);
+            castToPojo(2, 4);
+            for (FieldAccess access : accesses) {
+                if (access.kind == AccessKind.MISSING) {
+                    continue;
+                }
+
+                if (access.inlined) {
+                    beginStore(access, 4);
+                    loadValue(access, 3);
+                    endStore(access);
+                } else if (access.isPrimitive()) {
+                    beginStore(access, 4);
+                    loadSerializer(access);
+                    loadValue(access, 3);
+                    toObject(access);
+                    invokeCopy();
+                    fromObject(access);
+                    endStore(access);
+                } else {
+                    Label copy = new Label();
+                    Label join = new Label();
+                    loadValue(access, 3);
+                    mv.visitVarInsn(ASTORE, 5);
+                    beginStore(access, 4);
+                    mv.visitVarInsn(ALOAD, 5);
+                    mv.visitJumpInsn(IFNONNULL, copy);
+                    mv.visitInsn(ACONST_NULL);
+                    mv.visitJumpInsn(GOTO, join);
+                    mv.visitLabel(copy);
+                    if (withReuse) {
+                        Label fresh = new Label();
+                        loadValue(access, 4);
+                        mv.visitVarInsn(ASTORE, 6);
+                        mv.visitVarInsn(ALOAD, 6);
+                        mv.visitJumpInsn(IFNULL, fresh);
+                        loadSerializer(access);
+                        mv.visitVarInsn(ALOAD, 5);
+                        mv.visitVarInsn(ALOAD, 6);
+                        mv.visitMethodInsn(
+                                INVOKEVIRTUAL,
+                                SERIALIZER_NAME,
+                                "copy",
+                                "(" + OBJECT_DESC + OBJECT_DESC + ")" + OBJECT_DESC,
+                                false);
+                        mv.visitJumpInsn(GOTO, join);
+                        mv.visitLabel(fresh);
+                    }
+                    loadSerializer(access);
+                    mv.visitVarInsn(ALOAD, 5);
+                    invokeCopy();
+                    mv.visitLabel(join);
+                    fromObject(access);
+                    endStore(access);
+                }
+            }
+            mv.visitInsn(RETURN);
+            endMethod();
+        }
+
+        // ----------------------------------------------------------------------------------------
+
+        private void endMethod() {
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private void castToPojo(int from, int to) {
+            mv.visitVarInsn(ALOAD, from);
+            mv.visitTypeInsn(CHECKCAST, pojoName);
+            mv.visitVarInsn(ASTORE, to);
+        }
+
+        private void writeNullFlag(boolean isNull) {
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitInsn(isNull ? ICONST_1 : ICONST_0);
+            mv.visitMethodInsn(INVOKEINTERFACE, OUTPUT_NAME, "writeBoolean", "(Z)V", true);
+        }
+
+        private void loadSerializer(FieldAccess access) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, CODEC_NAME, "fieldSerializers", SERIALIZERS_DESC);
+            pushInt(access.index);
+            mv.visitInsn(AALOAD);
+        }
+
+        private void invokeDeserialize() {
+            mv.visitMethodInsn(
+                    INVOKEVIRTUAL,
+                    SERIALIZER_NAME,
+                    "deserialize",
+                    "(" + INPUT_DESC + ")" + OBJECT_DESC,
+                    false);
+        }
+
+        private void invokeCopy() {
+            mv.visitMethodInsn(
+                    INVOKEVIRTUAL,
+                    SERIALIZER_NAME,
+                    "copy",
+                    "(" + OBJECT_DESC + ")" + OBJECT_DESC,
+                    false);
+        }
+
+        /** Pushes the value of the field of the pojo in the given local. */
+        private void loadValue(FieldAccess access, int pojo) {
+            switch (access.kind) {
+                case DIRECT:
+                    mv.visitVarInsn(ALOAD, pojo);
+                    mv.visitFieldInsn(
+                            GETFIELD,
+                            pojoName,
+                            access.field.getName(),
+                            Type.getDescriptor(access.field.getType()));
+                    break;
+                case HANDLE:
+                    mv.visitFieldInsn(GETSTATIC, codecName, getterName(access), HANDLE_DESC);
+                    mv.visitVarInsn(ALOAD, pojo);
+                    mv.visitMethodInsn(
+                            INVOKEVIRTUAL,
+                            HANDLE_NAME,
+                            "invokeExact",
+                            "(L" + pojoName + ";)" + Type.getDescriptor(access.field.getType()),
+                            false);
+                    break;
+                case REFLECTIVE:
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitVarInsn(ALOAD, pojo);
+                    pushInt(access.index);
+                    mv.visitMethodInsn(
+                            INVOKEVIRTUAL,
+                            CODEC_NAME,
+                            "getField",
+                            "(" + OBJECT_DESC + "I)" + OBJECT_DESC,
+                            false);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected access " + access.kind);
+            }
+        }
+
+        /** Pushes what has to be below the new value on the stack to store a field. */
+        private void beginStore(FieldAccess access, int pojo) {
+            if (access.kind == AccessKind.REFLECTIVE) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, pojo);
+                pushInt(access.index);
+            } else if (access.kind == AccessKind.HANDLE) {
+                mv.visitFieldInsn(GETSTATIC, codecName, setterName(access), HANDLE_DESC);
+                mv.visitVarInsn(ALOAD, pojo);
+            } else {
+                mv.visitVarInsn(ALOAD, pojo);
+            }
+        }
+
+        /** Stores the value on top of the stack into the field. */
+        private void endStore(FieldAccess access) {
+            switch (access.kind) {
+                case DIRECT:
+                    mv.visitFieldInsn(
+                            PUTFIELD,
+                            pojoName,
+                            access.field.getName(),
+                            Type.getDescriptor(access.field.getType()));
+                    break;
+                case HANDLE:
+                    mv.visitMethodInsn(
+                            INVOKEVIRTUAL,
+                            HANDLE_NAME,
+                            "invokeExact",
+                            "(L"
+                                    + pojoName
+                                    + ";"
+                                    + Type.getDescriptor(access.field.getType())
+                                    + ")V",
+                            false);
+                    break;
+                case REFLECTIVE:
+                    mv.visitMethodInsn(
+                            INVOKEVIRTUAL,
+                            CODEC_NAME,
+                            "setField",
+                            "(" + OBJECT_DESC + "I" + OBJECT_DESC + ")V",
+                            false);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected access " + access.kind);
+            }
+        }
+
+        /**
+         * Sets the field to null. Like the reflective code path this fails for primitive fields,
+         * which is why they are set through reflection.
+         */
+        private void storeNull(FieldAccess access, int pojo) {
+            if (access.isPrimitive()) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, pojo);
+                pushInt(access.index);
+                mv.visitInsn(ACONST_NULL);
+                mv.visitMethodInsn(
+                        INVOKEVIRTUAL,
+                        CODEC_NAME,
+                        "setField",
+                        "(" + OBJECT_DESC + "I" + OBJECT_DESC + ")V",
+                        false);
+            } else {
+                beginStore(access, pojo);
+                mv.visitInsn(ACONST_NULL);
+                endStore(access);
+            }
+        }
+
+        /** Boxes the value on top of the stack if it is primitive. */
+        private void toObject(FieldAccess access) {
+            if (access.isPrimitive()) {
+                Class<?> type = access.field.getType();
+                Class<?> wrapper = WRAPPERS.get(type);
+                mv.visitMethodInsn(
+                        INVOKESTATIC,
+                        Type.getInternalName(wrapper),
+                        "valueOf",
+                        "(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(wrapper),
+                        false);
+            }
+        }
+
+        /** Converts the object on top of the stack to the type in which the field is stored. */
+        private void fromObject(FieldAccess access) {
+            if (!access.isTyped()) {
+                return;
+            }
+            Class<?> type = access.field.getType();
+            if (type.isPrimitive()) {
+                Class<?> wrapper = WRAPPERS.get(type);
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(wrapper));
+                mv.visitMethodInsn(
+                        INVOKEVIRTUAL,
+                        Type.getInternalName(wrapper),
+                        type.getName() + "Value",
+                        "()" + Type.getDescriptor(type),
+                        false);
+            } else if (type != Object.class) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+            }
+        }
+
+        private void pushInt(int value) {
+            if (value <= 5) {
+                mv.visitInsn(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                mv.visitIntInsn(BIPUSH, value);
+            } else if (value <= Short.MAX_VALUE) {
+                mv.visitIntInsn(SIPUSH, value);
+            } else {
+                mv.visitLdcInsn(value);
+            }
+        }
+
+        private static String getterName(FieldAccess access) {
+            return "getter" + access.index;
+        }
+
+        private static String setterName(FieldAccess access) {
+            return "setter" + access.index;
+        }
+
+        private static String capitalize(String name) {
+            return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+        /** Whether the write method of the {@link java.io.DataOutput} takes an int argument. */
+        private static boolean isIntArgument(Class<?> type) {
+            return type == byte.class || type == short.class || type == char.class;
+        }
+    }
+
+    /** Defines the generated class of a single codec. */
+    private static final class CodecClassLoader extends ClassLoader {
+
+        CodecClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] code) {
+            return defineClass(name, code, 0, code.length);
+        }
+    }
+}
@@ -38,6 +38,8 @@ import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.util.Preconditions;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -102,6 +104,12 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
     private transient ClassLoader cl;
 
+    /**
+     * The generated code that accesses the fields of instances of exactly the POJO class, or null
+     * if the fields are accessed through reflection.
+     */
+    @Nullable private transient PojoFieldsCodec fieldsCodec;
+
     /** Constructor to create a new {@link PojoSerializer}. */
     @SuppressWarnings("unchecked")
     public PojoSerializer(
@@ -131,6 +139,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
                 createRegisteredSubclassSerializers(registeredSubclasses, executionConfig);
 
         this.subclassSerializerCache = new HashMap<>();
+        this.fieldsCodec = createFieldsCodec();
     }
 
     /**
@@ -155,6 +164,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
         this.subclassSerializerCache = checkNotNull(subclassSerializerCache);
         this.executionConfig = checkNotNull(executionConfig);
         this.cl = Thread.currentThread().getContextClassLoader();
+        this.fieldsCodec = createFieldsCodec();
     }
 
     @Override
@@ -235,6 +245,12 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
         Class<?> actualType = from.getClass();
         if (actualType == clazz) {
+            if (fieldsCodec != null) {
+                T target = (T) fieldsCodec.newInstance();
+                fieldsCodec.copyFields(from, target);
+                return target;
+            }
+
             T target;
             try {
                 target = (T) from.getClass().newInstance();
@@ -279,7 +295,9 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
             return copy(from);
         }
 
-        if (actualType == clazz) {
+        if (actualType == clazz && fieldsCodec != null) {
+            fieldsCodec.copyFieldsWithReuse(from, reuse);
+        } else if (actualType == clazz) {
             try {
                 for (int i = 0; i < numFields; i++) {
                     if (fields[i] != null) {
@@ -354,7 +372,9 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
         // if its a subclass, use the corresponding subclass serializer,
         // otherwise serialize each field with our field serializers
-        if ((flags & NO_SUBCLASS) != 0) {
+        if ((flags & NO_SUBCLASS) != 0 && fieldsCodec != null) {
+            fieldsCodec.serializeFields(value, target);
+        } else if ((flags & NO_SUBCLASS) != 0) {
             try {
                 for (int i = 0; i < numFields; i++) {
                     Object o = (fields[i] != null) ? fields[i].get(value) : null;
@@ -409,11 +429,16 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
             target = (T) subclassSerializer.createInstance();
             // also initialize fields for which the subclass serializer is not responsible
             initializeFields(target);
+        } else if (fieldsCodec != null) {
+            // all fields are read below
+            target = (T) fieldsCodec.newInstance();
         } else {
             target = createInstance();
         }
 
-        if ((flags & NO_SUBCLASS) != 0) {
+        if ((flags & NO_SUBCLASS) != 0 && fieldsCodec != null) {
+            fieldsCodec.deserializeFields(target, source);
+        } else if ((flags & NO_SUBCLASS) != 0) {
             try {
                 for (int i = 0; i < numFields; i++) {
                     boolean isNull = source.readBoolean();
@@ -486,7 +511,9 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
             }
         }
 
-        if ((flags & NO_SUBCLASS) != 0) {
+        if ((flags & NO_SUBCLASS) != 0 && fieldsCodec != null) {
+            fieldsCodec.deserializeFieldsWithReuse(reuse, source);
+        } else if ((flags & NO_SUBCLASS) != 0) {
             try {
                 for (int i = 0; i < numFields; i++) {
                     boolean isNull = source.readBoolean();
@@ -1041,6 +1068,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
         cl = Thread.currentThread().getContextClassLoader();
         subclassSerializerCache = new HashMap<>();
+        fieldsCodec = createFieldsCodec();
     }
 
     // --------------------------------------------------------------------------------------------
@@ -1071,6 +1099,11 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
         return executionConfig;
     }
 
+    @Nullable
+    PojoFieldsCodec getFieldsCodec() {
+        return fieldsCodec;
+    }
+
     LinkedHashMap<Class<?>, Integer> getRegisteredClasses() {
         return registeredClasses;
     }
@@ -1095,6 +1128,13 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
     // Utilities
     // --------------------------------------------------------------------------------------------
 
+    @Nullable
+    private PojoFieldsCodec createFieldsCodec() {
+        return executionConfig.isPojoSerializerCodeGenerationEnabled()
+                ? PojoFieldsCodecGenerator.createCodec(clazz, fields, fieldSerializers)
+                : null;
+    }
+
     /** Extracts the subclasses of the base POJO class registered in the execution config. */
     private static LinkedHashSet<Class<?>> getRegisteredSubclassesFromExecutionConfig(
             Class<?> basePojoClass, ExecutionConfig executionConfig) {
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+
+import javax.annotation.Nullable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A pool of configured {@link Kryo} instances which is shared by a {@link KryoSerializer} and all
+ * of its duplicates.
+ *
+ * <p>A {@link Kryo} instance is borrowed for the duration of a single call to the serializer, so
+ * that duplicates which are used one after another, for example by the operators of a task, share
+ * the same few configured instances instead of creating and configuring one instance each. All
+ * instances of a pool are configured identically, which is guaranteed because duplicates have the
+ * same configuration as the serializer they were created from.
+ *
+ * <p>The first thread that uses the pool, typically the task thread, keeps its idle instance in a
+ * field that only it accesses, so that borrowing and releasing it does not synchronize. The shared
+ * idle instances are only used by other threads and when the instance of the first thread is
+ * already in use.
+ */
+final class KryoInstancePool {
+
+    /** The thread which used the pool first. */
+    private final AtomicReference<Thread> ownerThread = new AtomicReference<>();
+
+    /** The idle instance of the owner thread, only accessed by the owner thread. */
+    @Nullable private Kryo ownerInstance;
+
+    /** The idle instances of all other threads, the most recently used one first. */
+    private final ConcurrentLinkedDeque<Kryo> idleInstances = new ConcurrentLinkedDeque<>();
+
+    /** The classes which {@link Kryo#copy(Object)} failed for, they are copied by serializing. */
+    private final Set<Class<?>> classesCopiedBySerialization = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Takes an idle instance from the pool, or returns null if all instances are in use. The
+     * instance has to be given back with {@link #release(Kryo)}.
+     */
+    @Nullable
+    Kryo borrow() {
+        if (isOwnerThread()) {
+            Kryo kryo = ownerInstance;
+            if (kryo != null) {
+                ownerInstance = null;
+                return kryo;
+            }
+        }
+        return idleInstances.pollFirst();
+    }
+
+    void release(Kryo kryo) {
+        if (isOwnerThread() && ownerInstance == null) {
+            ownerInstance = kryo;
+        } else {
+            idleInstances.offerFirst(kryo);
+        }
+    }
+
+    private boolean isOwnerThread() {
+        Thread currentThread = Thread.currentThread();
+        Thread owner = ownerThread.get();
+        return owner == currentThread
+                || (owner == null && ownerThread.compareAndSet(null, currentThread));
+    }
+
+    boolean isCopiedBySerialization(Class<?> clazz) {
+        return classesCopiedBySerialization.contains(clazz);
+    }
+
+    /** Returns whether the class was not yet known to be copied by serializing. */
+    boolean setCopiedBySerialization(Class<?> clazz) {
+        return classesCopiedBySerialization.add(clazz);
+    }
+}
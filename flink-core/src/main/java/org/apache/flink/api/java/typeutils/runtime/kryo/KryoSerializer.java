@@ -36,6 +36,7 @@ import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.util.InstantiationUtil;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoCopyable;
 import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
@@ -47,18 +48,18 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -106,6 +107,12 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 
     private static final Logger LOG = LoggerFactory.getLogger(KryoSerializer.class);
 
+    /** Initial size of the buffer for copying records by serializing them. */
+    private static final int COPY_BUFFER_SIZE = 4096;
+
+    /** The largest buffer for copying records by serializing them that is kept between copies. */
+    private static final int MAX_RETAINED_COPY_BUFFER_SIZE = 1024 * 1024;
+
     /**
      * Flag whether to check for concurrent thread access. Because this flag is static final, a
      * value of 'false' allows the JIT compiler to eliminate the guarded code sections.
@@ -153,9 +160,29 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
     // ------------------------------------------------------------------------
     // The fields below are lazily initialized after duplication or deserialization.
 
-    private transient Kryo kryo;
+    /** The pool of Kryo instances, shared with the duplicates of this serializer. */
+    private transient KryoInstancePool kryoPool;
+
+    /** Whether the serializer instances of this serializer are used by a Kryo instance. */
+    private transient boolean serializerInstancesInUse;
+
+    /** The class of the last copied record, for which the fields below were resolved. */
+    private transient Class<?> copyClass;
+
+    /** The Kryo instance for which the copy serializer was resolved. */
+    private transient Kryo copyKryo;
+
+    /**
+     * The serializer that is registered for the class of the last copied record and clones its
+     * records, or null if these records are copied by serialization.
+     */
+    @Nullable private transient Serializer<?> copySerializer;
+
     private transient T copyInstance;
 
+    private transient Output copyOutput;
+    private transient Input copyInput;
+
     private transient DataOutputView previousOut;
     private transient DataInputView previousIn;
 
@@ -188,6 +215,8 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
                         executionConfig.getRegisteredKryoTypes(),
                         executionConfig.getRegisteredTypesWithKryoSerializerClasses(),
                         executionConfig.getRegisteredTypesWithKryoSerializers());
+
+        this.kryoPool = new KryoInstancePool();
     }
 
     /**
@@ -209,25 +238,11 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 
         // deep copy the serializer instances in kryoRegistrations
         for (Map.Entry<String, KryoRegistration> entry : toCopy.kryoRegistrations.entrySet()) {
-
-            KryoRegistration kryoRegistration = entry.getValue();
-
-            if (kryoRegistration.getSerializerDefinitionType()
-                    == KryoRegistration.SerializerDefinitionType.INSTANCE) {
-
-                ExecutionConfig.SerializableSerializer<? extends Serializer<?>> serializerInstance =
-                        kryoRegistration.getSerializableSerializerInstance();
-
-                if (serializerInstance != null) {
-                    kryoRegistration =
-                            new KryoRegistration(
-                                    kryoRegistration.getRegisteredClass(),
-                                    deepCopySerializer(serializerInstance));
-                }
-            }
-
-            this.kryoRegistrations.put(entry.getKey(), kryoRegistration);
+            this.kryoRegistrations.put(entry.getKey(), deepCopyRegistration(entry.getValue()));
         }
+
+        // the duplicate has the same configuration, so it can share the Kryo instances
+        this.kryoPool = toCopy.kryoPool;
     }
 
     // for KryoSerializerSnapshot
@@ -247,6 +262,7 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
                 checkNotNull(defaultSerializers, "Default serializers cannot be null.");
         this.kryoRegistrations =
                 checkNotNull(kryoRegistrations, "Kryo registrations cannot be null.");
+        this.kryoPool = new KryoInstancePool();
     }
 
     Class<T> getType() {
@@ -282,11 +298,13 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
         if (Modifier.isAbstract(type.getModifiers()) || Modifier.isInterface(type.getModifiers())) {
             return null;
         } else {
-            checkKryoInitialized();
+            Kryo kryo = borrowKryo();
             try {
                 return kryo.newInstance(type);
             } catch (Throwable e) {
                 return null;
+            } finally {
+                releaseKryo(kryo);
             }
         }
     }
@@ -303,22 +321,24 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
         }
 
         try {
-            checkKryoInitialized();
+            Class<?> fromClass = from.getClass();
+            Kryo kryo = borrowKryo();
             try {
-                return kryo.copy(from);
-            } catch (KryoException ke) {
-                // kryo was unable to copy it, so we do it through serialization:
-                ByteArrayOutputStream baout = new ByteArrayOutputStream();
-                Output output = new Output(baout);
-
-                kryo.writeObject(output, from);
-
-                output.close();
-
-                ByteArrayInputStream bain = new ByteArrayInputStream(baout.toByteArray());
-                Input input = new Input(bain);
-
-                return (T) kryo.readObject(input, from.getClass());
+                if (fromClass != copyClass || kryo != copyKryo) {
+                    resolveCopySerializer(kryo, fromClass);
+                }
+                if (copySerializer != null) {
+                    try {
+                        return kryo.copy(from, copySerializer);
+                    } catch (KryoException ke) {
+                        // kryo was unable to copy it, so we do it through serialization, also for
+                        // all further records of this class to not pay for the exception again
+                        setCopiedBySerialization(fromClass);
+                    }
+                }
+                return copyBySerialization(kryo, from);
+            } finally {
+                releaseKryo(kryo);
             }
         } finally {
             if (CONCURRENT_ACCESS_CHECK) {
@@ -343,8 +363,9 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
             enterExclusiveThread();
         }
 
+        Kryo kryo = null;
         try {
-            checkKryoInitialized();
+            kryo = borrowKryo();
 
             if (target != previousOut) {
                 DataOutputViewStream outputStream = new DataOutputViewStream(target);
@@ -376,6 +397,9 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
                 }
             }
         } finally {
+            if (kryo != null) {
+                releaseKryo(kryo);
+            }
             if (CONCURRENT_ACCESS_CHECK) {
                 exitExclusiveThread();
             }
@@ -389,8 +413,9 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
             enterExclusiveThread();
         }
 
+        Kryo kryo = null;
         try {
-            checkKryoInitialized();
+            kryo = borrowKryo();
 
             if (source != previousIn) {
                 DataInputViewStream inputStream = new DataInputViewStream(source);
@@ -410,6 +435,9 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
                 }
             }
         } finally {
+            if (kryo != null) {
+                releaseKryo(kryo);
+            }
             if (CONCURRENT_ACCESS_CHECK) {
                 exitExclusiveThread();
             }
@@ -428,7 +456,6 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
         }
 
         try {
-            checkKryoInitialized();
             if (this.copyInstance == null) {
                 this.copyInstance = createInstance();
             }
@@ -516,40 +543,133 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
         }
     }
 
-    private void checkKryoInitialized() {
-        if (this.kryo == null) {
-            this.kryo = getKryoInstance();
+    private Kryo borrowKryo() {
+        Kryo kryo = kryoPool.borrow();
+        return kryo != null ? kryo : createKryo();
+    }
 
-            // Enable reference tracking.
-            kryo.setReferences(true);
+    private void releaseKryo(Kryo kryo) {
+        kryoPool.release(kryo);
+    }
 
-            // Throwable and all subclasses should be serialized via java serialization
-            // Note: the registered JavaSerializer is Flink's own implementation, and not Kryo's.
-            //       This is due to a know issue with Kryo's JavaSerializer. See FLINK-6025 for
-            // details.
-            kryo.addDefaultSerializer(Throwable.class, new JavaSerializer());
+    /**
+     * Resolves how records of the given class are copied. Records are cloned directly with the
+     * serializer that is registered for their class, without looking it up for every record. If
+     * that serializer does not implement copying, the records are copied by serialization right
+     * away instead of failing the clone first.
+     */
+    private void resolveCopySerializer(Kryo kryo, Class<?> clazz) {
+        copyClass = clazz;
+        copyKryo = kryo;
+        copySerializer = null;
+        if (kryoPool.isCopiedBySerialization(clazz)) {
+            return;
+        }
 
-            // Add default serializers first, so that the type registrations without a serializer
-            // are registered with a default serializer
-            for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> entry :
-                    defaultSerializers.entrySet()) {
-                kryo.addDefaultSerializer(entry.getKey(), entry.getValue().getSerializer());
-            }
+        Serializer<?> serializer = kryo.getRegistration(clazz).getSerializer();
+        if (serializer.isImmutable()
+                || KryoCopyable.class.isAssignableFrom(clazz)
+                || implementsCopy(serializer)) {
+            copySerializer = serializer;
+        } else {
+            setCopiedBySerialization(clazz);
+        }
+    }
 
-            for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> entry :
-                    defaultSerializerClasses.entrySet()) {
-                kryo.addDefaultSerializer(entry.getKey(), entry.getValue());
-            }
+    private void setCopiedBySerialization(Class<?> clazz) {
+        if (clazz == copyClass) {
+            copySerializer = null;
+        }
+        if (kryoPool.setCopiedBySerialization(clazz)) {
+            LOG.info(
+                    "Class {} can not be copied by Kryo directly, its records are copied by "
+                            + "serializing and deserializing them, which is considerably slower.",
+                    clazz.getName());
+        }
+    }
+
+    private static boolean implementsCopy(Serializer<?> serializer) {
+        try {
+            Method copy = serializer.getClass().getMethod("copy", Kryo.class, Object.class);
+            return copy.getDeclaringClass() != Serializer.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private Kryo createKryo() {
+        Kryo kryo = getKryoInstance();
 
-            KryoUtils.applyRegistrations(
-                    this.kryo,
-                    kryoRegistrations.values(),
-                    flinkChillPackageRegistrar != null
-                            ? flinkChillPackageRegistrar.getNextRegistrationId()
-                            : kryo.getNextRegistrationId());
+        // Serializer instances may be stateful, so every Kryo instance needs its own. The first
+        // Kryo instance created by this serializer uses the instances of this serializer.
+        boolean copySerializerInstances = serializerInstancesInUse;
+        serializerInstancesInUse = true;
 
-            kryo.setRegistrationRequired(false);
-            kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
+        // Enable reference tracking.
+        kryo.setReferences(true);
+
+        // Throwable and all subclasses should be serialized via java serialization
+        // Note: the registered JavaSerializer is Flink's own implementation, and not Kryo's.
+        //       This is due to a know issue with Kryo's JavaSerializer. See FLINK-6025 for
+        // details.
+        kryo.addDefaultSerializer(Throwable.class, new JavaSerializer());
+
+        // Add default serializers first, so that the type registrations without a serializer
+        // are registered with a default serializer
+        for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> entry :
+                defaultSerializers.entrySet()) {
+            ExecutionConfig.SerializableSerializer<?> serializer =
+                    copySerializerInstances
+                            ? deepCopySerializer(entry.getValue())
+                            : entry.getValue();
+            kryo.addDefaultSerializer(entry.getKey(), serializer.getSerializer());
+        }
+
+        for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> entry :
+                defaultSerializerClasses.entrySet()) {
+            kryo.addDefaultSerializer(entry.getKey(), entry.getValue());
+        }
+
+        Collection<KryoRegistration> registrations = kryoRegistrations.values();
+        if (copySerializerInstances) {
+            registrations =
+                    registrations.stream()
+                            .map(this::deepCopyRegistration)
+                            .collect(Collectors.toList());
+        }
+        KryoUtils.applyRegistrations(
+                kryo,
+                registrations,
+                flinkChillPackageRegistrar != null
+                        ? flinkChillPackageRegistrar.getNextRegistrationId()
+                        : kryo.getNextRegistrationId());
+
+        kryo.setRegistrationRequired(false);
+        kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
+        return kryo;
+    }
+
+    /**
+     * Copies a record by serializing and deserializing it, for records which Kryo can not copy
+     * directly. The buffer is kept for the next copy unless it has grown too large.
+     */
+    @SuppressWarnings("unchecked")
+    private T copyBySerialization(Kryo kryo, T from) {
+        if (copyOutput == null) {
+            copyOutput = new Output(COPY_BUFFER_SIZE, -1);
+            copyInput = new Input();
+        }
+
+        try {
+            kryo.writeObject(copyOutput, from);
+            copyInput.setBuffer(copyOutput.getBuffer(), 0, copyOutput.position());
+            return (T) kryo.readObject(copyInput, from.getClass());
+        } finally {
+            copyOutput.clear();
+            if (copyOutput.getBuffer().length > MAX_RETAINED_COPY_BUFFER_SIZE) {
+                copyOutput = null;
+                copyInput = null;
+            }
         }
     }
 
@@ -666,6 +786,7 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
+        kryoPool = new KryoInstancePool();
 
         // kryoRegistrations may be null if this Kryo serializer is deserialized from an old version
         if (kryoRegistrations == null) {
@@ -678,6 +799,22 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
         }
     }
 
+    private KryoRegistration deepCopyRegistration(KryoRegistration kryoRegistration) {
+        if (kryoRegistration.getSerializerDefinitionType()
+                == KryoRegistration.SerializerDefinitionType.INSTANCE) {
+
+            ExecutionConfig.SerializableSerializer<? extends Serializer<?>> serializerInstance =
+                    kryoRegistration.getSerializableSerializerInstance();
+
+            if (serializerInstance != null) {
+                return new KryoRegistration(
+                        kryoRegistration.getRegisteredClass(),
+                        deepCopySerializer(serializerInstance));
+            }
+        }
+        return kryoRegistration;
+    }
+
     private ExecutionConfig.SerializableSerializer<? extends Serializer<?>> deepCopySerializer(
             ExecutionConfig.SerializableSerializer<? extends Serializer<?>> original) {
         try {
@@ -715,9 +852,14 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
         currentThread = null;
     }
 
+    /**
+     * Returns the Kryo instance that this serializer uses on the calling thread, as long as the
+     * serializer is not used concurrently.
+     */
     @VisibleForTesting
     public Kryo getKryo() {
-        checkKryoInitialized();
-        return this.kryo;
+        Kryo kryo = borrowKryo();
+        releaseKryo(kryo);
+        return kryo;
     }
 }
@@ -70,6 +70,12 @@ public class ExecutionOptions {
                                                     + "Such an exchange reduces the resources required to execute the "
                                                     + "job as it does not need to run upstream and downstream "
                                                     + "tasks simultaneously.")
+                                    .linebreak()
+                                    .text(
+                                            "With hybrid exchanges, records are kept in memory and sent to the "
+                                                    + "downstream tasks which are already running, while records are "
+                                                    + "persisted for the downstream tasks which are not running yet or "
+                                                    + "when memory runs short.")
                                     .build());
 
     /**
@@ -593,6 +593,43 @@ public class JobManagerOptions {
                                             code(SchedulerType.AdaptiveBatch.name()))
                                     .build());
 
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Boolean> SPECULATIVE_ENABLED =
+            key("jobmanager.adaptive-batch-scheduler.speculative.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "Controls whether to enable speculative execution if %s has been set to %s. "
+                                                    + "If enabled, slow tasks are detected and speculative attempts of them "
+                                                    + "are launched on other TaskManagers, the attempt which finishes first "
+                                                    + "is used and the others are canceled. Tasks of sink vertices, "
+                                                    + "which do not produce any result, are never speculated.",
+                                            code(SCHEDULER.key()),
+                                            code(SchedulerType.AdaptiveBatch.name()))
+                                    .build());
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> SPECULATIVE_MAX_CONCURRENT_EXECUTIONS =
+            key("jobmanager.adaptive-batch-scheduler.speculative.max-concurrent-executions")
+                    .intType()
+                    .defaultValue(2)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "Controls the maximum number of execution attempts of each task "
+                                                    + "which can execute concurrently, including the original one "
+                                                    + "and speculative ones, if %s is enabled.",
+                                            code(SPECULATIVE_ENABLED.key()))
+                                    .build());
+
     /**
      * The JobManager's ResourceID. If not configured, the ResourceID will be generated randomly.
      */
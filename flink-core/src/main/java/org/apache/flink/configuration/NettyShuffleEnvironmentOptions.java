@@ -88,12 +88,28 @@ public class NettyShuffleEnvironmentOptions {
                                     + "ratio is high.");
 
     /** The codec to be used when compressing shuffle data. */
-    @Documentation.ExcludeFromDocumentation("Currently, LZ4 is the only legal option.")
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
     public static final ConfigOption<String> SHUFFLE_COMPRESSION_CODEC =
             key("taskmanager.network.compression.codec")
                     .stringType()
                     .defaultValue("LZ4")
-                    .withDescription("The codec to be used when compressing shuffle data.");
+                    .withDescription(
+                            "The codec to be used when compressing shuffle data. The supported "
+                                    + "codecs are 'LZ4', 'SNAPPY' and 'ZSTD'. LZ4 and SNAPPY are "
+                                    + "fast, ZSTD achieves a higher compression ratio at the cost "
+                                    + "of more CPU time, which pays off for network or disk bounded "
+                                    + "jobs.");
+
+    /** The compression level of the ZSTD codec when compressing shuffle data. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Integer> SHUFFLE_COMPRESSION_ZSTD_LEVEL =
+            key("taskmanager.network.compression.zstd-level")
+                    .intType()
+                    .defaultValue(3)
+                    .withDescription(
+                            "The compression level of the ZSTD codec when compressing shuffle "
+                                    + "data. Higher levels compress better but cost more CPU time. "
+                                    + "The option only takes effect if the codec is 'ZSTD'.");
 
     /**
      * Boolean flag to enable/disable more detailed metrics about inbound/outbound network queue
@@ -260,6 +276,20 @@ public class NettyShuffleEnvironmentOptions {
                                     // this raw value must be changed correspondingly
                                     "taskmanager.memory.framework.off-heap.batch-shuffle.size"));
 
+    /** Number of bytes to read ahead from the data file of a sort-shuffle result partition. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<MemorySize> NETWORK_SORT_SHUFFLE_READ_AHEAD_SIZE =
+            key("taskmanager.network.sort-shuffle.read-ahead-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.ZERO)
+                    .withDescription(
+                            "Number of bytes to read ahead at once from the data file of a sort-shuffle result"
+                                    + " partition. The reads of all downstream tasks are served in file offset order"
+                                    + " from one read-ahead buffer per result partition, which turns the small reads of"
+                                    + " single network buffers into large sequential reads and helps especially on HDDs."
+                                    + " The read-ahead buffers are allocated from direct memory while a result partition"
+                                    + " is consumed. The value 0 disables the read-ahead.");
+
     /** Number of max buffers can be used for each output subparition. */
     @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
     public static final ConfigOption<Integer> NETWORK_MAX_BUFFERS_PER_CHANNEL =
@@ -324,6 +354,19 @@ public class NettyShuffleEnvironmentOptions {
                                     + " to a smaller value before you "
                                     + "enable tcp connection reuse.");
 
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<MemorySize> RECORD_BATCHING_BLOCK_SIZE =
+            key("taskmanager.network.record-batching.block-size")
+                    .memoryType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "Experimental option to batch small records of streaming tasks. If configured, consecutive records"
+                                    + " for the same output channel are serialized into blocks of about this size which carry a"
+                                    + " single length header, and the receiving task hands over all records of a block in one go."
+                                    + " Every output channel holds one pending block on the heap, so the size should be small"
+                                    + " compared to the network buffer size. Record batching is not used if unaligned checkpoints"
+                                    + " are enabled or if the buffer timeout is 0.");
+
     // ------------------------------------------------------------------------
     //  Netty Options
     // ------------------------------------------------------------------------
@@ -368,6 +411,18 @@ public class NettyShuffleEnvironmentOptions {
                     .withDeprecatedKeys("taskmanager.net.client.connectTimeoutSec")
                     .withDescription("The Netty client connection timeout.");
 
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Integer> CLIENT_MAX_MESSAGES_PER_BATCH =
+            key("taskmanager.network.netty.client.max-messages-per-batch")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The maximum number of partition requests or credit announcements of "
+                                    + "a Netty client which are combined into a single network "
+                                    + "message. With many input channels per connection, e.g. for "
+                                    + "large batch jobs, this reduces the number of messages the "
+                                    + "producer has to handle. The value 1 disables the batching.");
+
     @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
     public static final ConfigOption<Integer> NETWORK_RETRIES =
             key("taskmanager.network.retries")
@@ -399,6 +454,38 @@ public class NettyShuffleEnvironmentOptions {
                                     + " based on the platform. Note that the \"epoll\" mode can get better performance, less GC and have more advanced features which are"
                                     + " only available on modern Linux.");
 
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Boolean> SAME_HOST_SHUFFLE_ENABLED =
+            key("taskmanager.network.netty.same-host-shuffle.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Experimental option whether to pass the data of network buffers through a memory-mapped file"
+                                    + " instead of the socket if the producer and the consumer task managers run on the same"
+                                    + " host. All control messages including the credits still go through the netty connection,"
+                                    + " and buffers which do not fit into the mapped region are sent through the socket."
+                                    + " This requires both task managers to have access to the same directory and is not used"
+                                    + " if SSL is enabled for data transfers.");
+
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<MemorySize> SAME_HOST_SHUFFLE_REGION_SIZE =
+            key("taskmanager.network.netty.same-host-shuffle.region-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("16m"))
+                    .withDescription(
+                            "The size of the memory-mapped file created for every netty connection to a task manager"
+                                    + " on the same host if the same-host shuffle is enabled.");
+
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<String> SAME_HOST_SHUFFLE_DIRECTORY =
+            key("taskmanager.network.netty.same-host-shuffle.directory")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The directory for the memory-mapped files of the same-host shuffle. It must be the same"
+                                    + " for all task managers on a host. If not configured, /dev/shm is used if it exists"
+                                    + " and the temporary directory of the JVM otherwise.");
+
     // ------------------------------------------------------------------------
     //  Partition Request Options
     // ------------------------------------------------------------------------
@@ -122,6 +122,18 @@ public class PipelineOptions {
                                             code("flink-avro"))
                                     .build());
 
+    public static final ConfigOption<Boolean> POJO_SERIALIZER_CODE_GENERATION =
+            key("pipeline.pojo-serializer.code-generation")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "If enabled, the POJO serializer generates the code that accesses"
+                                    + " the fields of a POJO instead of using reflection. Public"
+                                    + " fields are accessed directly, other non-final fields"
+                                    + " through method handles. Getters and setters are never"
+                                    + " called. The serialized format is the same, so the option"
+                                    + " can be changed between restores of a savepoint.");
+
     public static final ConfigOption<Boolean> FORCE_KRYO =
             key("pipeline.force-kryo")
                     .booleanType()
@@ -567,6 +567,17 @@ public class TaskManagerOptions {
                             "The switch of the automatic buffered debloating feature. "
                                     + "If enabled the amount of in-flight data will be adjusted automatically accordingly to the measured throughput.");
 
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Boolean> BUFFER_DEBLOAT_PER_CHANNEL =
+            ConfigOptions.key("taskmanager.network.memory.buffer-debloat.per-channel")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "If enabled, the buffer size is debloated for every input channel individually, based on the "
+                                    + "share of the channel in the throughput of its input gate, instead of using one buffer size "
+                                    + "for all the channels of a gate. This keeps the in-flight data of skewed channels close to "
+                                    + "the target time. Only takes effect if buffer debloating is enabled.");
+
     /**
      * Difference between the new and the old buffer size for applying the new value(in percent).
      */
@@ -699,6 +710,32 @@ public class TaskManagerOptions {
                             "Time we wait for the timers in milliseconds to finish all pending timer threads"
                                     + " when the stream task is cancelled.");
 
+    /** The maximum number of input records that a task processes between two mailbox checks. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER)
+    public static final ConfigOption<Integer> TASK_INPUT_BATCH_MAX_RECORDS =
+            ConfigOptions.key("task.input-batch.max-records")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The maximum number of input records that a stream task processes"
+                                    + " in a row before it checks its mailbox for timers,"
+                                    + " checkpoints and other actions. The actual number adapts"
+                                    + " between 1 and this value: it shrinks while batches take"
+                                    + " longer than 'task.input-batch.target-duration' or actions"
+                                    + " are waiting in the mailbox. A value of 1 processes every"
+                                    + " record on its own.");
+
+    /** The time which a batch of input records should take at most. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER)
+    public static final ConfigOption<Duration> TASK_INPUT_BATCH_TARGET_DURATION =
+            ConfigOptions.key("task.input-batch.target-duration")
+                    .durationType()
+                    .defaultValue(Duration.ofMillis(1))
+                    .withDescription(
+                            "The time that a batch of input records processed in a row by a stream"
+                                    + " task should take at most. Only used if '"
+                                    + "task.input-batch.max-records' is larger than 1.");
+
     // ------------------------------------------------------------------------
 
     /** Not intended to be instantiated. */
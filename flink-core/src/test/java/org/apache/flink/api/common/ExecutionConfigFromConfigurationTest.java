@@ -76,6 +76,14 @@ public class ExecutionConfigFromConfigurationTest {
                                         ExecutionConfig::disableForceAvro))
                         .getterVia(ExecutionConfig::isForceAvroEnabled)
                         .nonDefaultValue(true),
+                TestSpec.testValue(true)
+                        .whenSetFromFile("pipeline.pojo-serializer.code-generation", "true")
+                        .viaSetter(
+                                booleanSetter(
+                                        ExecutionConfig::enablePojoSerializerCodeGeneration,
+                                        ExecutionConfig::disablePojoSerializerCodeGeneration))
+                        .getterVia(ExecutionConfig::isPojoSerializerCodeGenerationEnabled)
+                        .nonDefaultValue(true),
                 TestSpec.testValue(false)
                         .whenSetFromFile("pipeline.force-kryo", "false")
                         .viaSetter(
@@ -20,6 +20,9 @@ package org.apache.flink.api.common.eventtime;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static org.apache.flink.api.common.eventtime.WatermarkMatchers.watermark;
@@ -399,6 +402,30 @@ public class WatermarkOutputMultiplexerTest {
         assertThat(underlyingWatermarkOutput.isIdle(), equalTo(false));
     }
 
+    @Test
+    public void testWatermarkUpdateListenerIsNotifiedOfAdvancingWatermarks() {
+        final TestingWatermarkOutput underlyingWatermarkOutput = createTestingWatermarkOutput();
+        final WatermarkOutputMultiplexer multiplexer =
+                new WatermarkOutputMultiplexer(underlyingWatermarkOutput);
+
+        final List<Long> updates = new ArrayList<>();
+        final String id = UUID.randomUUID().toString();
+        multiplexer.registerNewOutput(id, updates::add);
+        WatermarkOutput immediateOutput = multiplexer.getImmediateOutput(id);
+        WatermarkOutput deferredOutput = multiplexer.getDeferredOutput(id);
+
+        immediateOutput.emitWatermark(new Watermark(2));
+        immediateOutput.emitWatermark(new Watermark(1));
+        deferredOutput.emitWatermark(new Watermark(3));
+        deferredOutput.emitWatermark(new Watermark(3));
+        assertEquals(Arrays.asList(2L, 3L), updates);
+
+        multiplexer.unregisterOutput(id);
+        multiplexer.registerNewOutput(id);
+        multiplexer.getImmediateOutput(id).emitWatermark(new Watermark(4));
+        assertEquals(Arrays.asList(2L, 3L), updates);
+    }
+
     /**
      * Convenience method so we don't have to go through the output ID dance when we only want an
      * immediate output for a given output ID.
@@ -26,7 +26,10 @@ import org.apache.flink.core.io.InputStatus;
 import javax.annotation.concurrent.GuardedBy;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /** A mock {@link SourceReader} for unit tests. */
@@ -35,6 +38,7 @@ public class MockSourceReader implements SourceReader<Integer, MockSourceSplit>
     private final List<SourceEvent> receivedSourceEvents = new ArrayList<>();
     private final List<Long> completedCheckpoints = new ArrayList<>();
     private final List<Long> abortedCheckpoints = new ArrayList<>();
+    private final Set<String> pausedSplits = new HashSet<>();
     private final boolean markIdleOnNoSplits;
 
     private int currentSplitIndex = 0;
@@ -165,6 +169,13 @@ public class MockSourceReader implements SourceReader<Integer, MockSourceSplit>
         abortedCheckpoints.add(checkpointId);
     }
 
+    @Override
+    public void pauseOrResumeSplits(
+            Collection<String> splitsToPause, Collection<String> splitsToResume) {
+        pausedSplits.addAll(splitsToPause);
+        pausedSplits.removeAll(splitsToResume);
+    }
+
     private synchronized void markUnavailable() {
         if (availableFuture.isDone()) {
             availableFuture = new CompletableFuture<>();
@@ -217,4 +228,8 @@ public class MockSourceReader implements SourceReader<Integer, MockSourceSplit>
     public List<Long> getAbortedCheckpoints() {
         return abortedCheckpoints;
     }
+
+    public Set<String> getPausedSplits() {
+        return pausedSplits;
+    }
 }
@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.SerializerTestBase;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/** Tests for the {@link PojoSerializer} with generated field access code. */
+public class PojoSerializerCodeGenerationTest
+        extends SerializerTestBase<PojoSerializerCodeGenerationTest.TestPojo> {
+
+    @Override
+    protected TypeSerializer<TestPojo> createSerializer() {
+        return createSerializer(true);
+    }
+
+    @Override
+    protected int getLength() {
+        return -1;
+    }
+
+    @Override
+    protected Class<TestPojo> getTypeClass() {
+        return TestPojo.class;
+    }
+
+    @Override
+    protected TestPojo[] getTestData() {
+        TestPojo empty = new TestPojo();
+
+        TestPojo full = new TestPojo();
+        full.flag = true;
+        full.b = -3;
+        full.c = 'x';
+        full.s = 1234;
+        full.i = Integer.MIN_VALUE;
+        full.l = Long.MAX_VALUE;
+        full.f = 1.5f;
+        full.d = Math.PI;
+        full.boxed = 42;
+        full.text = "text";
+        full.array = new int[] {1, 2, 3};
+        full.setTimestamp(1652345678901L);
+        full.setName("name");
+        full.nested = new NestedPojo();
+        full.nested.value = "nested";
+
+        TestPojo partial = new TestPojo();
+        partial.i = 17;
+        partial.text = "partial";
+        partial.setName("partial");
+        partial.nested = new NestedPojo();
+
+        return new TestPojo[] {empty, full, partial};
+    }
+
+    @Test
+    public void testFieldsCodecIsGenerated() {
+        PojoSerializer<TestPojo> serializer = (PojoSerializer<TestPojo>) createSerializer();
+        assertNotNull(serializer.getFieldsCodec());
+        assertNotNull(serializer.duplicate().getFieldsCodec());
+
+        assertNull(((PojoSerializer<TestPojo>) createSerializer(false)).getFieldsCodec());
+    }
+
+    @Test
+    public void testSerializedFormatIsUnchanged() throws Exception {
+        TypeSerializer<TestPojo> generated = createSerializer(true);
+        TypeSerializer<TestPojo> reflective = createSerializer(false);
+
+        for (TestPojo pojo : getTestData()) {
+            assertEquals(pojo, roundTrip(pojo, generated, reflective));
+            assertEquals(pojo, roundTrip(pojo, reflective, generated));
+        }
+    }
+
+    @Test
+    public void testFallbackToReflectionForNonPublicClass() throws Exception {
+        Field field = NonPublicPojo.class.getDeclaredField("value");
+        PojoSerializer<NonPublicPojo> serializer =
+                new PojoSerializer<>(
+                        NonPublicPojo.class,
+                        new TypeSerializer<?>[] {IntSerializer.INSTANCE},
+                        new Field[] {field},
+                        createExecutionConfig(true));
+        assertNull(serializer.getFieldsCodec());
+
+        NonPublicPojo pojo = new NonPublicPojo();
+        pojo.value = 5;
+        assertEquals(5, serializer.copy(pojo).value);
+    }
+
+    @Test
+    public void testAccessorsAreNotInvoked() throws Exception {
+        TypeSerializer<AccessorPojo> generated =
+                TypeExtractor.createTypeInfo(AccessorPojo.class)
+                        .createSerializer(createExecutionConfig(true));
+        TypeSerializer<AccessorPojo> reflective =
+                TypeExtractor.createTypeInfo(AccessorPojo.class)
+                        .createSerializer(createExecutionConfig(false));
+        assertNotNull(((PojoSerializer<AccessorPojo>) generated).getFieldsCodec());
+
+        AccessorPojo pojo = new AccessorPojo();
+        pojo.value = 5;
+        pojo.count = 7;
+
+        assertEquals(5, generated.copy(pojo).value);
+        assertEquals(7, generated.copy(pojo).count);
+        assertEquals(5, roundTrip(pojo, generated, reflective).value);
+        assertEquals(7, roundTrip(pojo, reflective, generated).count);
+        assertEquals(0, pojo.accessorCalls);
+    }
+
+    @Test
+    public void testPrivateFieldsOfSuperclass() throws Exception {
+        TypeSerializer<ChildPojo> generated =
+                TypeExtractor.createTypeInfo(ChildPojo.class)
+                        .createSerializer(createExecutionConfig(true));
+        TypeSerializer<ChildPojo> reflective =
+                TypeExtractor.createTypeInfo(ChildPojo.class)
+                        .createSerializer(createExecutionConfig(false));
+        assertNotNull(((PojoSerializer<ChildPojo>) generated).getFieldsCodec());
+
+        ChildPojo pojo = new ChildPojo();
+        pojo.setId(11L);
+        pojo.setLabel("child");
+
+        ChildPojo copy = generated.copy(pojo, generated.createInstance());
+        assertEquals(11L, copy.getId());
+        assertEquals("child", copy.getLabel());
+
+        ChildPojo deserialized = roundTrip(pojo, generated, reflective);
+        assertEquals(11L, deserialized.getId());
+        assertEquals("child", deserialized.getLabel());
+
+        deserialized = roundTrip(pojo, reflective, generated);
+        assertEquals(11L, deserialized.getId());
+        assertEquals("child", deserialized.getLabel());
+    }
+
+    private static <T> T roundTrip(T pojo, TypeSerializer<T> writer, TypeSerializer<T> reader)
+            throws Exception {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        writer.serialize(pojo, out);
+        return reader.deserialize(new DataInputDeserializer(out.getCopyOfBuffer()));
+    }
+
+    private static TypeSerializer<TestPojo> createSerializer(boolean codeGeneration) {
+        return TypeExtractor.createTypeInfo(TestPojo.class)
+                .createSerializer(createExecutionConfig(codeGeneration));
+    }
+
+    private static ExecutionConfig createExecutionConfig(boolean codeGeneration) {
+        ExecutionConfig executionConfig = new ExecutionConfig();
+        if (codeGeneration) {
+            executionConfig.enablePojoSerializerCodeGeneration();
+        }
+        return executionConfig;
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    /** POJO with fields of all primitive types, public fields, and private fields. */
+    public static class TestPojo {
+        public boolean flag;
+        public byte b;
+        public char c;
+        public short s;
+        public int i;
+        public long l;
+        public float f;
+        public double d;
+        public Integer boxed;
+        public String text;
+        public int[] array;
+        public NestedPojo nested;
+
+        private long timestamp;
+        private String name;
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TestPojo setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TestPojo that = (TestPojo) o;
+            return flag == that.flag
+                    && b == that.b
+                    && c == that.c
+                    && s == that.s
+                    && i == that.i
+                    && l == that.l
+                    && Float.compare(f, that.f) == 0
+                    && Double.compare(d, that.d) == 0
+                    && timestamp == that.timestamp
+                    && Objects.equals(boxed, that.boxed)
+                    && Objects.equals(text, that.text)
+                    && Arrays.equals(array, that.array)
+                    && Objects.equals(nested, that.nested)
+                    && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(flag, b, c, s, i, l, f, d, boxed, text, nested, timestamp, name);
+        }
+    }
+
+    /** POJO that is nested in the {@link TestPojo}. */
+    public static class NestedPojo {
+        public String value;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NestedPojo && Objects.equals(value, ((NestedPojo) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(value);
+        }
+    }
+
+    /**
+     * POJO whose getters and setters do more than accessing the fields, the serializer must not
+     * invoke them.
+     */
+    public static class AccessorPojo {
+        private int value;
+        private int count;
+        public transient int accessorCalls;
+
+        public int getValue() {
+            accessorCalls++;
+            return value + 1;
+        }
+
+        public void setValue(int value) {
+            accessorCalls++;
+            this.value = value * 2;
+        }
+
+        public int count() {
+            accessorCalls++;
+            return count + 1;
+        }
+
+        public void setCount(int count) {
+            accessorCalls++;
+            this.count = count * 2;
+        }
+    }
+
+    /** POJO with a private field that is declared in a superclass. */
+    public static class BasePojo {
+        private long id;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    /** POJO that inherits a private field of the {@link BasePojo}. */
+    public static class ChildPojo extends BasePojo {
+        private String label;
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+
+    /** The generated code can not access this class. */
+    static class NonPublicPojo {
+        public int value;
+    }
+}
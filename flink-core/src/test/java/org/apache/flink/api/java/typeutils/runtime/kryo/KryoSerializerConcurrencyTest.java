@@ -46,50 +46,86 @@ import static org.junit.Assert.fail;
 public class KryoSerializerConcurrencyTest {
 
     @Test
-    public void testDuplicateSerializerWithDefaultSerializerClass() {
+    public void testDuplicateSerializerWithDefaultSerializerClass() throws Exception {
         ExecutionConfig executionConfig = new ExecutionConfig();
         executionConfig.addDefaultKryoSerializer(WrappedString.class, TestSerializer.class);
         runDuplicateSerializerTest(executionConfig);
     }
 
     @Test
-    public void testDuplicateSerializerWithDefaultSerializerInstance() {
+    public void testDuplicateSerializerWithDefaultSerializerInstance() throws Exception {
         ExecutionConfig executionConfig = new ExecutionConfig();
         executionConfig.addDefaultKryoSerializer(WrappedString.class, new TestSerializer());
         runDuplicateSerializerTest(executionConfig);
     }
 
     @Test
-    public void testDuplicateSerializerWithRegisteredSerializerClass() {
+    public void testDuplicateSerializerWithRegisteredSerializerClass() throws Exception {
         ExecutionConfig executionConfig = new ExecutionConfig();
         executionConfig.registerTypeWithKryoSerializer(WrappedString.class, TestSerializer.class);
         runDuplicateSerializerTest(executionConfig);
     }
 
     @Test
-    public void testDuplicateSerializerWithRegisteredSerializerInstance() {
+    public void testDuplicateSerializerWithRegisteredSerializerInstance() throws Exception {
         ExecutionConfig executionConfig = new ExecutionConfig();
         executionConfig.registerTypeWithKryoSerializer(WrappedString.class, new TestSerializer());
         runDuplicateSerializerTest(executionConfig);
     }
 
-    private void runDuplicateSerializerTest(ExecutionConfig executionConfig) {
+    private void runDuplicateSerializerTest(ExecutionConfig executionConfig) throws Exception {
         final KryoSerializer<WrappedString> original =
                 new KryoSerializer<>(WrappedString.class, executionConfig);
         final KryoSerializer<WrappedString> duplicate = original.duplicate();
 
-        WrappedString testString = new WrappedString("test");
+        final WrappedString testString = new WrappedString("test");
 
         String copyWithOriginal = original.copy(testString).content;
-        String copyWithDuplicate = duplicate.copy(testString).content;
+
+        // the original serializer holds on to its Kryo instance while it is blocked
+        final BlockerSync sync = new BlockerSync();
+        final DataOutputView lockingOut = new LockingView(sync);
+        final CheckedThread thread =
+                new CheckedThread("serializer") {
+                    @Override
+                    public void go() throws Exception {
+                        original.serialize(testString, lockingOut);
+                    }
+                };
+        thread.start();
+        sync.awaitBlocker();
+
+        String copyWithDuplicate;
+        try {
+            copyWithDuplicate = duplicate.copy(testString).content;
+        } finally {
+            sync.releaseBlocker();
+        }
+        thread.sync();
 
         Assert.assertTrue(copyWithOriginal.startsWith(testString.content));
         Assert.assertTrue(copyWithDuplicate.startsWith(testString.content));
 
-        // check that both serializer instances have appended a different identity hash
+        // check that the Kryo instances used at the same time by the serializer and its duplicate
+        // have appended a different identity hash, i.e. do not share the serializer instances
         Assert.assertNotEquals(copyWithOriginal, copyWithDuplicate);
     }
 
+    @Test
+    public void testDuplicatesShareKryoInstances() {
+        ExecutionConfig executionConfig = new ExecutionConfig();
+        executionConfig.registerTypeWithKryoSerializer(WrappedString.class, TestSerializer.class);
+        final KryoSerializer<WrappedString> original =
+                new KryoSerializer<>(WrappedString.class, executionConfig);
+        final KryoSerializer<WrappedString> duplicate = original.duplicate();
+
+        WrappedString testString = new WrappedString("test");
+
+        // used one after the other, the duplicate uses the Kryo instance of the original
+        Assert.assertEquals(
+                original.copy(testString).content, duplicate.copy(testString).content);
+    }
+
     @Test
     public void testConcurrentUseOfSerializer() throws Exception {
         final KryoSerializer<String> serializer =
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime.kryo;
+
+import org.apache.flink.api.common.ExecutionConfig;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/** Tests for copying records with the {@link KryoSerializer}. */
+public class KryoSerializerCopyTest {
+
+    @Test
+    public void testCopyWithRegisteredSerializer() {
+        ExecutionConfig executionConfig = new ExecutionConfig();
+        executionConfig.registerTypeWithKryoSerializer(
+                CopyableRecord.class, CopyableRecordSerializer.class);
+        KryoSerializer<CopyableRecord> serializer =
+                new KryoSerializer<>(CopyableRecord.class, executionConfig);
+        int numCopies = CopyableRecordSerializer.NUM_COPIES.get();
+
+        for (int i = 0; i < 3; i++) {
+            CopyableRecord record = new CopyableRecord("value " + i);
+            CopyableRecord copy = serializer.copy(record);
+            assertNotSame(record, copy);
+            assertEquals(record.value, copy.value);
+        }
+
+        // all records are cloned by the registered serializer
+        assertEquals(numCopies + 3, CopyableRecordSerializer.NUM_COPIES.get());
+    }
+
+    @Test
+    public void testCopyBySerializationIfKryoCannotCopy() {
+        ExecutionConfig executionConfig = new ExecutionConfig();
+        executionConfig.registerTypeWithKryoSerializer(
+                NotCopyableRecord.class, NotCopyableRecordSerializer.class);
+        KryoSerializer<NotCopyableRecord> serializer =
+                new KryoSerializer<>(NotCopyableRecord.class, executionConfig);
+
+        for (int i = 0; i < 3; i++) {
+            NotCopyableRecord record = new NotCopyableRecord("value " + i);
+            NotCopyableRecord copy = serializer.copy(record);
+            assertNotSame(record, copy);
+            assertEquals(record.value, copy.value);
+        }
+        assertEquals("a", serializer.duplicate().copy(new NotCopyableRecord("a")).value);
+    }
+
+    @Test
+    public void testGetKryoReturnsTheUsedInstance() {
+        KryoSerializer<CopyableRecord> serializer =
+                new KryoSerializer<>(CopyableRecord.class, new ExecutionConfig());
+        Kryo kryo = serializer.getKryo();
+
+        serializer.copy(new CopyableRecord("value"));
+        assertSame(kryo, serializer.getKryo());
+        assertSame(kryo, serializer.duplicate().getKryo());
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** A record whose registered serializer clones it. */
+    public static class CopyableRecord {
+
+        private final String value;
+
+        CopyableRecord(String value) {
+            this.value = value;
+        }
+    }
+
+    /** Serializer for {@link CopyableRecord} which counts the copied records. */
+    public static class CopyableRecordSerializer extends Serializer<CopyableRecord>
+            implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final AtomicInteger NUM_COPIES = new AtomicInteger();
+
+        @Override
+        public void write(Kryo kryo, Output output, CopyableRecord object) {
+            output.writeString(object.value);
+        }
+
+        @Override
+        public CopyableRecord read(Kryo kryo, Input input, Class<CopyableRecord> type) {
+            return new CopyableRecord(input.readString());
+        }
+
+        @Override
+        public CopyableRecord copy(Kryo kryo, CopyableRecord original) {
+            NUM_COPIES.incrementAndGet();
+            return new CopyableRecord(original.value);
+        }
+    }
+
+    /** A record whose registered serializer does not support copying. */
+    public static class NotCopyableRecord {
+
+        private final String value;
+
+        NotCopyableRecord(String value) {
+            this.value = value;
+        }
+    }
+
+    /** Serializer for {@link NotCopyableRecord} which does not implement {@link #copy}. */
+    public static class NotCopyableRecordSerializer extends Serializer<NotCopyableRecord>
+            implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void write(Kryo kryo, Output output, NotCopyableRecord object) {
+            output.writeString(object.value);
+        }
+
+        @Override
+        public NotCopyableRecord read(Kryo kryo, Input input, Class<NotCopyableRecord> type) {
+            return new NotCopyableRecord(input.readString());
+        }
+    }
+}
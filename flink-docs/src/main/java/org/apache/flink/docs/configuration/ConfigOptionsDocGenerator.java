@@ -76,6 +76,8 @@ public class ConfigOptionsDocGenerator {
                 new OptionsClassLocation("flink-core", "org.apache.flink.configuration"),
                 new OptionsClassLocation("flink-runtime", "org.apache.flink.runtime.shuffle"),
                 new OptionsClassLocation("flink-runtime", "org.apache.flink.runtime.jobgraph"),
+                new OptionsClassLocation(
+                        "flink-runtime", "org.apache.flink.runtime.state.hashmap"),
                 new OptionsClassLocation(
                         "flink-runtime", "org.apache.flink.runtime.highavailability"),
                 new OptionsClassLocation(
@@ -90,6 +92,9 @@ public class ConfigOptionsDocGenerator {
                 new OptionsClassLocation(
                         "flink-state-backends/flink-statebackend-rocksdb",
                         "org.apache.flink.contrib.streaming.state"),
+                new OptionsClassLocation(
+                        "flink-state-backends/flink-statebackend-heap-spillable",
+                        "org.apache.flink.runtime.state.heap"),
                 new OptionsClassLocation(
                         "flink-table/flink-table-api-java", "org.apache.flink.table.api.config"),
                 new OptionsClassLocation("flink-python", "org.apache.flink.python"),
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.ReadableConfig;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Batching policy to use by {@link BatchingStateChangeUploadScheduler}: decides for how long the
+ * changes are accumulated before they are uploaded together into a single file.
+ */
+@Internal
+@ThreadSafe
+interface BatchingPolicy {
+    static BatchingPolicy fromConfig(ReadableConfig config) {
+        long persistDelayMs = config.get(FsStateChangelogOptions.PERSIST_DELAY).toMillis();
+        long sizeThresholdBytes =
+                config.get(FsStateChangelogOptions.PERSIST_SIZE_THRESHOLD).getBytes();
+        return config.get(FsStateChangelogOptions.ADAPTIVE_BATCHING_ENABLED)
+                ? adaptive(persistDelayMs, sizeThresholdBytes)
+                : fixed(persistDelayMs, sizeThresholdBytes);
+    }
+
+    /** @return delay in millis after scheduling the first change and before uploading. */
+    long getPersistDelayMs();
+
+    /** @return size of the scheduled changes upon which they are uploaded without any delay. */
+    long getSizeThresholdBytes();
+
+    /** Called by the uploader threads after each successful upload. */
+    void onUploadCompleted(long sizeBytes, long latencyNanos);
+
+    static BatchingPolicy fixed(long persistDelayMs, long sizeThresholdBytes) {
+        return new FixedBatchingPolicy(persistDelayMs, sizeThresholdBytes);
+    }
+
+    static BatchingPolicy adaptive(long maxPersistDelayMs, long maxSizeThresholdBytes) {
+        return new AdaptiveBatchingPolicy(maxPersistDelayMs, maxSizeThresholdBytes);
+    }
+
+    /** {@link BatchingPolicy} with fixed delay and size threshold. */
+    class FixedBatchingPolicy implements BatchingPolicy {
+        private final long persistDelayMs;
+        private final long sizeThresholdBytes;
+
+        FixedBatchingPolicy(long persistDelayMs, long sizeThresholdBytes) {
+            this.persistDelayMs = persistDelayMs;
+            this.sizeThresholdBytes = sizeThresholdBytes;
+        }
+
+        @Override
+        public long getPersistDelayMs() {
+            return persistDelayMs;
+        }
+
+        @Override
+        public long getSizeThresholdBytes() {
+            return sizeThresholdBytes;
+        }
+
+        @Override
+        public void onUploadCompleted(long sizeBytes, long latencyNanos) {}
+
+        @Override
+        public String toString() {
+            return "persistDelayMs=" + persistDelayMs + ", sizeThresholdBytes=" + sizeThresholdBytes;
+        }
+    }
+
+    /**
+     * {@link BatchingPolicy} that derives the delay and the size threshold from the observed
+     * uploads, bounded by the configured values.
+     *
+     * <p>The latency of an upload is modelled as a fixed per-request cost plus the time to transfer
+     * its bytes. Both are estimated by a least squares fit over the recent uploads, older uploads
+     * having exponentially lower weight. Then:
+     *
+     * <ul>
+     *   <li>the delay is a fraction of the fixed cost: if requests are expensive, it pays off to
+     *       wait for more changes to share one request; if they are cheap, changes are uploaded
+     *       almost immediately, reducing checkpoint time
+     *   <li>the size threshold is the amount of bytes transferred in the time of the fixed cost:
+     *       accumulating more would barely reduce the cost per byte but would delay the upload
+     * </ul>
+     *
+     * <p>Until enough uploads were observed, the configured values are used.
+     */
+    class AdaptiveBatchingPolicy implements BatchingPolicy {
+        @VisibleForTesting static final int MIN_SAMPLES = 10;
+        private static final double DECAY = 0.95;
+        private static final double DELAY_TO_FIXED_COST_RATIO = 0.5;
+        private static final long MIN_SIZE_THRESHOLD_BYTES = 64 * 1024;
+
+        private final long maxPersistDelayMs;
+        private final long maxSizeThresholdBytes;
+
+        // decayed sums for the least squares fit of latency (millis) over size (bytes)
+        @GuardedBy("this")
+        private double weights;
+
+        @GuardedBy("this")
+        private double sumSizes;
+
+        @GuardedBy("this")
+        private double sumLatencies;
+
+        @GuardedBy("this")
+        private double sumSizesSquared;
+
+        @GuardedBy("this")
+        private double sumSizesTimesLatencies;
+
+        @GuardedBy("this")
+        private int numSamples;
+
+        private volatile long persistDelayMs;
+        private volatile long sizeThresholdBytes;
+
+        AdaptiveBatchingPolicy(long maxPersistDelayMs, long maxSizeThresholdBytes) {
+            checkArgument(maxPersistDelayMs >= 0);
+            checkArgument(maxSizeThresholdBytes >= 0);
+            this.maxPersistDelayMs = maxPersistDelayMs;
+            this.maxSizeThresholdBytes = maxSizeThresholdBytes;
+            this.persistDelayMs = maxPersistDelayMs;
+            this.sizeThresholdBytes = maxSizeThresholdBytes;
+        }
+
+        @Override
+        public long getPersistDelayMs() {
+            return persistDelayMs;
+        }
+
+        @Override
+        public long getSizeThresholdBytes() {
+            return sizeThresholdBytes;
+        }
+
+        @Override
+        public synchronized void onUploadCompleted(long sizeBytes, long latencyNanos) {
+            double latencyMs = latencyNanos / 1_000_000d;
+            weights = weights * DECAY + 1;
+            sumSizes = sumSizes * DECAY + sizeBytes;
+            sumLatencies = sumLatencies * DECAY + latencyMs;
+            sumSizesSquared = sumSizesSquared * DECAY + (double) sizeBytes * sizeBytes;
+            sumSizesTimesLatencies = sumSizesTimesLatencies * DECAY + sizeBytes * latencyMs;
+            if (++numSamples < MIN_SAMPLES) {
+                return;
+            }
+
+            double meanSize = sumSizes / weights;
+            double meanLatency = sumLatencies / weights;
+            double sizeVariance = sumSizesSquared / weights - meanSize * meanSize;
+            double msPerByte =
+                    sizeVariance > 0
+                            ? (sumSizesTimesLatencies / weights - meanSize * meanLatency)
+                                    / sizeVariance
+                            : 0;
+            double fixedCostMs;
+            if (msPerByte > 0) {
+                fixedCostMs = Math.max(0, meanLatency - msPerByte * meanSize);
+            } else {
+                // the latency doesn't depend on the size (or the sizes don't vary)
+                fixedCostMs = meanLatency;
+            }
+
+            persistDelayMs =
+                    Math.min(
+                            maxPersistDelayMs, Math.round(fixedCostMs * DELAY_TO_FIXED_COST_RATIO));
+            long threshold =
+                    msPerByte > 0 ? (long) (fixedCostMs / msPerByte) : maxSizeThresholdBytes;
+            sizeThresholdBytes =
+                    Math.min(maxSizeThresholdBytes, Math.max(MIN_SIZE_THRESHOLD_BYTES, threshold));
+        }
+
+        @Override
+        public String toString() {
+            return "adaptive, maxPersistDelayMs="
+                    + maxPersistDelayMs
+                    + ", maxSizeThresholdBytes="
+                    + maxSizeThresholdBytes;
+        }
+    }
+}
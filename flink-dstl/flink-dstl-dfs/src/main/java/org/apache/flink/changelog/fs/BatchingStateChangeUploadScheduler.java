@@ -47,8 +47,8 @@ import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkState;
 
 /**
- * A {@link StateChangeUploadScheduler} that waits for some configured amount of time before passing
- * the accumulated state changes to the actual store.
+ * A {@link StateChangeUploadScheduler} that waits for some amount of time, as decided by the {@link
+ * BatchingPolicy}, before passing the accumulated state changes to the actual store.
  */
 @ThreadSafe
 class BatchingStateChangeUploadScheduler implements StateChangeUploadScheduler {
@@ -59,8 +59,7 @@ class BatchingStateChangeUploadScheduler implements StateChangeUploadScheduler {
     private final RetryPolicy retryPolicy;
     private final StateChangeUploader delegate;
     private final ScheduledExecutorService scheduler;
-    private final long scheduleDelayMs;
-    private final long sizeThresholdBytes;
+    private final BatchingPolicy batchingPolicy;
 
     /**
      * The lock is used to synchronize concurrent accesses:
@@ -108,8 +107,23 @@ class BatchingStateChangeUploadScheduler implements StateChangeUploadScheduler {
             long maxBytesInFlight,
             ChangelogStorageMetricGroup metricGroup) {
         this(
-                persistDelayMs,
-                sizeThresholdBytes,
+                BatchingPolicy.fixed(persistDelayMs, sizeThresholdBytes),
+                retryPolicy,
+                delegate,
+                numUploadThreads,
+                maxBytesInFlight,
+                metricGroup);
+    }
+
+    BatchingStateChangeUploadScheduler(
+            BatchingPolicy batchingPolicy,
+            RetryPolicy retryPolicy,
+            StateChangeUploader delegate,
+            int numUploadThreads,
+            long maxBytesInFlight,
+            ChangelogStorageMetricGroup metricGroup) {
+        this(
+                batchingPolicy,
                 maxBytesInFlight,
                 retryPolicy,
                 delegate,
@@ -130,17 +144,35 @@ class BatchingStateChangeUploadScheduler implements StateChangeUploadScheduler {
             ScheduledExecutorService scheduler,
             RetryingExecutor retryingExecutor,
             ChangelogStorageMetricGroup metricGroup) {
+        this(
+                BatchingPolicy.fixed(persistDelayMs, sizeThresholdBytes),
+                maxBytesInFlight,
+                retryPolicy,
+                delegate,
+                scheduler,
+                retryingExecutor,
+                metricGroup);
+    }
+
+    BatchingStateChangeUploadScheduler(
+            BatchingPolicy batchingPolicy,
+            long maxBytesInFlight,
+            RetryPolicy retryPolicy,
+            StateChangeUploader delegate,
+            ScheduledExecutorService scheduler,
+            RetryingExecutor retryingExecutor,
+            ChangelogStorageMetricGroup metricGroup) {
+        // an adaptive policy only lowers the threshold
         checkArgument(
-                sizeThresholdBytes <= maxBytesInFlight,
+                batchingPolicy.getSizeThresholdBytes() <= maxBytesInFlight,
                 "sizeThresholdBytes (%s) must not exceed maxBytesInFlight (%s)",
-                sizeThresholdBytes,
+                batchingPolicy.getSizeThresholdBytes(),
                 maxBytesInFlight);
-        this.scheduleDelayMs = persistDelayMs;
+        this.batchingPolicy = batchingPolicy;
         this.scheduled = new LinkedList<>();
         this.scheduler = scheduler;
         this.retryPolicy = retryPolicy;
         this.retryingExecutor = retryingExecutor;
-        this.sizeThresholdBytes = sizeThresholdBytes;
         this.delegate = delegate;
         this.uploadThrottle = new UploadThrottle(maxBytesInFlight);
         this.availabilityHelper = new AvailabilityHelper();
@@ -152,6 +184,9 @@ class BatchingStateChangeUploadScheduler implements StateChangeUploadScheduler {
                         return scheduled.size();
                     }
                 });
+        metricGroup.registerBatchingGauges(
+                batchingPolicy::getPersistDelayMs, batchingPolicy::getSizeThresholdBytes);
+        LOG.info("Batching changelog uploads with {}", batchingPolicy);
     }
 
     @Override
@@ -204,7 +239,9 @@ class BatchingStateChangeUploadScheduler implements StateChangeUploadScheduler {
 
     private void scheduleUploadIfNeeded() {
         checkState(holdsLock(lock));
-        if (scheduleDelayMs == 0 || scheduledBytesCounter >= sizeThresholdBytes) {
+        long scheduleDelayMs = batchingPolicy.getPersistDelayMs();
+        if (scheduleDelayMs == 0
+                || scheduledBytesCounter >= batchingPolicy.getSizeThresholdBytes()) {
             if (scheduledFuture != null) {
                 scheduledFuture.cancel(false);
                 scheduledFuture = null;
@@ -303,7 +340,13 @@ class BatchingStateChangeUploadScheduler implements StateChangeUploadScheduler {
         return new RetryingExecutor.RetriableAction<UploadTasksResult>() {
             @Override
             public UploadTasksResult tryExecute() throws Exception {
-                return delegate.upload(tasks);
+                long start = System.nanoTime();
+                UploadTasksResult result = delegate.upload(tasks);
+                if (result != null) {
+                    batchingPolicy.onUploadCompleted(
+                            result.getStateSize(), System.nanoTime() - start);
+                }
+                return result;
             }
 
             @Override
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.ConfigurationUtils;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.local.LocalDataInputStream;
+import org.apache.flink.runtime.state.PhysicalStateHandleID;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.util.FileUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.LOCAL_CACHE_MAX_SIZE;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * TM-local copy of the changelog files uploaded by {@link StateChangeFsUploader}. A copy is written
+ * along with the upload and is looked up on recovery by the {@link PhysicalStateHandleID} of the
+ * uploaded handle, so that a task restarted on the same TM does not need to download its
+ * changelog. Once the cached files exceed the size limit, the oldest ones are removed first.
+ */
+@Internal
+@ThreadSafe
+class ChangelogLocalCache implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ChangelogLocalCache.class);
+
+    private final File directory;
+    private final long maxSizeInBytes;
+    private final Object lock = new Object();
+
+    /** Cached files in insertion order, used for eviction. */
+    @GuardedBy("lock")
+    private final LinkedHashMap<PhysicalStateHandleID, CachedFile> files = new LinkedHashMap<>();
+
+    @GuardedBy("lock")
+    private long sizeInBytes;
+
+    @GuardedBy("lock")
+    private boolean closed;
+
+    ChangelogLocalCache(File directory, long maxSizeInBytes) throws IOException {
+        checkArgument(maxSizeInBytes > 0, "Cache size must be positive: %s", maxSizeInBytes);
+        this.directory = checkNotNull(directory);
+        this.maxSizeInBytes = maxSizeInBytes;
+        Files.createDirectories(directory.toPath());
+        LOG.info("Caching changelog locally in {}, max size {} bytes", directory, maxSizeInBytes);
+    }
+
+    static ChangelogLocalCache fromConfig(Configuration config) throws IOException {
+        return new ChangelogLocalCache(
+                new File(
+                        ConfigurationUtils.getRandomTempDirectory(config),
+                        "changelog-cache-" + UUID.randomUUID()),
+                config.get(LOCAL_CACHE_MAX_SIZE).getBytes());
+    }
+
+    /**
+     * Wraps the given upload stream so that everything written to it is also written to a new
+     * local file. The copy becomes visible only after {@link CachingOutputStream#commit
+     * committing} it.
+     */
+    CachingOutputStream createCachingStream(OutputStream target) {
+        return new CachingOutputStream(target, new File(directory, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Opens the local copy of the given handle.
+     *
+     * @return the stream, or {@code null} if the handle is not cached.
+     */
+    @Nullable
+    FSDataInputStream open(StreamStateHandle handle) {
+        CachedFile cached;
+        synchronized (lock) {
+            cached = files.get(handle.getStreamStateHandleID());
+        }
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return new LocalDataInputStream(cached.file);
+        } catch (IOException e) {
+            // e.g. evicted concurrently, fall back to the original handle
+            LOG.debug("Unable to open cached changelog file {}", cached.file, e);
+            return null;
+        }
+    }
+
+    private void put(PhysicalStateHandleID id, File file, long size) {
+        synchronized (lock) {
+            if (closed) {
+                deleteQuietly(file);
+                return;
+            }
+            CachedFile previous = files.put(id, new CachedFile(file, size));
+            if (previous != null) {
+                sizeInBytes -= previous.size;
+                deleteQuietly(previous.file);
+            }
+            sizeInBytes += size;
+            Iterator<Map.Entry<PhysicalStateHandleID, CachedFile>> it =
+                    files.entrySet().iterator();
+            while (sizeInBytes > maxSizeInBytes && it.hasNext()) {
+                CachedFile evicted = it.next().getValue();
+                it.remove();
+                sizeInBytes -= evicted.size;
+                deleteQuietly(evicted.file);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            files.clear();
+            sizeInBytes = 0;
+        }
+        FileUtils.deleteDirectory(directory);
+    }
+
+    private static void deleteQuietly(File file) {
+        if (!file.delete() && file.exists()) {
+            LOG.warn("Unable to delete cached changelog file {}", file);
+        }
+    }
+
+    private static final class CachedFile {
+        private final File file;
+        private final long size;
+
+        private CachedFile(File file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    /**
+     * An {@link OutputStream} that writes through to the upload stream and to a local file. Failing
+     * to write the local file does not fail the upload, the copy is just not cached.
+     */
+    final class CachingOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final File file;
+        @Nullable private OutputStream local;
+        private boolean failed;
+        private long size;
+
+        private CachingOutputStream(OutputStream target, File file) {
+            this.target = target;
+            this.file = file;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            if (openLocal()) {
+                try {
+                    local.write(b);
+                    size++;
+                } catch (IOException e) {
+                    onLocalFailure(e);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            if (openLocal()) {
+                try {
+                    local.write(b, off, len);
+                    size += len;
+                } catch (IOException e) {
+                    onLocalFailure(e);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                target.close();
+            } finally {
+                closeLocal();
+            }
+        }
+
+        /** Makes the local copy available for the given uploaded handle. */
+        void commit(StreamStateHandle handle) {
+            closeLocal();
+            if (failed || local == null) {
+                deleteQuietly(file);
+            } else {
+                put(handle.getStreamStateHandleID(), file, size);
+            }
+        }
+
+        /** Drops the local copy, e.g. if the upload failed. */
+        void discard() {
+            failed = true;
+            closeLocal();
+            deleteQuietly(file);
+        }
+
+        private boolean openLocal() {
+            if (local == null && !failed) {
+                try {
+                    local = new FileOutputStream(file);
+                } catch (IOException e) {
+                    onLocalFailure(e);
+                }
+            }
+            return !failed;
+        }
+
+        private void closeLocal() {
+            if (local != null) {
+                try {
+                    local.close();
+                } catch (IOException e) {
+                    onLocalFailure(e);
+                }
+            }
+        }
+
+        private void onLocalFailure(IOException e) {
+            if (!failed) {
+                LOG.warn("Unable to cache changelog locally in {}", file, e);
+                failed = true;
+            }
+        }
+    }
+}
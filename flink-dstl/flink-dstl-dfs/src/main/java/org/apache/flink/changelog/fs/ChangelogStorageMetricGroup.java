@@ -108,6 +108,12 @@ public class ChangelogStorageMetricGroup extends ProxyMetricGroup<MetricGroup> {
         gauge(CHANGELOG_STORAGE_UPLOAD_QUEUE_SIZE, gauge);
     }
 
+    /** The current delay and size threshold of the batching, which might change if adaptive. */
+    public void registerBatchingGauges(Gauge<Long> persistDelayMs, Gauge<Long> sizeThresholdBytes) {
+        gauge(CHANGELOG_STORAGE_BATCH_PERSIST_DELAY, persistDelayMs);
+        gauge(CHANGELOG_STORAGE_BATCH_SIZE_THRESHOLD, sizeThresholdBytes);
+    }
+
     private static class ThreadSafeCounter implements Counter {
         private final LongAdder longAdder = new LongAdder();
 
@@ -151,4 +157,8 @@ public class ChangelogStorageMetricGroup extends ProxyMetricGroup<MetricGroup> {
             PREFIX + ".totalAttemptsPerUpload";
     public static final String CHANGELOG_STORAGE_UPLOAD_BATCH_SIZES = PREFIX + ".uploadBatchSizes";
     public static final String CHANGELOG_STORAGE_UPLOAD_QUEUE_SIZE = PREFIX + ".uploadQueueSize";
+    public static final String CHANGELOG_STORAGE_BATCH_PERSIST_DELAY =
+            PREFIX + ".batchPersistDelay";
+    public static final String CHANGELOG_STORAGE_BATCH_SIZE_THRESHOLD =
+            PREFIX + ".batchSizeThreshold";
 }
@@ -76,6 +76,20 @@ public class FsStateChangelogOptions {
                                     + " as it happens AFTER the checkpoint and potentially for state changes of multiple operators. "
                                     + "Must not exceed in-flight data limit (see below)");
 
+    public static final ConfigOption<Boolean> ADAPTIVE_BATCHING_ENABLED =
+            ConfigOptions.key("dstl.dfs.batch.adaptive.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to derive the delay and the size threshold for persisting changelog "
+                                    + "from the observed upload latency and throughput. "
+                                    + "If the uploads have a high fixed cost per request, changes are accumulated for longer into fewer files; "
+                                    + "otherwise, they are uploaded sooner, reducing checkpoint time. "
+                                    + PERSIST_DELAY.key()
+                                    + " and "
+                                    + PERSIST_SIZE_THRESHOLD.key()
+                                    + " are used as the upper bounds.");
+
     public static final ConfigOption<MemorySize> UPLOAD_BUFFER_SIZE =
             ConfigOptions.key("dstl.dfs.upload.buffer-size")
                     .memoryType()
@@ -110,6 +124,35 @@ public class FsStateChangelogOptions {
                                     + "Must be greater than or equal to "
                                     + PERSIST_SIZE_THRESHOLD.key());
 
+    public static final ConfigOption<Boolean> LOCAL_CACHE_ENABLED =
+            ConfigOptions.key("dstl.dfs.local-cache.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to keep a copy of the uploaded changelog files on the local disk of the TaskManager. "
+                                    + "Recovery of a task on the same TaskManager then reads the changelog from the local copy "
+                                    + "instead of downloading it. The copy is kept in the temporary directories of the TaskManager "
+                                    + "until the job is released from it.");
+
+    public static final ConfigOption<MemorySize> LOCAL_CACHE_MAX_SIZE =
+            ConfigOptions.key("dstl.dfs.local-cache.max-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("512Mb"))
+                    .withDescription(
+                            "Max total size of the locally cached changelog files of a job on a TaskManager. "
+                                    + "Once exceeded, the oldest files are removed from the cache first. "
+                                    + "Only takes effect if "
+                                    + LOCAL_CACHE_ENABLED.key()
+                                    + " is true.");
+
+    public static final ConfigOption<Integer> NUM_RECOVERY_READ_THREADS =
+            ConfigOptions.key("dstl.dfs.recovery.num-read-threads")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription(
+                            "Number of threads to use to read (download and decode) changelog ahead of its replay on recovery. "
+                                    + "Zero reads the changelog sequentially on the task thread.");
+
     public static final ConfigOption<String> RETRY_POLICY =
             ConfigOptions.key("dstl.dfs.upload.retry-policy")
                     .stringType()
@@ -31,13 +31,16 @@ import org.apache.flink.runtime.state.changelog.StateChangelogStorage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.IOException;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.LOCAL_CACHE_ENABLED;
 import static org.apache.flink.changelog.fs.FsStateChangelogOptions.NUM_DISCARD_THREADS;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.NUM_RECOVERY_READ_THREADS;
 import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PREEMPTIVE_PERSIST_THRESHOLD;
 import static org.apache.flink.changelog.fs.StateChangeUploadScheduler.directScheduler;
 import static org.apache.flink.changelog.fs.StateChangeUploadScheduler.fromConfig;
@@ -72,9 +75,28 @@ public class FsStateChangelogStorage extends FsStateChangelogStorageForRecovery
             TaskChangelogRegistry changelogRegistry)
             throws IOException {
         this(
-                fromConfig(config, new ChangelogStorageMetricGroup(metricGroup), changelogRegistry),
+                config,
+                metricGroup,
+                changelogRegistry,
+                config.get(LOCAL_CACHE_ENABLED) ? ChangelogLocalCache.fromConfig(config) : null);
+    }
+
+    private FsStateChangelogStorage(
+            Configuration config,
+            TaskManagerJobMetricGroup metricGroup,
+            TaskChangelogRegistry changelogRegistry,
+            @Nullable ChangelogLocalCache localCache)
+            throws IOException {
+        this(
+                fromConfig(
+                        config,
+                        new ChangelogStorageMetricGroup(metricGroup),
+                        changelogRegistry,
+                        localCache),
                 config.get(PREEMPTIVE_PERSIST_THRESHOLD).getBytes(),
-                changelogRegistry);
+                changelogRegistry,
+                localCache,
+                config.get(NUM_RECOVERY_READ_THREADS));
     }
 
     @VisibleForTesting
@@ -103,6 +125,17 @@ public class FsStateChangelogStorage extends FsStateChangelogStorageForRecovery
             StateChangeUploadScheduler uploader,
             long preEmptivePersistThresholdInBytes,
             TaskChangelogRegistry changelogRegistry) {
+        this(uploader, preEmptivePersistThresholdInBytes, changelogRegistry, null, 0);
+    }
+
+    @VisibleForTesting
+    FsStateChangelogStorage(
+            StateChangeUploadScheduler uploader,
+            long preEmptivePersistThresholdInBytes,
+            TaskChangelogRegistry changelogRegistry,
+            @Nullable ChangelogLocalCache localCache,
+            int numRecoveryReadThreads) {
+        super(localCache, numRecoveryReadThreads);
         this.preEmptivePersistThresholdInBytes = preEmptivePersistThresholdInBytes;
         this.changelogRegistry = changelogRegistry;
         this.uploader = uploader;
@@ -124,7 +157,11 @@ public class FsStateChangelogStorage extends FsStateChangelogStorageForRecovery
 
     @Override
     public void close() throws Exception {
-        uploader.close();
+        try {
+            uploader.close();
+        } finally {
+            super.close();
+        }
     }
 
     @Override
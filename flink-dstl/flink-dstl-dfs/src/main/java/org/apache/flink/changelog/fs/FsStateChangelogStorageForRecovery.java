@@ -15,26 +15,100 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.flink.changelog.fs;
 
 import org.apache.flink.annotation.Experimental;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.runtime.state.changelog.ChangelogStateHandle;
 import org.apache.flink.runtime.state.changelog.ChangelogStateHandleStreamImpl;
 import org.apache.flink.runtime.state.changelog.StateChangelogHandleReader;
 import org.apache.flink.runtime.state.changelog.StateChangelogHandleStreamHandleReader;
+import org.apache.flink.runtime.state.changelog.StateChangelogHandleStreamHandleReader.StateChangeIterator;
 import org.apache.flink.runtime.state.changelog.StateChangelogStorage;
 import org.apache.flink.runtime.state.changelog.StateChangelogStorageView;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
-/** Filesystem-based implementation of {@link StateChangelogStorage} just for recovery. */
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Filesystem-based implementation of {@link StateChangelogStorage} just for recovery.
+ *
+ * <p>If configured, the changelog is read ahead of its replay by a pool of threads, and the files
+ * found in the {@link ChangelogLocalCache local cache} are read from the local disk.
+ */
 @Experimental
 @ThreadSafe
 public class FsStateChangelogStorageForRecovery
         implements StateChangelogStorageView<ChangelogStateHandleStreamImpl> {
 
+    @Nullable private final ChangelogLocalCache localCache;
+    @Nullable private final ExecutorService readExecutor;
+    private final int maxReadAhead;
+
+    public FsStateChangelogStorageForRecovery() {
+        this(null, 0);
+    }
+
+    FsStateChangelogStorageForRecovery(
+            @Nullable ChangelogLocalCache localCache, int numReadThreads) {
+        checkArgument(numReadThreads >= 0, "Number of read threads must not be negative");
+        this.localCache = localCache;
+        this.readExecutor = numReadThreads == 0 ? null : createReadExecutor(numReadThreads);
+        // keep all the threads busy while the consumer replays the changes
+        this.maxReadAhead = numReadThreads * 2;
+    }
+
     @Override
     public StateChangelogHandleReader<ChangelogStateHandleStreamImpl> createReader() {
-        return new StateChangelogHandleStreamHandleReader(new StateChangeFormat());
+        StateChangeFormat format = new StateChangeFormat();
+        StateChangeIterator changeIterator =
+                localCache == null
+                        ? format
+                        : (handle, offset) -> {
+                            FSDataInputStream cached = localCache.open(handle);
+                            return cached == null
+                                    ? format.read(handle, offset)
+                                    : format.read(cached, offset);
+                        };
+        return new StateChangelogHandleStreamHandleReader(
+                changeIterator, readExecutor, maxReadAhead);
+    }
+
+    @Override
+    public boolean canRead(ChangelogStateHandle handle) {
+        return handle instanceof ChangelogStateHandleStreamImpl
+                && FsStateChangelogStorageFactory.IDENTIFIER.equals(handle.getStorageIdentifier());
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (readExecutor != null) {
+            readExecutor.shutdownNow();
+        }
+        if (localCache != null) {
+            localCache.close();
+        }
+    }
+
+    private static ExecutorService createReadExecutor(int numReadThreads) {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        numReadThreads,
+                        numReadThreads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        new ExecutorThreadFactory("changelog-recovery-reader"));
+        // the threads are only needed on recovery
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 }
@@ -89,7 +89,11 @@ public class StateChangeFormat
     @Override
     public CloseableIterator<StateChange> read(StreamStateHandle handle, long offset)
             throws IOException {
-        FSDataInputStream stream = handle.openInputStream();
+        return read(handle.openInputStream(), offset);
+    }
+
+    /** Reads the changes from the given stream of a changelog file, starting at the offset. */
+    CloseableIterator<StateChange> read(FSDataInputStream stream, long offset) throws IOException {
         DataInputViewStreamWrapper input = wrap(stream);
         if (offset != 0) {
             LOG.debug("seek from {} to {}", stream.getPos(), offset);
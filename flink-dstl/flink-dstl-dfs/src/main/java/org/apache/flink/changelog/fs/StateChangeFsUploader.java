@@ -18,6 +18,7 @@
 package org.apache.flink.changelog.fs;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.changelog.fs.ChangelogLocalCache.CachingOutputStream;
 import org.apache.flink.changelog.fs.StateChangeUploadScheduler.UploadTask;
 import org.apache.flink.core.fs.FSDataOutputStream;
 import org.apache.flink.core.fs.FileSystem;
@@ -35,6 +36,8 @@ import org.apache.flink.shaded.guava30.com.google.common.io.Closer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -63,6 +66,7 @@ public class StateChangeFsUploader implements StateChangeUploader {
     private final Clock clock;
     private final TaskChangelogRegistry changelogRegistry;
     private final BiFunction<Path, Long, StreamStateHandle> handleFactory;
+    @Nullable private final ChangelogLocalCache localCache;
 
     @VisibleForTesting
     public StateChangeFsUploader(
@@ -90,6 +94,26 @@ public class StateChangeFsUploader implements StateChangeUploader {
             ChangelogStorageMetricGroup metrics,
             TaskChangelogRegistry changelogRegistry,
             BiFunction<Path, Long, StreamStateHandle> handleFactory) {
+        this(
+                basePath,
+                fileSystem,
+                compression,
+                bufferSize,
+                metrics,
+                changelogRegistry,
+                handleFactory,
+                null);
+    }
+
+    public StateChangeFsUploader(
+            Path basePath,
+            FileSystem fileSystem,
+            boolean compression,
+            int bufferSize,
+            ChangelogStorageMetricGroup metrics,
+            TaskChangelogRegistry changelogRegistry,
+            BiFunction<Path, Long, StreamStateHandle> handleFactory,
+            @Nullable ChangelogLocalCache localCache) {
         this.basePath = basePath;
         this.fileSystem = fileSystem;
         this.format = new StateChangeFormat();
@@ -99,6 +123,7 @@ public class StateChangeFsUploader implements StateChangeUploader {
         this.clock = SystemClock.getInstance();
         this.changelogRegistry = changelogRegistry;
         this.handleFactory = handleFactory;
+        this.localCache = localCache;
     }
 
     public UploadTasksResult upload(Collection<UploadTask> tasks) throws IOException {
@@ -135,34 +160,51 @@ public class StateChangeFsUploader implements StateChangeUploader {
     private UploadTasksResult upload(Path path, Collection<UploadTask> tasks) throws IOException {
         boolean wrappedStreamClosed = false;
         FSDataOutputStream fsStream = fileSystem.create(path, NO_OVERWRITE);
+        // the local copy includes the compression flag, i.e. it is identical to the uploaded file
+        CachingOutputStream cachingStream =
+                localCache == null ? null : localCache.createCachingStream(fsStream);
+        OutputStream target = cachingStream == null ? fsStream : cachingStream;
+        StreamStateHandle handle = null;
+        boolean uploaded = false;
         try {
-            fsStream.write(compression ? 1 : 0);
-            try (OutputStreamWithPos stream = wrap(fsStream)) {
+            target.write(compression ? 1 : 0);
+            UploadTasksResult result;
+            try (OutputStreamWithPos stream = wrap(target)) {
                 final Map<UploadTask, Map<StateChangeSet, Long>> tasksOffsets = new HashMap<>();
                 for (UploadTask task : tasks) {
                     tasksOffsets.put(task, format.write(stream, task.changeSets));
                 }
-                StreamStateHandle handle = handleFactory.apply(path, stream.getPos());
+                handle = handleFactory.apply(path, stream.getPos());
                 changelogRegistry.startTracking(
                         handle,
                         tasks.stream()
                                 .flatMap(t -> t.getChangeSets().stream())
                                 .map(StateChangeSet::getLogId)
                                 .collect(Collectors.toSet()));
-                // WARN: streams have to be closed before returning the results
-                // otherwise JM may receive invalid handles
-                return new UploadTasksResult(tasksOffsets, handle);
+                result = new UploadTasksResult(tasksOffsets, handle);
             } finally {
                 wrappedStreamClosed = true;
             }
+            // WARN: streams have to be closed before returning the results
+            // otherwise JM may receive invalid handles
+            uploaded = true;
+            return result;
         } finally {
             if (!wrappedStreamClosed) {
-                fsStream.close();
+                target.close();
+            }
+            if (cachingStream != null) {
+                // closing the stream may still fail the upload after the handle was created
+                if (uploaded) {
+                    cachingStream.commit(handle);
+                } else {
+                    cachingStream.discard();
+                }
             }
         }
     }
 
-    private OutputStreamWithPos wrap(FSDataOutputStream fsStream) throws IOException {
+    private OutputStreamWithPos wrap(OutputStream fsStream) throws IOException {
         StreamCompressionDecorator instance =
                 compression
                         ? SnappyStreamCompressionDecorator.INSTANCE
@@ -22,7 +22,9 @@ import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.runtime.io.AvailabilityProvider;
 import org.apache.flink.runtime.state.changelog.SequenceNumber;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.IOException;
@@ -39,8 +41,6 @@ import static org.apache.flink.changelog.fs.FsStateChangelogOptions.BASE_PATH;
 import static org.apache.flink.changelog.fs.FsStateChangelogOptions.COMPRESSION_ENABLED;
 import static org.apache.flink.changelog.fs.FsStateChangelogOptions.IN_FLIGHT_DATA_LIMIT;
 import static org.apache.flink.changelog.fs.FsStateChangelogOptions.NUM_UPLOAD_THREADS;
-import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PERSIST_DELAY;
-import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PERSIST_SIZE_THRESHOLD;
 import static org.apache.flink.changelog.fs.FsStateChangelogOptions.UPLOAD_BUFFER_SIZE;
 import static org.apache.flink.util.Preconditions.checkArgument;
 
@@ -86,7 +86,8 @@ public interface StateChangeUploadScheduler extends AutoCloseable {
     static StateChangeUploadScheduler fromConfig(
             ReadableConfig config,
             ChangelogStorageMetricGroup metricGroup,
-            TaskChangelogRegistry changelogRegistry)
+            TaskChangelogRegistry changelogRegistry,
+            @Nullable ChangelogLocalCache localCache)
             throws IOException {
         Path basePath = new Path(config.get(BASE_PATH));
         long bytes = config.get(UPLOAD_BUFFER_SIZE).getBytes();
@@ -99,11 +100,12 @@ public interface StateChangeUploadScheduler extends AutoCloseable {
                         config.get(COMPRESSION_ENABLED),
                         bufferSize,
                         metricGroup,
-                        changelogRegistry);
+                        changelogRegistry,
+                        FileStateHandle::new,
+                        localCache);
         BatchingStateChangeUploadScheduler batchingStore =
                 new BatchingStateChangeUploadScheduler(
-                        config.get(PERSIST_DELAY).toMillis(),
-                        config.get(PERSIST_SIZE_THRESHOLD).getBytes(),
+                        BatchingPolicy.fromConfig(config),
                         RetryPolicy.fromConfig(config),
                         store,
                         config.get(NUM_UPLOAD_THREADS),
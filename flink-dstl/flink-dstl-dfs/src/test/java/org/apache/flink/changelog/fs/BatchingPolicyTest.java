@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.MemorySize;
+
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.apache.flink.changelog.fs.BatchingPolicy.AdaptiveBatchingPolicy.MIN_SAMPLES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** {@link BatchingPolicy} test. */
+class BatchingPolicyTest {
+
+    private static final long MAX_DELAY_MS = 1000;
+    private static final long MAX_SIZE_THRESHOLD = 20 * 1024 * 1024;
+
+    @Test
+    void testFromConfig() {
+        Configuration config = new Configuration();
+        config.set(FsStateChangelogOptions.PERSIST_DELAY, Duration.ofMillis(42));
+        config.set(FsStateChangelogOptions.PERSIST_SIZE_THRESHOLD, MemorySize.parse("1mb"));
+        assertThat(BatchingPolicy.fromConfig(config))
+                .isInstanceOf(BatchingPolicy.FixedBatchingPolicy.class);
+
+        config.set(FsStateChangelogOptions.ADAPTIVE_BATCHING_ENABLED, true);
+        BatchingPolicy policy = BatchingPolicy.fromConfig(config);
+        assertThat(policy).isInstanceOf(BatchingPolicy.AdaptiveBatchingPolicy.class);
+        assertThat(policy.getPersistDelayMs()).isEqualTo(42);
+        assertThat(policy.getSizeThresholdBytes()).isEqualTo(1024 * 1024);
+    }
+
+    @Test
+    void testConfiguredValuesUsedUntilEnoughUploads() {
+        BatchingPolicy policy = BatchingPolicy.adaptive(MAX_DELAY_MS, MAX_SIZE_THRESHOLD);
+        for (int i = 0; i < MIN_SAMPLES - 1; i++) {
+            policy.onUploadCompleted(1024, 1_000_000);
+        }
+        assertThat(policy.getPersistDelayMs()).isEqualTo(MAX_DELAY_MS);
+        assertThat(policy.getSizeThresholdBytes()).isEqualTo(MAX_SIZE_THRESHOLD);
+    }
+
+    @Test
+    void testHighFixedCostBatchesMore() {
+        // 100ms per request, 100Mb/s
+        BatchingPolicy policy = observe(100, 100_000);
+        assertThat(policy.getPersistDelayMs()).isEqualTo(50);
+        assertThat(policy.getSizeThresholdBytes())
+                .isCloseTo(10_000_000L, Percentage.withPercentage(1));
+    }
+
+    @Test
+    void testLowFixedCostUploadsSooner() {
+        // 2ms per request, 100Mb/s
+        BatchingPolicy policy = observe(2, 100_000);
+        assertThat(policy.getPersistDelayMs()).isEqualTo(1);
+        assertThat(policy.getSizeThresholdBytes()).isCloseTo(200_000L, Percentage.withPercentage(1));
+    }
+
+    @Test
+    void testBoundedByConfiguredValues() {
+        // 10s per request, 1Gb/s
+        BatchingPolicy policy = observe(10_000, 1_000_000);
+        assertThat(policy.getPersistDelayMs()).isEqualTo(MAX_DELAY_MS);
+        assertThat(policy.getSizeThresholdBytes()).isEqualTo(MAX_SIZE_THRESHOLD);
+    }
+
+    private static BatchingPolicy observe(long fixedCostMs, long bytesPerMs) {
+        BatchingPolicy policy = BatchingPolicy.adaptive(MAX_DELAY_MS, MAX_SIZE_THRESHOLD);
+        for (int i = 0; i < MIN_SAMPLES * 2; i++) {
+            long size = (i % 5 + 1) * 100_000L;
+            double latencyMs = fixedCostMs + (double) size / bytesPerMs;
+            policy.onUploadCompleted(size, (long) (latencyMs * 1_000_000));
+        }
+        return policy;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.changelog.fs.ChangelogLocalCache.CachingOutputStream;
+import org.apache.flink.changelog.fs.StateChangeUploadScheduler.UploadTask;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FSDataOutputStreamWrapper;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.fs.local.LocalFileSystem;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.mailbox.SyncMailboxExecutor;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.changelog.ChangelogStateHandleStreamImpl;
+import org.apache.flink.runtime.state.changelog.SequenceNumber;
+import org.apache.flink.runtime.state.changelog.StateChange;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriter;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+import org.apache.flink.util.CloseableIterator;
+import org.apache.flink.util.FileUtils;
+import org.apache.flink.util.IOUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PREEMPTIVE_PERSIST_THRESHOLD;
+import static org.apache.flink.changelog.fs.StateChangeUploadScheduler.directScheduler;
+import static java.util.Collections.singletonList;
+import static org.apache.flink.changelog.fs.UnregisteredChangelogStorageMetricGroup.createUnregisteredChangelogStorageMetricGroup;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** {@link ChangelogLocalCache} test. */
+public class ChangelogLocalCacheTest {
+
+    @TempDir java.nio.file.Path tempFolder;
+
+    @Test
+    public void testRecoveryFromLocalCache() throws Exception {
+        File dfsFolder = tempFolder.resolve("dfs").toFile();
+        Path basePath = Path.fromLocalFile(dfsFolder);
+        ChangelogLocalCache cache =
+                new ChangelogLocalCache(tempFolder.resolve("cache").toFile(), 1024 * 1024);
+        StateChangeFsUploader uploader =
+                new StateChangeFsUploader(
+                        basePath,
+                        basePath.getFileSystem(),
+                        true,
+                        1024,
+                        createUnregisteredChangelogStorageMetricGroup(),
+                        TaskChangelogRegistry.NO_OP,
+                        FileStateHandle::new,
+                        cache);
+
+        List<byte[]> appended = new ArrayList<>();
+        try (FsStateChangelogStorage storage =
+                        new FsStateChangelogStorage(
+                                directScheduler(uploader),
+                                PREEMPTIVE_PERSIST_THRESHOLD.defaultValue().getBytes(),
+                                TaskChangelogRegistry.NO_OP,
+                                cache,
+                                2);
+                StateChangelogWriter<ChangelogStateHandleStreamImpl> writer =
+                        storage.createWriter(
+                                new OperatorID().toString(),
+                                KeyGroupRange.of(0, 0),
+                                new SyncMailboxExecutor())) {
+            SequenceNumber from = writer.initialSequenceNumber();
+            // upload each change to a separate file to read multiple files ahead
+            for (int i = 0; i < 5; i++) {
+                byte[] change = new byte[] {(byte) i};
+                writer.append(0, change);
+                appended.add(change);
+                writer.persist(from).get();
+            }
+            ChangelogStateHandleStreamImpl handle = writer.persist(from).get();
+
+            // the changelog can only be read from the local cache now
+            FileUtils.deleteDirectory(dfsFolder);
+            assertThat(handle.getHandlesAndOffsets()).hasSize(appended.size());
+            assertThat(readChanges(storage, handle)).containsExactlyElementsOf(appended);
+        }
+    }
+
+    @Test
+    public void testOldestFilesEvicted() throws Exception {
+        try (ChangelogLocalCache cache =
+                new ChangelogLocalCache(tempFolder.resolve("cache").toFile(), 25)) {
+            StreamStateHandle first = cacheBytes(cache, "first", new byte[10]);
+            StreamStateHandle second = cacheBytes(cache, "second", new byte[10]);
+            assertCached(cache, first, new byte[10]);
+
+            byte[] bytes = new byte[] {1, 2, 3, 4, 5, 6};
+            StreamStateHandle third = cacheBytes(cache, "third", bytes);
+            assertThat(cache.open(first)).isNull();
+            assertCached(cache, second, new byte[10]);
+            assertCached(cache, third, bytes);
+        }
+    }
+
+    @Test
+    public void testDiscardedCopyIsNotCached() throws Exception {
+        File directory = tempFolder.resolve("cache").toFile();
+        try (ChangelogLocalCache cache = new ChangelogLocalCache(directory, 1024)) {
+            ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+            CachingOutputStream stream = cache.createCachingStream(uploaded);
+            stream.write(new byte[] {1, 2, 3});
+            stream.close();
+            stream.discard();
+
+            assertThat(uploaded.toByteArray()).containsExactly(1, 2, 3);
+            assertThat(cache.open(new ByteStreamStateHandle("discarded", new byte[0]))).isNull();
+            assertThat(directory.list()).isEmpty();
+        }
+        assertThat(directory).doesNotExist();
+    }
+
+    @Test
+    public void testFailedCloseIsNotCached() throws Exception {
+        File directory = tempFolder.resolve("cache").toFile();
+        Path basePath = Path.fromLocalFile(tempFolder.resolve("dfs").toFile());
+        FileSystem fileSystem =
+                new LocalFileSystem() {
+                    @Override
+                    public FSDataOutputStream create(Path filePath, WriteMode overwrite)
+                            throws IOException {
+                        return new FSDataOutputStreamWrapper(super.create(filePath, overwrite)) {
+                            @Override
+                            public void close() throws IOException {
+                                super.close();
+                                throw new IOException("expected");
+                            }
+                        };
+                    }
+                };
+        try (ChangelogLocalCache cache = new ChangelogLocalCache(directory, 1024)) {
+            StateChangeFsUploader uploader =
+                    new StateChangeFsUploader(
+                            basePath,
+                            fileSystem,
+                            false,
+                            1024,
+                            createUnregisteredChangelogStorageMetricGroup(),
+                            TaskChangelogRegistry.NO_OP,
+                            FileStateHandle::new,
+                            cache);
+            List<StateChangeSet> changes =
+                    singletonList(
+                            new StateChangeSet(
+                                    UUID.randomUUID(),
+                                    SequenceNumber.of(0),
+                                    singletonList(new StateChange(0, new byte[] {1, 2, 3}))));
+
+            assertThatThrownBy(
+                            () ->
+                                    uploader.upload(
+                                            singletonList(
+                                                    new UploadTask(
+                                                            changes,
+                                                            unused -> {},
+                                                            (unused0, unused1) -> {}))))
+                    .isInstanceOf(IOException.class);
+            assertThat(directory.list()).isEmpty();
+        }
+    }
+
+    private static StreamStateHandle cacheBytes(
+            ChangelogLocalCache cache, String name, byte[] bytes) throws IOException {
+        StreamStateHandle handle = new ByteStreamStateHandle(name, bytes);
+        CachingOutputStream stream = cache.createCachingStream(new ByteArrayOutputStream());
+        stream.write(bytes);
+        stream.close();
+        stream.commit(handle);
+        return handle;
+    }
+
+    private static void assertCached(
+            ChangelogLocalCache cache, StreamStateHandle handle, byte[] expected)
+            throws IOException {
+        try (FSDataInputStream in = cache.open(handle)) {
+            assertThat(in).isNotNull();
+            byte[] bytes = new byte[expected.length];
+            IOUtils.readFully(in, bytes, 0, bytes.length);
+            assertThat(bytes).isEqualTo(expected);
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    private static List<byte[]> readChanges(
+            FsStateChangelogStorage storage, ChangelogStateHandleStreamImpl handle)
+            throws Exception {
+        List<byte[]> changes = new ArrayList<>();
+        try (CloseableIterator<StateChange> it = storage.createReader().getChanges(handle)) {
+            it.forEachRemaining(change -> changes.add(change.getChange()));
+        }
+        return changes;
+    }
+}
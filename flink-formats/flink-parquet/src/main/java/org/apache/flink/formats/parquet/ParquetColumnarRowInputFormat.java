@@ -21,6 +21,7 @@ package org.apache.flink.formats.parquet;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.connector.file.src.FileSourceSplit;
 import org.apache.flink.connector.file.src.util.Pool;
+import org.apache.flink.connector.file.table.ColumnBatchFilter;
 import org.apache.flink.connector.file.table.ColumnarRowIterator;
 import org.apache.flink.connector.file.table.PartitionFieldExtractor;
 import org.apache.flink.core.fs.Path;
@@ -35,6 +36,8 @@ import org.apache.flink.table.types.logical.RowType;
 
 import org.apache.hadoop.conf.Configuration;
 
+import javax.annotation.Nullable;
+
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -51,6 +54,8 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
 
     private final TypeInformation<RowData> producedTypeInfo;
 
+    @Nullable private final ColumnBatchFilter batchFilter;
+
     /** Constructor to create parquet format without extra fields. */
     ParquetColumnarRowInputFormat(
             Configuration hadoopConfig,
@@ -66,7 +71,8 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
                 ColumnBatchFactory.withoutExtraFields(),
                 batchSize,
                 isUtcTimestamp,
-                isCaseSensitive);
+                isCaseSensitive,
+                null);
     }
 
     /**
@@ -76,6 +82,7 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
      * @param producedTypeInfo the produced row type info for this input format, includes extra
      *     fields.
      * @param batchFactory factory for creating column batch, can cram in extra fields.
+     * @param batchFilter filter to evaluate over each column batch before its rows are returned.
      */
     ParquetColumnarRowInputFormat(
             Configuration hadoopConfig,
@@ -84,7 +91,8 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
             ColumnBatchFactory<SplitT> batchFactory,
             int batchSize,
             boolean isUtcTimestamp,
-            boolean isCaseSensitive) {
+            boolean isCaseSensitive,
+            @Nullable ColumnBatchFilter batchFilter) {
         super(
                 new SerializableConfiguration(hadoopConfig),
                 projectedType,
@@ -93,6 +101,7 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
                 isUtcTimestamp,
                 isCaseSensitive);
         this.producedTypeInfo = producedTypeInfo;
+        this.batchFilter = batchFilter;
     }
 
     @Override
@@ -109,7 +118,7 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
             WritableColumnVector[] writableVectors,
             VectorizedColumnBatch columnarBatch,
             Pool.Recycler<ParquetReaderBatch<RowData>> recycler) {
-        return new ColumnarRowReaderBatch(writableVectors, columnarBatch, recycler);
+        return new ColumnarRowReaderBatch(writableVectors, columnarBatch, batchFilter, recycler);
     }
 
     @Override
@@ -124,10 +133,15 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
         private ColumnarRowReaderBatch(
                 WritableColumnVector[] writableVectors,
                 VectorizedColumnBatch columnarBatch,
+                @Nullable ColumnBatchFilter batchFilter,
                 Pool.Recycler<ParquetReaderBatch<RowData>> recycler) {
             super(writableVectors, columnarBatch, recycler);
             this.result =
-                    new ColumnarRowIterator(new ColumnarRowData(columnarBatch), this::recycle);
+                    new ColumnarRowIterator(
+                            new ColumnarRowData(columnarBatch),
+                            columnarBatch,
+                            batchFilter,
+                            this::recycle);
         }
 
         @Override
@@ -151,6 +165,34 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
                     int batchSize,
                     boolean isUtcTimestamp,
                     boolean isCaseSensitive) {
+        return createPartitionedFormat(
+                hadoopConfig,
+                producedRowType,
+                producedTypeInfo,
+                partitionKeys,
+                extractor,
+                batchSize,
+                isUtcTimestamp,
+                isCaseSensitive,
+                null);
+    }
+
+    /**
+     * Create a partitioned {@link ParquetColumnarRowInputFormat}, the partition columns can be
+     * generated by {@link Path}. The given {@link ColumnBatchFilter} is evaluated over the column
+     * batches of the produced row type.
+     */
+    public static <SplitT extends FileSourceSplit>
+            ParquetColumnarRowInputFormat<SplitT> createPartitionedFormat(
+                    Configuration hadoopConfig,
+                    RowType producedRowType,
+                    TypeInformation<RowData> producedTypeInfo,
+                    List<String> partitionKeys,
+                    PartitionFieldExtractor<SplitT> extractor,
+                    int batchSize,
+                    boolean isUtcTimestamp,
+                    boolean isCaseSensitive,
+                    @Nullable ColumnBatchFilter batchFilter) {
         // TODO FLINK-25113 all this partition keys code should be pruned from the parquet format,
         //  because now FileSystemTableSource uses FileInfoExtractorBulkFormat for reading partition
         //  keys.
@@ -188,6 +230,7 @@ public class ParquetColumnarRowInputFormat<SplitT extends FileSourceSplit>
                 factory,
                 batchSize,
                 isUtcTimestamp,
-                isCaseSensitive);
+                isCaseSensitive,
+                batchFilter);
     }
 }
@@ -23,6 +23,8 @@ import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.connector.file.src.FileSourceSplit;
 import org.apache.flink.connector.file.src.reader.BulkFormat;
+import org.apache.flink.connector.file.table.ColumnBatchFilter;
+import org.apache.flink.connector.file.table.ColumnBatchFilters;
 import org.apache.flink.connector.file.table.factories.BulkReaderFormatFactory;
 import org.apache.flink.connector.file.table.factories.BulkWriterFormatFactory;
 import org.apache.flink.connector.file.table.format.BulkDecodingFormat;
@@ -35,14 +37,17 @@ import org.apache.flink.table.connector.sink.DynamicTableSink;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.columnar.vector.VectorizedColumnBatch;
+import org.apache.flink.table.expressions.ResolvedExpression;
 import org.apache.flink.table.factories.DynamicTableFactory;
 import org.apache.flink.table.types.DataType;
 import org.apache.flink.table.types.logical.RowType;
 
 import org.apache.hadoop.conf.Configuration;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
@@ -62,6 +67,19 @@ public class ParquetFileFormatFactory implements BulkReaderFormatFactory, BulkWr
                                     + " time and LocalDateTime. Hive 0.x/1.x/2.x use local timezone. But Hive 3.x"
                                     + " use UTC timezone");
 
+    public static final ConfigOption<Boolean> VECTORIZED_FILTER_ENABLED =
+            key("vectorized-filter.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Evaluate the filters pushed into the source over the column batches"
+                                    + " read from the file, so that rows which can not match are"
+                                    + " never materialized. Comparisons between a column and a"
+                                    + " literal, IS [NOT] NULL, NOT, AND and OR are supported."
+                                    + " Only the filters are evaluated over the column batches,"
+                                    + " projections and aggregations are still evaluated row by"
+                                    + " row by the operators after the source.");
+
     @Override
     public BulkDecodingFormat<RowData> createDecodingFormat(
             DynamicTableFactory.Context context, ReadableConfig formatOptions) {
@@ -116,6 +134,7 @@ public class ParquetFileFormatFactory implements BulkReaderFormatFactory, BulkWr
                     BulkDecodingFormat<RowData> {
 
         private final ReadableConfig formatOptions;
+        private List<ResolvedExpression> filters = new ArrayList<>();
 
         public ParquetBulkDecodingFormat(ReadableConfig formatOptions) {
             this.formatOptions = formatOptions;
@@ -126,16 +145,28 @@ public class ParquetFileFormatFactory implements BulkReaderFormatFactory, BulkWr
                 DynamicTableSource.Context sourceContext,
                 DataType producedDataType,
                 int[][] projections) {
+            RowType projectedType =
+                    (RowType) Projection.of(projections).project(producedDataType).getLogicalType();
+            ColumnBatchFilter batchFilter =
+                    formatOptions.get(VECTORIZED_FILTER_ENABLED)
+                            ? ColumnBatchFilters.create(filters, projectedType)
+                            : null;
 
             return ParquetColumnarRowInputFormat.createPartitionedFormat(
                     getParquetConfiguration(formatOptions),
-                    (RowType) Projection.of(projections).project(producedDataType).getLogicalType(),
+                    projectedType,
                     sourceContext.createTypeInformation(producedDataType),
                     Collections.emptyList(),
                     null,
                     VectorizedColumnBatch.DEFAULT_SIZE,
                     formatOptions.get(UTC_TIMEZONE),
-                    true);
+                    true,
+                    batchFilter);
+        }
+
+        @Override
+        public void applyFilters(List<ResolvedExpression> filters) {
+            this.filters = new ArrayList<>(filters);
         }
 
         @Override
@@ -354,22 +354,30 @@ public abstract class ParquetVectorizedInputFormat<T, SplitT extends FileSourceS
         public RecordIterator<T> readBatch() throws IOException {
             final ParquetReaderBatch<T> batch = getCachedEntry();
 
+            // the restored position counts rows of the file rather than the records returned by
+            // the iterators, which may filter rows, so the rows are skipped before the iterator
+            while (recordsToSkip > 0) {
+                if (!nextBatch(batch, (int) Math.min(batchSize, recordsToSkip))) {
+                    batch.recycle();
+                    return null;
+                }
+                recordsToSkip -= batch.columnarBatch.getNumRows();
+            }
+
             final long rowsReturnedBefore = rowsReturned;
-            if (!nextBatch(batch)) {
+            if (!nextBatch(batch, batchSize)) {
                 batch.recycle();
                 return null;
             }
 
-            final RecordIterator<T> records = batch.convertAndGetIterator(rowsReturnedBefore);
-
-            // this may leave an exhausted iterator, which is a valid result for this method
-            // and is not interpreted as end-of-input or anything
-            skipRecord(records);
-            return records;
+            return batch.convertAndGetIterator(rowsReturnedBefore);
         }
 
-        /** Advances to the next batch of rows. Returns false if there are no more. */
-        private boolean nextBatch(ParquetReaderBatch<T> batch) throws IOException {
+        /**
+         * Advances to the next batch of at most the given number of rows. Returns false if there
+         * are no more.
+         */
+        private boolean nextBatch(ParquetReaderBatch<T> batch, int maxRows) throws IOException {
             for (WritableColumnVector v : batch.writableVectors) {
                 v.reset();
             }
@@ -381,7 +389,7 @@ public abstract class ParquetVectorizedInputFormat<T, SplitT extends FileSourceS
                 readNextRowGroup();
             }
 
-            int num = (int) Math.min(batchSize, totalCountLoadedSoFar - rowsReturned);
+            int num = (int) Math.min(maxRows, totalCountLoadedSoFar - rowsReturned);
             for (int i = 0; i < columnReaders.length; ++i) {
                 if (columnReaders[i] == null) {
                     batch.writableVectors[i].fillWithNulls();
@@ -449,12 +457,6 @@ public abstract class ParquetVectorizedInputFormat<T, SplitT extends FileSourceS
             }
         }
 
-        private void skipRecord(RecordIterator<T> records) {
-            while (recordsToSkip > 0 && records.next() != null) {
-                recordsToSkip--;
-            }
-        }
-
         @Override
         public void close() throws IOException {
             if (reader != null) {
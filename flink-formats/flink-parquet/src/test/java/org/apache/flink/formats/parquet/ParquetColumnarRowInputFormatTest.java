@@ -21,11 +21,19 @@ package org.apache.flink.formats.parquet;
 import org.apache.flink.connector.file.src.FileSourceSplit;
 import org.apache.flink.connector.file.src.reader.BulkFormat;
 import org.apache.flink.connector.file.src.util.CheckpointedPosition;
+import org.apache.flink.connector.file.src.util.RecordAndPosition;
+import org.apache.flink.connector.file.table.ColumnBatchFilter;
+import org.apache.flink.connector.file.table.ColumnBatchFilters;
 import org.apache.flink.connector.file.table.PartitionFieldExtractor;
 import org.apache.flink.core.fs.FileStatus;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.table.api.DataTypes;
 import org.apache.flink.table.data.DecimalData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.table.types.logical.BigIntType;
 import org.apache.flink.table.types.logical.BooleanType;
@@ -63,6 +71,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Random;
@@ -300,6 +309,124 @@ public class ParquetColumnarRowInputFormatTest {
                 });
     }
 
+    @Test
+    public void testVectorizedFilter() throws IOException {
+        Path testPath = createFilterTestFile(1000);
+
+        AtomicInteger cnt = new AtomicInteger(0);
+        forEachRemaining(
+                createFilteredFormat()
+                        .createReader(
+                                EMPTY_CONF,
+                                new FileSourceSplit(
+                                        "id", testPath, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE)),
+                row -> {
+                    int i = 495 + cnt.get();
+                    assertEquals(i, row.getDouble(0), 0);
+                    assertEquals(i, row.getInt(1));
+                    cnt.incrementAndGet();
+                });
+        assertEquals(10, cnt.get());
+    }
+
+    @Test
+    public void testRestoreWithVectorizedFilter() throws IOException {
+        Path testPath = createFilterTestFile(1000);
+        ParquetColumnarRowInputFormat<FileSourceSplit> format = createFilteredFormat();
+
+        List<Integer> values = new ArrayList<>();
+        List<Long> positions = new ArrayList<>();
+        readWithPositions(
+                format.createReader(
+                        EMPTY_CONF,
+                        new FileSourceSplit("id", testPath, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE)),
+                values,
+                positions);
+        assertEquals(IntStream.range(495, 505).boxed().collect(Collectors.toList()), values);
+
+        // restoring from the position of any returned record must return all following records
+        for (int i = 0; i < positions.size(); i++) {
+            List<Integer> restoredValues = new ArrayList<>();
+            readWithPositions(
+                    format.restoreReader(
+                            EMPTY_CONF,
+                            new FileSourceSplit(
+                                    "id",
+                                    testPath,
+                                    0,
+                                    Long.MAX_VALUE,
+                                    0,
+                                    Long.MAX_VALUE,
+                                    new String[0],
+                                    new CheckpointedPosition(
+                                            CheckpointedPosition.NO_OFFSET, positions.get(i)))),
+                    restoredValues,
+                    new ArrayList<>());
+            assertEquals(values.subList(i + 1, values.size()), restoredValues);
+        }
+    }
+
+    private Path createFilterTestFile(int number) throws IOException {
+        List<Row> records = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) {
+            Integer v = i;
+            records.add(newRow(v));
+        }
+        return createTempParquetFile(
+                TEMPORARY_FOLDER.newFolder(), PARQUET_SCHEMA, records, rowGroupSize);
+    }
+
+    /** Creates a format reading (f7, f4) with the filter f4 >= 495 AND f4 < 505. */
+    private static ParquetColumnarRowInputFormat<FileSourceSplit> createFilteredFormat() {
+        RowType producedType =
+                RowType.of(
+                        new LogicalType[] {new DoubleType(), new IntType()},
+                        new String[] {"f7", "f4"});
+        // the selected rows span two batches
+        FieldReferenceExpression f4 = new FieldReferenceExpression("f4", DataTypes.INT(), 0, 1);
+        ColumnBatchFilter filter =
+                ColumnBatchFilters.create(
+                        Arrays.asList(
+                                CallExpression.anonymous(
+                                        BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL,
+                                        Arrays.asList(f4, new ValueLiteralExpression(495)),
+                                        DataTypes.BOOLEAN()),
+                                CallExpression.anonymous(
+                                        BuiltInFunctionDefinitions.LESS_THAN,
+                                        Arrays.asList(f4, new ValueLiteralExpression(505)),
+                                        DataTypes.BOOLEAN())),
+                        producedType);
+
+        return ParquetColumnarRowInputFormat.createPartitionedFormat(
+                new Configuration(),
+                producedType,
+                InternalTypeInfo.of(producedType),
+                Collections.emptyList(),
+                null,
+                500,
+                false,
+                true,
+                filter);
+    }
+
+    private static void readWithPositions(
+            BulkFormat.Reader<RowData> reader, List<Integer> values, List<Long> positions)
+            throws IOException {
+        try {
+            BulkFormat.RecordIterator<RowData> batch;
+            while ((batch = reader.readBatch()) != null) {
+                RecordAndPosition<RowData> record;
+                while ((record = batch.next()) != null) {
+                    values.add(record.getRecord().getInt(1));
+                    positions.add(record.getRecordSkipCount());
+                }
+                batch.releaseBatch();
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
     @Test
     public void testPartitionValues() throws IOException {
         // prepare parquet file
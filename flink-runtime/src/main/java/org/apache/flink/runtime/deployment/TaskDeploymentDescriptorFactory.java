@@ -239,11 +239,28 @@ public class TaskDeploymentDescriptorFactory {
 
     public static TaskDeploymentDescriptorFactory fromExecutionVertex(
             ExecutionVertex executionVertex, int attemptNumber) throws IOException {
+        return fromExecution(
+                executionVertex.getCurrentExecutionAttempt().getAttemptId(),
+                attemptNumber,
+                executionVertex);
+    }
+
+    public static TaskDeploymentDescriptorFactory fromExecution(Execution execution)
+            throws IOException {
+        return fromExecution(
+                execution.getAttemptId(), execution.getAttemptNumber(), execution.getVertex());
+    }
+
+    private static TaskDeploymentDescriptorFactory fromExecution(
+            ExecutionAttemptID executionAttemptId,
+            int attemptNumber,
+            ExecutionVertex executionVertex)
+            throws IOException {
         InternalExecutionGraphAccessor internalExecutionGraphAccessor =
                 executionVertex.getExecutionGraphAccessor();
 
         return new TaskDeploymentDescriptorFactory(
-                executionVertex.getCurrentExecutionAttempt().getAttemptId(),
+                executionAttemptId,
                 attemptNumber,
                 getSerializedJobInformation(internalExecutionGraphAccessor),
                 getSerializedTaskInformation(
@@ -303,8 +320,11 @@ public class TaskDeploymentDescriptorFactory {
             ExecutionState producerState,
             PartitionLocationConstraint partitionDeploymentConstraint,
             @Nullable ResultPartitionDeploymentDescriptor consumedPartitionDescriptor) {
-        // The producing task needs to be RUNNING or already FINISHED
-        if ((resultPartitionType.isPipelined() || isConsumable)
+        // The producing task needs to be RUNNING or already FINISHED, hybrid partitions can be
+        // consumed while being produced like pipelined ones
+        if ((resultPartitionType.isPipelined()
+                        || resultPartitionType.isHybridResultPartition()
+                        || isConsumable)
                 && consumedPartitionDescriptor != null
                 && isProducerAvailable(producerState)) {
             // partition is already registered
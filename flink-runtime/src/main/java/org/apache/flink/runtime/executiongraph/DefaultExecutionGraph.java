@@ -1331,6 +1331,11 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
     private void maybeReleasePartitionGroupsFor(final Execution attempt) {
         final ExecutionVertexID finishedExecutionVertex = attempt.getVertex().getID();
 
+        // the state of a speculative execution which is not current does not affect the vertex
+        if (attempt != attempt.getVertex().getCurrentExecutionAttempt()) {
+            return;
+        }
+
         if (attempt.getState() == ExecutionState.FINISHED) {
             final List<ConsumedPartitionGroup> releasablePartitionGroups =
                     partitionGroupReleaseStrategy.vertexFinished(finishedExecutionVertex);
@@ -44,6 +44,7 @@ import org.apache.flink.runtime.jobmaster.LogicalSlot;
 import org.apache.flink.runtime.messages.Acknowledge;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.runtime.operators.coordination.TaskNotRunningException;
+import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
 import org.apache.flink.runtime.scheduler.strategy.ConsumerVertexGroup;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.shuffle.PartitionDescriptor;
@@ -547,13 +548,13 @@ public class Execution
                     "Deploying {} (attempt #{}) with attempt id {} and vertex id {} to {} with allocation id {}",
                     vertex.getTaskNameWithSubtaskIndex(),
                     attemptNumber,
-                    vertex.getCurrentExecutionAttempt().getAttemptId(),
+                    attemptId,
                     vertex.getID(),
                     getAssignedResourceLocation(),
                     slot.getAllocationId());
 
             final TaskDeploymentDescriptor deployment =
-                    TaskDeploymentDescriptorFactory.fromExecutionVertex(vertex, attemptNumber)
+                    TaskDeploymentDescriptorFactory.fromExecution(this)
                             .createDeploymentDescriptor(
                                     slot.getAllocationId(),
                                     taskRestore,
@@ -731,6 +732,27 @@ public class Execution
         }
     }
 
+    /**
+     * Consumers of hybrid partitions may be deployed before their producer and therefore only know
+     * an unknown location of the partition. Notify them about the location once the producer is
+     * running.
+     */
+    private void updateHybridPartitionConsumers() {
+        for (IntermediateResultPartition partition : vertex.getProducedPartitions().values()) {
+            if (!partition.getResultType().isHybridResultPartition()) {
+                continue;
+            }
+            // the cached descriptors may have been created with an unknown producer location
+            for (ConsumedPartitionGroup consumedPartitionGroup :
+                    partition.getConsumedPartitionGroups()) {
+                partition
+                        .getIntermediateResult()
+                        .clearCachedInformationForPartitionGroup(consumedPartitionGroup);
+            }
+            updatePartitionConsumers(partition);
+        }
+    }
+
     private static PartitionInfo createPartitionInfo(
             IntermediateResultPartition consumedPartition) {
         IntermediateDataSetID intermediateDataSetID =
@@ -1162,6 +1184,7 @@ public class Execution
     boolean switchToRecovering() {
         if (switchTo(DEPLOYING, INITIALIZING)) {
             sendPartitionInfos();
+            updateHybridPartitionConsumers();
             return true;
         }
 
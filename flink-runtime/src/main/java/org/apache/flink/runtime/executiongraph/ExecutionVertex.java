@@ -36,23 +36,32 @@ import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
 import org.apache.flink.runtime.util.EvictingBoundedList;
 import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.concurrent.FutureUtils;
 
 import javax.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+import static org.apache.flink.runtime.execution.ExecutionState.FAILED;
 import static org.apache.flink.runtime.execution.ExecutionState.FINISHED;
 
 /**
  * The ExecutionVertex is a parallel subtask of the execution. It may be executed once, or several
  * times, each of which time it spawns an {@link Execution}.
+ *
+ * <p>Besides the current execution, speculative executions may run concurrently, see {@link
+ * #createNewSpeculativeExecution(long)}. The first execution which finishes becomes the current
+ * execution, the others are canceled.
  */
 public class ExecutionVertex
         implements AccessExecutionVertex, Archiveable<ArchivedExecutionVertex> {
@@ -79,6 +88,16 @@ public class ExecutionVertex
     /** The current or latest execution attempt of this vertex's task. */
     private Execution currentExecution; // this field must never be null
 
+    /**
+     * Execution attempts which were created concurrently to the current execution, either
+     * speculative executions or the executions which have been superseded by a speculative one.
+     * They are archived once the vertex is reset for a new execution.
+     */
+    private final List<Execution> concurrentExecutions = new ArrayList<>(1);
+
+    /** The attempt number of the next execution of this vertex. */
+    private int nextAttemptNumber;
+
     private final ArrayList<InputSplit> inputSplits;
 
     /** This field holds the allocation id of the last successful assignment. */
@@ -144,6 +163,7 @@ public class ExecutionVertex
 
         getExecutionGraphAccessor().registerExecution(currentExecution);
 
+        this.nextAttemptNumber = initialAttemptCount + 1;
         this.timeout = timeout;
         this.inputSplits = new ArrayList<>();
     }
@@ -242,6 +262,28 @@ public class ExecutionVertex
         return currentExecution;
     }
 
+    /**
+     * Returns the current execution and all executions which run or ran concurrently to it since
+     * the last reset of this vertex.
+     */
+    public Collection<Execution> getCurrentExecutions() {
+        final List<Execution> executions = new ArrayList<>(concurrentExecutions.size() + 1);
+        executions.add(currentExecution);
+        executions.addAll(concurrentExecutions);
+        return executions;
+    }
+
+    /** Returns the number of executions of this vertex which have not reached a terminal state. */
+    public int getNumberOfUnterminatedExecutions() {
+        int numExecutions = currentExecution.getState().isTerminal() ? 0 : 1;
+        for (Execution execution : concurrentExecutions) {
+            if (!execution.getState().isTerminal()) {
+                numExecutions++;
+            }
+        }
+        return numExecutions;
+    }
+
     @Override
     public ExecutionState getExecutionState() {
         return currentExecution.getState();
@@ -353,6 +395,16 @@ public class ExecutionVertex
         final Execution oldExecution = currentExecution;
         final ExecutionState oldState = oldExecution.getState();
 
+        for (Execution execution : concurrentExecutions) {
+            if (!execution.getState().isTerminal()) {
+                throw new IllegalStateException(
+                        "Cannot reset a vertex whose concurrent execution "
+                                + execution
+                                + " is in non-terminal state "
+                                + execution.getState());
+            }
+        }
+
         if (oldState.isTerminal()) {
             if (oldState == FINISHED) {
                 // pipelined partitions are released in Execution#cancel(), covering both job
@@ -364,13 +416,20 @@ public class ExecutionVertex
                         .vertexUnfinished(executionVertexId);
             }
 
-            priorExecutions.add(oldExecution.archive());
+            // archive in the order of the attempt numbers, as the prior executions are looked up
+            // by the attempt number
+            concurrentExecutions.add(oldExecution);
+            concurrentExecutions.sort(Comparator.comparingInt(Execution::getAttemptNumber));
+            for (Execution execution : concurrentExecutions) {
+                priorExecutions.add(execution.archive());
+            }
+            concurrentExecutions.clear();
 
             final Execution newExecution =
                     new Execution(
                             getExecutionGraphAccessor().getFutureExecutor(),
                             this,
-                            oldExecution.getAttemptNumber() + 1,
+                            nextAttemptNumber++,
                             timestamp,
                             timeout);
 
@@ -403,6 +462,35 @@ public class ExecutionVertex
         }
     }
 
+    /**
+     * Creates a new execution which runs concurrently to the current execution, to speculatively
+     * execute this vertex on another slot if the current execution is slow. The new execution is
+     * registered at the execution graph, but has to be scheduled and deployed by the caller.
+     *
+     * @param timestamp The creation timestamp of the new execution
+     * @return The new speculative execution
+     */
+    public Execution createNewSpeculativeExecution(final long timestamp) {
+        final ExecutionState currentState = currentExecution.getState();
+        if (currentState.isTerminal()) {
+            throw new IllegalStateException(
+                    "Cannot speculatively execute a vertex which is in terminal state "
+                            + currentState);
+        }
+
+        final Execution newExecution =
+                new Execution(
+                        getExecutionGraphAccessor().getFutureExecutor(),
+                        this,
+                        nextAttemptNumber++,
+                        timestamp,
+                        timeout);
+        concurrentExecutions.add(newExecution);
+
+        getExecutionGraphAccessor().registerExecution(newExecution);
+        return newExecution;
+    }
+
     public void tryAssignResource(LogicalSlot slot) {
         if (!currentExecution.tryAssignResource(slot)) {
             throw new IllegalStateException(
@@ -438,15 +526,29 @@ public class ExecutionVertex
      * @return A future that completes once the execution has reached its final state.
      */
     public CompletableFuture<?> cancel() {
-        // to avoid any case of mixup in the presence of concurrent calls,
-        // we copy a reference to the stack to make sure both calls go to the same Execution
-        final Execution exec = currentExecution;
-        exec.cancel();
-        return exec.getReleaseFuture();
+        if (concurrentExecutions.isEmpty()) {
+            // to avoid any case of mixup in the presence of concurrent calls,
+            // we copy a reference to the stack to make sure both calls go to the same Execution
+            final Execution exec = currentExecution;
+            exec.cancel();
+            return exec.getReleaseFuture();
+        }
+
+        final Collection<Execution> executions = getCurrentExecutions();
+        executions.forEach(Execution::cancel);
+        return FutureUtils.waitForAll(
+                executions.stream().map(Execution::getReleaseFuture).collect(Collectors.toList()));
     }
 
     public CompletableFuture<?> suspend() {
-        return currentExecution.suspend();
+        if (concurrentExecutions.isEmpty()) {
+            return currentExecution.suspend();
+        }
+
+        return FutureUtils.waitForAll(
+                getCurrentExecutions().stream()
+                        .map(Execution::suspend)
+                        .collect(Collectors.toList()));
     }
 
     public void fail(Throwable t) {
@@ -497,6 +599,15 @@ public class ExecutionVertex
     // --------------------------------------------------------------------------------------------
 
     void executionFinished(Execution execution) {
+        if (!isCurrentExecution(execution)) {
+            return;
+        }
+
+        // the other executions lost the race, their results are discarded when they are canceled
+        for (Execution concurrentExecution : concurrentExecutions) {
+            concurrentExecution.cancel();
+        }
+
         getJobVertex().executionVertexFinished();
     }
 
@@ -505,9 +616,9 @@ public class ExecutionVertex
     // --------------------------------------------------------------------------------------------
 
     void notifyPendingDeployment(Execution execution) {
-        // only forward this notification if the execution is still the current execution
-        // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        // only forward this notification if the execution is still the current execution or a
+        // concurrent one, otherwise we have an outdated execution
+        if (isCurrentOrConcurrentExecution(execution)) {
             getExecutionGraphAccessor()
                     .getExecutionDeploymentListener()
                     .onStartedDeployment(
@@ -517,9 +628,9 @@ public class ExecutionVertex
     }
 
     void notifyCompletedDeployment(Execution execution) {
-        // only forward this notification if the execution is still the current execution
-        // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        // only forward this notification if the execution is still the current execution or a
+        // concurrent one, otherwise we have an outdated execution
+        if (isCurrentOrConcurrentExecution(execution)) {
             getExecutionGraphAccessor()
                     .getExecutionDeploymentListener()
                     .onCompletedDeployment(execution.getAttemptId());
@@ -529,17 +640,52 @@ public class ExecutionVertex
     /** Simply forward this notification. */
     void notifyStateTransition(
             Execution execution, ExecutionState previousState, ExecutionState newState) {
-        // only forward this notification if the execution is still the current execution
-        // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        if (!concurrentExecutions.isEmpty()) {
+            maybeReplaceCurrentExecution(execution, newState);
+        }
+
+        // only forward this notification if the execution is still the current execution or a
+        // concurrent one, otherwise we have an outdated execution
+        if (isCurrentOrConcurrentExecution(execution)) {
             getExecutionGraphAccessor().notifyExecutionChange(execution, previousState, newState);
         }
     }
 
+    /**
+     * Makes a concurrent execution the current execution if it finishes first, or if the current
+     * execution fails while the concurrent one is still running. In the latter case the failure
+     * of the current execution does not need to be recovered.
+     */
+    private void maybeReplaceCurrentExecution(Execution execution, ExecutionState newState) {
+        Execution newCurrentExecution = null;
+        if (newState == FINISHED
+                && !isCurrentExecution(execution)
+                && currentExecution.getState() != FINISHED) {
+            newCurrentExecution = execution;
+        } else if (newState == FAILED && isCurrentExecution(execution)) {
+            for (Execution concurrentExecution : concurrentExecutions) {
+                if (!concurrentExecution.getState().isTerminal()) {
+                    newCurrentExecution = concurrentExecution;
+                    break;
+                }
+            }
+        }
+
+        if (newCurrentExecution != null) {
+            concurrentExecutions.remove(newCurrentExecution);
+            concurrentExecutions.add(currentExecution);
+            currentExecution = newCurrentExecution;
+        }
+    }
+
     private boolean isCurrentExecution(Execution execution) {
         return currentExecution == execution;
     }
 
+    private boolean isCurrentOrConcurrentExecution(Execution execution) {
+        return isCurrentExecution(execution) || concurrentExecutions.contains(execution);
+    }
+
     // --------------------------------------------------------------------------------------------
     //  Utilities
     // --------------------------------------------------------------------------------------------
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import org.apache.flink.util.FlinkRuntimeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.apache.flink.runtime.io.compression.CompressorUtils.HEADER_LENGTH;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.writeIntLE;
+
+/**
+ * Base class of the {@link BlockCompressor}s whose codec library compresses byte arrays. Blocks are
+ * written with the same header as the LZ4 blocks, and the data of {@link ByteBuffer}s which are
+ * not backed by an accessible array is copied through reused heap arrays.
+ */
+abstract class AbstractBlockCompressor implements BlockCompressor {
+
+    private byte[] srcArray = new byte[0];
+
+    private byte[] dstArray = new byte[0];
+
+    /** Get the max compressed size of the given original size, excluding the header. */
+    protected abstract int maxCompressedLength(int srcLen);
+
+    /**
+     * Compress the given data without header. The target is guaranteed to have space for {@link
+     * #maxCompressedLength(int)} bytes, because the native codec libraries do not check its bounds.
+     *
+     * @return Length of compressed data
+     */
+    protected abstract int compressBlock(
+            byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff) throws IOException;
+
+    @Override
+    public int getMaxCompressedSize(int srcSize) {
+        return HEADER_LENGTH + maxCompressedLength(srcSize);
+    }
+
+    @Override
+    public int compress(ByteBuffer src, int srcOff, int srcLen, ByteBuffer dst, int dstOff)
+            throws InsufficientBufferException {
+        final int prevSrcOff = src.position() + srcOff;
+        final int prevDstOff = dst.position() + dstOff;
+
+        final byte[] srcBytes;
+        final int srcBytesOff;
+        if (src.hasArray()) {
+            srcBytes = src.array();
+            srcBytesOff = src.arrayOffset() + prevSrcOff;
+        } else {
+            srcBytes = srcArray = ensureCapacity(srcArray, srcLen);
+            srcBytesOff = 0;
+            final ByteBuffer duplicate = src.duplicate();
+            duplicate.position(prevSrcOff);
+            duplicate.get(srcBytes, 0, srcLen);
+        }
+
+        final int maxCompressedSize = getMaxCompressedSize(srcLen);
+        final int compressedSize;
+        if (dst.hasArray() && dst.capacity() - prevDstOff >= maxCompressedSize) {
+            compressedSize =
+                    compress(
+                            srcBytes,
+                            srcBytesOff,
+                            srcLen,
+                            dst.array(),
+                            dst.arrayOffset() + prevDstOff);
+        } else {
+            dstArray = ensureCapacity(dstArray, maxCompressedSize);
+            compressedSize = compress(srcBytes, srcBytesOff, srcLen, dstArray, 0);
+            if (dst.capacity() - prevDstOff < compressedSize) {
+                throw new InsufficientBufferException("Buffer length too small");
+            }
+            final ByteBuffer duplicate = dst.duplicate();
+            duplicate.limit(duplicate.capacity());
+            duplicate.position(prevDstOff);
+            duplicate.put(dstArray, 0, compressedSize);
+        }
+
+        src.position(prevSrcOff + srcLen);
+        dst.position(prevDstOff + compressedSize);
+        return compressedSize;
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+            throws InsufficientBufferException {
+        final int maxCompressedLength = maxCompressedLength(srcLen);
+        final int compressedLength;
+        try {
+            if (dst.length - dstOff - HEADER_LENGTH >= maxCompressedLength) {
+                compressedLength = compressBlock(src, srcOff, srcLen, dst, dstOff + HEADER_LENGTH);
+            } else {
+                dstArray = ensureCapacity(dstArray, maxCompressedLength);
+                compressedLength = compressBlock(src, srcOff, srcLen, dstArray, 0);
+                if (dst.length - dstOff - HEADER_LENGTH < compressedLength) {
+                    throw new InsufficientBufferException("Buffer length too small");
+                }
+                System.arraycopy(dstArray, 0, dst, dstOff + HEADER_LENGTH, compressedLength);
+            }
+        } catch (IOException e) {
+            throw new FlinkRuntimeException("Failed to compress data.", e);
+        }
+
+        writeIntLE(compressedLength, dst, dstOff);
+        writeIntLE(srcLen, dst, dstOff + 4);
+        return HEADER_LENGTH + compressedLength;
+    }
+
+    static byte[] ensureCapacity(byte[] array, int capacity) {
+        return array.length >= capacity ? array : new byte[capacity];
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.apache.flink.runtime.io.compression.AbstractBlockCompressor.ensureCapacity;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.HEADER_LENGTH;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.readIntLE;
+import static org.apache.flink.runtime.io.compression.CompressorUtils.validateLength;
+
+/**
+ * Base class of the {@link BlockDecompressor}s whose codec library decompresses byte arrays. The
+ * data of {@link ByteBuffer}s which are not backed by an accessible array is copied through reused
+ * heap arrays.
+ */
+abstract class AbstractBlockDecompressor implements BlockDecompressor {
+
+    private byte[] srcArray = new byte[0];
+
+    private byte[] dstArray = new byte[0];
+
+    /**
+     * Decompress the given data without header. The target is guaranteed to have space for the
+     * original length, which the implementation must check against the compressed data before
+     * decompressing, because the native codec libraries do not check the bounds of the target.
+     *
+     * @return Length of decompressed data
+     */
+    protected abstract int decompressBlock(
+            byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int originalLen)
+            throws IOException;
+
+    @Override
+    public int decompress(ByteBuffer src, int srcOff, int srcLen, ByteBuffer dst, int dstOff)
+            throws DataCorruptionException, InsufficientBufferException {
+        final int prevSrcOff = src.position() + srcOff;
+        final int prevDstOff = dst.position() + dstOff;
+
+        if (src.limit() - prevSrcOff < Math.min(srcLen, HEADER_LENGTH)) {
+            throw new DataCorruptionException("Source data is not integral for decompression.");
+        }
+
+        final byte[] srcBytes;
+        final int srcBytesOff;
+        final int srcBytesLen = Math.min(srcLen, src.limit() - prevSrcOff);
+        if (src.hasArray()) {
+            srcBytes = src.array();
+            srcBytesOff = src.arrayOffset() + prevSrcOff;
+        } else {
+            srcBytes = srcArray = ensureCapacity(srcArray, srcBytesLen);
+            srcBytesOff = 0;
+            final ByteBuffer duplicate = src.duplicate();
+            duplicate.position(prevSrcOff);
+            duplicate.get(srcBytes, 0, srcBytesLen);
+        }
+
+        final int originalLen;
+        if (dst.hasArray()) {
+            originalLen =
+                    decompress(
+                            srcBytes,
+                            srcBytesOff,
+                            srcBytesLen,
+                            dst.array(),
+                            dst.arrayOffset() + prevDstOff,
+                            dst.capacity() - prevDstOff);
+        } else {
+            final int dstLen = dst.capacity() - prevDstOff;
+            dstArray = ensureCapacity(dstArray, Math.max(dstLen, 0));
+            originalLen = decompress(srcBytes, srcBytesOff, srcBytesLen, dstArray, 0, dstLen);
+            final ByteBuffer duplicate = dst.duplicate();
+            duplicate.limit(duplicate.capacity());
+            duplicate.position(prevDstOff);
+            duplicate.put(dstArray, 0, originalLen);
+        }
+
+        src.position(prevSrcOff + HEADER_LENGTH + readIntLE(srcBytes, srcBytesOff));
+        dst.position(prevDstOff + originalLen);
+        return originalLen;
+    }
+
+    @Override
+    public int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+            throws DataCorruptionException, InsufficientBufferException {
+        return decompress(src, srcOff, srcLen, dst, dstOff, dst.length - dstOff);
+    }
+
+    private int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen)
+            throws DataCorruptionException, InsufficientBufferException {
+        if (srcLen < HEADER_LENGTH || src.length - srcOff < HEADER_LENGTH) {
+            throw new DataCorruptionException("Source data is not integral for decompression.");
+        }
+
+        final int compressedLen = readIntLE(src, srcOff);
+        final int originalLen = readIntLE(src, srcOff + 4);
+        validateLength(compressedLen, originalLen);
+
+        if (dstLen < originalLen) {
+            throw new InsufficientBufferException("Buffer length too small");
+        }
+
+        if (srcLen - HEADER_LENGTH < compressedLen
+                || src.length - srcOff - HEADER_LENGTH < compressedLen) {
+            throw new DataCorruptionException("Source data is not integral for decompression.");
+        }
+
+        final int decompressedLen;
+        try {
+            decompressedLen =
+                    decompressBlock(
+                            src, srcOff + HEADER_LENGTH, compressedLen, dst, dstOff, originalLen);
+        } catch (IOException e) {
+            throw new DataCorruptionException("Input is corrupted", e);
+        }
+
+        if (decompressedLen != originalLen) {
+            throw new DataCorruptionException("Input is corrupted, unexpected original length.");
+        }
+        return originalLen;
+    }
+}
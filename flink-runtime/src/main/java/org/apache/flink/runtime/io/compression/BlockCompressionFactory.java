@@ -34,7 +34,9 @@ public interface BlockCompressionFactory {
 
     /** Name of {@link BlockCompressionFactory}. */
     enum CompressionFactoryName {
-        LZ4
+        LZ4,
+        ZSTD,
+        SNAPPY
     }
 
     /**
@@ -44,6 +46,20 @@ public interface BlockCompressionFactory {
      *     inherited from {@link BlockCompressionFactory}.
      */
     static BlockCompressionFactory createBlockCompressionFactory(String compressionFactoryName) {
+        return createBlockCompressionFactory(
+                compressionFactoryName, ZstdBlockCompressionFactory.DEFAULT_COMPRESSION_LEVEL);
+    }
+
+    /**
+     * Creates {@link BlockCompressionFactory} according to the configuration.
+     *
+     * @param compressionFactoryName supported compression codecs or user-defined class name
+     *     inherited from {@link BlockCompressionFactory}.
+     * @param zstdCompressionLevel the compression level of the ZSTD codec, which is ignored by the
+     *     other codecs.
+     */
+    static BlockCompressionFactory createBlockCompressionFactory(
+            String compressionFactoryName, int zstdCompressionLevel) {
 
         checkNotNull(compressionFactoryName);
 
@@ -60,6 +76,13 @@ public interface BlockCompressionFactory {
                 case LZ4:
                     blockCompressionFactory = new Lz4BlockCompressionFactory();
                     break;
+                case ZSTD:
+                    blockCompressionFactory =
+                            new ZstdBlockCompressionFactory(zstdCompressionLevel);
+                    break;
+                case SNAPPY:
+                    blockCompressionFactory = new SnappyBlockCompressionFactory();
+                    break;
                 default:
                     throw new IllegalStateException("Unknown CompressionMethod " + compressionName);
             }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import com.github.luben.zstd.Zstd;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * {@link BlockCompressionFactory} of the ZSTD compression codec, which compresses better than LZ4
+ * and Snappy at the cost of more CPU time. Higher compression levels trade even more CPU time for
+ * smaller data.
+ */
+public class ZstdBlockCompressionFactory implements BlockCompressionFactory {
+
+    public static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+    private final int compressionLevel;
+
+    public ZstdBlockCompressionFactory() {
+        this(DEFAULT_COMPRESSION_LEVEL);
+    }
+
+    public ZstdBlockCompressionFactory(int compressionLevel) {
+        checkArgument(
+                compressionLevel >= Zstd.minCompressionLevel()
+                        && compressionLevel <= Zstd.maxCompressionLevel(),
+                "The ZSTD compression level should be in [%s, %s], but is %s.",
+                Zstd.minCompressionLevel(),
+                Zstd.maxCompressionLevel(),
+                compressionLevel);
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public BlockCompressor getCompressor() {
+        return new ZstdBlockCompressor(compressionLevel);
+    }
+
+    @Override
+    public BlockDecompressor getDecompressor() {
+        return new ZstdBlockDecompressor();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+
+/** Compressor of the ZSTD compression codec. */
+public class ZstdBlockCompressor extends AbstractBlockCompressor {
+
+    private final int compressionLevel;
+
+    public ZstdBlockCompressor(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    protected int maxCompressedLength(int srcLen) {
+        return (int) Zstd.compressBound(srcLen);
+    }
+
+    @Override
+    protected int compressBlock(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+            throws IOException {
+        final long result =
+                Zstd.compressByteArray(
+                        dst,
+                        dstOff,
+                        dst.length - dstOff,
+                        src,
+                        srcOff,
+                        srcLen,
+                        compressionLevel);
+        if (Zstd.isError(result)) {
+            throw new IOException("ZSTD compression failed: " + Zstd.getErrorName(result));
+        }
+        return (int) result;
+    }
+}
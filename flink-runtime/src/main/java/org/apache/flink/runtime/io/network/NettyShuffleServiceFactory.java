@@ -195,9 +195,11 @@ public class NettyShuffleServiceFactory
                         config.networkBufferSize(),
                         config.isBlockingShuffleCompressionEnabled(),
                         config.getCompressionCodec(),
+                        config.getZstdCompressionLevel(),
                         config.getMaxBuffersPerChannel(),
                         config.sortShuffleMinBuffers(),
                         config.sortShuffleMinParallelism(),
+                        config.sortShuffleReadAheadSize(),
                         config.isSSLEnabled());
 
         SingleInputGateFactory singleInputGateFactory =
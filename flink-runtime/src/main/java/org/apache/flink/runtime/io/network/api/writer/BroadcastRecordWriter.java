@@ -21,6 +21,7 @@ package org.apache.flink.runtime.io.network.api.writer;
 import org.apache.flink.core.io.IOReadableWritable;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * A special record-oriented runtime result writer only for broadcast mode.
@@ -41,14 +42,40 @@ public final class BroadcastRecordWriter<T extends IOReadableWritable> extends R
         broadcastEmit(record);
     }
 
+    @Override
+    public void randomEmit(T record) throws IOException {
+        if (isBatchingRecords()) {
+            // keep the order with the pending block of broadcast records
+            finishPendingBlocks();
+            super.randomEmit(record);
+            finishPendingBlocks();
+        } else {
+            super.randomEmit(record);
+        }
+    }
+
     @Override
     public void broadcastEmit(T record) throws IOException {
         checkErroneous();
 
+        if (isBatchingRecords()) {
+            addToBlock(record, numberOfChannels);
+            return;
+        }
+
         targetPartition.broadcastRecord(serializeRecord(serializer, record));
 
         if (flushAlways) {
             flushAll();
         }
     }
+
+    @Override
+    protected void emitBlock(ByteBuffer block, int blockIndex) throws IOException {
+        if (blockIndex == numberOfChannels) {
+            targetPartition.broadcastRecord(block);
+        } else {
+            super.emitBlock(block, blockIndex);
+        }
+    }
 }
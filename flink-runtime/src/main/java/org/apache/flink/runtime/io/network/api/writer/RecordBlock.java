@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.api.writer;
+
+import org.apache.flink.core.io.IOReadableWritable;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A block of records which a {@link RecordWriter} emits as a single length-prefixed record when
+ * record batching is enabled.
+ *
+ * <p>The block consists of the usual record length, a block marker byte, the number of records in
+ * the block and the serialized records without any per-record length. The marker has to be a
+ * value the reading side can distinguish from the first byte of a single serialized record, and
+ * the records have to be self-delimiting.
+ */
+final class RecordBlock {
+
+    /** Length of the record length, the block marker and the number of records. */
+    private static final int HEADER_LENGTH = 9;
+
+    private final DataOutputSerializer serializer = new DataOutputSerializer(128);
+
+    private final byte marker;
+
+    private int numRecords;
+
+    RecordBlock(byte marker) {
+        this.marker = marker;
+    }
+
+    void add(IOReadableWritable record) throws IOException {
+        if (numRecords == 0) {
+            serializer.setPositionUnsafe(HEADER_LENGTH);
+        }
+        record.write(serializer);
+        numRecords++;
+    }
+
+    boolean isEmpty() {
+        return numRecords == 0;
+    }
+
+    int getSize() {
+        return numRecords == 0 ? 0 : serializer.length();
+    }
+
+    /**
+     * Completes the header of the block and resets it. The returned buffer is only valid until the
+     * next record is added.
+     */
+    ByteBuffer finish() throws IOException {
+        serializer.writeIntUnsafe(serializer.length() - 4, 0);
+        serializer.getSharedBuffer()[4] = marker;
+        serializer.writeIntUnsafe(numRecords, 5);
+        numRecords = 0;
+        return serializer.wrapAsByteBuffer();
+    }
+}
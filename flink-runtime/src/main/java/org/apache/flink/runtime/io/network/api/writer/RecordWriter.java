@@ -33,11 +33,16 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * An abstract record-oriented runtime result writer.
@@ -78,6 +83,28 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
     private int volatileFlusherExceptionCheckSkipCount;
     private static final int VOLATILE_FLUSHER_EXCEPTION_MAX_CHECK_SKIP_COUNT = 100;
 
+    /**
+     * The blocks of batched records which are not emitted yet, one per subpartition and one for
+     * records which are broadcast to all subpartitions, or null if record batching is disabled.
+     * Only accessed by the thread that emits the records.
+     */
+    @Nullable private RecordBlock[] pendingBlocks;
+
+    private byte blockMarker;
+
+    private int maxBlockSize;
+
+    private int numPendingBlocks;
+
+    /** Executor of the thread that emits the records, used to finish blocks on flushes. */
+    @Nullable private Executor blockFinishingExecutor;
+
+    /** Whether there are pending blocks, read by the output flusher. */
+    private volatile boolean hasPendingBlocks;
+
+    /** Whether finishing the pending blocks has been scheduled by the output flusher. */
+    private volatile boolean isBlockFinishingScheduled;
+
     RecordWriter(ResultPartitionWriter writer, long timeout, String taskName) {
         this.targetPartition = writer;
         this.numberOfChannels = writer.getNumberOfSubpartitions();
@@ -100,9 +127,37 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
         }
     }
 
+    /**
+     * Enables batching of records. Instead of serializing every record with its own length
+     * header, consecutive records for the same subpartition are serialized back to back into a
+     * block which is emitted as a single record once it reaches the given size, or before events,
+     * flushes and periodic flushes of the output flusher.
+     *
+     * <p>This must be called before the first record is emitted and can not be used with a buffer
+     * timeout of {@link ExecutionOptions#FLUSH_AFTER_EVERY_RECORD}.
+     *
+     * @param maxBlockSize the size in bytes after which a block is emitted.
+     * @param blockMarker the first byte after the length of a block, see {@link RecordBlock}.
+     * @param taskExecutor executes the finishing of the pending blocks for periodic flushes in the
+     *     thread that emits the records.
+     */
+    public void enableRecordBatching(int maxBlockSize, byte blockMarker, Executor taskExecutor) {
+        checkArgument(maxBlockSize > 0, "The maximum block size must be positive.");
+        checkState(!flushAlways, "Record batching can not be used when flushing every record.");
+        this.maxBlockSize = maxBlockSize;
+        this.blockMarker = blockMarker;
+        this.blockFinishingExecutor = checkNotNull(taskExecutor);
+        this.pendingBlocks = new RecordBlock[numberOfChannels + 1];
+    }
+
     protected void emit(T record, int targetSubpartition) throws IOException {
         checkErroneous();
 
+        if (pendingBlocks != null) {
+            addToBlock(record, targetSubpartition);
+            return;
+        }
+
         targetPartition.emitRecord(serializeRecord(serializer, record), targetSubpartition);
 
         if (flushAlways) {
@@ -115,6 +170,7 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
     }
 
     public void broadcastEvent(AbstractEvent event, boolean isPriorityEvent) throws IOException {
+        finishPendingBlocks();
         targetPartition.broadcastEvent(event, isPriorityEvent);
 
         if (flushAlways) {
@@ -138,6 +194,78 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
     }
 
     public void flushAll() {
+        try {
+            finishPendingBlocks();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        targetPartition.flushAll();
+    }
+
+    protected boolean isBatchingRecords() {
+        return pendingBlocks != null;
+    }
+
+    /** Adds the record to the pending block with the given index, emitting the block if full. */
+    protected void addToBlock(T record, int blockIndex) throws IOException {
+        RecordBlock block = pendingBlocks[blockIndex];
+        if (block == null) {
+            block = new RecordBlock(blockMarker);
+            pendingBlocks[blockIndex] = block;
+        }
+        if (block.isEmpty() && numPendingBlocks++ == 0) {
+            hasPendingBlocks = true;
+        }
+
+        block.add(record);
+
+        if (block.getSize() >= maxBlockSize) {
+            finishBlock(blockIndex);
+        }
+    }
+
+    /** Emits a finished block of records to the subpartition of the same index. */
+    protected void emitBlock(ByteBuffer block, int blockIndex) throws IOException {
+        targetPartition.emitRecord(block, blockIndex);
+    }
+
+    private void finishBlock(int blockIndex) throws IOException {
+        emitBlock(pendingBlocks[blockIndex].finish(), blockIndex);
+        if (--numPendingBlocks == 0) {
+            hasPendingBlocks = false;
+        }
+    }
+
+    protected void finishPendingBlocks() throws IOException {
+        if (numPendingBlocks == 0) {
+            return;
+        }
+        for (int i = 0; i < pendingBlocks.length; i++) {
+            if (pendingBlocks[i] != null && !pendingBlocks[i].isEmpty()) {
+                finishBlock(i);
+            }
+        }
+    }
+
+    /**
+     * Called by the output flusher. The pending blocks can only be finished by the thread that
+     * emits the records, so this schedules finishing and flushing them in that thread and only
+     * flushes the data which has already been emitted.
+     */
+    private void flushFromOutputFlusher() {
+        if (hasPendingBlocks && !isBlockFinishingScheduled) {
+            isBlockFinishingScheduled = true;
+            try {
+                blockFinishingExecutor.execute(
+                        () -> {
+                            isBlockFinishingScheduled = false;
+                            flushAll();
+                        });
+            } catch (RejectedExecutionException e) {
+                // the task is shutting down, the blocks are either finished or discarded anyway
+                isBlockFinishingScheduled = false;
+            }
+        }
         targetPartition.flushAll();
     }
 
@@ -248,7 +376,7 @@ public abstract class RecordWriter<T extends IOReadableWritable> implements Avai
 
                     // any errors here should let the thread come to a halt and be
                     // recognized by the writer
-                    flushAll();
+                    flushFromOutputFlusher();
                 }
             } catch (Throwable t) {
                 notifyFlusherException(t);
@@ -18,8 +18,11 @@
 
 package org.apache.flink.runtime.io.network.api.writer;
 
+import org.apache.flink.configuration.ExecutionOptions;
 import org.apache.flink.core.io.IOReadableWritable;
 
+import java.util.concurrent.Executor;
+
 /** Utility class to encapsulate the logic of building a {@link RecordWriter} instance. */
 public class RecordWriterBuilder<T extends IOReadableWritable> {
 
@@ -29,6 +32,12 @@ public class RecordWriterBuilder<T extends IOReadableWritable> {
 
     private String taskName = "test";
 
+    private int maxBlockSize;
+
+    private byte blockMarker;
+
+    private Executor taskExecutor;
+
     public RecordWriterBuilder<T> setChannelSelector(ChannelSelector<T> selector) {
         this.selector = selector;
         return this;
@@ -44,11 +53,28 @@ public class RecordWriterBuilder<T extends IOReadableWritable> {
         return this;
     }
 
+    /**
+     * Enables record batching with the given parameters if the maximum block size is positive and
+     * records are not flushed one by one. See {@link RecordWriter#enableRecordBatching}.
+     */
+    public RecordWriterBuilder<T> setRecordBatching(
+            int maxBlockSize, byte blockMarker, Executor taskExecutor) {
+        this.maxBlockSize = maxBlockSize;
+        this.blockMarker = blockMarker;
+        this.taskExecutor = taskExecutor;
+        return this;
+    }
+
     public RecordWriter<T> build(ResultPartitionWriter writer) {
+        RecordWriter<T> recordWriter;
         if (selector.isBroadcast()) {
-            return new BroadcastRecordWriter<>(writer, timeout, taskName);
+            recordWriter = new BroadcastRecordWriter<>(writer, timeout, taskName);
         } else {
-            return new ChannelSelectorRecordWriter<>(writer, selector, timeout, taskName);
+            recordWriter = new ChannelSelectorRecordWriter<>(writer, selector, timeout, taskName);
+        }
+        if (maxBlockSize > 0 && timeout != ExecutionOptions.FLUSH_AFTER_EVERY_RECORD) {
+            recordWriter.enableRecordBatching(maxBlockSize, blockMarker, taskExecutor);
         }
+        return recordWriter;
     }
 }
@@ -22,6 +22,7 @@ import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.io.compression.BlockCompressionFactory;
 import org.apache.flink.runtime.io.compression.BlockCompressor;
+import org.apache.flink.runtime.io.compression.ZstdBlockCompressionFactory;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -36,18 +37,36 @@ public class BufferCompressor {
     /** The intermediate buffer for the compressed data. */
     private final NetworkBuffer internalBuffer;
 
+    // The counters below are only written by the thread that compresses, the compressor can not be
+    // used concurrently because of its single internal buffer. They are read by the metrics.
+
+    /** The number of bytes of the buffers passed for compression. */
+    private volatile long numBytesBeforeCompression;
+
+    /** The number of bytes of the buffers after compression, whether compressed or not. */
+    private volatile long numBytesAfterCompression;
+
+    /** The time spent on compression in nanoseconds. */
+    private volatile long compressionTimeNanos;
+
     public BufferCompressor(int bufferSize, String factoryName) {
+        this(bufferSize, factoryName, ZstdBlockCompressionFactory.DEFAULT_COMPRESSION_LEVEL);
+    }
+
+    public BufferCompressor(int bufferSize, String factoryName, int zstdCompressionLevel) {
         checkArgument(bufferSize > 0);
         checkNotNull(factoryName);
         // the size of this intermediate heap buffer will be gotten from the
         // plugin configuration in the future, and currently, double size of
-        // the input buffer is enough for lz4-java compression library.
+        // the input buffer is enough for all the supported compression codecs.
         final byte[] heapBuffer = new byte[2 * bufferSize];
         this.internalBuffer =
                 new NetworkBuffer(
                         MemorySegmentFactory.wrap(heapBuffer), FreeingBufferRecycler.INSTANCE);
         this.blockCompressor =
-                BlockCompressionFactory.createBlockCompressionFactory(factoryName).getCompressor();
+                BlockCompressionFactory.createBlockCompressionFactory(
+                                factoryName, zstdCompressionLevel)
+                        .getCompressor();
     }
 
     /**
@@ -106,20 +125,39 @@ public class BufferCompressor {
                 internalBuffer.refCnt() == 1,
                 "Illegal reference count, buffer need to be released.");
 
+        int length = buffer.getSize();
+        long startTime = System.nanoTime();
+        int compressedLen;
         try {
-            int length = buffer.getSize();
             // compress the given buffer into the internal heap buffer
-            int compressedLen =
+            compressedLen =
                     blockCompressor.compress(
                             buffer.getNioBuffer(0, length),
                             0,
                             length,
                             internalBuffer.getNioBuffer(0, internalBuffer.capacity()),
                             0);
-            return compressedLen < length ? compressedLen : 0;
+            compressedLen = compressedLen < length ? compressedLen : 0;
         } catch (Throwable throwable) {
             // return the original buffer if failed to compress
-            return 0;
+            compressedLen = 0;
         }
+
+        compressionTimeNanos += System.nanoTime() - startTime;
+        numBytesBeforeCompression += length;
+        numBytesAfterCompression += compressedLen > 0 ? compressedLen : length;
+        return compressedLen;
+    }
+
+    public long getNumBytesBeforeCompression() {
+        return numBytesBeforeCompression;
+    }
+
+    public long getNumBytesAfterCompression() {
+        return numBytesAfterCompression;
+    }
+
+    public long getCompressionTimeNanos() {
+        return compressionTimeNanos;
     }
 }
@@ -37,6 +37,12 @@ public class BufferDecompressor {
     /** The intermediate buffer for the decompressed data. */
     private final NetworkBuffer internalBuffer;
 
+    /**
+     * The time spent on decompression in nanoseconds. It is only written by the thread that
+     * decompresses and read by the metrics.
+     */
+    private volatile long decompressionTimeNanos;
+
     public BufferDecompressor(int bufferSize, String factoryName) {
         checkArgument(bufferSize > 0);
         checkNotNull(factoryName);
@@ -103,12 +109,21 @@ public class BufferDecompressor {
                 "Illegal reference count, buffer need to be released.");
 
         int length = buffer.getSize();
-        // decompress the given buffer into the internal heap buffer
-        return blockDecompressor.decompress(
-                buffer.getNioBuffer(0, length),
-                0,
-                length,
-                internalBuffer.getNioBuffer(0, internalBuffer.capacity()),
-                0);
+        long startTime = System.nanoTime();
+        try {
+            // decompress the given buffer into the internal heap buffer
+            return blockDecompressor.decompress(
+                    buffer.getNioBuffer(0, length),
+                    0,
+                    length,
+                    internalBuffer.getNioBuffer(0, internalBuffer.capacity()),
+                    0);
+        } finally {
+            decompressionTimeNanos += System.nanoTime() - startTime;
+        }
+    }
+
+    public long getDecompressionTimeNanos() {
+        return decompressionTimeNanos;
     }
 }
@@ -22,6 +22,8 @@ import org.apache.flink.metrics.Gauge;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.metrics.View;
 import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
+import org.apache.flink.runtime.io.network.buffer.BufferCompressor;
+import org.apache.flink.runtime.io.network.buffer.BufferDecompressor;
 import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
 import org.apache.flink.runtime.io.network.partition.ResultPartition;
 import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
@@ -29,6 +31,10 @@ import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate;
 import org.apache.flink.runtime.metrics.MetricNames;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
@@ -80,6 +86,12 @@ public class NettyShuffleMetricFactory {
     private static final String METRIC_INPUT_FLOATING_BUFFERS_USAGE = "inputFloatingBuffersUsage";
     private static final String METRIC_INPUT_EXCLUSIVE_BUFFERS_USAGE = "inputExclusiveBuffersUsage";
 
+    // task level compression metrics: Shuffle.Netty.<Input|Output>.*
+
+    private static final String METRIC_COMPRESSION_RATIO = "compressionRatio";
+    private static final String METRIC_COMPRESSION_TIME = "compressionTimeMs";
+    private static final String METRIC_DECOMPRESSION_TIME = "decompressionTimeMs";
+
     private NettyShuffleMetricFactory() {}
 
     public static void registerShuffleMetrics(
@@ -176,6 +188,7 @@ public class NettyShuffleMetricFactory {
                 outputGroup,
                 outputGroup.addGroup(METRIC_GROUP_BUFFERS),
                 resultPartitions);
+        registerCompressionMetrics(outputGroup, resultPartitions);
     }
 
     private static void registerOutputMetrics(
@@ -199,6 +212,7 @@ public class NettyShuffleMetricFactory {
                 inputGroup,
                 inputGroup.addGroup(METRIC_GROUP_BUFFERS),
                 inputGates);
+        registerDecompressionMetrics(inputGroup, inputGates);
     }
 
     private static void registerInputMetrics(
@@ -225,6 +239,60 @@ public class NettyShuffleMetricFactory {
         buffersGroup.gauge(METRIC_INPUT_POOL_USAGE, creditBasedInputBuffersUsageGauge);
     }
 
+    private static void registerCompressionMetrics(
+            MetricGroup outputGroup, ResultPartition[] resultPartitions) {
+        final List<BufferCompressor> compressors =
+                Arrays.stream(resultPartitions)
+                        .map(ResultPartition::getBufferCompressor)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+        if (compressors.isEmpty()) {
+            return;
+        }
+
+        // the ratio of the data size before compression to the data size after compression
+        outputGroup.gauge(
+                METRIC_COMPRESSION_RATIO,
+                () -> {
+                    long numBytesBeforeCompression = 0;
+                    long numBytesAfterCompression = 0;
+                    for (BufferCompressor compressor : compressors) {
+                        numBytesBeforeCompression += compressor.getNumBytesBeforeCompression();
+                        numBytesAfterCompression += compressor.getNumBytesAfterCompression();
+                    }
+                    return numBytesAfterCompression == 0
+                            ? 1.0
+                            : (double) numBytesBeforeCompression / numBytesAfterCompression;
+                });
+        outputGroup.gauge(
+                METRIC_COMPRESSION_TIME,
+                () ->
+                        TimeUnit.NANOSECONDS.toMillis(
+                                compressors.stream()
+                                        .mapToLong(BufferCompressor::getCompressionTimeNanos)
+                                        .sum()));
+    }
+
+    private static void registerDecompressionMetrics(
+            MetricGroup inputGroup, SingleInputGate[] inputGates) {
+        final List<BufferDecompressor> decompressors =
+                Arrays.stream(inputGates)
+                        .map(SingleInputGate::getBufferDecompressor)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+        if (decompressors.isEmpty()) {
+            return;
+        }
+
+        inputGroup.gauge(
+                METRIC_DECOMPRESSION_TIME,
+                () ->
+                        TimeUnit.NANOSECONDS.toMillis(
+                                decompressors.stream()
+                                        .mapToLong(BufferDecompressor::getDecompressionTimeNanos)
+                                        .sum()));
+    }
+
     public static void registerDebloatingTaskMetrics(
             SingleInputGate[] inputGates, MetricGroup taskGroup) {
         taskGroup.gauge(
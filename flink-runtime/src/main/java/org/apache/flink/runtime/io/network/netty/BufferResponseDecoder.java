@@ -18,6 +18,8 @@
 
 package org.apache.flink.runtime.io.network.netty;
 
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+
 import org.apache.flink.shaded.netty4.io.netty.buffer.ByteBuf;
 import org.apache.flink.shaded.netty4.io.netty.channel.ChannelHandlerContext;
 
@@ -25,7 +27,9 @@ import javax.annotation.Nullable;
 
 import static org.apache.flink.runtime.io.network.netty.NettyMessage.BufferResponse;
 import static org.apache.flink.runtime.io.network.netty.NettyMessage.BufferResponse.MESSAGE_HEADER_LENGTH;
+import static org.apache.flink.runtime.io.network.netty.NettyMessage.SharedMemoryBufferResponse;
 import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
 
 /** The decoder for {@link BufferResponse}. */
 class BufferResponseDecoder extends NettyMessageDecoder {
@@ -45,13 +49,21 @@ class BufferResponseDecoder extends NettyMessageDecoder {
     /** How many bytes have been received or discarded for the data buffer part. */
     private int decodedDataBufferSize;
 
+    /** The region shared with the server if it runs on the same host, otherwise null. */
+    @Nullable private SharedMemoryRegion sharedMemoryRegion;
+
     BufferResponseDecoder(NetworkBufferAllocator allocator) {
         this.allocator = checkNotNull(allocator);
     }
 
     @Override
     public void onChannelActive(ChannelHandlerContext ctx) {
-        messageHeaderBuffer = ctx.alloc().directBuffer(MESSAGE_HEADER_LENGTH);
+        messageHeaderBuffer =
+                ctx.alloc().directBuffer(SharedMemoryBufferResponse.MESSAGE_HEADER_LENGTH);
+    }
+
+    void setSharedMemoryRegion(SharedMemoryRegion sharedMemoryRegion) {
+        this.sharedMemoryRegion = checkNotNull(sharedMemoryRegion);
     }
 
     @Override
@@ -88,17 +100,32 @@ class BufferResponseDecoder extends NettyMessageDecoder {
     }
 
     private void decodeMessageHeader(ByteBuf data) {
+        boolean isSharedMemoryResponse = msgId == SharedMemoryBufferResponse.ID;
         ByteBuf fullFrameHeaderBuf =
                 ByteBufUtils.accumulate(
                         messageHeaderBuffer,
                         data,
-                        MESSAGE_HEADER_LENGTH,
+                        isSharedMemoryResponse
+                                ? SharedMemoryBufferResponse.MESSAGE_HEADER_LENGTH
+                                : MESSAGE_HEADER_LENGTH,
                         messageHeaderBuffer.readableBytes());
         if (fullFrameHeaderBuf != null) {
             bufferResponse = BufferResponse.readFrom(fullFrameHeaderBuf, allocator);
+            if (isSharedMemoryResponse) {
+                readFromSharedMemory(fullFrameHeaderBuf.readLong());
+            }
         }
     }
 
+    /** Copies the data buffer part from the shared memory region instead of the socket. */
+    private void readFromSharedMemory(long position) {
+        checkState(sharedMemoryRegion != null, "Received data in unknown shared memory region.");
+        Buffer buffer = bufferResponse.getBuffer();
+        sharedMemoryRegion.read(
+                position, bufferResponse.bufferSize, buffer == null ? null : buffer.asByteBuf());
+        decodedDataBufferSize = bufferResponse.bufferSize;
+    }
+
     private void clearState() {
         bufferResponse = null;
         decodedDataBufferSize = 0;
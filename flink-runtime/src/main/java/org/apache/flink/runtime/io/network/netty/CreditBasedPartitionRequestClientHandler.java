@@ -39,9 +39,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
 
 /**
  * Channel handler to read the messages of buffer response or error response from the producer, to
@@ -67,6 +72,12 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
     private final ChannelFutureListener writeListener =
             new WriteAndFlushNextMessageIfPossibleListener();
 
+    /**
+     * The maximum number of queued partition requests or credit announcements which are combined
+     * into a single message, 1 if the messages are never combined.
+     */
+    private final int maxMessagesPerBatch;
+
     /**
      * The channel handler context is initialized in channel active event by netty thread, the
      * context may also be accessed by task thread or canceler thread to cancel partition request
@@ -74,6 +85,15 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
      */
     private volatile ChannelHandlerContext ctx;
 
+    CreditBasedPartitionRequestClientHandler() {
+        this(1);
+    }
+
+    CreditBasedPartitionRequestClientHandler(int maxMessagesPerBatch) {
+        checkArgument(maxMessagesPerBatch >= 1, "The batch size must be at least 1.");
+        this.maxMessagesPerBatch = maxMessagesPerBatch;
+    }
+
     // ------------------------------------------------------------------------
     // Input channel/receiver registration
     // ------------------------------------------------------------------------
@@ -366,6 +386,22 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
                     continue;
                 }
 
+                if (msg instanceof NettyMessage.PartitionRequest) {
+                    msg =
+                            combineWithQueuedMessages(
+                                    outboundMessage,
+                                    (NettyMessage.PartitionRequest) msg,
+                                    NettyMessage.PartitionRequest.class,
+                                    NettyMessage.PartitionRequestBatch::new);
+                } else if (msg instanceof NettyMessage.AddCredit) {
+                    msg =
+                            combineWithQueuedMessages(
+                                    outboundMessage,
+                                    (NettyMessage.AddCredit) msg,
+                                    NettyMessage.AddCredit.class,
+                                    NettyMessage.AddCreditBatch::new);
+                }
+
                 // Write and flush and wait until this is done before
                 // trying to continue with the next input channel.
                 channel.writeAndFlush(msg).addListener(writeListener);
@@ -375,6 +411,41 @@ class CreditBasedPartitionRequestClientHandler extends ChannelInboundHandlerAdap
         }
     }
 
+    /**
+     * Combines the given message with the messages of the directly following queued outbound
+     * messages of the same kind, so that many input channels requesting partitions or announcing
+     * credits at the same time do not flood the producer with small messages.
+     */
+    private <T extends NettyMessage> NettyMessage combineWithQueuedMessages(
+            ClientOutboundMessage outboundMessage,
+            T msg,
+            Class<T> messageClass,
+            Function<List<T>, NettyMessage> batchFactory) {
+        if (maxMessagesPerBatch == 1) {
+            return msg;
+        }
+
+        List<T> batch = new ArrayList<>();
+        batch.add(msg);
+
+        ClientOutboundMessage next;
+        while (batch.size() < maxMessagesPerBatch
+                && (next = clientOutboundMessages.peek()) != null
+                && next.getClass() == outboundMessage.getClass()) {
+            clientOutboundMessages.poll();
+
+            // the same kind of outbound message always builds the same kind of message or null
+            if (!next.inputChannel.isReleased()) {
+                Object nextMsg = next.buildMessage();
+                if (nextMsg != null) {
+                    batch.add(messageClass.cast(nextMsg));
+                }
+            }
+        }
+
+        return batch.size() == 1 ? msg : batchFactory.apply(batch);
+    }
+
     private class WriteAndFlushNextMessageIfPossibleListener implements ChannelFutureListener {
 
         @Override
@@ -19,9 +19,11 @@
 package org.apache.flink.runtime.io.network.netty;
 
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.MemorySize;
 import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
 import org.apache.flink.configuration.SecurityOptions;
 import org.apache.flink.runtime.net.SSLUtils;
+import org.apache.flink.util.MathUtils;
 import org.apache.flink.util.NetUtils;
 
 import org.slf4j.Logger;
@@ -29,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 
+import java.io.File;
 import java.net.InetAddress;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
@@ -121,6 +124,16 @@ public class NettyConfig {
         return config.getInteger(NettyShuffleEnvironmentOptions.CLIENT_CONNECT_TIMEOUT_SECONDS);
     }
 
+    public int getClientMaxMessagesPerBatch() {
+        final int configValue =
+                config.getInteger(NettyShuffleEnvironmentOptions.CLIENT_MAX_MESSAGES_PER_BATCH);
+        checkArgument(
+                configValue >= 1,
+                "The maximum number of messages per batch must be at least 1, but was %s.",
+                configValue);
+        return configValue;
+    }
+
     public int getNetworkRetries() {
         return config.getInteger(NettyShuffleEnvironmentOptions.NETWORK_RETRIES);
     }
@@ -157,6 +170,34 @@ public class NettyConfig {
                 && SecurityOptions.isInternalSSLEnabled(config);
     }
 
+    /**
+     * Returns the directory for the memory-mapped files of the same-host shuffle, or null if the
+     * same-host shuffle is disabled.
+     */
+    @Nullable
+    public File getSameHostShuffleDirectory() {
+        if (!config.get(NettyShuffleEnvironmentOptions.SAME_HOST_SHUFFLE_ENABLED)
+                || getSSLEnabled()) {
+            return null;
+        }
+
+        String directory = config.get(NettyShuffleEnvironmentOptions.SAME_HOST_SHUFFLE_DIRECTORY);
+        if (directory != null) {
+            return new File(directory);
+        }
+
+        File sharedMemory = new File("/dev/shm");
+        return sharedMemory.isDirectory()
+                ? sharedMemory
+                : new File(System.getProperty("java.io.tmpdir"));
+    }
+
+    public int getSameHostShuffleRegionSize() {
+        MemorySize regionSize =
+                config.get(NettyShuffleEnvironmentOptions.SAME_HOST_SHUFFLE_REGION_SIZE);
+        return MathUtils.checkedDownCast(regionSize.getBytes());
+    }
+
     public Configuration getConfig() {
         return config;
     }
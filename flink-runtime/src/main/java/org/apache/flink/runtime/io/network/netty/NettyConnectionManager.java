@@ -75,11 +75,16 @@ public class NettyConnectionManager implements ConnectionManager {
                         client,
                         nettyConfig.getNetworkRetries(),
                         maxNumberOfConnections,
-                        connectionReuseEnabled);
+                        connectionReuseEnabled,
+                        nettyConfig.getClientMaxMessagesPerBatch() > 1);
 
         this.nettyProtocol =
                 new NettyProtocol(
-                        checkNotNull(partitionProvider), checkNotNull(taskEventPublisher));
+                        checkNotNull(partitionProvider),
+                        checkNotNull(taskEventPublisher),
+                        nettyConfig.getSameHostShuffleDirectory(),
+                        nettyConfig.getSameHostShuffleRegionSize(),
+                        nettyConfig.getClientMaxMessagesPerBatch());
     }
 
     @Override
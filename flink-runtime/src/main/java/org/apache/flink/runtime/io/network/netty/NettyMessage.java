@@ -48,6 +48,9 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.ProtocolException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
@@ -239,6 +242,15 @@ public abstract class NettyMessage {
                     case NewBufferSize.ID:
                         decodedMsg = NewBufferSize.readFrom(msg);
                         break;
+                    case SharedMemoryRegionRequest.ID:
+                        decodedMsg = SharedMemoryRegionRequest.readFrom(msg);
+                        break;
+                    case PartitionRequestBatch.ID:
+                        decodedMsg = PartitionRequestBatch.readFrom(msg);
+                        break;
+                    case AddCreditBatch.ID:
+                        decodedMsg = AddCreditBatch.readFrom(msg);
+                        break;
                     default:
                         throw new ProtocolException(
                                 "Received unknown message from producer: " + msg);
@@ -378,13 +390,31 @@ public abstract class NettyMessage {
             ByteBuf headerBuf =
                     allocateBuffer(allocator, ID, MESSAGE_HEADER_LENGTH, bufferSize, false);
 
+            writeHeader(
+                    headerBuf,
+                    receiverId,
+                    sequenceNumber,
+                    backlog,
+                    dataType,
+                    isCompressed,
+                    buffer.readableBytes());
+            return headerBuf;
+        }
+
+        static void writeHeader(
+                ByteBuf headerBuf,
+                InputChannelID receiverId,
+                int sequenceNumber,
+                int backlog,
+                Buffer.DataType dataType,
+                boolean isCompressed,
+                int size) {
             receiverId.writeTo(headerBuf);
             headerBuf.writeInt(sequenceNumber);
             headerBuf.writeInt(backlog);
             headerBuf.writeByte(dataType.ordinal());
             headerBuf.writeBoolean(isCompressed);
-            headerBuf.writeInt(buffer.readableBytes());
-            return headerBuf;
+            headerBuf.writeInt(size);
         }
 
         /**
@@ -526,26 +556,23 @@ public abstract class NettyMessage {
         @Override
         void write(ChannelOutboundInvoker out, ChannelPromise promise, ByteBufAllocator allocator)
                 throws IOException {
-            Consumer<ByteBuf> consumer =
-                    (bb) -> {
-                        partitionId.getPartitionId().writeTo(bb);
-                        partitionId.getProducerId().writeTo(bb);
-                        bb.writeInt(queueIndex);
-                        receiverId.writeTo(bb);
-                        bb.writeInt(credit);
-                    };
+            writeToChannel(out, promise, allocator, this::writeTo, ID, getByteBufLength());
+        }
 
-            writeToChannel(
-                    out,
-                    promise,
-                    allocator,
-                    consumer,
-                    ID,
-                    IntermediateResultPartitionID.getByteBufLength()
-                            + ExecutionAttemptID.getByteBufLength()
-                            + Integer.BYTES
-                            + InputChannelID.getByteBufLength()
-                            + Integer.BYTES);
+        void writeTo(ByteBuf bb) {
+            partitionId.getPartitionId().writeTo(bb);
+            partitionId.getProducerId().writeTo(bb);
+            bb.writeInt(queueIndex);
+            receiverId.writeTo(bb);
+            bb.writeInt(credit);
+        }
+
+        static int getByteBufLength() {
+            return IntermediateResultPartitionID.getByteBufLength()
+                    + ExecutionAttemptID.getByteBufLength()
+                    + Integer.BYTES
+                    + InputChannelID.getByteBufLength()
+                    + Integer.BYTES;
         }
 
         static PartitionRequest readFrom(ByteBuf buffer) {
@@ -566,6 +593,54 @@ public abstract class NettyMessage {
         }
     }
 
+    /** Several {@link PartitionRequest partition requests} sent to the server at once. */
+    static class PartitionRequestBatch extends NettyMessage {
+
+        private static final byte ID = 13;
+
+        final List<PartitionRequest> requests;
+
+        PartitionRequestBatch(List<PartitionRequest> requests) {
+            checkArgument(!requests.isEmpty(), "The batch should not be empty.");
+            this.requests = requests;
+        }
+
+        @Override
+        void write(ChannelOutboundInvoker out, ChannelPromise promise, ByteBufAllocator allocator)
+                throws IOException {
+            Consumer<ByteBuf> consumer =
+                    (bb) -> {
+                        bb.writeInt(requests.size());
+                        for (PartitionRequest request : requests) {
+                            request.writeTo(bb);
+                        }
+                    };
+
+            writeToChannel(
+                    out,
+                    promise,
+                    allocator,
+                    consumer,
+                    ID,
+                    Integer.BYTES + requests.size() * PartitionRequest.getByteBufLength());
+        }
+
+        static PartitionRequestBatch readFrom(ByteBuf buffer) {
+            int numRequests = buffer.readInt();
+            List<PartitionRequest> requests = new ArrayList<>(numRequests);
+            for (int i = 0; i < numRequests; i++) {
+                requests.add(PartitionRequest.readFrom(buffer));
+            }
+
+            return new PartitionRequestBatch(requests);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PartitionRequestBatch(%d requests)", requests.size());
+        }
+    }
+
     static class TaskEventRequest extends NettyMessage {
 
         private static final byte ID = 3;
@@ -731,6 +806,56 @@ public abstract class NettyMessage {
         }
     }
 
+    /** Several incremental {@link AddCredit credit announcements} sent to the server at once. */
+    static class AddCreditBatch extends NettyMessage {
+
+        private static final byte ID = 14;
+
+        final List<AddCredit> credits;
+
+        AddCreditBatch(List<AddCredit> credits) {
+            checkArgument(!credits.isEmpty(), "The batch should not be empty.");
+            this.credits = credits;
+        }
+
+        @Override
+        void write(ChannelOutboundInvoker out, ChannelPromise promise, ByteBufAllocator allocator)
+                throws IOException {
+            Consumer<ByteBuf> consumer =
+                    (bb) -> {
+                        bb.writeInt(credits.size());
+                        for (AddCredit addCredit : credits) {
+                            bb.writeInt(addCredit.credit);
+                            addCredit.receiverId.writeTo(bb);
+                        }
+                    };
+
+            writeToChannel(
+                    out,
+                    promise,
+                    allocator,
+                    consumer,
+                    ID,
+                    Integer.BYTES
+                            + credits.size() * (Integer.BYTES + InputChannelID.getByteBufLength()));
+        }
+
+        static AddCreditBatch readFrom(ByteBuf buffer) {
+            int numCredits = buffer.readInt();
+            List<AddCredit> credits = new ArrayList<>(numCredits);
+            for (int i = 0; i < numCredits; i++) {
+                credits.add(AddCredit.readFrom(buffer));
+            }
+
+            return new AddCreditBatch(credits);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("AddCreditBatch(%d announcements)", credits.size());
+        }
+    }
+
     /** Message to notify the producer to unblock from checkpoint. */
     static class ResumeConsumption extends NettyMessage {
 
@@ -890,6 +1015,122 @@ public abstract class NettyMessage {
         }
     }
 
+    /**
+     * Server response with the header of a {@link BufferResponse} whose data has been written to
+     * the {@link SharedMemoryRegion} of the connection instead of to the socket. The client
+     * decodes it into a regular {@link BufferResponse}.
+     */
+    static class SharedMemoryBufferResponse extends NettyMessage {
+
+        static final byte ID = 11;
+
+        // header of the buffer response, position in the shared memory region (8)
+        static final int MESSAGE_HEADER_LENGTH = BufferResponse.MESSAGE_HEADER_LENGTH + Long.BYTES;
+
+        final InputChannelID receiverId;
+
+        final int sequenceNumber;
+
+        final int backlog;
+
+        final Buffer.DataType dataType;
+
+        final boolean isCompressed;
+
+        final int bufferSize;
+
+        final long position;
+
+        SharedMemoryBufferResponse(
+                Buffer buffer,
+                long position,
+                int sequenceNumber,
+                InputChannelID receiverId,
+                int backlog) {
+            checkArgument(backlog >= 0, "Must be non-negative.");
+            this.dataType = buffer.getDataType();
+            this.isCompressed = buffer.isCompressed();
+            this.bufferSize = buffer.readableBytes();
+            this.position = position;
+            this.sequenceNumber = sequenceNumber;
+            this.receiverId = checkNotNull(receiverId);
+            this.backlog = backlog;
+        }
+
+        @Override
+        void write(ChannelOutboundInvoker out, ChannelPromise promise, ByteBufAllocator allocator)
+                throws IOException {
+            ByteBuf result = null;
+
+            try {
+                result = allocateBuffer(allocator, ID, MESSAGE_HEADER_LENGTH);
+                BufferResponse.writeHeader(
+                        result,
+                        receiverId,
+                        sequenceNumber,
+                        backlog,
+                        dataType,
+                        isCompressed,
+                        bufferSize);
+                result.writeLong(position);
+
+                out.write(result, promise);
+            } catch (Throwable t) {
+                handleException(result, null, t);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "SharedMemoryBufferResponse(%s : %d @ %d)", receiverId, bufferSize, position);
+        }
+    }
+
+    /**
+     * Message to notify the producer about the {@link SharedMemoryRegion} created by the client of
+     * a connection between two task managers on the same host.
+     */
+    static class SharedMemoryRegionRequest extends NettyMessage {
+
+        private static final byte ID = 12;
+
+        final String path;
+
+        SharedMemoryRegionRequest(String path) {
+            this.path = checkNotNull(path);
+        }
+
+        @Override
+        void write(ChannelOutboundInvoker out, ChannelPromise promise, ByteBufAllocator allocator)
+                throws IOException {
+            ByteBuf result = null;
+
+            try {
+                byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+                result = allocateBuffer(allocator, ID, Integer.BYTES + pathBytes.length);
+                result.writeInt(pathBytes.length);
+                result.writeBytes(pathBytes);
+
+                out.write(result, promise);
+            } catch (Throwable t) {
+                handleException(result, null, t);
+            }
+        }
+
+        static SharedMemoryRegionRequest readFrom(ByteBuf buffer) {
+            byte[] pathBytes = new byte[buffer.readInt()];
+            buffer.readBytes(pathBytes);
+
+            return new SharedMemoryRegionRequest(new String(pathBytes, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SharedMemoryRegionRequest(%s)", path);
+        }
+    }
+
     // ------------------------------------------------------------------------
 
     void writeToChannel(
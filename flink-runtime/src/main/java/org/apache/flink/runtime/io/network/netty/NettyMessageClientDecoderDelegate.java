@@ -28,6 +28,16 @@ import org.apache.flink.shaded.netty4.io.netty.channel.ChannelInboundHandlerAdap
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketException;
+
 import static org.apache.flink.runtime.io.network.netty.NettyMessage.FRAME_HEADER_LENGTH;
 import static org.apache.flink.runtime.io.network.netty.NettyMessage.MAGIC_NUMBER;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -51,7 +61,7 @@ public class NettyMessageClientDecoderDelegate extends ChannelInboundHandlerAdap
     private final Logger LOG = LoggerFactory.getLogger(NettyMessageClientDecoderDelegate.class);
 
     /** The decoder for BufferResponse. */
-    private final NettyMessageDecoder bufferResponseDecoder;
+    private final BufferResponseDecoder bufferResponseDecoder;
 
     /** The decoder for messages other than BufferResponse. */
     private final NettyMessageDecoder nonBufferResponseDecoder;
@@ -62,11 +72,30 @@ public class NettyMessageClientDecoderDelegate extends ChannelInboundHandlerAdap
     /** The decoder for the current message. It is null if we are decoding the frame header. */
     private NettyMessageDecoder currentDecoder;
 
+    /**
+     * The directory to create a region shared with the server in if it runs on the same host, or
+     * null if the same-host shuffle is disabled.
+     */
+    @Nullable private final File sharedMemoryDirectory;
+
+    private final int sharedMemoryRegionSize;
+
+    @Nullable private SharedMemoryRegion sharedMemoryRegion;
+
     NettyMessageClientDecoderDelegate(NetworkClientHandler networkClientHandler) {
+        this(networkClientHandler, null, 0);
+    }
+
+    NettyMessageClientDecoderDelegate(
+            NetworkClientHandler networkClientHandler,
+            @Nullable File sharedMemoryDirectory,
+            int sharedMemoryRegionSize) {
         this.bufferResponseDecoder =
                 new BufferResponseDecoder(
                         new NetworkBufferAllocator(checkNotNull(networkClientHandler)));
         this.nonBufferResponseDecoder = new NonBufferResponseDecoder();
+        this.sharedMemoryDirectory = sharedMemoryDirectory;
+        this.sharedMemoryRegionSize = sharedMemoryRegionSize;
     }
 
     @Override
@@ -76,9 +105,51 @@ public class NettyMessageClientDecoderDelegate extends ChannelInboundHandlerAdap
 
         frameHeaderBuffer = ctx.alloc().directBuffer(FRAME_HEADER_LENGTH);
 
+        if (sharedMemoryDirectory != null && isOnSameHost(ctx.channel().remoteAddress())) {
+            createSharedMemoryRegion(ctx);
+        }
+
         super.channelActive(ctx);
     }
 
+    /**
+     * Creates a region shared with the server and announces it. The server keeps sending all data
+     * through the socket if it can not open the region, so any failure only costs the shortcut.
+     */
+    private void createSharedMemoryRegion(ChannelHandlerContext ctx) {
+        try {
+            sharedMemoryRegion =
+                    SharedMemoryRegion.create(sharedMemoryDirectory, sharedMemoryRegionSize);
+        } catch (IOException e) {
+            LOG.warn(
+                    "Could not create shared memory region in {}, sending all data to {} through the socket.",
+                    sharedMemoryDirectory,
+                    ctx.channel().remoteAddress(),
+                    e);
+            return;
+        }
+
+        bufferResponseDecoder.setSharedMemoryRegion(sharedMemoryRegion);
+        ctx.writeAndFlush(
+                new NettyMessage.SharedMemoryRegionRequest(
+                        sharedMemoryRegion.getFile().getAbsolutePath()));
+    }
+
+    private static boolean isOnSameHost(SocketAddress remoteAddress) {
+        if (!(remoteAddress instanceof InetSocketAddress)) {
+            return false;
+        }
+
+        InetAddress address = ((InetSocketAddress) remoteAddress).getAddress();
+        try {
+            return address != null
+                    && (address.isLoopbackAddress()
+                            || NetworkInterface.getByInetAddress(address) != null);
+        } catch (SocketException e) {
+            return false;
+        }
+    }
+
     /**
      * Releases resources when the channel is closed. When exceptions are thrown during processing
      * received netty buffers, {@link CreditBasedPartitionRequestClientHandler} is expected to catch
@@ -88,7 +159,7 @@ public class NettyMessageClientDecoderDelegate extends ChannelInboundHandlerAdap
      */
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-        IOUtils.cleanup(LOG, bufferResponseDecoder, nonBufferResponseDecoder);
+        IOUtils.cleanup(LOG, bufferResponseDecoder, nonBufferResponseDecoder, sharedMemoryRegion);
         frameHeaderBuffer.release();
 
         super.channelInactive(ctx);
@@ -143,7 +214,8 @@ public class NettyMessageClientDecoderDelegate extends ChannelInboundHandlerAdap
                     "Network stream corrupted: received incorrect magic number.");
 
             int msgId = fullFrameHeaderBuf.readByte();
-            if (msgId == NettyMessage.BufferResponse.ID) {
+            if (msgId == NettyMessage.BufferResponse.ID
+                    || msgId == NettyMessage.SharedMemoryBufferResponse.ID) {
                 currentDecoder = bufferResponseDecoder;
             } else {
                 currentDecoder = nonBufferResponseDecoder;
@@ -153,7 +153,22 @@ public class NettyPartitionRequestClient implements PartitionRequestClient {
                     }
                 };
 
-        if (delayMs == 0) {
+        if (clientFactory.isMessageBatchingEnabled()) {
+            // the client handler combines the requests queued at the same time into one message
+            // and fails all input channels of the connection if the message can not be sent
+            final PartitionRequestMessage message =
+                    new PartitionRequestMessage(inputChannel, request);
+            if (delayMs == 0) {
+                sendToChannel(message);
+            } else {
+                tcpChannel
+                        .eventLoop()
+                        .schedule(
+                                () -> tcpChannel.pipeline().fireUserEventTriggered(message),
+                                delayMs,
+                                TimeUnit.MILLISECONDS);
+            }
+        } else if (delayMs == 0) {
             ChannelFuture f = tcpChannel.writeAndFlush(request);
             f.addListener(listener);
         } else {
@@ -279,6 +294,21 @@ public class NettyPartitionRequestClient implements PartitionRequestClient {
         }
     }
 
+    private static class PartitionRequestMessage extends ClientOutboundMessage {
+        private final PartitionRequest request;
+
+        private PartitionRequestMessage(
+                RemoteInputChannel inputChannel, PartitionRequest request) {
+            super(checkNotNull(inputChannel));
+            this.request = checkNotNull(request);
+        }
+
+        @Override
+        Object buildMessage() {
+            return request;
+        }
+    }
+
     private static class AddCreditMessage extends ClientOutboundMessage {
 
         private AddCreditMessage(RemoteInputChannel inputChannel) {
@@ -24,6 +24,10 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
 
 import org.apache.flink.shaded.netty4.io.netty.channel.ChannelHandler;
 
+import javax.annotation.Nullable;
+
+import java.io.File;
+
 /** Defines the server and client channel handlers, i.e. the protocol, used by netty. */
 public class NettyProtocol {
 
@@ -33,10 +37,30 @@ public class NettyProtocol {
     private final ResultPartitionProvider partitionProvider;
     private final TaskEventPublisher taskEventPublisher;
 
+    /** The directory of the same-host shuffle, or null if it is disabled. */
+    @Nullable private final File sharedMemoryDirectory;
+
+    private final int sharedMemoryRegionSize;
+
+    /** The maximum number of client requests combined into a single message. */
+    private final int clientMaxMessagesPerBatch;
+
     NettyProtocol(
             ResultPartitionProvider partitionProvider, TaskEventPublisher taskEventPublisher) {
+        this(partitionProvider, taskEventPublisher, null, 0, 1);
+    }
+
+    NettyProtocol(
+            ResultPartitionProvider partitionProvider,
+            TaskEventPublisher taskEventPublisher,
+            @Nullable File sharedMemoryDirectory,
+            int sharedMemoryRegionSize,
+            int clientMaxMessagesPerBatch) {
         this.partitionProvider = partitionProvider;
         this.taskEventPublisher = taskEventPublisher;
+        this.sharedMemoryDirectory = sharedMemoryDirectory;
+        this.sharedMemoryRegionSize = sharedMemoryRegionSize;
+        this.clientMaxMessagesPerBatch = clientMaxMessagesPerBatch;
     }
 
     /**
@@ -76,7 +100,10 @@ public class NettyProtocol {
         PartitionRequestQueue queueOfPartitionQueues = new PartitionRequestQueue();
         PartitionRequestServerHandler serverHandler =
                 new PartitionRequestServerHandler(
-                        partitionProvider, taskEventPublisher, queueOfPartitionQueues);
+                        partitionProvider,
+                        taskEventPublisher,
+                        queueOfPartitionQueues,
+                        sharedMemoryDirectory);
 
         return new ChannelHandler[] {
             messageEncoder,
@@ -119,11 +146,13 @@ public class NettyProtocol {
      * @return channel handlers
      */
     public ChannelHandler[] getClientChannelHandlers() {
-        NetworkClientHandler networkClientHandler = new CreditBasedPartitionRequestClientHandler();
+        NetworkClientHandler networkClientHandler =
+                new CreditBasedPartitionRequestClientHandler(clientMaxMessagesPerBatch);
 
         return new ChannelHandler[] {
             messageEncoder,
-            new NettyMessageClientDecoderDelegate(networkClientHandler),
+            new NettyMessageClientDecoderDelegate(
+                    networkClientHandler, sharedMemoryDirectory, sharedMemoryRegionSize),
             networkClientHandler
         };
     }
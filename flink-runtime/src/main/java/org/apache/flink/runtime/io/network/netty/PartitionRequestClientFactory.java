@@ -56,6 +56,8 @@ class PartitionRequestClientFactory {
 
     private final boolean connectionReuseEnabled;
 
+    private final boolean messageBatchingEnabled;
+
     PartitionRequestClientFactory(NettyClient nettyClient, boolean connectionReuseEnabled) {
         this(nettyClient, 0, 1, connectionReuseEnabled);
     }
@@ -65,10 +67,20 @@ class PartitionRequestClientFactory {
             int retryNumber,
             int maxNumberOfConnections,
             boolean connectionReuseEnabled) {
+        this(nettyClient, retryNumber, maxNumberOfConnections, connectionReuseEnabled, false);
+    }
+
+    PartitionRequestClientFactory(
+            NettyClient nettyClient,
+            int retryNumber,
+            int maxNumberOfConnections,
+            boolean connectionReuseEnabled,
+            boolean messageBatchingEnabled) {
         this.nettyClient = nettyClient;
         this.retryNumber = retryNumber;
         this.maxNumberOfConnections = maxNumberOfConnections;
         this.connectionReuseEnabled = connectionReuseEnabled;
+        this.messageBatchingEnabled = messageBatchingEnabled;
     }
 
     /**
@@ -127,6 +139,14 @@ class PartitionRequestClientFactory {
         return connectionReuseEnabled;
     }
 
+    /**
+     * Returns whether the clients hand their partition requests to the client handler, which
+     * combines the requests of many input channels into a single message.
+     */
+    boolean isMessageBatchingEnabled() {
+        return messageBatchingEnabled;
+    }
+
     private NettyPartitionRequestClient connectWithRetries(ConnectionID connectionId)
             throws InterruptedException, RemoteTransportException {
         int tried = 0;
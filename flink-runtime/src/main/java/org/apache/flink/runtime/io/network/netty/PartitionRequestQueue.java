@@ -22,9 +22,11 @@ import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.runtime.io.network.NetworkSequenceViewReader;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.ErrorResponse;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.SharedMemoryBufferResponse;
 import org.apache.flink.runtime.io.network.partition.ResultSubpartitionView;
 import org.apache.flink.runtime.io.network.partition.consumer.InputChannel.BufferAndAvailability;
 import org.apache.flink.runtime.io.network.partition.consumer.InputChannelID;
+import org.apache.flink.util.IOUtils;
 
 import org.apache.flink.shaded.netty4.io.netty.channel.Channel;
 import org.apache.flink.shaded.netty4.io.netty.channel.ChannelFuture;
@@ -45,6 +47,7 @@ import java.util.function.Consumer;
 
 import static org.apache.flink.runtime.io.network.netty.NettyMessage.BufferResponse;
 import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
  * A nonEmptyReader of partition queues, which listens for channel writability changed events before
@@ -68,6 +71,9 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
 
     private ChannelHandlerContext ctx;
 
+    /** The region shared with the client if it runs on the same host, otherwise null. */
+    @Nullable private SharedMemoryRegion sharedMemoryRegion;
+
     @Override
     public void channelRegistered(final ChannelHandlerContext ctx) throws Exception {
         if (this.ctx == null) {
@@ -77,6 +83,11 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
         super.channelRegistered(ctx);
     }
 
+    void setSharedMemoryRegion(SharedMemoryRegion sharedMemoryRegion) {
+        IOUtils.closeQuietly(this.sharedMemoryRegion);
+        this.sharedMemoryRegion = checkNotNull(sharedMemoryRegion);
+    }
+
     void notifyReaderNonEmpty(final NetworkSequenceViewReader reader) {
         // The notification might come from the same thread. For the initial writes this
         // might happen before the reader has set its reference to the view, because
@@ -292,12 +303,26 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
                         registerAvailableReader(reader);
                     }
 
-                    BufferResponse msg =
-                            new BufferResponse(
-                                    next.buffer(),
-                                    next.getSequenceNumber(),
-                                    reader.getReceiverId(),
-                                    next.buffersInBacklog());
+                    final NettyMessage msg;
+                    final long position = tryWriteToSharedMemory(next.buffer());
+                    if (position >= 0) {
+                        msg =
+                                new SharedMemoryBufferResponse(
+                                        next.buffer(),
+                                        position,
+                                        next.getSequenceNumber(),
+                                        reader.getReceiverId(),
+                                        next.buffersInBacklog());
+                        next.buffer().recycleBuffer();
+                        next = null;
+                    } else {
+                        msg =
+                                new BufferResponse(
+                                        next.buffer(),
+                                        next.getSequenceNumber(),
+                                        reader.getReceiverId(),
+                                        next.buffersInBacklog());
+                    }
 
                     // Write and flush and wait until this is done before
                     // trying to continue with the next buffer.
@@ -315,6 +340,20 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
         }
     }
 
+    /**
+     * Copies the data of the given buffer into the region shared with the client if there is one
+     * and it has enough free space.
+     *
+     * @return the position of the data in the shared memory region, or -1 if it has to be sent
+     *     through the socket.
+     */
+    private long tryWriteToSharedMemory(Buffer buffer) {
+        if (sharedMemoryRegion == null || !buffer.isBuffer() || buffer.readableBytes() == 0) {
+            return -1;
+        }
+        return sharedMemoryRegion.tryWrite(buffer.getNioBufferReadable());
+    }
+
     private void registerAvailableReader(NetworkSequenceViewReader reader) {
         availableReaders.add(reader);
         reader.setRegisteredAsAvailable(true);
@@ -332,6 +371,8 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         releaseAllResources();
+        IOUtils.closeQuietly(sharedMemoryRegion);
+        sharedMemoryRegion = null;
 
         ctx.fireChannelInactive();
     }
@@ -22,11 +22,14 @@ import org.apache.flink.runtime.io.network.NetworkSequenceViewReader;
 import org.apache.flink.runtime.io.network.TaskEventPublisher;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.AckAllUserRecordsProcessed;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.AddCredit;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.AddCreditBatch;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.CancelPartitionRequest;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.CloseRequest;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.NewBufferSize;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.PartitionRequest;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.PartitionRequestBatch;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.ResumeConsumption;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.SharedMemoryRegionRequest;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.TaskEventRequest;
 import org.apache.flink.runtime.io.network.partition.PartitionNotFoundException;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
@@ -38,6 +41,11 @@ import org.apache.flink.shaded.netty4.io.netty.channel.SimpleChannelInboundHandl
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+
 /** Channel handler to initiate data transfers and dispatch backwards flowing task events. */
 class PartitionRequestServerHandler extends SimpleChannelInboundHandler<NettyMessage> {
 
@@ -49,14 +57,26 @@ class PartitionRequestServerHandler extends SimpleChannelInboundHandler<NettyMes
 
     private final PartitionRequestQueue outboundQueue;
 
+    /** The directory of the same-host shuffle, or null if it is disabled. */
+    @Nullable private final File sharedMemoryDirectory;
+
     PartitionRequestServerHandler(
             ResultPartitionProvider partitionProvider,
             TaskEventPublisher taskEventPublisher,
             PartitionRequestQueue outboundQueue) {
+        this(partitionProvider, taskEventPublisher, outboundQueue, null);
+    }
+
+    PartitionRequestServerHandler(
+            ResultPartitionProvider partitionProvider,
+            TaskEventPublisher taskEventPublisher,
+            PartitionRequestQueue outboundQueue,
+            @Nullable File sharedMemoryDirectory) {
 
         this.partitionProvider = partitionProvider;
         this.taskEventPublisher = taskEventPublisher;
         this.outboundQueue = outboundQueue;
+        this.sharedMemoryDirectory = sharedMemoryDirectory;
     }
 
     @Override
@@ -78,22 +98,10 @@ class PartitionRequestServerHandler extends SimpleChannelInboundHandler<NettyMes
             // Intermediate result partition requests
             // ----------------------------------------------------------------
             if (msgClazz == PartitionRequest.class) {
-                PartitionRequest request = (PartitionRequest) msg;
-
-                LOG.debug("Read channel on {}: {}.", ctx.channel().localAddress(), request);
-
-                try {
-                    NetworkSequenceViewReader reader;
-                    reader =
-                            new CreditBasedSequenceNumberingViewReader(
-                                    request.receiverId, request.credit, outboundQueue);
-
-                    reader.requestSubpartitionView(
-                            partitionProvider, request.partitionId, request.queueIndex);
-
-                    outboundQueue.notifyReaderCreated(reader);
-                } catch (PartitionNotFoundException notFound) {
-                    respondWithError(ctx, notFound, request.receiverId);
+                requestSubpartition(ctx, (PartitionRequest) msg);
+            } else if (msgClazz == PartitionRequestBatch.class) {
+                for (PartitionRequest request : ((PartitionRequestBatch) msg).requests) {
+                    requestSubpartition(ctx, request);
                 }
             }
             // ----------------------------------------------------------------
@@ -115,10 +123,11 @@ class PartitionRequestServerHandler extends SimpleChannelInboundHandler<NettyMes
             } else if (msgClazz == CloseRequest.class) {
                 outboundQueue.close();
             } else if (msgClazz == AddCredit.class) {
-                AddCredit request = (AddCredit) msg;
-
-                outboundQueue.addCreditOrResumeConsumption(
-                        request.receiverId, reader -> reader.addCredit(request.credit));
+                addCredit((AddCredit) msg);
+            } else if (msgClazz == AddCreditBatch.class) {
+                for (AddCredit request : ((AddCreditBatch) msg).credits) {
+                    addCredit(request);
+                }
             } else if (msgClazz == ResumeConsumption.class) {
                 ResumeConsumption request = (ResumeConsumption) msg;
 
@@ -132,6 +141,10 @@ class PartitionRequestServerHandler extends SimpleChannelInboundHandler<NettyMes
                 NewBufferSize request = (NewBufferSize) msg;
 
                 outboundQueue.notifyNewBufferSize(request.receiverId, request.bufferSize);
+            } else if (msgClazz == SharedMemoryRegionRequest.class) {
+                SharedMemoryRegionRequest request = (SharedMemoryRegionRequest) msg;
+
+                openSharedMemoryRegion(ctx, new File(request.path));
             } else {
                 LOG.warn("Received unexpected client request: {}", msg);
             }
@@ -140,6 +153,57 @@ class PartitionRequestServerHandler extends SimpleChannelInboundHandler<NettyMes
         }
     }
 
+    private void requestSubpartition(ChannelHandlerContext ctx, PartitionRequest request)
+            throws IOException {
+        LOG.debug("Read channel on {}: {}.", ctx.channel().localAddress(), request);
+
+        try {
+            NetworkSequenceViewReader reader;
+            reader =
+                    new CreditBasedSequenceNumberingViewReader(
+                            request.receiverId, request.credit, outboundQueue);
+
+            reader.requestSubpartitionView(
+                    partitionProvider, request.partitionId, request.queueIndex);
+
+            outboundQueue.notifyReaderCreated(reader);
+        } catch (PartitionNotFoundException notFound) {
+            respondWithError(ctx, notFound, request.receiverId);
+        }
+    }
+
+    private void addCredit(AddCredit request) throws Exception {
+        outboundQueue.addCreditOrResumeConsumption(
+                request.receiverId, reader -> reader.addCredit(request.credit));
+    }
+
+    /**
+     * Opens the region announced by a client on the same host. The data keeps being sent through
+     * the socket if the same-host shuffle is disabled or the region can not be opened.
+     */
+    private void openSharedMemoryRegion(ChannelHandlerContext ctx, File file) throws IOException {
+        if (sharedMemoryDirectory == null
+                || !file.getName().startsWith(SharedMemoryRegion.FILE_NAME_PREFIX)
+                || file.getParentFile() == null
+                || !file.getParentFile()
+                        .getCanonicalFile()
+                        .equals(sharedMemoryDirectory.getCanonicalFile())) {
+            LOG.debug(
+                    "Ignoring shared memory region {} of {}.", file, ctx.channel().remoteAddress());
+            return;
+        }
+
+        try {
+            outboundQueue.setSharedMemoryRegion(SharedMemoryRegion.open(file));
+        } catch (IOException e) {
+            LOG.warn(
+                    "Could not open shared memory region {}, sending all data to {} through the socket.",
+                    file,
+                    ctx.channel().remoteAddress(),
+                    e);
+        }
+    }
+
     private void respondWithError(ChannelHandlerContext ctx, Throwable error) {
         ctx.writeAndFlush(new NettyMessage.ErrorResponse(error));
     }
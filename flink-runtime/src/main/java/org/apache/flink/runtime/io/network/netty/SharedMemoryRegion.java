@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.netty;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.core.memory.MemoryUtils;
+
+import org.apache.flink.shaded.netty4.io.netty.buffer.ByteBuf;
+import org.apache.flink.shaded.netty4.io.netty.util.internal.PlatformDependent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A memory-mapped file shared by the client and the server of a netty connection between two
+ * task managers on the same host. The server copies the data of buffer responses into the region
+ * instead of writing it to the socket, and the client copies it from there into the buffers of
+ * its input channels.
+ *
+ * <p>The region is used as a ring, which is written by the server and released by the client
+ * strictly in the order of the buffer responses on the connection. The server keeps its write
+ * position to itself while the client publishes its read position in the header of the file. A
+ * stale read position only makes the server see less free space than there actually is, in which
+ * case the data is sent through the socket, so neither side ever waits for the other.
+ *
+ * <p>A region is only accessed by the netty thread of its connection on either side.
+ */
+class SharedMemoryRegion implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedMemoryRegion.class);
+
+    static final String FILE_NAME_PREFIX = "flink-netty-shm-";
+
+    /** The header only holds the read position of the client, padded to a cache line. */
+    private static final int HEADER_LENGTH = 64;
+
+    private final File file;
+
+    private final MappedByteBuffer mappedBuffer;
+
+    private final MemorySegment segment;
+
+    private final int capacity;
+
+    /** The next position the server writes to, as a number of bytes written since creation. */
+    private long writePosition;
+
+    private SharedMemoryRegion(File file, MappedByteBuffer mappedBuffer) {
+        this.file = file;
+        this.mappedBuffer = mappedBuffer;
+        this.segment = MemorySegmentFactory.wrapOffHeapMemory(mappedBuffer);
+        this.capacity = mappedBuffer.capacity() - HEADER_LENGTH;
+    }
+
+    /** Creates a new region with the given capacity in the given directory, for the client. */
+    static SharedMemoryRegion create(File directory, int capacity) throws IOException {
+        checkArgument(capacity > 0, "The capacity must be positive.");
+        File file = File.createTempFile(FILE_NAME_PREFIX, null, directory);
+        try {
+            return new SharedMemoryRegion(file, map(file, HEADER_LENGTH + (long) capacity));
+        } catch (Throwable t) {
+            deleteFile(file);
+            throw t;
+        }
+    }
+
+    /**
+     * Opens the region created by a client, for the server. The file is deleted right away, so
+     * that it does not outlive the two mappings even if one of the processes dies.
+     */
+    static SharedMemoryRegion open(File file) throws IOException {
+        try {
+            long size = file.length();
+            if (size <= HEADER_LENGTH || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid size of shared memory region " + file + ".");
+            }
+            return new SharedMemoryRegion(file, map(file, size));
+        } finally {
+            deleteFile(file);
+        }
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        try (FileChannel channel =
+                FileChannel.open(
+                        file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Copies the given data into the region if there is enough free space, for the server.
+     *
+     * @return the position to pass to {@link #read} on the client, or -1 if there was not enough
+     *     free space.
+     */
+    long tryWrite(ByteBuffer data) {
+        int size = data.remaining();
+        long position = writePosition;
+        int offset = (int) (position % capacity);
+        if (offset + size > capacity) {
+            // the data is never wrapped around, the tail of the ring is skipped instead
+            position += capacity - offset;
+            offset = 0;
+        }
+
+        if (position + size - getReadPosition() > capacity) {
+            return -1;
+        }
+
+        segment.put(HEADER_LENGTH + offset, data, size);
+        writePosition = position + size;
+        return position;
+    }
+
+    /**
+     * Copies the data written at the given position into the target buffer and releases it, for
+     * the client. The data is only released if the target is null.
+     */
+    void read(long position, int size, @Nullable ByteBuf target) {
+        if (target != null) {
+            target.writeBytes(segment.wrap(HEADER_LENGTH + (int) (position % capacity), size));
+        }
+        MemoryUtils.UNSAFE.putOrderedLong(null, segment.getAddress(), position + size);
+    }
+
+    private long getReadPosition() {
+        return MemoryUtils.UNSAFE.getLongVolatile(null, segment.getAddress());
+    }
+
+    @Override
+    public void close() {
+        PlatformDependent.freeDirectBuffer(mappedBuffer);
+        deleteFile(file);
+    }
+
+    private static void deleteFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            LOG.debug("Could not delete shared memory region {}.", file, e);
+        }
+    }
+}
@@ -99,6 +99,37 @@ public final class BufferReaderWriterUtil {
                 memorySegment, FreeingBufferRecycler.INSTANCE, dataType, isCompressed, size);
     }
 
+    /** Gets the data size of the buffer whose header starts at the position of the memory. */
+    static int peekNextBufferSize(ByteBuffer memory) {
+        return memory.getInt(memory.position() + 4);
+    }
+
+    /**
+     * Copies the data of the buffer whose header starts at the position of the memory into the
+     * target segment and moves the position of the memory behind the buffer.
+     */
+    static Buffer copyNextBuffer(
+            ByteBuffer memory, MemorySegment memorySegment, BufferRecycler bufferRecycler)
+            throws IOException {
+        final boolean isEvent;
+        final boolean isCompressed;
+        final int size;
+
+        try {
+            isEvent = memory.getShort() == HEADER_VALUE_IS_EVENT;
+            isCompressed = memory.getShort() == BUFFER_IS_COMPRESSED;
+            size = memory.getInt();
+            memorySegment.put(0, memory, size);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throwCorruptDataException();
+            return null; // silence compiler
+        }
+
+        Buffer.DataType dataType =
+                isEvent ? Buffer.DataType.EVENT_BUFFER : Buffer.DataType.DATA_BUFFER;
+        return new NetworkBuffer(memorySegment, bufferRecycler, dataType, isCompressed, size);
+    }
+
     // ------------------------------------------------------------------------
     //  ByteChannel read / write
     // ------------------------------------------------------------------------
@@ -396,6 +396,7 @@ public abstract class BufferWritingResultPartition extends ResultPartition {
             return bufferBuilder;
         }
 
+        onBufferPoolExhausted();
         hardBackPressuredTimeMsPerSecond.markStart();
         try {
             bufferBuilder = bufferPool.requestBufferBuilderBlocking(targetSubpartition);
@@ -406,6 +407,13 @@ public abstract class BufferWritingResultPartition extends ResultPartition {
         }
     }
 
+    /**
+     * Called by the task thread before it blocks on requesting a buffer from the exhausted buffer
+     * pool. Implementations which hold buffers that can be freed without a consumer, for example
+     * by spilling them to disk, may release them here.
+     */
+    protected void onBufferPoolExhausted() throws IOException {}
+
     private void finishUnicastBufferBuilder(int targetSubpartition) {
         final BufferBuilder bufferBuilder = unicastBufferBuilders[targetSubpartition];
         if (bufferBuilder != null) {
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.io.network.api.EndOfData;
+import org.apache.flink.runtime.io.network.api.StopMode;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferCompressor;
+import org.apache.flink.runtime.io.network.buffer.BufferPool;
+import org.apache.flink.util.function.SupplierWithException;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * A {@link ResultPartition} of type {@link ResultPartitionType#HYBRID}, which keeps the produced
+ * data in memory and serves it to the consumers while it is being produced, but spills it to disk
+ * when memory runs short.
+ *
+ * <p>Data is spilled when the number of buffers held in memory exceeds {@link
+ * #SPILL_THRESHOLD_RATIO} of the buffer pool, until it drops to {@link #SPILL_TARGET_RATIO}, and
+ * additionally whenever the producer can not get a buffer from the pool. Subpartitions which are
+ * not consumed yet are spilled first, as their consumers may not come up before the producer
+ * finishes. When the producer finishes, all the subpartitions which are not consumed yet are
+ * spilled completely, so the finished partition only occupies memory for running consumers.
+ *
+ * <p>All subpartitions are spilled to a single {@link PartitionedFile} written by a {@link
+ * PartitionedFileWriter}. The file offsets of the spilled buffers are tracked by the {@link
+ * HybridSubpartition}s, so spilled data can be read back while the file is still being written.
+ */
+public class HybridResultPartition extends BufferWritingResultPartition {
+
+    /** Ratio of the buffer pool which can hold in-memory data before spilling is triggered. */
+    @VisibleForTesting static final float SPILL_THRESHOLD_RATIO = 0.8f;
+
+    /** Ratio of the buffer pool which is kept for in-memory data after spilling. */
+    @VisibleForTesting static final float SPILL_TARGET_RATIO = 0.4f;
+
+    /** Maximum number of bytes of the spill file index cached in memory. */
+    private static final int MAX_INDEX_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    /** Guards the spill file against concurrent spilling and releasing. */
+    private final Object lock = new Object();
+
+    /** Writer of the spill file, created on the first spilling. */
+    @GuardedBy("lock")
+    @Nullable
+    private PartitionedFileWriter fileWriter;
+
+    /** Whether the spill file has been finished, no more data can be spilled afterwards. */
+    @GuardedBy("lock")
+    private boolean isFileFinished;
+
+    /** Number of bytes written to the spill file, which is the offset of the next buffer. */
+    @GuardedBy("lock")
+    private long numBytesSpilled;
+
+    /** Base path of the spill file, see {@link PartitionedFile#DATA_FILE_SUFFIX}. */
+    private final String spillFileBasePath;
+
+    /** Path of the data file of the spill file, which the subpartition readers read from. */
+    private final Path spillDataFilePath;
+
+    /** Size of the buffers used to read spilled data back. */
+    private final int networkBufferSize;
+
+    /** Number of finished and unfinished buffers held by all subpartitions in memory. */
+    private final AtomicInteger numBuffersInMemory = new AtomicInteger();
+
+    private boolean hasNotifiedEndOfUserRecords;
+
+    public HybridResultPartition(
+            String owningTaskName,
+            int partitionIndex,
+            ResultPartitionID partitionId,
+            ResultPartitionType partitionType,
+            ResultSubpartition[] subpartitions,
+            int numTargetKeyGroups,
+            ResultPartitionManager partitionManager,
+            String spillFileBasePath,
+            int networkBufferSize,
+            @Nullable BufferCompressor bufferCompressor,
+            SupplierWithException<BufferPool, IOException> bufferPoolFactory) {
+
+        super(
+                owningTaskName,
+                partitionIndex,
+                partitionId,
+                checkResultPartitionType(partitionType),
+                subpartitions,
+                numTargetKeyGroups,
+                partitionManager,
+                bufferCompressor,
+                bufferPoolFactory);
+
+        checkArgument(networkBufferSize > 0, "Illegal network buffer size.");
+        this.spillFileBasePath = checkNotNull(spillFileBasePath);
+        this.spillDataFilePath =
+                new File(spillFileBasePath + PartitionedFile.DATA_FILE_SUFFIX).toPath();
+        this.networkBufferSize = networkBufferSize;
+    }
+
+    @Override
+    public void notifyEndOfData(StopMode mode) throws IOException {
+        if (!hasNotifiedEndOfUserRecords) {
+            broadcastEvent(new EndOfData(mode), false);
+            hasNotifiedEndOfUserRecords = true;
+        }
+    }
+
+    @Override
+    public void flush(int targetSubpartition) {
+        flushSubpartition(targetSubpartition, true);
+    }
+
+    @Override
+    public void flushAll() {
+        flushAllSubpartitions(true);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        super.finish();
+
+        // the consumers which are not running yet may not come up for a long time, their data
+        // is spilled so that only the running consumers keep occupying network memory
+        spillBuffers(Integer.MAX_VALUE, false);
+        synchronized (lock) {
+            if (fileWriter != null) {
+                fileWriter.finish();
+            }
+            isFileFinished = true;
+        }
+    }
+
+    @Override
+    protected void releaseInternal() {
+        super.releaseInternal();
+
+        synchronized (lock) {
+            if (fileWriter != null) {
+                // also deletes the files of a finished writer
+                fileWriter.releaseQuietly();
+                fileWriter = null;
+            }
+            isFileFinished = true;
+        }
+        numBuffersInMemory.set(0);
+    }
+
+    @Override
+    protected void onBufferPoolExhausted() throws IOException {
+        // spill as much as possible, the producer is blocked until buffers are recycled
+        spillBuffers(Integer.MAX_VALUE, true);
+    }
+
+    // ------------------------------------------------------------------------
+    //  Callbacks of the subpartitions
+    // ------------------------------------------------------------------------
+
+    /** Called by the task thread after a buffer has been added to a subpartition. */
+    void onBufferAdded() throws IOException {
+        int numBuffers = numBuffersInMemory.incrementAndGet();
+        int poolSize = bufferPool.getNumBuffers();
+        if (numBuffers > poolSize * SPILL_THRESHOLD_RATIO) {
+            spillBuffers(numBuffers - (int) (poolSize * SPILL_TARGET_RATIO), true);
+        }
+    }
+
+    /** Called when buffers have been removed from the memory of a subpartition. */
+    void onBuffersRemovedFromMemory(int numBuffers) {
+        numBuffersInMemory.addAndGet(-numBuffers);
+    }
+
+    /**
+     * Writes the given buffers of a subpartition to the spill file and returns the file offsets of
+     * the buffers. All buffers are recycled after being written.
+     */
+    long[] writeSpilledBuffers(int subpartitionIndex, List<Buffer> buffers) throws IOException {
+        synchronized (lock) {
+            checkState(!isFileFinished, "The spill file has already been finished.");
+            if (fileWriter == null) {
+                fileWriter =
+                        new PartitionedFileWriter(
+                                numSubpartitions, MAX_INDEX_BUFFER_SIZE, spillFileBasePath);
+            }
+
+            long[] offsets = new long[buffers.size()];
+            try {
+                if (bufferCompressor == null) {
+                    List<BufferWithChannel> toWrite = new ArrayList<>(buffers.size());
+                    for (int i = 0; i < buffers.size(); i++) {
+                        Buffer buffer = buffers.get(i);
+                        toWrite.add(new BufferWithChannel(buffer, subpartitionIndex));
+                        offsets[i] = numBytesSpilled;
+                        numBytesSpilled += BufferReaderWriterUtil.HEADER_LENGTH + buffer.getSize();
+                    }
+                    fileWriter.writeBuffers(toWrite);
+                } else {
+                    // the compressed buffer is only valid until the next compression
+                    for (int i = 0; i < buffers.size(); i++) {
+                        offsets[i] = numBytesSpilled;
+                        writeCompressedBuffer(subpartitionIndex, buffers.get(i));
+                    }
+                }
+            } finally {
+                buffers.forEach(Buffer::recycleBuffer);
+            }
+            return offsets;
+        }
+    }
+
+    @GuardedBy("lock")
+    private void writeCompressedBuffer(int subpartitionIndex, Buffer buffer) throws IOException {
+        Buffer toWrite = compressBufferIfPossible(buffer);
+        try {
+            checkNotNull(fileWriter)
+                    .writeBuffers(
+                            Collections.singletonList(
+                                    new BufferWithChannel(toWrite, subpartitionIndex)));
+            numBytesSpilled += BufferReaderWriterUtil.HEADER_LENGTH + toWrite.getSize();
+        } finally {
+            if (toWrite != buffer) {
+                toWrite.recycleBuffer();
+            }
+        }
+    }
+
+    /** Starts a new region of the spill file, a region contains each subpartition at most once. */
+    private void startNewSpillRegion() throws IOException {
+        synchronized (lock) {
+            if (fileWriter != null && !isFileFinished) {
+                fileWriter.startNewRegion(false);
+            }
+        }
+    }
+
+    /**
+     * Spills up to the given number of buffers from memory. Subpartitions without consumer are
+     * spilled before the ones with a running consumer, if {@code includeConsumed} is true.
+     */
+    private void spillBuffers(int numBuffersToSpill, boolean includeConsumed) throws IOException {
+        int remaining = numBuffersToSpill;
+        for (int pass = 0; pass < (includeConsumed ? 2 : 1) && remaining > 0; pass++) {
+            startNewSpillRegion();
+            for (ResultSubpartition subpartition : subpartitions) {
+                HybridSubpartition hybridSubpartition = (HybridSubpartition) subpartition;
+                if (hybridSubpartition.isConsumed() == (pass == 1)) {
+                    remaining -= hybridSubpartition.spillFinishedBuffers(remaining);
+                    if (remaining <= 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private Buffer compressBufferIfPossible(Buffer buffer) {
+        if (!canBeCompressed(buffer)) {
+            return buffer;
+        }
+
+        // the buffer may be shared by several subpartitions, so it can not be compressed in place
+        return checkNotNull(bufferCompressor).compressToIntermediateBuffer(buffer);
+    }
+
+    Path getSpillDataFilePath() {
+        return spillDataFilePath;
+    }
+
+    int getNetworkBufferSize() {
+        return networkBufferSize;
+    }
+
+    @VisibleForTesting
+    int getNumBuffersInMemory() {
+        return numBuffersInMemory.get();
+    }
+
+    private static ResultPartitionType checkResultPartitionType(ResultPartitionType type) {
+        checkArgument(type == ResultPartitionType.HYBRID);
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "HybridResultPartition "
+                + partitionId.toString()
+                + " ["
+                + partitionType
+                + ", "
+                + numSubpartitions
+                + " subpartitions]";
+    }
+}
@@ -0,0 +1,509 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * A subpartition of a {@link HybridResultPartition}.
+ *
+ * <p>The data of a hybrid subpartition is either in memory or spilled to the spill file of the
+ * partition. Buffers are always spilled from the head of the in-memory queue, so the spilled
+ * buffers always precede the in-memory buffers and the reader consumes the spilled buffers first.
+ * Only finished buffers are spilled or consumed, buffers are finished by the producer when they
+ * are full, when the subpartition is flushed or when the partition is finished.
+ *
+ * <p>Data which has been consumed from memory is gone afterwards, while spilled data stays in the
+ * spill file until the partition is released. A subpartition can therefore be consumed again as
+ * long as no buffer has been served from memory, otherwise a repeated request fails with a {@link
+ * PartitionNotFoundException}.
+ */
+public class HybridSubpartition extends ResultSubpartition {
+
+    /** The partition this subpartition belongs to. */
+    private final HybridResultPartition hybridPartition;
+
+    /** All buffers of this subpartition which have not been consumed or spilled yet. */
+    private final ArrayDeque<BufferConsumer> buffers = new ArrayDeque<>();
+
+    /** All buffers of this subpartition which have been spilled, in the order of the data. */
+    @GuardedBy("buffers")
+    private final List<SpilledBuffer> spilledBuffers = new ArrayList<>();
+
+    /** The index of the next spilled buffer to be handed to the current reader. */
+    @GuardedBy("buffers")
+    private int nextSpilledBufferIndex;
+
+    /** The number of non-event buffers in memory and spilled. */
+    @GuardedBy("buffers")
+    private int buffersInBacklog;
+
+    /** The read view to consume this subpartition. */
+    @GuardedBy("buffers")
+    @Nullable
+    private HybridSubpartitionView readView;
+
+    /** Whether a read view has ever been created. */
+    @GuardedBy("buffers")
+    private boolean hasBeenConsumed;
+
+    /** Whether a buffer has been served from memory, such data can not be served again. */
+    @GuardedBy("buffers")
+    private boolean hasServedFromMemory;
+
+    /** Whether the reader has found no data and waits for a notification. */
+    @GuardedBy("buffers")
+    private boolean isReaderWaiting;
+
+    /**
+     * Whether the producer has finished the last buffer in the queue, which is the case after a
+     * flush. All other buffers have been finished before their successor was added.
+     */
+    @GuardedBy("buffers")
+    private boolean isLastBufferFinished;
+
+    @GuardedBy("buffers")
+    private boolean isFinished;
+
+    @GuardedBy("buffers")
+    private boolean isReleased;
+
+    /** The sequence number of the next buffer handed to the reader. */
+    private int sequenceNumber;
+
+    // - Statistics ----------------------------------------------------------
+
+    /** The total number of buffers (both data and event buffers) removed from memory. */
+    private long totalNumberOfBuffers;
+
+    /** The total number of bytes (both data and event buffers) removed from memory. */
+    private long totalNumberOfBytes;
+
+    HybridSubpartition(int index, HybridResultPartition parent) {
+        super(index, parent);
+
+        this.hybridPartition = checkNotNull(parent);
+    }
+
+    @Override
+    public int add(BufferConsumer bufferConsumer, int partialRecordLength) throws IOException {
+        boolean notifyDataAvailable;
+        synchronized (buffers) {
+            if (isFinished || isReleased) {
+                bufferConsumer.close();
+                return -1;
+            }
+
+            buffers.add(bufferConsumer);
+            isLastBufferFinished = false;
+            if (bufferConsumer.isBuffer()) {
+                buffersInBacklog++;
+            }
+            notifyDataAvailable = shouldNotifyDataAvailable();
+        }
+
+        if (notifyDataAvailable) {
+            notifyDataAvailable();
+        }
+        hybridPartition.onBufferAdded();
+
+        // buffer debloating is not supported for hybrid partitions
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void flush() {
+        final boolean notifyDataAvailable;
+        synchronized (buffers) {
+            // the hybrid partition finishes all buffer builders before flushing
+            isLastBufferFinished = true;
+            notifyDataAvailable = shouldNotifyDataAvailable();
+        }
+
+        if (notifyDataAvailable) {
+            notifyDataAvailable();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        synchronized (buffers) {
+            checkState(!isReleased, "Subpartition already released.");
+            checkState(!isFinished, "Subpartition already finished.");
+        }
+        add(EventSerializer.toBufferConsumer(EndOfPartitionEvent.INSTANCE, false), 0);
+
+        final boolean notifyDataAvailable;
+        synchronized (buffers) {
+            isFinished = true;
+            isLastBufferFinished = true;
+            notifyDataAvailable = shouldNotifyDataAvailable();
+        }
+
+        if (notifyDataAvailable) {
+            notifyDataAvailable();
+        }
+    }
+
+    @Override
+    public void release() throws IOException {
+        final HybridSubpartitionView view;
+        final int numReleasedBuffers;
+        synchronized (buffers) {
+            if (isReleased) {
+                return;
+            }
+
+            isReleased = true;
+            numReleasedBuffers = buffers.size();
+            for (BufferConsumer buffer : buffers) {
+                buffer.close();
+            }
+            buffers.clear();
+            spilledBuffers.clear();
+            nextSpilledBufferIndex = 0;
+            buffersInBacklog = 0;
+
+            view = readView;
+            readView = null;
+        }
+
+        hybridPartition.onBuffersRemovedFromMemory(numReleasedBuffers);
+        if (view != null) {
+            view.releaseAllResources();
+        }
+    }
+
+    @Override
+    public ResultSubpartitionView createReadView(BufferAvailabilityListener availabilityListener)
+            throws IOException {
+        synchronized (buffers) {
+            checkState(!isReleased, "Subpartition already released.");
+            if (hasServedFromMemory) {
+                // the data which has been served from memory can not be served again, the
+                // consumer has to wait for the producer to be restarted
+                throw new PartitionNotFoundException(parent.getPartitionId());
+            }
+
+            if (hasBeenConsumed) {
+                // a repeated request, e.g. after a failover of the consumer, which reads all data
+                // again from the spill file and memory, a previous reader does not get any more
+                // data
+                restartReadingUnsafe();
+            }
+            hasBeenConsumed = true;
+            isReaderWaiting = true;
+            readView = new HybridSubpartitionView(this, availabilityListener);
+            return readView;
+        }
+    }
+
+    @GuardedBy("buffers")
+    private void restartReadingUnsafe() {
+        nextSpilledBufferIndex = 0;
+        buffersInBacklog = 0;
+        for (SpilledBuffer spilledBuffer : spilledBuffers) {
+            if (spilledBuffer.dataType.isBuffer()) {
+                buffersInBacklog++;
+            }
+        }
+        for (BufferConsumer buffer : buffers) {
+            if (buffer.isBuffer()) {
+                buffersInBacklog++;
+            }
+        }
+        sequenceNumber = 0;
+    }
+
+    @Override
+    public boolean isReleased() {
+        synchronized (buffers) {
+            return isReleased;
+        }
+    }
+
+    /** Whether a consumer has requested this subpartition. */
+    boolean isConsumed() {
+        synchronized (buffers) {
+            return hasBeenConsumed;
+        }
+    }
+
+    /**
+     * Spills up to the given number of finished buffers from the head of the in-memory queue to the
+     * spill file of the partition.
+     *
+     * @return the number of buffers which have been removed from memory
+     */
+    int spillFinishedBuffers(int maxBuffersToSpill) throws IOException {
+        synchronized (buffers) {
+            if (isReleased) {
+                return 0;
+            }
+
+            List<Buffer> toSpill = new ArrayList<>();
+            List<Buffer.DataType> dataTypes = new ArrayList<>();
+            int numRemoved = 0;
+            while (numRemoved < maxBuffersToSpill && isHeadFinished()) {
+                BufferConsumer head = buffers.poll();
+                numRemoved++;
+                Buffer buffer = buildAndClose(head);
+                if (buffer.readableBytes() == 0 && buffer.isBuffer()) {
+                    buffersInBacklog--;
+                    buffer.recycleBuffer();
+                    continue;
+                }
+                toSpill.add(buffer);
+                dataTypes.add(buffer.getDataType());
+            }
+
+            if (!toSpill.isEmpty()) {
+                // the file is written under the lock, so that the reader always finds the
+                // spilled buffers before the in-memory ones
+                long[] offsets =
+                        hybridPartition.writeSpilledBuffers(getSubPartitionIndex(), toSpill);
+                for (int i = 0; i < offsets.length; i++) {
+                    spilledBuffers.add(new SpilledBuffer(offsets[i], dataTypes.get(i)));
+                }
+            }
+            hybridPartition.onBuffersRemovedFromMemory(numRemoved);
+            return numRemoved;
+        }
+    }
+
+    /**
+     * Removes the next buffer of this subpartition, reading it from the spill file if it has been
+     * spilled. Returns null if there is no finished buffer or if no read buffer is available.
+     */
+    @Nullable
+    BufferAndBacklog pollBuffer(HybridSubpartitionView view) throws IOException {
+        Buffer buffer = null;
+        SpilledBuffer spilledBuffer = null;
+        final Buffer.DataType nextDataType;
+        final int backlog;
+        synchronized (buffers) {
+            if (isReleased || view != readView) {
+                return null;
+            }
+
+            while (buffer == null && spilledBuffer == null) {
+                if (hasUnreadSpilledBuffers()) {
+                    if (!view.hasReadBuffer()) {
+                        return null;
+                    }
+                    spilledBuffer = spilledBuffers.get(nextSpilledBufferIndex++);
+                    if (spilledBuffer.dataType.isBuffer()) {
+                        buffersInBacklog--;
+                    }
+                } else {
+                    if (!isHeadFinished()) {
+                        isReaderWaiting = true;
+                        return null;
+                    }
+
+                    BufferConsumer head = buffers.poll();
+                    hasServedFromMemory = true;
+                    hybridPartition.onBuffersRemovedFromMemory(1);
+                    buffer = buildAndClose(head);
+                    if (buffer.isBuffer()) {
+                        buffersInBacklog--;
+                    }
+                    if (buffer.readableBytes() == 0 && buffer.isBuffer()) {
+                        buffer.recycleBuffer();
+                        buffer = null;
+                    }
+                }
+            }
+
+            nextDataType = peekNextDataType();
+            backlog = getBuffersInBacklogUnsafe();
+        }
+
+        if (spilledBuffer != null) {
+            buffer = view.readSpilledBuffer(spilledBuffer.offset);
+        }
+        return new BufferAndBacklog(buffer, backlog, nextDataType, sequenceNumber++);
+    }
+
+    /** Returns the availability of the next buffer, see {@link ResultSubpartitionView}. */
+    ResultSubpartitionView.AvailabilityWithBacklog getAvailabilityAndBacklog(
+            int numCreditsAvailable) {
+        synchronized (buffers) {
+            Buffer.DataType nextDataType = peekNextDataType();
+            boolean isAvailable =
+                    numCreditsAvailable > 0
+                            ? nextDataType != Buffer.DataType.NONE
+                            : nextDataType.isEvent();
+            return new ResultSubpartitionView.AvailabilityWithBacklog(
+                    isAvailable, getBuffersInBacklogUnsafe());
+        }
+    }
+
+    void releaseReadView(HybridSubpartitionView view) {
+        synchronized (buffers) {
+            if (readView == view) {
+                readView = null;
+            }
+        }
+        onConsumedSubpartition();
+    }
+
+    Path getSpillDataFilePath() {
+        return hybridPartition.getSpillDataFilePath();
+    }
+
+    int getNetworkBufferSize() {
+        return hybridPartition.getNetworkBufferSize();
+    }
+
+    @GuardedBy("buffers")
+    private Buffer.DataType peekNextDataType() {
+        if (hasUnreadSpilledBuffers()) {
+            return spilledBuffers.get(nextSpilledBufferIndex).dataType;
+        }
+
+        return isHeadFinished() ? buffers.peek().getDataType() : Buffer.DataType.NONE;
+    }
+
+    @GuardedBy("buffers")
+    private boolean hasUnreadSpilledBuffers() {
+        return nextSpilledBufferIndex < spilledBuffers.size();
+    }
+
+    @GuardedBy("buffers")
+    private boolean isHeadFinished() {
+        BufferConsumer head = buffers.peek();
+        if (head == null) {
+            return false;
+        }
+        // the cached state of an unread consumer may be outdated, so a buffer is considered to be
+        // finished if it is followed by another buffer or after the subpartition has been flushed
+        return buffers.size() > 1 || isLastBufferFinished || head.isFinished();
+    }
+
+    @GuardedBy("buffers")
+    private boolean shouldNotifyDataAvailable() {
+        if (readView == null || !isReaderWaiting) {
+            return false;
+        }
+
+        if (peekNextDataType() != Buffer.DataType.NONE) {
+            isReaderWaiting = false;
+            return true;
+        }
+        return false;
+    }
+
+    private void notifyDataAvailable() {
+        final HybridSubpartitionView view = readView;
+        if (view != null) {
+            view.notifyDataAvailable();
+        }
+    }
+
+    private Buffer buildAndClose(BufferConsumer bufferConsumer) {
+        Buffer buffer = bufferConsumer.build();
+        bufferConsumer.close();
+
+        totalNumberOfBuffers++;
+        totalNumberOfBytes += buffer.getSize();
+        return buffer;
+    }
+
+    @Override
+    int getBuffersInBacklogUnsafe() {
+        // the last buffer is still being written if the subpartition is not finished
+        return isFinished ? buffersInBacklog : Math.max(buffersInBacklog - 1, 0);
+    }
+
+    @Override
+    public int unsynchronizedGetNumberOfQueuedBuffers() {
+        // since we do not synchronize, the size may be out of sync
+        return Math.max(buffers.size(), 0);
+    }
+
+    @Override
+    public int getNumberOfQueuedBuffers() {
+        synchronized (buffers) {
+            return buffers.size();
+        }
+    }
+
+    @Override
+    public void bufferSize(int desirableNewBufferSize) {
+        // not supported.
+    }
+
+    @Override
+    protected long getTotalNumberOfBuffersUnsafe() {
+        return totalNumberOfBuffers;
+    }
+
+    @Override
+    protected long getTotalNumberOfBytesUnsafe() {
+        return totalNumberOfBytes;
+    }
+
+    @VisibleForTesting
+    int getNumberOfSpilledBuffers() {
+        synchronized (buffers) {
+            return spilledBuffers.size() - nextSpilledBufferIndex;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "HybridSubpartition#%d [number of buffers: %d, number of spilled buffers: %d]",
+                getSubPartitionIndex(),
+                buffers.size(),
+                spilledBuffers.size() - nextSpilledBufferIndex);
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** The position and type of a buffer in the spill file. */
+    private static final class SpilledBuffer {
+
+        private final long offset;
+
+        private final Buffer.DataType dataType;
+
+        private SpilledBuffer(long offset, Buffer.DataType dataType) {
+            this.offset = offset;
+            this.dataType = dataType;
+        }
+    }
+}
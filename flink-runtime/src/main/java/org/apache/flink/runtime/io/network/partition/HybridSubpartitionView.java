@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferRecycler;
+import org.apache.flink.runtime.io.network.partition.ResultSubpartition.BufferAndBacklog;
+import org.apache.flink.util.IOUtils;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The read view of a {@link HybridSubpartition}.
+ *
+ * <p>In-memory buffers are handed to the consumer directly, spilled buffers are read into a small
+ * number of unpooled read buffers owned by this view. If all read buffers are in use, the view
+ * reports no data and notifies the consumer once a read buffer has been recycled.
+ */
+class HybridSubpartitionView implements ResultSubpartitionView, BufferRecycler {
+
+    /** Number of read buffers used to read spilled data. */
+    private static final int NUM_READ_BUFFERS = 2;
+
+    private final HybridSubpartition parent;
+
+    private final BufferAvailabilityListener availabilityListener;
+
+    /** The read buffers which are not in use by the consumer. */
+    @GuardedBy("readBuffers")
+    private final ArrayDeque<MemorySegment> readBuffers = new ArrayDeque<>(NUM_READ_BUFFERS);
+
+    /** Number of read buffers allocated so far, they are allocated on the first spilled read. */
+    @GuardedBy("readBuffers")
+    private int numAllocatedReadBuffers;
+
+    /** Whether the view has run out of read buffers and waits for one to be recycled. */
+    @GuardedBy("readBuffers")
+    private boolean isWaitingForReadBuffer;
+
+    /** Channel to read the spill file, opened on the first spilled read. */
+    @Nullable private FileChannel fileChannel;
+
+    private final ByteBuffer headerBuffer = BufferReaderWriterUtil.allocatedHeaderBuffer();
+
+    private volatile boolean isReleased;
+
+    HybridSubpartitionView(
+            HybridSubpartition parent, BufferAvailabilityListener availabilityListener) {
+        this.parent = checkNotNull(parent);
+        this.availabilityListener = checkNotNull(availabilityListener);
+    }
+
+    @Nullable
+    @Override
+    public BufferAndBacklog getNextBuffer() throws IOException {
+        if (isReleased) {
+            return null;
+        }
+        return parent.pollBuffer(this);
+    }
+
+    @Override
+    public void notifyDataAvailable() {
+        availabilityListener.notifyDataAvailable();
+    }
+
+    @Override
+    public void releaseAllResources() throws IOException {
+        if (isReleased) {
+            return;
+        }
+        isReleased = true;
+
+        IOUtils.closeQuietly(fileChannel);
+        fileChannel = null;
+        synchronized (readBuffers) {
+            readBuffers.forEach(MemorySegment::free);
+            readBuffers.clear();
+        }
+        parent.releaseReadView(this);
+    }
+
+    @Override
+    public boolean isReleased() {
+        return isReleased || parent.isReleased();
+    }
+
+    @Override
+    public void resumeConsumption() {
+        throw new UnsupportedOperationException("Method should never be called.");
+    }
+
+    @Override
+    public void acknowledgeAllDataProcessed() {
+        // in case of hybrid partitions there is no upstream to acknowledge, we simply ignore
+        // the ack, as there are no checkpoints
+    }
+
+    @Override
+    public Throwable getFailureCause() {
+        // we can never throw an error after this was created
+        return null;
+    }
+
+    @Override
+    public AvailabilityWithBacklog getAvailabilityAndBacklog(int numCreditsAvailable) {
+        return parent.getAvailabilityAndBacklog(numCreditsAvailable);
+    }
+
+    @Override
+    public int unsynchronizedGetNumberOfQueuedBuffers() {
+        return parent.unsynchronizedGetNumberOfQueuedBuffers();
+    }
+
+    @Override
+    public int getNumberOfQueuedBuffers() {
+        return parent.getNumberOfQueuedBuffers();
+    }
+
+    @Override
+    public void notifyNewBufferSize(int newBufferSize) {
+        parent.bufferSize(newBufferSize);
+    }
+
+    // ------------------------------------------------------------------------
+    //  Reading of spilled buffers
+    // ------------------------------------------------------------------------
+
+    /** Whether a spilled buffer can be read, otherwise waits for a read buffer to be recycled. */
+    boolean hasReadBuffer() {
+        synchronized (readBuffers) {
+            if (!readBuffers.isEmpty() || numAllocatedReadBuffers < NUM_READ_BUFFERS) {
+                return true;
+            }
+            isWaitingForReadBuffer = true;
+            return false;
+        }
+    }
+
+    /** Reads the spilled buffer at the given offset of the spill file. */
+    Buffer readSpilledBuffer(long offset) throws IOException {
+        final MemorySegment segment;
+        synchronized (readBuffers) {
+            if (readBuffers.isEmpty()) {
+                segment =
+                        MemorySegmentFactory.allocateUnpooledOffHeapMemory(
+                                parent.getNetworkBufferSize(), null);
+                numAllocatedReadBuffers++;
+            } else {
+                segment = readBuffers.poll();
+            }
+        }
+
+        try {
+            if (fileChannel == null) {
+                fileChannel =
+                        FileChannel.open(parent.getSpillDataFilePath(), StandardOpenOption.READ);
+            }
+            fileChannel.position(offset);
+            Buffer buffer =
+                    BufferReaderWriterUtil.readFromByteChannel(
+                            fileChannel, headerBuffer, segment, this);
+            if (buffer == null) {
+                throw new IOException("Premature end of the spill file at offset " + offset + ".");
+            }
+            return buffer;
+        } catch (Throwable throwable) {
+            recycle(segment);
+            throw throwable;
+        }
+    }
+
+    @Override
+    public void recycle(MemorySegment memorySegment) {
+        boolean notifyDataAvailable;
+        synchronized (readBuffers) {
+            if (isReleased) {
+                memorySegment.free();
+                return;
+            }
+
+            readBuffers.add(memorySegment);
+            notifyDataAvailable = isWaitingForReadBuffer;
+            isWaitingForReadBuffer = false;
+        }
+
+        if (notifyDataAvailable) {
+            notifyDataAvailable();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "HybridSubpartitionView(index: %d) of ResultPartition %s",
+                parent.getSubPartitionIndex(), parent.parent.getPartitionId());
+    }
+}
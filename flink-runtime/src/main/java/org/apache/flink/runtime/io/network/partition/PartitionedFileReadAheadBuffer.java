@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferRecycler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static org.apache.flink.runtime.io.network.partition.BufferReaderWriterUtil.HEADER_LENGTH;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A read-ahead buffer for the data file of a {@link PartitionedFile} which is shared by all {@link
+ * PartitionedFileReader}s of a {@link SortMergeResultPartitionReadScheduler}.
+ *
+ * <p>The scheduler serves the readers in file offset order and the data of all subpartitions in a
+ * region is stored back to back, so consecutive reads of different readers mostly fall into the
+ * same read-ahead range. Instead of two small reads per buffer, the file is read in large
+ * sequential chunks and the buffers are copied out of the read-ahead range.
+ *
+ * <p>Note: This class is not thread safe, it is only used by the IO thread of {@link
+ * SortMergeResultPartitionReadScheduler}.
+ */
+class PartitionedFileReadAheadBuffer {
+
+    private final ByteBuffer readAheadBuffer;
+
+    private final PartitionedFileReadStatistics statistics;
+
+    /** Data file channel the read-ahead range belongs to. */
+    private FileChannel dataFileChannel;
+
+    /** File offset of the first byte of the read-ahead range. */
+    private long rangeOffset;
+
+    /**
+     * @param size the number of bytes to read ahead, which must be able to hold at least one
+     *     buffer including its header.
+     */
+    PartitionedFileReadAheadBuffer(int size, PartitionedFileReadStatistics statistics) {
+        checkArgument(size > HEADER_LENGTH, "Read-ahead size is too small.");
+        this.readAheadBuffer = ByteBuffer.allocateDirect(size);
+        BufferReaderWriterUtil.configureByteBuffer(readAheadBuffer);
+        this.readAheadBuffer.limit(0);
+        this.statistics = checkNotNull(statistics);
+    }
+
+    /**
+     * Reads the buffer starting at the given file offset into the target {@link MemorySegment}.
+     *
+     * <p>Note: The caller is responsible for recycling the target buffer if any exception occurs.
+     *
+     * @return A {@link Buffer} containing the data read.
+     */
+    Buffer readBuffer(
+            FileChannel channel, long offset, MemorySegment target, BufferRecycler recycler)
+            throws IOException {
+        ensureReadable(channel, offset, HEADER_LENGTH);
+        int size = BufferReaderWriterUtil.peekNextBufferSize(readAheadBuffer);
+        if (size < 0 || size > target.size()) {
+            throw new IOException("The spill file is corrupt: buffer size and boundaries invalid");
+        }
+
+        ensureReadable(channel, offset, HEADER_LENGTH + size);
+        return BufferReaderWriterUtil.copyNextBuffer(readAheadBuffer, target, recycler);
+    }
+
+    /**
+     * Makes sure the given range of the file is in the read-ahead buffer and sets the position of
+     * the buffer to its start.
+     */
+    private void ensureReadable(FileChannel channel, long offset, int length) throws IOException {
+        if (channel != dataFileChannel
+                || offset < rangeOffset
+                || offset + length > rangeOffset + readAheadBuffer.limit()) {
+            if (length > readAheadBuffer.capacity()) {
+                throw new IOException(
+                        "The spill file is corrupt: buffer size and boundaries invalid");
+            }
+            fill(channel, offset);
+            if (length > readAheadBuffer.limit()) {
+                throw new IOException("The spill file is corrupt: premature end of file");
+            }
+        }
+        readAheadBuffer.position((int) (offset - rangeOffset));
+    }
+
+    private void fill(FileChannel channel, long offset) throws IOException {
+        long readOffset;
+        if (channel == dataFileChannel
+                && offset >= rangeOffset
+                && offset <= rangeOffset + readAheadBuffer.limit()) {
+            // keep the bytes which are already read to never read a part of the file twice
+            readOffset = rangeOffset + readAheadBuffer.limit();
+            readAheadBuffer.position((int) (offset - rangeOffset));
+            readAheadBuffer.compact();
+        } else {
+            readOffset = offset;
+            readAheadBuffer.clear();
+        }
+        dataFileChannel = channel;
+        rangeOffset = offset;
+
+        long startTime = System.nanoTime();
+        long position = readOffset;
+        while (readAheadBuffer.hasRemaining()) {
+            int numBytes = channel.read(readAheadBuffer, position);
+            if (numBytes < 0) {
+                break;
+            }
+            position += numBytes;
+        }
+        readAheadBuffer.flip();
+        statistics.recordRead(readOffset, position - readOffset, System.nanoTime() - startTime);
+    }
+}
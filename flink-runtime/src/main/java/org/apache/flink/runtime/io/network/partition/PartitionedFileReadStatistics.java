@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+/**
+ * Statistics of the reads from the data file of a {@link PartitionedFile}, used to judge how
+ * sequential the disk access of the sort-merge shuffle is.
+ *
+ * <p>Note: This class is not thread safe, it is only updated by the IO thread of {@link
+ * SortMergeResultPartitionReadScheduler}.
+ */
+class PartitionedFileReadStatistics {
+
+    private long numBytesRead;
+
+    private long numReads;
+
+    private long numSeeks;
+
+    private long readTimeNanos;
+
+    /** File offset following the last read, a read from any other offset is counted as seek. */
+    private long nextSequentialOffset;
+
+    void recordRead(long offset, long numBytes, long nanos) {
+        if (offset != nextSequentialOffset) {
+            ++numSeeks;
+        }
+        nextSequentialOffset = offset + numBytes;
+        numBytesRead += numBytes;
+        ++numReads;
+        readTimeNanos += nanos;
+    }
+
+    long getNumBytesRead() {
+        return numBytesRead;
+    }
+
+    long getNumReads() {
+        return numReads;
+    }
+
+    long getNumSeeks() {
+        return numSeeks;
+    }
+
+    /** Gets the throughput of the reads in bytes per second, excluding the time between reads. */
+    double getReadThroughput() {
+        return readTimeNanos == 0 ? 0 : numBytesRead * 1e9 / readTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d bytes read in %d reads with %d seeks at %.2f MB/s",
+                numBytesRead, numReads, numSeeks, getReadThroughput() / (1 << 20));
+    }
+}
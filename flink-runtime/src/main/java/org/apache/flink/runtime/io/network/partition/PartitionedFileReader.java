@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
+import static org.apache.flink.runtime.io.network.partition.BufferReaderWriterUtil.HEADER_LENGTH;
 import static org.apache.flink.runtime.io.network.partition.BufferReaderWriterUtil.readFromByteChannel;
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -53,6 +54,12 @@ class PartitionedFileReader {
     /** Index file channel of the target {@link PartitionedFile}. */
     private final FileChannel indexFileChannel;
 
+    /** Buffer to read the data file ahead, or null to read buffer by buffer. */
+    @Nullable private final PartitionedFileReadAheadBuffer readAheadBuffer;
+
+    /** Statistics of the reads from the data file. */
+    private final PartitionedFileReadStatistics statistics;
+
     /** Next data region to be read. */
     private int nextRegionToRead;
 
@@ -67,6 +74,22 @@ class PartitionedFileReader {
             int targetSubpartition,
             FileChannel dataFileChannel,
             FileChannel indexFileChannel) {
+        this(
+                partitionedFile,
+                targetSubpartition,
+                dataFileChannel,
+                indexFileChannel,
+                null,
+                new PartitionedFileReadStatistics());
+    }
+
+    PartitionedFileReader(
+            PartitionedFile partitionedFile,
+            int targetSubpartition,
+            FileChannel dataFileChannel,
+            FileChannel indexFileChannel,
+            @Nullable PartitionedFileReadAheadBuffer readAheadBuffer,
+            PartitionedFileReadStatistics statistics) {
         checkArgument(checkNotNull(dataFileChannel).isOpen(), "Data file channel must be opened.");
         checkArgument(
                 checkNotNull(indexFileChannel).isOpen(), "Index file channel must be opened.");
@@ -75,6 +98,8 @@ class PartitionedFileReader {
         this.targetSubpartition = targetSubpartition;
         this.dataFileChannel = dataFileChannel;
         this.indexFileChannel = indexFileChannel;
+        this.readAheadBuffer = readAheadBuffer;
+        this.statistics = checkNotNull(statistics);
 
         this.indexEntryBuf = ByteBuffer.allocateDirect(PartitionedFile.INDEX_ENTRY_SIZE);
         BufferReaderWriterUtil.configureByteBuffer(indexEntryBuf);
@@ -107,9 +132,19 @@ class PartitionedFileReader {
             return null;
         }
 
-        dataFileChannel.position(nextOffsetToRead);
-        Buffer buffer = readFromByteChannel(dataFileChannel, headerBuf, target, recycler);
-        nextOffsetToRead = dataFileChannel.position();
+        Buffer buffer;
+        if (readAheadBuffer != null) {
+            buffer =
+                    readAheadBuffer.readBuffer(dataFileChannel, nextOffsetToRead, target, recycler);
+            nextOffsetToRead += HEADER_LENGTH + buffer.getSize();
+        } else {
+            long startTime = System.nanoTime();
+            dataFileChannel.position(nextOffsetToRead);
+            buffer = readFromByteChannel(dataFileChannel, headerBuf, target, recycler);
+            long offset = nextOffsetToRead;
+            nextOffsetToRead = dataFileChannel.position();
+            statistics.recordRead(offset, nextOffsetToRead - offset, System.nanoTime() - startTime);
+        }
         --currentRegionRemainingBuffers;
         return buffer;
     }
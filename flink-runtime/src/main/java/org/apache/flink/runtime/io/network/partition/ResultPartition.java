@@ -201,6 +201,12 @@ public abstract class ResultPartition implements ResultPartitionWriter {
         return partitionType;
     }
 
+    /** Returns the compressor of the produced data, or null if the data is not compressed. */
+    @Nullable
+    public BufferCompressor getBufferCompressor() {
+        return bufferCompressor;
+    }
+
     // ------------------------------------------------------------------------
 
     @Override
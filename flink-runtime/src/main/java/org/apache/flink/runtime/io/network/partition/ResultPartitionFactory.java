@@ -67,12 +67,16 @@ public class ResultPartitionFactory {
 
     private final String compressionCodec;
 
+    private final int zstdCompressionLevel;
+
     private final int maxBuffersPerChannel;
 
     private final int sortShuffleMinBuffers;
 
     private final int sortShuffleMinParallelism;
 
+    private final int sortShuffleReadAheadSize;
+
     private final boolean sslEnabled;
 
     public ResultPartitionFactory(
@@ -87,9 +91,11 @@ public class ResultPartitionFactory {
             int networkBufferSize,
             boolean blockingShuffleCompressionEnabled,
             String compressionCodec,
+            int zstdCompressionLevel,
             int maxBuffersPerChannel,
             int sortShuffleMinBuffers,
             int sortShuffleMinParallelism,
+            int sortShuffleReadAheadSize,
             boolean sslEnabled) {
 
         this.partitionManager = partitionManager;
@@ -103,9 +109,11 @@ public class ResultPartitionFactory {
         this.networkBufferSize = networkBufferSize;
         this.blockingShuffleCompressionEnabled = blockingShuffleCompressionEnabled;
         this.compressionCodec = compressionCodec;
+        this.zstdCompressionLevel = zstdCompressionLevel;
         this.maxBuffersPerChannel = maxBuffersPerChannel;
         this.sortShuffleMinBuffers = sortShuffleMinBuffers;
         this.sortShuffleMinParallelism = sortShuffleMinParallelism;
+        this.sortShuffleReadAheadSize = sortShuffleReadAheadSize;
         this.sslEnabled = sslEnabled;
     }
 
@@ -134,7 +142,8 @@ public class ResultPartitionFactory {
             SupplierWithException<BufferPool, IOException> bufferPoolFactory) {
         BufferCompressor bufferCompressor = null;
         if (type.isBlocking() && blockingShuffleCompressionEnabled) {
-            bufferCompressor = new BufferCompressor(networkBufferSize, compressionCodec);
+            bufferCompressor =
+                    new BufferCompressor(networkBufferSize, compressionCodec, zstdCompressionLevel);
         }
 
         ResultSubpartition[] subpartitions = new ResultSubpartition[numberOfSubpartitions];
@@ -184,7 +193,8 @@ public class ResultPartitionFactory {
                                 partitionManager,
                                 channelManager.createChannel().getPath(),
                                 bufferCompressor,
-                                bufferPoolFactory);
+                                bufferPoolFactory,
+                                sortShuffleReadAheadSize);
             } else {
                 final BoundedBlockingResultPartition blockingPartition =
                         new BoundedBlockingResultPartition(
@@ -208,6 +218,26 @@ public class ResultPartitionFactory {
 
                 partition = blockingPartition;
             }
+        } else if (type == ResultPartitionType.HYBRID) {
+            final HybridResultPartition hybridPartition =
+                    new HybridResultPartition(
+                            taskNameWithSubtaskAndId,
+                            partitionIndex,
+                            id,
+                            type,
+                            subpartitions,
+                            maxParallelism,
+                            partitionManager,
+                            channelManager.createChannel().getPath(),
+                            networkBufferSize,
+                            bufferCompressor,
+                            bufferPoolFactory);
+
+            for (int i = 0; i < subpartitions.length; i++) {
+                subpartitions[i] = new HybridSubpartition(i, hybridPartition);
+            }
+
+            partition = hybridPartition;
         } else {
             throw new IllegalArgumentException("Unrecognized ResultPartitionType: " + type);
         }
@@ -81,7 +81,22 @@ public enum ResultPartitionType {
      * in that {@link #PIPELINED_APPROXIMATE} partition can be reconnected after down stream task
      * fails.
      */
-    PIPELINED_APPROXIMATE(true, true, true, false, true);
+    PIPELINED_APPROXIMATE(true, true, true, false, true),
+
+    /**
+     * Hybrid partitions keep the produced data in memory and serve it to the consumers as soon as
+     * they have requested the partition, while data is spilled to disk when memory runs short or
+     * when the consumer of a subpartition is not running yet. Hybrid partitions use a bounded
+     * buffer pool but never produce back pressure, as they can always spill.
+     *
+     * <p>Like {@link #BLOCKING} partitions, hybrid partitions are released through the scheduler
+     * and regions are split at hybrid exchanges, but the consumer regions are scheduled as soon as
+     * all producers are scheduled. A subpartition can be consumed again as long as its data has
+     * only been served from the spill file. Data which has been served from memory is gone
+     * afterwards, so a repeated request fails with a {@link PartitionNotFoundException} in that
+     * case, which leads to the producer being restarted.
+     */
+    HYBRID(false, false, true, false, true);
 
     /** Can the partition be consumed while being produced? */
     private final boolean isPipelined;
@@ -149,4 +164,9 @@ public enum ResultPartitionType {
     public boolean isPersistent() {
         return isPersistent;
     }
+
+    /** Whether this partition can be consumed while being produced and spilled to disk. */
+    public boolean isHybridResultPartition() {
+        return this == HYBRID;
+    }
 }
@@ -145,6 +145,36 @@ public class SortMergeResultPartition extends ResultPartition {
             String resultFileBasePath,
             @Nullable BufferCompressor bufferCompressor,
             SupplierWithException<BufferPool, IOException> bufferPoolFactory) {
+        this(
+                owningTaskName,
+                partitionIndex,
+                partitionId,
+                partitionType,
+                numSubpartitions,
+                numTargetKeyGroups,
+                readBufferPool,
+                readIOExecutor,
+                partitionManager,
+                resultFileBasePath,
+                bufferCompressor,
+                bufferPoolFactory,
+                0);
+    }
+
+    public SortMergeResultPartition(
+            String owningTaskName,
+            int partitionIndex,
+            ResultPartitionID partitionId,
+            ResultPartitionType partitionType,
+            int numSubpartitions,
+            int numTargetKeyGroups,
+            BatchShuffleReadBufferPool readBufferPool,
+            Executor readIOExecutor,
+            ResultPartitionManager partitionManager,
+            String resultFileBasePath,
+            @Nullable BufferCompressor bufferCompressor,
+            SupplierWithException<BufferPool, IOException> bufferPoolFactory,
+            int readAheadSize) {
 
         super(
                 owningTaskName,
@@ -167,7 +197,7 @@ public class SortMergeResultPartition extends ResultPartition {
         this.subpartitionOrder = getRandomSubpartitionOrder(numSubpartitions);
         this.readScheduler =
                 new SortMergeResultPartitionReadScheduler(
-                        numSubpartitions, readBufferPool, readIOExecutor, lock);
+                        numSubpartitions, readBufferPool, readIOExecutor, lock, readAheadSize);
     }
 
     @Override
@@ -29,6 +29,7 @@ import org.apache.flink.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 
 import java.io.IOException;
@@ -49,6 +50,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
 
@@ -124,12 +126,43 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
     @GuardedBy("lock")
     private volatile boolean isReleased;
 
+    /** Number of bytes to read ahead from the data file, 0 to read buffer by buffer. */
+    private final int readAheadSize;
+
+    /** Read-ahead buffer shared by all subpartition readers if read-ahead is enabled. */
+    @GuardedBy("lock")
+    @Nullable
+    private PartitionedFileReadAheadBuffer readAheadBuffer;
+
+    /** Statistics of the reads from the currently opened data file. */
+    @GuardedBy("lock")
+    private PartitionedFileReadStatistics readStatistics;
+
+    /** Path of the currently opened data file. */
+    @GuardedBy("lock")
+    private Path dataFilePath;
+
     SortMergeResultPartitionReadScheduler(
             int numSubpartitions,
             BatchShuffleReadBufferPool bufferPool,
             Executor ioExecutor,
             Object lock) {
-        this(numSubpartitions, bufferPool, ioExecutor, lock, DEFAULT_BUFFER_REQUEST_TIMEOUT);
+        this(numSubpartitions, bufferPool, ioExecutor, lock, 0);
+    }
+
+    SortMergeResultPartitionReadScheduler(
+            int numSubpartitions,
+            BatchShuffleReadBufferPool bufferPool,
+            Executor ioExecutor,
+            Object lock,
+            int readAheadSize) {
+        this(
+                numSubpartitions,
+                bufferPool,
+                ioExecutor,
+                lock,
+                DEFAULT_BUFFER_REQUEST_TIMEOUT,
+                readAheadSize);
     }
 
     SortMergeResultPartitionReadScheduler(
@@ -138,6 +171,16 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
             Executor ioExecutor,
             Object lock,
             Duration bufferRequestTimeout) {
+        this(numSubpartitions, bufferPool, ioExecutor, lock, bufferRequestTimeout, 0);
+    }
+
+    SortMergeResultPartitionReadScheduler(
+            int numSubpartitions,
+            BatchShuffleReadBufferPool bufferPool,
+            Executor ioExecutor,
+            Object lock,
+            Duration bufferRequestTimeout,
+            int readAheadSize) {
 
         this.lock = checkNotNull(lock);
         this.bufferPool = checkNotNull(bufferPool);
@@ -148,6 +191,14 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
         this.maxRequestedBuffers =
                 Math.max(2 * bufferPool.getNumBuffersPerRequest(), numSubpartitions);
         this.bufferRequestTimeout = checkNotNull(bufferRequestTimeout);
+        checkArgument(readAheadSize >= 0, "Read-ahead size must be non-negative.");
+        // the read-ahead buffer must be able to hold at least one complete buffer
+        this.readAheadSize =
+                readAheadSize == 0
+                        ? 0
+                        : Math.max(
+                                readAheadSize,
+                                bufferPool.getBufferSize() + BufferReaderWriterUtil.HEADER_LENGTH);
     }
 
     @Override
@@ -334,7 +385,12 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
                 openFileChannels(resultFile);
             }
             return new PartitionedFileReader(
-                    resultFile, targetSubpartition, dataFileChannel, indexFileChannel);
+                    resultFile,
+                    targetSubpartition,
+                    dataFileChannel,
+                    indexFileChannel,
+                    readAheadBuffer,
+                    readStatistics);
         } catch (Throwable throwable) {
             if (allReaders.isEmpty()) {
                 closeFileChannels();
@@ -349,6 +405,12 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
         closeFileChannels();
         dataFileChannel = openFileChannel(resultFile.getDataFilePath());
         indexFileChannel = openFileChannel(resultFile.getIndexFilePath());
+
+        dataFilePath = resultFile.getDataFilePath();
+        readStatistics = new PartitionedFileReadStatistics();
+        if (readAheadSize > 0) {
+            readAheadBuffer = new PartitionedFileReadAheadBuffer(readAheadSize, readStatistics);
+        }
     }
 
     private void closeFileChannels() {
@@ -357,6 +419,12 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
         IOUtils.closeAllQuietly(dataFileChannel, indexFileChannel);
         dataFileChannel = null;
         indexFileChannel = null;
+
+        if (readStatistics != null && readStatistics.getNumReads() > 0) {
+            LOG.info("Finished reading shuffle data file {}, {}.", dataFilePath, readStatistics);
+        }
+        readAheadBuffer = null;
+        readStatistics = null;
     }
 
     @Override
@@ -429,6 +497,13 @@ class SortMergeResultPartitionReadScheduler implements Runnable, BufferRecycler
         }
     }
 
+    @VisibleForTesting
+    PartitionedFileReadStatistics getReadStatistics() {
+        synchronized (lock) {
+            return readStatistics;
+        }
+    }
+
     @VisibleForTesting
     CompletableFuture<?> getReleaseFuture() {
         return releaseFuture;
@@ -65,6 +65,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
 
@@ -211,6 +212,16 @@ public class SingleInputGate extends IndexedInputGate {
 
     private final ThroughputCalculator throughputCalculator;
     private final BufferDebloater bufferDebloater;
+
+    /**
+     * The buffer debloaters of the individual channels if the buffer size is debloated per
+     * channel, otherwise null and all channels use the buffer size of {@link #bufferDebloater}.
+     */
+    @Nullable private BufferDebloater[] channelBufferDebloaters;
+
+    /** The size of the data consumed from every channel since the last debloating. */
+    @Nullable private long[] channelDataSizes;
+
     private boolean shouldDrainOnEndOfData = true;
 
     public SingleInputGate(
@@ -404,6 +415,16 @@ public class SingleInputGate extends IndexedInputGate {
         }
     }
 
+    /**
+     * Debloats the buffer size of every channel individually with the given debloaters, one for
+     * each channel, instead of announcing the same buffer size to all channels of this gate.
+     */
+    public void setChannelBufferDebloaters(BufferDebloater[] channelBufferDebloaters) {
+        checkArgument(channelBufferDebloaters.length == numberOfInputChannels);
+        this.channelBufferDebloaters = channelBufferDebloaters;
+        this.channelDataSizes = new long[numberOfInputChannels];
+    }
+
     @Override
     public void triggerDebloating() {
         if (isFinished() || closeFuture.isDone()) {
@@ -412,9 +433,42 @@ public class SingleInputGate extends IndexedInputGate {
 
         checkState(bufferDebloater != null, "Buffer debloater should not be null");
         final long currentThroughput = throughputCalculator.calculateThroughput();
-        bufferDebloater
-                .recalculateBufferSize(currentThroughput, getBuffersInUseCount())
-                .ifPresent(this::announceBufferSize);
+        final OptionalInt newBufferSize =
+                bufferDebloater.recalculateBufferSize(currentThroughput, getBuffersInUseCount());
+        if (channelBufferDebloaters == null) {
+            newBufferSize.ifPresent(this::announceBufferSize);
+        } else {
+            triggerChannelDebloating(currentThroughput);
+        }
+    }
+
+    /**
+     * Recalculates the buffer size of every channel from its share of the data consumed since the
+     * last debloating, so that the in-flight data of every channel can be consumed within the
+     * target time, no matter how the throughput of the gate is distributed among its channels.
+     */
+    private void triggerChannelDebloating(long currentThroughput) {
+        long totalDataSize = 0;
+        for (long channelDataSize : channelDataSizes) {
+            totalDataSize += channelDataSize;
+        }
+
+        for (int i = 0; i < numberOfInputChannels; i++) {
+            final long channelThroughput =
+                    totalDataSize == 0
+                            ? 0
+                            : (long)
+                                    (currentThroughput
+                                            * ((double) channelDataSizes[i] / totalDataSize));
+            channelDataSizes[i] = 0;
+
+            final InputChannel channel = channels[i];
+            if (channel != null && !channel.isReleased()) {
+                channelBufferDebloaters[i]
+                        .recalculateBufferSize(channelThroughput, channel.getBuffersInUseCount())
+                        .ifPresent(channel::announceBufferSize);
+            }
+        }
     }
 
     public Duration getLastEstimatedTimeToConsume() {
@@ -430,6 +484,12 @@ public class SingleInputGate extends IndexedInputGate {
         return consumedPartitionType;
     }
 
+    /** Returns the decompressor of the consumed data, or null if the data is not compressed. */
+    @Nullable
+    public BufferDecompressor getBufferDecompressor() {
+        return bufferDecompressor;
+    }
+
     BufferProvider getBufferProvider() {
         return bufferPool;
     }
@@ -761,6 +821,9 @@ public class SingleInputGate extends IndexedInputGate {
                         inputWithData.input,
                         inputWithData.morePriorityEvents);
         throughputCalculator.incomingDataSize(bufferOrEvent.getSize());
+        if (channelDataSizes != null) {
+            channelDataSizes[inputWithData.input.getChannelIndex()] += bufferOrEvent.getSize();
+        }
         return Optional.of(bufferOrEvent);
     }
 
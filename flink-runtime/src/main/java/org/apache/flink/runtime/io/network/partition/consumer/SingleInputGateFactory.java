@@ -130,6 +130,8 @@ public class SingleInputGateFactory {
         final MetricGroup networkInputGroup = owner.getInputGroup();
 
         SubpartitionIndexRange subpartitionIndexRange = igdd.getConsumedSubpartitionIndexRange();
+        final int numberOfInputChannels =
+                calculateNumChannels(igdd.getShuffleDescriptors().length, subpartitionIndexRange);
         SingleInputGate inputGate =
                 new SingleInputGate(
                         owningTaskName,
@@ -137,8 +139,7 @@ public class SingleInputGateFactory {
                         igdd.getConsumedResultId(),
                         igdd.getConsumedPartitionType(),
                         subpartitionIndexRange,
-                        calculateNumChannels(
-                                igdd.getShuffleDescriptors().length, subpartitionIndexRange),
+                        numberOfInputChannels,
                         partitionProducerStateProvider,
                         bufferPoolFactory,
                         bufferDecompressor,
@@ -147,6 +148,14 @@ public class SingleInputGateFactory {
                         new ThroughputCalculator(SystemClock.getInstance()),
                         maybeCreateBufferDebloater(
                                 owningTaskName, gateIndex, networkInputGroup.addGroup(gateIndex)));
+        if (debloatConfiguration.isEnabled() && debloatConfiguration.isPerChannel()) {
+            final BufferDebloater[] channelBufferDebloaters =
+                    new BufferDebloater[numberOfInputChannels];
+            for (int i = 0; i < numberOfInputChannels; i++) {
+                channelBufferDebloaters[i] = createBufferDebloater(owningTaskName, gateIndex);
+            }
+            inputGate.setChannelBufferDebloaters(channelBufferDebloaters);
+        }
 
         InputChannelMetrics metrics =
                 new InputChannelMetrics(networkInputGroup, owner.getParentGroup());
@@ -158,14 +167,7 @@ public class SingleInputGateFactory {
             String owningTaskName, int gateIndex, MetricGroup inputGroup) {
         if (debloatConfiguration.isEnabled()) {
             final BufferDebloater bufferDebloater =
-                    new BufferDebloater(
-                            owningTaskName,
-                            gateIndex,
-                            debloatConfiguration.getTargetTotalBufferSize().toMillis(),
-                            debloatConfiguration.getMaxBufferSize(),
-                            debloatConfiguration.getMinBufferSize(),
-                            debloatConfiguration.getBufferDebloatThresholdPercentages(),
-                            debloatConfiguration.getNumberOfSamples());
+                    createBufferDebloater(owningTaskName, gateIndex);
             inputGroup.gauge(
                     MetricNames.ESTIMATED_TIME_TO_CONSUME_BUFFERS,
                     () -> bufferDebloater.getLastEstimatedTimeToConsumeBuffers().toMillis());
@@ -176,6 +178,17 @@ public class SingleInputGateFactory {
         return null;
     }
 
+    private BufferDebloater createBufferDebloater(String owningTaskName, int gateIndex) {
+        return new BufferDebloater(
+                owningTaskName,
+                gateIndex,
+                debloatConfiguration.getTargetTotalBufferSize().toMillis(),
+                debloatConfiguration.getMaxBufferSize(),
+                debloatConfiguration.getMinBufferSize(),
+                debloatConfiguration.getBufferDebloatThresholdPercentages(),
+                debloatConfiguration.getNumberOfSamples());
+    }
+
     private void createInputChannels(
             String owningTaskName,
             InputGateDeploymentDescriptor inputGateDeploymentDescriptor,
@@ -54,6 +54,10 @@ public class MetricNames {
 
     @Deprecated public static final String FULL_RESTARTS = "fullRestarts";
 
+    public static final String NUM_SLOW_EXECUTION_VERTICES = "numSlowExecutionVertices";
+    public static final String NUM_EFFECTIVE_SPECULATIVE_EXECUTIONS =
+            "numEffectiveSpeculativeExecutions";
+
     public static final String MEMORY_USED = "Used";
     public static final String MEMORY_COMMITTED = "Committed";
     public static final String MEMORY_MAX = "Max";
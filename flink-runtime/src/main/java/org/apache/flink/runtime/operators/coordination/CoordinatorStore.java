@@ -41,5 +41,7 @@ public interface CoordinatorStore {
 
     Object computeIfPresent(Object key, BiFunction<Object, Object, Object> remappingFunction);
 
+    Object compute(Object key, BiFunction<Object, Object, Object> remappingFunction);
+
     <R> R apply(Object key, Function<Object, R> consumer);
 }
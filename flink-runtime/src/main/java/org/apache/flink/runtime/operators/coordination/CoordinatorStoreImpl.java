@@ -54,6 +54,11 @@ public class CoordinatorStoreImpl implements CoordinatorStore {
         return store.computeIfPresent(key, remappingFunction);
     }
 
+    @Override
+    public Object compute(Object key, BiFunction<Object, Object, Object> remappingFunction) {
+        return store.compute(key, remappingFunction);
+    }
+
     @Override
     public <R> R apply(Object key, Function<Object, R> consumer) {
         return consumer.apply(store.get(key));
@@ -83,6 +83,16 @@ public class BitSet {
         return bitLength;
     }
 
+    /** Number of bytes. */
+    public int byteSize() {
+        return byteLength;
+    }
+
+    /** Copies the bytes of the bit set into the given array at the given offset. */
+    public void copyTo(byte[] target, int targetOffset) {
+        memorySegment.get(offset, target, targetOffset, byteLength);
+    }
+
     /** Clear the bit set. */
     public void clear() {
         int index = 0;
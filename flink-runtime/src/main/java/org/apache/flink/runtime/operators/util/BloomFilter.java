@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.operators.util;
 
 import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 
@@ -43,6 +44,9 @@ import static org.apache.flink.util.Preconditions.checkArgument;
  */
 public class BloomFilter {
 
+    /** The serialized header consists of the expected entries and the byte size of the bits. */
+    private static final int SERIALIZED_HEADER_SIZE = 8;
+
     protected BitSet bitSet;
     protected int expectedEntries;
     protected int numHashFunctions;
@@ -135,6 +139,56 @@ public class BloomFilter {
         this.bitSet.clear();
     }
 
+    /**
+     * Serializes the given bloom filter into a byte array, so that it can be shipped to other
+     * tasks and restored with {@link #fromBytes(byte[])}.
+     */
+    public static byte[] toBytes(BloomFilter filter) {
+        int byteSize = filter.bitSet.byteSize();
+        byte[] bytes = new byte[SERIALIZED_HEADER_SIZE + byteSize];
+        MemorySegment segment = MemorySegmentFactory.wrap(bytes);
+        segment.putIntBigEndian(0, filter.expectedEntries);
+        segment.putIntBigEndian(4, byteSize);
+        filter.bitSet.copyTo(bytes, SERIALIZED_HEADER_SIZE);
+        return bytes;
+    }
+
+    /**
+     * Restores a bloom filter serialized by {@link #toBytes(BloomFilter)}. The returned filter is
+     * backed by the given array.
+     */
+    public static BloomFilter fromBytes(byte[] bytes) {
+        MemorySegment segment = MemorySegmentFactory.wrap(bytes);
+        int expectedEntries = segment.getIntBigEndian(0);
+        int byteSize = segment.getIntBigEndian(4);
+        checkArgument(
+                bytes.length == SERIALIZED_HEADER_SIZE + byteSize,
+                "The serialized bloom filter is corrupted.");
+        BloomFilter filter = new BloomFilter(expectedEntries, byteSize);
+        filter.setBitsLocation(segment, SERIALIZED_HEADER_SIZE);
+        return filter;
+    }
+
+    /**
+     * Merges two serialized bloom filters of the same size into a bloom filter which contains the
+     * entries of both. The result is written into the first array, which is returned.
+     */
+    public static byte[] mergeSerializedBloomFilters(byte[] first, byte[] second) {
+        checkArgument(
+                first.length == second.length,
+                "Can not merge bloom filters of different sizes %s and %s.",
+                first.length,
+                second.length);
+        for (int i = 0; i < SERIALIZED_HEADER_SIZE; i++) {
+            checkArgument(
+                    first[i] == second[i], "Can not merge bloom filters of different settings.");
+        }
+        for (int i = SERIALIZED_HEADER_SIZE; i < first.length; i++) {
+            first[i] |= second[i];
+        }
+        return first;
+    }
+
     @Override
     public String toString() {
         StringBuilder output = new StringBuilder();
@@ -42,6 +42,7 @@ import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProvider;
 import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProviderImpl;
 import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotRequestBulkChecker;
 import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotRequestBulkCheckerImpl;
+import org.apache.flink.runtime.jobmaster.slotpool.PreviousAllocationSlotSelectionStrategy;
 import org.apache.flink.runtime.jobmaster.slotpool.SlotPool;
 import org.apache.flink.runtime.jobmaster.slotpool.SlotPoolService;
 import org.apache.flink.runtime.jobmaster.slotpool.SlotSelectionStrategy;
@@ -55,6 +56,7 @@ import org.apache.flink.runtime.scheduler.ExecutionVertexVersioner;
 import org.apache.flink.runtime.scheduler.SchedulerNG;
 import org.apache.flink.runtime.scheduler.SchedulerNGFactory;
 import org.apache.flink.runtime.scheduler.SlotSharingExecutionSlotAllocatorFactory;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.ExecutionTimeBasedSlowTaskDetector;
 import org.apache.flink.runtime.scheduler.strategy.VertexwiseSchedulingStrategy;
 import org.apache.flink.runtime.shuffle.ShuffleMaster;
 import org.apache.flink.runtime.util.SlotSelectionStrategyUtils;
@@ -147,6 +149,52 @@ public class AdaptiveBatchSchedulerFactory implements SchedulerNGFactory {
                         partitionTracker,
                         true);
 
+        if (jobMasterConfiguration.get(JobManagerOptions.SPECULATIVE_ENABLED)) {
+            log.info(
+                    "Speculative execution is enabled for {} ({}).",
+                    jobGraph.getName(),
+                    jobGraph.getJobID());
+
+            // speculative executions do not share slots and avoid the slots of slow TaskManagers
+            final PhysicalSlotProvider speculativeSlotProvider =
+                    new PhysicalSlotProviderImpl(
+                            PreviousAllocationSlotSelectionStrategy.create(slotSelectionStrategy),
+                            slotPool);
+
+            return new SpeculativeScheduler(
+                    log,
+                    jobGraph,
+                    ioExecutor,
+                    jobMasterConfiguration,
+                    bulkChecker::start,
+                    new ScheduledExecutorServiceAdapter(futureExecutor),
+                    userCodeLoader,
+                    new CheckpointsCleaner(),
+                    checkpointRecoveryFactory,
+                    jobManagerJobMetricGroup,
+                    new VertexwiseSchedulingStrategy.Factory(),
+                    FailoverStrategyFactoryLoader.loadFailoverStrategyFactory(
+                            jobMasterConfiguration),
+                    restartBackoffTimeStrategy,
+                    new DefaultExecutionVertexOperations(),
+                    new ExecutionVertexVersioner(),
+                    allocatorFactory,
+                    initializationTimestamp,
+                    mainThreadExecutor,
+                    jobStatusListener,
+                    executionGraphFactory,
+                    shuffleMaster,
+                    rpcTimeout,
+                    DefaultVertexParallelismDecider.from(jobMasterConfiguration),
+                    DefaultVertexParallelismDecider.getNormalizedMaxParallelism(
+                            jobMasterConfiguration),
+                    jobMasterConfiguration.get(
+                            JobManagerOptions.SPECULATIVE_MAX_CONCURRENT_EXECUTIONS),
+                    new ExecutionTimeBasedSlowTaskDetector(jobMasterConfiguration),
+                    speculativeSlotProvider,
+                    slotPool::getAvailableSlotsInformation);
+        }
+
         return new AdaptiveBatchScheduler(
                 log,
                 jobGraph,
@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.JobStatus;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
+import org.apache.flink.runtime.checkpoint.CheckpointsCleaner;
+import org.apache.flink.runtime.clusterframework.types.AllocationID;
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
+import org.apache.flink.runtime.clusterframework.types.SlotProfile;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.JobStatusListener;
+import org.apache.flink.runtime.executiongraph.TaskExecutionStateTransition;
+import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverStrategy;
+import org.apache.flink.runtime.executiongraph.failover.flip1.RestartBackoffTimeStrategy;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobmanager.scheduler.Locality;
+import org.apache.flink.runtime.jobmaster.LogicalSlot;
+import org.apache.flink.runtime.jobmaster.SlotInfo;
+import org.apache.flink.runtime.jobmaster.SlotRequestId;
+import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlot;
+import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProvider;
+import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotRequest;
+import org.apache.flink.runtime.jobmaster.slotpool.SingleLogicalSlot;
+import org.apache.flink.runtime.metrics.MetricNames;
+import org.apache.flink.runtime.metrics.groups.JobManagerJobMetricGroup;
+import org.apache.flink.runtime.scheduler.ExecutionGraphFactory;
+import org.apache.flink.runtime.scheduler.ExecutionSlotAllocatorFactory;
+import org.apache.flink.runtime.scheduler.ExecutionVertexOperations;
+import org.apache.flink.runtime.scheduler.ExecutionVertexVersioner;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskDetector;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskDetectorListener;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingStrategyFactory;
+import org.apache.flink.runtime.shuffle.ShuffleMaster;
+import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
+import org.apache.flink.util.FlinkException;
+import org.apache.flink.util.concurrent.FutureUtils;
+import org.apache.flink.util.concurrent.ScheduledExecutor;
+
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The speculative scheduler is an {@link AdaptiveBatchScheduler} which launches speculative
+ * executions of slow tasks, detected by a {@link SlowTaskDetector}, to mitigate the impact of slow
+ * nodes. The execution of a vertex which finishes first is used, the other executions of the
+ * vertex are canceled and their produced partitions are released.
+ *
+ * <p>Speculative executions get their own slot, which preferably is not located on a TaskManager
+ * running a slow task. Vertices are not executed speculatively if they do not produce any result,
+ * because concurrent executions of sinks may commit the same output more than once, or if they get
+ * their input from an input split assigner or an operator coordinator, which assign the input to
+ * a subtask rather than to an execution.
+ */
+public class SpeculativeScheduler extends AdaptiveBatchScheduler
+        implements SlowTaskDetectorListener {
+
+    private final int maxConcurrentExecutions;
+
+    private final SlowTaskDetector slowTaskDetector;
+
+    /** Provides the slots of the speculative executions, which do not share slots. */
+    private final PhysicalSlotProvider speculativeSlotProvider;
+
+    /** Retrieves the slots which are available in the slot pool. */
+    private final Supplier<Collection<? extends SlotInfo>> availableSlotsRetriever;
+
+    private final Time rpcTimeout;
+
+    /** Speculative executions which have not been canceled or failed yet. */
+    private final Set<ExecutionAttemptID> speculativeExecutions = new HashSet<>();
+
+    private long numSlowExecutionVertices;
+
+    private final Counter numEffectiveSpeculativeExecutionsCounter;
+
+    SpeculativeScheduler(
+            final Logger log,
+            final JobGraph jobGraph,
+            final Executor ioExecutor,
+            final Configuration jobMasterConfiguration,
+            final Consumer<ComponentMainThreadExecutor> startUpAction,
+            final ScheduledExecutor delayExecutor,
+            final ClassLoader userCodeLoader,
+            final CheckpointsCleaner checkpointsCleaner,
+            final CheckpointRecoveryFactory checkpointRecoveryFactory,
+            final JobManagerJobMetricGroup jobManagerJobMetricGroup,
+            final SchedulingStrategyFactory schedulingStrategyFactory,
+            final FailoverStrategy.Factory failoverStrategyFactory,
+            final RestartBackoffTimeStrategy restartBackoffTimeStrategy,
+            final ExecutionVertexOperations executionVertexOperations,
+            final ExecutionVertexVersioner executionVertexVersioner,
+            final ExecutionSlotAllocatorFactory executionSlotAllocatorFactory,
+            long initializationTimestamp,
+            final ComponentMainThreadExecutor mainThreadExecutor,
+            final JobStatusListener jobStatusListener,
+            final ExecutionGraphFactory executionGraphFactory,
+            final ShuffleMaster<?> shuffleMaster,
+            final Time rpcTimeout,
+            final VertexParallelismDecider vertexParallelismDecider,
+            final int defaultMaxParallelism,
+            final int maxConcurrentExecutions,
+            final SlowTaskDetector slowTaskDetector,
+            final PhysicalSlotProvider speculativeSlotProvider,
+            final Supplier<Collection<? extends SlotInfo>> availableSlotsRetriever)
+            throws Exception {
+
+        super(
+                log,
+                jobGraph,
+                ioExecutor,
+                jobMasterConfiguration,
+                startUpAction,
+                delayExecutor,
+                userCodeLoader,
+                checkpointsCleaner,
+                checkpointRecoveryFactory,
+                jobManagerJobMetricGroup,
+                schedulingStrategyFactory,
+                failoverStrategyFactory,
+                restartBackoffTimeStrategy,
+                executionVertexOperations,
+                executionVertexVersioner,
+                executionSlotAllocatorFactory,
+                initializationTimestamp,
+                mainThreadExecutor,
+                jobStatusListener,
+                executionGraphFactory,
+                shuffleMaster,
+                rpcTimeout,
+                vertexParallelismDecider,
+                defaultMaxParallelism);
+
+        checkArgument(
+                maxConcurrentExecutions > 1,
+                "The maximum number of concurrent executions should be larger than 1.");
+        this.maxConcurrentExecutions = maxConcurrentExecutions;
+        this.slowTaskDetector = checkNotNull(slowTaskDetector);
+        this.speculativeSlotProvider = checkNotNull(speculativeSlotProvider);
+        this.availableSlotsRetriever = checkNotNull(availableSlotsRetriever);
+        this.rpcTimeout = checkNotNull(rpcTimeout);
+
+        this.numEffectiveSpeculativeExecutionsCounter = new SimpleCounter();
+        registerMetrics(jobManagerJobMetricGroup);
+    }
+
+    private void registerMetrics(JobManagerJobMetricGroup metricGroup) {
+        metricGroup.gauge(MetricNames.NUM_SLOW_EXECUTION_VERTICES, () -> numSlowExecutionVertices);
+        metricGroup.gauge(
+                MetricNames.NUM_EFFECTIVE_SPECULATIVE_EXECUTIONS,
+                numEffectiveSpeculativeExecutionsCounter::getCount);
+    }
+
+    @Override
+    public void startSchedulingInternal() {
+        super.startSchedulingInternal();
+
+        slowTaskDetector.start(getExecutionGraph(), this, getMainThreadExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> closeAsync() {
+        slowTaskDetector.stop();
+
+        return super.closeAsync();
+    }
+
+    @Override
+    protected void updateTaskExecutionStateInternal(
+            final ExecutionVertexID executionVertexId,
+            final TaskExecutionStateTransition taskExecutionState) {
+
+        // an execution which lost the race may still report that it finished, before it got
+        // canceled, which must not be handled as a state change of the vertex
+        final ExecutionAttemptID currentAttempt =
+                getExecutionVertex(executionVertexId).getCurrentExecutionAttempt().getAttemptId();
+        if (!taskExecutionState.getID().equals(currentAttempt)) {
+            return;
+        }
+
+        if (taskExecutionState.getExecutionState() == ExecutionState.FINISHED) {
+            final ExecutionAttemptID finishedAttempt = taskExecutionState.getID();
+            if (speculativeExecutions.remove(finishedAttempt)) {
+                log.info(
+                        "Speculative execution {} of {} finished before the other executions.",
+                        finishedAttempt,
+                        executionVertexId);
+                numEffectiveSpeculativeExecutionsCounter.inc();
+            }
+        }
+
+        super.updateTaskExecutionStateInternal(executionVertexId, taskExecutionState);
+    }
+
+    // ------------------------------------------------------------------------
+    // SlowTaskDetectorListener
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void notifySlowTasks(
+            final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks) {
+        numSlowExecutionVertices = slowTasks.size();
+
+        if (slowTasks.isEmpty() || getExecutionGraph().getState() != JobStatus.RUNNING) {
+            return;
+        }
+
+        final Set<ResourceID> slowTaskManagers = getTaskManagersOf(slowTasks.values());
+        final long timestamp = System.currentTimeMillis();
+        for (ExecutionVertexID executionVertexId : slowTasks.keySet()) {
+            final ExecutionVertex executionVertex = getExecutionVertex(executionVertexId);
+            if (!canBeSpeculated(executionVertex)) {
+                continue;
+            }
+
+            final int numNewExecutions =
+                    maxConcurrentExecutions - executionVertex.getNumberOfUnterminatedExecutions();
+            for (int i = 0; i < numNewExecutions; i++) {
+                final Execution execution =
+                        executionVertex.createNewSpeculativeExecution(timestamp);
+                log.info(
+                        "Created speculative execution {} of slow task {}.",
+                        execution.getAttemptId(),
+                        executionVertex.getTaskNameWithSubtaskIndex());
+
+                speculativeExecutions.add(execution.getAttemptId());
+                execution.transitionState(ExecutionState.SCHEDULED);
+                allocateSlotAndDeploy(execution, slowTaskManagers);
+            }
+        }
+    }
+
+    private boolean canBeSpeculated(final ExecutionVertex executionVertex) {
+        final ExecutionState state = executionVertex.getExecutionState();
+        if (state != ExecutionState.DEPLOYING
+                && state != ExecutionState.INITIALIZING
+                && state != ExecutionState.RUNNING) {
+            return false;
+        }
+
+        return !executionVertex.getProducedPartitions().isEmpty()
+                && executionVertex.getJobVertex().getSplitAssigner() == null
+                && executionVertex.getJobVertex().getOperatorCoordinators().isEmpty();
+    }
+
+    private Set<ResourceID> getTaskManagersOf(
+            final Collection<Collection<ExecutionAttemptID>> executionAttemptIds) {
+        final Map<ExecutionAttemptID, Execution> executions =
+                getExecutionGraph().getRegisteredExecutions();
+        final Set<ResourceID> taskManagers = new HashSet<>();
+        for (Collection<ExecutionAttemptID> attemptIds : executionAttemptIds) {
+            for (ExecutionAttemptID attemptId : attemptIds) {
+                final Execution execution = executions.get(attemptId);
+                final TaskManagerLocation location =
+                        execution == null ? null : execution.getAssignedResourceLocation();
+                if (location != null) {
+                    taskManagers.add(location.getResourceID());
+                }
+            }
+        }
+        return taskManagers;
+    }
+
+    // ------------------------------------------------------------------------
+    // Deployment of speculative executions
+    // ------------------------------------------------------------------------
+
+    private void allocateSlotAndDeploy(
+            final Execution execution, final Set<ResourceID> slowTaskManagers) {
+        final SlotRequestId slotRequestId = new SlotRequestId();
+        final ResourceProfile resourceProfile = execution.getVertex().getResourceProfile();
+
+        // the available slots of the TaskManagers running slow tasks are reserved, so that the
+        // speculative execution is preferably deployed to another TaskManager
+        final SlotProfile slotProfile =
+                SlotProfile.priorAllocation(
+                        resourceProfile,
+                        resourceProfile,
+                        Collections.emptyList(),
+                        Collections.emptyList(),
+                        getAvailableAllocationsOf(slowTaskManagers));
+
+        final CompletableFuture<PhysicalSlot> slotFuture =
+                speculativeSlotProvider
+                        .allocatePhysicalSlot(
+                                new PhysicalSlotRequest(slotRequestId, slotProfile, false))
+                        .thenApply(PhysicalSlotRequest.Result::getPhysicalSlot);
+
+        FutureUtils.assertNoException(
+                execution
+                        .getTerminalStateFuture()
+                        .thenAccept(
+                                state -> {
+                                    if (state != ExecutionState.FINISHED) {
+                                        speculativeExecutions.remove(execution.getAttemptId());
+                                    }
+                                    // an assigned slot is returned when the execution releases
+                                    // it, only a pending request needs to be canceled
+                                    if (!slotFuture.isDone()) {
+                                        speculativeSlotProvider.cancelSlotRequest(
+                                                slotRequestId,
+                                                new FlinkException(
+                                                        "Execution "
+                                                                + execution
+                                                                + " reached state "
+                                                                + state
+                                                                + " before getting a slot."));
+                                    }
+                                }));
+
+        FutureUtils.assertNoException(
+                slotFuture.handleAsync(
+                        (physicalSlot, throwable) -> {
+                            if (throwable != null) {
+                                if (execution.getState() == ExecutionState.SCHEDULED) {
+                                    execution.fail(throwable);
+                                }
+                            } else if (execution.getState() != ExecutionState.SCHEDULED) {
+                                speculativeSlotProvider.cancelSlotRequest(
+                                        slotRequestId,
+                                        new FlinkException(
+                                                "Execution "
+                                                        + execution
+                                                        + " does not need the slot anymore."));
+                            } else {
+                                assignSlotAndDeploy(execution, slotRequestId, physicalSlot);
+                            }
+                            return null;
+                        },
+                        getMainThreadExecutor()));
+    }
+
+    private Set<AllocationID> getAvailableAllocationsOf(final Set<ResourceID> taskManagers) {
+        if (taskManagers.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        return availableSlotsRetriever.get().stream()
+                .filter(
+                        slotInfo ->
+                                taskManagers.contains(
+                                        slotInfo.getTaskManagerLocation().getResourceID()))
+                .map(SlotInfo::getAllocationId)
+                .collect(Collectors.toSet());
+    }
+
+    private void assignSlotAndDeploy(
+            final Execution execution,
+            final SlotRequestId slotRequestId,
+            final PhysicalSlot physicalSlot) {
+
+        final LogicalSlot logicalSlot =
+                SingleLogicalSlot.allocateFromPhysicalSlot(
+                        slotRequestId,
+                        physicalSlot,
+                        Locality.UNKNOWN,
+                        slot ->
+                                speculativeSlotProvider.cancelSlotRequest(
+                                        slot.getSlotRequestId(),
+                                        new FlinkException(
+                                                "Slot is being returned from SpeculativeScheduler.")),
+                        false);
+
+        if (!execution.tryAssignResource(logicalSlot)) {
+            logicalSlot.releaseSlot(
+                    new FlinkException("Could not assign the slot to execution " + execution));
+            return;
+        }
+
+        final CompletableFuture<Void> partitionRegistrationFuture =
+                FutureUtils.orTimeout(
+                        execution.registerProducedPartitions(logicalSlot.getTaskManagerLocation()),
+                        rpcTimeout.toMilliseconds(),
+                        TimeUnit.MILLISECONDS,
+                        getMainThreadExecutor());
+
+        FutureUtils.assertNoException(
+                partitionRegistrationFuture.handleAsync(
+                        (ignored, throwable) -> {
+                            if (throwable != null) {
+                                execution.fail(throwable);
+                            } else if (execution.getState() == ExecutionState.SCHEDULED) {
+                                deploySafe(execution);
+                            }
+                            return null;
+                        },
+                        getMainThreadExecutor()));
+    }
+
+    private void deploySafe(final Execution execution) {
+        try {
+            execution.deploy();
+        } catch (Throwable t) {
+            execution.fail(t);
+        }
+    }
+
+    @VisibleForTesting
+    long getNumSlowExecutionVertices() {
+        return numSlowExecutionVertices;
+    }
+
+    @VisibleForTesting
+    long getNumEffectiveSpeculativeExecutions() {
+        return numEffectiveSpeculativeExecutionsCounter.getCount();
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.slowtaskdetector;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.SlowTaskDetectorOptions;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IOMetrics;
+import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * The slow task detector which detects slow tasks based on their execution time.
+ *
+ * <p>Once a configured ratio of the tasks of a job vertex has finished, the baseline of the job
+ * vertex is the median execution time of its finished tasks times a configured multiplier, but not
+ * lower than a configured lower bound. An unfinished execution whose execution time exceeds the
+ * baseline is considered slow.
+ *
+ * <p>The processed bytes are taken into account if the input sizes of the tasks are known. The
+ * baseline of an execution whose input is larger than the median input of the finished tasks is
+ * scaled by the ratio of the two, so that tasks which are slow because of data skew, and which
+ * would be as slow on any other node, are not considered slow. The input size of an execution is
+ * estimated from the sizes of the consumed blocking partitions, assuming that the consumers of a
+ * partition read equal shares of it.
+ */
+public class ExecutionTimeBasedSlowTaskDetector implements SlowTaskDetector {
+
+    private final long checkIntervalMillis;
+
+    private final long baselineLowerBoundMillis;
+
+    private final double baselineRatio;
+
+    private final double baselineMultiplier;
+
+    @Nullable private ScheduledFuture<?> scheduledDetectionFuture;
+
+    public ExecutionTimeBasedSlowTaskDetector(Configuration configuration) {
+        this.checkIntervalMillis =
+                configuration.get(SlowTaskDetectorOptions.CHECK_INTERVAL).toMillis();
+        checkArgument(
+                this.checkIntervalMillis > 0,
+                "The configuration %s should be positive, but is %s.",
+                SlowTaskDetectorOptions.CHECK_INTERVAL.key(),
+                this.checkIntervalMillis);
+
+        this.baselineLowerBoundMillis =
+                configuration
+                        .get(SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_LOWER_BOUND)
+                        .toMillis();
+        checkArgument(
+                this.baselineLowerBoundMillis >= 0,
+                "The configuration %s cannot be negative, but is %s.",
+                SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_LOWER_BOUND.key(),
+                this.baselineLowerBoundMillis);
+
+        this.baselineRatio =
+                configuration.getDouble(SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_RATIO);
+        checkArgument(
+                this.baselineRatio >= 0 && this.baselineRatio < 1,
+                "The configuration %s should be in [0, 1), but is %s.",
+                SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_RATIO.key(),
+                this.baselineRatio);
+
+        this.baselineMultiplier =
+                configuration.getDouble(SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_MULTIPLIER);
+        checkArgument(
+                this.baselineMultiplier > 0,
+                "The configuration %s should be positive, but is %s.",
+                SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_MULTIPLIER.key(),
+                this.baselineMultiplier);
+    }
+
+    @Override
+    public void start(
+            final ExecutionGraph executionGraph,
+            final SlowTaskDetectorListener listener,
+            final ComponentMainThreadExecutor mainThreadExecutor) {
+
+        scheduleTask(executionGraph, listener, mainThreadExecutor);
+    }
+
+    /** Schedule periodical slow task detection. */
+    private void scheduleTask(
+            final ExecutionGraph executionGraph,
+            final SlowTaskDetectorListener listener,
+            final ComponentMainThreadExecutor mainThreadExecutor) {
+
+        this.scheduledDetectionFuture =
+                mainThreadExecutor.schedule(
+                        () -> {
+                            listener.notifySlowTasks(findSlowTasks(executionGraph));
+                            scheduleTask(executionGraph, listener, mainThreadExecutor);
+                        },
+                        checkIntervalMillis,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (scheduledDetectionFuture != null) {
+            scheduledDetectionFuture.cancel(false);
+        }
+    }
+
+    /**
+     * Given that the parallelism is N and the ratio is R, define T as the median of the execution
+     * time of the finished tasks, once at least N*R tasks have finished. The baseline is
+     * max(T*M, lower bound), where M is the multiplier. An execution is slow if its execution time
+     * exceeds the baseline, scaled by its input size relative to the median input size of the
+     * finished tasks if both are known.
+     */
+    @VisibleForTesting
+    Map<ExecutionVertexID, Collection<ExecutionAttemptID>> findSlowTasks(
+            final ExecutionGraph executionGraph) {
+
+        final long currentTimeMillis = System.currentTimeMillis();
+
+        final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks = new HashMap<>();
+
+        for (ExecutionJobVertex jobVertex : executionGraph.getVerticesTopologically()) {
+            if (!jobVertex.isInitialized()) {
+                continue;
+            }
+
+            final Baseline baseline = getBaseline(jobVertex);
+            if (baseline == null) {
+                continue;
+            }
+
+            for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+                if (executionVertex.getExecutionState() == ExecutionState.FINISHED) {
+                    continue;
+                }
+
+                final long inputBytes = getInputBytes(executionVertex);
+                final List<ExecutionAttemptID> slowExecutions = new ArrayList<>();
+                for (Execution execution : executionVertex.getCurrentExecutions()) {
+                    if (isDeployedAndUnterminated(execution)
+                            && getExecutionTime(execution, currentTimeMillis)
+                                    >= baseline.getThreshold(inputBytes)) {
+                        slowExecutions.add(execution.getAttemptId());
+                    }
+                }
+
+                if (!slowExecutions.isEmpty()) {
+                    slowTasks.put(executionVertex.getID(), slowExecutions);
+                }
+            }
+        }
+
+        return slowTasks;
+    }
+
+    @Nullable
+    private Baseline getBaseline(final ExecutionJobVertex jobVertex) {
+        final List<Long> executionTimes = new ArrayList<>();
+        final List<Long> inputBytes = new ArrayList<>();
+        for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+            final Execution execution = executionVertex.getCurrentExecutionAttempt();
+            if (execution.getState() == ExecutionState.FINISHED) {
+                final long finishedTimestamp =
+                        execution.getStateTimestamp(ExecutionState.FINISHED);
+                executionTimes.add(getExecutionTime(execution, finishedTimestamp));
+                inputBytes.add(getInputBytes(executionVertex));
+            }
+        }
+
+        final int numFinished = executionTimes.size();
+        if (numFinished == 0 || numFinished < jobVertex.getParallelism() * baselineRatio) {
+            return null;
+        }
+
+        final long medianExecutionTime = median(executionTimes);
+        final long baselineMillis =
+                Math.max(
+                        (long) (medianExecutionTime * baselineMultiplier),
+                        baselineLowerBoundMillis);
+        final long medianInputBytes = inputBytes.contains(-1L) ? -1L : median(inputBytes);
+        return new Baseline(baselineMillis, medianInputBytes);
+    }
+
+    private static long median(final List<Long> values) {
+        values.sort(Long::compare);
+        return values.get(values.size() / 2);
+    }
+
+    private static boolean isDeployedAndUnterminated(final Execution execution) {
+        final ExecutionState state = execution.getState();
+        return state == ExecutionState.DEPLOYING
+                || state == ExecutionState.INITIALIZING
+                || state == ExecutionState.RUNNING;
+    }
+
+    private static long getExecutionTime(final Execution execution, final long endTimeMillis) {
+        final long deployingTimestamp = execution.getStateTimestamp(ExecutionState.DEPLOYING);
+        if (deployingTimestamp == 0) {
+            return 0;
+        }
+        return Math.max(endTimeMillis - deployingTimestamp, 0);
+    }
+
+    /**
+     * Estimates the number of bytes consumed by the given vertex from the sizes of its consumed
+     * partitions, or returns -1 if any size is not known.
+     */
+    private static long getInputBytes(final ExecutionVertex executionVertex) {
+        long inputBytes = 0;
+        for (ConsumedPartitionGroup partitionGroup :
+                executionVertex.getAllConsumedPartitionGroups()) {
+            for (IntermediateResultPartitionID partitionId : partitionGroup) {
+                final IntermediateResultPartition partition =
+                        executionVertex
+                                .getExecutionGraphAccessor()
+                                .getResultPartitionOrThrow(partitionId);
+                final IOMetrics ioMetrics =
+                        partition.getProducer().getCurrentExecutionAttempt().getIOMetrics();
+                final Long partitionBytes =
+                        ioMetrics == null
+                                ? null
+                                : ioMetrics.getNumBytesProducedOfPartitions().get(partitionId);
+                if (partitionBytes == null) {
+                    return -1;
+                }
+                inputBytes +=
+                        partitionBytes / Math.max(partition.getConsumerVertexGroup().size(), 1);
+            }
+        }
+        return inputBytes;
+    }
+
+    /** The execution time baseline of a job vertex. */
+    private static class Baseline {
+
+        private final long baselineMillis;
+
+        /** The median input bytes of the finished tasks, or -1 if unknown. */
+        private final long medianInputBytes;
+
+        Baseline(long baselineMillis, long medianInputBytes) {
+            this.baselineMillis = baselineMillis;
+            this.medianInputBytes = medianInputBytes;
+        }
+
+        /** Returns the execution time above which an execution of the given input is slow. */
+        long getThreshold(long inputBytes) {
+            if (medianInputBytes <= 0 || inputBytes <= medianInputBytes) {
+                return baselineMillis;
+            }
+            return (long) (baselineMillis * ((double) inputBytes / medianInputBytes));
+        }
+    }
+}
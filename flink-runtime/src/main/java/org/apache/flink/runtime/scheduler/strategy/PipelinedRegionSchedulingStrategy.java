@@ -39,6 +39,10 @@ import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * {@link SchedulingStrategy} instance which schedules tasks in granularity of pipelined regions.
+ *
+ * <p>A region is scheduled once all of its blocking inputs produced by other regions are
+ * consumable. Hybrid partitions can be consumed while they are being produced, so their consumer
+ * regions are scheduled as soon as all producers of the hybrid inputs are scheduled.
  */
 public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
 
@@ -183,6 +187,8 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
                                     group ->
                                             crossRegionConsumedPartitionGroups.contains(group)
                                                     || group.areAllPartitionsFinished())
+                            // consumers of hybrid partitions are scheduled with the producers
+                            .filter(group -> !isHybridPartitionGroup(group))
                             .collect(Collectors.toSet());
 
             final Set<SchedulingPipelinedRegion> consumerRegions =
@@ -208,16 +214,25 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
                         schedulingTopology, regions);
 
         final Map<ConsumedPartitionGroup, Boolean> consumableStatusCache = new HashMap<>();
+        final Set<SchedulingPipelinedRegion> hybridConsumerRegions = new HashSet<>();
         for (SchedulingPipelinedRegion region : regionsSorted) {
-            maybeScheduleRegion(region, consumableStatusCache);
+            if (maybeScheduleRegion(region, consumableStatusCache)) {
+                addHybridConsumerRegions(region, hybridConsumerRegions);
+            }
+        }
+
+        // the consumer regions of hybrid partitions may have become schedulable
+        hybridConsumerRegions.removeIf(region -> !areRegionVerticesAllInCreatedState(region));
+        if (!hybridConsumerRegions.isEmpty()) {
+            maybeScheduleRegions(hybridConsumerRegions);
         }
     }
 
-    private void maybeScheduleRegion(
+    private boolean maybeScheduleRegion(
             final SchedulingPipelinedRegion region,
             final Map<ConsumedPartitionGroup, Boolean> consumableStatusCache) {
         if (!areRegionInputsAllConsumable(region, consumableStatusCache)) {
-            return;
+            return false;
         }
 
         checkState(
@@ -225,6 +240,25 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
                 "BUG: trying to schedule a region which is not in CREATED state");
 
         schedulerOperations.allocateSlotsAndDeploy(regionVerticesSorted.get(region));
+        return true;
+    }
+
+    private void addHybridConsumerRegions(
+            final SchedulingPipelinedRegion producerRegion,
+            final Set<SchedulingPipelinedRegion> hybridConsumerRegions) {
+        for (SchedulingExecutionVertex vertex : producerRegion.getVertices()) {
+            for (SchedulingResultPartition partition : vertex.getProducedResults()) {
+                if (!partition.getResultType().isHybridResultPartition()) {
+                    continue;
+                }
+                for (ConsumedPartitionGroup consumedPartitionGroup :
+                        partition.getConsumedPartitionGroups()) {
+                    hybridConsumerRegions.addAll(
+                            partitionGroupConsumerRegions.getOrDefault(
+                                    consumedPartitionGroup, Collections.emptySet()));
+                }
+            }
+        }
     }
 
     private boolean areRegionInputsAllConsumable(
@@ -249,8 +283,7 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
     private boolean isConsumedPartitionGroupConsumable(
             final ConsumedPartitionGroup consumedPartitionGroup) {
         for (IntermediateResultPartitionID partitionId : consumedPartitionGroup) {
-            if (schedulingTopology.getResultPartition(partitionId).getState()
-                    != ResultPartitionState.CONSUMABLE) {
+            if (!isConsumedPartitionConsumable(partitionId)) {
                 return false;
             }
         }
@@ -262,14 +295,30 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
             final SchedulingPipelinedRegion pipelinedRegion) {
         for (IntermediateResultPartitionID partitionId : consumedPartitionGroup) {
             if (isExternalConsumedPartition(partitionId, pipelinedRegion)
-                    && schedulingTopology.getResultPartition(partitionId).getState()
-                            != ResultPartitionState.CONSUMABLE) {
+                    && !isConsumedPartitionConsumable(partitionId)) {
                 return false;
             }
         }
         return true;
     }
 
+    private boolean isConsumedPartitionConsumable(IntermediateResultPartitionID partitionId) {
+        final SchedulingResultPartition partition =
+                schedulingTopology.getResultPartition(partitionId);
+        if (partition.getResultType().isHybridResultPartition()) {
+            // hybrid partitions can be consumed as soon as their producer is scheduled
+            return partition.getProducer().getState() != ExecutionState.CREATED;
+        }
+        return partition.getState() == ResultPartitionState.CONSUMABLE;
+    }
+
+    private boolean isHybridPartitionGroup(ConsumedPartitionGroup consumedPartitionGroup) {
+        return schedulingTopology
+                .getResultPartition(consumedPartitionGroup.getFirst())
+                .getResultType()
+                .isHybridResultPartition();
+    }
+
     private boolean areRegionVerticesAllInCreatedState(final SchedulingPipelinedRegion region) {
         for (SchedulingExecutionVertex vertex : region.getVertices()) {
             if (vertex.getState() != ExecutionState.CREATED) {
@@ -102,6 +102,11 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
     private final SourceCoordinatorContext<SplitT> context;
 
     private final CoordinatorStore coordinatorStore;
+    /**
+     * The ID under which this coordinator registers itself in the {@link CoordinatorStore}, so
+     * that other coordinators can send events to it, or null if it does not listen to any events.
+     */
+    @Nullable private final String coordinatorListeningID;
     /**
      * The split enumerator created from the associated Source. This one is created either during
      * resetting the coordinator to a checkpoint, or when the coordinator is started.
@@ -129,12 +134,23 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
             SourceCoordinatorContext<SplitT> context,
             CoordinatorStore coordinatorStore,
             WatermarkAlignmentParams watermarkAlignmentParams) {
+        this(operatorName, source, context, coordinatorStore, watermarkAlignmentParams, null);
+    }
+
+    public SourceCoordinator(
+            String operatorName,
+            Source<?, SplitT, EnumChkT> source,
+            SourceCoordinatorContext<SplitT> context,
+            CoordinatorStore coordinatorStore,
+            WatermarkAlignmentParams watermarkAlignmentParams,
+            @Nullable String coordinatorListeningID) {
         this.operatorName = operatorName;
         this.source = source;
         this.enumCheckpointSerializer = source.getEnumeratorCheckpointSerializer();
         this.context = context;
         this.coordinatorStore = coordinatorStore;
         this.watermarkAlignmentParams = watermarkAlignmentParams;
+        this.coordinatorListeningID = coordinatorListeningID;
 
         if (watermarkAlignmentParams.isEnabled()) {
             coordinatorStore.putIfAbsent(
@@ -207,6 +223,25 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
         // We rely on the single-threaded coordinator executor to guarantee
         // the other methods are invoked after the enumerator has started.
         runInEventLoop(() -> enumerator.start(), "starting the SplitEnumerator.");
+
+        if (coordinatorListeningID != null) {
+            coordinatorStore.compute(
+                    coordinatorListeningID,
+                    (key, oldValue) -> {
+                        // the value is either a coordinator listening to the ID, or an event
+                        // which has been sent to the ID before this coordinator was started
+                        if (oldValue instanceof OperatorEvent) {
+                            handleEventFromOperator(0, (OperatorEvent) oldValue);
+                        } else {
+                            checkState(
+                                    oldValue == null || oldValue instanceof OperatorCoordinator,
+                                    "Unexpected value %s for listening ID %s.",
+                                    oldValue,
+                                    coordinatorListeningID);
+                        }
+                        return this;
+                    });
+        }
     }
 
     @Override
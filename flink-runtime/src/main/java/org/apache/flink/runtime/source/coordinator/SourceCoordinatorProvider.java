@@ -43,6 +43,7 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
     private final Source<?, SplitT, ?> source;
     private final int numWorkerThreads;
     private final WatermarkAlignmentParams alignmentParams;
+    @Nullable private final String coordinatorListeningID;
 
     /**
      * Construct the {@link SourceCoordinatorProvider}.
@@ -61,11 +62,29 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
             Source<?, SplitT, ?> source,
             int numWorkerThreads,
             WatermarkAlignmentParams alignmentParams) {
+        this(operatorName, operatorID, source, numWorkerThreads, alignmentParams, null);
+    }
+
+    /**
+     * Construct the {@link SourceCoordinatorProvider} for a coordinator which listens to events
+     * sent by other coordinators under the given ID via the {@link
+     * org.apache.flink.runtime.operators.coordination.CoordinatorStore CoordinatorStore}.
+     *
+     * @param coordinatorListeningID the ID the coordinator listens to, or null if none.
+     */
+    public SourceCoordinatorProvider(
+            String operatorName,
+            OperatorID operatorID,
+            Source<?, SplitT, ?> source,
+            int numWorkerThreads,
+            WatermarkAlignmentParams alignmentParams,
+            @Nullable String coordinatorListeningID) {
         super(operatorID);
         this.operatorName = operatorName;
         this.source = source;
         this.numWorkerThreads = numWorkerThreads;
         this.alignmentParams = alignmentParams;
+        this.coordinatorListeningID = coordinatorListeningID;
     }
 
     @Override
@@ -83,7 +102,8 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
                 source,
                 sourceCoordinatorContext,
                 context.getCoordinatorStore(),
-                alignmentParams);
+                alignmentParams,
+                coordinatorListeningID);
     }
 
     /** A thread factory class that provides some helper methods. */
@@ -21,6 +21,7 @@ package org.apache.flink.runtime.state;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.runtime.state.heap.BucketedHeapPriorityQueueSet;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueElement;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueSet;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueSetFactory;
@@ -31,6 +32,8 @@ import org.apache.flink.util.StateMigrationException;
 import javax.annotation.Nonnull;
 
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /** Manages creating heap priority queues along with their counterpart meta info. */
 @Internal
@@ -52,12 +55,70 @@ public class HeapPriorityQueuesManager {
         this.numberOfKeyGroups = numberOfKeyGroups;
     }
 
-    @SuppressWarnings("unchecked")
     @Nonnull
     public <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
             KeyGroupedInternalPriorityQueue<T> createOrUpdate(
                     @Nonnull String stateName,
                     @Nonnull TypeSerializer<T> byteOrderedElementSerializer) {
+        return createOrUpdate(
+                stateName,
+                byteOrderedElementSerializer,
+                () -> priorityQueueSetFactory.create(stateName, byteOrderedElementSerializer));
+    }
+
+    /**
+     * Like {@link #createOrUpdate(String, TypeSerializer)}, but creates a {@link
+     * BucketedHeapPriorityQueueSet}. Restored elements of an existing queue are moved into a
+     * bucketed queue.
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            KeyGroupedInternalPriorityQueue<T> createOrUpdateBucketed(
+                    @Nonnull String stateName,
+                    @Nonnull TypeSerializer<T> byteOrderedElementSerializer,
+                    @Nonnull ToLongFunction<T> priorityExtractor,
+                    long bucketSize) {
+
+        final Supplier<HeapPriorityQueueSet<T>> queueFactory =
+                () ->
+                        priorityQueueSetFactory.createBucketed(
+                                stateName,
+                                byteOrderedElementSerializer,
+                                priorityExtractor,
+                                bucketSize);
+
+        final HeapPriorityQueueSnapshotRestoreWrapper<T> existingState =
+                (HeapPriorityQueueSnapshotRestoreWrapper<T>) registeredPQStates.get(stateName);
+
+        if (existingState != null
+                && !(existingState.getPriorityQueue() instanceof BucketedHeapPriorityQueueSet)) {
+            final HeapPriorityQueueSet<T> restoredQueue = existingState.getPriorityQueue();
+            final HeapPriorityQueueSet<T> bucketedQueue = queueFactory.get();
+            for (Object element :
+                    restoredQueue.toArray(new HeapPriorityQueueElement[restoredQueue.size()])) {
+                bucketedQueue.add((T) element);
+            }
+            registeredPQStates.put(
+                    stateName,
+                    new HeapPriorityQueueSnapshotRestoreWrapper<>(
+                            bucketedQueue,
+                            existingState.getMetaInfo(),
+                            KeyExtractorFunction.forKeyedObjects(),
+                            keyGroupRange,
+                            numberOfKeyGroups));
+        }
+
+        return createOrUpdate(stateName, byteOrderedElementSerializer, queueFactory);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    private <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            KeyGroupedInternalPriorityQueue<T> createOrUpdate(
+                    @Nonnull String stateName,
+                    @Nonnull TypeSerializer<T> byteOrderedElementSerializer,
+                    @Nonnull Supplier<HeapPriorityQueueSet<T>> queueFactory) {
 
         final HeapPriorityQueueSnapshotRestoreWrapper<T> existingState =
                 (HeapPriorityQueueSnapshotRestoreWrapper<T>) registeredPQStates.get(stateName);
@@ -83,18 +144,17 @@ public class HeapPriorityQueuesManager {
             final RegisteredPriorityQueueStateBackendMetaInfo<T> metaInfo =
                     new RegisteredPriorityQueueStateBackendMetaInfo<>(
                             stateName, byteOrderedElementSerializer);
-            return createInternal(metaInfo);
+            return createInternal(metaInfo, queueFactory.get());
         }
     }
 
     @Nonnull
     private <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
             KeyGroupedInternalPriorityQueue<T> createInternal(
-                    RegisteredPriorityQueueStateBackendMetaInfo<T> metaInfo) {
+                    RegisteredPriorityQueueStateBackendMetaInfo<T> metaInfo,
+                    HeapPriorityQueueSet<T> priorityQueue) {
 
         final String stateName = metaInfo.getName();
-        final HeapPriorityQueueSet<T> priorityQueue =
-                priorityQueueSetFactory.create(stateName, metaInfo.getElementSerializer());
 
         HeapPriorityQueueSnapshotRestoreWrapper<T> wrapper =
                 new HeapPriorityQueueSnapshotRestoreWrapper<>(
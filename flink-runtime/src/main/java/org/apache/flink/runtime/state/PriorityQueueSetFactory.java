@@ -23,6 +23,8 @@ import org.apache.flink.runtime.state.heap.HeapPriorityQueueElement;
 
 import javax.annotation.Nonnull;
 
+import java.util.function.ToLongFunction;
+
 /** Factory for {@link KeyGroupedInternalPriorityQueue} instances. */
 public interface PriorityQueueSetFactory {
 
@@ -40,4 +42,29 @@ public interface PriorityQueueSetFactory {
             KeyGroupedInternalPriorityQueue<T> create(
                     @Nonnull String stateName,
                     @Nonnull TypeSerializer<T> byteOrderedElementSerializer);
+
+    /**
+     * Creates a {@link KeyGroupedInternalPriorityQueue} for elements with a long priority, e.g.
+     * timers. Implementations may group the elements into buckets of {@code bucketSize}
+     * consecutive priorities, which makes adding and removing elements that are not due soon
+     * cheaper. By default, this is the same as {@link #create(String, TypeSerializer)}.
+     *
+     * @param stateName unique name for associated with this queue.
+     * @param byteOrderedElementSerializer a serializer that with a format that is lexicographically
+     *     ordered in alignment with elementPriorityComparator.
+     * @param priorityExtractor extracts the priority of an element, must be consistent with the
+     *     element comparator.
+     * @param bucketSize the number of consecutive priorities that share a bucket.
+     * @param <T> type of the stored elements.
+     * @return the queue with the specified unique name.
+     */
+    @Nonnull
+    default <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            KeyGroupedInternalPriorityQueue<T> createBucketed(
+                    @Nonnull String stateName,
+                    @Nonnull TypeSerializer<T> byteOrderedElementSerializer,
+                    @Nonnull ToLongFunction<T> priorityExtractor,
+                    long bucketSize) {
+        return create(stateName, byteOrderedElementSerializer);
+    }
 }
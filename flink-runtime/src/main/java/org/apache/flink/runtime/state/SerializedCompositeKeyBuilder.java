@@ -29,6 +29,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Responsible for serialization of currentKey, currentGroup and namespace. Will reuse the previous
@@ -175,6 +176,19 @@ public final class SerializedCompositeKeyBuilder<K> {
         return keyOutView.getCopyOfBuffer();
     }
 
+    /**
+     * Returns the serialized key-group and key provided in a previous call to {@link
+     * #setKeyAndKeyGroup(Object, int)}, without any namespace or user-key.
+     *
+     * @return the bytes for the serialized key-group and key.
+     */
+    @Nonnull
+    public byte[] buildKeyGroupAndKey() {
+        // this should only be called when there is already a key written.
+        assert isKeyWritten();
+        return Arrays.copyOf(keyOutView.getSharedBuffer(), afterKeyMark);
+    }
+
     /** Returns a serialized composite key, from whatever was set so far. */
     @Nonnull
     public byte[] build() throws IOException {
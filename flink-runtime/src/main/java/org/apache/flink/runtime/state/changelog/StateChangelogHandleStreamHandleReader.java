@@ -26,8 +26,20 @@ import org.apache.flink.util.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
 
 /**
  * A reader for {@link ChangelogStateHandleStreamImpl} that iterates over its underlying {@link
@@ -36,6 +48,9 @@ import java.util.Iterator;
  * {@link StateChangelogStorage} implementations may have different <b>iterator</b> implementations.
  * Using a different {@link ChangelogStateHandle} (and reader) is problematic as it needs to be
  * serialized.
+ *
+ * <p>If an {@link Executor} is given, up to {@code maxReadAhead} streams are read ahead of the
+ * consumer. Otherwise, the streams are read lazily by the consumer thread.
  */
 @Internal
 public class StateChangelogHandleStreamHandleReader
@@ -50,14 +65,30 @@ public class StateChangelogHandleStreamHandleReader
     }
 
     private final StateChangeIterator changeIterator;
+    @Nullable private final Executor readAheadExecutor;
+    private final int maxReadAhead;
 
     public StateChangelogHandleStreamHandleReader(StateChangeIterator changeIterator) {
+        this(changeIterator, null, 0);
+    }
+
+    public StateChangelogHandleStreamHandleReader(
+            StateChangeIterator changeIterator,
+            @Nullable Executor readAheadExecutor,
+            int maxReadAhead) {
+        checkArgument(readAheadExecutor == null || maxReadAhead > 0);
         this.changeIterator = changeIterator;
+        this.readAheadExecutor = readAheadExecutor;
+        this.maxReadAhead = maxReadAhead;
     }
 
     @Override
     public CloseableIterator<StateChange> getChanges(ChangelogStateHandleStreamImpl handle)
             throws IOException {
+        if (readAheadExecutor != null) {
+            return new ReadAheadIterator(
+                    handle.getHandlesAndOffsets().iterator(), readAheadExecutor);
+        }
         return new CloseableIterator<StateChange>() {
             private final Iterator<Tuple2<StreamStateHandle, Long>> handleIterator =
                     handle.getHandlesAndOffsets().iterator();
@@ -95,4 +126,73 @@ public class StateChangelogHandleStreamHandleReader
             }
         };
     }
+
+    /**
+     * Reads the streams in the background and returns their changes in the original order. The
+     * changes of each stream are fully read into memory, so the read-ahead is bounded by the number
+     * of streams.
+     */
+    private class ReadAheadIterator implements CloseableIterator<StateChange> {
+        private final Iterator<Tuple2<StreamStateHandle, Long>> handleIterator;
+        private final Executor executor;
+        private final ArrayDeque<CompletableFuture<List<StateChange>>> pending =
+                new ArrayDeque<>();
+        private Iterator<StateChange> current = Collections.emptyIterator();
+
+        private ReadAheadIterator(
+                Iterator<Tuple2<StreamStateHandle, Long>> handleIterator, Executor executor) {
+            this.handleIterator = handleIterator;
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            advance();
+            return current.hasNext();
+        }
+
+        @Override
+        public StateChange next() {
+            advance();
+            return current.next();
+        }
+
+        private void advance() {
+            while (!current.hasNext()) {
+                while (pending.size() < maxReadAhead && handleIterator.hasNext()) {
+                    Tuple2<StreamStateHandle, Long> tuple2 = handleIterator.next();
+                    pending.add(CompletableFuture.supplyAsync(() -> readAll(tuple2), executor));
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                try {
+                    current = pending.poll().get().iterator();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    ExceptionUtils.rethrow(e);
+                } catch (ExecutionException e) {
+                    ExceptionUtils.rethrow(ExceptionUtils.stripExecutionException(e));
+                }
+            }
+        }
+
+        private List<StateChange> readAll(Tuple2<StreamStateHandle, Long> tuple2) {
+            LOG.debug("read ahead at {} from {}", tuple2.f1, tuple2.f0);
+            List<StateChange> changes = new ArrayList<>();
+            try (CloseableIterator<StateChange> iterator =
+                    changeIterator.read(tuple2.f0, tuple2.f1)) {
+                iterator.forEachRemaining(changes::add);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            return changes;
+        }
+
+        @Override
+        public void close() {
+            pending.forEach(future -> future.cancel(true));
+            pending.clear();
+        }
+    }
 }
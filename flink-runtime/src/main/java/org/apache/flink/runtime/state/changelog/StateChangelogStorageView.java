@@ -30,6 +30,15 @@ public interface StateChangelogStorageView<Handle extends ChangelogStateHandle>
 
     StateChangelogHandleReader<Handle> createReader();
 
+    /**
+     * Whether the {@link #createReader() reader} of this view can read the given handle. Allows to
+     * restore from an already running storage (e.g. to make use of its local state) instead of
+     * {@link StateChangelogStorageLoader#loadFromStateHandle loading} a new view.
+     */
+    default boolean canRead(ChangelogStateHandle handle) {
+        return false;
+    }
+
     @Override
     default void close() throws Exception {}
 }
@@ -21,6 +21,7 @@ package org.apache.flink.runtime.state.hashmap;
 import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.core.execution.SavepointFormatType;
@@ -43,6 +44,8 @@ import org.apache.flink.runtime.state.heap.HeapKeyedStateBackendBuilder;
 import org.apache.flink.runtime.state.heap.HeapPriorityQueueSetFactory;
 import org.apache.flink.runtime.state.metrics.LatencyTrackingStateConfig;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.TernaryBoolean;
 
 import javax.annotation.Nonnull;
 
@@ -70,20 +73,65 @@ import java.util.Collection;
  * application without a default savepoint directory, it will pick up a default savepoint directory
  * specified in the Flink configuration of the running job/cluster. That behavior is implemented via
  * the {@link #configure(ReadableConfig, ClassLoader)} method.
+ *
+ * <h1>Incremental Checkpoints</h1>
+ *
+ * <p>With incremental checkpoints, a checkpoint only writes the key groups which changed since the
+ * previous checkpoint, and refers to the files of the previous checkpoints for the other key
+ * groups. See {@link HashMapStateBackendOptions#INCREMENTAL_MAX_PARTS}.
  */
 @PublicEvolving
 public class HashMapStateBackend extends AbstractStateBackend implements ConfigurableStateBackend {
 
     private static final long serialVersionUID = 1L;
 
+    private static final int UNDEFINED_INCREMENTAL_MAX_PARTS = -1;
+
+    /** This determines if incremental checkpointing is enabled. */
+    private final TernaryBoolean enableIncrementalCheckpointing;
+
+    /** The number of parts after which an incremental checkpoint writes all key groups again. */
+    private int incrementalMaxParts;
+
     // -----------------------------------------------------------------------
 
     /** Creates a new state backend. */
-    public HashMapStateBackend() {}
+    public HashMapStateBackend() {
+        this(TernaryBoolean.UNDEFINED);
+    }
+
+    /**
+     * Creates a new state backend.
+     *
+     * @param enableIncrementalCheckpointing True if incremental checkpointing is enabled.
+     */
+    public HashMapStateBackend(boolean enableIncrementalCheckpointing) {
+        this(TernaryBoolean.fromBoolean(enableIncrementalCheckpointing));
+    }
+
+    /**
+     * Creates a new state backend.
+     *
+     * @param enableIncrementalCheckpointing True if incremental checkpointing is enabled.
+     */
+    public HashMapStateBackend(TernaryBoolean enableIncrementalCheckpointing) {
+        this.enableIncrementalCheckpointing = enableIncrementalCheckpointing;
+        this.incrementalMaxParts = UNDEFINED_INCREMENTAL_MAX_PARTS;
+    }
 
     private HashMapStateBackend(HashMapStateBackend original, ReadableConfig config) {
         // configure latency tracking
         latencyTrackingConfigBuilder = original.latencyTrackingConfigBuilder.configure(config);
+
+        // configure incremental checkpoints
+        this.enableIncrementalCheckpointing =
+                original.enableIncrementalCheckpointing.resolveUndefined(
+                        config.get(CheckpointingOptions.INCREMENTAL_CHECKPOINTS));
+        if (original.incrementalMaxParts == UNDEFINED_INCREMENTAL_MAX_PARTS) {
+            this.incrementalMaxParts = config.get(HashMapStateBackendOptions.INCREMENTAL_MAX_PARTS);
+        } else {
+            this.incrementalMaxParts = original.incrementalMaxParts;
+        }
     }
 
     @Override
@@ -94,7 +142,8 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
 
     @Override
     public boolean supportsNoClaimRestoreMode() {
-        // we never share any files, all snapshots are full
+        // the first checkpoint after a restore never refers to the restored files, because
+        // incremental checkpoints are only taken on top of checkpoints of this backend
         return true;
     }
 
@@ -140,6 +189,8 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
                         priorityQueueSetFactory,
                         true,
                         cancelStreamRegistry)
+                .setEnableIncrementalCheckpointing(isIncrementalCheckpointsEnabled())
+                .setMaxIncrementalCheckpointParts(getIncrementalMaxParts())
                 .build();
     }
 
@@ -159,4 +210,36 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
                         cancelStreamRegistry)
                 .build();
     }
+
+    // ------------------------------------------------------------------------
+    //  Parameters
+    // ------------------------------------------------------------------------
+
+    /** Gets whether incremental checkpoints are enabled for this state backend. */
+    public boolean isIncrementalCheckpointsEnabled() {
+        return enableIncrementalCheckpointing.getOrDefault(
+                CheckpointingOptions.INCREMENTAL_CHECKPOINTS.defaultValue());
+    }
+
+    /**
+     * Gets the number of parts after which an incremental checkpoint writes all key groups again.
+     */
+    public int getIncrementalMaxParts() {
+        return incrementalMaxParts == UNDEFINED_INCREMENTAL_MAX_PARTS
+                ? HashMapStateBackendOptions.INCREMENTAL_MAX_PARTS.defaultValue()
+                : incrementalMaxParts;
+    }
+
+    /**
+     * Sets the number of parts after which an incremental checkpoint writes all key groups again.
+     * More parts mean smaller incremental checkpoints, but more files to read on recovery.
+     *
+     * @param incrementalMaxParts The maximum number of parts of an incremental checkpoint.
+     */
+    public void setIncrementalMaxParts(int incrementalMaxParts) {
+        Preconditions.checkArgument(
+                incrementalMaxParts > 0,
+                "The maximum number of parts of an incremental checkpoint must be positive.");
+        this.incrementalMaxParts = incrementalMaxParts;
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.hashmap;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.ConfigOptions;
+
+/** Configuration options for the {@link HashMapStateBackend}. */
+@PublicEvolving
+public class HashMapStateBackendOptions {
+
+    /** The number of parts after which an incremental checkpoint writes all key groups again. */
+    public static final ConfigOption<Integer> INCREMENTAL_MAX_PARTS =
+            ConfigOptions.key("state.backend.hashmap.incremental.max-parts")
+                    .intType()
+                    .defaultValue(10)
+                    .withDescription(
+                            "The maximum number of files which an incremental checkpoint of the "
+                                    + "HashMapStateBackend is spread over. Each incremental "
+                                    + "checkpoint writes the key groups which changed since the "
+                                    + "previous checkpoint into a new file, and refers to the "
+                                    + "files of the previous checkpoints for the other key "
+                                    + "groups. Once the limit is reached, all key groups are "
+                                    + "written again, which bounds the number of files read on "
+                                    + "recovery.");
+}
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.runtime.state.KeyExtractorFunction;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.PriorityComparator;
+import org.apache.flink.util.CloseableIterator;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+import static org.apache.flink.runtime.state.heap.HeapPriorityQueueElement.NOT_CONTAINED;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link HeapPriorityQueueSet} for elements with a long priority, e.g. timers, that groups the
+ * elements into buckets of {@code bucketSize} consecutive priorities and only keeps the earliest
+ * bucket in the heap. Elements of later buckets are appended to an unordered list per bucket and
+ * are moved into the heap once all elements of earlier buckets have been polled.
+ *
+ * <p>For coarse-grained priorities, where many elements share few buckets, this makes adding and
+ * removing elements of later buckets O(1) and keeps the heap small. Removing an element of a later
+ * bucket only drops it from the de-duplication set; it is skipped when its bucket is moved into
+ * the heap, and the bucket lists are compacted once they hold more removed than live elements.
+ *
+ * <p>The priority returned by the extractor must be consistent with the element comparator, i.e.
+ * an element with a smaller extracted priority must never have a lower priority than an element
+ * with a larger one.
+ *
+ * @param <T> type of the contained elements.
+ */
+public class BucketedHeapPriorityQueueSet<T extends HeapPriorityQueueElement>
+        extends HeapPriorityQueueSet<T> {
+
+    /** Bucket lists are not compacted below this number of removed elements. */
+    private static final int MIN_REMOVED_ENTRIES_FOR_COMPACTION = 1024;
+
+    /** Function to extract the long priority that determines the bucket of an element. */
+    @Nonnull private final ToLongFunction<T> priorityExtractor;
+
+    /** The number of consecutive priorities that share a bucket. */
+    @Nonnegative private final long bucketSize;
+
+    /** The key-group range of elements that are managed by this queue. */
+    @Nonnull private final KeyGroupRange keyGroupRange;
+
+    /**
+     * Elements of buckets after {@link #currentBucket}, by bucket. The lists may contain elements
+     * that were removed in the meantime.
+     */
+    @Nonnull private final TreeMap<Long, ArrayList<T>> pendingBuckets;
+
+    /** The latest bucket whose elements are kept in the heap. */
+    private long currentBucket;
+
+    /** The number of contained elements in {@link #pendingBuckets}. */
+    @Nonnegative private int pendingSize;
+
+    /** The number of entries in {@link #pendingBuckets} that refer to removed elements. */
+    @Nonnegative private int removedPendingEntries;
+
+    /**
+     * Creates an empty {@link BucketedHeapPriorityQueueSet}.
+     *
+     * @param elementPriorityComparator comparator for the priority of contained elements.
+     * @param keyExtractor function to extract a key from the contained elements.
+     * @param priorityExtractor function to extract the priority that determines the bucket.
+     * @param bucketSize the number of consecutive priorities that share a bucket.
+     * @param minimumCapacity the minimum and initial capacity of the heap.
+     * @param keyGroupRange the key-group range of the elements in this set.
+     * @param totalNumberOfKeyGroups the total number of key-groups of the job.
+     */
+    public BucketedHeapPriorityQueueSet(
+            @Nonnull PriorityComparator<T> elementPriorityComparator,
+            @Nonnull KeyExtractorFunction<T> keyExtractor,
+            @Nonnull ToLongFunction<T> priorityExtractor,
+            long bucketSize,
+            @Nonnegative int minimumCapacity,
+            @Nonnull KeyGroupRange keyGroupRange,
+            @Nonnegative int totalNumberOfKeyGroups) {
+
+        super(
+                elementPriorityComparator,
+                keyExtractor,
+                minimumCapacity,
+                keyGroupRange,
+                totalNumberOfKeyGroups);
+
+        checkArgument(bucketSize > 0, "The bucket size must be positive.");
+        this.priorityExtractor = checkNotNull(priorityExtractor);
+        this.bucketSize = bucketSize;
+        this.keyGroupRange = keyGroupRange;
+        this.pendingBuckets = new TreeMap<>();
+        this.currentBucket = Long.MIN_VALUE;
+    }
+
+    @Override
+    @Nullable
+    public T poll() {
+        if (size == 0) {
+            return null;
+        }
+        final T head = removeInternal(getHeadElementIndex());
+        getDedupMapForElement(head).remove(head);
+        advanceIfHeapIsEmpty();
+        return head;
+    }
+
+    @Override
+    public boolean add(@Nonnull T element) {
+        if (getDedupMapForElement(element).putIfAbsent(element, element) != null) {
+            return false;
+        }
+
+        final long bucket = bucketOf(element);
+        if (size == 0) {
+            // nothing is pending if the heap is empty, so the element starts a new current bucket
+            currentBucket = Math.max(currentBucket, bucket);
+        }
+
+        if (bucket <= currentBucket) {
+            addInternal(element);
+            return element.getInternalIndex() == getHeadElementIndex();
+        } else {
+            element.setInternalIndex(NOT_CONTAINED);
+            pendingBuckets.computeIfAbsent(bucket, k -> new ArrayList<>()).add(element);
+            ++pendingSize;
+            return false;
+        }
+    }
+
+    @Override
+    public boolean remove(@Nonnull T toRemove) {
+        final T storedElement = getDedupMapForElement(toRemove).remove(toRemove);
+        if (storedElement == null) {
+            return false;
+        }
+
+        final int elementIndex = storedElement.getInternalIndex();
+        if (elementIndex == NOT_CONTAINED) {
+            --pendingSize;
+            ++removedPendingEntries;
+            compactIfNeeded();
+            return false;
+        }
+
+        removeInternal(elementIndex);
+        advanceIfHeapIsEmpty();
+        return elementIndex == getHeadElementIndex();
+    }
+
+    @Override
+    public int size() {
+        return size + pendingSize;
+    }
+
+    @Override
+    public void addAll(@Nullable Collection<? extends T> toAdd) {
+        if (toAdd == null) {
+            return;
+        }
+
+        for (T element : toAdd) {
+            add(element);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    @Override
+    public <O> O[] toArray(O[] out) {
+        final int totalSize = size();
+        final O[] result =
+                out.length < totalSize
+                        ? (O[]) Array.newInstance(out.getClass().getComponentType(), totalSize)
+                        : out;
+
+        int idx = 0;
+        final Iterator<T> elements = elementsByKeyGroup();
+        while (elements.hasNext()) {
+            result[idx++] = (O) elements.next();
+        }
+        if (result.length > totalSize) {
+            result[totalSize] = null;
+        }
+        return result;
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue. The iterator does not return the
+     * elements in any particular order.
+     *
+     * @return an iterator over the elements in this queue.
+     */
+    @Nonnull
+    @Override
+    public CloseableIterator<T> iterator() {
+        return CloseableIterator.adapterForIterator(elementsByKeyGroup());
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        pendingBuckets.clear();
+        pendingSize = 0;
+        removedPendingEntries = 0;
+        currentBucket = Long.MIN_VALUE;
+    }
+
+    private long bucketOf(T element) {
+        return Math.floorDiv(priorityExtractor.applyAsLong(element), bucketSize);
+    }
+
+    private Iterator<T> elementsByKeyGroup() {
+        return IntStream.rangeClosed(
+                        keyGroupRange.getStartKeyGroup(), keyGroupRange.getEndKeyGroup())
+                .mapToObj(this::getSubsetForKeyGroup)
+                .flatMap(Set::stream)
+                .iterator();
+    }
+
+    /** Moves the earliest pending buckets into the heap until it contains an element. */
+    private void advanceIfHeapIsEmpty() {
+        while (size == 0 && pendingSize > 0) {
+            final Map.Entry<Long, ArrayList<T>> bucket = pendingBuckets.pollFirstEntry();
+            currentBucket = bucket.getKey();
+            for (T element : bucket.getValue()) {
+                if (isPendingElement(element)) {
+                    addInternal(element);
+                    --pendingSize;
+                } else {
+                    --removedPendingEntries;
+                }
+            }
+        }
+
+        if (pendingSize == 0) {
+            // only removed elements can be left behind
+            pendingBuckets.clear();
+            removedPendingEntries = 0;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (removedPendingEntries <= Math.max(pendingSize, MIN_REMOVED_ENTRIES_FOR_COMPACTION)) {
+            return;
+        }
+
+        int remainingEntries = 0;
+        final Iterator<ArrayList<T>> buckets = pendingBuckets.values().iterator();
+        while (buckets.hasNext()) {
+            final ArrayList<T> bucket = buckets.next();
+            bucket.removeIf(element -> !isPendingElement(element));
+            if (bucket.isEmpty()) {
+                buckets.remove();
+            } else {
+                bucket.trimToSize();
+                remainingEntries += bucket.size();
+            }
+        }
+        // an element that was removed and added again can still be listed twice
+        removedPendingEntries = remainingEntries - pendingSize;
+    }
+
+    /**
+     * Checks whether the entry of a pending bucket refers to a contained element, i.e. the element
+     * is still the one stored in the de-duplication set and it was not yet moved into the heap.
+     */
+    private boolean isPendingElement(T element) {
+        return element.getInternalIndex() == NOT_CONTAINED
+                && getDedupMapForElement(element).get(element) == element;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.StateHandleID;
+import org.apache.flink.util.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The layout of an incremental snapshot of a {@link HeapKeyedStateBackend}. The key groups of such
+ * a snapshot are spread over several parts, each of which is a stream in the format of a full heap
+ * snapshot that holds a subset of the key groups. The layout records the part and the offset of
+ * each key group, and is stored as the meta data of the {@link IncrementalRemoteKeyedStateHandle},
+ * which holds the parts as its shared state.
+ */
+final class HeapIncrementalSnapshotLayout {
+
+    private static final int VERSION = 1;
+
+    private final KeyGroupRange keyGroupRange;
+
+    /** The ids of the parts in the shared state of the state handle. */
+    private final List<StateHandleID> partIds;
+
+    /** The index of the part holding each key group, by position in the key group range. */
+    private final int[] partIndexes;
+
+    /** The offset of each key group in its part, by position in the key group range. */
+    private final long[] offsets;
+
+    private HeapIncrementalSnapshotLayout(
+            KeyGroupRange keyGroupRange,
+            List<StateHandleID> partIds,
+            int[] partIndexes,
+            long[] offsets) {
+        Preconditions.checkArgument(
+                partIndexes.length == keyGroupRange.getNumberOfKeyGroups()
+                        && offsets.length == keyGroupRange.getNumberOfKeyGroups());
+        this.keyGroupRange = keyGroupRange;
+        this.partIds = Collections.unmodifiableList(partIds);
+        this.partIndexes = partIndexes;
+        this.offsets = offsets;
+    }
+
+    /** Creates the layout of a snapshot whose key groups are all held by the given part. */
+    static HeapIncrementalSnapshotLayout ofSinglePart(
+            KeyGroupRange keyGroupRange, StateHandleID partId, long[] offsets) {
+        return new HeapIncrementalSnapshotLayout(
+                keyGroupRange,
+                Collections.singletonList(partId),
+                new int[keyGroupRange.getNumberOfKeyGroups()],
+                offsets.clone());
+    }
+
+    /**
+     * Creates the layout of a snapshot whose given key groups are held by the given new part, and
+     * whose other key groups are held by the parts of this layout. Parts which do not hold any key
+     * group anymore are dropped.
+     *
+     * @param partId the id of the new part.
+     * @param keyGroupPositions the positions of the key groups in the new part.
+     * @param partOffsets the offsets of the key groups in the new part, by position.
+     */
+    HeapIncrementalSnapshotLayout withPart(
+            StateHandleID partId, BitSet keyGroupPositions, long[] partOffsets) {
+        int numKeyGroups = keyGroupRange.getNumberOfKeyGroups();
+        int[] newPartIndexes = new int[numKeyGroups];
+        long[] newOffsets = new long[numKeyGroups];
+        List<StateHandleID> newPartIds = new ArrayList<>();
+        Map<Integer, Integer> newIndexesByIndex = new HashMap<>();
+        int newPartIndex = -1;
+
+        for (int keyGroupPos = 0; keyGroupPos < numKeyGroups; keyGroupPos++) {
+            if (keyGroupPositions.get(keyGroupPos)) {
+                if (newPartIndex < 0) {
+                    newPartIndex = newPartIds.size();
+                    newPartIds.add(partId);
+                }
+                newPartIndexes[keyGroupPos] = newPartIndex;
+                newOffsets[keyGroupPos] = partOffsets[keyGroupPos];
+            } else {
+                Integer index = newIndexesByIndex.get(partIndexes[keyGroupPos]);
+                if (index == null) {
+                    index = newPartIds.size();
+                    newPartIds.add(partIds.get(partIndexes[keyGroupPos]));
+                    newIndexesByIndex.put(partIndexes[keyGroupPos], index);
+                }
+                newPartIndexes[keyGroupPos] = index;
+                newOffsets[keyGroupPos] = offsets[keyGroupPos];
+            }
+        }
+        return new HeapIncrementalSnapshotLayout(
+                keyGroupRange, newPartIds, newPartIndexes, newOffsets);
+    }
+
+    KeyGroupRange getKeyGroupRange() {
+        return keyGroupRange;
+    }
+
+    List<StateHandleID> getPartIds() {
+        return partIds;
+    }
+
+    int getNumberOfParts() {
+        return partIds.size();
+    }
+
+    /**
+     * Returns the key groups held by the given part which are also in the given key group range,
+     * together with their offsets in the part.
+     */
+    List<Tuple2<Integer, Long>> getKeyGroupOffsets(int partIndex, KeyGroupRange range) {
+        List<Tuple2<Integer, Long>> keyGroupOffsets = new ArrayList<>();
+        for (int keyGroupPos = 0; keyGroupPos < partIndexes.length; keyGroupPos++) {
+            int keyGroup = keyGroupRange.getKeyGroupId(keyGroupPos);
+            if (partIndexes[keyGroupPos] == partIndex && range.contains(keyGroup)) {
+                keyGroupOffsets.add(Tuple2.of(keyGroup, offsets[keyGroupPos]));
+            }
+        }
+        return keyGroupOffsets;
+    }
+
+    void write(DataOutputView out) throws IOException {
+        out.writeInt(VERSION);
+        out.writeInt(keyGroupRange.getStartKeyGroup());
+        out.writeInt(keyGroupRange.getNumberOfKeyGroups());
+        out.writeInt(partIds.size());
+        for (StateHandleID partId : partIds) {
+            out.writeUTF(partId.getKeyString());
+        }
+        for (int keyGroupPos = 0; keyGroupPos < partIndexes.length; keyGroupPos++) {
+            out.writeInt(partIndexes[keyGroupPos]);
+            out.writeLong(offsets[keyGroupPos]);
+        }
+    }
+
+    static HeapIncrementalSnapshotLayout read(DataInputView in) throws IOException {
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException(
+                    "Unsupported version "
+                            + version
+                            + " of an incremental heap snapshot, the supported version is "
+                            + VERSION
+                            + ".");
+        }
+        int startKeyGroup = in.readInt();
+        int numKeyGroups = in.readInt();
+        KeyGroupRange keyGroupRange =
+                numKeyGroups == 0
+                        ? KeyGroupRange.EMPTY_KEY_GROUP_RANGE
+                        : new KeyGroupRange(startKeyGroup, startKeyGroup + numKeyGroups - 1);
+
+        int numParts = in.readInt();
+        List<StateHandleID> partIds = new ArrayList<>(numParts);
+        for (int i = 0; i < numParts; i++) {
+            partIds.add(new StateHandleID(in.readUTF()));
+        }
+
+        int[] partIndexes = new int[numKeyGroups];
+        long[] offsets = new long[numKeyGroups];
+        for (int keyGroupPos = 0; keyGroupPos < numKeyGroups; keyGroupPos++) {
+            partIndexes[keyGroupPos] = in.readInt();
+            offsets[keyGroupPos] = in.readLong();
+        }
+        return new HeapIncrementalSnapshotLayout(keyGroupRange, partIds, partIndexes, offsets);
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.checkpoint.SnapshotType;
+import org.apache.flink.runtime.state.CheckpointStateOutputStream;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.SnapshotResources;
+import org.apache.flink.runtime.state.SnapshotResult;
+import org.apache.flink.runtime.state.SnapshotStrategy;
+import org.apache.flink.runtime.state.StateHandleID;
+import org.apache.flink.runtime.state.StateSnapshot;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * A strategy which takes incremental snapshots of a {@link HeapKeyedStateBackend}.
+ *
+ * <p>The key groups which changed since the last completed checkpoint, as tracked by the {@link
+ * KeyGroupChangeTracker}, are written into a new part in the shared scope. The other key groups are
+ * referenced in the parts of previous checkpoints, which are shared through the {@link
+ * org.apache.flink.runtime.state.SharedStateRegistry}. Once a snapshot would consist of more than
+ * the configured number of parts, all key groups are written again, which bounds the number of
+ * streams read on restore and the outdated state kept alive by the checkpoints.
+ *
+ * <p>Full checkpoints write all key groups into a new part which later checkpoints may reference.
+ * Savepoints are taken by the {@link HeapSnapshotStrategy}, in the format of full snapshots.
+ */
+class HeapIncrementalSnapshotStrategy<K>
+        implements SnapshotStrategy<
+                        KeyedStateHandle,
+                        HeapIncrementalSnapshotStrategy.HeapIncrementalSnapshotResources<K>>,
+                CheckpointListener {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(HeapIncrementalSnapshotStrategy.class);
+
+    /**
+     * The maximum number of tracked snapshots after the last completed checkpoint. The changes of
+     * older snapshots are merged into newer ones, if no checkpoint completes for a long time.
+     */
+    private static final int MAX_PENDING_SNAPSHOTS = 32;
+
+    private final HeapSnapshotStrategy<K> fullSnapshotStrategy;
+
+    private final KeyGroupChangeTracker changeTracker;
+
+    private final KeyGroupRange keyGroupRange;
+
+    private final int maxNumberOfParts;
+
+    /** The id of this backend, used in the keys of the shared parts. */
+    private final UUID backendIdentifier;
+
+    /** The snapshots taken after the last completed checkpoint, by checkpoint id. */
+    private final SortedMap<Long, PendingSnapshot> pendingSnapshots;
+
+    /** The snapshot of the last completed checkpoint, on which the next snapshots build. */
+    @Nullable private PreviousSnapshot lastCompletedSnapshot;
+
+    private long lastCompletedCheckpointId;
+
+    HeapIncrementalSnapshotStrategy(
+            HeapSnapshotStrategy<K> fullSnapshotStrategy,
+            KeyGroupChangeTracker changeTracker,
+            KeyGroupRange keyGroupRange,
+            int maxNumberOfParts) {
+        Preconditions.checkArgument(
+                maxNumberOfParts > 0,
+                "The maximum number of parts must be positive, but is %s.",
+                maxNumberOfParts);
+        this.fullSnapshotStrategy = fullSnapshotStrategy;
+        this.changeTracker = changeTracker;
+        this.keyGroupRange = keyGroupRange;
+        this.maxNumberOfParts = maxNumberOfParts;
+        this.backendIdentifier = UUID.randomUUID();
+        this.pendingSnapshots = new TreeMap<>();
+        this.lastCompletedCheckpointId = -1L;
+    }
+
+    @Override
+    public HeapIncrementalSnapshotResources<K> syncPrepareResources(long checkpointId) {
+        HeapSnapshotResources<K> snapshotResources =
+                fullSnapshotStrategy.syncPrepareResources(checkpointId);
+        BitSet changedKeyGroups = changeTracker.getAndResetChangedKeyGroups();
+
+        synchronized (pendingSnapshots) {
+            // the changes of snapshots which did not complete (yet) must be written again
+            BitSet keyGroupsToWrite = (BitSet) changedKeyGroups.clone();
+            for (PendingSnapshot pendingSnapshot : pendingSnapshots.values()) {
+                keyGroupsToWrite.or(pendingSnapshot.changedKeyGroups);
+            }
+
+            pendingSnapshots.put(checkpointId, new PendingSnapshot(changedKeyGroups));
+            if (pendingSnapshots.size() > MAX_PENDING_SNAPSHOTS) {
+                Iterator<PendingSnapshot> iterator = pendingSnapshots.values().iterator();
+                BitSet oldestChanges = iterator.next().changedKeyGroups;
+                iterator.remove();
+                iterator.next().changedKeyGroups.or(oldestChanges);
+            }
+
+            return new HeapIncrementalSnapshotResources<>(
+                    snapshotResources, keyGroupsToWrite, lastCompletedSnapshot);
+        }
+    }
+
+    @Override
+    public SnapshotResultSupplier<KeyedStateHandle> asyncSnapshot(
+            HeapIncrementalSnapshotResources<K> syncPartResource,
+            long checkpointId,
+            long timestamp,
+            @Nonnull CheckpointStreamFactory streamFactory,
+            @Nonnull CheckpointOptions checkpointOptions) {
+
+        HeapSnapshotResources<K> snapshotResources = syncPartResource.snapshotResources;
+        if (snapshotResources.getMetaInfoSnapshots().isEmpty()) {
+            return snapshotCloseableRegistry -> SnapshotResult.empty();
+        }
+
+        final PreviousSnapshot sharedSnapshot;
+        final SnapshotType.SharingFilesStrategy sharingFilesStrategy =
+                checkpointOptions.getCheckpointType().getSharingFilesStrategy();
+        switch (sharingFilesStrategy) {
+            case FORWARD_BACKWARD:
+                sharedSnapshot = syncPartResource.previousSnapshot;
+                break;
+            case FORWARD:
+                sharedSnapshot = null;
+                break;
+            case NO_SHARING:
+                return fullSnapshotStrategy.asyncSnapshot(
+                        snapshotResources,
+                        checkpointId,
+                        timestamp,
+                        streamFactory,
+                        checkpointOptions);
+            default:
+                throw new IllegalArgumentException(
+                        "Unsupported sharing files strategy: " + sharingFilesStrategy);
+        }
+
+        // all key groups are written again once the snapshot would consist of too many parts
+        final PreviousSnapshot previousSnapshot =
+                sharedSnapshot != null
+                                && sharedSnapshot.layout.getNumberOfParts() < maxNumberOfParts
+                        ? sharedSnapshot
+                        : null;
+        final BitSet keyGroupsToWrite;
+        if (previousSnapshot == null) {
+            keyGroupsToWrite = new BitSet(keyGroupRange.getNumberOfKeyGroups());
+            keyGroupsToWrite.set(0, keyGroupRange.getNumberOfKeyGroups());
+        } else {
+            keyGroupsToWrite = syncPartResource.keyGroupsToWrite;
+        }
+
+        return snapshotCloseableRegistry -> {
+            final HeapIncrementalSnapshotLayout layout;
+            final Map<StateHandleID, StreamStateHandle> sharedState = new HashMap<>();
+            long checkpointedSize = 0L;
+            StreamStateHandle newPart = null;
+
+            if (previousSnapshot == null || !keyGroupsToWrite.isEmpty()) {
+                final CheckpointStateOutputStream outputStream =
+                        streamFactory.createCheckpointStateOutputStream(
+                                CheckpointedStateScope.SHARED);
+                snapshotCloseableRegistry.registerCloseable(outputStream);
+                final long[] offsets =
+                        writeKeyGroups(snapshotResources, keyGroupsToWrite, outputStream);
+                if (!snapshotCloseableRegistry.unregisterCloseable(outputStream)) {
+                    throw new IOException("Stream already unregistered.");
+                }
+                newPart = outputStream.closeAndGetHandle();
+                checkpointedSize += newPart.getStateSize();
+
+                StateHandleID partId = new StateHandleID(UUID.randomUUID().toString());
+                sharedState.put(partId, newPart);
+                layout =
+                        previousSnapshot == null
+                                ? HeapIncrementalSnapshotLayout.ofSinglePart(
+                                        keyGroupRange, partId, offsets)
+                                : previousSnapshot.layout.withPart(
+                                        partId, keyGroupsToWrite, offsets);
+            } else {
+                layout = previousSnapshot.layout;
+            }
+
+            try {
+                for (StateHandleID partId : layout.getPartIds()) {
+                    if (!sharedState.containsKey(partId)) {
+                        sharedState.put(partId, previousSnapshot.parts.get(partId));
+                    }
+                }
+
+                final CheckpointStateOutputStream metaOutputStream =
+                        streamFactory.createCheckpointStateOutputStream(
+                                CheckpointedStateScope.EXCLUSIVE);
+                snapshotCloseableRegistry.registerCloseable(metaOutputStream);
+                layout.write(new DataOutputViewStreamWrapper(metaOutputStream));
+                if (!snapshotCloseableRegistry.unregisterCloseable(metaOutputStream)) {
+                    throw new IOException("Stream already unregistered.");
+                }
+                final StreamStateHandle metaStateHandle = metaOutputStream.closeAndGetHandle();
+                checkpointedSize += metaStateHandle.getStateSize();
+
+                synchronized (pendingSnapshots) {
+                    PendingSnapshot pendingSnapshot = pendingSnapshots.get(checkpointId);
+                    if (pendingSnapshot != null) {
+                        pendingSnapshot.writtenSnapshot =
+                                new PreviousSnapshot(layout, new HashMap<>(sharedState));
+                    }
+                }
+
+                LOG.debug(
+                        "Wrote {} of {} key groups in the incremental heap snapshot for "
+                                + "checkpoint {}, which consists of {} parts.",
+                        keyGroupsToWrite.cardinality(),
+                        keyGroupRange.getNumberOfKeyGroups(),
+                        checkpointId,
+                        layout.getNumberOfParts());
+
+                return SnapshotResult.of(
+                        new IncrementalRemoteKeyedStateHandle(
+                                backendIdentifier,
+                                keyGroupRange,
+                                checkpointId,
+                                sharedState,
+                                Collections.emptyMap(),
+                                metaStateHandle,
+                                checkpointedSize));
+            } catch (Exception e) {
+                if (newPart != null) {
+                    try {
+                        newPart.discardState();
+                    } catch (Exception discardException) {
+                        e.addSuppressed(discardException);
+                    }
+                }
+                throw e;
+            }
+        };
+    }
+
+    /** Writes the given key groups and returns their offsets, by position in the range. */
+    private long[] writeKeyGroups(
+            HeapSnapshotResources<K> snapshotResources,
+            BitSet keyGroupsToWrite,
+            CheckpointStateOutputStream outputStream)
+            throws IOException {
+        final KeyedBackendSerializationProxy<K> serializationProxy =
+                HeapSnapshotStrategy.createSerializationProxy(snapshotResources);
+        final Map<StateUID, Integer> stateNamesToId = snapshotResources.getStateNamesToId();
+        final Map<StateUID, StateSnapshot> cowStateStableSnapshots =
+                snapshotResources.getCowStateStableSnapshots();
+
+        final DataOutputViewStreamWrapper outView = new DataOutputViewStreamWrapper(outputStream);
+        serializationProxy.write(outView);
+
+        final long[] offsets = new long[keyGroupRange.getNumberOfKeyGroups()];
+        for (int keyGroupPos = keyGroupsToWrite.nextSetBit(0);
+                keyGroupPos >= 0;
+                keyGroupPos = keyGroupsToWrite.nextSetBit(keyGroupPos + 1)) {
+            offsets[keyGroupPos] = outputStream.getPos();
+            HeapSnapshotStrategy.writeKeyGroup(
+                    outputStream,
+                    outView,
+                    keyGroupRange.getKeyGroupId(keyGroupPos),
+                    stateNamesToId,
+                    cowStateStableSnapshots,
+                    snapshotResources.getStreamCompressionDecorator());
+        }
+        return offsets;
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) {
+        synchronized (pendingSnapshots) {
+            PendingSnapshot pendingSnapshot = pendingSnapshots.get(checkpointId);
+            // savepoints are not written as part of the incremental history
+            if (checkpointId > lastCompletedCheckpointId
+                    && pendingSnapshot != null
+                    && pendingSnapshot.writtenSnapshot != null) {
+                lastCompletedSnapshot = pendingSnapshot.writtenSnapshot;
+                lastCompletedCheckpointId = checkpointId;
+                pendingSnapshots.headMap(checkpointId + 1).clear();
+            }
+        }
+    }
+
+    @Override
+    public void notifyCheckpointAborted(long checkpointId) {
+        // the changes of the aborted snapshot stay pending and are written by the next snapshots
+    }
+
+    /** A snapshot on which later snapshots can build. */
+    private static final class PreviousSnapshot {
+
+        private final HeapIncrementalSnapshotLayout layout;
+
+        /** The parts of the snapshot by their ids. */
+        private final Map<StateHandleID, StreamStateHandle> parts;
+
+        private PreviousSnapshot(
+                HeapIncrementalSnapshotLayout layout, Map<StateHandleID, StreamStateHandle> parts) {
+            this.layout = layout;
+            this.parts = parts;
+        }
+    }
+
+    /** A snapshot which was taken after the last completed checkpoint. */
+    private static final class PendingSnapshot {
+
+        /** The positions of the key groups which changed right before the snapshot. */
+        private final BitSet changedKeyGroups;
+
+        /** The written snapshot, if it can be built upon. */
+        @Nullable private PreviousSnapshot writtenSnapshot;
+
+        private PendingSnapshot(BitSet changedKeyGroups) {
+            this.changedKeyGroups = changedKeyGroups;
+        }
+    }
+
+    /** The resources of an incremental heap snapshot. */
+    static final class HeapIncrementalSnapshotResources<K> implements SnapshotResources {
+
+        private final HeapSnapshotResources<K> snapshotResources;
+
+        /** The key groups which changed since the previous snapshot. */
+        private final BitSet keyGroupsToWrite;
+
+        @Nullable private final PreviousSnapshot previousSnapshot;
+
+        private HeapIncrementalSnapshotResources(
+                HeapSnapshotResources<K> snapshotResources,
+                BitSet keyGroupsToWrite,
+                @Nullable PreviousSnapshot previousSnapshot) {
+            this.snapshotResources = snapshotResources;
+            this.keyGroupsToWrite = keyGroupsToWrite;
+            this.previousSnapshot = previousSnapshot;
+        }
+
+        @Override
+        public void release() {
+            snapshotResources.release();
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.state.heap;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.state.CheckpointListener;
 import org.apache.flink.api.common.state.ListStateDescriptor;
 import org.apache.flink.api.common.state.MapStateDescriptor;
 import org.apache.flink.api.common.state.State;
@@ -58,10 +59,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.RunnableFuture;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -109,6 +112,9 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
     /** Factory for state that is organized as priority queue. */
     private final HeapPriorityQueuesManager priorityQueuesManager;
 
+    /** Tracks the changed key groups for incremental snapshots, null if they are not taken. */
+    @Nullable private final KeyGroupChangeTracker changeTracker;
+
     public HeapKeyedStateBackend(
             TaskKvStateRegistry kvStateRegistry,
             TypeSerializer<K> keySerializer,
@@ -126,6 +132,44 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
             SnapshotExecutionType snapshotExecutionType,
             StateTableFactory<K> stateTableFactory,
             InternalKeyContext<K> keyContext) {
+        this(
+                kvStateRegistry,
+                keySerializer,
+                userCodeClassLoader,
+                executionConfig,
+                ttlTimeProvider,
+                latencyTrackingStateConfig,
+                cancelStreamRegistry,
+                keyGroupCompressionDecorator,
+                registeredKVStates,
+                registeredPQStates,
+                localRecoveryConfig,
+                priorityQueueSetFactory,
+                checkpointStrategy,
+                snapshotExecutionType,
+                stateTableFactory,
+                keyContext,
+                null);
+    }
+
+    HeapKeyedStateBackend(
+            TaskKvStateRegistry kvStateRegistry,
+            TypeSerializer<K> keySerializer,
+            ClassLoader userCodeClassLoader,
+            ExecutionConfig executionConfig,
+            TtlTimeProvider ttlTimeProvider,
+            LatencyTrackingStateConfig latencyTrackingStateConfig,
+            CloseableRegistry cancelStreamRegistry,
+            StreamCompressionDecorator keyGroupCompressionDecorator,
+            Map<String, StateTable<K, ?, ?>> registeredKVStates,
+            Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates,
+            LocalRecoveryConfig localRecoveryConfig,
+            HeapPriorityQueueSetFactory priorityQueueSetFactory,
+            SnapshotStrategy<KeyedStateHandle, ?> checkpointStrategy,
+            SnapshotExecutionType snapshotExecutionType,
+            StateTableFactory<K> stateTableFactory,
+            InternalKeyContext<K> keyContext,
+            @Nullable KeyGroupChangeTracker changeTracker) {
         super(
                 kvStateRegistry,
                 keySerializer,
@@ -147,6 +191,10 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
                         priorityQueueSetFactory,
                         keyContext.getKeyGroupRange(),
                         keyContext.getNumberOfKeyGroups());
+        this.changeTracker = changeTracker;
+        for (StateTable<K, ?, ?> stateTable : registeredKVStates.values()) {
+            stateTable.setChangeTracker(changeTracker);
+        }
         LOG.info("Initializing heap keyed state backend with stream factory.");
     }
 
@@ -160,9 +208,31 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
             KeyGroupedInternalPriorityQueue<T> create(
                     @Nonnull String stateName,
                     @Nonnull TypeSerializer<T> byteOrderedElementSerializer) {
+        if (changeTracker != null
+                && priorityQueuesManager.getRegisteredPQStates().containsKey(stateName)) {
+            // the restored elements must be written with the possibly updated serializer
+            changeTracker.markAllChanged();
+        }
         return priorityQueuesManager.createOrUpdate(stateName, byteOrderedElementSerializer);
     }
 
+    @Nonnull
+    @Override
+    public <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            KeyGroupedInternalPriorityQueue<T> createBucketed(
+                    @Nonnull String stateName,
+                    @Nonnull TypeSerializer<T> byteOrderedElementSerializer,
+                    @Nonnull ToLongFunction<T> priorityExtractor,
+                    long bucketSize) {
+        if (changeTracker != null
+                && priorityQueuesManager.getRegisteredPQStates().containsKey(stateName)) {
+            // the restored elements must be written with the possibly updated serializer
+            changeTracker.markAllChanged();
+        }
+        return priorityQueuesManager.createOrUpdateBucketed(
+                stateName, byteOrderedElementSerializer, priorityExtractor, bucketSize);
+    }
+
     private <N, V> StateTable<K, N, V> tryRegisterStateTable(
             TypeSerializer<N> namespaceSerializer,
             StateDescriptor<?, V> stateDesc,
@@ -217,6 +287,10 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
             }
 
             stateTable.setMetaInfo(restoredKvMetaInfo);
+            if (changeTracker != null) {
+                // the key groups written with the previous serializers must be rewritten
+                changeTracker.markAllChanged();
+            }
         } else {
             RegisteredKeyValueStateBackendMetaInfo<N, V> newMetaInfo =
                     new RegisteredKeyValueStateBackendMetaInfo<>(
@@ -227,6 +301,7 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
                             snapshotTransformFactory);
 
             stateTable = stateTableFactory.newStateTable(keyContext, newMetaInfo, keySerializer);
+            stateTable.setChangeTracker(changeTracker);
             registeredKVStates.put(stateDesc.getName(), stateTable);
         }
 
@@ -333,13 +408,33 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
     }
 
     @Override
-    public void notifyCheckpointComplete(long checkpointId) {
-        // Nothing to do
+    public void setCurrentKey(K newKey) {
+        super.setCurrentKey(newKey);
+        if (changeTracker != null) {
+            changeTracker.markChanged(keyContext.getCurrentKeyGroupIndex());
+        }
+    }
+
+    @Override
+    public void setCurrentKeyGroupIndex(int currentKeyGroupIndex) {
+        super.setCurrentKeyGroupIndex(currentKeyGroupIndex);
+        if (changeTracker != null) {
+            changeTracker.markChanged(currentKeyGroupIndex);
+        }
     }
 
     @Override
-    public void notifyCheckpointAborted(long checkpointId) {
-        // nothing to do
+    public void notifyCheckpointComplete(long checkpointId) throws Exception {
+        if (checkpointStrategy instanceof CheckpointListener) {
+            ((CheckpointListener) checkpointStrategy).notifyCheckpointComplete(checkpointId);
+        }
+    }
+
+    @Override
+    public void notifyCheckpointAborted(long checkpointId) throws Exception {
+        if (checkpointStrategy instanceof CheckpointListener) {
+            ((CheckpointListener) checkpointStrategy).notifyCheckpointAborted(checkpointId);
+        }
     }
 
     @Override
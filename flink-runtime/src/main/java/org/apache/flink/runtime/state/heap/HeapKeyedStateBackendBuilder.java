@@ -29,12 +29,19 @@ import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.LocalRecoveryConfig;
 import org.apache.flink.runtime.state.RestoreOperation;
 import org.apache.flink.runtime.state.SavepointKeyedStateHandle;
+import org.apache.flink.runtime.state.SnapshotStrategy;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.hashmap.HashMapStateBackendOptions;
 import org.apache.flink.runtime.state.metrics.LatencyTrackingStateConfig;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -55,6 +62,15 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
     private final HeapPriorityQueueSetFactory priorityQueueSetFactory;
     /** Whether asynchronous snapshot is enabled. */
     private final boolean asynchronousSnapshots;
+    /** Factory for the tables which hold the key/value states. */
+    private final StateTableFactory<K> stateTableFactory;
+    /** Resources shared by the state tables, which are released when the backend is disposed. */
+    @Nullable private final Closeable stateTableResources;
+    /** Whether checkpoints only write the key groups which changed since the last checkpoint. */
+    private boolean enableIncrementalCheckpointing = false;
+    /** The number of parts after which an incremental checkpoint writes all key groups again. */
+    private int maxIncrementalCheckpointParts =
+            HashMapStateBackendOptions.INCREMENTAL_MAX_PARTS.defaultValue();
 
     public HeapKeyedStateBackendBuilder(
             TaskKvStateRegistry kvStateRegistry,
@@ -71,6 +87,42 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
             HeapPriorityQueueSetFactory priorityQueueSetFactory,
             boolean asynchronousSnapshots,
             CloseableRegistry cancelStreamRegistry) {
+        this(
+                kvStateRegistry,
+                keySerializer,
+                userCodeClassLoader,
+                numberOfKeyGroups,
+                keyGroupRange,
+                executionConfig,
+                ttlTimeProvider,
+                latencyTrackingStateConfig,
+                stateHandles,
+                keyGroupCompressionDecorator,
+                localRecoveryConfig,
+                priorityQueueSetFactory,
+                asynchronousSnapshots,
+                cancelStreamRegistry,
+                CopyOnWriteStateTable::new,
+                null);
+    }
+
+    HeapKeyedStateBackendBuilder(
+            TaskKvStateRegistry kvStateRegistry,
+            TypeSerializer<K> keySerializer,
+            ClassLoader userCodeClassLoader,
+            int numberOfKeyGroups,
+            KeyGroupRange keyGroupRange,
+            ExecutionConfig executionConfig,
+            TtlTimeProvider ttlTimeProvider,
+            LatencyTrackingStateConfig latencyTrackingStateConfig,
+            @Nonnull Collection<KeyedStateHandle> stateHandles,
+            StreamCompressionDecorator keyGroupCompressionDecorator,
+            LocalRecoveryConfig localRecoveryConfig,
+            HeapPriorityQueueSetFactory priorityQueueSetFactory,
+            boolean asynchronousSnapshots,
+            CloseableRegistry cancelStreamRegistry,
+            StateTableFactory<K> stateTableFactory,
+            @Nullable Closeable stateTableResources) {
         super(
                 kvStateRegistry,
                 keySerializer,
@@ -86,6 +138,23 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
         this.localRecoveryConfig = localRecoveryConfig;
         this.priorityQueueSetFactory = priorityQueueSetFactory;
         this.asynchronousSnapshots = asynchronousSnapshots;
+        this.stateTableFactory = stateTableFactory;
+        this.stateTableResources = stateTableResources;
+    }
+
+    public HeapKeyedStateBackendBuilder<K> setEnableIncrementalCheckpointing(
+            boolean enableIncrementalCheckpointing) {
+        this.enableIncrementalCheckpointing = enableIncrementalCheckpointing;
+        return this;
+    }
+
+    public HeapKeyedStateBackendBuilder<K> setMaxIncrementalCheckpointParts(
+            int maxIncrementalCheckpointParts) {
+        Preconditions.checkArgument(
+                maxIncrementalCheckpointParts > 0,
+                "The maximum number of parts of an incremental checkpoint must be positive.");
+        this.maxIncrementalCheckpointParts = maxIncrementalCheckpointParts;
+        return this;
     }
 
     @Override
@@ -98,12 +167,32 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
         CloseableRegistry cancelStreamRegistryForBackend = new CloseableRegistry();
         HeapSnapshotStrategy<K> snapshotStrategy =
                 initSnapshotStrategy(registeredKVStates, registeredPQStates);
+        KeyGroupChangeTracker changeTracker = null;
+        SnapshotStrategy<KeyedStateHandle, ?> checkpointStrategy = snapshotStrategy;
+        if (enableIncrementalCheckpointing) {
+            changeTracker = new KeyGroupChangeTracker(keyGroupRange);
+            checkpointStrategy =
+                    new HeapIncrementalSnapshotStrategy<>(
+                            snapshotStrategy,
+                            changeTracker,
+                            keyGroupRange,
+                            maxIncrementalCheckpointParts);
+        }
         InternalKeyContext<K> keyContext =
                 new InternalKeyContextImpl<>(keyGroupRange, numberOfKeyGroups);
 
-        final StateTableFactory<K> stateTableFactory = CopyOnWriteStateTable::new;
-
-        restoreState(registeredKVStates, registeredPQStates, keyContext, stateTableFactory);
+        try {
+            restoreState(registeredKVStates, registeredPQStates, keyContext, stateTableFactory);
+            if (stateTableResources != null) {
+                // released together with the backend
+                cancelStreamRegistryForBackend.registerCloseable(stateTableResources);
+            }
+        } catch (IOException e) {
+            IOUtils.closeQuietly(stateTableResources);
+            throw e instanceof BackendBuildingException
+                    ? (BackendBuildingException) e
+                    : new BackendBuildingException("Failed to build heap keyed state-backend", e);
+        }
         return new HeapKeyedStateBackend<>(
                 kvStateRegistry,
                 keySerializerProvider.currentSchemaSerializer(),
@@ -117,10 +206,11 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
                 registeredPQStates,
                 localRecoveryConfig,
                 priorityQueueSetFactory,
-                snapshotStrategy,
+                checkpointStrategy,
                 asynchronousSnapshots ? ASYNCHRONOUS : SYNCHRONOUS,
                 stateTableFactory,
-                keyContext);
+                keyContext,
+                changeTracker);
     }
 
     private void restoreState(
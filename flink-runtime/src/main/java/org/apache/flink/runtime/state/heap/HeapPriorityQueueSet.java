@@ -147,7 +147,7 @@ public class HeapPriorityQueueSet<T extends HeapPriorityQueueElement> extends He
         return deduplicationMapsByKeyGroup[globalKeyGroupToLocalIndex(keyGroupId)];
     }
 
-    private HashMap<T, T> getDedupMapForElement(T element) {
+    protected HashMap<T, T> getDedupMapForElement(T element) {
         int keyGroup =
                 KeyGroupRangeAssignment.assignToKeyGroup(
                         keyExtractor.extractKeyFromElement(element), totalNumberOfKeyGroups);
@@ -29,7 +29,12 @@ import org.apache.flink.runtime.state.PriorityQueueSetFactory;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 
-/** Factory for {@link HeapPriorityQueueSet}. */
+import java.util.function.ToLongFunction;
+
+/**
+ * Factory for {@link HeapPriorityQueueSet}. Bucketed queues are {@link
+ * BucketedHeapPriorityQueueSet}s.
+ */
 public class HeapPriorityQueueSetFactory implements PriorityQueueSetFactory {
 
     @Nonnull private final KeyGroupRange keyGroupRange;
@@ -62,4 +67,23 @@ public class HeapPriorityQueueSetFactory implements PriorityQueueSetFactory {
                 keyGroupRange,
                 totalKeyGroups);
     }
+
+    @Nonnull
+    @Override
+    public <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            HeapPriorityQueueSet<T> createBucketed(
+                    @Nonnull String stateName,
+                    @Nonnull TypeSerializer<T> byteOrderedElementSerializer,
+                    @Nonnull ToLongFunction<T> priorityExtractor,
+                    long bucketSize) {
+
+        return new BucketedHeapPriorityQueueSet<>(
+                PriorityComparator.forPriorityComparableObjects(),
+                KeyExtractorFunction.forKeyedObjects(),
+                priorityExtractor,
+                bucketSize,
+                minimumCapacity,
+                keyGroupRange,
+                totalKeyGroups);
+    }
 }
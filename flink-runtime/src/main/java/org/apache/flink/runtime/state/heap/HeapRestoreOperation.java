@@ -24,17 +24,19 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
-import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
 import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.RestoreOperation;
 import org.apache.flink.runtime.state.SnappyStreamCompressionDecorator;
+import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StateSerializerProvider;
 import org.apache.flink.runtime.state.StateSnapshotKeyGroupReader;
 import org.apache.flink.runtime.state.StateSnapshotRestore;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
 import org.apache.flink.util.Preconditions;
@@ -70,6 +72,7 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
     private final CloseableRegistry cancelStreamRegistry;
     @Nonnull private final KeyGroupRange keyGroupRange;
     private final HeapMetaInfoRestoreOperation<K> heapMetaInfoRestoreOperation;
+    private boolean keySerializerRestored;
 
     HeapRestoreOperation(
             @Nonnull Collection<KeyedStateHandle> restoreStateHandles,
@@ -106,7 +109,7 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
         registeredKVStates.clear();
         registeredPQStates.clear();
 
-        boolean keySerializerRestored = false;
+        keySerializerRestored = false;
 
         for (KeyedStateHandle keyedStateHandle : restoreStateHandles) {
 
@@ -114,77 +117,128 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
                 continue;
             }
 
-            if (!(keyedStateHandle instanceof KeyGroupsStateHandle)) {
+            LOG.info("Starting to restore from state handle: {}.", keyedStateHandle);
+            if (keyedStateHandle instanceof KeyGroupsStateHandle) {
+                KeyGroupsStateHandle keyGroupsStateHandle = (KeyGroupsStateHandle) keyedStateHandle;
+                restoreStateHandle(
+                        keyGroupsStateHandle, keyGroupsStateHandle.getGroupRangeOffsets());
+            } else if (keyedStateHandle instanceof IncrementalRemoteKeyedStateHandle) {
+                restoreIncrementalStateHandle(
+                        (IncrementalRemoteKeyedStateHandle) keyedStateHandle);
+            } else {
                 throw unexpectedStateHandleException(
-                        KeyGroupsStateHandle.class, keyedStateHandle.getClass());
+                        new Class[] {
+                            KeyGroupsStateHandle.class, IncrementalRemoteKeyedStateHandle.class
+                        },
+                        keyedStateHandle.getClass());
             }
+            LOG.info("Finished restoring from state handle: {}.", keyedStateHandle);
+        }
+        return null;
+    }
 
-            LOG.info("Starting to restore from state handle: {}.", keyedStateHandle);
-            KeyGroupsStateHandle keyGroupsStateHandle = (KeyGroupsStateHandle) keyedStateHandle;
-            FSDataInputStream fsDataInputStream = keyGroupsStateHandle.openInputStream();
-            cancelStreamRegistry.registerCloseable(fsDataInputStream);
-
-            try {
-                DataInputViewStreamWrapper inView =
-                        new DataInputViewStreamWrapper(fsDataInputStream);
-
-                KeyedBackendSerializationProxy<K> serializationProxy =
-                        new KeyedBackendSerializationProxy<>(userCodeClassLoader);
-
-                serializationProxy.read(inView);
-
-                if (!keySerializerRestored) {
-                    // fetch current serializer now because if it is incompatible, we can't access
-                    // it anymore to improve the error message
-                    TypeSerializer<K> currentSerializer =
-                            keySerializerProvider.currentSchemaSerializer();
-                    // check for key serializer compatibility; this also reconfigures the
-                    // key serializer to be compatible, if it is required and is possible
-                    TypeSerializerSchemaCompatibility<K> keySerializerSchemaCompat =
-                            keySerializerProvider.setPreviousSerializerSnapshotForRestoredState(
-                                    serializationProxy.getKeySerializerSnapshot());
-                    if (keySerializerSchemaCompat.isCompatibleAfterMigration()
-                            || keySerializerSchemaCompat.isIncompatible()) {
-                        throw new StateMigrationException(
-                                "The new key serializer ("
-                                        + currentSerializer
-                                        + ") must be compatible with the previous key serializer ("
-                                        + keySerializerProvider.previousSchemaSerializer()
-                                        + ").");
-                    }
-
-                    keySerializerRestored = true;
-                }
+    /**
+     * Restores an incremental snapshot, whose key groups are spread over several parts. See {@link
+     * HeapIncrementalSnapshotStrategy}.
+     */
+    private void restoreIncrementalStateHandle(IncrementalRemoteKeyedStateHandle stateHandle)
+            throws Exception {
+        final HeapIncrementalSnapshotLayout layout;
+        FSDataInputStream metaInputStream = stateHandle.getMetaStateHandle().openInputStream();
+        cancelStreamRegistry.registerCloseable(metaInputStream);
+        try {
+            layout =
+                    HeapIncrementalSnapshotLayout.read(
+                            new DataInputViewStreamWrapper(metaInputStream));
+        } finally {
+            if (cancelStreamRegistry.unregisterCloseable(metaInputStream)) {
+                IOUtils.closeQuietly(metaInputStream);
+            }
+        }
 
-                List<StateMetaInfoSnapshot> restoredMetaInfos =
-                        serializationProxy.getStateMetaInfoSnapshots();
-
-                final Map<Integer, StateMetaInfoSnapshot> kvStatesById =
-                        this.heapMetaInfoRestoreOperation.createOrCheckStateForMetaInfo(
-                                restoredMetaInfos, registeredKVStates, registeredPQStates);
-
-                readStateHandleStateData(
-                        fsDataInputStream,
-                        inView,
-                        keyGroupsStateHandle.getGroupRangeOffsets(),
-                        kvStatesById,
-                        restoredMetaInfos.size(),
-                        serializationProxy.getReadVersion(),
-                        serializationProxy.isUsingKeyGroupCompression());
-                LOG.info("Finished restoring from state handle: {}.", keyedStateHandle);
-            } finally {
-                if (cancelStreamRegistry.unregisterCloseable(fsDataInputStream)) {
-                    IOUtils.closeQuietly(fsDataInputStream);
+        List<StateHandleID> partIds = layout.getPartIds();
+        for (int partIndex = 0; partIndex < partIds.size(); partIndex++) {
+            List<Tuple2<Integer, Long>> keyGroupOffsets =
+                    layout.getKeyGroupOffsets(partIndex, keyGroupRange);
+            if (keyGroupOffsets.isEmpty()) {
+                continue;
+            }
+
+            StreamStateHandle part = stateHandle.getSharedState().get(partIds.get(partIndex));
+            if (part == null) {
+                throw new IllegalStateException(
+                        "The part "
+                                + partIds.get(partIndex)
+                                + " of the incremental snapshot is missing in the state handle.");
+            }
+            restoreStateHandle(part, keyGroupOffsets);
+        }
+    }
+
+    /** Restores the given key groups from a stream in the format of a full snapshot. */
+    private void restoreStateHandle(
+            StreamStateHandle stateHandle, Iterable<Tuple2<Integer, Long>> keyGroupOffsets)
+            throws Exception {
+        FSDataInputStream fsDataInputStream = stateHandle.openInputStream();
+        cancelStreamRegistry.registerCloseable(fsDataInputStream);
+
+        try {
+            DataInputViewStreamWrapper inView = new DataInputViewStreamWrapper(fsDataInputStream);
+
+            KeyedBackendSerializationProxy<K> serializationProxy =
+                    new KeyedBackendSerializationProxy<>(userCodeClassLoader);
+
+            serializationProxy.read(inView);
+
+            if (!keySerializerRestored) {
+                // fetch current serializer now because if it is incompatible, we can't access
+                // it anymore to improve the error message
+                TypeSerializer<K> currentSerializer =
+                        keySerializerProvider.currentSchemaSerializer();
+                // check for key serializer compatibility; this also reconfigures the
+                // key serializer to be compatible, if it is required and is possible
+                TypeSerializerSchemaCompatibility<K> keySerializerSchemaCompat =
+                        keySerializerProvider.setPreviousSerializerSnapshotForRestoredState(
+                                serializationProxy.getKeySerializerSnapshot());
+                if (keySerializerSchemaCompat.isCompatibleAfterMigration()
+                        || keySerializerSchemaCompat.isIncompatible()) {
+                    throw new StateMigrationException(
+                            "The new key serializer ("
+                                    + currentSerializer
+                                    + ") must be compatible with the previous key serializer ("
+                                    + keySerializerProvider.previousSchemaSerializer()
+                                    + ").");
                 }
+
+                keySerializerRestored = true;
+            }
+
+            List<StateMetaInfoSnapshot> restoredMetaInfos =
+                    serializationProxy.getStateMetaInfoSnapshots();
+
+            final Map<Integer, StateMetaInfoSnapshot> kvStatesById =
+                    this.heapMetaInfoRestoreOperation.createOrCheckStateForMetaInfo(
+                            restoredMetaInfos, registeredKVStates, registeredPQStates);
+
+            readStateHandleStateData(
+                    fsDataInputStream,
+                    inView,
+                    keyGroupOffsets,
+                    kvStatesById,
+                    restoredMetaInfos.size(),
+                    serializationProxy.getReadVersion(),
+                    serializationProxy.isUsingKeyGroupCompression());
+        } finally {
+            if (cancelStreamRegistry.unregisterCloseable(fsDataInputStream)) {
+                IOUtils.closeQuietly(fsDataInputStream);
             }
         }
-        return null;
     }
 
     private void readStateHandleStateData(
             FSDataInputStream fsDataInputStream,
             DataInputViewStreamWrapper inView,
-            KeyGroupRangeOffsets keyGroupOffsets,
+            Iterable<Tuple2<Integer, Long>> keyGroupOffsets,
             Map<Integer, StateMetaInfoSnapshot> kvStatesById,
             int numStates,
             int readVersion,
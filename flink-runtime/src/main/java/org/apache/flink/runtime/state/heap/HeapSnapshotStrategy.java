@@ -107,15 +107,7 @@ class HeapSnapshotStrategy<K>
         }
 
         final KeyedBackendSerializationProxy<K> serializationProxy =
-                new KeyedBackendSerializationProxy<>(
-                        // TODO: this code assumes that writing a serializer is threadsafe, we
-                        // should support to
-                        // get a serialized form already at state registration time in the future
-                        syncPartResource.getKeySerializer(),
-                        metaInfoSnapshots,
-                        !Objects.equals(
-                                UncompressedStreamCompressionDecorator.INSTANCE,
-                                keyGroupCompressionDecorator));
+                createSerializationProxy(syncPartResource);
 
         final SupplierWithException<CheckpointStreamWithResultProvider, Exception>
                 checkpointStreamSupplier =
@@ -158,20 +150,13 @@ class HeapSnapshotStrategy<K>
                     ++keyGroupPos) {
                 int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
                 keyGroupRangeOffsets[keyGroupPos] = localStream.getPos();
-                outView.writeInt(keyGroupId);
-
-                for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
-                        cowStateStableSnapshots.entrySet()) {
-                    StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
-                            stateSnapshot.getValue().getKeyGroupWriter();
-                    try (OutputStream kgCompressionOut =
-                            keyGroupCompressionDecorator.decorateWithCompression(localStream)) {
-                        DataOutputViewStreamWrapper kgCompressionView =
-                                new DataOutputViewStreamWrapper(kgCompressionOut);
-                        kgCompressionView.writeShort(stateNamesToId.get(stateSnapshot.getKey()));
-                        partitionedSnapshot.writeStateInKeyGroup(kgCompressionView, keyGroupId);
-                    } // this will just close the outer compression stream
-                }
+                writeKeyGroup(
+                        localStream,
+                        outView,
+                        keyGroupId,
+                        stateNamesToId,
+                        cowStateStableSnapshots,
+                        keyGroupCompressionDecorator);
             }
 
             if (snapshotCloseableRegistry.unregisterCloseable(streamWithResultProvider)) {
@@ -186,6 +171,43 @@ class HeapSnapshotStrategy<K>
         };
     }
 
+    static <K> KeyedBackendSerializationProxy<K> createSerializationProxy(
+            HeapSnapshotResources<K> snapshotResources) {
+        return new KeyedBackendSerializationProxy<>(
+                // TODO: this code assumes that writing a serializer is threadsafe, we should
+                // support to get a serialized form already at state registration time in the future
+                snapshotResources.getKeySerializer(),
+                snapshotResources.getMetaInfoSnapshots(),
+                !Objects.equals(
+                        UncompressedStreamCompressionDecorator.INSTANCE,
+                        snapshotResources.getStreamCompressionDecorator()));
+    }
+
+    /** Writes the state of all given snapshots in the given key group. */
+    static void writeKeyGroup(
+            CheckpointStateOutputStream outputStream,
+            DataOutputViewStreamWrapper outView,
+            int keyGroupId,
+            Map<StateUID, Integer> stateNamesToId,
+            Map<StateUID, StateSnapshot> cowStateStableSnapshots,
+            StreamCompressionDecorator keyGroupCompressionDecorator)
+            throws IOException {
+        outView.writeInt(keyGroupId);
+
+        for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
+                cowStateStableSnapshots.entrySet()) {
+            StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
+                    stateSnapshot.getValue().getKeyGroupWriter();
+            try (OutputStream kgCompressionOut =
+                    keyGroupCompressionDecorator.decorateWithCompression(outputStream)) {
+                DataOutputViewStreamWrapper kgCompressionView =
+                        new DataOutputViewStreamWrapper(kgCompressionOut);
+                kgCompressionView.writeShort(stateNamesToId.get(stateSnapshot.getKey()));
+                partitionedSnapshot.writeStateInKeyGroup(kgCompressionView, keyGroupId);
+            } // this will just close the outer compression stream
+        }
+    }
+
     public TypeSerializer<K> getKeySerializer() {
         return keySerializerProvider.currentSchemaSerializer();
     }
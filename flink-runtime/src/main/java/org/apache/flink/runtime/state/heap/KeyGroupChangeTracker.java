@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.runtime.state.KeyGroupRange;
+
+import java.util.BitSet;
+
+/**
+ * Tracks the key groups of a {@link HeapKeyedStateBackend} which may have changed since the last
+ * snapshot, so that incremental snapshots only need to write those key groups.
+ *
+ * <p>A key group is marked when a key of it is selected, because the heap states hand out their
+ * state objects, which may be modified in place. The tracker is only accessed by the task thread.
+ */
+final class KeyGroupChangeTracker {
+
+    private final KeyGroupRange keyGroupRange;
+
+    /** The positions of the changed key groups in the key group range. */
+    private BitSet changedKeyGroups;
+
+    KeyGroupChangeTracker(KeyGroupRange keyGroupRange) {
+        this.keyGroupRange = keyGroupRange;
+        this.changedKeyGroups = new BitSet(keyGroupRange.getNumberOfKeyGroups());
+    }
+
+    void markChanged(int keyGroup) {
+        int keyGroupPos = keyGroup - keyGroupRange.getStartKeyGroup();
+        // keys outside of the range fail when their state is accessed
+        if (keyGroupPos >= 0 && keyGroupPos < keyGroupRange.getNumberOfKeyGroups()) {
+            changedKeyGroups.set(keyGroupPos);
+        }
+    }
+
+    /**
+     * Marks all key groups, e.g. because the serializers of a state changed and all of its key
+     * groups must be written with the new serializers.
+     */
+    void markAllChanged() {
+        changedKeyGroups.set(0, keyGroupRange.getNumberOfKeyGroups());
+    }
+
+    /**
+     * Returns the positions of the key groups which changed since the last call, and starts
+     * tracking anew.
+     */
+    BitSet getAndResetChangedKeyGroups() {
+        BitSet result = changedKeyGroups;
+        changedKeyGroups = new BitSet(keyGroupRange.getNumberOfKeyGroups());
+        return result;
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.flink.runtime.state.internal.InternalKvState.StateIncrementalV
 import org.apache.flink.util.Preconditions;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -75,6 +76,9 @@ public abstract class StateTable<K, N, S>
      */
     protected final StateMap<K, N, S>[] keyGroupedStateMaps;
 
+    /** Tracks the key groups changed outside of the key context, null if not tracked. */
+    @Nullable private KeyGroupChangeTracker changeTracker;
+
     /**
      * @param keyContext the key context provides the key scope for all put/get/delete operations.
      * @param metaInfo the meta information, including the type serializer for state copy-on-write.
@@ -102,6 +106,10 @@ public abstract class StateTable<K, N, S>
 
     protected abstract StateMap<K, N, S> createStateMap();
 
+    void setChangeTracker(@Nullable KeyGroupChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
     @Override
     @Nonnull
     public abstract IterableStateSnapshot<K, N, S> stateSnapshot();
@@ -429,12 +437,20 @@ public abstract class StateTable<K, N, S>
         public void remove(StateEntry<K, N, S> stateEntry) {
             keyGroupedStateMaps[keyGroupIndex - 1].remove(
                     stateEntry.getKey(), stateEntry.getNamespace());
+            markChanged();
         }
 
         @Override
         public void update(StateEntry<K, N, S> stateEntry, S newValue) {
             keyGroupedStateMaps[keyGroupIndex - 1].put(
                     stateEntry.getKey(), stateEntry.getNamespace(), newValue);
+            markChanged();
+        }
+
+        private void markChanged() {
+            if (changeTracker != null) {
+                changeTracker.markChanged(getKeyGroupOffset() + keyGroupIndex - 1);
+            }
         }
     }
 }
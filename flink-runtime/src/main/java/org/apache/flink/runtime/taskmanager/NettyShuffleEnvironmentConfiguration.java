@@ -27,6 +27,7 @@ import org.apache.flink.runtime.io.network.netty.NettyConfig;
 import org.apache.flink.runtime.io.network.partition.BoundedBlockingSubpartitionType;
 import org.apache.flink.runtime.throughput.BufferDebloatConfiguration;
 import org.apache.flink.runtime.util.ConfigurationParserUtils;
+import org.apache.flink.util.MathUtils;
 import org.apache.flink.util.Preconditions;
 
 import org.slf4j.Logger;
@@ -71,6 +72,9 @@ public class NettyShuffleEnvironmentConfiguration {
 
     private final int sortShuffleMinParallelism;
 
+    /** Number of bytes to read ahead from the data file of a sort-shuffle result partition. */
+    private final int sortShuffleReadAheadSize;
+
     /** Size of direct memory to be allocated for blocking shuffle data read. */
     private final long batchShuffleReadMemoryBytes;
 
@@ -88,6 +92,8 @@ public class NettyShuffleEnvironmentConfiguration {
 
     private final String compressionCodec;
 
+    private final int zstdCompressionLevel;
+
     private final int maxBuffersPerChannel;
 
     private final BufferDebloatConfiguration debloatConfiguration;
@@ -111,10 +117,12 @@ public class NettyShuffleEnvironmentConfiguration {
             BoundedBlockingSubpartitionType blockingSubpartitionType,
             boolean blockingShuffleCompressionEnabled,
             String compressionCodec,
+            int zstdCompressionLevel,
             int maxBuffersPerChannel,
             long batchShuffleReadMemoryBytes,
             int sortShuffleMinBuffers,
             int sortShuffleMinParallelism,
+            int sortShuffleReadAheadSize,
             BufferDebloatConfiguration debloatConfiguration,
             int maxNumberOfConnections,
             boolean connectionReuseEnabled) {
@@ -132,10 +140,12 @@ public class NettyShuffleEnvironmentConfiguration {
         this.blockingSubpartitionType = Preconditions.checkNotNull(blockingSubpartitionType);
         this.blockingShuffleCompressionEnabled = blockingShuffleCompressionEnabled;
         this.compressionCodec = Preconditions.checkNotNull(compressionCodec);
+        this.zstdCompressionLevel = zstdCompressionLevel;
         this.maxBuffersPerChannel = maxBuffersPerChannel;
         this.batchShuffleReadMemoryBytes = batchShuffleReadMemoryBytes;
         this.sortShuffleMinBuffers = sortShuffleMinBuffers;
         this.sortShuffleMinParallelism = sortShuffleMinParallelism;
+        this.sortShuffleReadAheadSize = sortShuffleReadAheadSize;
         this.debloatConfiguration = debloatConfiguration;
         this.maxNumberOfConnections = maxNumberOfConnections;
         this.connectionReuseEnabled = connectionReuseEnabled;
@@ -179,6 +189,10 @@ public class NettyShuffleEnvironmentConfiguration {
         return sortShuffleMinParallelism;
     }
 
+    public int sortShuffleReadAheadSize() {
+        return sortShuffleReadAheadSize;
+    }
+
     public Duration getRequestSegmentsTimeout() {
         return requestSegmentsTimeout;
     }
@@ -219,6 +233,10 @@ public class NettyShuffleEnvironmentConfiguration {
         return compressionCodec;
     }
 
+    public int getZstdCompressionLevel() {
+        return zstdCompressionLevel;
+    }
+
     public int getMaxBuffersPerChannel() {
         return maxBuffersPerChannel;
     }
@@ -287,6 +305,13 @@ public class NettyShuffleEnvironmentConfiguration {
         int sortShuffleMinParallelism =
                 configuration.getInteger(
                         NettyShuffleEnvironmentOptions.NETWORK_SORT_SHUFFLE_MIN_PARALLELISM);
+        int sortShuffleReadAheadSize =
+                MathUtils.checkedDownCast(
+                        configuration
+                                .get(
+                                        NettyShuffleEnvironmentOptions
+                                                .NETWORK_SORT_SHUFFLE_READ_AHEAD_SIZE)
+                                .getBytes());
 
         boolean isNetworkDetailedMetrics =
                 configuration.getBoolean(NettyShuffleEnvironmentOptions.NETWORK_DETAILED_METRICS);
@@ -311,6 +336,8 @@ public class NettyShuffleEnvironmentConfiguration {
                         NettyShuffleEnvironmentOptions.BLOCKING_SHUFFLE_COMPRESSION_ENABLED);
         String compressionCodec =
                 configuration.getString(NettyShuffleEnvironmentOptions.SHUFFLE_COMPRESSION_CODEC);
+        int zstdCompressionLevel =
+                configuration.get(NettyShuffleEnvironmentOptions.SHUFFLE_COMPRESSION_ZSTD_LEVEL);
 
         int maxNumConnections =
                 Math.max(
@@ -336,10 +363,12 @@ public class NettyShuffleEnvironmentConfiguration {
                 blockingSubpartitionType,
                 blockingShuffleCompressionEnabled,
                 compressionCodec,
+                zstdCompressionLevel,
                 maxBuffersPerChannel,
                 batchShuffleReadMemoryBytes,
                 sortShuffleMinBuffers,
                 sortShuffleMinParallelism,
+                sortShuffleReadAheadSize,
                 BufferDebloatConfiguration.fromConfiguration(configuration),
                 maxNumConnections,
                 connectionReuseEnabled);
@@ -475,10 +504,12 @@ public class NettyShuffleEnvironmentConfiguration {
         result = 31 * result + Arrays.hashCode(tempDirs);
         result = 31 * result + (blockingShuffleCompressionEnabled ? 1 : 0);
         result = 31 * result + Objects.hashCode(compressionCodec);
+        result = 31 * result + zstdCompressionLevel;
         result = 31 * result + maxBuffersPerChannel;
         result = 31 * result + Objects.hashCode(batchShuffleReadMemoryBytes);
         result = 31 * result + sortShuffleMinBuffers;
         result = 31 * result + sortShuffleMinParallelism;
+        result = 31 * result + sortShuffleReadAheadSize;
         result = 31 * result + maxNumberOfConnections;
         result = 31 * result + (connectionReuseEnabled ? 1 : 0);
         return result;
@@ -503,6 +534,7 @@ public class NettyShuffleEnvironmentConfiguration {
                     && this.batchShuffleReadMemoryBytes == that.batchShuffleReadMemoryBytes
                     && this.sortShuffleMinBuffers == that.sortShuffleMinBuffers
                     && this.sortShuffleMinParallelism == that.sortShuffleMinParallelism
+                    && this.sortShuffleReadAheadSize == that.sortShuffleReadAheadSize
                     && this.requestSegmentsTimeout.equals(that.requestSegmentsTimeout)
                     && (nettyConfig != null
                             ? nettyConfig.equals(that.nettyConfig)
@@ -512,6 +544,7 @@ public class NettyShuffleEnvironmentConfiguration {
                             == that.blockingShuffleCompressionEnabled
                     && this.maxBuffersPerChannel == that.maxBuffersPerChannel
                     && Objects.equals(this.compressionCodec, that.compressionCodec)
+                    && this.zstdCompressionLevel == that.zstdCompressionLevel
                     && this.maxNumberOfConnections == that.maxNumberOfConnections
                     && this.connectionReuseEnabled == that.connectionReuseEnabled;
         }
@@ -542,6 +575,8 @@ public class NettyShuffleEnvironmentConfiguration {
                 + blockingShuffleCompressionEnabled
                 + ", compressionCodec="
                 + compressionCodec
+                + ", zstdCompressionLevel="
+                + zstdCompressionLevel
                 + ", maxBuffersPerChannel="
                 + maxBuffersPerChannel
                 + ", batchShuffleReadMemoryBytes="
@@ -550,6 +585,8 @@ public class NettyShuffleEnvironmentConfiguration {
                 + sortShuffleMinBuffers
                 + ", sortShuffleMinParallelism="
                 + sortShuffleMinParallelism
+                + ", sortShuffleReadAheadSize="
+                + sortShuffleReadAheadSize
                 + ", maxNumberOfConnections="
                 + maxNumberOfConnections
                 + ", connectionReuseEnabled="
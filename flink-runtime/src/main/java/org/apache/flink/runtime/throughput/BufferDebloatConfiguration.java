@@ -23,6 +23,7 @@ import org.apache.flink.configuration.TaskManagerOptions;
 
 import java.time.Duration;
 
+import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_PER_CHANNEL;
 import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_SAMPLES;
 import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_TARGET;
 import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_THRESHOLD_PERCENTAGES;
@@ -37,6 +38,7 @@ public final class BufferDebloatConfiguration {
     private final int bufferDebloatThresholdPercentages;
     private final int numberOfSamples;
     private final boolean enabled;
+    private final boolean perChannel;
 
     private BufferDebloatConfiguration(
             boolean enabled,
@@ -44,19 +46,26 @@ public final class BufferDebloatConfiguration {
             int maxBufferSize,
             int minBufferSize,
             int bufferDebloatThresholdPercentages,
-            int numberOfSamples) {
+            int numberOfSamples,
+            boolean perChannel) {
         this.targetTotalBufferSize = checkNotNull(targetTotalBufferSize);
         this.maxBufferSize = maxBufferSize;
         this.minBufferSize = minBufferSize;
         this.bufferDebloatThresholdPercentages = bufferDebloatThresholdPercentages;
         this.numberOfSamples = numberOfSamples;
         this.enabled = enabled;
+        this.perChannel = perChannel;
     }
 
     public boolean isEnabled() {
         return enabled;
     }
 
+    /** Whether the buffer size is debloated for every input channel individually. */
+    public boolean isPerChannel() {
+        return perChannel;
+    }
+
     public Duration getTargetTotalBufferSize() {
         return targetTotalBufferSize;
     }
@@ -100,6 +109,7 @@ public final class BufferDebloatConfiguration {
                 maxBufferSize,
                 minBufferSize,
                 bufferDebloatThresholdPercentages,
-                numberOfSamples);
+                numberOfSamples,
+                config.get(BUFFER_DEBLOAT_PER_CHANNEL));
     }
 }
@@ -22,6 +22,7 @@ import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
+import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.io.network.partition.TestingJobMasterPartitionTracker;
@@ -159,6 +160,40 @@ public class ExecutionVertexTest extends TestLogger {
         assertThat(sourceExecutionVertex.findLastLocation()).hasValue(taskManagerLocation);
     }
 
+    @Test
+    public void testSpeculativeExecutionFinishingFirstBecomesCurrentExecution() throws Exception {
+        final JobVertex jobVertex = ExecutionGraphTestUtils.createNoOpVertex(1);
+        final ExecutionGraph executionGraph =
+                ExecutionGraphTestUtils.createExecutionGraph(
+                        EXECUTOR_RESOURCE.getExecutor(), jobVertex);
+        final ExecutionVertex executionVertex =
+                executionGraph.getJobVertex(jobVertex.getID()).getTaskVertices()[0];
+
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        originalExecution.transitionState(ExecutionState.DEPLOYING);
+
+        final Execution speculativeExecution =
+                executionVertex.createNewSpeculativeExecution(System.currentTimeMillis());
+        speculativeExecution.transitionState(ExecutionState.DEPLOYING);
+
+        assertThat(speculativeExecution.getAttemptNumber())
+                .isGreaterThan(originalExecution.getAttemptNumber());
+        assertThat(executionVertex.getCurrentExecutions())
+                .containsExactly(originalExecution, speculativeExecution);
+        assertThat(executionVertex.getNumberOfUnterminatedExecutions()).isEqualTo(2);
+
+        speculativeExecution.markFinished();
+
+        assertThat(executionVertex.getCurrentExecutionAttempt()).isSameAs(speculativeExecution);
+        assertThat(executionVertex.getExecutionState()).isEqualTo(ExecutionState.FINISHED);
+        assertThat(originalExecution.getState()).isEqualTo(ExecutionState.CANCELING);
+
+        originalExecution.completeCancelling();
+
+        assertThat(executionVertex.getExecutionState()).isEqualTo(ExecutionState.FINISHED);
+        assertThat(executionVertex.getNumberOfUnterminatedExecutions()).isZero();
+    }
+
     private void cancelExecution(Execution execution) {
         execution.cancel();
         execution.completeCancelling();
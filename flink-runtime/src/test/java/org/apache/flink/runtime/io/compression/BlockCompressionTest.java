@@ -25,13 +25,38 @@ import java.nio.ByteBuffer;
 
 import static org.apache.flink.runtime.io.compression.Lz4BlockCompressionFactory.HEADER_LENGTH;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /** Tests for block compression. */
 public class BlockCompressionTest {
 
     @Test
     public void testLz4() {
-        BlockCompressionFactory factory = new Lz4BlockCompressionFactory();
+        runAllTests(new Lz4BlockCompressionFactory());
+    }
+
+    @Test
+    public void testZstd() {
+        runAllTests(new ZstdBlockCompressionFactory());
+        runAllTests(new ZstdBlockCompressionFactory(19));
+    }
+
+    @Test
+    public void testSnappy() {
+        runAllTests(new SnappyBlockCompressionFactory());
+    }
+
+    @Test
+    public void testCreateBlockCompressionFactory() {
+        assertTrue(
+                BlockCompressionFactory.createBlockCompressionFactory("zstd")
+                        instanceof ZstdBlockCompressionFactory);
+        assertTrue(
+                BlockCompressionFactory.createBlockCompressionFactory("SNAPPY")
+                        instanceof SnappyBlockCompressionFactory);
+    }
+
+    private void runAllTests(BlockCompressionFactory factory) {
         runArrayTest(factory, 32768);
         runArrayTest(factory, 16);
 
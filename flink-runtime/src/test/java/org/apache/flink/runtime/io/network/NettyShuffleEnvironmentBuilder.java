@@ -21,6 +21,7 @@ package org.apache.flink.runtime.io.network;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.io.compression.ZstdBlockCompressionFactory;
 import org.apache.flink.runtime.io.network.netty.NettyConfig;
 import org.apache.flink.runtime.io.network.partition.BoundedBlockingSubpartitionType;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionManager;
@@ -211,10 +212,12 @@ public class NettyShuffleEnvironmentBuilder {
                         BoundedBlockingSubpartitionType.AUTO,
                         blockingShuffleCompressionEnabled,
                         compressionCodec,
+                        ZstdBlockCompressionFactory.DEFAULT_COMPRESSION_LEVEL,
                         maxBuffersPerChannel,
                         batchShuffleReadMemoryBytes,
                         sortShuffleMinBuffers,
                         sortShuffleMinParallelism,
+                        0,
                         debloatConfiguration,
                         maxNumberOfConnections,
                         connectionReuseEnabled),
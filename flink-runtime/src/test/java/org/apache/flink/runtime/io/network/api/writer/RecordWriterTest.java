@@ -58,6 +58,9 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 import static org.apache.flink.runtime.io.network.partition.PartitionTestUtils.createPartition;
@@ -292,6 +295,59 @@ public class RecordWriterTest {
         }
     }
 
+    /** Tests that batched records are emitted as blocks at the latest before events. */
+    @Test
+    public void testRecordBatching() throws Exception {
+        final int numberOfChannels = 2;
+        final int numValues = 20;
+        final byte blockMarker = 42;
+
+        final ResultPartition partition = createResultPartition(1024, numberOfChannels);
+        final RecordWriter<IntValue> writer = createRecordWriter(partition);
+        // a block is finished after six values
+        writer.enableRecordBatching(32, blockMarker, Runnable::run);
+
+        for (int i = 0; i < numValues; i++) {
+            writer.emit(new IntValue(i));
+        }
+        writer.broadcastEvent(EndOfPartitionEvent.INSTANCE);
+
+        final List<Integer> allValues = new ArrayList<>();
+        for (int i = 0; i < numberOfChannels; i++) {
+            ResultSubpartitionView view =
+                    partition.createSubpartitionView(i, new NoOpBufferAvailablityListener());
+            RecordDeserializer<IntValueBlock> deserializer =
+                    new SpillingAdaptiveSpanningRecordDeserializer<>(
+                            new String[] {tempFolder.getRoot().getAbsolutePath()});
+            deserializer.setNextBuffer(view.getNextBuffer().buffer());
+
+            IntValueBlock block = new IntValueBlock(blockMarker);
+            List<Integer> values = new ArrayList<>();
+            RecordDeserializer.DeserializationResult result;
+            do {
+                result = deserializer.getNextRecord(block);
+                if (result.isFullRecord()) {
+                    assertTrue(block.values.size() <= 6);
+                    values.addAll(block.values);
+                }
+            } while (!result.isBufferConsumed());
+            assertFalse(view.getNextBuffer().buffer().isBuffer());
+
+            if (isBroadcastWriter) {
+                assertEquals(numValues, values.size());
+            } else {
+                assertEquals(numValues / numberOfChannels, values.size());
+            }
+            allValues.addAll(values);
+        }
+
+        Collections.sort(allValues);
+        for (int i = 0; i < allValues.size(); i++) {
+            int expected = isBroadcastWriter ? i / numberOfChannels : i;
+            assertEquals(expected, (int) allValues.get(i));
+        }
+    }
+
     /**
      * Tests that the RecordWriter is available iif the respective LocalBufferPool has at-least one
      * available buffer.
@@ -413,6 +469,33 @@ public class RecordWriterTest {
         }
     }
 
+    /** Reads a block of {@link IntValue IntValues} written by a batching record writer. */
+    private static class IntValueBlock implements IOReadableWritable {
+
+        private final byte marker;
+
+        private final List<Integer> values = new ArrayList<>();
+
+        IntValueBlock(byte marker) {
+            this.marker = marker;
+        }
+
+        @Override
+        public void write(DataOutputView out) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void read(DataInputView in) throws IOException {
+            assertEquals(marker, in.readByte());
+            values.clear();
+            int numValues = in.readInt();
+            for (int i = 0; i < numValues; i++) {
+                values.add(in.readInt());
+            }
+        }
+    }
+
     private static class ByteArrayIO implements IOReadableWritable {
 
         private final byte[] bytes;
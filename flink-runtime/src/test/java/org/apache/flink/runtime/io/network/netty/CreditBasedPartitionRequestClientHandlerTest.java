@@ -31,10 +31,12 @@ import org.apache.flink.runtime.io.network.buffer.BufferPool;
 import org.apache.flink.runtime.io.network.buffer.BufferProvider;
 import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.AddCredit;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.AddCreditBatch;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.BufferResponse;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.CloseRequest;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.ErrorResponse;
 import org.apache.flink.runtime.io.network.netty.NettyMessage.PartitionRequest;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.PartitionRequestBatch;
 import org.apache.flink.runtime.io.network.netty.exception.LocalTransportException;
 import org.apache.flink.runtime.io.network.netty.exception.RemoteTransportException;
 import org.apache.flink.runtime.io.network.netty.exception.TransportException;
@@ -507,6 +509,94 @@ public class CreditBasedPartitionRequestClientHandlerTest {
         }
     }
 
+    /**
+     * Verifies that the partition requests and credit announcements queued while the channel is
+     * not writable are combined into a single message each.
+     */
+    @Test
+    public void testCombineQueuedPartitionRequestsAndCredits() throws Exception {
+        final int numInputChannels = 3;
+        final CreditBasedPartitionRequestClientHandler handler =
+                new CreditBasedPartitionRequestClientHandler(numInputChannels);
+        final NetworkBufferAllocator allocator = new NetworkBufferAllocator(handler);
+        final EmbeddedChannel channel = new EmbeddedChannel(handler);
+        final PartitionRequestClientFactory clientFactory =
+                mock(PartitionRequestClientFactory.class);
+        when(clientFactory.isMessageBatchingEnabled()).thenReturn(true);
+        final PartitionRequestClient client =
+                new NettyPartitionRequestClient(
+                        channel, handler, mock(ConnectionID.class), clientFactory);
+
+        final NetworkBufferPool networkBufferPool = new NetworkBufferPool(20, 32);
+        final SingleInputGate inputGate =
+                createSingleInputGate(numInputChannels, networkBufferPool);
+        final RemoteInputChannel[] inputChannels = new RemoteInputChannel[numInputChannels];
+        for (int i = 0; i < numInputChannels; i++) {
+            inputChannels[i] = createRemoteInputChannel(inputGate, client);
+        }
+        try {
+            inputGate.setInputChannels(inputChannels);
+            final BufferPool bufferPool = networkBufferPool.createBufferPool(9, 9);
+            inputGate.setBufferPool(bufferPool);
+            inputGate.setupChannels();
+
+            ByteBuf channelBlockingBuffer = blockChannel(channel);
+            for (RemoteInputChannel inputChannel : inputChannels) {
+                inputChannel.requestSubpartition();
+            }
+            channel.runPendingTasks();
+            assertNull(channel.readOutbound());
+
+            channel.flush();
+            assertSame(channelBlockingBuffer, channel.readOutbound());
+
+            Object readFromOutbound = channel.readOutbound();
+            assertThat(readFromOutbound, instanceOf(PartitionRequestBatch.class));
+            PartitionRequestBatch requestBatch = (PartitionRequestBatch) readFromOutbound;
+            assertEquals(numInputChannels, requestBatch.requests.size());
+            for (int i = 0; i < numInputChannels; i++) {
+                assertEquals(
+                        inputChannels[i].getInputChannelId(),
+                        requestBatch.requests.get(i).receiverId);
+                assertEquals(2, requestBatch.requests.get(i).credit);
+            }
+            assertNull(channel.readOutbound());
+
+            channelBlockingBuffer = blockChannel(channel);
+            for (RemoteInputChannel inputChannel : inputChannels) {
+                handler.channelRead(
+                        mock(ChannelHandlerContext.class),
+                        createBufferResponse(
+                                TestBufferFactory.createBuffer(32),
+                                0,
+                                inputChannel.getInputChannelId(),
+                                1,
+                                allocator));
+            }
+            channel.runPendingTasks();
+            assertNull(channel.readOutbound());
+
+            channel.flush();
+            assertSame(channelBlockingBuffer, channel.readOutbound());
+
+            readFromOutbound = channel.readOutbound();
+            assertThat(readFromOutbound, instanceOf(AddCreditBatch.class));
+            AddCreditBatch creditBatch = (AddCreditBatch) readFromOutbound;
+            assertEquals(numInputChannels, creditBatch.credits.size());
+            for (int i = 0; i < numInputChannels; i++) {
+                assertEquals(
+                        inputChannels[i].getInputChannelId(),
+                        creditBatch.credits.get(i).receiverId);
+                assertEquals(2, creditBatch.credits.get(i).credit);
+                assertEquals(0, inputChannels[i].getUnannouncedCredit());
+            }
+            assertNull(channel.readOutbound());
+        } finally {
+            releaseResource(inputGate, networkBufferPool);
+            channel.close();
+        }
+    }
+
     /**
      * Verifies that {@link RemoteInputChannel} is enqueued in the pipeline, but {@link AddCredit}
      * message is not sent actually when this input channel is released.
@@ -29,6 +29,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.apache.flink.runtime.io.network.netty.NettyTestUtil.encodeAndDecode;
@@ -76,6 +77,33 @@ public class NettyMessageServerSideSerializationTest extends TestLogger {
         assertEquals(expected.credit, actual.credit);
     }
 
+    @Test
+    public void testPartitionRequestBatch() {
+        NettyMessage.PartitionRequestBatch expected =
+                new NettyMessage.PartitionRequestBatch(
+                        Arrays.asList(
+                                new NettyMessage.PartitionRequest(
+                                        new ResultPartitionID(),
+                                        random.nextInt(),
+                                        new InputChannelID(),
+                                        random.nextInt()),
+                                new NettyMessage.PartitionRequest(
+                                        new ResultPartitionID(),
+                                        random.nextInt(),
+                                        new InputChannelID(),
+                                        random.nextInt())));
+
+        NettyMessage.PartitionRequestBatch actual = encodeAndDecode(expected, channel);
+
+        assertEquals(expected.requests.size(), actual.requests.size());
+        for (int i = 0; i < expected.requests.size(); i++) {
+            assertEquals(expected.requests.get(i).partitionId, actual.requests.get(i).partitionId);
+            assertEquals(expected.requests.get(i).queueIndex, actual.requests.get(i).queueIndex);
+            assertEquals(expected.requests.get(i).receiverId, actual.requests.get(i).receiverId);
+            assertEquals(expected.requests.get(i).credit, actual.requests.get(i).credit);
+        }
+    }
+
     @Test
     public void testTaskEventRequest() {
         NettyMessage.TaskEventRequest expected =
@@ -118,6 +146,26 @@ public class NettyMessageServerSideSerializationTest extends TestLogger {
         assertEquals(expected.receiverId, actual.receiverId);
     }
 
+    @Test
+    public void testAddCreditBatch() {
+        NettyMessage.AddCreditBatch expected =
+                new NettyMessage.AddCreditBatch(
+                        Arrays.asList(
+                                new NettyMessage.AddCredit(
+                                        random.nextInt(Integer.MAX_VALUE) + 1,
+                                        new InputChannelID()),
+                                new NettyMessage.AddCredit(
+                                        random.nextInt(Integer.MAX_VALUE) + 1,
+                                        new InputChannelID())));
+        NettyMessage.AddCreditBatch actual = encodeAndDecode(expected, channel);
+
+        assertEquals(expected.credits.size(), actual.credits.size());
+        for (int i = 0; i < expected.credits.size(); i++) {
+            assertEquals(expected.credits.get(i).credit, actual.credits.get(i).credit);
+            assertEquals(expected.credits.get(i).receiverId, actual.credits.get(i).receiverId);
+        }
+    }
+
     @Test
     public void testResumeConsumption() {
         NettyMessage.ResumeConsumption expected =
@@ -146,4 +194,13 @@ public class NettyMessageServerSideSerializationTest extends TestLogger {
         assertEquals(expected.bufferSize, actual.bufferSize);
         assertEquals(expected.receiverId, actual.receiverId);
     }
+
+    @Test
+    public void testSharedMemoryRegionRequest() {
+        NettyMessage.SharedMemoryRegionRequest expected =
+                new NettyMessage.SharedMemoryRegionRequest("/dev/shm/flink-netty-shm-1.tmp");
+        NettyMessage.SharedMemoryRegionRequest actual = encodeAndDecode(expected, channel);
+
+        assertEquals(expected.path, actual.path);
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.netty;
+
+import org.apache.flink.util.TestLogger;
+
+import org.apache.flink.shaded.netty4.io.netty.buffer.ByteBuf;
+import org.apache.flink.shaded.netty4.io.netty.buffer.Unpooled;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/** Tests for {@link SharedMemoryRegion}. */
+public class SharedMemoryRegionTest extends TestLogger {
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndReadAcrossMappings() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        try (SharedMemoryRegion client = SharedMemoryRegion.create(directory, 16);
+                SharedMemoryRegion server = SharedMemoryRegion.open(client.getFile())) {
+            // the server removes the file as soon as both sides have mapped it
+            assertFalse(client.getFile().exists());
+            assertEquals(16, server.getCapacity());
+
+            long first = server.tryWrite(data(10, 1));
+            assertEquals(0, first);
+            // the tail of the ring is skipped instead of wrapping the data around
+            long second = server.tryWrite(data(10, 2));
+            assertEquals(16, second);
+            // the first data is not released yet
+            assertEquals(-1, server.tryWrite(data(4, 3)));
+
+            assertArrayEquals(data(10, 1).array(), read(client, first, 10));
+            long third = server.tryWrite(data(4, 3));
+            assertEquals(26, third);
+
+            assertArrayEquals(data(10, 2).array(), read(client, second, 10));
+            assertArrayEquals(data(4, 3).array(), read(client, third, 4));
+        }
+    }
+
+    @Test
+    public void testReleaseWithoutTarget() throws Exception {
+        try (SharedMemoryRegion client =
+                        SharedMemoryRegion.create(temporaryFolder.newFolder(), 16);
+                SharedMemoryRegion server = SharedMemoryRegion.open(client.getFile())) {
+            long position = server.tryWrite(data(16, 1));
+            assertEquals(-1, server.tryWrite(data(1, 2)));
+
+            client.read(position, 16, null);
+            assertEquals(16, server.tryWrite(data(1, 2)));
+        }
+    }
+
+    @Test
+    public void testDataLargerThanRegionIsRejected() throws Exception {
+        try (SharedMemoryRegion client =
+                        SharedMemoryRegion.create(temporaryFolder.newFolder(), 16);
+                SharedMemoryRegion server = SharedMemoryRegion.open(client.getFile())) {
+            assertEquals(-1, server.tryWrite(data(17, 1)));
+            assertEquals(0, server.tryWrite(data(16, 1)));
+        }
+    }
+
+    private static ByteBuffer data(int size, int seed) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (seed * 31 + i);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static byte[] read(SharedMemoryRegion region, long position, int size) {
+        ByteBuf target = Unpooled.buffer(size);
+        try {
+            region.read(position, size, target);
+            byte[] bytes = new byte[size];
+            target.readBytes(bytes);
+            return bytes;
+        } finally {
+            target.release();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.netty;
+
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.network.TaskEventDispatcher;
+import org.apache.flink.runtime.io.network.TestingPartitionRequestClient;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
+import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.BufferResponse;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.PartitionRequest;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.SharedMemoryBufferResponse;
+import org.apache.flink.runtime.io.network.netty.NettyMessage.SharedMemoryRegionRequest;
+import org.apache.flink.runtime.io.network.netty.NettyTestUtil.NettyServerAndClient;
+import org.apache.flink.runtime.io.network.partition.NoOpResultSubpartitionView;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
+import org.apache.flink.runtime.io.network.partition.ResultSubpartition.BufferAndBacklog;
+import org.apache.flink.runtime.io.network.partition.consumer.RemoteInputChannel;
+import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate;
+import org.apache.flink.util.TestLogger;
+
+import org.apache.flink.shaded.netty4.io.netty.channel.Channel;
+import org.apache.flink.shaded.netty4.io.netty.channel.ChannelHandler;
+import org.apache.flink.shaded.netty4.io.netty.channel.ChannelHandlerContext;
+import org.apache.flink.shaded.netty4.io.netty.channel.ChannelInboundHandlerAdapter;
+import org.apache.flink.shaded.netty4.io.netty.channel.ChannelOutboundHandlerAdapter;
+import org.apache.flink.shaded.netty4.io.netty.channel.ChannelPromise;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.apache.flink.runtime.io.network.netty.NettyTestUtil.connect;
+import static org.apache.flink.runtime.io.network.netty.NettyTestUtil.initServerAndClient;
+import static org.apache.flink.runtime.io.network.netty.NettyTestUtil.shutdown;
+import static org.apache.flink.runtime.io.network.partition.InputChannelTestUtils.createRemoteInputChannel;
+import static org.apache.flink.runtime.io.network.partition.InputChannelTestUtils.createSingleInputGate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the same-host shuffle between a netty client and server, i.e. the handshake of the
+ * {@link SharedMemoryRegion} and the transfer of buffers through it or through the socket.
+ */
+public class SharedMemoryShuffleTest extends TestLogger {
+
+    private static final int REGION_SIZE = 1024;
+
+    private static final int BUFFER_SIZE = 128;
+
+    private static final int NUMBER_OF_BUFFERS = 3;
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+
+    private NetworkBufferPool networkBufferPool;
+
+    private SingleInputGate inputGate;
+
+    private RemoteInputChannel inputChannel;
+
+    private CreditBasedPartitionRequestClientHandler clientHandler;
+
+    @Before
+    public void setup() throws Exception {
+        directory = temporaryFolder.newFolder();
+        networkBufferPool = new NetworkBufferPool(NUMBER_OF_BUFFERS, BUFFER_SIZE);
+        inputGate = createSingleInputGate(1, networkBufferPool);
+        inputChannel =
+                createRemoteInputChannel(
+                        inputGate, new TestingPartitionRequestClient(), NUMBER_OF_BUFFERS);
+        inputGate.setInputChannels(inputChannel);
+        inputGate.setup();
+        inputChannel.requestSubpartition();
+
+        clientHandler = new CreditBasedPartitionRequestClientHandler();
+        clientHandler.addInputChannel(inputChannel);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (inputGate != null) {
+            inputGate.close();
+        }
+
+        if (networkBufferPool != null) {
+            networkBufferPool.destroyAllBufferPools();
+            networkBufferPool.destroy();
+        }
+    }
+
+    @Test
+    public void testBuffersThroughSharedMemoryRegion() throws Exception {
+        List<Class<?>> responses = transferBuffers(directory, null);
+
+        assertEquals(
+                Collections.nCopies(NUMBER_OF_BUFFERS, SharedMemoryBufferResponse.class),
+                responses);
+        // the server removes the file of the region as soon as it has mapped it
+        assertArrayEquals(new String[0], directory.list());
+    }
+
+    /** Verifies that the data is sent through the socket if the server can not map the region. */
+    @Test
+    public void testFallbackIfRegionCannotBeMapped() throws Exception {
+        // an empty file is not a valid region
+        File invalidRegion =
+                File.createTempFile(SharedMemoryRegion.FILE_NAME_PREFIX, null, directory);
+
+        List<Class<?>> responses = transferBuffers(directory, invalidRegion);
+
+        assertEquals(Collections.nCopies(NUMBER_OF_BUFFERS, BufferResponse.class), responses);
+    }
+
+    /** Verifies that the data is sent through the socket if the client can not create a region. */
+    @Test
+    public void testFallbackIfRegionCannotBeCreated() throws Exception {
+        List<Class<?>> responses = transferBuffers(new File(directory, "missing"), null);
+
+        assertEquals(Collections.nCopies(NUMBER_OF_BUFFERS, BufferResponse.class), responses);
+    }
+
+    /**
+     * Requests a subpartition of {@link #NUMBER_OF_BUFFERS} buffers from a server which uses
+     * {@link #directory} for the same-host shuffle, and verifies the data the client receives.
+     *
+     * @param clientDirectory the directory the client creates its region in.
+     * @param announcedRegion the region file to announce to the server instead of the one created
+     *     by the client, or null to announce the created one.
+     * @return the types of the buffer responses sent by the server.
+     */
+    private List<Class<?>> transferBuffers(File clientDirectory, @Nullable File announcedRegion)
+            throws Exception {
+        Queue<BufferAndBacklog> buffers = new ArrayDeque<>();
+        for (int i = 0; i < NUMBER_OF_BUFFERS; i++) {
+            buffers.add(
+                    new BufferAndBacklog(
+                            createBuffer(i),
+                            NUMBER_OF_BUFFERS - i - 1,
+                            i < NUMBER_OF_BUFFERS - 1
+                                    ? Buffer.DataType.DATA_BUFFER
+                                    : Buffer.DataType.NONE,
+                            i));
+        }
+        ResultPartitionProvider partitionProvider =
+                (partitionId, index, availabilityListener) -> {
+                    availabilityListener.notifyDataAvailable();
+                    return new QueuedBuffersSubpartitionView(buffers);
+                };
+
+        BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+        List<Class<?>> responses = Collections.synchronizedList(new ArrayList<>());
+        NettyProtocol protocol =
+                new NettyProtocol(
+                        partitionProvider, new TaskEventDispatcher(), directory, REGION_SIZE, 1) {
+
+                    @Override
+                    public ChannelHandler[] getServerChannelHandlers() {
+                        ChannelHandler[] handlers = super.getServerChannelHandlers();
+                        ChannelHandler[] recordingHandlers =
+                                Arrays.copyOf(handlers, handlers.length + 1);
+                        // records the buffer responses written by the partition request queue
+                        recordingHandlers[handlers.length] =
+                                new ChannelOutboundHandlerAdapter() {
+                                    @Override
+                                    public void write(
+                                            ChannelHandlerContext ctx,
+                                            Object msg,
+                                            ChannelPromise promise) {
+                                        if (msg instanceof BufferResponse
+                                                || msg instanceof SharedMemoryBufferResponse) {
+                                            responses.add(msg.getClass());
+                                        }
+                                        ctx.write(msg, promise);
+                                    }
+                                };
+                        return recordingHandlers;
+                    }
+
+                    @Override
+                    public ChannelHandler[] getClientChannelHandlers() {
+                        return new ChannelHandler[] {
+                            new NettyMessage.NettyMessageEncoder(),
+                            new RegionRequestRewriter(announcedRegion),
+                            new NettyMessageClientDecoderDelegate(
+                                    clientHandler, clientDirectory, REGION_SIZE),
+                            new ChannelInboundHandlerAdapter() {
+                                @Override
+                                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                    BufferResponse response = (BufferResponse) msg;
+                                    Buffer buffer = response.getBuffer();
+                                    byte[] data = new byte[buffer.readableBytes()];
+                                    buffer.asByteBuf().readBytes(data);
+                                    response.releaseBuffer();
+                                    received.add(data);
+                                }
+                            }
+                        };
+                    }
+                };
+
+        NettyServerAndClient serverAndClient = null;
+        try {
+            serverAndClient = initServerAndClient(protocol);
+            Channel channel = connect(serverAndClient);
+
+            channel.writeAndFlush(
+                            new PartitionRequest(
+                                    new ResultPartitionID(),
+                                    0,
+                                    inputChannel.getInputChannelId(),
+                                    Integer.MAX_VALUE))
+                    .await();
+
+            for (int i = 0; i < NUMBER_OF_BUFFERS; i++) {
+                assertArrayEquals(createData(i), received.take());
+            }
+            return new ArrayList<>(responses);
+        } finally {
+            shutdown(serverAndClient);
+        }
+    }
+
+    private static Buffer createBuffer(int index) {
+        return new NetworkBuffer(
+                MemorySegmentFactory.wrap(createData(index)),
+                FreeingBufferRecycler.INSTANCE,
+                Buffer.DataType.DATA_BUFFER,
+                BUFFER_SIZE);
+    }
+
+    private static byte[] createData(int index) {
+        byte[] data = new byte[BUFFER_SIZE];
+        Arrays.fill(data, (byte) (index + 1));
+        return data;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    /** Replaces the path of the region announced by the client, if a replacement is given. */
+    private static class RegionRequestRewriter extends ChannelOutboundHandlerAdapter {
+
+        @Nullable private final File announcedRegion;
+
+        private RegionRequestRewriter(@Nullable File announcedRegion) {
+            this.announcedRegion = announcedRegion;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            if (announcedRegion != null && msg instanceof SharedMemoryRegionRequest) {
+                msg = new SharedMemoryRegionRequest(announcedRegion.getAbsolutePath());
+            }
+            ctx.write(msg, promise);
+        }
+    }
+
+    /** A subpartition view which returns the given buffers in order. */
+    private static class QueuedBuffersSubpartitionView extends NoOpResultSubpartitionView {
+
+        private final Queue<BufferAndBacklog> buffers;
+
+        private QueuedBuffersSubpartitionView(Queue<BufferAndBacklog> buffers) {
+            this.buffers = buffers;
+        }
+
+        @Nullable
+        @Override
+        public synchronized BufferAndBacklog getNextBuffer() {
+            return buffers.poll();
+        }
+
+        @Override
+        public synchronized AvailabilityWithBacklog getAvailabilityAndBacklog(
+                int numCreditsAvailable) {
+            return new AvailabilityWithBacklog(
+                    numCreditsAvailable > 0 && !buffers.isEmpty(), buffers.size());
+        }
+    }
+}
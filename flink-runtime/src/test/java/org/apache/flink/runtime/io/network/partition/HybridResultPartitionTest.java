@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.runtime.event.AbstractEvent;
+import org.apache.flink.runtime.io.disk.FileChannelManager;
+import org.apache.flink.runtime.io.disk.FileChannelManagerImpl;
+import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferPool;
+import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
+import org.apache.flink.runtime.io.network.partition.ResultSubpartition.BufferAndBacklog;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Tests for {@link HybridResultPartition}. */
+public class HybridResultPartitionTest extends TestLogger {
+
+    private static final int bufferSize = 1024;
+
+    private static final int totalBuffers = 1000;
+
+    private FileChannelManager fileChannelManager;
+
+    private NetworkBufferPool globalPool;
+
+    @Rule public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Rule public Timeout timeout = new Timeout(60, TimeUnit.SECONDS);
+
+    @Before
+    public void setUp() {
+        fileChannelManager =
+                new FileChannelManagerImpl(new String[] {tmpFolder.getRoot().getPath()}, "testing");
+        globalPool = new NetworkBufferPool(totalBuffers, bufferSize);
+    }
+
+    @After
+    public void shutdown() throws Exception {
+        fileChannelManager.close();
+        globalPool.destroy();
+    }
+
+    @Test
+    public void testConsumeWhileProducingWithoutSpilling() throws Exception {
+        int numSubpartitions = 2;
+        int numRecords = 100;
+        BufferPool bufferPool = globalPool.createBufferPool(20, 20);
+        HybridResultPartition partition = createHybridPartition(numSubpartitions, bufferPool);
+
+        ResultSubpartitionView[] views = createSubpartitionViews(partition, numSubpartitions);
+        int[] numRecordsRead = new int[numSubpartitions];
+        for (int i = 0; i < numRecords; i++) {
+            int subpartition = i % numSubpartitions;
+            partition.emitRecord(createRecord(i / numSubpartitions), subpartition);
+            // the last buffer can only be consumed after it has been flushed
+            assertNull(views[subpartition].getNextBuffer());
+            partition.flush(subpartition);
+
+            BufferAndBacklog next = views[subpartition].getNextBuffer();
+            assertNotNull(next);
+            checkDataBuffer(next.buffer(), numRecordsRead[subpartition]++);
+        }
+
+        partition.finish();
+        for (int subpartition = 0; subpartition < numSubpartitions; subpartition++) {
+            assertEquals(numRecords / numSubpartitions, numRecordsRead[subpartition]);
+            checkEndOfPartition(views[subpartition].getNextBuffer());
+            assertEquals(0, getSubpartition(partition, subpartition).getNumberOfSpilledBuffers());
+        }
+        assertEquals(0, partition.getNumBuffersInMemory());
+        assertFalse(Files.exists(partition.getSpillDataFilePath()));
+
+        partition.close();
+        partition.release();
+    }
+
+    @Test
+    public void testSpillWhenMemoryRunsShort() throws Exception {
+        int numSubpartitions = 2;
+        int numBuffers = 10;
+        int numRecordsPerSubpartition = 50;
+        BufferPool bufferPool = globalPool.createBufferPool(numBuffers, numBuffers);
+        HybridResultPartition partition = createHybridPartition(numSubpartitions, bufferPool);
+
+        for (int i = 0; i < numRecordsPerSubpartition; i++) {
+            for (int subpartition = 0; subpartition < numSubpartitions; subpartition++) {
+                partition.emitRecord(createRecord(i), subpartition);
+                assertTrue(partition.getNumBuffersInMemory() <= numBuffers);
+            }
+        }
+        assertTrue(Files.exists(partition.getSpillDataFilePath()));
+
+        // all data is spilled on finish as there is no consumer yet
+        partition.finish();
+        partition.close();
+        assertEquals(0, partition.getNumBuffersInMemory());
+
+        ResultSubpartitionView[] views = createSubpartitionViews(partition, numSubpartitions);
+        for (int subpartition = 0; subpartition < numSubpartitions; subpartition++) {
+            for (int i = 0; i < numRecordsPerSubpartition; i++) {
+                BufferAndBacklog next = views[subpartition].getNextBuffer();
+                assertNotNull(next);
+                assertEquals(numRecordsPerSubpartition - i - 1, next.buffersInBacklog());
+                checkDataBuffer(next.buffer(), i);
+            }
+            checkEndOfPartition(views[subpartition].getNextBuffer());
+        }
+
+        partition.release();
+        assertFalse(Files.exists(partition.getSpillDataFilePath()));
+    }
+
+    @Test
+    public void testConsumeSpilledAndInMemoryData() throws Exception {
+        int numBuffers = 10;
+        int numRecords = 50;
+        BufferPool bufferPool = globalPool.createBufferPool(numBuffers, numBuffers);
+        HybridResultPartition partition = createHybridPartition(1, bufferPool);
+        ResultSubpartitionView view = createSubpartitionViews(partition, 1)[0];
+
+        // the consumer does not keep up, so the producer has to spill
+        for (int i = 0; i < numRecords; i++) {
+            partition.emitRecord(createRecord(i), 0);
+        }
+        assertTrue(getSubpartition(partition, 0).getNumberOfSpilledBuffers() > 0);
+
+        // the data of a running consumer is kept in memory on finish
+        partition.finish();
+        partition.close();
+        assertTrue(partition.getNumBuffersInMemory() > 0);
+
+        for (int i = 0; i < numRecords; i++) {
+            BufferAndBacklog next = view.getNextBuffer();
+            assertNotNull(next);
+            checkDataBuffer(next.buffer(), i);
+        }
+        checkEndOfPartition(view.getNextBuffer());
+        assertEquals(0, partition.getNumBuffersInMemory());
+
+        partition.release();
+    }
+
+    @Test
+    public void testConsumeSpilledDataAgain() throws Exception {
+        int numBuffers = 10;
+        int numRecords = 20;
+        BufferPool bufferPool = globalPool.createBufferPool(numBuffers, numBuffers);
+        HybridResultPartition partition = createHybridPartition(1, bufferPool);
+
+        for (int i = 0; i < numRecords; i++) {
+            partition.emitRecord(createRecord(i), 0);
+        }
+        // all data is spilled on finish as there is no consumer yet
+        partition.finish();
+        partition.close();
+
+        ResultSubpartitionView view = createSubpartitionViews(partition, 1)[0];
+        for (int i = 0; i < numRecords / 2; i++) {
+            BufferAndBacklog next = view.getNextBuffer();
+            assertNotNull(next);
+            checkDataBuffer(next.buffer(), i);
+        }
+
+        // a repeated request reads all the data again from the spill file
+        ResultSubpartitionView newView = createSubpartitionViews(partition, 1)[0];
+        assertNull(view.getNextBuffer());
+        for (int i = 0; i < numRecords; i++) {
+            BufferAndBacklog next = newView.getNextBuffer();
+            assertNotNull(next);
+            assertEquals(numRecords - i - 1, next.buffersInBacklog());
+            checkDataBuffer(next.buffer(), i);
+        }
+        checkEndOfPartition(newView.getNextBuffer());
+
+        partition.release();
+    }
+
+    @Test(expected = PartitionNotFoundException.class)
+    public void testDataServedFromMemoryCanNotBeConsumedAgain() throws Exception {
+        BufferPool bufferPool = globalPool.createBufferPool(10, 10);
+        HybridResultPartition partition = createHybridPartition(1, bufferPool);
+
+        try {
+            ResultSubpartitionView view = createSubpartitionViews(partition, 1)[0];
+            partition.emitRecord(createRecord(0), 0);
+            partition.flush(0);
+            BufferAndBacklog next = view.getNextBuffer();
+            assertNotNull(next);
+            checkDataBuffer(next.buffer(), 0);
+
+            partition.createSubpartitionView(0, new NoOpBufferAvailablityListener());
+        } finally {
+            partition.close();
+            partition.release();
+        }
+    }
+
+    private static ByteBuffer createRecord(int value) {
+        ByteBuffer record = ByteBuffer.allocate(bufferSize);
+        while (record.hasRemaining()) {
+            record.put((byte) value);
+        }
+        record.flip();
+        return record;
+    }
+
+    private static void checkDataBuffer(Buffer buffer, int expectedValue) {
+        try {
+            assertTrue(buffer.isBuffer());
+            assertEquals(bufferSize, buffer.readableBytes());
+            ByteBuffer data = buffer.getNioBufferReadable();
+            while (data.hasRemaining()) {
+                assertEquals((byte) expectedValue, data.get());
+            }
+        } finally {
+            buffer.recycleBuffer();
+        }
+    }
+
+    private static void checkEndOfPartition(BufferAndBacklog next) throws IOException {
+        assertNotNull(next);
+        Buffer buffer = next.buffer();
+        try {
+            assertFalse(buffer.isBuffer());
+            AbstractEvent event =
+                    EventSerializer.fromBuffer(
+                            buffer, HybridResultPartitionTest.class.getClassLoader());
+            if (!(event instanceof EndOfPartitionEvent)) {
+                fail("Expected EndOfPartitionEvent, but got " + event);
+            }
+        } finally {
+            buffer.recycleBuffer();
+        }
+    }
+
+    private static HybridSubpartition getSubpartition(
+            HybridResultPartition partition, int subpartition) {
+        return (HybridSubpartition) partition.getAllPartitions()[subpartition];
+    }
+
+    private static ResultSubpartitionView[] createSubpartitionViews(
+            HybridResultPartition partition, int numSubpartitions) throws IOException {
+        ResultSubpartitionView[] views = new ResultSubpartitionView[numSubpartitions];
+        for (int subpartition = 0; subpartition < numSubpartitions; ++subpartition) {
+            views[subpartition] =
+                    partition.createSubpartitionView(
+                            subpartition, new NoOpBufferAvailablityListener());
+        }
+        return views;
+    }
+
+    private HybridResultPartition createHybridPartition(
+            int numSubpartitions, BufferPool bufferPool) throws IOException {
+        ResultSubpartition[] subpartitions = new ResultSubpartition[numSubpartitions];
+        HybridResultPartition partition =
+                new HybridResultPartition(
+                        "HybridResultPartitionTest",
+                        0,
+                        new ResultPartitionID(),
+                        ResultPartitionType.HYBRID,
+                        subpartitions,
+                        numSubpartitions,
+                        new ResultPartitionManager(),
+                        fileChannelManager.createChannel().getPath(),
+                        bufferSize,
+                        null,
+                        () -> bufferPool);
+        for (int i = 0; i < numSubpartitions; i++) {
+            subpartitions[i] = new HybridSubpartition(i, partition);
+        }
+        partition.setup();
+        return partition;
+    }
+}
@@ -31,6 +31,7 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayDeque;
@@ -42,6 +43,7 @@ import java.util.Random;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -169,6 +171,80 @@ public class PartitionedFileWriteReadTest {
         IOUtils.closeAllQuietly(dataFileChannel, indexFileChannel);
     }
 
+    @Test
+    public void testReadWithSharedReadAheadBuffer() throws Exception {
+        int numRegions = 10;
+        int numSubpartitions = 5;
+        int numBuffersPerSubpartition = 4;
+        int bufferSize = 1024;
+        Random random = new Random(1111);
+
+        Queue<Buffer>[] subpartitionBuffers = new ArrayDeque[numSubpartitions];
+        for (int subpartition = 0; subpartition < numSubpartitions; ++subpartition) {
+            subpartitionBuffers[subpartition] = new ArrayDeque<>();
+        }
+
+        PartitionedFileWriter fileWriter = createPartitionedFileWriter(numSubpartitions);
+        for (int region = 0; region < numRegions; ++region) {
+            fileWriter.startNewRegion(false);
+            for (int subpartition = 0; subpartition < numSubpartitions; ++subpartition) {
+                List<BufferWithChannel> buffers = new ArrayList<>();
+                for (int i = 0; i < numBuffersPerSubpartition; ++i) {
+                    Buffer buffer = createBuffer(random, bufferSize);
+                    subpartitionBuffers[subpartition].add(buffer);
+                    buffers.add(new BufferWithChannel(buffer, subpartition));
+                }
+                fileWriter.writeBuffers(buffers);
+            }
+        }
+        PartitionedFile partitionedFile = fileWriter.finish();
+
+        FileChannel dataFileChannel = openFileChannel(partitionedFile.getDataFilePath());
+        FileChannel indexFileChannel = openFileChannel(partitionedFile.getIndexFilePath());
+        PartitionedFileReadStatistics statistics = new PartitionedFileReadStatistics();
+        PartitionedFileReadAheadBuffer readAheadBuffer =
+                new PartitionedFileReadAheadBuffer(8 * bufferSize, statistics);
+        PartitionedFileReader[] fileReaders = new PartitionedFileReader[numSubpartitions];
+        for (int subpartition = 0; subpartition < numSubpartitions; ++subpartition) {
+            fileReaders[subpartition] =
+                    new PartitionedFileReader(
+                            partitionedFile,
+                            subpartition,
+                            dataFileChannel,
+                            indexFileChannel,
+                            readAheadBuffer,
+                            statistics);
+        }
+
+        // read in file offset order like the read scheduler does
+        for (int region = 0; region < numRegions; ++region) {
+            for (int subpartition = 0; subpartition < numSubpartitions; ++subpartition) {
+                assertTrue(fileReaders[subpartition].hasRemaining());
+                Buffer buffer;
+                while ((buffer = readBuffer(fileReaders[subpartition], bufferSize)) != null) {
+                    assertBufferEquals(
+                            checkNotNull(subpartitionBuffers[subpartition].poll()), buffer);
+                }
+            }
+        }
+        IOUtils.closeAllQuietly(dataFileChannel, indexFileChannel);
+
+        for (int subpartition = 0; subpartition < numSubpartitions; ++subpartition) {
+            assertTrue(subpartitionBuffers[subpartition].isEmpty());
+            assertFalse(fileReaders[subpartition].hasRemaining());
+        }
+        assertEquals(
+                Files.size(partitionedFile.getDataFilePath()), statistics.getNumBytesRead());
+        assertEquals(0, statistics.getNumSeeks());
+        assertTrue(statistics.getNumReads() < numRegions * numSubpartitions);
+    }
+
+    private static Buffer readBuffer(PartitionedFileReader fileReader, int bufferSize)
+            throws IOException {
+        MemorySegment readBuffer = MemorySegmentFactory.allocateUnpooledSegment(bufferSize);
+        return fileReader.readCurrentRegion(readBuffer, (buf) -> {});
+    }
+
     private void assertBufferEquals(Buffer expected, Buffer actual) {
         assertEquals(expected.getDataType(), actual.getDataType());
         assertEquals(expected.getNioBufferReadable(), actual.getNioBufferReadable());
@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.io.network.partition;
 
+import org.apache.flink.runtime.io.compression.ZstdBlockCompressionFactory;
 import org.apache.flink.runtime.io.disk.BatchShuffleReadBufferPool;
 import org.apache.flink.runtime.io.disk.FileChannelManager;
 import org.apache.flink.runtime.io.disk.NoOpFileChannelManager;
@@ -217,9 +218,11 @@ public class ResultPartitionBuilder {
                         networkBufferSize,
                         blockingShuffleCompressionEnabled,
                         compressionCodec,
+                        ZstdBlockCompressionFactory.DEFAULT_COMPRESSION_LEVEL,
                         maxBuffersPerChannel,
                         sortShuffleMinBuffers,
                         sortShuffleMinParallelism,
+                        0,
                         sslEnabled);
 
         SupplierWithException<BufferPool, IOException> factory =
@@ -18,6 +18,7 @@
 package org.apache.flink.runtime.io.network.partition;
 
 import org.apache.flink.runtime.deployment.ResultPartitionDeploymentDescriptor;
+import org.apache.flink.runtime.io.compression.ZstdBlockCompressionFactory;
 import org.apache.flink.runtime.io.disk.BatchShuffleReadBufferPool;
 import org.apache.flink.runtime.io.disk.FileChannelManager;
 import org.apache.flink.runtime.io.disk.FileChannelManagerImpl;
@@ -122,9 +123,11 @@ public class ResultPartitionFactoryTest extends TestLogger {
                         SEGMENT_SIZE,
                         false,
                         "LZ4",
+                        ZstdBlockCompressionFactory.DEFAULT_COMPRESSION_LEVEL,
                         Integer.MAX_VALUE,
                         10,
                         sortShuffleMinParallelism,
+                        0,
                         false);
 
         final ResultPartitionDeploymentDescriptor descriptor =
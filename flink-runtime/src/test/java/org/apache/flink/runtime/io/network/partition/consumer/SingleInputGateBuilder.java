@@ -172,6 +172,12 @@ public class SingleInputGateBuilder {
                         bufferSize,
                         createThroughputCalculator.apply(bufferDebloatConfiguration),
                         maybeCreateBufferDebloater(gateIndex));
+        if (bufferDebloatConfiguration.isEnabled() && bufferDebloatConfiguration.isPerChannel()) {
+            gate.setChannelBufferDebloaters(
+                    IntStream.range(0, numberOfChannels)
+                            .mapToObj(index -> maybeCreateBufferDebloater(gateIndex))
+                            .toArray(BufferDebloater[]::new));
+        }
         if (channelFactory != null) {
             gate.setInputChannels(
                     IntStream.range(0, numberOfChannels)
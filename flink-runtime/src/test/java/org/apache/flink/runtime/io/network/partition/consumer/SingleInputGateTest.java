@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.io.network.partition.consumer;
 
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
@@ -68,7 +69,10 @@ import org.apache.flink.runtime.metrics.groups.UnregisteredMetricGroups;
 import org.apache.flink.runtime.shuffle.NettyShuffleDescriptor;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
 import org.apache.flink.runtime.shuffle.UnknownShuffleDescriptor;
+import org.apache.flink.runtime.throughput.BufferDebloatConfiguration;
+import org.apache.flink.runtime.throughput.ThroughputCalculator;
 import org.apache.flink.util.CompressedSerializedValue;
+import org.apache.flink.util.clock.SystemClock;
 
 import org.apache.flink.shaded.guava30.com.google.common.io.Closer;
 
@@ -77,6 +81,7 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -86,6 +91,11 @@ import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Arrays.asList;
+import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_ENABLED;
+import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_PER_CHANNEL;
+import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_TARGET;
+import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_THRESHOLD_PERCENTAGES;
+import static org.apache.flink.configuration.TaskManagerOptions.MEMORY_SEGMENT_SIZE;
 import static org.apache.flink.runtime.checkpoint.CheckpointOptions.alignedNoTimeout;
 import static org.apache.flink.runtime.checkpoint.CheckpointType.CHECKPOINT;
 import static org.apache.flink.runtime.io.network.partition.InputChannelTestUtils.createLocalInputChannel;
@@ -99,6 +109,7 @@ import static org.apache.flink.util.Preconditions.checkState;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -1026,6 +1037,51 @@ public class SingleInputGateTest extends InputGateTestBase {
         // No exceptions should happen.
     }
 
+    @Test
+    public void testAnnounceBufferSizePerChannel() throws Exception {
+        final long throughput = 10_000L;
+        final Configuration config =
+                new Configuration()
+                        .set(BUFFER_DEBLOAT_ENABLED, true)
+                        .set(BUFFER_DEBLOAT_PER_CHANNEL, true)
+                        .set(BUFFER_DEBLOAT_TARGET, Duration.ofSeconds(1))
+                        .set(BUFFER_DEBLOAT_THRESHOLD_PERCENTAGES, 0);
+        final SingleInputGate inputGate =
+                new SingleInputGateBuilder()
+                        .setNumberOfChannels(2)
+                        .setBufferDebloatConfiguration(
+                                BufferDebloatConfiguration.fromConfiguration(config))
+                        .setThroughputCalculator(
+                                bufferDebloatConfiguration ->
+                                        new ThroughputCalculator(SystemClock.getInstance()) {
+                                            @Override
+                                            public long calculateThroughput() {
+                                                return throughput;
+                                            }
+                                        })
+                        .build();
+        final TestInputChannel[] inputChannels =
+                new TestInputChannel[] {
+                    new TestInputChannel(inputGate, 0), new TestInputChannel(inputGate, 1)
+                };
+        inputGate.setInputChannels(inputChannels);
+
+        // only the first channel receives data
+        inputChannels[0].read(createBuffer(1024));
+        inputChannels[0].read(createBuffer(1024));
+        inputGate.notifyChannelNonEmpty(inputChannels[0]);
+        assertTrue(inputGate.getNext().isPresent());
+        assertTrue(inputGate.getNext().isPresent());
+
+        inputGate.triggerDebloating();
+
+        final int maxBufferSize = (int) MEMORY_SEGMENT_SIZE.defaultValue().getBytes();
+        assertThat(inputChannels[0].getCurrentBufferSize(), lessThan(maxBufferSize));
+        assertThat(
+                inputChannels[1].getCurrentBufferSize(),
+                lessThan(inputChannels[0].getCurrentBufferSize()));
+    }
+
     @Test
     public void testInputGateRemovalFromNettyShuffleEnvironment() throws Exception {
         NettyShuffleEnvironment network = createNettyShuffleEnvironment();
@@ -168,4 +168,41 @@ public class BloomFilterTest {
         assertTrue(bloomFilter.testHash(val4));
         assertTrue(bloomFilter.testHash(val5));
     }
+
+    @Test
+    public void testSerializeAndMerge() {
+        MemorySegment firstSegment = MemorySegmentFactory.allocateUnpooledSegment(128);
+        BloomFilter first = new BloomFilter(100, 128);
+        first.setBitsLocation(firstSegment, 0);
+        first.addHash(1);
+        first.addHash(2);
+        MemorySegment secondSegment = MemorySegmentFactory.allocateUnpooledSegment(128);
+        BloomFilter second = new BloomFilter(100, 128);
+        second.setBitsLocation(secondSegment, 0);
+        second.addHash(3);
+
+        BloomFilter restored = BloomFilter.fromBytes(BloomFilter.toBytes(first));
+        assertTrue(restored.testHash(1));
+        assertTrue(restored.testHash(2));
+        assertFalse(restored.testHash(3));
+
+        BloomFilter merged =
+                BloomFilter.fromBytes(
+                        BloomFilter.mergeSerializedBloomFilters(
+                                BloomFilter.toBytes(first), BloomFilter.toBytes(second)));
+        assertTrue(merged.testHash(1));
+        assertTrue(merged.testHash(2));
+        assertTrue(merged.testHash(3));
+        assertFalse(merged.testHash(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeBloomFiltersOfDifferentSizes() {
+        BloomFilter first = new BloomFilter(100, 128);
+        first.setBitsLocation(MemorySegmentFactory.allocateUnpooledSegment(128), 0);
+        BloomFilter second = new BloomFilter(100, 64);
+        second.setBitsLocation(MemorySegmentFactory.allocateUnpooledSegment(64), 0);
+        BloomFilter.mergeSerializedBloomFilters(
+                BloomFilter.toBytes(first), BloomFilter.toBytes(second));
+    }
 }
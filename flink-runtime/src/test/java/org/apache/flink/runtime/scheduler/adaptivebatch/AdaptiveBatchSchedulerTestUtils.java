@@ -21,14 +21,23 @@ package org.apache.flink.runtime.scheduler.adaptivebatch;
 
 import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.jobmaster.DefaultExecutionDeploymentTracker;
+import org.apache.flink.runtime.jobmaster.SlotInfo;
+import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProvider;
 import org.apache.flink.runtime.scheduler.DefaultExecutionGraphFactory;
 import org.apache.flink.runtime.scheduler.ExecutionGraphFactory;
 import org.apache.flink.runtime.scheduler.SchedulerTestingUtils;
+import org.apache.flink.runtime.scheduler.TestingPhysicalSlotProvider;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskDetector;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskDetectorListener;
 import org.apache.flink.runtime.scheduler.strategy.VertexwiseSchedulingStrategy;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
 
 /** A utility class to create {@link AdaptiveBatchScheduler} instances for testing. */
 public class AdaptiveBatchSchedulerTestUtils {
@@ -37,9 +46,9 @@ public class AdaptiveBatchSchedulerTestUtils {
     public static class AdaptiveBatchSchedulerBuilder
             extends SchedulerTestingUtils.DefaultSchedulerBuilder {
 
-        private VertexParallelismDecider vertexParallelismDecider = (ignored) -> 0;
+        protected VertexParallelismDecider vertexParallelismDecider = (ignored) -> 0;
 
-        private int defaultMaxParallelism =
+        protected int defaultMaxParallelism =
                 JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_MAX_PARALLELISM.defaultValue();
 
         public AdaptiveBatchSchedulerBuilder(
@@ -60,20 +69,6 @@ public class AdaptiveBatchSchedulerTestUtils {
 
         @Override
         public AdaptiveBatchScheduler build() throws Exception {
-            final ExecutionGraphFactory executionGraphFactory =
-                    new DefaultExecutionGraphFactory(
-                            jobMasterConfiguration,
-                            userCodeLoader,
-                            new DefaultExecutionDeploymentTracker(),
-                            futureExecutor,
-                            ioExecutor,
-                            rpcTimeout,
-                            jobManagerJobMetricGroup,
-                            blobWriter,
-                            shuffleMaster,
-                            partitionTracker,
-                            true);
-
             return new AdaptiveBatchScheduler(
                     log,
                     jobGraph,
@@ -94,11 +89,111 @@ public class AdaptiveBatchSchedulerTestUtils {
                     System.currentTimeMillis(),
                     mainThreadExecutor,
                     jobStatusListener,
-                    executionGraphFactory,
+                    createExecutionGraphFactory(),
                     shuffleMaster,
                     rpcTimeout,
                     vertexParallelismDecider,
                     defaultMaxParallelism);
         }
+
+        protected ExecutionGraphFactory createExecutionGraphFactory() {
+            return new DefaultExecutionGraphFactory(
+                    jobMasterConfiguration,
+                    userCodeLoader,
+                    new DefaultExecutionDeploymentTracker(),
+                    futureExecutor,
+                    ioExecutor,
+                    rpcTimeout,
+                    jobManagerJobMetricGroup,
+                    blobWriter,
+                    shuffleMaster,
+                    partitionTracker,
+                    true);
+        }
+    }
+
+    /** Builder for {@link SpeculativeScheduler}. */
+    public static class SpeculativeSchedulerBuilder extends AdaptiveBatchSchedulerBuilder {
+
+        private int maxConcurrentExecutions =
+                JobManagerOptions.SPECULATIVE_MAX_CONCURRENT_EXECUTIONS.defaultValue();
+
+        private SlowTaskDetector slowTaskDetector = new NoOpSlowTaskDetector();
+
+        private PhysicalSlotProvider speculativeSlotProvider =
+                TestingPhysicalSlotProvider.createWithInfiniteSlotCreation();
+
+        private Supplier<Collection<? extends SlotInfo>> availableSlotsRetriever =
+                Collections::emptyList;
+
+        public SpeculativeSchedulerBuilder(
+                JobGraph jobGraph,
+                ComponentMainThreadExecutor mainThreadExecutor,
+                ScheduledExecutorService executorService) {
+            super(jobGraph, mainThreadExecutor, executorService);
+        }
+
+        public void setMaxConcurrentExecutions(int maxConcurrentExecutions) {
+            this.maxConcurrentExecutions = maxConcurrentExecutions;
+        }
+
+        public void setSlowTaskDetector(SlowTaskDetector slowTaskDetector) {
+            this.slowTaskDetector = slowTaskDetector;
+        }
+
+        public void setSpeculativeSlotProvider(PhysicalSlotProvider speculativeSlotProvider) {
+            this.speculativeSlotProvider = speculativeSlotProvider;
+        }
+
+        public void setAvailableSlotsRetriever(
+                Supplier<Collection<? extends SlotInfo>> availableSlotsRetriever) {
+            this.availableSlotsRetriever = availableSlotsRetriever;
+        }
+
+        @Override
+        public SpeculativeScheduler build() throws Exception {
+            return new SpeculativeScheduler(
+                    log,
+                    jobGraph,
+                    ioExecutor,
+                    jobMasterConfiguration,
+                    componentMainThreadExecutor -> {},
+                    delayExecutor,
+                    userCodeLoader,
+                    checkpointCleaner,
+                    checkpointRecoveryFactory,
+                    jobManagerJobMetricGroup,
+                    schedulingStrategyFactory,
+                    failoverStrategyFactory,
+                    restartBackoffTimeStrategy,
+                    executionVertexOperations,
+                    executionVertexVersioner,
+                    executionSlotAllocatorFactory,
+                    System.currentTimeMillis(),
+                    mainThreadExecutor,
+                    jobStatusListener,
+                    createExecutionGraphFactory(),
+                    shuffleMaster,
+                    rpcTimeout,
+                    vertexParallelismDecider,
+                    defaultMaxParallelism,
+                    maxConcurrentExecutions,
+                    slowTaskDetector,
+                    speculativeSlotProvider,
+                    availableSlotsRetriever);
+        }
+    }
+
+    /** A {@link SlowTaskDetector} which never detects slow tasks by itself. */
+    private static class NoOpSlowTaskDetector implements SlowTaskDetector {
+
+        @Override
+        public void start(
+                ExecutionGraph executionGraph,
+                SlowTaskDetectorListener listener,
+                ComponentMainThreadExecutor mainThreadExecutor) {}
+
+        @Override
+        public void stop() {}
     }
 }
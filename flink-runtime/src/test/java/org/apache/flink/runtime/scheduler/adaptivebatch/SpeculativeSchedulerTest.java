@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.JobStatus;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IOMetrics;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobmanager.scheduler.NoResourceAvailableException;
+import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProvider;
+import org.apache.flink.runtime.scheduler.TestingPhysicalSlotProvider;
+import org.apache.flink.runtime.taskmanager.TaskExecutionState;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
+import org.apache.flink.testutils.TestingUtils;
+import org.apache.flink.testutils.executor.TestExecutorResource;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/** Test for {@link SpeculativeScheduler}. */
+public class SpeculativeSchedulerTest extends TestLogger {
+
+    @ClassRule
+    public static final TestExecutorResource<ScheduledExecutorService> EXECUTOR_RESOURCE =
+            TestingUtils.defaultExecutorResource();
+
+    private static final ComponentMainThreadExecutor mainThreadExecutor =
+            ComponentMainThreadExecutorServiceAdapter.forMainThread();
+
+    @Test
+    public void testLaunchSpeculativeExecution() throws Exception {
+        final TestingPhysicalSlotProvider slotProvider =
+                TestingPhysicalSlotProvider.createWithInfiniteSlotCreation();
+        final SpeculativeScheduler scheduler = createScheduler(createJobGraph(), slotProvider);
+        scheduler.startScheduling();
+
+        final ExecutionVertex sourceVertex = getSourceVertex(scheduler);
+        final Execution originalExecution = sourceVertex.getCurrentExecutionAttempt();
+
+        notifySlowTask(scheduler, originalExecution);
+
+        assertThat(scheduler.getNumSlowExecutionVertices(), is(1L));
+        assertThat(slotProvider.getRequests().size(), is(1));
+
+        final List<Execution> executions = new ArrayList<>(sourceVertex.getCurrentExecutions());
+        assertThat(executions, hasSize(2));
+        assertThat(executions.get(0), is(sameInstance(originalExecution)));
+        assertThat(executions.get(1).getState(), is(ExecutionState.DEPLOYING));
+        assertThat(
+                executions.get(1).getAttemptNumber(),
+                is(originalExecution.getAttemptNumber() + 1));
+
+        // the maximum number of concurrent executions is reached
+        notifySlowTask(scheduler, originalExecution);
+        assertThat(sourceVertex.getCurrentExecutions(), hasSize(2));
+        assertThat(slotProvider.getRequests().size(), is(1));
+    }
+
+    @Test
+    public void testSpeculativeExecutionFinishedFirst() throws Exception {
+        final SpeculativeScheduler scheduler = createScheduler(createJobGraph());
+        scheduler.startScheduling();
+
+        final ExecutionVertex sourceVertex = getSourceVertex(scheduler);
+        final Execution originalExecution = sourceVertex.getCurrentExecutionAttempt();
+        final Execution speculativeExecution = launchSpeculativeExecution(scheduler);
+
+        transitionExecutionState(scheduler, speculativeExecution, ExecutionState.FINISHED);
+
+        assertThat(
+                sourceVertex.getCurrentExecutionAttempt(), is(sameInstance(speculativeExecution)));
+        assertThat(sourceVertex.getExecutionState(), is(ExecutionState.FINISHED));
+        assertThat(originalExecution.getState(), is(ExecutionState.CANCELING));
+        assertThat(scheduler.getNumEffectiveSpeculativeExecutions(), is(1L));
+
+        // the late cancellation of the original execution does not affect the vertex
+        transitionExecutionState(scheduler, originalExecution, ExecutionState.CANCELED);
+        assertThat(sourceVertex.getExecutionState(), is(ExecutionState.FINISHED));
+        assertThat(scheduler.getExecutionGraph().getState(), is(JobStatus.RUNNING));
+    }
+
+    @Test
+    public void testOriginalExecutionFinishedFirst() throws Exception {
+        final SpeculativeScheduler scheduler = createScheduler(createJobGraph());
+        scheduler.startScheduling();
+
+        final ExecutionVertex sourceVertex = getSourceVertex(scheduler);
+        final Execution originalExecution = sourceVertex.getCurrentExecutionAttempt();
+        final Execution speculativeExecution = launchSpeculativeExecution(scheduler);
+
+        transitionExecutionState(scheduler, originalExecution, ExecutionState.FINISHED);
+
+        assertThat(sourceVertex.getCurrentExecutionAttempt(), is(sameInstance(originalExecution)));
+        assertThat(sourceVertex.getExecutionState(), is(ExecutionState.FINISHED));
+        assertThat(speculativeExecution.getState(), is(ExecutionState.CANCELING));
+        assertThat(scheduler.getNumEffectiveSpeculativeExecutions(), is(0L));
+
+        // a speculative execution which finishes late does not replace the current one
+        transitionExecutionState(scheduler, speculativeExecution, ExecutionState.FINISHED);
+        assertThat(sourceVertex.getCurrentExecutionAttempt(), is(sameInstance(originalExecution)));
+        assertThat(scheduler.getNumEffectiveSpeculativeExecutions(), is(0L));
+    }
+
+    @Test
+    public void testSpeculativeExecutionFailureDoesNotFailVertex() throws Exception {
+        final SpeculativeScheduler scheduler = createScheduler(createJobGraph());
+        scheduler.startScheduling();
+
+        final ExecutionVertex sourceVertex = getSourceVertex(scheduler);
+        final Execution originalExecution = sourceVertex.getCurrentExecutionAttempt();
+        final Execution speculativeExecution = launchSpeculativeExecution(scheduler);
+
+        transitionExecutionState(scheduler, speculativeExecution, ExecutionState.FAILED);
+
+        assertThat(speculativeExecution.getState(), is(ExecutionState.FAILED));
+        assertThat(sourceVertex.getCurrentExecutionAttempt(), is(sameInstance(originalExecution)));
+        assertThat(originalExecution.getState(), is(ExecutionState.DEPLOYING));
+        assertThat(scheduler.getExecutionGraph().getState(), is(JobStatus.RUNNING));
+
+        // the vertex can be speculated again
+        notifySlowTask(scheduler, originalExecution);
+        assertThat(sourceVertex.getNumberOfUnterminatedExecutions(), is(2));
+    }
+
+    @Test
+    public void testOriginalExecutionFailureIsCoveredBySpeculativeExecution() throws Exception {
+        final SpeculativeScheduler scheduler = createScheduler(createJobGraph());
+        scheduler.startScheduling();
+
+        final ExecutionVertex sourceVertex = getSourceVertex(scheduler);
+        final Execution originalExecution = sourceVertex.getCurrentExecutionAttempt();
+        final Execution speculativeExecution = launchSpeculativeExecution(scheduler);
+
+        transitionExecutionState(scheduler, originalExecution, ExecutionState.FAILED);
+
+        assertThat(originalExecution.getState(), is(ExecutionState.FAILED));
+        assertThat(
+                sourceVertex.getCurrentExecutionAttempt(), is(sameInstance(speculativeExecution)));
+        assertThat(scheduler.getExecutionGraph().getState(), is(JobStatus.RUNNING));
+    }
+
+    @Test
+    public void testSlotRequestOfSpeculativeExecutionFailed() throws Exception {
+        final SpeculativeScheduler scheduler =
+                createScheduler(
+                        createJobGraph(),
+                        TestingPhysicalSlotProvider.createWithFailingPhysicalSlotCreation(
+                                new NoResourceAvailableException("No slot available.")));
+        scheduler.startScheduling();
+
+        final ExecutionVertex sourceVertex = getSourceVertex(scheduler);
+        final Execution originalExecution = sourceVertex.getCurrentExecutionAttempt();
+
+        notifySlowTask(scheduler, originalExecution);
+
+        final List<Execution> executions = new ArrayList<>(sourceVertex.getCurrentExecutions());
+        assertThat(executions, hasSize(2));
+        assertThat(executions.get(1).getState(), is(ExecutionState.FAILED));
+        assertThat(sourceVertex.getCurrentExecutionAttempt(), is(sameInstance(originalExecution)));
+        assertThat(originalExecution.getState(), is(ExecutionState.DEPLOYING));
+        assertThat(scheduler.getExecutionGraph().getState(), is(JobStatus.RUNNING));
+    }
+
+    private static Execution launchSpeculativeExecution(final SpeculativeScheduler scheduler) {
+        final ExecutionVertex sourceVertex = getSourceVertex(scheduler);
+        final Execution originalExecution = sourceVertex.getCurrentExecutionAttempt();
+
+        notifySlowTask(scheduler, originalExecution);
+
+        final List<Execution> speculativeExecutions =
+                new ArrayList<>(sourceVertex.getCurrentExecutions());
+        speculativeExecutions.remove(originalExecution);
+        assertThat(speculativeExecutions, hasSize(1));
+
+        final Execution speculativeExecution = speculativeExecutions.get(0);
+        assertThat(speculativeExecution, is(not(sameInstance(originalExecution))));
+        assertThat(speculativeExecution.getState(), is(ExecutionState.DEPLOYING));
+        return speculativeExecution;
+    }
+
+    private static void notifySlowTask(
+            final SpeculativeScheduler scheduler, final Execution slowExecution) {
+        scheduler.notifySlowTasks(
+                Collections.singletonMap(
+                        slowExecution.getVertex().getID(),
+                        Collections.singleton(slowExecution.getAttemptId())));
+    }
+
+    private static void transitionExecutionState(
+            final SpeculativeScheduler scheduler,
+            final Execution execution,
+            final ExecutionState state) {
+        scheduler.updateTaskExecutionState(
+                new TaskExecutionState(
+                        execution.getAttemptId(),
+                        state,
+                        state == ExecutionState.FAILED ? new Exception("Expected failure.") : null,
+                        null,
+                        new IOMetrics(0, 0, 0, 0)));
+    }
+
+    private static ExecutionVertex getSourceVertex(final SpeculativeScheduler scheduler) {
+        return scheduler
+                .getExecutionGraph()
+                .getVerticesTopologically()
+                .iterator()
+                .next()
+                .getTaskVertices()[0];
+    }
+
+    private static JobGraph createJobGraph() {
+        final JobVertex source = new JobVertex("source");
+        source.setInvokableClass(NoOpInvokable.class);
+        source.setParallelism(1);
+
+        final JobVertex sink = new JobVertex("sink");
+        sink.setInvokableClass(NoOpInvokable.class);
+        sink.setParallelism(1);
+        sink.connectNewDataSetAsInput(
+                source, DistributionPattern.POINTWISE, ResultPartitionType.BLOCKING);
+
+        return new JobGraph(new JobID(), "test job", source, sink);
+    }
+
+    private static SpeculativeScheduler createScheduler(final JobGraph jobGraph)
+            throws Exception {
+        return createScheduler(
+                jobGraph, TestingPhysicalSlotProvider.createWithInfiniteSlotCreation());
+    }
+
+    private static SpeculativeScheduler createScheduler(
+            final JobGraph jobGraph, final PhysicalSlotProvider speculativeSlotProvider)
+            throws Exception {
+        final AdaptiveBatchSchedulerTestUtils.SpeculativeSchedulerBuilder schedulerBuilder =
+                new AdaptiveBatchSchedulerTestUtils.SpeculativeSchedulerBuilder(
+                        jobGraph, mainThreadExecutor, EXECUTOR_RESOURCE.getExecutor());
+        schedulerBuilder.setSpeculativeSlotProvider(speculativeSlotProvider);
+
+        return schedulerBuilder.build();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.slowtaskdetector;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.SlowTaskDetectorOptions;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.testutils.TestingUtils;
+import org.apache.flink.testutils.executor.TestExecutorResource;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Tests for {@link ExecutionTimeBasedSlowTaskDetector}. */
+public class ExecutionTimeBasedSlowTaskDetectorTest extends TestLogger {
+
+    @ClassRule
+    public static final TestExecutorResource<ScheduledExecutorService> EXECUTOR_RESOURCE =
+            TestingUtils.defaultExecutorResource();
+
+    @Test
+    public void testNoFinishedTaskButRatioIsZero() throws Exception {
+        final ExecutionGraph executionGraph = createExecutionGraph(3);
+        deployAllVertices(executionGraph);
+
+        final ExecutionTimeBasedSlowTaskDetector slowTaskDetector = createSlowTaskDetector(0, 0);
+
+        assertThat(slowTaskDetector.findSlowTasks(executionGraph)).isEmpty();
+    }
+
+    @Test
+    public void testFinishedTaskNotExceedRatio() throws Exception {
+        final ExecutionGraph executionGraph = createExecutionGraph(3);
+        final ExecutionVertex[] vertices = deployAllVertices(executionGraph);
+        vertices[0].getCurrentExecutionAttempt().markFinished();
+
+        final ExecutionTimeBasedSlowTaskDetector slowTaskDetector =
+                createSlowTaskDetector(0.5, 0);
+
+        assertThat(slowTaskDetector.findSlowTasks(executionGraph)).isEmpty();
+    }
+
+    @Test
+    public void testFinishedTaskExceedRatio() throws Exception {
+        final ExecutionGraph executionGraph = createExecutionGraph(3);
+        final ExecutionVertex[] vertices = deployAllVertices(executionGraph);
+        vertices[0].getCurrentExecutionAttempt().markFinished();
+        vertices[1].getCurrentExecutionAttempt().markFinished();
+
+        final ExecutionTimeBasedSlowTaskDetector slowTaskDetector =
+                createSlowTaskDetector(0.5, 0);
+
+        final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks =
+                slowTaskDetector.findSlowTasks(executionGraph);
+
+        assertThat(slowTasks).containsOnlyKeys(vertices[2].getID());
+        assertThat(slowTasks.get(vertices[2].getID()))
+                .containsExactly(vertices[2].getCurrentExecutionAttempt().getAttemptId());
+    }
+
+    @Test
+    public void testLargeLowerBound() throws Exception {
+        final ExecutionGraph executionGraph = createExecutionGraph(3);
+        final ExecutionVertex[] vertices = deployAllVertices(executionGraph);
+        vertices[0].getCurrentExecutionAttempt().markFinished();
+        vertices[1].getCurrentExecutionAttempt().markFinished();
+
+        final ExecutionTimeBasedSlowTaskDetector slowTaskDetector =
+                createSlowTaskDetector(0.5, Integer.MAX_VALUE);
+
+        assertThat(slowTaskDetector.findSlowTasks(executionGraph)).isEmpty();
+    }
+
+    @Test
+    public void testSpeculativeExecutionsAreDetected() throws Exception {
+        final ExecutionGraph executionGraph = createExecutionGraph(2);
+        final ExecutionVertex[] vertices = deployAllVertices(executionGraph);
+        vertices[0].getCurrentExecutionAttempt().markFinished();
+
+        final Execution speculativeExecution =
+                vertices[1].createNewSpeculativeExecution(System.currentTimeMillis());
+        speculativeExecution.transitionState(ExecutionState.DEPLOYING);
+
+        final ExecutionTimeBasedSlowTaskDetector slowTaskDetector =
+                createSlowTaskDetector(0.5, 0);
+
+        final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks =
+                slowTaskDetector.findSlowTasks(executionGraph);
+
+        assertThat(slowTasks.get(vertices[1].getID()))
+                .containsExactlyInAnyOrder(
+                        vertices[1].getCurrentExecutionAttempt().getAttemptId(),
+                        speculativeExecution.getAttemptId());
+    }
+
+    @Test
+    public void testInvalidBaselineRatio() {
+        assertThatThrownBy(() -> createSlowTaskDetector(1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ExecutionGraph createExecutionGraph(int parallelism) throws Exception {
+        final JobVertex jobVertex = ExecutionGraphTestUtils.createNoOpVertex(parallelism);
+        return ExecutionGraphTestUtils.createExecutionGraph(
+                EXECUTOR_RESOURCE.getExecutor(), jobVertex);
+    }
+
+    private static ExecutionVertex[] deployAllVertices(ExecutionGraph executionGraph) {
+        for (ExecutionVertex executionVertex : executionGraph.getAllExecutionVertices()) {
+            executionVertex.getCurrentExecutionAttempt().transitionState(ExecutionState.DEPLOYING);
+        }
+        return executionGraph.getVerticesTopologically().iterator().next().getTaskVertices();
+    }
+
+    private static ExecutionTimeBasedSlowTaskDetector createSlowTaskDetector(
+            double baselineRatio, long baselineLowerBoundMillis) {
+
+        final Configuration configuration = new Configuration();
+        configuration.set(SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_RATIO, baselineRatio);
+        configuration.set(
+                SlowTaskDetectorOptions.EXECUTION_TIME_BASELINE_LOWER_BOUND,
+                Duration.ofMillis(baselineLowerBoundMillis));
+
+        return new ExecutionTimeBasedSlowTaskDetector(configuration);
+    }
+}
@@ -356,6 +356,43 @@ public class PipelinedRegionSchedulingStrategyTest extends TestLogger {
         assertEquals(3, testingSchedulerOperation.getScheduledVertices().size());
     }
 
+    @Test
+    public void testScheduleHybridConsumersWhenProducersAreScheduled() {
+        final TestingSchedulingTopology topology = new TestingSchedulingTopology();
+        final List<TestingSchedulingExecutionVertex> producers =
+                topology.addExecutionVertices().withParallelism(PARALLELISM).finish();
+        final List<TestingSchedulingExecutionVertex> consumers =
+                topology.addExecutionVertices().withParallelism(PARALLELISM).finish();
+        topology.connectAllToAll(producers, consumers)
+                .withResultPartitionState(ResultPartitionState.CREATED)
+                .withResultPartitionType(ResultPartitionType.HYBRID)
+                .finish();
+
+        // like the scheduler, move the vertices to SCHEDULED when they are handed over
+        final List<List<ExecutionVertexID>> scheduledVertices = new ArrayList<>();
+        final PipelinedRegionSchedulingStrategy schedulingStrategy =
+                new PipelinedRegionSchedulingStrategy(
+                        verticesToDeploy -> {
+                            scheduledVertices.add(verticesToDeploy);
+                            for (ExecutionVertexID vertexId : verticesToDeploy) {
+                                topology.getVertex(vertexId).setState(ExecutionState.SCHEDULED);
+                            }
+                        },
+                        topology);
+        schedulingStrategy.startScheduling();
+
+        // the consumers are scheduled without waiting for the producers to finish
+        assertThat(scheduledVertices, hasSize(4));
+
+        for (TestingSchedulingExecutionVertex producer : producers) {
+            producer.getProducedResults().iterator().next().markFinished();
+            schedulingStrategy.onExecutionStateChange(producer.getId(), ExecutionState.FINISHED);
+        }
+
+        // the consumers are not scheduled again when the producers finish
+        assertThat(scheduledVertices, hasSize(4));
+    }
+
     private static JobVertex createJobVertex(String vertexName, int parallelism) {
         JobVertex jobVertex = new JobVertex(vertexName);
         jobVertex.setParallelism(parallelism);
@@ -35,6 +35,7 @@ import org.apache.flink.core.io.SimpleVersionedSerializer;
 import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.operators.coordination.ComponentClosingUtils;
+import org.apache.flink.runtime.operators.coordination.CoordinatorStore;
 import org.apache.flink.runtime.operators.coordination.CoordinatorStoreImpl;
 import org.apache.flink.runtime.operators.coordination.MockOperatorCoordinatorContext;
 import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
@@ -131,6 +132,41 @@ public class SourceCoordinatorTest extends SourceCoordinatorTestBase {
         assertEquals(sourceEvent, getEnumerator().getHandledSourceEvent().get(0));
     }
 
+    @Test
+    public void testListeningEventsFromOtherCoordinators() throws Exception {
+        final String listeningID = "testListeningID";
+        final CoordinatorStore store = new CoordinatorStoreImpl();
+        final SourceEvent pendingEvent = new SourceEvent() {};
+        final SourceEvent laterEvent = new SourceEvent() {};
+
+        // an event sent before the coordinator is started is handled once it is started
+        store.putIfAbsent(listeningID, new SourceEventWrapper(pendingEvent));
+        try (final SourceCoordinator<?, ?> coordinator =
+                new SourceCoordinator<>(
+                        OPERATOR_NAME,
+                        TestingSplitEnumerator.factorySource(
+                                new MockSourceSplitSerializer(),
+                                new MockSplitEnumeratorCheckpointSerializer()),
+                        context,
+                        store,
+                        WatermarkAlignmentParams.WATERMARK_ALIGNMENT_DISABLED,
+                        listeningID)) {
+            coordinator.start();
+            waitForCoordinatorToProcessActions();
+
+            // the coordinator registers itself, so that later events are sent to it directly
+            assertSame(coordinator, store.get(listeningID));
+            ((OperatorCoordinator) store.get(listeningID))
+                    .handleEventFromOperator(0, new SourceEventWrapper(laterEvent));
+            waitForCoordinatorToProcessActions();
+
+            final TestingSplitEnumerator<?> enumerator =
+                    (TestingSplitEnumerator<?>) coordinator.getEnumerator();
+            assertEquals(
+                    Arrays.asList(pendingEvent, laterEvent), enumerator.getHandledSourceEvent());
+        }
+    }
+
     @Test
     public void testCheckpointCoordinatorAndRestore() throws Exception {
         sourceReady();
@@ -18,10 +18,16 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.state.hashmap.HashMapStateBackend;
 import org.apache.flink.runtime.state.storage.FileSystemCheckpointStorage;
 import org.apache.flink.runtime.state.storage.JobManagerCheckpointStorage;
+import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.function.SupplierWithException;
 
 import org.junit.ClassRule;
@@ -32,9 +38,14 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
 /**
  * Tests for the keyed state backend and operator state backend, as created by the {@link
  * HashMapStateBackend}.
@@ -44,15 +55,19 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
 
     @ClassRule public static final TemporaryFolder TEMP_FOLDER = new TemporaryFolder();
 
-    @Parameterized.Parameters
+    @Parameterized.Parameters(name = "incremental={0}")
     public static List<Object[]> modes() {
-        return Arrays.asList(
-                new Object[][] {
-                    {
+        List<Object[]> modes = new ArrayList<>();
+        for (boolean enableIncrementalCheckpointing : new boolean[] {false, true}) {
+            modes.add(
+                    new Object[] {
+                        enableIncrementalCheckpointing,
                         (SupplierWithException<CheckpointStorage, IOException>)
                                 JobManagerCheckpointStorage::new
-                    },
-                    {
+                    });
+            modes.add(
+                    new Object[] {
+                        enableIncrementalCheckpointing,
                         (SupplierWithException<CheckpointStorage, IOException>)
                                 () -> {
                                     String checkpointPath =
@@ -60,16 +75,20 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
                                     return new FileSystemCheckpointStorage(
                                             new Path(checkpointPath), 0, -1);
                                 }
-                    }
-                });
+                    });
+        }
+        return modes;
     }
 
-    @Parameterized.Parameter
+    @Parameterized.Parameter(value = 0)
+    public boolean enableIncrementalCheckpointing;
+
+    @Parameterized.Parameter(value = 1)
     public SupplierWithException<CheckpointStorage, IOException> storageSupplier;
 
     @Override
     protected ConfigurableStateBackend getStateBackend() {
-        return new HashMapStateBackend();
+        return new HashMapStateBackend(enableIncrementalCheckpointing);
     }
 
     @Override
@@ -87,6 +106,102 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
         return true;
     }
 
+    @Test
+    public void testIncrementalCheckpointOnlyWritesChangedKeyGroups() throws Exception {
+        assumeTrue(enableIncrementalCheckpointing);
+
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistryImpl();
+        ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+        CheckpointableKeyedStateBackend<Integer> backend =
+                createKeyedBackend(IntSerializer.INSTANCE);
+        IncrementalRemoteKeyedStateHandle firstHandle;
+        IncrementalRemoteKeyedStateHandle secondHandle;
+        try {
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                state.update("first-" + key);
+            }
+
+            firstHandle =
+                    (IncrementalRemoteKeyedStateHandle)
+                            runSnapshot(
+                                    backend.snapshot(
+                                            1L,
+                                            1L,
+                                            createStreamFactory(),
+                                            CheckpointOptions.forCheckpointWithDefaultLocation()),
+                                    sharedStateRegistry);
+            ((CheckpointListener) backend).notifyCheckpointComplete(1L);
+
+            backend.setCurrentKey(42);
+            state.update("second-42");
+
+            secondHandle =
+                    (IncrementalRemoteKeyedStateHandle)
+                            runSnapshot(
+                                    backend.snapshot(
+                                            2L,
+                                            2L,
+                                            createStreamFactory(),
+                                            CheckpointOptions.forCheckpointWithDefaultLocation()),
+                                    sharedStateRegistry);
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        // the second checkpoint refers to the part of the first one and adds a smaller part
+        assertEquals(1, firstHandle.getSharedState().size());
+        assertEquals(2, secondHandle.getSharedState().size());
+        assertTrue(
+                secondHandle
+                        .getSharedState()
+                        .keySet()
+                        .containsAll(firstHandle.getSharedState().keySet()));
+        assertTrue(secondHandle.getCheckpointedSize() < firstHandle.getCheckpointedSize());
+
+        backend = restoreKeyedBackend(IntSerializer.INSTANCE, secondHandle);
+        try {
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                assertEquals(key == 42 ? "second-42" : "first-" + key, state.value());
+            }
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        // rescaling only restores the key groups of the new range from the parts
+        KeyGroupRange subRange = new KeyGroupRange(0, 4);
+        backend =
+                restoreKeyedBackend(
+                        IntSerializer.INSTANCE,
+                        10,
+                        subRange,
+                        Collections.singletonList(secondHandle),
+                        env);
+        try {
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            for (int key = 0; key < 100; key++) {
+                if (subRange.contains(KeyGroupRangeAssignment.assignToKeyGroup(key, 10))) {
+                    backend.setCurrentKey(key);
+                    assertEquals(key == 42 ? "second-42" : "first-" + key, state.value());
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+    }
+
     // disable these because the verification does not work for this state backend
     @Override
     @Test
@@ -54,6 +54,22 @@ public class SerializedCompositeKeyBuilderTest {
         }
     }
 
+    @Test
+    public void testBuildKeyGroupAndKey() throws IOException {
+        SerializedCompositeKeyBuilder<String> keyBuilder =
+                createRocksDBSerializedCompositeKeyBuilder(StringSerializer.INSTANCE, 1);
+        for (String testKey : TEST_STRINGS) {
+            keyBuilder.setKeyAndKeyGroup(testKey, 3);
+            byte[] keyGroupAndKey = keyBuilder.buildKeyGroupAndKey();
+            byte[] compositeKey =
+                    keyBuilder.buildCompositeKeyNamespace(4711, IntSerializer.INSTANCE);
+            Assert.assertTrue(compositeKey.length > keyGroupAndKey.length);
+            Assert.assertArrayEquals(
+                    keyGroupAndKey, Arrays.copyOf(compositeKey, keyGroupAndKey.length));
+            Assert.assertArrayEquals(keyGroupAndKey, keyBuilder.buildKeyGroupAndKey());
+        }
+    }
+
     @Test
     public void testSetKeyNamespace() throws IOException {
         testSetKeyNamespaceInternal(BuildKeyAndNamespaceType.BUILD);
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Test for {@link BucketedHeapPriorityQueueSet}. */
+public class BucketedHeapPriorityQueueSetTest extends HeapPriorityQueueSetTest {
+
+    /** Splits the range of the random test priorities into 256 buckets. */
+    private static final long BUCKET_SIZE = 1L << 56;
+
+    @Test
+    public void testRemoveAndAddElementsOfLaterBuckets() {
+        HeapPriorityQueueSet<TestElement> priorityQueue = newPriorityQueue(1, 10L);
+
+        final TestElement head = new TestElement(0L, 0L);
+        Assert.assertTrue(priorityQueue.add(head));
+
+        final List<TestElement> elements = new ArrayList<>();
+        for (int i = 1; i <= 5000; ++i) {
+            TestElement element = new TestElement(i, 10L + i % 100);
+            elements.add(element);
+            Assert.assertFalse(priorityQueue.add(element));
+        }
+
+        // removes enough elements of later buckets to compact them, and adds back some of the
+        // removed instances and some copies
+        final Set<TestElement> checkSet = new HashSet<>();
+        for (int i = 0; i < elements.size(); ++i) {
+            final TestElement element = elements.get(i);
+            if (i % 4 == 0) {
+                checkSet.add(element);
+            } else {
+                Assert.assertFalse(priorityQueue.remove(element));
+            }
+        }
+        for (int i = 1; i < elements.size(); i += 8) {
+            final TestElement element = elements.get(i);
+            priorityQueue.add(i % 16 == 1 ? element : element.deepCopy());
+            checkSet.add(element);
+        }
+        Assert.assertFalse(priorityQueue.remove(new TestElement(1L, 4711L)));
+        Assert.assertEquals(checkSet.size() + 1, priorityQueue.size());
+
+        Assert.assertEquals(head, priorityQueue.poll());
+        long lastPriority = Long.MIN_VALUE;
+        TestElement element;
+        while ((element = priorityQueue.poll()) != null) {
+            Assert.assertTrue(element.getPriority() >= lastPriority);
+            Assert.assertTrue(checkSet.remove(element));
+            lastPriority = element.getPriority();
+        }
+        Assert.assertTrue(checkSet.isEmpty());
+        Assert.assertTrue(priorityQueue.isEmpty());
+    }
+
+    @Test
+    public void testElementsOfEarlierBucketsAreAddedToTheHeap() {
+        HeapPriorityQueueSet<TestElement> priorityQueue = newPriorityQueue(1, 10L);
+
+        Assert.assertTrue(priorityQueue.add(new TestElement(1L, 25L)));
+        Assert.assertFalse(priorityQueue.add(new TestElement(2L, 45L)));
+        Assert.assertTrue(priorityQueue.add(new TestElement(3L, 5L)));
+        Assert.assertFalse(priorityQueue.add(new TestElement(4L, 21L)));
+
+        Assert.assertEquals(5L, priorityQueue.poll().getPriority());
+        Assert.assertEquals(21L, priorityQueue.poll().getPriority());
+        Assert.assertTrue(priorityQueue.add(new TestElement(5L, 15L)));
+        Assert.assertEquals(15L, priorityQueue.poll().getPriority());
+        Assert.assertEquals(25L, priorityQueue.poll().getPriority());
+        Assert.assertEquals(45L, priorityQueue.peek().getPriority());
+        Assert.assertEquals(1, priorityQueue.size());
+    }
+
+    @Override
+    protected HeapPriorityQueueSet<TestElement> newPriorityQueue(int initialCapacity) {
+        return newPriorityQueue(initialCapacity, BUCKET_SIZE);
+    }
+
+    private static HeapPriorityQueueSet<TestElement> newPriorityQueue(
+            int initialCapacity, long bucketSize) {
+        return new BucketedHeapPriorityQueueSet<>(
+                TEST_ELEMENT_PRIORITY_COMPARATOR,
+                KEY_EXTRACTOR_FUNCTION,
+                TestElement::getPriority,
+                bucketSize,
+                initialCapacity,
+                KEY_GROUP_RANGE,
+                KEY_GROUP_RANGE.getNumberOfKeyGroups());
+    }
+}
@@ -88,6 +88,8 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
@@ -429,11 +431,41 @@ public class ChangelogKeyedStateBackend<K>
 
     @Nonnull
     @Override
-    @SuppressWarnings("unchecked")
     public <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
             KeyGroupedInternalPriorityQueue<T> create(
                     @Nonnull String stateName,
                     @Nonnull TypeSerializer<T> byteOrderedElementSerializer) {
+        return createPriorityQueue(
+                stateName,
+                byteOrderedElementSerializer,
+                () -> keyedStateBackend.create(stateName, byteOrderedElementSerializer));
+    }
+
+    @Nonnull
+    @Override
+    public <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            KeyGroupedInternalPriorityQueue<T> createBucketed(
+                    @Nonnull String stateName,
+                    @Nonnull TypeSerializer<T> byteOrderedElementSerializer,
+                    @Nonnull ToLongFunction<T> priorityExtractor,
+                    long bucketSize) {
+        return createPriorityQueue(
+                stateName,
+                byteOrderedElementSerializer,
+                () ->
+                        keyedStateBackend.createBucketed(
+                                stateName,
+                                byteOrderedElementSerializer,
+                                priorityExtractor,
+                                bucketSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            KeyGroupedInternalPriorityQueue<T> createPriorityQueue(
+                    String stateName,
+                    TypeSerializer<T> byteOrderedElementSerializer,
+                    Supplier<KeyGroupedInternalPriorityQueue<T>> delegatedQueueFactory) {
         ChangelogKeyGroupedPriorityQueue<T> queue =
                 (ChangelogKeyGroupedPriorityQueue<T>)
                         changelogStateFactory.getExistingState(
@@ -451,7 +483,7 @@ public class ChangelogKeyedStateBackend<K>
             queue =
                     changelogStateFactory.create(
                             stateName,
-                            keyedStateBackend.create(stateName, byteOrderedElementSerializer),
+                            delegatedQueueFactory.get(),
                             priorityQueueStateChangeLogger,
                             byteOrderedElementSerializer);
         }
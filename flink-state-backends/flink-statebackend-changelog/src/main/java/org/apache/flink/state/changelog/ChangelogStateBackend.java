@@ -89,6 +89,7 @@ public class ChangelogStateBackend extends AbstractChangelogStateBackend
         CheckpointableKeyedStateBackend<K> keyedStateBackend =
                 ChangelogBackendRestoreOperation.restore(
                         env.getUserCodeClassLoader().asClassLoader(),
+                        changelogStorage,
                         stateBackendHandles,
                         baseBackendBuilder,
                         (baseBackend, baseState) ->
@@ -26,12 +26,15 @@ import org.apache.flink.runtime.state.changelog.ChangelogStateHandle;
 import org.apache.flink.runtime.state.changelog.StateChange;
 import org.apache.flink.runtime.state.changelog.StateChangelogHandleReader;
 import org.apache.flink.runtime.state.changelog.StateChangelogStorageLoader;
+import org.apache.flink.runtime.state.changelog.StateChangelogStorageView;
 import org.apache.flink.state.changelog.ChangelogKeyedStateBackend;
 import org.apache.flink.util.CloseableIterator;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.function.BiFunctionWithException;
 import org.apache.flink.util.function.FunctionWithException;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -65,6 +68,26 @@ public class ChangelogBackendRestoreOperation {
             BaseBackendBuilder<K> baseBackendBuilder,
             ChangelogRestoreTargetBuilder<K> changelogRestoreTargetBuilder)
             throws Exception {
+        return restore(
+                classLoader,
+                null,
+                stateHandles,
+                baseBackendBuilder,
+                changelogRestoreTargetBuilder);
+    }
+
+    /**
+     * Restores the backend, reading the changelog with the given storage view where it {@link
+     * StateChangelogStorageView#canRead can read} it, e.g. to make use of the local state of an
+     * already running storage.
+     */
+    public static <K> CheckpointableKeyedStateBackend<K> restore(
+            ClassLoader classLoader,
+            @Nullable StateChangelogStorageView<?> changelogStorageView,
+            Collection<ChangelogStateBackendHandle> stateHandles,
+            BaseBackendBuilder<K> baseBackendBuilder,
+            ChangelogRestoreTargetBuilder<K> changelogRestoreTargetBuilder)
+            throws Exception {
         Collection<KeyedStateHandle> baseState = extractBaseState(stateHandles);
         AbstractKeyedStateBackend<K> baseBackend = baseBackendBuilder.apply(baseState);
         ChangelogRestoreTarget<K> changelogRestoreTarget =
@@ -72,7 +95,8 @@ public class ChangelogBackendRestoreOperation {
 
         for (ChangelogStateBackendHandle handle : stateHandles) {
             if (handle != null) { // null is empty state (no change)
-                readBackendHandle(changelogRestoreTarget, handle, classLoader);
+                readBackendHandle(
+                        changelogRestoreTarget, handle, classLoader, changelogStorageView);
             }
         }
         return changelogRestoreTarget.getRestoredKeyedStateBackend();
@@ -82,15 +106,18 @@ public class ChangelogBackendRestoreOperation {
     private static <T extends ChangelogStateHandle> void readBackendHandle(
             ChangelogRestoreTarget<?> changelogRestoreTarget,
             ChangelogStateBackendHandle backendHandle,
-            ClassLoader classLoader)
+            ClassLoader classLoader,
+            @Nullable StateChangelogStorageView<?> changelogStorageView)
             throws Exception {
         Map<Short, StateID> stateIds = new HashMap<>();
         for (ChangelogStateHandle changelogHandle :
                 backendHandle.getNonMaterializedStateHandles()) {
+            StateChangelogStorageView<?> storageView =
+                    changelogStorageView != null && changelogStorageView.canRead(changelogHandle)
+                            ? changelogStorageView
+                            : StateChangelogStorageLoader.loadFromStateHandle(changelogHandle);
             StateChangelogHandleReader<T> changelogHandleReader =
-                    (StateChangelogHandleReader<T>)
-                            StateChangelogStorageLoader.loadFromStateHandle(changelogHandle)
-                                    .createReader();
+                    (StateChangelogHandleReader<T>) storageView.createReader();
             try (CloseableIterator<StateChange> changes =
                     changelogHandleReader.getChanges((T) changelogHandle)) {
                 while (changes.hasNext()) {
@@ -157,15 +157,54 @@ public class CopyOnWriteSkipListStateMapSnapshot<K, N, S>
             @Nonnull DataOutputView dov,
             @Nullable StateSnapshotTransformer<S> stateSnapshotTransformer)
             throws IOException {
+        dov.writeInt(getNumberOfEntries(stateSerializer, stateSnapshotTransformer));
+        writeEntries(stateSerializer, dov, stateSnapshotTransformer);
+    }
+
+    /**
+     * Returns the number of entries which are written by {@link #writeEntries}. With a
+     * transformer, this iterates the nodes once to count the entries which are not filtered out.
+     */
+    int getNumberOfEntries(
+            TypeSerializer<S> stateSerializer,
+            @Nullable StateSnapshotTransformer<S> stateSnapshotTransformer) {
+        if (stateSnapshotTransformer == null) {
+            return numberOfEntriesInSnapshotData;
+        }
+
+        SkipListValueSerializer<S> skipListValueSerializer =
+                new SkipListValueSerializer<>(stateSerializer);
+        SnapshotNodeIterator transformNodeIterator = new SnapshotNodeIterator(true);
+        int size = 0;
+        while (transformNodeIterator.hasNext()) {
+            Tuple2<Long, Long> tuple = transformNodeIterator.next();
+            S oldState = owningStateMap.helpGetState(tuple.f1, skipListValueSerializer);
+            S newState = stateSnapshotTransformer.filterOrTransform(oldState);
+            if (newState != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the entries of this snapshot without their count, in the same format as the entries
+     * of a {@link CopyOnWriteStateMapSnapshot}. With a transformer, {@link #getNumberOfEntries}
+     * must have been called before.
+     */
+    void writeEntries(
+            TypeSerializer<S> stateSerializer,
+            @Nonnull DataOutputView dov,
+            @Nullable StateSnapshotTransformer<S> stateSnapshotTransformer)
+            throws IOException {
         if (stateSnapshotTransformer == null) {
-            writeStateWithNoTransform(dov);
+            writeEntriesWithNoTransform(dov);
         } else {
-            writeStateWithTransform(stateSerializer, dov, stateSnapshotTransformer);
+            writeEntriesWithTransform(stateSerializer, dov, stateSnapshotTransformer);
         }
     }
 
-    private void writeStateWithNoTransform(@Nonnull DataOutputView dov) throws IOException {
-        dov.writeInt(numberOfEntriesInSnapshotData);
+    private void writeEntriesWithNoTransform(@Nonnull DataOutputView dov) throws IOException {
         SnapshotNodeIterator nodeIterator = new SnapshotNodeIterator(true);
         while (nodeIterator.hasNext()) {
             Tuple2<Long, Long> tuple = nodeIterator.next();
@@ -174,7 +213,7 @@ public class CopyOnWriteSkipListStateMapSnapshot<K, N, S>
         }
     }
 
-    private void writeStateWithTransform(
+    private void writeEntriesWithTransform(
             TypeSerializer<S> stateSerializer,
             @Nonnull DataOutputView dov,
             @Nonnull StateSnapshotTransformer<S> stateSnapshotTransformer)
@@ -182,21 +221,7 @@ public class CopyOnWriteSkipListStateMapSnapshot<K, N, S>
         SkipListValueSerializer<S> skipListValueSerializer =
                 new SkipListValueSerializer<>(stateSerializer);
 
-        // 1. iterates nodes to get size after transform
-        SnapshotNodeIterator transformNodeIterator = new SnapshotNodeIterator(true);
-        int size = 0;
-        while (transformNodeIterator.hasNext()) {
-            Tuple2<Long, Long> tuple = transformNodeIterator.next();
-            S oldState = owningStateMap.helpGetState(tuple.f1, skipListValueSerializer);
-            S newState = stateSnapshotTransformer.filterOrTransform(oldState);
-            if (newState != null) {
-                size++;
-            }
-        }
-
-        dov.writeInt(size);
-
-        // 2. iterates nodes again to write them to output, and there is no need to prune
+        // the nodes have been pruned when counting them, so there is no need to prune
         SnapshotNodeIterator writeNodeIterator = new SnapshotNodeIterator(false);
         while (writeNodeIterator.hasNext()) {
             Tuple2<Long, Long> tuple = writeNodeIterator.next();
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.state.heap.space.SpaceAllocator;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides when the state of the {@link SpillableStateTable SpillableStateTables} of a backend is
+ * spilled out of the heap. The heap usage is checked every configured number of calls of {@link
+ * #checkHeapUsage()}, but only if a garbage collection happened since the last check, as the heap
+ * usage shortly after a garbage collection is a good estimate of the live data on the heap. If it
+ * exceeds the threshold, the state maps with the fewest accesses per entry since the last spill
+ * are spilled, until the configured fraction of the entries on the heap is spilled.
+ *
+ * <p>{@link #checkHeapUsage()} must only be called when no state objects of the tables are
+ * referenced outside of the tables, because spilling them would make such references stale.
+ */
+class SpillController implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpillController.class);
+
+    private final SpaceAllocator spaceAllocator;
+
+    /** The fraction of the maximum heap size above which state is spilled. */
+    private final double heapUsageThreshold;
+
+    /** The fraction of the entries on the heap which is spilled at once. */
+    private final double spillFraction;
+
+    /** The number of calls of {@link #checkHeapUsage()} between two checks of the heap. */
+    private final int checkInterval;
+
+    private final List<SpillableStateTable<?, ?, ?>> stateTables;
+
+    private final MemoryMXBean memoryBean;
+
+    private final List<GarbageCollectorMXBean> garbageCollectorBeans;
+
+    private final long maxHeapSize;
+
+    private int numCallsSinceLastCheck;
+
+    private long lastCollectionCount;
+
+    SpillController(
+            SpaceAllocator spaceAllocator,
+            double heapUsageThreshold,
+            double spillFraction,
+            int checkInterval) {
+        Preconditions.checkArgument(
+                heapUsageThreshold > 0 && heapUsageThreshold <= 1,
+                "The heap usage threshold must be in (0, 1], but is %s.",
+                heapUsageThreshold);
+        Preconditions.checkArgument(
+                spillFraction > 0 && spillFraction <= 1,
+                "The spill fraction must be in (0, 1], but is %s.",
+                spillFraction);
+        Preconditions.checkArgument(
+                checkInterval > 0, "The check interval must be positive, but is %s.", checkInterval);
+
+        this.spaceAllocator = spaceAllocator;
+        this.heapUsageThreshold = heapUsageThreshold;
+        this.spillFraction = spillFraction;
+        this.checkInterval = checkInterval;
+        this.stateTables = new ArrayList<>();
+        this.memoryBean = ManagementFactory.getMemoryMXBean();
+        this.garbageCollectorBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        this.maxHeapSize = Runtime.getRuntime().maxMemory();
+        this.lastCollectionCount = getCollectionCount();
+    }
+
+    SpaceAllocator getSpaceAllocator() {
+        return spaceAllocator;
+    }
+
+    void registerStateTable(SpillableStateTable<?, ?, ?> stateTable) {
+        stateTables.add(stateTable);
+    }
+
+    /** Spills state if the heap usage exceeds the threshold. */
+    void checkHeapUsage() {
+        if (++numCallsSinceLastCheck < checkInterval) {
+            return;
+        }
+        numCallsSinceLastCheck = 0;
+
+        long collectionCount = getCollectionCount();
+        if (collectionCount == lastCollectionCount) {
+            return;
+        }
+        lastCollectionCount = collectionCount;
+
+        long heapUsage = memoryBean.getHeapMemoryUsage().getUsed();
+        if (heapUsage > heapUsageThreshold * maxHeapSize) {
+            LOG.debug(
+                    "Spilling state, as {} of {} bytes of the heap are used.",
+                    heapUsage,
+                    maxHeapSize);
+            spill();
+        }
+    }
+
+    private long getCollectionCount() {
+        long collectionCount = 0;
+        for (GarbageCollectorMXBean garbageCollectorBean : garbageCollectorBeans) {
+            collectionCount += Math.max(0, garbageCollectorBean.getCollectionCount());
+        }
+        return collectionCount;
+    }
+
+    /** Spills the configured fraction of the entries on the heap, starting with the coldest. */
+    @VisibleForTesting
+    void spill() {
+        List<SpillableStateMap<?, ?, ?>> stateMaps = new ArrayList<>();
+        long numHeapEntries = 0;
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            for (SpillableStateMap<?, ?, ?> stateMap : stateTable.getStateMaps()) {
+                if (stateMap.getNumHeapEntries() > 0) {
+                    stateMaps.add(stateMap);
+                    numHeapEntries += stateMap.getNumHeapEntries();
+                }
+            }
+        }
+        stateMaps.sort(
+                Comparator.comparingDouble(
+                        stateMap ->
+                                (double) stateMap.getNumAccesses()
+                                        / stateMap.getNumHeapEntries()));
+
+        long numEntriesToSpill = (long) Math.ceil(numHeapEntries * spillFraction);
+        long numSpilledEntries = 0;
+        int numSpilledMaps = 0;
+        for (SpillableStateMap<?, ?, ?> stateMap : stateMaps) {
+            if (numSpilledEntries >= numEntriesToSpill) {
+                break;
+            }
+            numSpilledEntries += stateMap.spill();
+            numSpilledMaps++;
+        }
+
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            for (SpillableStateMap<?, ?, ?> stateMap : stateTable.getStateMaps()) {
+                stateMap.decayNumAccesses();
+            }
+        }
+
+        LOG.info(
+                "Spilled {} of {} state entries on the heap from {} state maps, {} bytes are "
+                        + "allocated for spilled state.",
+                numSpilledEntries,
+                numHeapEntries,
+                numSpilledMaps,
+                spaceAllocator.getUsedMemorySize());
+    }
+
+    /** Releases all spilled state, after all snapshots of it are released. */
+    @Override
+    public void close() {
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            for (SpillableStateMap<?, ?, ?> stateMap : stateTable.getStateMaps()) {
+                IOUtils.closeQuietly(stateMap);
+            }
+        }
+        stateTables.clear();
+        IOUtils.closeQuietly(spaceAllocator);
+    }
+}
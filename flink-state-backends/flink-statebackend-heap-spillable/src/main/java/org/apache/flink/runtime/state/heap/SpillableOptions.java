@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.ConfigOptions;
+import org.apache.flink.configuration.MemorySize;
+
+/** Configuration options for the {@link SpillableStateBackend}. */
+@PublicEvolving
+public class SpillableOptions {
+
+    /** The heap usage above which state is spilled out of the heap. */
+    public static final ConfigOption<Float> HEAP_USAGE_THRESHOLD =
+            ConfigOptions.key("state.backend.spillable.heap-usage-threshold")
+                    .floatType()
+                    .defaultValue(0.7f)
+                    .withDescription(
+                            "The fraction of the maximum heap size above which the state is spilled "
+                                    + "out of the heap. The heap usage is measured after garbage "
+                                    + "collections.");
+
+    /** The fraction of the state on the heap which is spilled at once. */
+    public static final ConfigOption<Float> SPILL_FRACTION =
+            ConfigOptions.key("state.backend.spillable.spill-fraction")
+                    .floatType()
+                    .defaultValue(0.2f)
+                    .withDescription(
+                            "The fraction of the state entries on the heap which is spilled at "
+                                    + "once. The key groups of each state with the fewest accesses "
+                                    + "per entry are spilled first.");
+
+    /** The number of records between two checks of the heap usage. */
+    public static final ConfigOption<Integer> CHECK_INTERVAL =
+            ConfigOptions.key("state.backend.spillable.check-interval")
+                    .intType()
+                    .defaultValue(1000)
+                    .withDescription(
+                            "The number of processed keys, or of restored state entries, between "
+                                    + "two checks of the heap usage.");
+
+    /** The size of the chunks which hold the spilled state. */
+    public static final ConfigOption<MemorySize> CHUNK_SIZE =
+            ConfigOptions.key("state.backend.spillable.chunk-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("64mb"))
+                    .withDescription(
+                            "The size of the chunks of memory which hold the spilled state. It must "
+                                    + "be a multiple of 1 mb and smaller than 2 gb.");
+
+    /** The maximum size of the spilled state. */
+    public static final ConfigOption<MemorySize> MAX_SPILL_SIZE =
+            ConfigOptions.key("state.backend.spillable.max-spill-size")
+                    .memoryType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The maximum size of the memory which holds the spilled state of each "
+                                    + "keyed state backend. Spilling fails when it is exceeded. "
+                                    + "The size is not bounded if it is not set.");
+
+    /** The directory of the files which hold the spilled state. */
+    public static final ConfigOption<String> MMAP_DIRECTORY =
+            ConfigOptions.key("state.backend.spillable.mmap-directory")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The directory of the memory-mapped files which hold the spilled state, "
+                                    + "so that the operating system can page it out to disk. The "
+                                    + "spilled state is held in off-heap memory if it is not set, "
+                                    + "which has to be accounted for with "
+                                    + "'taskmanager.memory.task.off-heap.size'.");
+}
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.IllegalConfigurationException;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.core.execution.SavepointFormatType;
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.BackendBuildingException;
+import org.apache.flink.runtime.state.ConfigurableStateBackend;
+import org.apache.flink.runtime.state.DefaultOperatorStateBackendBuilder;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
+import org.apache.flink.runtime.state.OperatorStateBackend;
+import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.TaskStateManager;
+import org.apache.flink.runtime.state.heap.space.SpaceAllocator;
+import org.apache.flink.runtime.state.metrics.LatencyTrackingStateConfig;
+import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This state backend holds the working state in the memory (JVM heap) of the TaskManagers like the
+ * {@link org.apache.flink.runtime.state.hashmap.HashMapStateBackend}, but spills the state of cold
+ * key groups out of the heap when the heap is about to run full. The spilled state is kept in
+ * off-heap memory, or in memory-mapped files which the operating system can page out to disk.
+ * State which is accessed again is moved back to the heap.
+ *
+ * <h1>Compatibility</h1>
+ *
+ * <p>Checkpoints and savepoints are written in the same format as those of the {@link
+ * org.apache.flink.runtime.state.hashmap.HashMapStateBackend}, so that jobs can switch between the
+ * two backends when restoring.
+ *
+ * <h1>Configuration</h1>
+ *
+ * <p>The backend can either be configured within the application via its setters, or by
+ * specifying the {@link SpillableOptions} in the Flink configuration. The settings of the
+ * application take precedence.
+ */
+@PublicEvolving
+public class SpillableStateBackend extends AbstractStateBackend
+        implements ConfigurableStateBackend {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final List<ConfigOption<?>> OPTIONS =
+            Arrays.asList(
+                    SpillableOptions.HEAP_USAGE_THRESHOLD,
+                    SpillableOptions.SPILL_FRACTION,
+                    SpillableOptions.CHECK_INTERVAL,
+                    SpillableOptions.CHUNK_SIZE,
+                    SpillableOptions.MAX_SPILL_SIZE,
+                    SpillableOptions.MMAP_DIRECTORY);
+
+    /** The options set on this backend, which take precedence over the Flink configuration. */
+    private final Configuration configuration;
+
+    // -----------------------------------------------------------------------
+
+    /** Creates a new state backend. */
+    public SpillableStateBackend() {
+        this.configuration = new Configuration();
+    }
+
+    private SpillableStateBackend(SpillableStateBackend original, ReadableConfig config) {
+        // configure latency tracking
+        latencyTrackingConfigBuilder = original.latencyTrackingConfigBuilder.configure(config);
+
+        this.configuration = new Configuration();
+        for (ConfigOption<?> option : OPTIONS) {
+            copyOption(option, config);
+            copyOption(option, original.configuration);
+        }
+    }
+
+    private <T> void copyOption(ConfigOption<T> option, ReadableConfig config) {
+        config.getOptional(option).ifPresent(value -> configuration.set(option, value));
+    }
+
+    @Override
+    public SpillableStateBackend configure(ReadableConfig config, ClassLoader classLoader)
+            throws IllegalConfigurationException {
+        return new SpillableStateBackend(this, config);
+    }
+
+    @Override
+    public boolean supportsNoClaimRestoreMode() {
+        // we never share any files, all snapshots are full
+        return true;
+    }
+
+    @Override
+    public boolean supportsSavepointFormat(SavepointFormatType formatType) {
+        return true;
+    }
+
+    // -----------------------------------------------------------------------
+    //  Configuration
+    // -----------------------------------------------------------------------
+
+    /**
+     * Sets the fraction of the maximum heap size above which the state is spilled out of the heap.
+     */
+    public void setHeapUsageThreshold(float heapUsageThreshold) {
+        configuration.set(SpillableOptions.HEAP_USAGE_THRESHOLD, heapUsageThreshold);
+    }
+
+    public float getHeapUsageThreshold() {
+        return configuration.get(SpillableOptions.HEAP_USAGE_THRESHOLD);
+    }
+
+    /** Sets the maximum size of the memory which holds the spilled state of each backend. */
+    public void setMaxSpillSize(MemorySize maxSpillSize) {
+        configuration.set(SpillableOptions.MAX_SPILL_SIZE, maxSpillSize);
+    }
+
+    @Nullable
+    public MemorySize getMaxSpillSize() {
+        return configuration.get(SpillableOptions.MAX_SPILL_SIZE);
+    }
+
+    /**
+     * Sets the directory of the memory-mapped files which hold the spilled state. The spilled
+     * state is held in off-heap memory if no directory is set.
+     */
+    public void setMmapDirectory(String mmapDirectory) {
+        configuration.set(SpillableOptions.MMAP_DIRECTORY, mmapDirectory);
+    }
+
+    @Nullable
+    public String getMmapDirectory() {
+        return configuration.get(SpillableOptions.MMAP_DIRECTORY);
+    }
+
+    // -----------------------------------------------------------------------
+    //  State holding data structures
+    // -----------------------------------------------------------------------
+
+    @Override
+    public <K> AbstractKeyedStateBackend<K> createKeyedStateBackend(
+            Environment env,
+            JobID jobID,
+            String operatorIdentifier,
+            TypeSerializer<K> keySerializer,
+            int numberOfKeyGroups,
+            KeyGroupRange keyGroupRange,
+            TaskKvStateRegistry kvStateRegistry,
+            TtlTimeProvider ttlTimeProvider,
+            MetricGroup metricGroup,
+            @Nonnull Collection<KeyedStateHandle> stateHandles,
+            CloseableRegistry cancelStreamRegistry)
+            throws IOException {
+
+        TaskStateManager taskStateManager = env.getTaskStateManager();
+        LocalRecoveryConfig localRecoveryConfig = taskStateManager.createLocalRecoveryConfig();
+        HeapPriorityQueueSetFactory priorityQueueSetFactory =
+                new HeapPriorityQueueSetFactory(keyGroupRange, numberOfKeyGroups, 128);
+
+        LatencyTrackingStateConfig latencyTrackingStateConfig =
+                latencyTrackingConfigBuilder.setMetricGroup(metricGroup).build();
+
+        SpaceAllocator spaceAllocator = createSpaceAllocator();
+        SpillController spillController =
+                new SpillController(
+                        spaceAllocator,
+                        getHeapUsageThreshold(),
+                        configuration.get(SpillableOptions.SPILL_FRACTION),
+                        configuration.get(SpillableOptions.CHECK_INTERVAL));
+        StateTableFactory<K> stateTableFactory =
+                new StateTableFactory<K>() {
+                    @Override
+                    public <N, V> StateTable<K, N, V> newStateTable(
+                            InternalKeyContext<K> keyContext,
+                            RegisteredKeyValueStateBackendMetaInfo<N, V> keyValueStateMetaInfo,
+                            TypeSerializer<K> keySerializer) {
+                        return new SpillableStateTable<>(
+                                keyContext, keyValueStateMetaInfo, keySerializer, spillController);
+                    }
+                };
+
+        HeapKeyedStateBackend<K> keyedStateBackend =
+                new HeapKeyedStateBackendBuilder<>(
+                                kvStateRegistry,
+                                keySerializer,
+                                env.getUserCodeClassLoader().asClassLoader(),
+                                numberOfKeyGroups,
+                                keyGroupRange,
+                                env.getExecutionConfig(),
+                                ttlTimeProvider,
+                                latencyTrackingStateConfig,
+                                stateHandles,
+                                getCompressionDecorator(env.getExecutionConfig()),
+                                localRecoveryConfig,
+                                priorityQueueSetFactory,
+                                true,
+                                cancelStreamRegistry,
+                                stateTableFactory,
+                                spillController)
+                        .build();
+
+        // a new key is selected before a record is processed, when no state objects are in use
+        keyedStateBackend.registerKeySelectionListener(key -> spillController.checkHeapUsage());
+        metricGroup.gauge(
+                "spilledStateMemorySize", (Gauge<Long>) spaceAllocator::getUsedMemorySize);
+        return keyedStateBackend;
+    }
+
+    private SpaceAllocator createSpaceAllocator() throws IOException {
+        long chunkSize = configuration.get(SpillableOptions.CHUNK_SIZE).getBytes();
+        if (chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalConfigurationException(
+                    "The chunk size %s must be smaller than 2 gb.",
+                    configuration.get(SpillableOptions.CHUNK_SIZE));
+        }
+
+        MemorySize maxSpillSize = getMaxSpillSize();
+        File mmapDirectory = null;
+        if (getMmapDirectory() != null) {
+            mmapDirectory = new File(getMmapDirectory());
+            if (!mmapDirectory.isDirectory() && !mmapDirectory.mkdirs()) {
+                throw new IOException("Could not create the directory " + mmapDirectory + ".");
+            }
+        }
+        return new SpaceAllocator(
+                (int) chunkSize,
+                maxSpillSize == null ? Long.MAX_VALUE : maxSpillSize.getBytes(),
+                mmapDirectory);
+    }
+
+    @Override
+    public OperatorStateBackend createOperatorStateBackend(
+            Environment env,
+            String operatorIdentifier,
+            @Nonnull Collection<OperatorStateHandle> stateHandles,
+            CloseableRegistry cancelStreamRegistry)
+            throws BackendBuildingException {
+
+        return new DefaultOperatorStateBackendBuilder(
+                        env.getUserCodeClassLoader().asClassLoader(),
+                        env.getExecutionConfig(),
+                        true,
+                        stateHandles,
+                        cancelStreamRegistry)
+                .build();
+    }
+}
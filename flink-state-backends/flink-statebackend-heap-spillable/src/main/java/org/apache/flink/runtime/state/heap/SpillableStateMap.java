@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.StateEntry;
+import org.apache.flink.runtime.state.StateTransformationFunction;
+import org.apache.flink.runtime.state.internal.InternalKvState;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.flink.runtime.state.heap.CopyOnWriteSkipListStateMap.DEFAULT_LOGICAL_REMOVED_KEYS_RATIO;
+import static org.apache.flink.runtime.state.heap.CopyOnWriteSkipListStateMap.DEFAULT_MAX_KEYS_TO_DELETE_ONE_TIME;
+import static org.apache.flink.shaded.guava30.com.google.common.collect.Iterators.concat;
+
+/**
+ * A {@link StateMap} which keeps its entries in a {@link CopyOnWriteStateMap} on the heap, and can
+ * spill all of them to a {@link CopyOnWriteSkipListStateMap} outside of the heap. A spilled entry
+ * is moved back to the heap when it is read, because the heap states modify the returned state
+ * objects in place. Each entry is either on the heap or spilled, never both.
+ *
+ * @param <K> type of key
+ * @param <N> type of namespace
+ * @param <S> type of state
+ */
+class SpillableStateMap<K, N, S> extends StateMap<K, N, S> implements AutoCloseable {
+
+    private final SpillableStateTable<K, N, S> owningStateTable;
+
+    /** The entries on the heap, which is replaced by an empty map when they are spilled. */
+    private CopyOnWriteStateMap<K, N, S> heapMap;
+
+    /** The spilled entries, which is created by the first spill. */
+    @Nullable private CopyOnWriteSkipListStateMap<K, N, S> spilledMap;
+
+    /** The namespace serializer the spilled entries are written with. */
+    @Nullable private TypeSerializer<N> spilledNamespaceSerializer;
+
+    /** The state serializer the spilled entries are written with. */
+    @Nullable private TypeSerializer<S> spilledStateSerializer;
+
+    /** The number of accesses since the last spill, which tells hot from cold maps. */
+    private long numAccesses;
+
+    SpillableStateMap(SpillableStateTable<K, N, S> owningStateTable) {
+        this.owningStateTable = owningStateTable;
+        this.heapMap = new CopyOnWriteStateMap<>(owningStateTable.getStateSerializer());
+    }
+
+    @Override
+    public int size() {
+        return heapMap.size() + getNumSpilledEntries();
+    }
+
+    @Override
+    public S get(K key, N namespace) {
+        numAccesses++;
+        S state = heapMap.get(key, namespace);
+        if (state == null && hasSpilledEntries()) {
+            state = spilledMap.removeAndGetOld(key, namespace);
+            if (state != null) {
+                heapMap.put(key, namespace, state);
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public boolean containsKey(K key, N namespace) {
+        numAccesses++;
+        return heapMap.containsKey(key, namespace)
+                || (hasSpilledEntries() && spilledMap.containsKey(key, namespace));
+    }
+
+    @Override
+    public void put(K key, N namespace, S state) {
+        numAccesses++;
+        S oldState = heapMap.putAndGetOld(key, namespace, state);
+        if (oldState == null && hasSpilledEntries()) {
+            spilledMap.remove(key, namespace);
+        }
+    }
+
+    @Override
+    public S putAndGetOld(K key, N namespace, S state) {
+        numAccesses++;
+        S oldState = heapMap.putAndGetOld(key, namespace, state);
+        if (oldState == null && hasSpilledEntries()) {
+            oldState = spilledMap.removeAndGetOld(key, namespace);
+        }
+        return oldState;
+    }
+
+    @Override
+    public void remove(K key, N namespace) {
+        removeAndGetOld(key, namespace);
+    }
+
+    @Override
+    public S removeAndGetOld(K key, N namespace) {
+        numAccesses++;
+        S oldState = heapMap.removeAndGetOld(key, namespace);
+        if (oldState == null && hasSpilledEntries()) {
+            oldState = spilledMap.removeAndGetOld(key, namespace);
+        }
+        return oldState;
+    }
+
+    @Override
+    public <T> void transform(
+            K key, N namespace, T value, StateTransformationFunction<S, T> transformation)
+            throws Exception {
+        if (hasSpilledEntries() && !heapMap.containsKey(key, namespace)) {
+            S state = spilledMap.removeAndGetOld(key, namespace);
+            if (state != null) {
+                heapMap.put(key, namespace, state);
+            }
+        }
+        numAccesses++;
+        heapMap.transform(key, namespace, value, transformation);
+    }
+
+    /**
+     * Returns the keys of the given namespace. Reading or spilling entries while the keys are
+     * consumed moves them between the heap and the spilled entries, so the keys are collected up
+     * front if there are spilled entries. Otherwise a spill only replaces the iterated heap map.
+     */
+    @Override
+    public Stream<K> getKeys(N namespace) {
+        if (!hasSpilledEntries()) {
+            return heapMap.getKeys(namespace);
+        }
+        List<K> keys =
+                Stream.concat(heapMap.getKeys(namespace), spilledMap.getKeys(namespace))
+                        .collect(Collectors.toList());
+        return keys.stream();
+    }
+
+    @Override
+    public InternalKvState.StateIncrementalVisitor<K, N, S> getStateIncrementalVisitor(
+            int recommendedMaxNumberOfReturnedRecords) {
+        return new StateIncrementalVisitor(recommendedMaxNumberOfReturnedRecords);
+    }
+
+    @Nonnull
+    @Override
+    public SpillableStateMapSnapshot<K, N, S> stateSnapshot() {
+        return new SpillableStateMapSnapshot<>(
+                this,
+                heapMap.stateSnapshot(),
+                spilledMap == null ? null : spilledMap.stateSnapshot());
+    }
+
+    @Override
+    public int sizeOfNamespace(Object namespace) {
+        return heapMap.sizeOfNamespace(namespace)
+                + (hasSpilledEntries() ? spilledMap.sizeOfNamespace(namespace) : 0);
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<StateEntry<K, N, S>> iterator() {
+        return hasSpilledEntries()
+                ? concat(heapMap.iterator(), spilledMap.iterator())
+                : heapMap.iterator();
+    }
+
+    // Spilling -----------------------------------------------------------------------------------
+
+    int getNumHeapEntries() {
+        return heapMap.size();
+    }
+
+    int getNumSpilledEntries() {
+        return spilledMap == null ? 0 : spilledMap.size();
+    }
+
+    long getNumAccesses() {
+        return numAccesses;
+    }
+
+    /** Halves the number of accesses, so that old accesses count less than recent ones. */
+    void decayNumAccesses() {
+        numAccesses >>>= 1;
+    }
+
+    /**
+     * Moves all entries on the heap to the spilled entries. A running snapshot keeps the previous
+     * heap entries until it is released.
+     *
+     * @return the number of spilled entries.
+     */
+    int spill() {
+        int numEntries = heapMap.size();
+        if (numEntries == 0) {
+            return 0;
+        }
+
+        CopyOnWriteSkipListStateMap<K, N, S> targetMap = getOrCreateSpilledMap();
+        for (StateEntry<K, N, S> entry : heapMap) {
+            targetMap.put(entry.getKey(), entry.getNamespace(), entry.getState());
+        }
+        heapMap = new CopyOnWriteStateMap<>(owningStateTable.getStateSerializer());
+        return numEntries;
+    }
+
+    private CopyOnWriteSkipListStateMap<K, N, S> getOrCreateSpilledMap() {
+        if (spilledMap == null) {
+            spilledNamespaceSerializer = owningStateTable.getNamespaceSerializer();
+            spilledStateSerializer = owningStateTable.getStateSerializer();
+            spilledMap =
+                    new CopyOnWriteSkipListStateMap<>(
+                            owningStateTable.getKeySerializer(),
+                            spilledNamespaceSerializer,
+                            spilledStateSerializer,
+                            owningStateTable.getSpaceAllocator(),
+                            DEFAULT_MAX_KEYS_TO_DELETE_ONE_TIME,
+                            DEFAULT_LOGICAL_REMOVED_KEYS_RATIO);
+        }
+        return spilledMap;
+    }
+
+    /**
+     * Rewrites the spilled entries with the current serializers of the owning table, if they were
+     * written with other serializers. This reads them with the serializers they were written with.
+     */
+    void updateSerializers() {
+        if (spilledMap == null
+                || (spilledNamespaceSerializer == owningStateTable.getNamespaceSerializer()
+                        && spilledStateSerializer == owningStateTable.getStateSerializer())) {
+            return;
+        }
+
+        CopyOnWriteSkipListStateMap<K, N, S> previousMap = spilledMap;
+        spilledMap = null;
+        if (!previousMap.isEmpty()) {
+            CopyOnWriteSkipListStateMap<K, N, S> targetMap = getOrCreateSpilledMap();
+            for (StateEntry<K, N, S> entry : previousMap) {
+                targetMap.put(entry.getKey(), entry.getNamespace(), entry.getState());
+            }
+        }
+        previousMap.close();
+    }
+
+    private boolean hasSpilledEntries() {
+        return spilledMap != null && !spilledMap.isEmpty();
+    }
+
+    /** Releases the spilled entries, after all snapshots of them are released. */
+    @Override
+    public void close() {
+        if (spilledMap != null) {
+            spilledMap.close();
+        }
+    }
+
+    /**
+     * Visits the entries on the heap first and the spilled entries afterwards. The entries on the
+     * heap which are spilled while visiting them are skipped, as the visitor of the heap entries
+     * would only see a stale copy of them.
+     */
+    private class StateIncrementalVisitor
+            implements InternalKvState.StateIncrementalVisitor<K, N, S> {
+
+        private final int recommendedMaxNumberOfReturnedRecords;
+
+        private final CopyOnWriteStateMap<K, N, S> visitedHeapMap;
+
+        @Nullable private InternalKvState.StateIncrementalVisitor<K, N, S> heapVisitor;
+
+        @Nullable private InternalKvState.StateIncrementalVisitor<K, N, S> spilledVisitor;
+
+        StateIncrementalVisitor(int recommendedMaxNumberOfReturnedRecords) {
+            this.recommendedMaxNumberOfReturnedRecords = recommendedMaxNumberOfReturnedRecords;
+            this.visitedHeapMap = heapMap;
+            this.heapVisitor =
+                    heapMap.getStateIncrementalVisitor(recommendedMaxNumberOfReturnedRecords);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (heapVisitor != null) {
+                if (visitedHeapMap == heapMap && heapVisitor.hasNext()) {
+                    return true;
+                }
+                heapVisitor = null;
+            }
+            if (spilledVisitor == null) {
+                if (spilledMap == null) {
+                    return false;
+                }
+                spilledVisitor =
+                        spilledMap.getStateIncrementalVisitor(
+                                recommendedMaxNumberOfReturnedRecords);
+            }
+            return spilledVisitor.hasNext();
+        }
+
+        @Override
+        public Collection<StateEntry<K, N, S>> nextEntries() {
+            if (!hasNext()) {
+                return Collections.emptyList();
+            }
+            return heapVisitor != null ? heapVisitor.nextEntries() : spilledVisitor.nextEntries();
+        }
+
+        @Override
+        public void remove(StateEntry<K, N, S> stateEntry) {
+            SpillableStateMap.this.remove(stateEntry.getKey(), stateEntry.getNamespace());
+        }
+
+        @Override
+        public void update(StateEntry<K, N, S> stateEntry, S newValue) {
+            SpillableStateMap.this.put(stateEntry.getKey(), stateEntry.getNamespace(), newValue);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.runtime.state.StateEntry;
+import org.apache.flink.runtime.state.StateSnapshotTransformer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import static org.apache.flink.shaded.guava30.com.google.common.collect.Iterators.concat;
+
+/**
+ * This class represents the snapshot of a {@link SpillableStateMap}, which combines the snapshots
+ * of its entries on the heap and of its spilled entries. The state is written in the same format
+ * as the snapshot of a {@link CopyOnWriteStateMap}, so that it can be restored by any heap backend.
+ *
+ * @param <K> type of key
+ * @param <N> type of namespace
+ * @param <S> type of state
+ */
+class SpillableStateMapSnapshot<K, N, S>
+        extends StateMapSnapshot<K, N, S, SpillableStateMap<K, N, S>> {
+
+    private final CopyOnWriteStateMapSnapshot<K, N, S> heapSnapshot;
+
+    /** The snapshot of the spilled entries, or null if nothing has been spilled. */
+    @Nullable private final CopyOnWriteSkipListStateMapSnapshot<K, N, S> spilledSnapshot;
+
+    private boolean released;
+
+    SpillableStateMapSnapshot(
+            SpillableStateMap<K, N, S> owningStateMap,
+            CopyOnWriteStateMapSnapshot<K, N, S> heapSnapshot,
+            @Nullable CopyOnWriteSkipListStateMapSnapshot<K, N, S> spilledSnapshot) {
+        super(owningStateMap);
+        this.heapSnapshot = heapSnapshot;
+        this.spilledSnapshot = spilledSnapshot;
+        this.released = false;
+    }
+
+    @Override
+    public void release() {
+        if (!released) {
+            heapSnapshot.release();
+            if (spilledSnapshot != null) {
+                spilledSnapshot.release();
+            }
+            released = true;
+        }
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public Iterator<StateEntry<K, N, S>> getIterator(
+            @Nonnull TypeSerializer<K> keySerializer,
+            @Nonnull TypeSerializer<N> namespaceSerializer,
+            @Nonnull TypeSerializer<S> stateSerializer,
+            @Nullable StateSnapshotTransformer<S> stateSnapshotTransformer) {
+        Iterator<StateEntry<K, N, S>> heapIterator =
+                heapSnapshot.getIterator(
+                        keySerializer,
+                        namespaceSerializer,
+                        stateSerializer,
+                        stateSnapshotTransformer);
+        if (spilledSnapshot == null) {
+            return heapIterator;
+        }
+        return concat(
+                heapIterator,
+                spilledSnapshot.getIterator(
+                        keySerializer,
+                        namespaceSerializer,
+                        stateSerializer,
+                        stateSnapshotTransformer));
+    }
+
+    @Override
+    public void writeState(
+            TypeSerializer<K> keySerializer,
+            TypeSerializer<N> namespaceSerializer,
+            TypeSerializer<S> stateSerializer,
+            @Nonnull DataOutputView dov,
+            @Nullable StateSnapshotTransformer<S> stateSnapshotTransformer)
+            throws IOException {
+        CopyOnWriteStateMapSnapshot.SnapshotIterator<K, N, S> heapIterator =
+                heapSnapshot.getIterator(
+                        keySerializer,
+                        namespaceSerializer,
+                        stateSerializer,
+                        stateSnapshotTransformer);
+        int numSpilledEntries =
+                spilledSnapshot == null
+                        ? 0
+                        : spilledSnapshot.getNumberOfEntries(
+                                stateSerializer, stateSnapshotTransformer);
+
+        dov.writeInt(heapIterator.size() + numSpilledEntries);
+        while (heapIterator.hasNext()) {
+            StateEntry<K, N, S> stateEntry = heapIterator.next();
+            namespaceSerializer.serialize(stateEntry.getNamespace(), dov);
+            keySerializer.serialize(stateEntry.getKey(), dov);
+            stateSerializer.serialize(stateEntry.getState(), dov);
+        }
+        if (spilledSnapshot != null) {
+            spilledSnapshot.writeEntries(stateSerializer, dov, stateSnapshotTransformer);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.heap.space.Allocator;
+
+import javax.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This implementation of {@link StateTable} uses {@link SpillableStateMap}, which keeps the state
+ * on the heap and spills it out of the heap when the {@link SpillController} decides so. This
+ * implementation supports asynchronous snapshots.
+ *
+ * @param <K> type of key.
+ * @param <N> type of namespace.
+ * @param <S> type of state.
+ */
+class SpillableStateTable<K, N, S> extends StateTable<K, N, S> {
+
+    private final SpillController spillController;
+
+    /** The state maps of {@link #keyGroupedStateMaps}, with their actual type. */
+    private final List<SpillableStateMap<K, N, S>> stateMaps;
+
+    /**
+     * Constructs a new {@code SpillableStateTable}.
+     *
+     * @param keyContext the key context.
+     * @param metaInfo the meta information, including the type serializer for state copy-on-write.
+     * @param keySerializer the serializer of the key.
+     * @param spillController the controller which decides when to spill state of this table.
+     */
+    SpillableStateTable(
+            InternalKeyContext<K> keyContext,
+            RegisteredKeyValueStateBackendMetaInfo<N, S> metaInfo,
+            TypeSerializer<K> keySerializer,
+            SpillController spillController) {
+        super(keyContext, metaInfo, keySerializer);
+        this.spillController = spillController;
+
+        List<SpillableStateMap<K, N, S>> stateMaps = new ArrayList<>(keyGroupedStateMaps.length);
+        for (StateMap<K, N, S> stateMap : keyGroupedStateMaps) {
+            stateMaps.add((SpillableStateMap<K, N, S>) stateMap);
+        }
+        this.stateMaps = Collections.unmodifiableList(stateMaps);
+
+        spillController.registerStateTable(this);
+    }
+
+    @Override
+    protected SpillableStateMap<K, N, S> createStateMap() {
+        // called by the constructor of the super class, so the maps must not use the controller
+        return new SpillableStateMap<>(this);
+    }
+
+    Allocator getSpaceAllocator() {
+        return spillController.getSpaceAllocator();
+    }
+
+    List<SpillableStateMap<K, N, S>> getStateMaps() {
+        return stateMaps;
+    }
+
+    @Override
+    public void put(N namespace, S state) {
+        // the state objects may be referenced outside of the table here, so this must not spill
+        super.put(
+                keyContext.getCurrentKey(),
+                keyContext.getCurrentKeyGroupIndex(),
+                namespace,
+                state);
+    }
+
+    /**
+     * Puts a restored entry into this table. The heap usage is checked before, as restoring may
+     * add more state than the heap can hold, and a restoring backend does not give out references
+     * to its state objects.
+     */
+    @Override
+    public void put(K key, int keyGroup, N namespace, S state) {
+        spillController.checkHeapUsage();
+        super.put(key, keyGroup, namespace, state);
+    }
+
+    /**
+     * Sets the meta information and rewrites the spilled state with the new serializers, because
+     * the spilled state can not be migrated when it is read.
+     */
+    @Override
+    public void setMetaInfo(RegisteredKeyValueStateBackendMetaInfo<N, S> metaInfo) {
+        super.setMetaInfo(metaInfo);
+        for (SpillableStateMap<K, N, S> stateMap : stateMaps) {
+            stateMap.updateSerializers();
+        }
+    }
+
+    // Snapshotting
+    // ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a snapshot of this {@link SpillableStateTable}, to be written in checkpointing.
+     *
+     * @return a snapshot from this {@link SpillableStateTable}, for checkpointing.
+     */
+    @Nonnull
+    @Override
+    public SpillableStateTableSnapshot<K, N, S> stateSnapshot() {
+        return new SpillableStateTableSnapshot<>(
+                this,
+                getKeySerializer().duplicate(),
+                getNamespaceSerializer().duplicate(),
+                getStateSerializer().duplicate(),
+                getMetaInfo()
+                        .getStateSnapshotTransformFactory()
+                        .createForDeserializedState()
+                        .orElse(null));
+    }
+
+    List<SpillableStateMapSnapshot<K, N, S>> getStateMapSnapshotList() {
+        List<SpillableStateMapSnapshot<K, N, S>> snapshotList =
+                new ArrayList<>(keyGroupedStateMaps.length);
+        for (SpillableStateMap<K, N, S> stateMap : stateMaps) {
+            snapshotList.add(stateMap.stateSnapshot());
+        }
+        return snapshotList;
+    }
+}
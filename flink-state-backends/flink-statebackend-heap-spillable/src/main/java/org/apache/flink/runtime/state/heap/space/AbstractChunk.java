@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+
+import org.apache.flink.shaded.netty4.io.netty.util.internal.PlatformDependent;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Base class of the chunks created by {@link SpaceAllocator}. A chunk is backed by a single {@link
+ * MemorySegment}, which either wraps off-heap memory or a memory-mapped file.
+ */
+abstract class AbstractChunk implements Chunk {
+
+    static final String FILE_NAME_PREFIX = "flink-spillable-state-";
+
+    private final int chunkId;
+
+    private final MemorySegment segment;
+
+    /** The mapped file backing the segment, or null if the segment is off-heap memory. */
+    @Nullable private final MappedByteBuffer mappedBuffer;
+
+    AbstractChunk(int chunkId, int capacity, @Nullable File mmapDirectory) throws IOException {
+        this.chunkId = chunkId;
+        if (mmapDirectory == null) {
+            this.mappedBuffer = null;
+            this.segment =
+                    MemorySegmentFactory.allocateOffHeapUnsafeMemory(capacity, null, () -> {});
+        } else {
+            this.mappedBuffer = map(mmapDirectory, capacity);
+            this.segment = MemorySegmentFactory.wrapOffHeapMemory(mappedBuffer);
+        }
+    }
+
+    /**
+     * Maps a new temporary file of the given size. The file is deleted right away, so that it
+     * never outlives the mapping, even if the process dies.
+     */
+    private static MappedByteBuffer map(File directory, int size) throws IOException {
+        File file = File.createTempFile(FILE_NAME_PREFIX, null, directory);
+        try (FileChannel channel =
+                FileChannel.open(
+                        file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Override
+    public int getChunkId() {
+        return chunkId;
+    }
+
+    @Override
+    public int getChunkCapacity() {
+        return segment.size();
+    }
+
+    @Override
+    public MemorySegment getMemorySegment(int chunkOffset) {
+        return segment;
+    }
+
+    @Override
+    public int getOffsetInSegment(int offsetInChunk) {
+        return offsetInChunk;
+    }
+
+    /** Returns whether no space of this chunk is allocated. */
+    abstract boolean isEmpty();
+
+    /** Releases the memory of this chunk. The chunk must not be accessed afterwards. */
+    void release() {
+        segment.free();
+        if (mappedBuffer != null) {
+            PlatformDependent.freeDirectBuffer(mappedBuffer);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.util.MathUtils;
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.BUCKET_SIZE;
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+
+/**
+ * A chunk which is divided into buckets of {@link Constants#BUCKET_SIZE} bytes. A bucket is cut
+ * into slots of the same power-of-two size when it is taken into use, and serves all requests
+ * whose size rounds up to that slot size. A bucket without allocated slots can be reused for
+ * another slot size.
+ */
+final class BucketChunk extends AbstractChunk {
+
+    /** The size of the smallest slot, which fits the smallest nodes of the skip list. */
+    static final int MIN_SLOT_SIZE = 32;
+
+    private static final int MIN_SLOT_SIZE_BITS = MathUtils.log2strict(MIN_SLOT_SIZE);
+
+    private static final int BUCKET_SIZE_BITS = MathUtils.log2strict(BUCKET_SIZE);
+
+    private static final int NUM_SLOT_SIZES = BUCKET_SIZE_BITS - MIN_SLOT_SIZE_BITS + 1;
+
+    private final Bucket[] buckets;
+
+    /** Indices of the buckets without allocated slots. */
+    private final ArrayDeque<Integer> freeBuckets;
+
+    /** For each slot size, the buckets which are in use and still have free slots. */
+    private final ArrayDeque<Bucket>[] availableBuckets;
+
+    @SuppressWarnings("unchecked")
+    BucketChunk(int chunkId, int capacity, @Nullable File mmapDirectory) throws IOException {
+        super(chunkId, capacity, mmapDirectory);
+        Preconditions.checkArgument(
+                capacity > 0 && capacity % BUCKET_SIZE == 0,
+                "The capacity %s of a chunk must be a positive multiple of the bucket size %s.",
+                capacity,
+                BUCKET_SIZE);
+
+        int numBuckets = capacity / BUCKET_SIZE;
+        this.buckets = new Bucket[numBuckets];
+        this.freeBuckets = new ArrayDeque<>(numBuckets);
+        for (int i = 0; i < numBuckets; i++) {
+            buckets[i] = new Bucket(i);
+            freeBuckets.add(i);
+        }
+        this.availableBuckets = new ArrayDeque[NUM_SLOT_SIZES];
+        for (int i = 0; i < NUM_SLOT_SIZES; i++) {
+            availableBuckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /** Returns whether a request of the given size can be served by this chunk. */
+    boolean canAllocate(int len) {
+        return !freeBuckets.isEmpty() || !availableBuckets[getSlotSizeIndex(len)].isEmpty();
+    }
+
+    @Override
+    public int allocate(int len) {
+        Preconditions.checkArgument(
+                len > 0 && len <= BUCKET_SIZE, "Can't allocate %s bytes from a bucket.", len);
+        int slotSizeIndex = getSlotSizeIndex(len);
+        ArrayDeque<Bucket> available = availableBuckets[slotSizeIndex];
+        Bucket bucket = available.peekFirst();
+        if (bucket == null) {
+            Integer bucketIndex = freeBuckets.pollFirst();
+            if (bucketIndex == null) {
+                return NO_SPACE;
+            }
+            bucket = buckets[bucketIndex];
+            bucket.init(slotSizeIndex + MIN_SLOT_SIZE_BITS);
+            available.addFirst(bucket);
+        }
+
+        int slot = bucket.allocateSlot();
+        if (bucket.isFull()) {
+            available.pollFirst();
+        }
+        return (bucket.index << BUCKET_SIZE_BITS) + (slot << bucket.slotSizeBits);
+    }
+
+    @Override
+    public void free(int interChunkOffset) {
+        Bucket bucket = buckets[interChunkOffset >>> BUCKET_SIZE_BITS];
+        boolean wasFull = bucket.isFull();
+        bucket.freeSlot((interChunkOffset & (BUCKET_SIZE - 1)) >>> bucket.slotSizeBits);
+
+        ArrayDeque<Bucket> available = availableBuckets[bucket.slotSizeBits - MIN_SLOT_SIZE_BITS];
+        if (bucket.numUsedSlots == 0) {
+            if (!wasFull) {
+                available.remove(bucket);
+            }
+            freeBuckets.addLast(bucket.index);
+        } else if (wasFull) {
+            available.addLast(bucket);
+        }
+    }
+
+    @Override
+    boolean isEmpty() {
+        return freeBuckets.size() == buckets.length;
+    }
+
+    /** Returns the index of the smallest slot size which fits the given length. */
+    private static int getSlotSizeIndex(int len) {
+        if (len <= MIN_SLOT_SIZE) {
+            return 0;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(len - 1) - MIN_SLOT_SIZE_BITS;
+    }
+
+    /** A bucket of the chunk, whose slots are tracked by a bit set. */
+    private static final class Bucket {
+
+        private final int index;
+
+        private final BitSet usedSlots;
+
+        private int slotSizeBits;
+
+        private int numSlots;
+
+        private int numUsedSlots;
+
+        /** Where to start searching for the next free slot. */
+        private int nextSlot;
+
+        Bucket(int index) {
+            this.index = index;
+            this.usedSlots = new BitSet();
+        }
+
+        void init(int slotSizeBits) {
+            this.slotSizeBits = slotSizeBits;
+            this.numSlots = BUCKET_SIZE >>> slotSizeBits;
+            this.nextSlot = 0;
+        }
+
+        int allocateSlot() {
+            int slot = usedSlots.nextClearBit(nextSlot);
+            if (slot >= numSlots) {
+                slot = usedSlots.nextClearBit(0);
+            }
+            usedSlots.set(slot);
+            numUsedSlots++;
+            nextSlot = slot + 1;
+            return slot;
+        }
+
+        void freeSlot(int slot) {
+            Preconditions.checkState(usedSlots.get(slot), "Slot %s is not allocated.", slot);
+            usedSlots.clear(slot);
+            numUsedSlots--;
+        }
+
+        boolean isFull() {
+            return numUsedSlots == numSlots;
+        }
+    }
+}
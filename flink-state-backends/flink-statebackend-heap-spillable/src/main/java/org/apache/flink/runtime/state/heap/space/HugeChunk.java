@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+
+/** A chunk which is dedicated to a single allocation larger than a bucket. */
+final class HugeChunk extends AbstractChunk {
+
+    private boolean allocated;
+
+    HugeChunk(int chunkId, int capacity, @Nullable File mmapDirectory) throws IOException {
+        super(chunkId, capacity, mmapDirectory);
+    }
+
+    @Override
+    public int allocate(int len) {
+        if (allocated || len > getChunkCapacity()) {
+            return NO_SPACE;
+        }
+        allocated = true;
+        return 0;
+    }
+
+    @Override
+    public void free(int interChunkOffset) {
+        Preconditions.checkState(allocated, "The space of chunk %s is not allocated.", getChunkId());
+        allocated = false;
+    }
+
+    @Override
+    boolean isEmpty() {
+        return !allocated;
+    }
+}
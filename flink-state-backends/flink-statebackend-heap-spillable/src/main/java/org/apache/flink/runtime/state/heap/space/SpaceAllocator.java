@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.BUCKET_SIZE;
+import static org.apache.flink.runtime.state.heap.space.Constants.FOUR_BYTES_BITS;
+import static org.apache.flink.runtime.state.heap.space.Constants.FOUR_BYTES_MARK;
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+
+/**
+ * An {@link Allocator} which allocates space from chunks of off-heap memory, or of memory-mapped
+ * files if a directory is given. Requests up to {@link Constants#BUCKET_SIZE} bytes are served by
+ * chunks of the configured size, larger requests get a chunk of their own. Chunks which become
+ * empty are released, so that the memory shrinks when the stored data shrinks.
+ *
+ * <p>The total size of all chunks is bounded, allocations beyond the bound fail.
+ */
+public class SpaceAllocator implements Allocator {
+
+    /** The capacity of the chunks serving requests up to the bucket size. */
+    private final int chunkSize;
+
+    /** The maximum total capacity of all chunks. */
+    private final long maxMemorySize;
+
+    /** The directory of the memory-mapped files, or null to use off-heap memory. */
+    @Nullable private final File mmapDirectory;
+
+    /**
+     * The chunks indexed by their id. The array is replaced when it grows, so that lookups do not
+     * need to hold the lock.
+     */
+    private volatile AbstractChunk[] chunks;
+
+    /** Ids of released chunks, which are reused for new chunks. */
+    private final ArrayDeque<Integer> freeChunkIds;
+
+    private int nextChunkId;
+
+    /** All chunks serving requests up to the bucket size. */
+    private final List<BucketChunk> bucketChunks;
+
+    /** The chunk which served the last request up to the bucket size. */
+    @Nullable private BucketChunk currentChunk;
+
+    /** The total capacity of all chunks. */
+    private long usedMemorySize;
+
+    private boolean closed;
+
+    public SpaceAllocator(int chunkSize, long maxMemorySize, @Nullable File mmapDirectory) {
+        Preconditions.checkArgument(
+                chunkSize > 0 && chunkSize % BUCKET_SIZE == 0,
+                "The chunk size %s must be a positive multiple of %s.",
+                chunkSize,
+                BUCKET_SIZE);
+        Preconditions.checkArgument(
+                maxMemorySize >= chunkSize,
+                "The maximum memory size %s must not be smaller than the chunk size %s.",
+                maxMemorySize,
+                chunkSize);
+        this.chunkSize = chunkSize;
+        this.maxMemorySize = maxMemorySize;
+        this.mmapDirectory = mmapDirectory;
+        this.chunks = new AbstractChunk[16];
+        this.freeChunkIds = new ArrayDeque<>();
+        this.bucketChunks = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized long allocate(int size) throws Exception {
+        Preconditions.checkState(!closed, "The allocator has been closed.");
+        Preconditions.checkArgument(size > 0, "Can't allocate %s bytes.", size);
+
+        AbstractChunk chunk = size > BUCKET_SIZE ? addChunk(size, true) : getBucketChunk(size);
+        int offset = chunk.allocate(size);
+        Preconditions.checkState(offset != NO_SPACE, "Chunk %s has no space.", chunk.getChunkId());
+        return ((chunk.getChunkId() & FOUR_BYTES_MARK) << FOUR_BYTES_BITS)
+                | (offset & FOUR_BYTES_MARK);
+    }
+
+    private BucketChunk getBucketChunk(int size) throws IOException {
+        if (currentChunk != null && currentChunk.canAllocate(size)) {
+            return currentChunk;
+        }
+
+        BucketChunk chunk = null;
+        for (BucketChunk bucketChunk : bucketChunks) {
+            if (bucketChunk.canAllocate(size)) {
+                chunk = bucketChunk;
+                break;
+            }
+        }
+        if (chunk == null) {
+            chunk = (BucketChunk) addChunk(chunkSize, false);
+            bucketChunks.add(chunk);
+        }
+
+        // the current chunk is kept even if empty, to not release and add chunks back and forth
+        BucketChunk previousChunk = currentChunk;
+        currentChunk = chunk;
+        if (previousChunk != null && previousChunk.isEmpty()) {
+            releaseChunk(previousChunk);
+        }
+        return chunk;
+    }
+
+    private AbstractChunk addChunk(int capacity, boolean huge) throws IOException {
+        if (usedMemorySize + capacity > maxMemorySize) {
+            throw new IOException(
+                    String.format(
+                            "Could not allocate a chunk of %d bytes, because the total size of "
+                                    + "the chunks would exceed the maximum of %d bytes.",
+                            capacity, maxMemorySize));
+        }
+
+        int chunkId = freeChunkIds.isEmpty() ? nextChunkId++ : freeChunkIds.pollFirst();
+        AbstractChunk chunk;
+        try {
+            chunk =
+                    huge
+                            ? new HugeChunk(chunkId, capacity, mmapDirectory)
+                            : new BucketChunk(chunkId, capacity, mmapDirectory);
+        } catch (Throwable t) {
+            freeChunkIds.addFirst(chunkId);
+            throw t;
+        }
+
+        AbstractChunk[] currentChunks = chunks;
+        if (chunkId >= currentChunks.length) {
+            currentChunks = Arrays.copyOf(currentChunks, currentChunks.length * 2);
+        }
+        currentChunks[chunkId] = chunk;
+        // publishes the new chunk to the lookups
+        chunks = currentChunks;
+        usedMemorySize += capacity;
+        return chunk;
+    }
+
+    @Override
+    public synchronized void free(long address) {
+        if (closed) {
+            return;
+        }
+
+        AbstractChunk chunk = chunks[SpaceUtils.getChunkIdByAddress(address)];
+        chunk.free(SpaceUtils.getChunkOffsetByAddress(address));
+        if (chunk.isEmpty() && chunk != currentChunk) {
+            releaseChunk(chunk);
+        }
+    }
+
+    private void releaseChunk(AbstractChunk chunk) {
+        chunks[chunk.getChunkId()] = null;
+        freeChunkIds.addLast(chunk.getChunkId());
+        if (chunk instanceof BucketChunk) {
+            bucketChunks.remove(chunk);
+        }
+        usedMemorySize -= chunk.getChunkCapacity();
+        chunk.release();
+    }
+
+    @Override
+    public Chunk getChunkById(int chunkId) {
+        Chunk chunk = chunks[chunkId];
+        Preconditions.checkNotNull(chunk, "chunk " + chunkId + " does not exist.");
+        return chunk;
+    }
+
+    /** Returns the total capacity of all chunks. */
+    public synchronized long getUsedMemorySize() {
+        return usedMemorySize;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        for (AbstractChunk chunk : chunks) {
+            if (chunk != null) {
+                chunk.release();
+            }
+        }
+        chunks = new AbstractChunk[0];
+        bucketChunks.clear();
+        currentChunk = null;
+        usedMemorySize = 0;
+    }
+}
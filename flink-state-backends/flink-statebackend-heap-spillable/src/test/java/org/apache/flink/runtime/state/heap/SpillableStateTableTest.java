@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.state.StateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.core.memory.ByteArrayInputStreamWithPos;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.StateEntry;
+import org.apache.flink.runtime.state.StateSnapshot;
+import org.apache.flink.runtime.state.heap.space.SpaceAllocator;
+import org.apache.flink.runtime.state.internal.InternalKvState;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link SpillableStateTable}. */
+class SpillableStateTableTest {
+
+    private static final int NUM_KEY_GROUPS = 8;
+
+    private static final int NUM_KEYS = 1000;
+
+    private static final int NAMESPACE = 1;
+
+    private MockInternalKeyContext<Integer> keyContext;
+
+    private SpillController spillController;
+
+    private SpillableStateTable<Integer, Integer, String> stateTable;
+
+    @BeforeEach
+    void before() {
+        keyContext = new MockInternalKeyContext<>(0, NUM_KEY_GROUPS - 1, NUM_KEY_GROUPS);
+        SpaceAllocator spaceAllocator = new SpaceAllocator(4 * 1024 * 1024, Long.MAX_VALUE, null);
+        spillController = new SpillController(spaceAllocator, 0.7, 0.5, 1);
+        stateTable =
+                new SpillableStateTable<>(
+                        keyContext, createMetaInfo(), IntSerializer.INSTANCE, spillController);
+    }
+
+    @AfterEach
+    void after() {
+        spillController.close();
+    }
+
+    @Test
+    void testSpillAndPromote() {
+        Map<Integer, String> expected = putEntries();
+
+        spillController.spill();
+        int numSpilledEntries = getNumSpilledEntries();
+        assertThat(numSpilledEntries).isGreaterThanOrEqualTo(NUM_KEYS / 2);
+        assertThat(stateTable.size()).isEqualTo(NUM_KEYS);
+
+        for (int key = 0; key < NUM_KEYS; key += 2) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            assertThat(stateTable.get(NAMESPACE)).isEqualTo(expected.get(key));
+        }
+        // the accessed entries are back on the heap
+        assertThat(getNumSpilledEntries()).isLessThan(numSpilledEntries);
+        assertThat(stateTable.size()).isEqualTo(NUM_KEYS);
+        assertThat(getContents()).isEqualTo(expected);
+    }
+
+    @Test
+    void testUpdateSpilledEntries() {
+        Map<Integer, String> expected = putEntries();
+
+        spillController.spill();
+        spillController.spill();
+        assertThat(getNumSpilledEntries()).isGreaterThan(0);
+
+        for (int key = 0; key < NUM_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            if (key % 3 == 0) {
+                stateTable.remove(NAMESPACE);
+                expected.remove(key);
+            } else if (key % 3 == 1) {
+                stateTable.put(NAMESPACE, "updated-" + key);
+                expected.put(key, "updated-" + key);
+            }
+        }
+
+        assertThat(stateTable.size()).isEqualTo(expected.size());
+        assertThat(stateTable.sizeOfNamespace(NAMESPACE)).isEqualTo(expected.size());
+        assertThat(stateTable.getKeys(NAMESPACE).collect(Collectors.toSet()))
+                .isEqualTo(expected.keySet());
+        assertThat(getContents()).isEqualTo(expected);
+    }
+
+    @Test
+    void testSnapshotIsCompatibleWithHeapStateTable() throws Exception {
+        Map<Integer, String> expected = putEntries();
+        spillController.spill();
+
+        SpillableStateTableSnapshot<Integer, Integer, String> snapshot =
+                stateTable.stateSnapshot();
+        // modifications after taking the snapshot are not visible in it
+        for (int key = 0; key < NUM_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            stateTable.put(NAMESPACE, "updated-" + key);
+        }
+
+        ByteArrayOutputStreamWithPos outputStream = new ByteArrayOutputStreamWithPos();
+        DataOutputViewStreamWrapper outputView = new DataOutputViewStreamWrapper(outputStream);
+        StateSnapshot.StateKeyGroupWriter keyGroupWriter = snapshot.getKeyGroupWriter();
+        for (int keyGroup = 0; keyGroup < NUM_KEY_GROUPS; keyGroup++) {
+            keyGroupWriter.writeStateInKeyGroup(outputView, keyGroup);
+        }
+        snapshot.release();
+
+        CopyOnWriteStateTable<Integer, Integer, String> heapStateTable =
+                new CopyOnWriteStateTable<>(
+                        new MockInternalKeyContext<>(0, NUM_KEY_GROUPS - 1, NUM_KEY_GROUPS),
+                        createMetaInfo(),
+                        IntSerializer.INSTANCE);
+        DataInputViewStreamWrapper inputView =
+                new DataInputViewStreamWrapper(
+                        new ByteArrayInputStreamWithPos(outputStream.toByteArray()));
+        for (int keyGroup = 0; keyGroup < NUM_KEY_GROUPS; keyGroup++) {
+            heapStateTable
+                    .keyGroupReader(KeyedBackendSerializationProxy.VERSION)
+                    .readMappingsInKeyGroup(inputView, keyGroup);
+        }
+
+        Map<Integer, String> restored = new HashMap<>();
+        for (StateEntry<Integer, Integer, String> entry : heapStateTable) {
+            restored.put(entry.getKey(), entry.getState());
+        }
+        assertThat(restored).isEqualTo(expected);
+    }
+
+    @Test
+    void testStateIncrementalVisitor() {
+        Map<Integer, String> expected = putEntries();
+        spillController.spill();
+
+        Map<Integer, String> visited = new HashMap<>();
+        InternalKvState.StateIncrementalVisitor<Integer, Integer, String> visitor =
+                stateTable.getStateIncrementalVisitor(16);
+        while (visitor.hasNext()) {
+            for (StateEntry<Integer, Integer, String> entry : visitor.nextEntries()) {
+                visited.put(entry.getKey(), entry.getState());
+                if (entry.getKey() % 2 == 0) {
+                    visitor.remove(entry);
+                } else {
+                    visitor.update(entry, "updated-" + entry.getKey());
+                }
+            }
+        }
+        assertThat(visited).isEqualTo(expected);
+
+        for (int key = 0; key < NUM_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            assertThat(stateTable.get(NAMESPACE))
+                    .isEqualTo(key % 2 == 0 ? null : "updated-" + key);
+        }
+    }
+
+    @Test
+    void testSpillWhileIteratingKeys() {
+        Map<Integer, String> expected = putEntries();
+        SpillableStateMap<Integer, Integer, String> stateMap = stateTable.getStateMaps().get(0);
+        List<Integer> keys = stateMap.getKeys(NAMESPACE).collect(Collectors.toList());
+
+        // start with every other entry spilled
+        stateMap.spill();
+        for (int i = 0; i < keys.size(); i += 2) {
+            stateMap.get(keys.get(i), NAMESPACE);
+        }
+        assertThat(stateMap.getNumHeapEntries()).isGreaterThan(0);
+        assertThat(stateMap.getNumSpilledEntries()).isGreaterThan(0);
+
+        // reading the keys moves them to the heap, and the spill moves them back
+        List<Integer> visitedKeys = new ArrayList<>();
+        try (Stream<Integer> keyStream = stateMap.getKeys(NAMESPACE)) {
+            keyStream.forEach(
+                    key -> {
+                        if (visitedKeys.size() == keys.size() / 2) {
+                            stateMap.spill();
+                        }
+                        visitedKeys.add(key);
+                        assertThat(stateMap.get(key, NAMESPACE)).isEqualTo(expected.get(key));
+                    });
+        }
+        assertThat(visitedKeys).containsExactlyInAnyOrderElementsOf(keys);
+    }
+
+    private Map<Integer, String> putEntries() {
+        Map<Integer, String> expected = new HashMap<>();
+        for (int key = 0; key < NUM_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            stateTable.put(NAMESPACE, "value-" + key);
+            expected.put(key, "value-" + key);
+        }
+        return expected;
+    }
+
+    private int getNumSpilledEntries() {
+        int numSpilledEntries = 0;
+        for (SpillableStateMap<Integer, Integer, String> stateMap : stateTable.getStateMaps()) {
+            numSpilledEntries += stateMap.getNumSpilledEntries();
+        }
+        return numSpilledEntries;
+    }
+
+    private Map<Integer, String> getContents() {
+        Map<Integer, String> contents = new HashMap<>();
+        Iterator<StateEntry<Integer, Integer, String>> iterator = stateTable.iterator();
+        while (iterator.hasNext()) {
+            StateEntry<Integer, Integer, String> entry = iterator.next();
+            assertThat(contents.put(entry.getKey(), entry.getState())).isNull();
+        }
+        return contents;
+    }
+
+    private static RegisteredKeyValueStateBackendMetaInfo<Integer, String> createMetaInfo() {
+        return new RegisteredKeyValueStateBackendMetaInfo<>(
+                StateDescriptor.Type.VALUE,
+                "test",
+                IntSerializer.INSTANCE,
+                StringSerializer.INSTANCE);
+    }
+}
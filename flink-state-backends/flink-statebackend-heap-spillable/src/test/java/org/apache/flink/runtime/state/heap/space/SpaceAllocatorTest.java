@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.BUCKET_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Tests for {@link SpaceAllocator}. */
+class SpaceAllocatorTest {
+
+    private static final int CHUNK_SIZE = 2 * BUCKET_SIZE;
+
+    @Test
+    void testAllocateAndFree() throws Exception {
+        testAllocateAndFree(null);
+    }
+
+    @Test
+    void testAllocateAndFreeMemoryMappedFiles(@TempDir File mmapDirectory) throws Exception {
+        testAllocateAndFree(mmapDirectory);
+        // the files are deleted once they are mapped
+        assertThat(mmapDirectory.list()).isEmpty();
+    }
+
+    private void testAllocateAndFree(@Nullable File mmapDirectory) throws Exception {
+        // large enough for a bucket per slot size
+        int chunkSize = 8 * BUCKET_SIZE;
+        try (SpaceAllocator allocator = new SpaceAllocator(chunkSize, chunkSize, mmapDirectory)) {
+            int[] sizes = {8, 32, 33, 100, 4096, 4097, BUCKET_SIZE / 2, BUCKET_SIZE};
+            List<Long> addresses = new ArrayList<>();
+            for (int i = 0; i < sizes.length; i++) {
+                long address = allocator.allocate(sizes[i]);
+                addresses.add(address);
+                putLong(allocator, address, i);
+            }
+            assertThat(new HashSet<>(addresses)).hasSize(sizes.length);
+            for (int i = 0; i < sizes.length; i++) {
+                assertThat(getLong(allocator, addresses.get(i))).isEqualTo(i);
+            }
+            assertThat(allocator.getUsedMemorySize()).isEqualTo(chunkSize);
+
+            for (long address : addresses) {
+                allocator.free(address);
+            }
+            // the current chunk is kept
+            assertThat(allocator.getUsedMemorySize()).isEqualTo(chunkSize);
+        }
+    }
+
+    @Test
+    void testSlotsDoNotOverlap() throws Exception {
+        try (SpaceAllocator allocator = new SpaceAllocator(CHUNK_SIZE, CHUNK_SIZE, null)) {
+            Set<Long> addresses = new HashSet<>();
+            int numSlots = CHUNK_SIZE / 64;
+            for (int i = 0; i < numSlots; i++) {
+                long address = allocator.allocate(64);
+                assertThat(addresses.add(address)).isTrue();
+                putLong(allocator, address, address);
+            }
+            for (long address : addresses) {
+                assertThat(getLong(allocator, address)).isEqualTo(address);
+            }
+            // all buckets are taken by slots of 64 bytes
+            assertThatThrownBy(() -> allocator.allocate(128)).isInstanceOf(IOException.class);
+
+            // freed slots are reused
+            long address = addresses.iterator().next();
+            allocator.free(address);
+            assertThat(allocator.allocate(64)).isEqualTo(address);
+        }
+    }
+
+    @Test
+    void testHugeChunks() throws Exception {
+        try (SpaceAllocator allocator = new SpaceAllocator(CHUNK_SIZE, 4L * CHUNK_SIZE, null)) {
+            long small = allocator.allocate(16);
+            long huge = allocator.allocate(BUCKET_SIZE + 1);
+            assertThat(SpaceUtils.getChunkIdByAddress(huge))
+                    .isNotEqualTo(SpaceUtils.getChunkIdByAddress(small));
+            assertThat(SpaceUtils.getChunkOffsetByAddress(huge)).isZero();
+            assertThat(allocator.getUsedMemorySize()).isEqualTo(CHUNK_SIZE + BUCKET_SIZE + 1);
+
+            putLong(allocator, huge, 42L);
+            assertThat(getLong(allocator, huge)).isEqualTo(42L);
+
+            // huge chunks are released once freed and their ids are reused
+            allocator.free(huge);
+            assertThat(allocator.getUsedMemorySize()).isEqualTo(CHUNK_SIZE);
+            assertThat(SpaceUtils.getChunkIdByAddress(allocator.allocate(2 * BUCKET_SIZE)))
+                    .isEqualTo(SpaceUtils.getChunkIdByAddress(huge));
+        }
+    }
+
+    @Test
+    void testEmptyChunksAreReleased() throws Exception {
+        try (SpaceAllocator allocator = new SpaceAllocator(CHUNK_SIZE, 4L * CHUNK_SIZE, null)) {
+            // fills the first chunk and spills over into a second one
+            List<Long> addresses = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                addresses.add(allocator.allocate(BUCKET_SIZE));
+            }
+            assertThat(allocator.getUsedMemorySize()).isEqualTo(2L * CHUNK_SIZE);
+
+            // the first chunk is not the current chunk anymore
+            allocator.free(addresses.get(0));
+            allocator.free(addresses.get(1));
+            assertThat(allocator.getUsedMemorySize()).isEqualTo(CHUNK_SIZE);
+        }
+    }
+
+    @Test
+    void testMaxMemorySize() throws Exception {
+        try (SpaceAllocator allocator = new SpaceAllocator(CHUNK_SIZE, CHUNK_SIZE, null)) {
+            allocator.allocate(BUCKET_SIZE);
+            allocator.allocate(BUCKET_SIZE);
+            assertThatThrownBy(() -> allocator.allocate(16)).isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> allocator.allocate(BUCKET_SIZE + 1))
+                    .isInstanceOf(IOException.class);
+            assertThat(allocator.getUsedMemorySize()).isEqualTo(CHUNK_SIZE);
+        }
+    }
+
+    private static void putLong(Allocator allocator, long address, long value) {
+        Chunk chunk = allocator.getChunkById(SpaceUtils.getChunkIdByAddress(address));
+        int offset = SpaceUtils.getChunkOffsetByAddress(address);
+        MemorySegment segment = chunk.getMemorySegment(offset);
+        segment.putLong(chunk.getOffsetInSegment(offset), value);
+    }
+
+    private static long getLong(Allocator allocator, long address) {
+        Chunk chunk = allocator.getChunkById(SpaceUtils.getChunkIdByAddress(address));
+        int offset = SpaceUtils.getChunkOffsetByAddress(address);
+        MemorySegment segment = chunk.getMemorySegment(offset);
+        return segment.getLong(chunk.getOffsetInSegment(offset));
+    }
+}
@@ -159,6 +159,10 @@ public abstract class AbstractRocksDBState<K, N, V> implements InternalKvState<K
         return dataOutputView.getCopyOfBuffer();
     }
 
+    byte[] serializeCurrentKeyWithGroup() {
+        return sharedKeyNamespaceSerializer.buildKeyGroupAndKey();
+    }
+
     byte[] serializeCurrentKeyWithGroupAndNamespace() {
         return sharedKeyNamespaceSerializer.buildCompositeKeyNamespace(
                 currentNamespace, namespaceSerializer);
@@ -79,7 +79,9 @@ import java.util.UUID;
 import static org.apache.flink.configuration.description.TextElement.text;
 import static org.apache.flink.contrib.streaming.state.RocksDBConfigurableOptions.RESTORE_OVERLAP_FRACTION_THRESHOLD;
 import static org.apache.flink.contrib.streaming.state.RocksDBConfigurableOptions.WRITE_BATCH_SIZE;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.CHECKPOINT_DOWNLOAD_RATE_LIMIT;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.CHECKPOINT_TRANSFER_THREAD_NUM;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.RESCALING_USE_SST_INGESTION;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TIMER_SERVICE_FACTORY;
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -115,6 +117,8 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
 
     private static final double UNDEFINED_OVERLAP_FRACTION_THRESHOLD = -1;
 
+    private static final long UNDEFINED_DOWNLOAD_RATE_LIMIT = -1;
+
     // ------------------------------------------------------------------------
 
     // -- configuration values, set in the application / configuration
@@ -175,6 +179,12 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
      * key-group range.
      */
     private double overlapFractionThreshold;
+
+    /** The maximum number of bytes downloaded per second on restore, 0 if not limited. */
+    private long downloadRateLimit;
+
+    /** Whether the key groups merged on rescaling are ingested as SST files. */
+    private TernaryBoolean useSstIngestionForRescaling;
     // ------------------------------------------------------------------------
 
     /** Creates a new {@code EmbeddedRocksDBStateBackend} for storing local state. */
@@ -203,6 +213,8 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
         this.memoryConfiguration = new RocksDBMemoryConfiguration();
         this.writeBatchSize = UNDEFINED_WRITE_BATCH_SIZE;
         this.overlapFractionThreshold = UNDEFINED_OVERLAP_FRACTION_THRESHOLD;
+        this.downloadRateLimit = UNDEFINED_DOWNLOAD_RATE_LIMIT;
+        this.useSstIngestionForRescaling = TernaryBoolean.UNDEFINED;
     }
 
     /**
@@ -298,6 +310,14 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
         checkArgument(
                 overlapFractionThreshold >= 0 && this.overlapFractionThreshold <= 1,
                 "Overlap fraction threshold of restoring should be between 0 and 1");
+
+        this.downloadRateLimit =
+                original.downloadRateLimit == UNDEFINED_DOWNLOAD_RATE_LIMIT
+                        ? config.get(CHECKPOINT_DOWNLOAD_RATE_LIMIT).getBytes()
+                        : original.downloadRateLimit;
+        this.useSstIngestionForRescaling =
+                original.useSstIngestionForRescaling.resolveUndefined(
+                        config.get(RESCALING_USE_SST_INGESTION));
     }
 
     // ------------------------------------------------------------------------
@@ -498,7 +518,9 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
                         .setNativeMetricOptions(
                                 resourceContainer.getMemoryWatcherOptions(defaultMetricOptions))
                         .setWriteBatchSize(getWriteBatchSize())
-                        .setOverlapFractionThreshold(getOverlapFractionThreshold());
+                        .setOverlapFractionThreshold(getOverlapFractionThreshold())
+                        .setDownloadRateLimit(getDownloadRateLimit())
+                        .setUseSstIngestionForRescaling(isSstIngestionForRescalingEnabled());
         return builder.build();
     }
 
@@ -839,6 +861,43 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
                 : overlapFractionThreshold;
     }
 
+    /** Gets the maximum number of bytes downloaded per second on restore, 0 if not limited. */
+    public long getDownloadRateLimit() {
+        return downloadRateLimit == UNDEFINED_DOWNLOAD_RATE_LIMIT
+                ? CHECKPOINT_DOWNLOAD_RATE_LIMIT.defaultValue().getBytes()
+                : downloadRateLimit;
+    }
+
+    /**
+     * Sets the maximum number of bytes downloaded per second on restore.
+     *
+     * @param downloadRateLimit The maximum number of bytes downloaded per second, not limited if
+     *     zero.
+     */
+    public void setDownloadRateLimit(long downloadRateLimit) {
+        checkArgument(downloadRateLimit >= 0, "The download rate limit must not be negative.");
+        this.downloadRateLimit = downloadRateLimit;
+    }
+
+    /**
+     * Gets whether the key groups which are merged into the restored instance on rescaling are
+     * ingested as SST files.
+     */
+    public boolean isSstIngestionForRescalingEnabled() {
+        return useSstIngestionForRescaling.getOrDefault(
+                RESCALING_USE_SST_INGESTION.defaultValue());
+    }
+
+    /**
+     * Sets whether the key groups which are merged into the restored instance on rescaling are
+     * ingested as SST files, instead of being inserted through write batches.
+     *
+     * @param useSstIngestionForRescaling True to ingest the merged key groups as SST files.
+     */
+    public void setUseSstIngestionForRescaling(boolean useSstIngestionForRescaling) {
+        this.useSstIngestionForRescaling = TernaryBoolean.fromBoolean(useSstIngestionForRescaling);
+    }
+
     // ------------------------------------------------------------------------
     //  utilities
     // ------------------------------------------------------------------------
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.annotation.Experimental;
+import org.apache.flink.api.common.state.MapState;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link MapState} stored in RocksDB which can additionally be accessed asynchronously, once
+ * {@link RocksDBKeyedStateBackend#enableAsyncStateAccess} has been called.
+ *
+ * <p>The requests are bound to the current key and namespace at the time of the call. Requests for
+ * the same key are executed in the order of the calls, also across different states. Note that
+ * synchronous accesses are not ordered with pending asynchronous requests of the same key.
+ *
+ * @param <UK> Type of the keys in the state.
+ * @param <UV> Type of the values in the state.
+ */
+@Experimental
+public interface RocksDBAsyncMapState<UK, UV> extends MapState<UK, UV> {
+
+    /**
+     * Asynchronously reads the value of the given user key.
+     *
+     * @param key the user key.
+     * @return the future of the value, or of null if the map does not contain the user key.
+     */
+    CompletableFuture<UV> asyncGet(UK key);
+
+    /**
+     * Asynchronously puts a mapping into the map.
+     *
+     * @param key the user key.
+     * @param value the new value of the user key.
+     * @return the future which is completed once the mapping has been written.
+     */
+    CompletableFuture<Void> asyncPut(UK key, UV value);
+
+    /**
+     * Asynchronously removes the mapping of the given user key.
+     *
+     * @param key the user key.
+     * @return the future which is completed once the mapping has been removed.
+     */
+    CompletableFuture<Void> asyncRemove(UK key);
+}
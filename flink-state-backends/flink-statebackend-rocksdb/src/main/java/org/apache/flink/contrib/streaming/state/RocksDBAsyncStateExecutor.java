@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.util.ExecutorUtils;
+import org.apache.flink.util.ResourceGuard;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.apache.flink.util.function.SupplierWithException;
+
+import javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Executes the asynchronous state requests of a {@link RocksDBKeyedStateBackend} on a pool of I/O
+ * threads, so that the task thread does not block on the reads from disk.
+ *
+ * <p>The requests for the same key are executed one after the other in the order in which they
+ * were submitted, while the requests for different keys are executed concurrently. The returned
+ * futures are completed through the callback executor, usually the mailbox executor of the task,
+ * so that the actions depending on them may safely access the state and its serializers. The
+ * executor must be created by the task thread, which is the only thread allowed to submit requests
+ * and to run the callbacks. If the callback executor runs a callback on any other thread, the
+ * future of the request is completed exceptionally instead.
+ *
+ * <p>Every request holds a lease of the resource guard of the RocksDB instance while it runs, so
+ * that the instance is not disposed while requests are accessing it.
+ */
+class RocksDBAsyncStateExecutor implements Closeable {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    private final ExecutorService ioExecutor;
+
+    private final Executor callbackExecutor;
+
+    private final ResourceGuard rocksDBResourceGuard;
+
+    /** The task thread, which submits the requests and runs their callbacks. */
+    private final Thread taskThread;
+
+    /** The requests which have been submitted but not executed yet. */
+    private final Set<CompletableFuture<?>> pendingRequests;
+
+    /**
+     * The last request for each key which has not completed yet. A new request for the same key is
+     * executed only once this one is completed.
+     */
+    private final ConcurrentHashMap<ByteBuffer, CompletableFuture<?>> lastRequests;
+
+    RocksDBAsyncStateExecutor(
+            int numIoThreads, Executor callbackExecutor, ResourceGuard rocksDBResourceGuard) {
+        checkArgument(numIoThreads > 0, "The number of I/O threads must be positive.");
+        this.ioExecutor =
+                Executors.newFixedThreadPool(
+                        numIoThreads, new ExecutorThreadFactory("rocksdb-async-state-io"));
+        this.callbackExecutor = checkNotNull(callbackExecutor);
+        this.rocksDBResourceGuard = checkNotNull(rocksDBResourceGuard);
+        this.lastRequests = new ConcurrentHashMap<>();
+        this.taskThread = Thread.currentThread();
+        this.pendingRequests = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Submits a request which accesses RocksDB on behalf of the given key.
+     *
+     * @param serializedKey the serialized key-group and key, which determines the order of the
+     *     requests.
+     * @param request the request to execute on an I/O thread.
+     * @return the future of the result of the request, completed through the callback executor.
+     */
+    <T> CompletableFuture<T> submit(
+            byte[] serializedKey, SupplierWithException<T, ? extends Exception> request) {
+        checkState(
+                Thread.currentThread() == taskThread,
+                "Asynchronous state requests must be submitted by the task thread %s.",
+                taskThread.getName());
+        final ByteBuffer key = ByteBuffer.wrap(serializedKey);
+        final CompletableFuture<T> ioResult = new CompletableFuture<>();
+        final Runnable ioAction = () -> execute(request, ioResult);
+
+        pendingRequests.add(ioResult);
+        ioResult.whenComplete((ignored, throwable) -> pendingRequests.remove(ioResult));
+
+        final CompletableFuture<?> previous = lastRequests.put(key, ioResult);
+        if (previous == null) {
+            schedule(ioAction, ioResult);
+        } else {
+            previous.whenComplete((ignored, throwable) -> schedule(ioAction, ioResult));
+        }
+        ioResult.whenComplete((ignored, throwable) -> lastRequests.remove(key, ioResult));
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        ioResult.whenComplete((value, throwable) -> completeOnTaskThread(result, value, throwable));
+        return result;
+    }
+
+    /**
+     * Waits until all the submitted requests have been executed. The callbacks of the requests may
+     * still be pending in the callback executor afterwards.
+     */
+    void drain() throws InterruptedException {
+        // the last request of a key completes after all the earlier requests of that key
+        final List<CompletableFuture<?>> pendingRequests = new ArrayList<>(lastRequests.values());
+        for (CompletableFuture<?> pendingRequest : pendingRequests) {
+            try {
+                pendingRequest.get();
+            } catch (ExecutionException e) {
+                // the failure is reported through the future of the request
+            }
+        }
+    }
+
+    /** Returns the number of keys with requests which have not been executed yet. */
+    int getNumberOfPendingKeys() {
+        return lastRequests.size();
+    }
+
+    /**
+     * Shuts down the I/O threads. The requests which have not been executed yet are not executed
+     * anymore and are completed exceptionally, the running requests are waited for.
+     */
+    @Override
+    public void close() {
+        ioExecutor.shutdownNow();
+        for (CompletableFuture<?> pendingRequest : new ArrayList<>(pendingRequests)) {
+            pendingRequest.completeExceptionally(
+                    new CancellationException(
+                            "The asynchronous state request was cancelled because the state "
+                                    + "backend has been closed."));
+        }
+        ExecutorUtils.gracefulShutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS, ioExecutor);
+    }
+
+    /**
+     * Completes the future of a request through the callback executor. The callbacks of the future
+     * deserialize the results with the serializers of the states, so they must only run on the
+     * task thread.
+     */
+    private <T> void completeOnTaskThread(
+            CompletableFuture<T> result, T value, @Nullable Throwable throwable) {
+        try {
+            callbackExecutor.execute(
+                    () -> {
+                        if (Thread.currentThread() != taskThread) {
+                            result.completeExceptionally(
+                                    new IllegalStateException(
+                                            String.format(
+                                                    "Callbacks of asynchronous state requests "
+                                                            + "must run on the task thread %s, "
+                                                            + "but ran on %s.",
+                                                    taskThread.getName(),
+                                                    Thread.currentThread().getName())));
+                        } else if (throwable != null) {
+                            result.completeExceptionally(throwable);
+                        } else {
+                            result.complete(value);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            // the task is shutting down, nothing will wait for the result anymore
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void schedule(Runnable ioAction, CompletableFuture<?> ioResult) {
+        try {
+            ioExecutor.execute(ioAction);
+        } catch (RejectedExecutionException e) {
+            ioResult.completeExceptionally(e);
+        }
+    }
+
+    private <T> void execute(
+            SupplierWithException<T, ? extends Exception> request, CompletableFuture<T> ioResult) {
+        try (ResourceGuard.Lease ignored = rocksDBResourceGuard.acquireResource()) {
+            ioResult.complete(request.get());
+        } catch (Throwable t) {
+            ioResult.completeExceptionally(t);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.annotation.Experimental;
+import org.apache.flink.api.common.state.ValueState;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link ValueState} stored in RocksDB which can additionally be accessed asynchronously, once
+ * {@link RocksDBKeyedStateBackend#enableAsyncStateAccess} has been called.
+ *
+ * <p>The requests are bound to the current key and namespace at the time of the call. Requests for
+ * the same key are executed in the order of the calls, also across different states. Note that
+ * synchronous accesses are not ordered with pending asynchronous requests of the same key.
+ *
+ * @param <V> Type of the value in the state.
+ */
+@Experimental
+public interface RocksDBAsyncValueState<V> extends ValueState<V> {
+
+    /**
+     * Asynchronously reads the value of the current key and namespace.
+     *
+     * @return the future of the value, or of the default value if there is none.
+     */
+    CompletableFuture<V> asyncValue();
+
+    /**
+     * Asynchronously updates the value of the current key and namespace.
+     *
+     * @param value the new value, or null to clear the state.
+     * @return the future which is completed once the value has been written.
+     */
+    CompletableFuture<Void> asyncUpdate(V value);
+}
@@ -255,6 +255,27 @@ public class RocksDBConfigurableOptions implements Serializable {
                             "If true, RocksDB will use block-based filter instead of full filter, this only take effect when bloom filter is used. "
                                     + "The default value is 'false'.");
 
+    public static final ConfigOption<Boolean> USE_PREFIX_BLOOM_FILTER_FOR_MAP_STATE =
+            key("state.backend.rocksdb.map-state.use-prefix-bloom-filter")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "If true, the column families of newly registered map states whose key and namespace have a fixed "
+                                    + "serialized length are created with a fixed-length prefix extractor and a memtable prefix "
+                                    + "Bloom filter, so that iterating the entries of one map seeks only the data of that map. "
+                                    + "The prefix Bloom filter is also written to SST files when 'state.backend.rocksdb.use-bloom-filter' "
+                                    + "is enabled. It is disabled by default.");
+
+    public static final ConfigOption<Integer> ASYNC_STATE_IO_THREADS =
+            key("state.backend.rocksdb.async-state.io-threads")
+                    .intType()
+                    .defaultValue(4)
+                    .withDescription(
+                            "The number of threads (per stateful operator) which execute the asynchronous state requests of "
+                                    + "operators that enabled asynchronous state access. Requests for different keys are "
+                                    + "executed concurrently, while the requests for the same key are executed in order. "
+                                    + "The default value is '4'.");
+
     public static final ConfigOption<Double> RESTORE_OVERLAP_FRACTION_THRESHOLD =
             key("state.backend.rocksdb.restore-overlap-fraction-threshold")
                     .doubleType()
@@ -289,6 +310,8 @@ public class RocksDBConfigurableOptions implements Serializable {
                 USE_BLOOM_FILTER,
                 BLOOM_FILTER_BITS_PER_KEY,
                 BLOOM_FILTER_BLOCK_BASED_MODE,
+                USE_PREFIX_BLOOM_FILTER_FOR_MAP_STATE,
+                ASYNC_STATE_IO_THREADS,
                 RESTORE_OVERLAP_FRACTION_THRESHOLD
             };
 
@@ -297,6 +320,7 @@ public class RocksDBConfigurableOptions implements Serializable {
                     Arrays.asList(
                             MAX_BACKGROUND_THREADS,
                             LOG_FILE_NUM,
+                            ASYNC_STATE_IO_THREADS,
                             MAX_WRITE_BUFFER_NUMBER,
                             MIN_WRITE_BUFFER_NUMBER_TO_MERGE));
 
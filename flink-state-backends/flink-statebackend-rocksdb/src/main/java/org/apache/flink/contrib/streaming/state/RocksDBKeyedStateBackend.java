@@ -80,6 +80,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.IOException;
@@ -90,8 +91,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.Executor;
 import java.util.concurrent.RunnableFuture;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -120,6 +123,9 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
      */
     public static final String MERGE_OPERATOR_NAME = "stringappendtest";
 
+    /** The fraction of the write buffer used for the memtable prefix Bloom filter of map states. */
+    private static final double MAP_STATE_MEMTABLE_PREFIX_BLOOM_RATIO = 0.1;
+
     private static final Map<StateDescriptor.Type, StateFactory> STATE_FACTORIES =
             Stream.of(
                             Tuple2.of(
@@ -172,6 +178,12 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
      */
     private final ReadOptions readOptions;
 
+    /**
+     * The read options to use when iterating the entries under a single key prefix, e.g. all the
+     * entries of one map state. These may make use of the prefix Bloom filter of the column family.
+     */
+    private final ReadOptions prefixReadOptions;
+
     /** The max memory size for one batch in {@link RocksDBWriteBatchWrapper}. */
     private final long writeBatchSize;
 
@@ -226,6 +238,12 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
     // mark whether this backend is already disposed and prevent duplicate disposing
     private boolean disposed = false;
 
+    /**
+     * The executor of the asynchronous state requests, or null if asynchronous state access has
+     * not been enabled.
+     */
+    @Nullable private RocksDBAsyncStateExecutor asyncStateExecutor;
+
     private final RocksDbTtlCompactFiltersManager ttlCompactFiltersManager;
 
     public RocksDBKeyedStateBackend(
@@ -280,6 +298,10 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 
         this.writeOptions = optionsContainer.getWriteOptions();
         this.readOptions = optionsContainer.getReadOptions();
+        this.prefixReadOptions =
+                optionsContainer.isPrefixBloomFilterForMapStateEnabled()
+                        ? optionsContainer.getPrefixReadOptions()
+                        : readOptions;
         this.writeBatchSize = writeBatchSize;
         this.db = db;
         this.rocksDBResourceGuard = rocksDBResourceGuard;
@@ -407,6 +429,9 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         }
         super.dispose();
 
+        // Stop executing asynchronous state requests, the running ones hold a lease of the guard.
+        IOUtils.closeQuietly(asyncStateExecutor);
+
         // This call will block until all clients that still acquire access to the RocksDB instance
         // have released it,
         // so that we cannot release the native resources while clients are still working with it in
@@ -477,6 +502,22 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         }
     }
 
+    @Nonnull
+    @Override
+    public <T extends HeapPriorityQueueElement & PriorityComparable<? super T> & Keyed<?>>
+            KeyGroupedInternalPriorityQueue<T> createBucketed(
+                    @Nonnull String stateName,
+                    @Nonnull TypeSerializer<T> byteOrderedElementSerializer,
+                    @Nonnull ToLongFunction<T> priorityExtractor,
+                    long bucketSize) {
+        if (this.heapPriorityQueuesManager != null) {
+            return this.heapPriorityQueuesManager.createOrUpdateBucketed(
+                    stateName, byteOrderedElementSerializer, priorityExtractor, bucketSize);
+        } else {
+            return priorityQueueFactory.create(stateName, byteOrderedElementSerializer);
+        }
+    }
+
     private void cleanInstanceBasePath() {
         LOG.info(
                 "Closed RocksDB State Backend. Cleaning up RocksDB working directory {}.",
@@ -510,6 +551,46 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         return readOptions;
     }
 
+    ReadOptions getPrefixReadOptions() {
+        return prefixReadOptions;
+    }
+
+    /**
+     * Enables the asynchronous access to the states of this backend, see {@link
+     * RocksDBAsyncValueState} and {@link RocksDBAsyncMapState}. The requests are executed by a pool
+     * of {@link RocksDBConfigurableOptions#ASYNC_STATE_IO_THREADS} threads.
+     *
+     * <p>This method must be called by the task thread. The futures of the requests are completed
+     * through the given executor, which must run on the task thread, e.g. the mailbox executor of
+     * the task, so that their callbacks can safely access the states again. Futures completed on
+     * any other thread fail with an {@link IllegalStateException}. Snapshots wait for all the
+     * requests to be executed, but the operator has to make sure that the callbacks of the
+     * requests before a checkpoint barrier have run before it snapshots its state.
+     *
+     * @param callbackExecutor the executor which completes the futures of the requests.
+     */
+    public void enableAsyncStateAccess(Executor callbackExecutor) {
+        checkState(asyncStateExecutor == null, "Asynchronous state access is already enabled.");
+        this.asyncStateExecutor =
+                new RocksDBAsyncStateExecutor(
+                        optionsContainer.getAsyncStateIoThreads(),
+                        callbackExecutor,
+                        rocksDBResourceGuard);
+    }
+
+    RocksDBAsyncStateExecutor getAsyncStateExecutor() {
+        checkState(
+                asyncStateExecutor != null,
+                "Asynchronous state access has not been enabled for this backend.");
+        return asyncStateExecutor;
+    }
+
+    private void drainAsyncStateRequests() throws InterruptedException {
+        if (asyncStateExecutor != null) {
+            asyncStateExecutor.drain();
+        }
+    }
+
     SerializedCompositeKeyBuilder<K> getSharedRocksKeyBuilder() {
         return sharedRocksKeyBuilder;
     }
@@ -542,6 +623,7 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 
         // flush everything into db before taking a snapshot
         writeBatchWrapper.flush();
+        drainAsyncStateRequests();
 
         return new SnapshotStrategyRunner<>(
                         checkpointSnapshotStrategy.getDescription(),
@@ -557,6 +639,7 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 
         // flush everything into db before taking a snapshot
         writeBatchWrapper.flush();
+        drainAsyncStateRequests();
 
         Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates;
         if (heapPriorityQueuesManager != null) {
@@ -643,7 +726,7 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
                     RocksDBOperationUtils.createStateInfo(
                             newMetaInfo,
                             db,
-                            columnFamilyOptionsFactory,
+                            getColumnFamilyOptionsFactory(stateDesc, namespaceSerializer),
                             ttlCompactFiltersManager,
                             optionsContainer.getWriteBufferManagerCapacity());
             RocksDBOperationUtils.registerKvStateInformation(
@@ -663,6 +746,31 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         return Tuple2.of(newRocksStateInfo.columnFamilyHandle, newMetaInfo);
     }
 
+    /**
+     * Returns the factory for the column family options of a newly registered state. Map states
+     * whose key prefix, i.e. key-group, key and namespace, has a fixed serialized length get a
+     * fixed-length prefix extractor if configured, so that the iteration over the entries of a
+     * single map can make use of prefix Bloom filters.
+     */
+    private Function<String, ColumnFamilyOptions> getColumnFamilyOptionsFactory(
+            StateDescriptor<?, ?> stateDesc, TypeSerializer<?> namespaceSerializer) {
+        if (stateDesc.getType() != StateDescriptor.Type.MAP
+                || !optionsContainer.isPrefixBloomFilterForMapStateEnabled()
+                || CompositeKeySerializationUtils.isSerializerTypeVariableSized(keySerializer)
+                || CompositeKeySerializationUtils.isSerializerTypeVariableSized(
+                        namespaceSerializer)) {
+            return columnFamilyOptionsFactory;
+        }
+
+        final int prefixLength =
+                keyGroupPrefixBytes + keySerializer.getLength() + namespaceSerializer.getLength();
+        return stateName ->
+                columnFamilyOptionsFactory
+                        .apply(stateName)
+                        .useFixedLengthPrefixExtractor(prefixLength)
+                        .setMemtablePrefixBloomSizeRatio(MAP_STATE_MEMTABLE_PREFIX_BLOOM_RATIO);
+    }
+
     private <N, S extends State, SV>
             RegisteredKeyValueStateBackendMetaInfo<N, SV> updateRestoredStateMetaInfo(
                     Tuple2<ColumnFamilyHandle, RegisteredKeyValueStateBackendMetaInfo<N, SV>>
@@ -121,6 +121,10 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 
     private RocksDB injectedTestDB; // for testing
     private double overlapFractionThreshold = RESTORE_OVERLAP_FRACTION_THRESHOLD.defaultValue();
+    private long downloadRateLimit =
+            RocksDBOptions.CHECKPOINT_DOWNLOAD_RATE_LIMIT.defaultValue().getBytes();
+    private boolean useSstIngestionForRescaling =
+            RocksDBOptions.RESCALING_USE_SST_INGESTION.defaultValue();
     private ColumnFamilyHandle injectedDefaultColumnFamilyHandle; // for testing
     private RocksDBStateUploader injectRocksDBStateUploader; // for testing
 
@@ -262,6 +266,18 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
         return this;
     }
 
+    RocksDBKeyedStateBackendBuilder<K> setDownloadRateLimit(long downloadRateLimit) {
+        checkArgument(downloadRateLimit >= 0, "Download rate limit should be non negative.");
+        this.downloadRateLimit = downloadRateLimit;
+        return this;
+    }
+
+    RocksDBKeyedStateBackendBuilder<K> setUseSstIngestionForRescaling(
+            boolean useSstIngestionForRescaling) {
+        this.useSstIngestionForRescaling = useSstIngestionForRescaling;
+        return this;
+    }
+
     private static void checkAndCreateDirectory(File directory) throws IOException {
         if (directory.exists()) {
             if (!directory.isDirectory()) {
@@ -473,7 +489,9 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                     ttlCompactFiltersManager,
                     writeBatchSize,
                     optionsContainer.getWriteBufferManagerCapacity(),
-                    overlapFractionThreshold);
+                    overlapFractionThreshold,
+                    downloadRateLimit,
+                    useSstIngestionForRescaling);
         } else if (priorityQueueStateType
                 == EmbeddedRocksDBStateBackend.PriorityQueueStateType.HEAP) {
             return new RocksDBHeapTimersFullRestoreOperation<>(
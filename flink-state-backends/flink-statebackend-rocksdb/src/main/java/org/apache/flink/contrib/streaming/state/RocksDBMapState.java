@@ -35,6 +35,9 @@ import org.apache.flink.runtime.state.internal.InternalMapState;
 import org.apache.flink.util.FlinkRuntimeException;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.StateMigrationException;
+import org.apache.flink.util.concurrent.FutureUtils;
+
+import org.apache.flink.shaded.guava30.com.google.common.primitives.UnsignedBytes;
 
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
@@ -49,8 +52,10 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 
@@ -63,10 +68,16 @@ import static org.apache.flink.util.Preconditions.checkArgument;
  * @param <UV> The type of the values in the map state.
  */
 class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, UV>>
-        implements InternalMapState<K, N, UK, UV> {
+        implements InternalMapState<K, N, UK, UV>,
+                RocksDBRangeMapState<UK, UV>,
+                RocksDBAsyncMapState<UK, UV> {
 
     private static final Logger LOG = LoggerFactory.getLogger(RocksDBMapState.class);
 
+    /** Compares serialized keys in the same order as the default comparator of RocksDB. */
+    private static final Comparator<byte[]> KEY_COMPARATOR =
+            UnsignedBytes.lexicographicalComparator();
+
     /** Serializer for the keys and values. */
     private final TypeSerializer<UK> userKeySerializer;
 
@@ -175,11 +186,124 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
         return (rawValueBytes != null);
     }
 
+    @Override
+    public CompletableFuture<UV> asyncGet(UK userKey) {
+        final byte[] rawKeyBytes;
+        try {
+            rawKeyBytes =
+                    serializeCurrentKeyWithGroupAndNamespacePlusUserKey(userKey, userKeySerializer);
+        } catch (IOException e) {
+            return FutureUtils.completedExceptionally(e);
+        }
+
+        return backend.getAsyncStateExecutor()
+                .submit(
+                        serializeCurrentKeyWithGroup(),
+                        () -> backend.db.get(columnFamily, rawKeyBytes))
+                .thenApply(
+                        rawValueBytes -> {
+                            if (rawValueBytes == null) {
+                                return null;
+                            }
+                            try {
+                                return deserializeUserValue(
+                                        dataInputView, rawValueBytes, userValueSerializer);
+                            } catch (IOException e) {
+                                throw new FlinkRuntimeException(
+                                        "Error while retrieving data from RocksDB.", e);
+                            }
+                        });
+    }
+
+    @Override
+    public CompletableFuture<Void> asyncPut(UK userKey, UV userValue) {
+        final byte[] rawKeyBytes;
+        final byte[] rawValueBytes;
+        try {
+            rawKeyBytes =
+                    serializeCurrentKeyWithGroupAndNamespacePlusUserKey(userKey, userKeySerializer);
+            rawValueBytes = serializeValueNullSensitive(userValue, userValueSerializer);
+        } catch (IOException e) {
+            return FutureUtils.completedExceptionally(e);
+        }
+
+        return backend.getAsyncStateExecutor()
+                .submit(
+                        serializeCurrentKeyWithGroup(),
+                        () -> {
+                            backend.db.put(columnFamily, writeOptions, rawKeyBytes, rawValueBytes);
+                            return null;
+                        });
+    }
+
+    @Override
+    public CompletableFuture<Void> asyncRemove(UK userKey) {
+        final byte[] rawKeyBytes;
+        try {
+            rawKeyBytes =
+                    serializeCurrentKeyWithGroupAndNamespacePlusUserKey(userKey, userKeySerializer);
+        } catch (IOException e) {
+            return FutureUtils.completedExceptionally(e);
+        }
+
+        return backend.getAsyncStateExecutor()
+                .submit(
+                        serializeCurrentKeyWithGroup(),
+                        () -> {
+                            backend.db.delete(columnFamily, writeOptions, rawKeyBytes);
+                            return null;
+                        });
+    }
+
     @Override
     public Iterable<Map.Entry<UK, UV>> entries() {
         return this::iterator;
     }
 
+    @Override
+    public Iterable<Map.Entry<UK, UV>> entries(int maxEntries) {
+        checkArgument(maxEntries >= 0, "The number of entries must not be negative.");
+        final byte[] prefixBytes = serializeCurrentKeyWithGroupAndNamespace();
+
+        return () -> entryIterator(prefixBytes, prefixBytes, null, maxEntries);
+    }
+
+    @Override
+    public Iterable<Map.Entry<UK, UV>> entries(@Nullable UK fromKey, @Nullable UK toKey)
+            throws IOException {
+        final byte[] prefixBytes = serializeCurrentKeyWithGroupAndNamespace();
+        final byte[] startBytes =
+                fromKey == null
+                        ? prefixBytes
+                        : serializeCurrentKeyWithGroupAndNamespacePlusUserKey(
+                                fromKey, userKeySerializer);
+        final byte[] endBytes =
+                toKey == null
+                        ? null
+                        : serializeCurrentKeyWithGroupAndNamespacePlusUserKey(
+                                toKey, userKeySerializer);
+
+        return () -> entryIterator(prefixBytes, startBytes, endBytes, Integer.MAX_VALUE);
+    }
+
+    private Iterator<Map.Entry<UK, UV>> entryIterator(
+            byte[] prefixBytes, byte[] startBytes, @Nullable byte[] endBytes, int maxEntries) {
+        return new RocksDBMapIterator<Map.Entry<UK, UV>>(
+                backend.db,
+                prefixBytes,
+                startBytes,
+                endBytes,
+                maxEntries,
+                userKeySerializer,
+                userValueSerializer,
+                dataInputView) {
+            @Override
+            public Map.Entry<UK, UV> next() {
+                return nextEntry();
+            }
+        };
+    }
+
     @Override
     public Iterable<UK> keys() {
         final byte[] prefixBytes = serializeCurrentKeyWithGroupAndNamespace();
@@ -268,7 +392,7 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
 
         try (RocksIteratorWrapper iterator =
                 RocksDBOperationUtils.getRocksIterator(
-                        backend.db, columnFamily, backend.getReadOptions())) {
+                        backend.db, columnFamily, backend.getPrefixReadOptions())) {
 
             iterator.seek(prefixBytes);
 
@@ -280,7 +404,7 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
     public void clear() {
         try (RocksIteratorWrapper iterator =
                         RocksDBOperationUtils.getRocksIterator(
-                                backend.db, columnFamily, backend.getReadOptions());
+                                backend.db, columnFamily, backend.getPrefixReadOptions());
                 RocksDBWriteBatchWrapper rocksDBWriteBatchWrapper =
                         new RocksDBWriteBatchWrapper(
                                 backend.db,
@@ -532,7 +656,14 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
     /** An auxiliary utility to scan all entries under the given key. */
     private abstract class RocksDBMapIterator<T> implements Iterator<T> {
 
-        private static final int CACHE_SIZE_LIMIT = 128;
+        /**
+         * The number of entries loaded into the cache at first. It is doubled on every reload up to
+         * {@link #CACHE_SIZE_LIMIT}, so that large maps are scanned with few seeks while iterating
+         * only a few entries of a map stays cheap.
+         */
+        private static final int INITIAL_CACHE_SIZE = 128;
+
+        private static final int CACHE_SIZE_LIMIT = 1024;
 
         /** The db where data resides. */
         private final RocksDB db;
@@ -543,6 +674,18 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
          */
         @Nonnull private final byte[] keyPrefixBytes;
 
+        /** The key to start the iteration from, which starts with the key prefix bytes. */
+        @Nonnull private final byte[] startBytes;
+
+        /** The exclusive upper bound of the iterated keys, or null if there is none. */
+        @Nullable private final byte[] endBytes;
+
+        /** The number of entries which may still be loaded before the iterator is exhausted. */
+        private int remainingEntries;
+
+        /** The number of entries to load into the cache with the next reload. */
+        private int cacheSize = INITIAL_CACHE_SIZE;
+
         /**
          * True if all entries have been accessed or the iterator has come across an entry with a
          * different prefix.
@@ -570,9 +713,33 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
                 final TypeSerializer<UK> keySerializer,
                 final TypeSerializer<UV> valueSerializer,
                 DataInputDeserializer dataInputView) {
+            this(
+                    db,
+                    keyPrefixBytes,
+                    keyPrefixBytes,
+                    null,
+                    Integer.MAX_VALUE,
+                    keySerializer,
+                    valueSerializer,
+                    dataInputView);
+        }
+
+        RocksDBMapIterator(
+                final RocksDB db,
+                final byte[] keyPrefixBytes,
+                final byte[] startBytes,
+                @Nullable final byte[] endBytes,
+                final int maxEntries,
+                final TypeSerializer<UK> keySerializer,
+                final TypeSerializer<UV> valueSerializer,
+                DataInputDeserializer dataInputView) {
 
             this.db = db;
             this.keyPrefixBytes = keyPrefixBytes;
+            this.startBytes = startBytes;
+            this.endBytes = endBytes;
+            this.remainingEntries = maxEntries;
+            this.expired = maxEntries == 0;
             this.keySerializer = keySerializer;
             this.valueSerializer = valueSerializer;
             this.dataInputView = dataInputView;
@@ -627,20 +794,19 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
             // occurred in the below code block.
             try (RocksIteratorWrapper iterator =
                     RocksDBOperationUtils.getRocksIterator(
-                            db, columnFamily, backend.getReadOptions())) {
+                            db, columnFamily, backend.getPrefixReadOptions())) {
 
                 /*
-                 * The iteration starts from the prefix bytes at the first loading. After #nextEntry() is called,
+                 * The iteration starts from the start bytes at the first loading. After #nextEntry() is called,
                  * the currentEntry points to the last returned entry, and at that time, we will start
                  * the iterating from currentEntry if reloading cache is needed.
                  */
-                byte[] startBytes =
-                        (currentEntry == null ? keyPrefixBytes : currentEntry.rawKeyBytes);
+                byte[] seekBytes = (currentEntry == null ? startBytes : currentEntry.rawKeyBytes);
 
                 cacheEntries.clear();
                 cacheIndex = 0;
 
-                iterator.seek(startBytes);
+                iterator.seek(seekBytes);
 
                 /*
                  * If the entry pointing to the current position is not removed, it will be the first entry in the
@@ -651,13 +817,20 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
                 }
 
                 while (true) {
-                    if (!iterator.isValid()
-                            || !startWithKeyPrefix(keyPrefixBytes, iterator.key())) {
+                    if (!iterator.isValid()) {
                         expired = true;
                         break;
                     }
 
-                    if (cacheEntries.size() >= CACHE_SIZE_LIMIT) {
+                    byte[] keyBytes = iterator.key();
+                    if (!startWithKeyPrefix(keyPrefixBytes, keyBytes)
+                            || (endBytes != null
+                                    && KEY_COMPARATOR.compare(keyBytes, endBytes) >= 0)) {
+                        expired = true;
+                        break;
+                    }
+
+                    if (cacheEntries.size() >= cacheSize) {
                         break;
                     }
 
@@ -665,7 +838,7 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
                             new RocksDBMapEntry(
                                     db,
                                     keyPrefixBytes.length,
-                                    iterator.key(),
+                                    keyBytes,
                                     iterator.value(),
                                     keySerializer,
                                     valueSerializer,
@@ -673,8 +846,15 @@ class RocksDBMapState<K, N, UK, UV> extends AbstractRocksDBState<K, N, Map<UK, U
 
                     cacheEntries.add(entry);
 
+                    if (--remainingEntries == 0) {
+                        expired = true;
+                        break;
+                    }
+
                     iterator.next();
                 }
+
+                cacheSize = Math.min(cacheSize * 2, CACHE_SIZE_LIMIT);
             }
         }
     }
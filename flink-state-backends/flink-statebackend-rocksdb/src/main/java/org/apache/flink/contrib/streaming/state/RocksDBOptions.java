@@ -73,6 +73,28 @@ public class RocksDBOptions {
                     .withDescription(
                             "The number of threads (per stateful operator) used to transfer (download and upload) files in RocksDBStateBackend.");
 
+    /** The maximum bandwidth used to download files when restoring the RocksDBStateBackend. */
+    @Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
+    public static final ConfigOption<MemorySize> CHECKPOINT_DOWNLOAD_RATE_LIMIT =
+            ConfigOptions.key("state.backend.rocksdb.checkpoint.transfer.download-rate-limit")
+                    .memoryType()
+                    .defaultValue(MemorySize.ZERO)
+                    .withDescription(
+                            "The maximum number of bytes per second (per stateful operator) which are downloaded when restoring "
+                                    + "from an incremental checkpoint. The download is not limited if it is set to 0.");
+
+    /** Whether the key groups of other state handles are ingested as SST files on rescaling. */
+    @Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
+    public static final ConfigOption<Boolean> RESCALING_USE_SST_INGESTION =
+            ConfigOptions.key("state.backend.rocksdb.rescaling.use-sst-ingestion")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "When restoring from an incremental checkpoint with rescaling, the key groups of the state handles "
+                                    + "which are merged into the restored instance are written into SST files, which are then ingested, "
+                                    + "instead of being inserted through write batches. This bypasses the memtables, the write-ahead log "
+                                    + "and the compactions of the inserted data.");
+
     /** The predefined settings for RocksDB DBOptions and ColumnFamilyOptions by Flink community. */
     @Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
     public static final ConfigOption<String> PREDEFINED_OPTIONS =
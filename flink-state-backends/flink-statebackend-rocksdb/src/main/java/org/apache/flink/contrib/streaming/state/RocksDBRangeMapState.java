@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.annotation.Experimental;
+import org.apache.flink.api.common.state.MapState;
+
+import javax.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * A {@link MapState} stored in RocksDB which additionally supports reading a part of the entries
+ * of the current map without iterating all of them.
+ *
+ * <p>The entries are returned in the order of their serialized user keys. This matches the natural
+ * order of the keys only if the user key serializer has an order preserving binary format, e.g.
+ * for non-negative integers or longs.
+ *
+ * <p>Note that the state returned by the backend does not implement this interface if it is
+ * wrapped, e.g. because TTL or latency tracking is enabled for it.
+ *
+ * @param <UK> Type of the keys in the state.
+ * @param <UV> Type of the values in the state.
+ */
+@Experimental
+public interface RocksDBRangeMapState<UK, UV> extends MapState<UK, UV> {
+
+    /**
+     * Returns at most the given number of first entries of the current map. No more entries than
+     * requested are read from RocksDB.
+     *
+     * @param maxEntries the maximum number of entries to return.
+     * @return an iterable view of the first entries of the current map.
+     */
+    Iterable<Map.Entry<UK, UV>> entries(int maxEntries) throws Exception;
+
+    /**
+     * Returns the entries of the current map whose serialized user keys lie in the given range.
+     * The iteration starts directly at the first entry of the range.
+     *
+     * @param fromKey the inclusive lower bound, or {@code null} to start at the first entry.
+     * @param toKey the exclusive upper bound, or {@code null} to end at the last entry.
+     * @return an iterable view of the entries of the current map in the given range.
+     */
+    Iterable<Map.Entry<UK, UV>> entries(@Nullable UK fromKey, @Nullable UK toKey) throws Exception;
+}
@@ -205,6 +205,26 @@ public final class RocksDBResourceContainer implements AutoCloseable {
 
     /** Gets the RocksDB {@link ReadOptions} to be used for read operations. */
     public ReadOptions getReadOptions() {
+        ReadOptions opt = createReadOptions();
+
+        // iterations across key prefixes must not be restricted by a prefix extractor
+        if (isPrefixBloomFilterForMapStateEnabled()) {
+            opt.setTotalOrderSeek(true);
+        }
+
+        return opt;
+    }
+
+    /**
+     * Gets the RocksDB {@link ReadOptions} to be used for iterating the entries under a single key
+     * prefix, which allows RocksDB to make use of the prefix Bloom filter of the column family.
+     * Apart from the prefix seek, they are the same as the {@link #getReadOptions() read options}.
+     */
+    public ReadOptions getPrefixReadOptions() {
+        return createReadOptions().setTotalOrderSeek(false).setPrefixSameAsStart(true);
+    }
+
+    private ReadOptions createReadOptions() {
         ReadOptions opt = new ReadOptions();
         handlesToClose.add(opt);
 
@@ -216,6 +236,22 @@ public final class RocksDBResourceContainer implements AutoCloseable {
         return opt;
     }
 
+    /**
+     * Returns whether the column families of map states are created with a prefix extractor, see
+     * {@link RocksDBConfigurableOptions#USE_PREFIX_BLOOM_FILTER_FOR_MAP_STATE}.
+     */
+    public boolean isPrefixBloomFilterForMapStateEnabled() {
+        return internalGetOption(RocksDBConfigurableOptions.USE_PREFIX_BLOOM_FILTER_FOR_MAP_STATE);
+    }
+
+    /**
+     * Gets the number of threads which execute the asynchronous state requests, see {@link
+     * RocksDBConfigurableOptions#ASYNC_STATE_IO_THREADS}.
+     */
+    public int getAsyncStateIoThreads() {
+        return internalGetOption(RocksDBConfigurableOptions.ASYNC_STATE_IO_THREADS);
+    }
+
     RocksDBNativeMetricOptions getMemoryWatcherOptions(
             RocksDBNativeMetricOptions defaultMetricOptions) {
         return optionsFactory == null
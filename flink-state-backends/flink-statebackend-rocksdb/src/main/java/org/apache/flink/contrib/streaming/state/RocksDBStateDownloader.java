@@ -27,20 +27,56 @@ import org.apache.flink.util.FlinkRuntimeException;
 import org.apache.flink.util.concurrent.FutureUtils;
 import org.apache.flink.util.function.ThrowingRunnable;
 
+import org.apache.flink.shaded.guava30.com.google.common.util.concurrent.RateLimiter;
+
+import javax.annotation.Nullable;
+
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
 
-/** Help class for downloading RocksDB state files. */
+/**
+ * Help class for downloading RocksDB state files.
+ *
+ * <p>The files are downloaded in the order of the given requests, so that the state which is
+ * needed first is available first, and the total download bandwidth can be limited.
+ */
 public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
+
+    /** Limits the download bandwidth of all threads, null if it is not limited. */
+    @Nullable private final RateLimiter rateLimiter;
+
+    /** The number of downloaded bytes. */
+    private final AtomicLong downloadedBytes = new AtomicLong();
+
     public RocksDBStateDownloader(int restoringThreadNum) {
+        this(restoringThreadNum, 0L);
+    }
+
+    /**
+     * Creates a downloader.
+     *
+     * @param restoringThreadNum The number of threads which download files concurrently.
+     * @param maxBytesPerSecond The maximum number of bytes downloaded per second, not limited if
+     *     zero.
+     */
+    public RocksDBStateDownloader(int restoringThreadNum, long maxBytesPerSecond) {
         super(restoringThreadNum);
+        checkArgument(maxBytesPerSecond >= 0, "The download rate limit must not be negative.");
+        this.rateLimiter = maxBytesPerSecond > 0 ? RateLimiter.create(maxBytesPerSecond) : null;
     }
 
     /**
@@ -56,32 +92,55 @@ public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
             CloseableRegistry closeableRegistry)
             throws Exception {
 
-        final Map<StateHandleID, StreamStateHandle> sstFiles = restoreStateHandle.getSharedState();
-        final Map<StateHandleID, StreamStateHandle> miscFiles =
-                restoreStateHandle.getPrivateState();
-
-        downloadDataForAllStateHandles(sstFiles, dest, closeableRegistry);
-        downloadDataForAllStateHandles(miscFiles, dest, closeableRegistry);
+        waitForDownload(
+                transferAllStateDataToDirectoryAsync(
+                                Collections.singletonList(
+                                        new StateHandleDownloadSpec(restoreStateHandle, dest)),
+                                closeableRegistry)
+                        .get(0));
     }
 
     /**
-     * Copies all the files from the given stream state handles to the given path, renaming the
-     * files w.r.t. their {@link StateHandleID}.
+     * Starts to transfer the state data of all requests to their target directories, and returns
+     * one future per request, in the same order. The requests are served in the given order of
+     * priority, and the larger files of each request first, so that few small files are left over
+     * at the end.
+     *
+     * @param downloadRequests The state handles to download and their target directories.
+     * @param closeableRegistry The registry to close the streams in when the restore is cancelled.
+     * @return The futures of the requests, which are completed once all files of the request are
+     *     downloaded. They should be waited for with {@link #waitForDownload(CompletableFuture)}.
      */
-    private void downloadDataForAllStateHandles(
-            Map<StateHandleID, StreamStateHandle> stateHandleMap,
-            Path restoreInstancePath,
-            CloseableRegistry closeableRegistry)
-            throws Exception {
+    public List<CompletableFuture<Void>> transferAllStateDataToDirectoryAsync(
+            List<StateHandleDownloadSpec> downloadRequests, CloseableRegistry closeableRegistry) {
+
+        List<CompletableFuture<Void>> requestFutures = new ArrayList<>(downloadRequests.size());
+        for (StateHandleDownloadSpec downloadRequest : downloadRequests) {
+            IncrementalRemoteKeyedStateHandle stateHandle = downloadRequest.getStateHandle();
+            List<Map.Entry<StateHandleID, StreamStateHandle>> files =
+                    new ArrayList<>(stateHandle.getSharedState().entrySet());
+            files.addAll(stateHandle.getPrivateState().entrySet());
+            files.sort(
+                    Comparator.comparingLong(
+                            (Map.Entry<StateHandleID, StreamStateHandle> file) ->
+                                    file.getValue().getStateSize())
+                            .reversed());
+
+            List<CompletableFuture<Void>> fileFutures = new ArrayList<>(files.size());
+            for (Runnable runnable :
+                    createDownloadRunnables(
+                            files, downloadRequest.getDownloadDestination(), closeableRegistry)) {
+                fileFutures.add(CompletableFuture.runAsync(runnable, executorService));
+            }
+            requestFutures.add(FutureUtils.waitForAll(fileFutures));
+        }
+        return requestFutures;
+    }
 
+    /** Waits for the given download and rethrows its failure. */
+    public static void waitForDownload(CompletableFuture<?> downloadFuture) throws Exception {
         try {
-            List<Runnable> runnables =
-                    createDownloadRunnables(stateHandleMap, restoreInstancePath, closeableRegistry);
-            List<CompletableFuture<Void>> futures = new ArrayList<>(runnables.size());
-            for (Runnable runnable : runnables) {
-                futures.add(CompletableFuture.runAsync(runnable, executorService));
-            }
-            FutureUtils.waitForAll(futures).get();
+            downloadFuture.get();
         } catch (ExecutionException e) {
             Throwable throwable = ExceptionUtils.stripExecutionException(e);
             throwable = ExceptionUtils.stripException(throwable, RuntimeException.class);
@@ -93,12 +152,35 @@ public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
         }
     }
 
+    /**
+     * Cancels the given downloads and waits until the files which are being downloaded are
+     * closed, so that their target directories can be deleted. The downloads which have not
+     * started yet are dropped. This downloader can not be used afterwards.
+     */
+    public void cancelDownloads(List<CompletableFuture<Void>> downloads) {
+        for (CompletableFuture<Void> download : downloads) {
+            download.cancel(false);
+        }
+        // interrupting the running downloads stops them before their next read
+        executorService.shutdownNow();
+        try {
+            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Returns the number of bytes downloaded so far. */
+    public long getDownloadedBytes() {
+        return downloadedBytes.get();
+    }
+
     private List<Runnable> createDownloadRunnables(
-            Map<StateHandleID, StreamStateHandle> stateHandleMap,
+            List<Map.Entry<StateHandleID, StreamStateHandle>> files,
             Path restoreInstancePath,
             CloseableRegistry closeableRegistry) {
-        List<Runnable> runnables = new ArrayList<>(stateHandleMap.size());
-        for (Map.Entry<StateHandleID, StreamStateHandle> entry : stateHandleMap.entrySet()) {
+        List<Runnable> runnables = new ArrayList<>(files.size());
+        for (Map.Entry<StateHandleID, StreamStateHandle> entry : files) {
             StateHandleID stateHandleID = entry.getKey();
             StreamStateHandle remoteFileHandle = entry.getValue();
 
@@ -133,12 +215,20 @@ public class RocksDBStateDownloader extends RocksDBStateDataTransfer {
 
             byte[] buffer = new byte[8 * 1024];
             while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("The download was cancelled.");
+                }
+
                 int numBytes = inputStream.read(buffer);
                 if (numBytes == -1) {
                     break;
                 }
 
+                if (rateLimiter != null && numBytes > 0) {
+                    rateLimiter.acquire(numBytes);
+                }
                 outputStream.write(buffer, 0, numBytes);
+                downloadedBytes.addAndGet(numBytes);
             }
         } finally {
             if (closeableRegistry.unregisterCloseable(inputStream)) {
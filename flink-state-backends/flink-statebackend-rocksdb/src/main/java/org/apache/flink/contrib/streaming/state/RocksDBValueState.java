@@ -26,11 +26,15 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
 import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.concurrent.FutureUtils;
 
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDBException;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * {@link ValueState} implementation that stores state in RocksDB.
@@ -40,7 +44,7 @@ import java.io.IOException;
  * @param <V> The type of value that the state state stores.
  */
 class RocksDBValueState<K, N, V> extends AbstractRocksDBState<K, N, V>
-        implements InternalValueState<K, N, V> {
+        implements InternalValueState<K, N, V>, RocksDBAsyncValueState<V> {
 
     /**
      * Creates a new {@code RocksDBValueState}.
@@ -110,6 +114,60 @@ class RocksDBValueState<K, N, V> extends AbstractRocksDBState<K, N, V>
         }
     }
 
+    @Override
+    public CompletableFuture<V> asyncValue() {
+        final byte[] rawKeyBytes = serializeCurrentKeyWithGroupAndNamespace();
+
+        return backend.getAsyncStateExecutor()
+                .submit(
+                        serializeCurrentKeyWithGroup(),
+                        () -> backend.db.get(columnFamily, rawKeyBytes))
+                .thenApply(this::deserializeValueOrDefault);
+    }
+
+    @Override
+    public CompletableFuture<Void> asyncUpdate(V value) {
+        final byte[] rawKeyBytes = serializeCurrentKeyWithGroupAndNamespace();
+
+        if (value == null) {
+            return backend.getAsyncStateExecutor()
+                    .submit(
+                            serializeCurrentKeyWithGroup(),
+                            () -> {
+                                backend.db.delete(columnFamily, writeOptions, rawKeyBytes);
+                                return null;
+                            });
+        }
+
+        final byte[] rawValueBytes;
+        try {
+            rawValueBytes = serializeValue(value);
+        } catch (IOException e) {
+            return FutureUtils.completedExceptionally(e);
+        }
+
+        return backend.getAsyncStateExecutor()
+                .submit(
+                        serializeCurrentKeyWithGroup(),
+                        () -> {
+                            backend.db.put(columnFamily, writeOptions, rawKeyBytes, rawValueBytes);
+                            return null;
+                        });
+    }
+
+    private V deserializeValueOrDefault(@Nullable byte[] valueBytes) {
+        if (valueBytes == null) {
+            return getDefaultValue();
+        }
+
+        try {
+            dataInputView.setBuffer(valueBytes);
+            return valueSerializer.deserialize(dataInputView);
+        } catch (IOException e) {
+            throw new FlinkRuntimeException("Error while retrieving data from RocksDB.", e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     static <K, N, SV, S extends State, IS extends S> IS create(
             StateDescriptor<S, SV> stateDesc,
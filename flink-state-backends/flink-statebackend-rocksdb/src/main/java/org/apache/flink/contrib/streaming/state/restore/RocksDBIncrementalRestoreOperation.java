@@ -27,6 +27,7 @@ import org.apache.flink.contrib.streaming.state.RocksDBOperationUtils;
 import org.apache.flink.contrib.streaming.state.RocksDBStateDownloader;
 import org.apache.flink.contrib.streaming.state.RocksDBWriteBatchWrapper;
 import org.apache.flink.contrib.streaming.state.RocksIteratorWrapper;
+import org.apache.flink.contrib.streaming.state.StateHandleDownloadSpec;
 import org.apache.flink.contrib.streaming.state.ttl.RocksDbTtlCompactFiltersManager;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.memory.DataInputView;
@@ -34,7 +35,6 @@ import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.state.BackendBuildingException;
 import org.apache.flink.runtime.state.CompositeKeySerializationUtils;
-import org.apache.flink.runtime.state.DirectoryStateHandle;
 import org.apache.flink.runtime.state.IncrementalKeyedStateHandle;
 import org.apache.flink.runtime.state.IncrementalLocalKeyedStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
@@ -49,14 +49,19 @@ import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
 import org.apache.flink.util.FileUtils;
 import org.apache.flink.util.IOUtils;
 import org.apache.flink.util.StateMigrationException;
+import org.apache.flink.util.concurrent.FutureUtils;
 
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,15 +71,19 @@ import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import static org.apache.flink.runtime.state.StateUtil.unexpectedStateHandleException;
@@ -85,6 +94,19 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
     private static final Logger logger =
             LoggerFactory.getLogger(RocksDBIncrementalRestoreOperation.class);
 
+    /** The prefix of the SST files which are written to be ingested into the base DB. */
+    private static final String INGESTION_FILE_PREFIX = "ingest-";
+
+    /** The number of state handles downloaded ahead of the one which is merged on rescaling. */
+    private static final int MAX_DOWNLOADS_AHEAD_OF_MERGE = 2;
+
+    static final String RESTORE_METRIC_GROUP = "restore";
+    static final String RESTORE_DURATION_METRIC = "restoreDuration";
+    static final String DOWNLOAD_DURATION_METRIC = "downloadDuration";
+    static final String DOWNLOADED_BYTES_METRIC = "downloadedBytes";
+    static final String INIT_DB_DURATION_METRIC = "initDBDuration";
+    static final String MERGE_DURATION_METRIC = "mergeDuration";
+
     private final String operatorIdentifier;
     private final SortedMap<Long, Map<StateHandleID, StreamStateHandle>> restoredSstFiles;
     private final RocksDBHandle rocksHandle;
@@ -100,9 +122,19 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
     private UUID backendUID;
     private final long writeBatchSize;
     private final double overlapFractionThreshold;
+    private final long downloadRateLimit;
+    private final boolean useSstIngestionForRescaling;
+    private final MetricGroup metricGroup;
 
     private boolean isKeySerializerCompatibilityChecked;
 
+    // the durations of the restore phases in milliseconds, which are exposed as metrics
+    private volatile long restoreDurationMillis;
+    private volatile long downloadDurationMillis;
+    private volatile long initDBDurationMillis;
+    private volatile long mergeDurationMillis;
+    private volatile long downloadedBytes;
+
     public RocksDBIncrementalRestoreOperation(
             String operatorIdentifier,
             KeyGroupRange keyGroupRange,
@@ -122,7 +154,9 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
             @Nonnull RocksDbTtlCompactFiltersManager ttlCompactFiltersManager,
             @Nonnegative long writeBatchSize,
             Long writeBufferManagerCapacity,
-            double overlapFractionThreshold) {
+            double overlapFractionThreshold,
+            long downloadRateLimit,
+            boolean useSstIngestionForRescaling) {
         this.rocksHandle =
                 new RocksDBHandle(
                         kvStateInformation,
@@ -139,6 +173,9 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         this.backendUID = UUID.randomUUID();
         this.writeBatchSize = writeBatchSize;
         this.overlapFractionThreshold = overlapFractionThreshold;
+        this.downloadRateLimit = downloadRateLimit;
+        this.useSstIngestionForRescaling = useSstIngestionForRescaling;
+        this.metricGroup = metricGroup;
         this.restoreStateHandles = restoreStateHandles;
         this.cancelStreamRegistry = cancelStreamRegistry;
         this.keyGroupRange = keyGroupRange;
@@ -163,11 +200,25 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
                 (restoreStateHandles.size() > 1
                         || !Objects.equals(theFirstStateHandle.getKeyGroupRange(), keyGroupRange));
 
+        final long startTime = System.nanoTime();
         if (isRescaling) {
             restoreWithRescaling(restoreStateHandles);
         } else {
             restoreWithoutRescaling(theFirstStateHandle);
         }
+        restoreDurationMillis = elapsedMillis(startTime);
+        registerRestoreMetrics();
+        logger.info(
+                "Restored keyed backend in operator {} in {} ms: downloaded {} bytes in {} ms, "
+                        + "initialized the base DB in {} ms and merged the other state handles "
+                        + "in {} ms.",
+                operatorIdentifier,
+                restoreDurationMillis,
+                downloadedBytes,
+                downloadDurationMillis,
+                initDBDurationMillis,
+                mergeDurationMillis);
+
         return new RocksDBRestoreResult(
                 this.rocksHandle.getDb(),
                 this.rocksHandle.getDefaultColumnFamilyHandle(),
@@ -216,13 +267,23 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
     private void restoreFromRemoteState(IncrementalRemoteKeyedStateHandle stateHandle)
             throws Exception {
         // used as restore source for IncrementalRemoteKeyedStateHandle
-        final Path tmpRestoreInstancePath =
-                instanceBasePath.getAbsoluteFile().toPath().resolve(UUID.randomUUID().toString());
+        final StateHandleDownloadSpec downloadSpec =
+                new StateHandleDownloadSpec(stateHandle, createTemporaryRestoreInstancePath());
         try {
-            restoreFromLocalState(
-                    transferRemoteStateToLocalDirectory(tmpRestoreInstancePath, stateHandle));
+            final long startTime = System.nanoTime();
+            try (RocksDBStateDownloader rocksDBStateDownloader =
+                    new RocksDBStateDownloader(numberOfTransferringThreads, downloadRateLimit)) {
+                rocksDBStateDownloader.transferAllStateDataToDirectory(
+                        stateHandle, downloadSpec.getDownloadDestination(), cancelStreamRegistry);
+                downloadedBytes = rocksDBStateDownloader.getDownloadedBytes();
+            }
+            downloadDurationMillis = elapsedMillis(startTime);
+
+            final long initStartTime = System.nanoTime();
+            restoreFromLocalState(downloadSpec.createLocalStateHandleForDownloadedState());
+            initDBDurationMillis = elapsedMillis(initStartTime);
         } finally {
-            cleanUpPathQuietly(tmpRestoreInstancePath);
+            cleanUpPathQuietly(downloadSpec.getDownloadDestination());
         }
     }
 
@@ -246,26 +307,8 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
                 restoreSourcePath);
     }
 
-    private IncrementalLocalKeyedStateHandle transferRemoteStateToLocalDirectory(
-            Path temporaryRestoreInstancePath, IncrementalRemoteKeyedStateHandle restoreStateHandle)
-            throws Exception {
-
-        try (RocksDBStateDownloader rocksDBStateDownloader =
-                new RocksDBStateDownloader(numberOfTransferringThreads)) {
-            rocksDBStateDownloader.transferAllStateDataToDirectory(
-                    restoreStateHandle, temporaryRestoreInstancePath, cancelStreamRegistry);
-        }
-
-        // since we transferred all remote state to a local directory, we can use the same code as
-        // for
-        // local recovery.
-        return new IncrementalLocalKeyedStateHandle(
-                restoreStateHandle.getBackendIdentifier(),
-                restoreStateHandle.getCheckpointId(),
-                new DirectoryStateHandle(temporaryRestoreInstancePath),
-                restoreStateHandle.getKeyGroupRange(),
-                restoreStateHandle.getMetaStateHandle(),
-                restoreStateHandle.getSharedState());
+    private Path createTemporaryRestoreInstancePath() {
+        return instanceBasePath.getAbsoluteFile().toPath().resolve(UUID.randomUUID().toString());
     }
 
     private void cleanUpPathQuietly(@Nonnull Path path) {
@@ -280,6 +323,12 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
      * Recovery from multi incremental states with rescaling. For rescaling, this method creates a
      * temporary RocksDB instance for a key-groups shard. All contents from the temporary instance
      * are copied into the real restore instance and then the temporary instance is discarded.
+     *
+     * <p>The state handles are downloaded concurrently, the initial handle first, so that the base
+     * DB is initialized while the other handles are still downloading. The other handles are merged
+     * in the order of their downloads. To bound the used disk space, at most {@link
+     * #MAX_DOWNLOADS_AHEAD_OF_MERGE} handles are downloaded ahead of the one which is merged, and
+     * the files of each handle are deleted as soon as it is merged.
      */
     private void restoreWithRescaling(Collection<KeyedStateHandle> restoreStateHandles)
             throws Exception {
@@ -289,13 +338,72 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
                 RocksDBIncrementalCheckpointUtils.chooseTheBestStateHandleForInitial(
                         restoreStateHandles, keyGroupRange, overlapFractionThreshold);
 
-        // Init base DB instance
+        List<StateHandleDownloadSpec> downloadSpecs = new ArrayList<>(restoreStateHandles.size());
         if (initialHandle != null) {
             restoreStateHandles.remove(initialHandle);
-            initDBWithRescaling(initialHandle);
+            downloadSpecs.add(
+                    new StateHandleDownloadSpec(
+                            (IncrementalRemoteKeyedStateHandle) initialHandle,
+                            createTemporaryRestoreInstancePath()));
+        }
+        for (KeyedStateHandle rawStateHandle : restoreStateHandles) {
+            if (!(rawStateHandle instanceof IncrementalRemoteKeyedStateHandle)) {
+                throw unexpectedStateHandleException(
+                        IncrementalRemoteKeyedStateHandle.class, rawStateHandle.getClass());
+            }
+            downloadSpecs.add(
+                    new StateHandleDownloadSpec(
+                            (IncrementalRemoteKeyedStateHandle) rawStateHandle,
+                            createTemporaryRestoreInstancePath()));
+        }
+
+        final long startTime = System.nanoTime();
+        final List<CompletableFuture<Void>> downloads = new ArrayList<>(downloadSpecs.size());
+        try (RocksDBStateDownloader rocksDBStateDownloader =
+                new RocksDBStateDownloader(numberOfTransferringThreads, downloadRateLimit)) {
+            try {
+                mergeWithRescaling(
+                        rocksDBStateDownloader,
+                        downloadSpecs,
+                        downloads,
+                        initialHandle != null,
+                        startTime);
+            } catch (Throwable t) {
+                // the downloads must not write into their directories once they are deleted
+                rocksDBStateDownloader.cancelDownloads(downloads);
+                throw t;
+            }
+        } finally {
+            for (StateHandleDownloadSpec downloadSpec : downloadSpecs) {
+                cleanUpPathQuietly(downloadSpec.getDownloadDestination());
+            }
+        }
+    }
+
+    /**
+     * Initializes the base DB with the first of the given handles if it is the initial handle, and
+     * merges the other handles into it, while downloading them.
+     */
+    private void mergeWithRescaling(
+            RocksDBStateDownloader rocksDBStateDownloader,
+            List<StateHandleDownloadSpec> downloadSpecs,
+            List<CompletableFuture<Void>> downloads,
+            boolean hasInitialHandle,
+            long startTime)
+            throws Exception {
+
+        int specIndex = 0;
+        startDownloads(rocksDBStateDownloader, downloadSpecs, downloads, specIndex, startTime);
+        final long initStartTime = System.nanoTime();
+        if (hasInitialHandle) {
+            StateHandleDownloadSpec initialDownloadSpec = downloadSpecs.get(specIndex);
+            RocksDBStateDownloader.waitForDownload(downloads.get(specIndex++));
+            initDBWithRescaling(initialDownloadSpec);
+            cleanUpPathQuietly(initialDownloadSpec.getDownloadDestination());
         } else {
             this.rocksHandle.openDB();
         }
+        initDBDurationMillis = elapsedMillis(initStartTime);
 
         // Transfer remaining key-groups from temporary instance into base DB
         byte[] startKeyGroupPrefixBytes = new byte[keyGroupPrefixBytes];
@@ -306,82 +414,186 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         CompositeKeySerializationUtils.serializeKeyGroup(
                 keyGroupRange.getEndKeyGroup() + 1, stopKeyGroupPrefixBytes);
 
-        for (KeyedStateHandle rawStateHandle : restoreStateHandles) {
-
-            if (!(rawStateHandle instanceof IncrementalRemoteKeyedStateHandle)) {
-                throw unexpectedStateHandleException(
-                        IncrementalRemoteKeyedStateHandle.class, rawStateHandle.getClass());
-            }
+        for (; specIndex < downloadSpecs.size(); specIndex++) {
+            StateHandleDownloadSpec downloadSpec = downloadSpecs.get(specIndex);
+            startDownloads(rocksDBStateDownloader, downloadSpecs, downloads, specIndex, startTime);
+            RocksDBStateDownloader.waitForDownload(downloads.get(specIndex));
 
+            final long mergeStartTime = System.nanoTime();
             logger.info(
-                    "Starting to restore from state handle: {} with rescaling.", rawStateHandle);
-            Path temporaryRestoreInstancePath =
-                    instanceBasePath
-                            .getAbsoluteFile()
-                            .toPath()
-                            .resolve(UUID.randomUUID().toString());
+                    "Starting to restore from state handle: {} with rescaling.",
+                    downloadSpec.getStateHandle());
+            final Path ingestionFilesPath = createTemporaryRestoreInstancePath();
             try (RestoredDBInstance tmpRestoreDBInfo =
-                            restoreDBInstanceFromStateHandle(
-                                    (IncrementalRemoteKeyedStateHandle) rawStateHandle,
-                                    temporaryRestoreInstancePath);
-                    RocksDBWriteBatchWrapper writeBatchWrapper =
-                            new RocksDBWriteBatchWrapper(
-                                    this.rocksHandle.getDb(), writeBatchSize)) {
-
-                List<ColumnFamilyDescriptor> tmpColumnFamilyDescriptors =
-                        tmpRestoreDBInfo.columnFamilyDescriptors;
-                List<ColumnFamilyHandle> tmpColumnFamilyHandles =
-                        tmpRestoreDBInfo.columnFamilyHandles;
-
-                // iterating only the requested descriptors automatically skips the default column
-                // family handle
-                for (int i = 0; i < tmpColumnFamilyDescriptors.size(); ++i) {
-                    ColumnFamilyHandle tmpColumnFamilyHandle = tmpColumnFamilyHandles.get(i);
-
-                    ColumnFamilyHandle targetColumnFamilyHandle =
-                            this.rocksHandle.getOrRegisterStateColumnFamilyHandle(
-                                            null, tmpRestoreDBInfo.stateMetaInfoSnapshots.get(i))
-                                    .columnFamilyHandle;
-
-                    try (RocksIteratorWrapper iterator =
-                            RocksDBOperationUtils.getRocksIterator(
-                                    tmpRestoreDBInfo.db,
-                                    tmpColumnFamilyHandle,
-                                    tmpRestoreDBInfo.readOptions)) {
-
-                        iterator.seek(startKeyGroupPrefixBytes);
-
-                        while (iterator.isValid()) {
-
-                            if (RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
-                                    iterator.key(), stopKeyGroupPrefixBytes)) {
-                                writeBatchWrapper.put(
-                                        targetColumnFamilyHandle, iterator.key(), iterator.value());
-                            } else {
-                                // Since the iterator will visit the record according to the sorted
-                                // order,
-                                // we can just break here.
-                                break;
-                            }
-
-                            iterator.next();
+                    restoreDBInstanceFromStateHandle(downloadSpec)) {
+                mergeIntoBaseDB(
+                        tmpRestoreDBInfo,
+                        ingestionFilesPath,
+                        startKeyGroupPrefixBytes,
+                        stopKeyGroupPrefixBytes);
+            } finally {
+                cleanUpPathQuietly(ingestionFilesPath);
+                cleanUpPathQuietly(downloadSpec.getDownloadDestination());
+            }
+            logger.info(
+                    "Finished restoring from state handle: {} with rescaling.",
+                    downloadSpec.getStateHandle());
+            mergeDurationMillis += elapsedMillis(mergeStartTime);
+        }
+    }
+
+    /**
+     * Starts the downloads of the given handles up to {@link #MAX_DOWNLOADS_AHEAD_OF_MERGE} handles
+     * after the one with the given index, which have not been started yet.
+     */
+    private void startDownloads(
+            RocksDBStateDownloader rocksDBStateDownloader,
+            List<StateHandleDownloadSpec> downloadSpecs,
+            List<CompletableFuture<Void>> downloads,
+            int specIndex,
+            long startTime) {
+
+        int endIndex = Math.min(specIndex + MAX_DOWNLOADS_AHEAD_OF_MERGE + 1, downloadSpecs.size());
+        if (downloads.size() >= endIndex) {
+            return;
+        }
+
+        downloads.addAll(
+                rocksDBStateDownloader.transferAllStateDataToDirectoryAsync(
+                        downloadSpecs.subList(downloads.size(), endIndex), cancelStreamRegistry));
+        if (downloads.size() == downloadSpecs.size()) {
+            FutureUtils.waitForAll(downloads)
+                    .thenRun(
+                            () -> {
+                                downloadDurationMillis = elapsedMillis(startTime);
+                                downloadedBytes = rocksDBStateDownloader.getDownloadedBytes();
+                            });
+        }
+    }
+
+    /**
+     * Copies the key groups of the restored range from the temporary instance into the base DB,
+     * either as SST files which are ingested, or through write batches.
+     */
+    private void mergeIntoBaseDB(
+            RestoredDBInstance tmpRestoreDBInfo,
+            Path ingestionFilesPath,
+            byte[] startKeyGroupPrefixBytes,
+            byte[] stopKeyGroupPrefixBytes)
+            throws Exception {
+
+        List<ColumnFamilyDescriptor> tmpColumnFamilyDescriptors =
+                tmpRestoreDBInfo.columnFamilyDescriptors;
+        List<ColumnFamilyHandle> tmpColumnFamilyHandles = tmpRestoreDBInfo.columnFamilyHandles;
+
+        try (RocksDBWriteBatchWrapper writeBatchWrapper =
+                new RocksDBWriteBatchWrapper(this.rocksHandle.getDb(), writeBatchSize)) {
+
+            // iterating only the requested descriptors automatically skips the default column
+            // family handle
+            for (int i = 0; i < tmpColumnFamilyDescriptors.size(); ++i) {
+                ColumnFamilyHandle tmpColumnFamilyHandle = tmpColumnFamilyHandles.get(i);
+
+                ColumnFamilyHandle targetColumnFamilyHandle =
+                        this.rocksHandle.getOrRegisterStateColumnFamilyHandle(
+                                        null, tmpRestoreDBInfo.stateMetaInfoSnapshots.get(i))
+                                .columnFamilyHandle;
+
+                try (RocksIteratorWrapper iterator =
+                        RocksDBOperationUtils.getRocksIterator(
+                                tmpRestoreDBInfo.db,
+                                tmpColumnFamilyHandle,
+                                tmpRestoreDBInfo.readOptions)) {
+
+                    iterator.seek(startKeyGroupPrefixBytes);
+
+                    if (useSstIngestionForRescaling) {
+                        ingestIntoBaseDB(
+                                iterator,
+                                stopKeyGroupPrefixBytes,
+                                tmpColumnFamilyDescriptors.get(i).getOptions(),
+                                targetColumnFamilyHandle,
+                                ingestionFilesPath.resolve(INGESTION_FILE_PREFIX + i + ".sst"));
+                        continue;
+                    }
+
+                    while (iterator.isValid()) {
+
+                        if (RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
+                                iterator.key(), stopKeyGroupPrefixBytes)) {
+                            writeBatchWrapper.put(
+                                    targetColumnFamilyHandle, iterator.key(), iterator.value());
+                        } else {
+                            // Since the iterator will visit the record according to the sorted
+                            // order,
+                            // we can just break here.
+                            break;
                         }
-                    } // releases native iterator resources
+
+                        iterator.next();
+                    }
+                } // releases native iterator resources
+            }
+        }
+    }
+
+    /**
+     * Writes the entries of the iterator before the given prefix into an SST file, and ingests it
+     * into the given column family of the base DB. The entries are visited in sorted order, as
+     * required by the {@link SstFileWriter}. Ingesting the file moves it into the base DB, so the
+     * entries bypass the memtables, the write-ahead log and the compactions of the base DB.
+     */
+    private void ingestIntoBaseDB(
+            RocksIteratorWrapper iterator,
+            byte[] stopKeyGroupPrefixBytes,
+            ColumnFamilyOptions columnFamilyOptions,
+            ColumnFamilyHandle targetColumnFamilyHandle,
+            Path sstFilePath)
+            throws IOException, RocksDBException {
+
+        long numberOfEntries = 0L;
+        try (EnvOptions envOptions = new EnvOptions();
+                Options options =
+                        new Options(this.rocksHandle.getDbOptions(), columnFamilyOptions);
+                SstFileWriter sstFileWriter = new SstFileWriter(envOptions, options)) {
+
+            while (iterator.isValid()
+                    && RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
+                            iterator.key(), stopKeyGroupPrefixBytes)) {
+                if (numberOfEntries == 0L) {
+                    Files.createDirectories(sstFilePath.getParent());
+                    sstFileWriter.open(sstFilePath.toString());
                 }
-                logger.info(
-                        "Finished restoring from state handle: {} with rescaling.", rawStateHandle);
-            } finally {
-                cleanUpPathQuietly(temporaryRestoreInstancePath);
+                sstFileWriter.put(iterator.key(), iterator.value());
+                numberOfEntries++;
+                iterator.next();
+            }
+
+            if (numberOfEntries == 0L) {
+                // an SST file without entries can not be created
+                return;
             }
+            sstFileWriter.finish();
+        }
+
+        try (IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()) {
+            ingestOptions.setMoveFiles(true);
+            this.rocksHandle
+                    .getDb()
+                    .ingestExternalFile(
+                            targetColumnFamilyHandle,
+                            Collections.singletonList(sstFilePath.toString()),
+                            ingestOptions);
         }
     }
 
-    private void initDBWithRescaling(KeyedStateHandle initialHandle) throws Exception {
+    private void initDBWithRescaling(StateHandleDownloadSpec initialDownloadSpec)
+            throws Exception {
 
-        assert (initialHandle instanceof IncrementalRemoteKeyedStateHandle);
+        KeyedStateHandle initialHandle = initialDownloadSpec.getStateHandle();
 
         // 1. Restore base DB from selected initial handle
-        restoreFromRemoteState((IncrementalRemoteKeyedStateHandle) initialHandle);
+        restoreFromLocalState(initialDownloadSpec.createLocalStateHandleForDownloadedState());
 
         // 2. Clip the base DB instance
         try {
@@ -441,18 +653,13 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         }
     }
 
+    /** Opens a temporary RocksDB instance on the downloaded files of the given state handle. */
     private RestoredDBInstance restoreDBInstanceFromStateHandle(
-            IncrementalRemoteKeyedStateHandle restoreStateHandle, Path temporaryRestoreInstancePath)
-            throws Exception {
-
-        try (RocksDBStateDownloader rocksDBStateDownloader =
-                new RocksDBStateDownloader(numberOfTransferringThreads)) {
-            rocksDBStateDownloader.transferAllStateDataToDirectory(
-                    restoreStateHandle, temporaryRestoreInstancePath, cancelStreamRegistry);
-        }
+            StateHandleDownloadSpec downloadSpec) throws Exception {
 
+        Path temporaryRestoreInstancePath = downloadSpec.getDownloadDestination();
         KeyedBackendSerializationProxy<K> serializationProxy =
-                readMetaData(restoreStateHandle.getMetaStateHandle());
+                readMetaData(downloadSpec.getStateHandle().getMetaStateHandle());
         // read meta data
         List<StateMetaInfoSnapshot> stateMetaInfoSnapshots =
                 serializationProxy.getStateMetaInfoSnapshots();
@@ -556,6 +763,19 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         return serializationProxy;
     }
 
+    private void registerRestoreMetrics() {
+        MetricGroup restoreMetricGroup = metricGroup.addGroup(RESTORE_METRIC_GROUP);
+        restoreMetricGroup.gauge(RESTORE_DURATION_METRIC, () -> restoreDurationMillis);
+        restoreMetricGroup.gauge(DOWNLOAD_DURATION_METRIC, () -> downloadDurationMillis);
+        restoreMetricGroup.gauge(DOWNLOADED_BYTES_METRIC, () -> downloadedBytes);
+        restoreMetricGroup.gauge(INIT_DB_DURATION_METRIC, () -> initDBDurationMillis);
+        restoreMetricGroup.gauge(MERGE_DURATION_METRIC, () -> mergeDurationMillis);
+    }
+
+    private static long elapsedMillis(long startTimeNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+    }
+
     @Override
     public void close() throws Exception {
         this.rocksHandle.close();
@@ -167,6 +167,8 @@ public class RocksDBFullSnapshotResources<K> implements FullSnapshotResources<K>
             ReadOptions readOptions = new ReadOptions();
             closeableRegistry.registerCloseable(readOptions::close);
             readOptions.setSnapshot(snapshot);
+            // the iterators span all keys and must not be restricted by a prefix extractor
+            readOptions.setTotalOrderSeek(true);
 
             List<Tuple2<RocksIteratorWrapper, Integer>> kvStateIterators =
                     createKVStateIterators(closeableRegistry, readOptions);
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.contrib.streaming.state;
+
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.core.testutils.OneShotLatch;
+import org.apache.flink.runtime.operators.testutils.MockEnvironmentBuilder;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.util.ResourceGuard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.contrib.streaming.state.RocksDBTestUtils.createKeyedStateBackend;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Tests for {@link RocksDBAsyncStateExecutor} and the asynchronous RocksDB states. */
+public class RocksDBAsyncStateExecutorTest {
+
+    /** Runs the callbacks of the requests on the test thread, like the mailbox of a task. */
+    private final TestMailbox mailbox = new TestMailbox();
+
+    @Test
+    public void testRequestsForSameKeyAreOrdered() throws Exception {
+        try (RocksDBAsyncStateExecutor executor =
+                new RocksDBAsyncStateExecutor(4, mailbox, new ResourceGuard())) {
+            OneShotLatch latch = new OneShotLatch();
+            List<Integer> executionOrder = new ArrayList<>();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 10; i++) {
+                final int request = i;
+                futures.add(
+                        executor.submit(
+                                new byte[] {1},
+                                () -> {
+                                    if (request == 0) {
+                                        latch.await();
+                                    }
+                                    synchronized (executionOrder) {
+                                        executionOrder.add(request);
+                                    }
+                                    return request;
+                                }));
+            }
+            assertEquals(1, executor.getNumberOfPendingKeys());
+
+            latch.trigger();
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, (int) mailbox.await(futures.get(i)));
+            }
+            synchronized (executionOrder) {
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(i, (int) executionOrder.get(i));
+                }
+            }
+            executor.drain();
+            assertEquals(0, executor.getNumberOfPendingKeys());
+        }
+    }
+
+    @Test
+    public void testRequestsForDifferentKeysOverlap() throws Exception {
+        try (RocksDBAsyncStateExecutor executor =
+                new RocksDBAsyncStateExecutor(2, mailbox, new ResourceGuard())) {
+            OneShotLatch latch = new OneShotLatch();
+            CompletableFuture<String> blocked =
+                    executor.submit(
+                            new byte[] {1},
+                            () -> {
+                                latch.await();
+                                return "blocked";
+                            });
+
+            // a request for another key does not wait for the blocked request
+            assertEquals("other", mailbox.await(executor.submit(new byte[] {2}, () -> "other")));
+            assertFalse(blocked.isDone());
+
+            latch.trigger();
+            executor.drain();
+            assertEquals("blocked", mailbox.await(blocked));
+        }
+    }
+
+    @Test
+    public void testFailedRequestDoesNotBlockKey() throws Exception {
+        try (RocksDBAsyncStateExecutor executor =
+                new RocksDBAsyncStateExecutor(1, mailbox, new ResourceGuard())) {
+            CompletableFuture<Object> failed =
+                    executor.submit(
+                            new byte[] {1},
+                            () -> {
+                                throw new IllegalStateException("expected");
+                            });
+            CompletableFuture<String> next = executor.submit(new byte[] {1}, () -> "next");
+
+            assertTrue(mailbox.awaitFailure(failed) instanceof IllegalStateException);
+            assertEquals("next", mailbox.await(next));
+        }
+    }
+
+    @Test
+    public void testAsyncValueAndMapState() throws Exception {
+        RocksDBKeyedStateBackend<Integer> keyedStateBackend =
+                createKeyedStateBackend(
+                        new EmbeddedRocksDBStateBackend(),
+                        new MockEnvironmentBuilder().build(),
+                        IntSerializer.INSTANCE);
+        try {
+            keyedStateBackend.enableAsyncStateAccess(mailbox);
+
+            RocksDBAsyncValueState<Long> valueState =
+                    (RocksDBAsyncValueState<Long>)
+                            keyedStateBackend.getPartitionedState(
+                                    VoidNamespace.INSTANCE,
+                                    VoidNamespaceSerializer.INSTANCE,
+                                    new ValueStateDescriptor<>("value", LongSerializer.INSTANCE));
+            RocksDBAsyncMapState<String, Long> mapState =
+                    (RocksDBAsyncMapState<String, Long>)
+                            keyedStateBackend.getPartitionedState(
+                                    VoidNamespace.INSTANCE,
+                                    VoidNamespaceSerializer.INSTANCE,
+                                    new MapStateDescriptor<>(
+                                            "map",
+                                            StringSerializer.INSTANCE,
+                                            LongSerializer.INSTANCE));
+
+            List<CompletableFuture<Long>> reads = new ArrayList<>();
+            for (int key = 0; key < 100; key++) {
+                keyedStateBackend.setCurrentKey(key);
+                valueState.asyncUpdate((long) key);
+                mapState.asyncPut("a", (long) key * 2);
+                // the reads are executed after the writes of the same key
+                reads.add(valueState.asyncValue());
+                reads.add(mapState.asyncGet("a"));
+                reads.add(mapState.asyncGet("b"));
+            }
+
+            for (int key = 0; key < 100; key++) {
+                assertEquals(key, (long) mailbox.await(reads.get(3 * key)));
+                assertEquals(key * 2, (long) mailbox.await(reads.get(3 * key + 1)));
+                assertNull(mailbox.await(reads.get(3 * key + 2)));
+            }
+
+            keyedStateBackend.setCurrentKey(42);
+            valueState.asyncUpdate(null);
+            mapState.asyncRemove("a");
+            assertNull(mailbox.await(valueState.asyncValue()));
+            assertNull(mailbox.await(mapState.asyncGet("a")));
+        } finally {
+            keyedStateBackend.dispose();
+        }
+    }
+
+    @Test
+    public void testCallbacksOnOtherThreadsFail() throws Exception {
+        try (RocksDBAsyncStateExecutor executor =
+                new RocksDBAsyncStateExecutor(1, Runnable::run, new ResourceGuard())) {
+            CompletableFuture<String> result = executor.submit(new byte[] {1}, () -> "result");
+            try {
+                result.get();
+                fail("The callback should not run on the I/O thread.");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+    }
+
+    @Test
+    public void testCloseCompletesPendingRequests() throws Exception {
+        OneShotLatch latch = new OneShotLatch();
+        RocksDBAsyncStateExecutor executor =
+                new RocksDBAsyncStateExecutor(1, mailbox, new ResourceGuard());
+        CompletableFuture<String> running =
+                executor.submit(
+                        new byte[] {1},
+                        () -> {
+                            latch.await();
+                            return "running";
+                        });
+        CompletableFuture<String> queuedForKey = executor.submit(new byte[] {1}, () -> "key");
+        CompletableFuture<String> queuedForThread =
+                executor.submit(new byte[] {2}, () -> "thread");
+
+        executor.close();
+
+        assertNotNull(mailbox.awaitFailure(running));
+        assertNotNull(mailbox.awaitFailure(queuedForKey));
+        assertNotNull(mailbox.awaitFailure(queuedForThread));
+        assertEquals(0, executor.getNumberOfPendingKeys());
+    }
+
+    private static final class TestMailbox implements Executor {
+
+        private final BlockingQueue<Runnable> mails = new LinkedBlockingQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mails.add(command);
+        }
+
+        /** Runs the queued callbacks until the future is done and returns its result. */
+        <T> T await(CompletableFuture<T> future) throws Exception {
+            while (!future.isDone()) {
+                Runnable mail = mails.poll(10L, TimeUnit.MILLISECONDS);
+                if (mail != null) {
+                    mail.run();
+                }
+            }
+            return future.get();
+        }
+
+        /** Runs the queued callbacks until the future is done and returns its failure. */
+        Throwable awaitFailure(CompletableFuture<?> future) throws Exception {
+            try {
+                await(future);
+            } catch (ExecutionException e) {
+                return e.getCause();
+            }
+            fail("The request should have failed.");
+            return null;
+        }
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.apache.flink.contrib.streaming.state;
 
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.memory.OpaqueMemoryResource;
 import org.apache.flink.util.function.ThrowingRunnable;
 
@@ -272,6 +273,52 @@ public class RocksDBResourceContainerTest {
         assertThat(readOptions.isOwningHandle(), is(false));
     }
 
+    @Test
+    public void testPrefixReadOptionsWithOptionsFactory() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.set(RocksDBConfigurableOptions.USE_PREFIX_BLOOM_FILTER_FOR_MAP_STATE, true);
+        RocksDBOptionsFactory readOptionsFactory =
+                new RocksDBOptionsFactory() {
+
+                    @Override
+                    public DBOptions createDBOptions(
+                            DBOptions currentOptions, Collection<AutoCloseable> handlesToClose) {
+                        return currentOptions;
+                    }
+
+                    @Override
+                    public ColumnFamilyOptions createColumnOptions(
+                            ColumnFamilyOptions currentOptions,
+                            Collection<AutoCloseable> handlesToClose) {
+                        return currentOptions;
+                    }
+
+                    @Override
+                    public ReadOptions createReadOptions(
+                            ReadOptions currentOptions, Collection<AutoCloseable> handlesToClose) {
+                        ReadOptions readOptions =
+                                new ReadOptions().setReadaheadSize(4096L).setVerifyChecksums(false);
+                        handlesToClose.add(readOptions);
+                        return readOptions;
+                    }
+                };
+
+        try (RocksDBResourceContainer container =
+                new RocksDBResourceContainer(
+                        configuration, PredefinedOptions.DEFAULT, readOptionsFactory, null)) {
+            ReadOptions readOptions = container.getReadOptions();
+            assertThat(readOptions.readaheadSize(), is(4096L));
+            assertThat(readOptions.verifyChecksums(), is(false));
+            assertThat(readOptions.totalOrderSeek(), is(true));
+
+            ReadOptions prefixReadOptions = container.getPrefixReadOptions();
+            assertThat(prefixReadOptions.readaheadSize(), is(4096L));
+            assertThat(prefixReadOptions.verifyChecksums(), is(false));
+            assertThat(prefixReadOptions.totalOrderSeek(), is(false));
+            assertThat(prefixReadOptions.prefixSameAsStart(), is(true));
+        }
+    }
+
     @Test
     public void testGetColumnFamilyOptionsWithPartitionedIndex() throws Exception {
         LRUCache cache = new LRUCache(1024L);
@@ -43,9 +43,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /** Test class for {@link RocksDBStateDownloader}. */
@@ -127,6 +130,96 @@ public class RocksDBStateDownloaderTest extends TestLogger {
         }
     }
 
+    /** Tests that several handles are downloaded concurrently under a rate limit. */
+    @Test
+    public void testRateLimitedDownloadOfMultipleHandles() throws Exception {
+        Random random = new Random();
+        int handleNum = 3;
+        List<StateHandleDownloadSpec> downloadSpecs = new ArrayList<>(handleNum);
+        List<byte[]> contents = new ArrayList<>(handleNum);
+        long totalBytes = 0L;
+        for (int i = 0; i < handleNum; ++i) {
+            byte[] content = new byte[random.nextInt(100000) + 1];
+            random.nextBytes(content);
+            contents.add(content);
+            totalBytes += content.length;
+
+            Map<StateHandleID, StreamStateHandle> sharedStates = new HashMap<>(1);
+            sharedStates.put(
+                    new StateHandleID("sharedState"),
+                    new ByteStreamStateHandle(String.format("state%d", i), content));
+            IncrementalRemoteKeyedStateHandle stateHandle =
+                    new IncrementalRemoteKeyedStateHandle(
+                            UUID.randomUUID(),
+                            KeyGroupRange.of(i, i),
+                            1,
+                            sharedStates,
+                            new HashMap<>(),
+                            new ByteStreamStateHandle("meta", new byte[0]));
+            downloadSpecs.add(
+                    new StateHandleDownloadSpec(stateHandle, temporaryFolder.newFolder().toPath()));
+        }
+
+        try (RocksDBStateDownloader rocksDBStateDownloader =
+                new RocksDBStateDownloader(5, 1024 * 1024)) {
+            List<CompletableFuture<Void>> downloads =
+                    rocksDBStateDownloader.transferAllStateDataToDirectoryAsync(
+                            downloadSpecs, new CloseableRegistry());
+            assertEquals(handleNum, downloads.size());
+            for (CompletableFuture<Void> download : downloads) {
+                RocksDBStateDownloader.waitForDownload(download);
+            }
+            assertEquals(totalBytes, rocksDBStateDownloader.getDownloadedBytes());
+        }
+
+        for (int i = 0; i < handleNum; ++i) {
+            assertStateContentEqual(
+                    contents.get(i),
+                    downloadSpecs.get(i).getDownloadDestination().resolve("sharedState"));
+        }
+    }
+
+    /** Tests that cancelled downloads are stopped and that queued downloads are not started. */
+    @Test
+    public void testCancelDownloads() throws Exception {
+        byte[] content = new byte[1024 * 1024];
+        List<StateHandleDownloadSpec> downloadSpecs = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            Map<StateHandleID, StreamStateHandle> sharedStates = new HashMap<>(1);
+            sharedStates.put(
+                    new StateHandleID("sharedState"),
+                    new ByteStreamStateHandle(String.format("state%d", i), content));
+            IncrementalRemoteKeyedStateHandle stateHandle =
+                    new IncrementalRemoteKeyedStateHandle(
+                            UUID.randomUUID(),
+                            KeyGroupRange.of(i, i),
+                            1,
+                            sharedStates,
+                            new HashMap<>(),
+                            new ByteStreamStateHandle("meta", new byte[0]));
+            downloadSpecs.add(
+                    new StateHandleDownloadSpec(stateHandle, temporaryFolder.newFolder().toPath()));
+        }
+
+        // two threads download the first two handles slowly, the third one is queued
+        try (RocksDBStateDownloader rocksDBStateDownloader =
+                new RocksDBStateDownloader(2, 64 * 1024)) {
+            List<CompletableFuture<Void>> downloads =
+                    rocksDBStateDownloader.transferAllStateDataToDirectoryAsync(
+                            downloadSpecs, new CloseableRegistry());
+            rocksDBStateDownloader.cancelDownloads(downloads);
+
+            for (CompletableFuture<Void> download : downloads) {
+                assertTrue(download.isCancelled());
+            }
+            // the running downloads were interrupted before they completed
+            assertTrue(rocksDBStateDownloader.getDownloadedBytes() < 2L * content.length);
+            assertFalse(
+                    Files.exists(
+                            downloadSpecs.get(2).getDownloadDestination().resolve("sharedState")));
+        }
+    }
+
     private void assertStateContentEqual(byte[] expected, Path path) throws IOException {
         byte[] actual = Files.readAllBytes(Paths.get(path.toUri()));
         assertArrayEquals(expected, actual);
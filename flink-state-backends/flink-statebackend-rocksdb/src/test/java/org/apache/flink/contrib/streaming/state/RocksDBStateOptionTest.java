@@ -22,6 +22,7 @@ import org.apache.flink.api.common.state.MapState;
 import org.apache.flink.api.common.state.MapStateDescriptor;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.operators.testutils.MockEnvironmentBuilder;
 import org.apache.flink.runtime.state.KeyGroupedInternalPriorityQueue;
 import org.apache.flink.runtime.state.VoidNamespace;
@@ -36,6 +37,7 @@ import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -46,6 +48,7 @@ import java.util.PriorityQueue;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.apache.flink.contrib.streaming.state.RocksDBTestUtils.createKeyedStateBackend;
 import static org.junit.Assert.assertEquals;
@@ -153,6 +156,86 @@ public class RocksDBStateOptionTest {
         }
     }
 
+    /** Tests the bounded iterations of map states whose column family uses a prefix extractor. */
+    @Test
+    public void testMapStateWithPrefixBloomFilter() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.set(RocksDBConfigurableOptions.USE_PREFIX_BLOOM_FILTER_FOR_MAP_STATE, true);
+        EmbeddedRocksDBStateBackend rocksDBStateBackend =
+                new EmbeddedRocksDBStateBackend()
+                        .configure(configuration, getClass().getClassLoader());
+        RocksDBKeyedStateBackend<Integer> keyedStateBackend =
+                createKeyedStateBackend(
+                        rocksDBStateBackend,
+                        new MockEnvironmentBuilder().build(),
+                        IntSerializer.INSTANCE);
+        try {
+            MapStateDescriptor<Integer, Long> stateDescriptor =
+                    new MapStateDescriptor<>(
+                            "map", IntSerializer.INSTANCE, LongSerializer.INSTANCE);
+            MapState<Integer, Long> mapState =
+                    keyedStateBackend.getPartitionedState(
+                            VoidNamespace.INSTANCE,
+                            VoidNamespaceSerializer.INSTANCE,
+                            stateDescriptor);
+            assertTrue(mapState instanceof RocksDBRangeMapState);
+            RocksDBRangeMapState<Integer, Long> rangeMapState =
+                    (RocksDBRangeMapState<Integer, Long>) mapState;
+
+            int numKeys = 10;
+            int numEntries = 300;
+            for (int key = 0; key < numKeys; key++) {
+                keyedStateBackend.setCurrentKey(key);
+                for (int i = 0; i < numEntries; i++) {
+                    mapState.put(i, (long) key * numEntries + i);
+                }
+            }
+
+            for (int key = 0; key < numKeys; key++) {
+                keyedStateBackend.setCurrentKey(key);
+                assertEquals(
+                        IntStream.range(0, numEntries).boxed().collect(Collectors.toList()),
+                        userKeys(mapState.entries()));
+                assertEquals(
+                        IntStream.range(0, 10).boxed().collect(Collectors.toList()),
+                        userKeys(rangeMapState.entries(10)));
+                assertTrue(userKeys(rangeMapState.entries(0)).isEmpty());
+                assertEquals(
+                        IntStream.range(100, 250).boxed().collect(Collectors.toList()),
+                        userKeys(rangeMapState.entries(100, 250)));
+                assertEquals(
+                        IntStream.range(0, 5).boxed().collect(Collectors.toList()),
+                        userKeys(rangeMapState.entries(null, 5)));
+                assertEquals(
+                        IntStream.range(295, numEntries).boxed().collect(Collectors.toList()),
+                        userKeys(rangeMapState.entries(295, null)));
+                assertEquals((long) key * numEntries + 42, (long) mapState.get(42));
+            }
+
+            // iterations across all keys must still see every key
+            try (Stream<Integer> keys =
+                    keyedStateBackend.getKeys(stateDescriptor.getName(), VoidNamespace.INSTANCE)) {
+                assertEquals(numKeys, keys.count());
+            }
+
+            keyedStateBackend.setCurrentKey(3);
+            mapState.clear();
+            assertTrue(mapState.isEmpty());
+            keyedStateBackend.setCurrentKey(4);
+            assertEquals(numEntries, userKeys(mapState.entries()).size());
+        } finally {
+            keyedStateBackend.dispose();
+        }
+    }
+
+    private static List<Integer> userKeys(Iterable<Map.Entry<Integer, Long>> entries) {
+        List<Integer> userKeys = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : entries) {
+            userKeys.add(entry.getKey());
+        }
+        return userKeys;
+    }
+
     private RocksDBStateBackend createStateBackendWithOptimizePointLookup() throws IOException {
         RocksDBStateBackend rocksDBStateBackend =
                 new RocksDBStateBackend(tempFolder.newFolder().toURI(), true);
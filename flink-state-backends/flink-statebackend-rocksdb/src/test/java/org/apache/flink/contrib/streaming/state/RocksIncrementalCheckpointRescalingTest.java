@@ -41,12 +41,24 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /** Tests to guard rescaling from checkpoint. */
+@RunWith(Parameterized.class)
 public class RocksIncrementalCheckpointRescalingTest extends TestLogger {
 
+    @Parameterized.Parameters(name = "Use SST ingestion for rescaling: {0}")
+    public static Collection<Boolean> parameters() {
+        return Arrays.asList(false, true);
+    }
+
+    @Parameterized.Parameter public boolean useSstIngestionForRescaling;
+
     @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
 
     private final int maxParallelism = 10;
@@ -419,7 +431,11 @@ public class RocksIncrementalCheckpointRescalingTest extends TestLogger {
     }
 
     private StateBackend getStateBackend() throws Exception {
-        return new RocksDBStateBackend("file://" + rootFolder.newFolder().getAbsolutePath(), true);
+        RocksDBStateBackend backend =
+                new RocksDBStateBackend("file://" + rootFolder.newFolder().getAbsolutePath(), true);
+        Configuration configuration = new Configuration();
+        configuration.set(RocksDBOptions.RESCALING_USE_SST_INGESTION, useSstIngestionForRescaling);
+        return backend.configure(configuration, Thread.currentThread().getContextClassLoader());
     }
 
     /** A simple keyed function for tests. */
@@ -26,6 +26,8 @@ import org.apache.flink.configuration.description.Description;
 import org.apache.flink.configuration.description.TextElement;
 import org.apache.flink.streaming.api.TimeCharacteristic;
 
+import java.time.Duration;
+
 /**
  * The {@link ConfigOption configuration options} for job execution. Those are stream specific
  * options. See also {@link org.apache.flink.configuration.PipelineOptions}.
@@ -50,4 +52,16 @@ public class StreamPipelineOptions {
                                             TextElement.code(
                                                     PipelineOptions.AUTO_WATERMARK_INTERVAL.key()))
                                     .build());
+
+    public static final ConfigOption<Duration> PROCESSING_TIMER_BUCKET_SIZE =
+            ConfigOptions.key("pipeline.processing-timers.bucket-size")
+                    .durationType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "If set, processing-time timers of keyed operators are grouped into "
+                                    + "buckets of this size. Registering and deleting timers that "
+                                    + "are not due before the current bucket then takes constant "
+                                    + "time instead of updating a heap of all timers. Timers still "
+                                    + "fire in timestamp order. Only applies if the state backend "
+                                    + "keeps timers on the heap.");
 }
@@ -73,11 +73,18 @@ public class InternalTimeServiceManagerImpl<K> implements InternalTimeServiceMan
 
     private final Map<String, InternalTimerServiceImpl<K, ?>> timerServices;
 
+    /**
+     * The bucket size in milliseconds of the processing-time timer queues, or 0 if they are not
+     * bucketed. See {@link PriorityQueueSetFactory#createBucketed}.
+     */
+    private final long processingTimerBucketSize;
+
     private InternalTimeServiceManagerImpl(
             KeyGroupRange localKeyGroupRange,
             KeyContext keyContext,
             PriorityQueueSetFactory priorityQueueSetFactory,
-            ProcessingTimeService processingTimeService) {
+            ProcessingTimeService processingTimeService,
+            long processingTimerBucketSize) {
 
         this.localKeyGroupRange = Preconditions.checkNotNull(localKeyGroupRange);
         this.priorityQueueSetFactory = Preconditions.checkNotNull(priorityQueueSetFactory);
@@ -85,6 +92,7 @@ public class InternalTimeServiceManagerImpl<K> implements InternalTimeServiceMan
         this.processingTimeService = Preconditions.checkNotNull(processingTimeService);
 
         this.timerServices = new HashMap<>();
+        this.processingTimerBucketSize = processingTimerBucketSize;
     }
 
     /**
@@ -99,11 +107,46 @@ public class InternalTimeServiceManagerImpl<K> implements InternalTimeServiceMan
             ProcessingTimeService processingTimeService,
             Iterable<KeyGroupStatePartitionStreamProvider> rawKeyedStates)
             throws Exception {
+        return create(
+                keyedStateBackend,
+                userClassloader,
+                keyContext,
+                processingTimeService,
+                rawKeyedStates,
+                0L);
+    }
+
+    /**
+     * Returns a {@link InternalTimeServiceManager.Provider} for {@link
+     * InternalTimeServiceManagerImpl}s that group processing-time timers into buckets of the given
+     * size. This makes registering and deleting timers that are not due soon cheaper, if the state
+     * backend keeps timers on the heap.
+     *
+     * @param bucketSizeMillis the bucket size in milliseconds.
+     */
+    public static InternalTimeServiceManager.Provider withBucketedProcessingTimers(
+            long bucketSizeMillis) {
+        Preconditions.checkArgument(bucketSizeMillis > 0, "The bucket size must be positive.");
+        return new BucketedProcessingTimersProvider(bucketSizeMillis);
+    }
+
+    private static <K> InternalTimeServiceManagerImpl<K> create(
+            CheckpointableKeyedStateBackend<K> keyedStateBackend,
+            ClassLoader userClassloader,
+            KeyContext keyContext,
+            ProcessingTimeService processingTimeService,
+            Iterable<KeyGroupStatePartitionStreamProvider> rawKeyedStates,
+            long processingTimerBucketSize)
+            throws Exception {
         final KeyGroupRange keyGroupRange = keyedStateBackend.getKeyGroupRange();
 
         final InternalTimeServiceManagerImpl<K> timeServiceManager =
                 new InternalTimeServiceManagerImpl<>(
-                        keyGroupRange, keyContext, keyedStateBackend, processingTimeService);
+                        keyGroupRange,
+                        keyContext,
+                        keyedStateBackend,
+                        processingTimeService,
+                        processingTimerBucketSize);
 
         // and then initialize the timer services
         for (KeyGroupStatePartitionStreamProvider streamProvider : rawKeyedStates) {
@@ -155,7 +198,7 @@ public class InternalTimeServiceManagerImpl<K> implements InternalTimeServiceMan
                             localKeyGroupRange,
                             keyContext,
                             processingTimeService,
-                            createTimerPriorityQueue(
+                            createProcessingTimerPriorityQueue(
                                     PROCESSING_TIMER_PREFIX + name, timerSerializer),
                             createTimerPriorityQueue(EVENT_TIMER_PREFIX + name, timerSerializer));
 
@@ -174,6 +217,21 @@ public class InternalTimeServiceManagerImpl<K> implements InternalTimeServiceMan
         return priorityQueueSetFactory.create(name, timerSerializer);
     }
 
+    private <N>
+            KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<K, N>>
+                    createProcessingTimerPriorityQueue(
+                            String name, TimerSerializer<K, N> timerSerializer) {
+        if (processingTimerBucketSize > 0) {
+            return priorityQueueSetFactory.createBucketed(
+                    name,
+                    timerSerializer,
+                    TimerHeapInternalTimer::getTimestamp,
+                    processingTimerBucketSize);
+        } else {
+            return createTimerPriorityQueue(name, timerSerializer);
+        }
+    }
+
     @Override
     public void advanceWatermark(Watermark watermark) throws Exception {
         for (InternalTimerServiceImpl<?, ?> service : timerServices.values()) {
@@ -250,4 +308,37 @@ public class InternalTimeServiceManagerImpl<K> implements InternalTimeServiceMan
         }
         return count;
     }
+
+    /**
+     * {@link InternalTimeServiceManager.Provider} for {@link InternalTimeServiceManagerImpl}s with
+     * bucketed processing-time timer queues.
+     */
+    private static final class BucketedProcessingTimersProvider
+            implements InternalTimeServiceManager.Provider {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long bucketSizeMillis;
+
+        private BucketedProcessingTimersProvider(long bucketSizeMillis) {
+            this.bucketSizeMillis = bucketSizeMillis;
+        }
+
+        @Override
+        public <K> InternalTimeServiceManager<K> create(
+                CheckpointableKeyedStateBackend<K> keyedStatedBackend,
+                ClassLoader userClassloader,
+                KeyContext keyContext,
+                ProcessingTimeService processingTimeService,
+                Iterable<KeyGroupStatePartitionStreamProvider> rawKeyedStates)
+                throws Exception {
+            return InternalTimeServiceManagerImpl.create(
+                    keyedStatedBackend,
+                    userClassloader,
+                    keyContext,
+                    processingTimeService,
+                    rawKeyedStates,
+                    bucketSizeMillis);
+        }
+    }
 }
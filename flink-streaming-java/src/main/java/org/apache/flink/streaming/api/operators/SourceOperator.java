@@ -68,7 +68,13 @@ import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -87,7 +93,9 @@ import static org.apache.flink.util.Preconditions.checkState;
  */
 @Internal
 public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStreamOperator<OUT>
-        implements OperatorEventHandler, PushingAsyncDataInput<OUT> {
+        implements OperatorEventHandler,
+                PushingAsyncDataInput<OUT>,
+                TimestampsAndWatermarks.WatermarkUpdateListener {
     private static final long serialVersionUID = 1405537676017904695L;
 
     // Package private for unit test.
@@ -173,6 +181,18 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
     private CompletableFuture<Void> waitingForAlignmentFuture =
             CompletableFuture.completedFuture(null);
 
+    /** The current watermarks of the splits, only tracked if watermark alignment is enabled. */
+    private final Map<String, Long> splitCurrentWatermarks = new HashMap<>();
+
+    /** The splits that are currently paused because they are ahead of the desired watermark. */
+    private final Set<String> currentlyPausedSplits = new HashSet<>();
+
+    /**
+     * Whether the splits are aligned individually. This is turned off if the reader does not
+     * support pausing splits, in which case only the source as a whole is aligned.
+     */
+    private boolean splitAlignmentEnabled = true;
+
     private @Nullable LatencyMarkerEmitter<OUT> latencyMarkerEmitter;
 
     public SourceOperator(
@@ -423,7 +443,7 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
     }
 
     private void initializeMainOutput(DataOutput<OUT> output) {
-        currentMainOutput = eventTimeLogic.createMainOutput(output, this::onWatermarkEmitted);
+        currentMainOutput = eventTimeLogic.createMainOutput(output, this);
         initializeLatencyMarkerEmitter(output);
         lastInvokedOutput = output;
         // Create per-split output for pending splits added before main output is initialized
@@ -522,6 +542,7 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
         if (event instanceof WatermarkAlignmentEvent) {
             updateMaxDesiredWatermark((WatermarkAlignmentEvent) event);
             checkWatermarkAlignment();
+            checkSplitWatermarkAlignment();
         } else if (event instanceof AddSplitEvent) {
             handleAddSplitsEvent(((AddSplitEvent<SplitT>) event));
         } else if (event instanceof SourceEventWrapper) {
@@ -562,11 +583,75 @@ public class SourceOperator<OUT, SplitT extends SourceSplit> extends AbstractStr
         sourceMetricGroup.updateMaxDesiredWatermark(currentMaxDesiredWatermark);
     }
 
-    private void onWatermarkEmitted(long emittedWatermark) {
-        lastEmittedWatermark = emittedWatermark;
+    @Override
+    public void updateCurrentEffectiveWatermark(long watermark) {
+        lastEmittedWatermark = watermark;
         checkWatermarkAlignment();
     }
 
+    @Override
+    public void updateCurrentSplitWatermark(String splitId, long watermark) {
+        if (!watermarkAlignmentParams.isEnabled() || !splitAlignmentEnabled) {
+            return;
+        }
+        splitCurrentWatermarks.put(splitId, watermark);
+        if (watermark > currentMaxDesiredWatermark && !currentlyPausedSplits.contains(splitId)) {
+            pauseOrResumeSplits(Collections.singletonList(splitId), Collections.emptyList());
+        }
+    }
+
+    @Override
+    public void splitFinished(String splitId) {
+        splitCurrentWatermarks.remove(splitId);
+        currentlyPausedSplits.remove(splitId);
+    }
+
+    /**
+     * Pauses the splits whose watermark is ahead of the current max desired watermark and resumes
+     * the paused splits that are not ahead anymore.
+     */
+    private void checkSplitWatermarkAlignment() {
+        if (!splitAlignmentEnabled) {
+            return;
+        }
+        Collection<String> splitsToPause = new ArrayList<>();
+        Collection<String> splitsToResume = new ArrayList<>();
+        splitCurrentWatermarks.forEach(
+                (splitId, splitWatermark) -> {
+                    boolean paused = currentlyPausedSplits.contains(splitId);
+                    if (splitWatermark > currentMaxDesiredWatermark) {
+                        if (!paused) {
+                            splitsToPause.add(splitId);
+                        }
+                    } else if (paused) {
+                        splitsToResume.add(splitId);
+                    }
+                });
+        if (!splitsToPause.isEmpty() || !splitsToResume.isEmpty()) {
+            pauseOrResumeSplits(splitsToPause, splitsToResume);
+        }
+    }
+
+    private void pauseOrResumeSplits(
+            Collection<String> splitsToPause, Collection<String> splitsToResume) {
+        try {
+            sourceReader.pauseOrResumeSplits(splitsToPause, splitsToResume);
+        } catch (UnsupportedOperationException e) {
+            // logged once, split alignment stays disabled for the lifetime of the operator
+            LOG.warn(
+                    "Watermark alignment falls back to aligning the source as a whole, because the "
+                            + "source reader {} does not support pausing splits: {}",
+                    sourceReader,
+                    e.getMessage());
+            splitAlignmentEnabled = false;
+            splitCurrentWatermarks.clear();
+            currentlyPausedSplits.clear();
+            return;
+        }
+        currentlyPausedSplits.addAll(splitsToPause);
+        currentlyPausedSplits.removeAll(splitsToResume);
+    }
+
     private void checkWatermarkAlignment() {
         if (operatingMode == OperatingMode.READING) {
             checkState(waitingForAlignmentFuture.isDone());
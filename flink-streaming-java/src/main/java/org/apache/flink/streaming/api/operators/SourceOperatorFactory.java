@@ -34,6 +34,8 @@ import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeServiceAware;
 import org.apache.flink.util.function.FunctionWithException;
 
+import javax.annotation.Nullable;
+
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /** The Factory class for {@link SourceOperator}. */
@@ -54,6 +56,9 @@ public class SourceOperatorFactory<OUT> extends AbstractStreamOperatorFactory<OU
     /** The number of worker thread for the source coordinator. */
     private final int numCoordinatorWorkerThread;
 
+    /** The ID the source coordinator listens to for events from other coordinators, if any. */
+    @Nullable private String coordinatorListeningID;
+
     public SourceOperatorFactory(
             Source<OUT, ?, ?> source, WatermarkStrategy<OUT> watermarkStrategy) {
         this(source, watermarkStrategy, true /* emit progressive watermarks */, 1);
@@ -77,6 +82,10 @@ public class SourceOperatorFactory<OUT> extends AbstractStreamOperatorFactory<OU
         this.numCoordinatorWorkerThread = numCoordinatorWorkerThread;
     }
 
+    public void setCoordinatorListeningID(@Nullable String coordinatorListeningID) {
+        this.coordinatorListeningID = coordinatorListeningID;
+    }
+
     public Boundedness getBoundedness() {
         return source.getBoundedness();
     }
@@ -128,7 +137,8 @@ public class SourceOperatorFactory<OUT> extends AbstractStreamOperatorFactory<OU
                 operatorID,
                 source,
                 numCoordinatorWorkerThread,
-                watermarkStrategy.getAlignmentParameters());
+                watermarkStrategy.getAlignmentParameters(),
+                coordinatorListeningID);
     }
 
     @SuppressWarnings("rawtypes")
@@ -107,6 +107,7 @@ public class ProgressiveTimestampsAndWatermarks<T> implements TimestampsAndWater
                 new SplitLocalOutputs<>(
                         output,
                         watermarkOutput,
+                        watermarkEmitted,
                         timestampAssigner,
                         watermarksFactory,
                         watermarksContext);
@@ -195,6 +196,7 @@ public class ProgressiveTimestampsAndWatermarks<T> implements TimestampsAndWater
     private static final class SplitLocalOutputs<T> {
 
         private final WatermarkOutputMultiplexer watermarkMultiplexer;
+        private final WatermarkUpdateListener watermarkUpdateListener;
         private final Map<String, SourceOutputWithWatermarks<T>> localOutputs;
         private final PushingAsyncDataInput.DataOutput<T> recordOutput;
         private final TimestampAssigner<T> timestampAssigner;
@@ -204,11 +206,13 @@ public class ProgressiveTimestampsAndWatermarks<T> implements TimestampsAndWater
         private SplitLocalOutputs(
                 PushingAsyncDataInput.DataOutput<T> recordOutput,
                 WatermarkOutput watermarkOutput,
+                WatermarkUpdateListener watermarkUpdateListener,
                 TimestampAssigner<T> timestampAssigner,
                 WatermarkGeneratorSupplier<T> watermarksFactory,
                 WatermarkGeneratorSupplier.Context watermarkContext) {
 
             this.recordOutput = recordOutput;
+            this.watermarkUpdateListener = watermarkUpdateListener;
             this.timestampAssigner = timestampAssigner;
             this.watermarksFactory = watermarksFactory;
             this.watermarkContext = watermarkContext;
@@ -224,7 +228,11 @@ public class ProgressiveTimestampsAndWatermarks<T> implements TimestampsAndWater
                 return previous;
             }
 
-            watermarkMultiplexer.registerNewOutput(splitId);
+            watermarkMultiplexer.registerNewOutput(
+                    splitId,
+                    watermark ->
+                            watermarkUpdateListener.updateCurrentSplitWatermark(
+                                    splitId, watermark));
             final WatermarkOutput onEventOutput = watermarkMultiplexer.getImmediateOutput(splitId);
             final WatermarkOutput periodicOutput = watermarkMultiplexer.getDeferredOutput(splitId);
 
@@ -245,7 +253,9 @@ public class ProgressiveTimestampsAndWatermarks<T> implements TimestampsAndWater
 
         void releaseOutputForSplit(String splitId) {
             localOutputs.remove(splitId);
-            watermarkMultiplexer.unregisterOutput(splitId);
+            if (watermarkMultiplexer.unregisterOutput(splitId)) {
+                watermarkUpdateListener.splitFinished(splitId);
+            }
         }
 
         void emitPeriodicWatermark() {
@@ -53,6 +53,12 @@ public interface TimestampsAndWatermarks<T> {
          * watermark.
          */
         void updateCurrentEffectiveWatermark(long watermark);
+
+        /** Notifies about an advanced watermark of the given split. */
+        void updateCurrentSplitWatermark(String splitId, long watermark);
+
+        /** Notifies that the output of the given split has been released. */
+        void splitFinished(String splitId);
     }
 
     /**
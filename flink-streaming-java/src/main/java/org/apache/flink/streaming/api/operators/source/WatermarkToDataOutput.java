@@ -42,7 +42,7 @@ public final class WatermarkToDataOutput implements WatermarkOutput {
 
     @VisibleForTesting
     public WatermarkToDataOutput(PushingAsyncDataInput.DataOutput<?> output) {
-        this(output, watermark -> {});
+        this(output, new NoOpWatermarkUpdateListener());
     }
 
     /** Creates a new WatermarkOutput against the given DataOutput. */
@@ -114,4 +114,17 @@ public final class WatermarkToDataOutput implements WatermarkOutput {
         isIdle = false;
         return false;
     }
+
+    private static final class NoOpWatermarkUpdateListener
+            implements TimestampsAndWatermarks.WatermarkUpdateListener {
+
+        @Override
+        public void updateCurrentEffectiveWatermark(long watermark) {}
+
+        @Override
+        public void updateCurrentSplitWatermark(String splitId, long watermark) {}
+
+        @Override
+        public void splitFinished(String splitId) {}
+    }
 }
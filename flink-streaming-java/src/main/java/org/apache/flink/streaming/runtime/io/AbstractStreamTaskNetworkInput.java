@@ -26,7 +26,6 @@ import org.apache.flink.runtime.io.network.api.serialization.RecordDeserializer;
 import org.apache.flink.runtime.io.network.partition.consumer.BufferOrEvent;
 import org.apache.flink.runtime.io.network.partition.consumer.EndOfChannelStateEvent;
 import org.apache.flink.runtime.plugable.DeserializationDelegate;
-import org.apache.flink.runtime.plugable.NonReusingDeserializationDelegate;
 import org.apache.flink.streaming.runtime.io.checkpointing.CheckpointedInputGate;
 import org.apache.flink.streaming.runtime.streamrecord.StreamElement;
 import org.apache.flink.streaming.runtime.streamrecord.StreamElementSerializer;
@@ -51,7 +50,7 @@ public abstract class AbstractStreamTaskNetworkInput<
                 T, R extends RecordDeserializer<DeserializationDelegate<StreamElement>>>
         implements StreamTaskInput<T> {
     protected final CheckpointedInputGate checkpointedInputGate;
-    protected final DeserializationDelegate<StreamElement> deserializationDelegate;
+    protected final StreamElementDeserializationDelegate deserializationDelegate;
     protected final TypeSerializer<T> inputSerializer;
     protected final Map<InputChannelInfo, R> recordDeserializers;
     protected final Map<InputChannelInfo, Integer> flattenedChannelIndices = new HashMap<>();
@@ -71,7 +70,7 @@ public abstract class AbstractStreamTaskNetworkInput<
         super();
         this.checkpointedInputGate = checkpointedInputGate;
         deserializationDelegate =
-                new NonReusingDeserializationDelegate<>(
+                new StreamElementDeserializationDelegate(
                         new StreamElementSerializer<>(inputSerializer));
         this.inputSerializer = inputSerializer;
 
@@ -102,7 +101,14 @@ public abstract class AbstractStreamTaskNetworkInput<
                 }
 
                 if (result.isFullRecord()) {
-                    processElement(deserializationDelegate.getInstance(), output);
+                    if (deserializationDelegate.isBlock()) {
+                        // a block of batched small records is handed to the output in one go
+                        for (StreamElement element : deserializationDelegate.getBlock()) {
+                            processElement(element, output);
+                        }
+                    } else {
+                        processElement(deserializationDelegate.getInstance(), output);
+                    }
                     return DataInputStatus.MORE_AVAILABLE;
                 }
             }
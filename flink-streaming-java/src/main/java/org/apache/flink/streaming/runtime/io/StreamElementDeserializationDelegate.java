@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.io;
+
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.runtime.plugable.DeserializationDelegate;
+import org.apache.flink.streaming.runtime.streamrecord.StreamElement;
+import org.apache.flink.streaming.runtime.streamrecord.StreamElementSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DeserializationDelegate} for {@link StreamElement StreamElements} which understands
+ * both single elements and blocks of elements that a record writer emits as one record when record
+ * batching is enabled.
+ *
+ * <p>After reading a single element, it is returned by {@link #getInstance()}. After reading a
+ * block, {@link #isBlock()} returns true and the elements are returned by {@link #getBlock()}.
+ */
+final class StreamElementDeserializationDelegate
+        implements DeserializationDelegate<StreamElement> {
+
+    private final StreamElementSerializer<?> serializer;
+
+    private final List<StreamElement> block = new ArrayList<>();
+
+    private StreamElement instance;
+
+    private boolean isBlock;
+
+    StreamElementDeserializationDelegate(StreamElementSerializer<?> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public void setInstance(StreamElement instance) {
+        this.instance = instance;
+        this.isBlock = false;
+    }
+
+    @Override
+    public StreamElement getInstance() {
+        return instance;
+    }
+
+    boolean isBlock() {
+        return isBlock;
+    }
+
+    List<StreamElement> getBlock() {
+        return block;
+    }
+
+    @Override
+    public void write(DataOutputView out) throws IOException {
+        throw new IllegalStateException("Serialization method called on DeserializationDelegate.");
+    }
+
+    @Override
+    public void read(DataInputView in) throws IOException {
+        int tag = in.readByte();
+        if (tag == StreamElementSerializer.TAG_RECORD_BLOCK) {
+            block.clear();
+            int numElements = in.readInt();
+            for (int i = 0; i < numElements; i++) {
+                block.add(serializer.deserialize(in));
+            }
+            instance = null;
+            isBlock = true;
+        } else {
+            instance = serializer.deserialize(tag, in);
+            isBlock = false;
+        }
+    }
+}
@@ -54,6 +54,13 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
     private static final int TAG_LATENCY_MARKER = 3;
     private static final int TAG_STREAM_STATUS = 4;
 
+    /**
+     * Tag of a block of elements which a record writer emits as a single record when record
+     * batching is enabled. The tag is followed by the number of elements and the serialized
+     * elements. It is never written or read by this serializer itself.
+     */
+    public static final byte TAG_RECORD_BLOCK = 5;
+
     private final TypeSerializer<T> typeSerializer;
 
     public StreamElementSerializer(TypeSerializer<T> serializer) {
@@ -185,7 +192,11 @@ public final class StreamElementSerializer<T> extends TypeSerializer<StreamEleme
 
     @Override
     public StreamElement deserialize(DataInputView source) throws IOException {
-        int tag = source.readByte();
+        return deserialize(source.readByte(), source);
+    }
+
+    /** Deserializes the remainder of an element whose tag has already been read. */
+    public StreamElement deserialize(int tag, DataInputView source) throws IOException {
         if (tag == TAG_REC_WITH_TIMESTAMP) {
             long timestamp = source.readLong();
             return new StreamRecord<T>(typeSerializer.deserialize(source), timestamp);
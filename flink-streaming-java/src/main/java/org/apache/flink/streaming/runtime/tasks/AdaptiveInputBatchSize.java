@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.tasks;
+
+import org.apache.flink.annotation.Internal;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Decides how many input records a {@link StreamTask} processes in a row before it returns to its
+ * mailbox.
+ *
+ * <p>Within a batch the mailbox is not looked at, so the batch size bounds the latency of mails
+ * such as timers and checkpoints. The size is halved whenever a batch took longer than the target
+ * duration or mails were waiting once it was done, and doubled up to the maximum after a full batch
+ * that did neither.
+ */
+@Internal
+final class AdaptiveInputBatchSize {
+
+    private final int maxBatchSize;
+
+    private final long targetBatchDurationNanos;
+
+    private int batchSize;
+
+    AdaptiveInputBatchSize(int maxBatchSize, long targetBatchDurationNanos) {
+        checkArgument(maxBatchSize > 1, "The maximum batch size must be larger than 1.");
+        checkArgument(targetBatchDurationNanos > 0, "The target duration must be positive.");
+        this.maxBatchSize = maxBatchSize;
+        this.targetBatchDurationNanos = targetBatchDurationNanos;
+        this.batchSize = 1;
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Adapts the batch size to the outcome of the last batch.
+     *
+     * @param numProcessed the number of records that the last batch processed.
+     * @param durationNanos the time that the last batch took.
+     * @param hasMail whether mails were waiting after the last batch.
+     */
+    void update(int numProcessed, long durationNanos, boolean hasMail) {
+        if (hasMail || durationNanos > targetBatchDurationNanos) {
+            batchSize = Math.max(1, batchSize / 2);
+        } else if (numProcessed >= batchSize) {
+            batchSize = (int) Math.min(maxBatchSize, 2L * batchSize);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.tasks;
+
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.operators.Output;
+import org.apache.flink.streaming.api.operators.StreamFilter;
+import org.apache.flink.streaming.api.operators.StreamMap;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ChainingOutput} for a chained {@link StreamMap} or {@link StreamFilter} that calls the
+ * user function of the operator directly instead of going through {@link
+ * OneInputStreamOperator#processElement(StreamRecord)}.
+ *
+ * <p>If the operator writes to another {@link FusedChainingOutput}, the value is passed on to the
+ * next user function as is, and only the last output of such a run of operators puts it back into
+ * the {@link StreamRecord}. The operators stay part of the chain for everything but records, e.g.
+ * for watermarks, checkpoints and their lifecycle, and their record counters are kept up to date.
+ *
+ * <p>This must only be used if object reuse is enabled, because records are not copied between the
+ * operators, and if the operators are not keyed, because no key context is set for the records.
+ */
+final class FusedChainingOutput<IN, OUT> extends ChainingOutput<IN> {
+
+    @Nullable private final MapFunction<IN, OUT> mapFunction;
+
+    @Nullable private final FilterFunction<IN> filterFunction;
+
+    private final Counter numRecordsOut;
+
+    private final Output<StreamRecord<OUT>> output;
+
+    @Nullable private final FusedChainingOutput<OUT, ?> nextFusedOutput;
+
+    private FusedChainingOutput(
+            OneInputStreamOperator<IN, OUT> operator,
+            @Nullable MapFunction<IN, OUT> mapFunction,
+            @Nullable FilterFunction<IN> filterFunction,
+            Output<StreamRecord<OUT>> output) {
+        super(operator, null);
+        this.mapFunction = mapFunction;
+        this.filterFunction = filterFunction;
+        this.numRecordsOut = operator.getMetricGroup().getIOMetricGroup().getNumRecordsOutCounter();
+        this.output = output;
+        this.nextFusedOutput =
+                output instanceof FusedChainingOutput
+                        ? (FusedChainingOutput<OUT, ?>) output
+                        : null;
+    }
+
+    /**
+     * Returns whether records for the given operator can be handed to its user function directly.
+     * Subclasses of {@link StreamMap} and {@link StreamFilter} may override how elements are
+     * processed, so only these exact classes are fused.
+     */
+    static boolean canFuse(OneInputStreamOperator<?, ?> operator) {
+        return operator.getClass() == StreamMap.class || operator.getClass() == StreamFilter.class;
+    }
+
+    /**
+     * Creates the output for the given operator, which must be one for which {@link
+     * #canFuse(OneInputStreamOperator)} holds.
+     *
+     * @param operator the operator that receives the records of this output.
+     * @param output the output that the operator writes to.
+     */
+    @SuppressWarnings("unchecked")
+    static <IN, OUT> FusedChainingOutput<IN, OUT> create(
+            OneInputStreamOperator<IN, OUT> operator, Output<StreamRecord<OUT>> output) {
+        if (operator.getClass() == StreamMap.class) {
+            MapFunction<IN, OUT> mapFunction = ((StreamMap<IN, OUT>) operator).getUserFunction();
+            return new FusedChainingOutput<>(operator, mapFunction, null, output);
+        } else if (operator.getClass() == StreamFilter.class) {
+            FilterFunction<IN> filterFunction = ((StreamFilter<IN>) operator).getUserFunction();
+            return new FusedChainingOutput<>(operator, null, filterFunction, output);
+        } else {
+            throw new IllegalArgumentException("Cannot fuse operator " + operator);
+        }
+    }
+
+    @Override
+    protected <X> void pushToOperator(StreamRecord<X> record) {
+        try {
+            @SuppressWarnings("unchecked")
+            IN value = (IN) record.getValue();
+            process(value, record);
+        } catch (Exception e) {
+            throw new ExceptionInChainedOperatorException(e);
+        }
+    }
+
+    private void process(IN value, StreamRecord<?> record) throws Exception {
+        numRecordsIn.inc();
+        OUT result;
+        if (mapFunction != null) {
+            result = mapFunction.map(value);
+        } else if (filterFunction.filter(value)) {
+            @SuppressWarnings("unchecked")
+            OUT unchanged = (OUT) value;
+            result = unchanged;
+        } else {
+            return;
+        }
+
+        numRecordsOut.inc();
+        if (nextFusedOutput != null) {
+            nextFusedOutput.process(result, record);
+        } else {
+            output.collect(record.replace(result));
+        }
+    }
+}
@@ -723,7 +723,12 @@ public abstract class OperatorChain<OUT, OP extends StreamOperator<OUT>>
                         false);
 
         return wrapOperatorIntoOutput(
-                chainedOperator, containingTask, operatorConfig, userCodeClassloader, outputTag);
+                chainedOperator,
+                chainedOperatorOutput,
+                containingTask,
+                operatorConfig,
+                userCodeClassloader,
+                outputTag);
     }
 
     /**
@@ -766,6 +771,7 @@ public abstract class OperatorChain<OUT, OP extends StreamOperator<OUT>>
 
     private <IN, OUT> WatermarkGaugeExposingOutput<StreamRecord<IN>> wrapOperatorIntoOutput(
             OneInputStreamOperator<IN, OUT> operator,
+            WatermarkGaugeExposingOutput<StreamRecord<OUT>> operatorOutput,
             StreamTask<OUT, ?> containingTask,
             StreamConfig operatorConfig,
             ClassLoader userCodeClassloader,
@@ -773,7 +779,15 @@ public abstract class OperatorChain<OUT, OP extends StreamOperator<OUT>>
 
         WatermarkGaugeExposingOutput<StreamRecord<IN>> currentOperatorOutput;
         if (containingTask.getExecutionConfig().isObjectReuseEnabled()) {
-            currentOperatorOutput = new ChainingOutput<>(operator, outputTag);
+            // records are not copied between the operators anyway, so stateless operators can
+            // get their records without going through the operator
+            if (outputTag == null
+                    && FusedChainingOutput.canFuse(operator)
+                    && operatorConfig.getStatePartitioner(0, userCodeClassloader) == null) {
+                currentOperatorOutput = FusedChainingOutput.create(operator, operatorOutput);
+            } else {
+                currentOperatorOutput = new ChainingOutput<>(operator, outputTag);
+            }
         } else {
             TypeSerializer<IN> inSerializer =
                     operatorConfig.getTypeSerializerIn1(userCodeClassloader);
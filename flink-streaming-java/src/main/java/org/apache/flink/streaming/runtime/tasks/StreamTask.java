@@ -22,6 +22,7 @@ import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.operators.MailboxExecutor;
 import org.apache.flink.api.common.operators.ProcessingTimeService.ProcessingTimeCallback;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
 import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.fs.AutoCloseableRegistry;
 import org.apache.flink.core.fs.CloseableRegistry;
@@ -90,6 +91,7 @@ import org.apache.flink.streaming.runtime.io.StreamInputProcessor;
 import org.apache.flink.streaming.runtime.io.checkpointing.CheckpointBarrierHandler;
 import org.apache.flink.streaming.runtime.partitioner.ConfigurableStreamPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.StreamPartitioner;
+import org.apache.flink.streaming.runtime.streamrecord.StreamElementSerializer;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.runtime.tasks.mailbox.GaugePeriodTimer;
 import org.apache.flink.streaming.runtime.tasks.mailbox.MailboxDefaultAction;
@@ -105,6 +107,7 @@ import org.apache.flink.util.FatalExitExceptionHandler;
 import org.apache.flink.util.FlinkException;
 import org.apache.flink.util.FlinkRuntimeException;
 import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.MathUtils;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.SerializedValue;
 import org.apache.flink.util.TernaryBoolean;
@@ -128,6 +131,7 @@ import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -135,6 +139,8 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 
 import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_PERIOD;
+import static org.apache.flink.configuration.TaskManagerOptions.TASK_INPUT_BATCH_MAX_RECORDS;
+import static org.apache.flink.configuration.TaskManagerOptions.TASK_INPUT_BATCH_TARGET_DURATION;
 import static org.apache.flink.util.ExceptionUtils.firstOrSuppressed;
 import static org.apache.flink.util.Preconditions.checkState;
 import static org.apache.flink.util.concurrent.FutureUtils.assertNoException;
@@ -295,6 +301,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 
     private final long bufferDebloatPeriod;
 
+    /** Adapts the number of input records processed in a row, null to process them one by one. */
+    @Nullable private final AdaptiveInputBatchSize inputBatchSize;
+
     private final Environment environment;
 
     private final Object shouldInterruptOnCancelLock = new Object();
@@ -403,7 +412,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
                             new ExecutorThreadFactory("channel-state-unspilling"));
             resourceCloser.registerCloseable(channelIOExecutor::shutdown);
 
-            this.recordWriter = createRecordWriterDelegate(configuration, environment);
+            this.recordWriter =
+                    createRecordWriterDelegate(
+                            configuration, environment, mailboxProcessor.getMainMailboxExecutor());
             // Release the output resources. this method should never fail.
             resourceCloser.registerCloseable(this::releaseOutputResources);
             // If the operators won't be closed explicitly, register it to a hard close.
@@ -474,6 +485,13 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
             Configuration taskManagerConf = environment.getTaskManagerInfo().getConfiguration();
 
             this.bufferDebloatPeriod = taskManagerConf.get(BUFFER_DEBLOAT_PERIOD).toMillis();
+            int maxInputBatchSize = taskManagerConf.get(TASK_INPUT_BATCH_MAX_RECORDS);
+            this.inputBatchSize =
+                    maxInputBatchSize > 1
+                            ? new AdaptiveInputBatchSize(
+                                    maxInputBatchSize,
+                                    taskManagerConf.get(TASK_INPUT_BATCH_TARGET_DURATION).toNanos())
+                            : null;
             mailboxMetricsControl.setupLatencyMeasurement(systemTimerService, mainMailboxExecutor);
         } catch (Exception ex) {
             try {
@@ -534,12 +552,11 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
      * @throws Exception on any problems in the action.
      */
     protected void processInput(MailboxDefaultAction.Controller controller) throws Exception {
-        DataInputStatus status = inputProcessor.processInput();
+        DataInputStatus status =
+                inputBatchSize == null ? inputProcessor.processInput() : processInputBatch();
         switch (status) {
             case MORE_AVAILABLE:
-                if (recordWriter.isAvailable()
-                        && (changelogWriterAvailabilityProvider == null
-                                || changelogWriterAvailabilityProvider.isAvailable())) {
+                if (isOutputAvailable()) {
                     return;
                 }
                 break;
@@ -583,6 +600,33 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
                         new ResumeWrapper(controller.suspendDefaultAction(timer), timer)));
     }
 
+    /**
+     * Processes up to {@link AdaptiveInputBatchSize#getBatchSize()} records in a row without
+     * returning to the mailbox in between. The batch ends early as soon as the input has no more
+     * records available or the output is back pressured.
+     */
+    private DataInputStatus processInputBatch() throws Exception {
+        final int batchSize = inputBatchSize.getBatchSize();
+        final long batchStart = System.nanoTime();
+        DataInputStatus status = inputProcessor.processInput();
+        int numProcessed = 1;
+        while (numProcessed < batchSize
+                && status == DataInputStatus.MORE_AVAILABLE
+                && isOutputAvailable()) {
+            status = inputProcessor.processInput();
+            numProcessed++;
+        }
+        inputBatchSize.update(
+                numProcessed, System.nanoTime() - batchStart, mailboxProcessor.hasMail());
+        return status;
+    }
+
+    private boolean isOutputAvailable() {
+        return recordWriter.isAvailable()
+                && (changelogWriterAvailabilityProvider == null
+                        || changelogWriterAvailabilityProvider.isAvailable());
+    }
+
     protected void endData(StopMode mode) throws Exception {
 
         if (mode == StopMode.DRAIN) {
@@ -1565,8 +1609,37 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
             RecordWriterDelegate<SerializationDelegate<StreamRecord<OUT>>>
                     createRecordWriterDelegate(
                             StreamConfig configuration, Environment environment) {
+        return createRecordWriterDelegate(configuration, environment, null);
+    }
+
+    /**
+     * Creates the record writers of the task. If a mailbox executor is given, the record writers
+     * batch small records as configured by {@link
+     * NettyShuffleEnvironmentOptions#RECORD_BATCHING_BLOCK_SIZE} and finish the pending blocks of
+     * records for periodic flushes through it.
+     */
+    private static <OUT>
+            RecordWriterDelegate<SerializationDelegate<StreamRecord<OUT>>>
+                    createRecordWriterDelegate(
+                            StreamConfig configuration,
+                            Environment environment,
+                            @Nullable MailboxExecutor mailboxExecutor) {
+        int maxBlockSize = 0;
+        Executor taskExecutor = null;
+        // the records of unaligned checkpoints are demultiplexed one by one on rescaling
+        if (mailboxExecutor != null && !configuration.isUnalignedCheckpointsEnabled()) {
+            maxBlockSize =
+                    environment
+                            .getTaskManagerInfo()
+                            .getConfiguration()
+                            .getOptional(NettyShuffleEnvironmentOptions.RECORD_BATCHING_BLOCK_SIZE)
+                            .map(size -> MathUtils.checkedDownCast(size.getBytes()))
+                            .orElse(0);
+            taskExecutor =
+                    command -> mailboxExecutor.execute(command::run, "Finish batched records");
+        }
         List<RecordWriter<SerializationDelegate<StreamRecord<OUT>>>> recordWrites =
-                createRecordWriters(configuration, environment);
+                createRecordWriters(configuration, environment, maxBlockSize, taskExecutor);
         if (recordWrites.size() == 1) {
             return new SingleRecordWriter<>(recordWrites.get(0));
         } else if (recordWrites.size() == 0) {
@@ -1578,7 +1651,10 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 
     private static <OUT>
             List<RecordWriter<SerializationDelegate<StreamRecord<OUT>>>> createRecordWriters(
-                    StreamConfig configuration, Environment environment) {
+                    StreamConfig configuration,
+                    Environment environment,
+                    int maxBlockSize,
+                    @Nullable Executor taskExecutor) {
         List<RecordWriter<SerializationDelegate<StreamRecord<OUT>>>> recordWriters =
                 new ArrayList<>();
         List<StreamEdge> outEdgesInOrder =
@@ -1593,7 +1669,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
                             i,
                             environment,
                             environment.getTaskInfo().getTaskNameWithSubtasks(),
-                            edge.getBufferTimeout()));
+                            edge.getBufferTimeout(),
+                            maxBlockSize,
+                            taskExecutor));
         }
         return recordWriters;
     }
@@ -1604,7 +1682,9 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
             int outputIndex,
             Environment environment,
             String taskNameWithSubtask,
-            long bufferTimeout) {
+            long bufferTimeout,
+            int maxBlockSize,
+            @Nullable Executor taskExecutor) {
 
         StreamPartitioner<OUT> outputPartitioner = null;
 
@@ -1640,6 +1720,10 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
                         .setChannelSelector(outputPartitioner)
                         .setTimeout(bufferTimeout)
                         .setTaskName(taskNameWithSubtask)
+                        .setRecordBatching(
+                                maxBlockSize,
+                                StreamElementSerializer.TAG_RECORD_BLOCK,
+                                taskExecutor)
                         .build(bufferWriter);
         output.setMetricGroup(environment.getMetricGroup().getIOMetricGroup());
         return output;
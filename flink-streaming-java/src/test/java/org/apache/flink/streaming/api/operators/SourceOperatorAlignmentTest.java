@@ -43,12 +43,14 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -231,6 +233,33 @@ public class SourceOperatorAlignmentTest {
         assertLatestReportedWatermarkEvent(record1);
     }
 
+    @Test
+    public void testSplitsAheadOfMaxDesiredWatermarkArePaused() throws Exception {
+        operator.initializeState(context.createStateContext());
+        operator.open();
+        Set<String> pausedSplits = context.getSourceReader().getPausedSplits();
+
+        operator.handleOperatorEvent(new WatermarkAlignmentEvent(1000));
+        operator.updateCurrentSplitWatermark("1", 500);
+        operator.updateCurrentSplitWatermark("2", 1500);
+        operator.updateCurrentSplitWatermark("3", 2500);
+        assertThat(pausedSplits, containsInAnyOrder("2", "3"));
+
+        operator.handleOperatorEvent(new WatermarkAlignmentEvent(2000));
+        assertThat(pausedSplits, containsInAnyOrder("3"));
+
+        operator.updateCurrentSplitWatermark("1", 2100);
+        assertThat(pausedSplits, containsInAnyOrder("1", "3"));
+
+        // finished splits are not resumed anymore
+        operator.splitFinished("3");
+        operator.handleOperatorEvent(new WatermarkAlignmentEvent(3000));
+        assertThat(pausedSplits, containsInAnyOrder("3"));
+
+        operator.handleOperatorEvent(new WatermarkAlignmentEvent(1000));
+        assertThat(pausedSplits, containsInAnyOrder("1", "3"));
+    }
+
     private void assertOutput(
             CollectingDataOutput<Integer> actualOutput, List<Integer> expectedOutput) {
         assertThat(
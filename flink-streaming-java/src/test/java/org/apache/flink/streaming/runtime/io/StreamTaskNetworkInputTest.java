@@ -125,6 +125,20 @@ public class StreamTaskNetworkInputTest {
         assertEquals(0, output.getNumberOfEmittedRecords());
     }
 
+    /** Tests that all records of a block of batched records are emitted in one go. */
+    @Test
+    public void testRecordBlock() throws Exception {
+        List<BufferOrEvent> buffers = Collections.singletonList(createDataBufferWithBlock());
+
+        VerifyRecordsDataOutput<Long> output = new VerifyRecordsDataOutput<>();
+        StreamTaskNetworkInput<Long> input = createStreamTaskNetworkInput(buffers);
+
+        assertHasNextElement(input, output);
+        assertEquals(3, output.getNumberOfEmittedRecords());
+        assertHasNextElement(input, output);
+        assertEquals(4, output.getNumberOfEmittedRecords());
+    }
+
     private Map<InputChannelInfo, TestRecordDeserializer> createDeserializers(
             CheckpointableInput inputGate) {
         return inputGate.getChannelInfos().stream()
@@ -246,6 +260,28 @@ public class StreamTaskNetworkInputTest {
         }
     }
 
+    private BufferOrEvent createDataBufferWithBlock() throws IOException {
+        try (BufferBuilder bufferBuilder =
+                BufferBuilderTestUtils.createEmptyBufferBuilder(PAGE_SIZE)) {
+            BufferConsumer bufferConsumer = bufferBuilder.createBufferConsumer();
+
+            DataOutputSerializer serializer = new DataOutputSerializer(128);
+            StreamElementSerializer<Long> elementSerializer =
+                    new StreamElementSerializer<>(LongSerializer.INSTANCE);
+            serializer.writeInt(0);
+            serializer.writeByte(StreamElementSerializer.TAG_RECORD_BLOCK);
+            serializer.writeInt(3);
+            for (long value = 1; value <= 3; value++) {
+                elementSerializer.serialize(new StreamRecord<>(value), serializer);
+            }
+            serializer.writeIntUnsafe(serializer.length() - 4, 0);
+            bufferBuilder.appendAndCommit(serializer.wrapAsByteBuffer());
+            serializeRecord(44L, bufferBuilder);
+
+            return new BufferOrEvent(bufferConsumer.build(), new InputChannelInfo(0, 0));
+        }
+    }
+
     private StreamTaskNetworkInput<Long> createStreamTaskNetworkInput(List<BufferOrEvent> buffers) {
         return new StreamTaskNetworkInput<>(
                 createCheckpointedInputGate(new MockInputGate(1, buffers, false)),
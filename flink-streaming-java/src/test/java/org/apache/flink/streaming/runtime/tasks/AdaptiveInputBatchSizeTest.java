@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.tasks;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests for {@link AdaptiveInputBatchSize}. */
+public class AdaptiveInputBatchSizeTest {
+
+    private static final long TARGET_DURATION_NANOS = 1_000_000L;
+
+    @Test
+    public void testGrowsAfterFullBatches() {
+        AdaptiveInputBatchSize batchSize = new AdaptiveInputBatchSize(10, TARGET_DURATION_NANOS);
+        assertEquals(1, batchSize.getBatchSize());
+
+        batchSize.update(1, 0L, false);
+        assertEquals(2, batchSize.getBatchSize());
+        batchSize.update(2, 0L, false);
+        batchSize.update(4, 0L, false);
+        assertEquals(8, batchSize.getBatchSize());
+        batchSize.update(8, 0L, false);
+        assertEquals(10, batchSize.getBatchSize());
+        batchSize.update(10, 0L, false);
+        assertEquals(10, batchSize.getBatchSize());
+    }
+
+    @Test
+    public void testKeepsSizeAfterPartialBatches() {
+        AdaptiveInputBatchSize batchSize = new AdaptiveInputBatchSize(10, TARGET_DURATION_NANOS);
+        batchSize.update(1, 0L, false);
+        batchSize.update(1, 0L, false);
+        assertEquals(2, batchSize.getBatchSize());
+    }
+
+    @Test
+    public void testShrinksOnMailsAndSlowBatches() {
+        AdaptiveInputBatchSize batchSize = new AdaptiveInputBatchSize(64, TARGET_DURATION_NANOS);
+        for (int i = 1; i < 64; i *= 2) {
+            batchSize.update(i, 0L, false);
+        }
+        assertEquals(64, batchSize.getBatchSize());
+
+        batchSize.update(64, 0L, true);
+        assertEquals(32, batchSize.getBatchSize());
+        batchSize.update(32, TARGET_DURATION_NANOS + 1, false);
+        assertEquals(16, batchSize.getBatchSize());
+        batchSize.update(3, 0L, true);
+        assertEquals(8, batchSize.getBatchSize());
+
+        for (int i = 0; i < 10; i++) {
+            batchSize.update(1, TARGET_DURATION_NANOS * 2, true);
+        }
+        assertEquals(1, batchSize.getBatchSize());
+    }
+}
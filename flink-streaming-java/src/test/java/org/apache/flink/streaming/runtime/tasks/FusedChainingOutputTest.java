@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.tasks;
+
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.metrics.groups.OperatorIOMetricGroup;
+import org.apache.flink.streaming.api.operators.StreamFilter;
+import org.apache.flink.streaming.api.operators.StreamMap;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.apache.flink.api.common.typeinfo.BasicTypeInfo.STRING_TYPE_INFO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link FusedChainingOutput}. */
+public class FusedChainingOutputTest {
+
+    @Test
+    public void testFusedChainWithObjectReuse() throws Exception {
+        testChain(true);
+    }
+
+    @Test
+    public void testChainWithoutObjectReuse() throws Exception {
+        testChain(false);
+    }
+
+    @Test
+    public void testOnlyFusesExactOperatorClasses() {
+        assertTrue(FusedChainingOutput.canFuse(new StreamMap<String, String>(value -> value)));
+        assertTrue(FusedChainingOutput.canFuse(new StreamFilter<String>(value -> true)));
+        assertFalse(
+                FusedChainingOutput.canFuse(
+                        new StreamMap<String, String>(value -> value) {
+                            private static final long serialVersionUID = 1L;
+                        }));
+    }
+
+    private static void testChain(boolean objectReuse) throws Exception {
+        try (StreamTaskMailboxTestHarness<String> harness =
+                new StreamTaskMailboxTestHarnessBuilder<>(OneInputStreamTask::new, STRING_TYPE_INFO)
+                        .modifyExecutionConfig(
+                                config -> {
+                                    if (objectReuse) {
+                                        config.enableObjectReuse();
+                                    }
+                                })
+                        .addInput(STRING_TYPE_INFO)
+                        .setupOperatorChain(new StreamMap<String, String>(value -> value))
+                        .chain(
+                                new StreamFilter<>(value -> !value.startsWith("x")),
+                                StringSerializer.INSTANCE)
+                        .chain(new StreamMap<>(value -> value + "!"), StringSerializer.INSTANCE)
+                        .chain(new StreamMap<>(String::toUpperCase), StringSerializer.INSTANCE)
+                        .finish()
+                        .build()) {
+
+            harness.processElement(new StreamRecord<>("a", 1));
+            harness.processElement(new StreamRecord<>("xb", 2));
+            harness.processElement(new StreamRecord<>("c", 3));
+            harness.processElement(new Watermark(5));
+
+            Queue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+            expectedOutput.add(new StreamRecord<>("A!", 1));
+            expectedOutput.add(new StreamRecord<>("C!", 3));
+            expectedOutput.add(new Watermark(5));
+            TestHarnessUtil.assertOutputEquals(
+                    "Output was not correct.", expectedOutput, harness.getOutput());
+
+            // head, filter, append and upper case
+            List<OperatorIOMetricGroup> metricGroups = new ArrayList<>();
+            for (StreamOperatorWrapper<?, ?> wrapper :
+                    harness.getStreamTask().operatorChain.getAllOperators()) {
+                metricGroups.add(wrapper.getStreamOperator().getMetricGroup().getIOMetricGroup());
+            }
+            assertEquals(4, metricGroups.size());
+            assertRecordCounts(metricGroups.get(1), 3, 2);
+            assertRecordCounts(metricGroups.get(2), 2, 2);
+            assertRecordCounts(metricGroups.get(3), 2, 2);
+        }
+    }
+
+    private static void assertRecordCounts(
+            OperatorIOMetricGroup metricGroup, long numRecordsIn, long numRecordsOut) {
+        assertEquals(numRecordsIn, metricGroup.getNumRecordsInCounter().getCount());
+        assertEquals(numRecordsOut, metricGroup.getNumRecordsOutCounter().getCount());
+    }
+}
@@ -181,6 +181,8 @@ import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_P
 import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_TARGET;
 import static org.apache.flink.configuration.TaskManagerOptions.BUFFER_DEBLOAT_THRESHOLD_PERCENTAGES;
 import static org.apache.flink.configuration.TaskManagerOptions.MEMORY_SEGMENT_SIZE;
+import static org.apache.flink.configuration.TaskManagerOptions.TASK_INPUT_BATCH_MAX_RECORDS;
+import static org.apache.flink.configuration.TaskManagerOptions.TASK_INPUT_BATCH_TARGET_DURATION;
 import static org.apache.flink.runtime.checkpoint.CheckpointFailureReason.UNKNOWN_TASK_CHECKPOINT_NOTIFICATION_FAILURE;
 import static org.apache.flink.runtime.checkpoint.StateObjectCollection.singleton;
 import static org.apache.flink.runtime.state.CheckpointStorageLocationReference.getDefault;
@@ -1551,6 +1553,39 @@ public class StreamTaskTest extends TestLogger {
         }
     }
 
+    @Test
+    public void testProcessInputInBatches() throws Exception {
+        Configuration config =
+                new Configuration()
+                        .set(TASK_INPUT_BATCH_MAX_RECORDS, 8)
+                        .set(TASK_INPUT_BATCH_TARGET_DURATION, Duration.ofHours(1));
+
+        try (StreamTaskMailboxTestHarness<String> harness =
+                new StreamTaskMailboxTestHarnessBuilder<>(OneInputStreamTask::new, STRING_TYPE_INFO)
+                        .setTaskManagerRuntimeInfo(new TestingTaskManagerRuntimeInfo(config))
+                        .addInput(STRING_TYPE_INFO)
+                        .setupOutputForSingletonOperatorChain(new StreamMap<>(value -> value))
+                        .build()) {
+            harness.setAutoProcess(false);
+            for (int i = 0; i < 10; i++) {
+                harness.processElement(new StreamRecord<>(String.valueOf(i)));
+            }
+            while (harness.streamTask.mailboxProcessor.hasMail()) {
+                harness.streamTask.runMailboxStep();
+            }
+
+            // every mailbox step processes twice as many records as the one before
+            harness.streamTask.runMailboxStep();
+            assertEquals(1, harness.getOutput().size());
+            harness.streamTask.runMailboxStep();
+            assertEquals(3, harness.getOutput().size());
+            harness.streamTask.runMailboxStep();
+            assertEquals(7, harness.getOutput().size());
+            harness.streamTask.runMailboxStep();
+            assertEquals(10, harness.getOutput().size());
+        }
+    }
+
     @Test
     public void testBufferSizeRecalculationStartSuccessfully() throws Exception {
         int expectedThroughput = 13333;
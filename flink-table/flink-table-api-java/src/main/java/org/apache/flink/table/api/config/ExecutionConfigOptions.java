@@ -220,6 +220,26 @@ public class ExecutionConfigOptions {
                                     + "The larger the memory, the higher the compression ratio, "
                                     + "but more memory resource will be consumed by the job.");
 
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<String> TABLE_EXEC_SPILL_COMPRESSION_CODEC =
+            key("table.exec.spill-compression.codec")
+                    .stringType()
+                    .defaultValue("LZ4")
+                    .withDescription(
+                            "The codec to be used when compressing spilled data. Supported values "
+                                    + "are LZ4, SNAPPY and ZSTD. ZSTD achieves the highest "
+                                    + "compression ratio at a higher CPU cost.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Integer> TABLE_EXEC_SPILL_COMPRESSION_ZSTD_LEVEL =
+            key("table.exec.spill-compression.zstd-level")
+                    .intType()
+                    .defaultValue(3)
+                    .withDescription(
+                            "The compression level to be used when compressing spilled data with "
+                                    + "the ZSTD codec. Higher levels achieve a higher compression "
+                                    + "ratio at a higher CPU cost.");
+
     // ------------------------------------------------------------------------
     //  Resource Options
     // ------------------------------------------------------------------------
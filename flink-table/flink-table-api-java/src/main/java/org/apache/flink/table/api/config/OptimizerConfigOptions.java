@@ -132,4 +132,44 @@ public class OptimizerConfigOptions {
                     .withDescription(
                             "When it is true, the optimizer will merge the operators with pipelined shuffling "
                                     + "into a multiple input operator to reduce shuffling and improve performance. Default value is true.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED =
+            key("table.optimizer.dynamic-filtering.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer will try to push the join key values of the build side "
+                                    + "of a hash join into the probe side source which implements SupportsDynamicFiltering, "
+                                    + "so that the source can skip the data which can not be joined, e.g. partitions. "
+                                    + "Default value is false.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED =
+            key("table.optimizer.runtime-filter.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer will try to build a bloom filter of the join keys "
+                                    + "of the build side of a shuffled hash join, and use it to drop the probe side "
+                                    + "records which can not be joined before they are shuffled. Default value is false.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Integer> TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT =
+            key("table.optimizer.runtime-filter.max-build-row-count")
+                    .intType()
+                    .defaultValue(1_000_000)
+                    .withDescription(
+                            "The maximum number of build side rows a runtime filter is built for. The optimizer "
+                                    + "does not inject a runtime filter if the estimated row count of the build side "
+                                    + "is larger, and the filter is dropped at runtime if the actual row count is larger.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Long> TABLE_OPTIMIZER_RUNTIME_FILTER_MIN_PROBE_ROW_COUNT =
+            key("table.optimizer.runtime-filter.min-probe-row-count")
+                    .longType()
+                    .defaultValue(10_000_000L)
+                    .withDescription(
+                            "The minimum estimated number of probe side rows for which the optimizer injects "
+                                    + "a runtime filter. Filtering smaller probe sides costs more than it saves.");
 }
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.connector.source;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Data for dynamic filtering, which is collected from the build side of a join at runtime and used
+ * by a {@link ScanTableSource} on the probe side to skip partitions or splits which can not
+ * produce matching rows.
+ *
+ * <p>The data contains the distinct values of the accepted filter fields, serialized with the
+ * serializer of the given type information. If too much data was collected, {@link #isFiltering()}
+ * returns false and the source must read all of its data.
+ *
+ * @see SupportsDynamicFiltering
+ */
+@PublicEvolving
+public class DynamicFilteringData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TypeInformation<RowData> typeInfo;
+    private final RowType rowType;
+
+    /** Serialized rows, each of which contains the values of the filter fields in order. */
+    private final List<byte[]> serializedData;
+
+    private final boolean isFiltering;
+
+    /** Deserialized rows grouped by the hash of their values, built on first access. */
+    private transient volatile Map<Integer, List<RowData>> dataMap;
+
+    private transient RowData.FieldGetter[] fieldGetters;
+
+    public DynamicFilteringData(
+            TypeInformation<RowData> typeInfo,
+            RowType rowType,
+            List<byte[]> serializedData,
+            boolean isFiltering) {
+        this.typeInfo = checkNotNull(typeInfo);
+        this.rowType = checkNotNull(rowType);
+        this.serializedData = checkNotNull(serializedData);
+        this.isFiltering = isFiltering;
+    }
+
+    /**
+     * Returns whether the data can be used for filtering. If not, the source must read all of its
+     * data.
+     */
+    public boolean isFiltering() {
+        return isFiltering;
+    }
+
+    public TypeInformation<RowData> getTypeInfo() {
+        return typeInfo;
+    }
+
+    public RowType getRowType() {
+        return rowType;
+    }
+
+    /**
+     * Returns whether the data contains a row with the same values as the given row. The given row
+     * must be of the {@link #getRowType() row type} of this data and use internal data structures.
+     *
+     * <p>Always returns true if the data is not {@link #isFiltering() filtering}.
+     */
+    public boolean contains(RowData row) {
+        if (!isFiltering) {
+            return true;
+        }
+        checkArgument(
+                row.getArity() == rowType.getFieldCount(),
+                "The arity of the row does not match the filtering data.");
+
+        initDataMapIfNeeded();
+        List<RowData> candidates = dataMap.get(hash(row));
+        if (candidates == null) {
+            return false;
+        }
+        for (RowData candidate : candidates) {
+            if (valuesEqual(row, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void initDataMapIfNeeded() {
+        if (dataMap != null) {
+            return;
+        }
+        synchronized (this) {
+            if (dataMap != null) {
+                return;
+            }
+            fieldGetters = new RowData.FieldGetter[rowType.getFieldCount()];
+            for (int i = 0; i < fieldGetters.length; i++) {
+                fieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
+            }
+
+            TypeSerializer<RowData> serializer = typeInfo.createSerializer(new ExecutionConfig());
+            Map<Integer, List<RowData>> map = new HashMap<>();
+            for (byte[] bytes : serializedData) {
+                try (ByteArrayInputStream in = new ByteArrayInputStream(bytes)) {
+                    RowData row = serializer.deserialize(new DataInputViewStreamWrapper(in));
+                    map.computeIfAbsent(hash(row), k -> new ArrayList<>()).add(row);
+                } catch (IOException e) {
+                    throw new FlinkRuntimeException("Failed to deserialize the filtering data.", e);
+                }
+            }
+            dataMap = map;
+        }
+    }
+
+    private int hash(RowData row) {
+        Object[] values = new Object[fieldGetters.length];
+        for (int i = 0; i < fieldGetters.length; i++) {
+            values[i] = fieldGetters[i].getFieldOrNull(row);
+        }
+        return Arrays.hashCode(values);
+    }
+
+    private boolean valuesEqual(RowData first, RowData second) {
+        for (RowData.FieldGetter fieldGetter : fieldGetters) {
+            if (!Objects.equals(
+                    fieldGetter.getFieldOrNull(first), fieldGetter.getFieldOrNull(second))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the serialized rows of this data, mainly for testing purposes. */
+    public List<byte[]> getSerializedData() {
+        return Collections.unmodifiableList(serializedData);
+    }
+
+    @Override
+    public String toString() {
+        return "DynamicFilteringData{"
+                + "rowType="
+                + rowType
+                + ", numRows="
+                + serializedData.size()
+                + ", isFiltering="
+                + isFiltering
+                + '}';
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.connector.source.abilities;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.connector.source.ScanTableSource;
+
+import java.util.List;
+
+/**
+ * Enables to filter the data of a {@link ScanTableSource} dynamically at runtime, e.g. to prune
+ * the partitions of a fact table with the values of the dimension table it is joined with.
+ *
+ * <p>For a batch join whose probe side reads from a source implementing this interface, the values
+ * of the join keys on the build side are collected into a {@link DynamicFilteringData} before the
+ * probe side starts reading. The data is then delivered to the split enumerator of the source as a
+ * {@link DynamicFilteringEvent}, which can use it to skip splits which can not produce any match.
+ *
+ * <p>Dynamic filtering is an optimization on a best-effort basis: the source may ignore the data
+ * entirely, and must read all of its data if {@link DynamicFilteringData#isFiltering()} is false.
+ * The filter is always applied again by the join itself.
+ */
+@PublicEvolving
+public interface SupportsDynamicFiltering {
+
+    /**
+     * Returns the fields of the source that can be used for dynamic filtering, e.g. the partition
+     * keys of a partitioned table.
+     */
+    List<String> listAcceptedFilterFields();
+
+    /**
+     * Applies the candidate filter fields to the source. The fields are a subset of the {@link
+     * #listAcceptedFilterFields() accepted fields}, in the order of the values in the {@link
+     * DynamicFilteringData} that is later sent to the split enumerator.
+     */
+    void applyDynamicFiltering(List<String> candidateFilterFields);
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.connector.source.lookup;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.DescribedEnum;
+import org.apache.flink.configuration.description.InlineElement;
+import org.apache.flink.table.connector.source.LookupTableSource;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.apache.flink.configuration.ConfigOptions.key;
+import static org.apache.flink.configuration.description.TextElement.text;
+
+/**
+ * Predefined options for the lookup cache which is maintained by the lookup join operator in front
+ * of a {@link LookupTableSource}.
+ *
+ * <p>A connector opts in to the shared lookup cache by adding {@link #cacheOptions()} to the
+ * optional options of its table factory. The planner then reads these options from the table
+ * definition and wraps the lookup function of the connector with a cache, so that connectors don't
+ * have to maintain a cache of their own.
+ */
+@PublicEvolving
+public class LookupOptions {
+
+    public static final ConfigOption<LookupCacheType> CACHE_TYPE =
+            key("lookup.cache")
+                    .enumType(LookupCacheType.class)
+                    .defaultValue(LookupCacheType.NONE)
+                    .withDescription(
+                            "The caching strategy for the lookup table. "
+                                    + "The cache is maintained by the lookup join operator.");
+
+    public static final ConfigOption<Long> PARTIAL_CACHE_MAX_ROWS =
+            key("lookup.partial-cache.max-rows")
+                    .longType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The maximum number of lookup keys in the partial cache. "
+                                    + "The least recently used entries are evicted first.");
+
+    public static final ConfigOption<Duration> PARTIAL_CACHE_EXPIRE_AFTER_WRITE =
+            key("lookup.partial-cache.expire-after-write")
+                    .durationType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The duration after which an entry of the partial cache expires "
+                                    + "since it has been written into the cache.");
+
+    public static final ConfigOption<Duration> PARTIAL_CACHE_EXPIRE_AFTER_ACCESS =
+            key("lookup.partial-cache.expire-after-access")
+                    .durationType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The duration after which an entry of the partial cache expires "
+                                    + "since it has been accessed for the last time.");
+
+    public static final ConfigOption<Boolean> PARTIAL_CACHE_CACHE_MISSING_KEY =
+            key("lookup.partial-cache.cache-missing-key")
+                    .booleanType()
+                    .defaultValue(true)
+                    .withDescription(
+                            "Whether to store an empty value into the partial cache if the lookup "
+                                    + "key doesn't match any rows in the table.");
+
+    public static final ConfigOption<Duration> FULL_CACHE_RELOAD_INTERVAL =
+            key("lookup.full-cache.reload-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofHours(1))
+                    .withDescription(
+                            "The interval at which the full cache is reloaded from the table. "
+                                    + "The full cache requires the table source to be scannable "
+                                    + "with an InputFormat.");
+
+    /** Returns all lookup cache options a connector can add to its optional options. */
+    public static Set<ConfigOption<?>> cacheOptions() {
+        return new HashSet<>(
+                Arrays.asList(
+                        CACHE_TYPE,
+                        PARTIAL_CACHE_MAX_ROWS,
+                        PARTIAL_CACHE_EXPIRE_AFTER_WRITE,
+                        PARTIAL_CACHE_EXPIRE_AFTER_ACCESS,
+                        PARTIAL_CACHE_CACHE_MISSING_KEY,
+                        FULL_CACHE_RELOAD_INTERVAL));
+    }
+
+    /** Types of the lookup cache. */
+    @PublicEvolving
+    public enum LookupCacheType implements DescribedEnum {
+        NONE(text("Every lookup request is sent to the external system.")),
+        PARTIAL(
+                text(
+                        "Lookup results are cached by lookup key, "
+                                + "bounded by size and time based eviction.")),
+        FULL(
+                text(
+                        "All rows of the table are loaded into the cache "
+                                + "and reloaded periodically."));
+
+        private final InlineElement description;
+
+        LookupCacheType(InlineElement description) {
+            this.description = description;
+        }
+
+        @Internal
+        @Override
+        public InlineElement getDescription() {
+            return description;
+        }
+    }
+
+    private LookupOptions() {}
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.batch;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeConfig;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeContext;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.utils.ExecNodeUtil;
+import org.apache.flink.table.planner.plan.nodes.exec.visitor.AbstractExecNodeExactlyOnceVisitor;
+import org.apache.flink.table.runtime.operators.dynamicfiltering.DynamicFilteringDataCollectorOperatorFactory;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Batch {@link ExecNode} that collects the values of the dynamic filtering fields and sends them
+ * to the source coordinators of the {@link BatchExecTableSourceScan}s consuming this node.
+ *
+ * <p>The node does not produce any records. Its consumers register their listening IDs at the
+ * operator factory when they are translated.
+ */
+public class BatchExecDynamicFilteringDataCollector extends ExecNodeBase<Object>
+        implements BatchExecNode<Object> {
+
+    /**
+     * The maximum size of the collected data, above it the filtered sources read all of their
+     * data.
+     */
+    private static final MemorySize THRESHOLD = MemorySize.parse("8 mb");
+
+    private final int[] dynamicFilteringFieldIndices;
+
+    public BatchExecDynamicFilteringDataCollector(
+            ReadableConfig tableConfig,
+            int[] dynamicFilteringFieldIndices,
+            InputProperty inputProperty,
+            RowType outputType,
+            String description) {
+        super(
+                ExecNodeContext.newNodeId(),
+                ExecNodeContext.newContext(BatchExecDynamicFilteringDataCollector.class),
+                ExecNodeContext.newPersistedConfig(
+                        BatchExecDynamicFilteringDataCollector.class, tableConfig),
+                Collections.singletonList(inputProperty),
+                outputType,
+                description);
+        this.dynamicFilteringFieldIndices = dynamicFilteringFieldIndices;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Transformation<Object> translateToPlanInternal(
+            PlannerBase planner, ExecNodeConfig config) {
+        final Transformation<RowData> inputTransform =
+                (Transformation<RowData>) getInputEdges().get(0).translateToPlan(planner);
+        final RowType inputType = (RowType) getInputEdges().get(0).getOutputType();
+        final RowType dynamicFilteringFieldType =
+                RowType.of(
+                        IntStream.of(dynamicFilteringFieldIndices)
+                                .mapToObj(inputType::getTypeAt)
+                                .toArray(LogicalType[]::new));
+        final DynamicFilteringDataCollectorOperatorFactory factory =
+                new DynamicFilteringDataCollectorOperatorFactory(
+                        dynamicFilteringFieldType,
+                        dynamicFilteringFieldIndices,
+                        THRESHOLD.getBytes());
+        return ExecNodeUtil.createOneInputTransformation(
+                inputTransform,
+                createTransformationName(config),
+                createTransformationDescription(config),
+                factory,
+                (TypeInformation<Object>) (TypeInformation<?>) InternalTypeInfo.of(inputType),
+                inputTransform.getParallelism());
+    }
+
+    /**
+     * Translates the dynamic filtering data collectors of the graph. They do not have any output,
+     * so they are not reachable from the root nodes and have to be added to the job separately.
+     */
+    public static List<Transformation<?>> translateDynamicFilteringDataCollectors(
+            ExecNodeGraph execGraph, PlannerBase planner) {
+        final Set<ExecNode<?>> collectors = new LinkedHashSet<>();
+        final AbstractExecNodeExactlyOnceVisitor visitor =
+                new AbstractExecNodeExactlyOnceVisitor() {
+                    @Override
+                    protected void visitNode(ExecNode<?> node) {
+                        if (node instanceof BatchExecDynamicFilteringDataCollector) {
+                            collectors.add(node);
+                        }
+                        visitInputs(node);
+                    }
+                };
+        execGraph.getRootNodes().forEach(node -> node.accept(visitor));
+
+        final List<Transformation<?>> transformations = new ArrayList<>(collectors.size());
+        for (ExecNode<?> collector : collectors) {
+            transformations.add(collector.translateToPlan(planner));
+        }
+        return transformations;
+    }
+}
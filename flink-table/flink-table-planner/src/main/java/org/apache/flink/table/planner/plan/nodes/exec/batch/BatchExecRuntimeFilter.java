@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.batch;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.codegen.CodeGeneratorContext;
+import org.apache.flink.table.planner.codegen.ProjectionCodeGenerator;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeConfig;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeContext;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.utils.ExecNodeUtil;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.operators.runtimefilter.RuntimeFilterOperator;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Batch {@link ExecNode} that drops the probe side rows of a hash join whose join keys are not in
+ * the bloom filter of the build side, see {@link RuntimeFilterOperator}.
+ *
+ * <p>The first input is the broadcast filter and the second input is the probe side.
+ */
+public class BatchExecRuntimeFilter extends ExecNodeBase<RowData>
+        implements BatchExecNode<RowData> {
+
+    private final int[] probeKeys;
+
+    public BatchExecRuntimeFilter(
+            ReadableConfig tableConfig,
+            int[] probeKeys,
+            InputProperty filterInputProperty,
+            InputProperty probeInputProperty,
+            RowType outputType,
+            String description) {
+        super(
+                ExecNodeContext.newNodeId(),
+                ExecNodeContext.newContext(BatchExecRuntimeFilter.class),
+                ExecNodeContext.newPersistedConfig(BatchExecRuntimeFilter.class, tableConfig),
+                Arrays.asList(filterInputProperty, probeInputProperty),
+                outputType,
+                description);
+        this.probeKeys = probeKeys;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Transformation<RowData> translateToPlanInternal(
+            PlannerBase planner, ExecNodeConfig config) {
+        final Transformation<RowData> filterTransform =
+                (Transformation<RowData>) getInputEdges().get(0).translateToPlan(planner);
+        final ExecEdge probeEdge = getInputEdges().get(1);
+        final Transformation<RowData> probeTransform =
+                (Transformation<RowData>) probeEdge.translateToPlan(planner);
+        final RowType probeType = (RowType) probeEdge.getOutputType();
+        final RowType keyType =
+                RowType.of(
+                        IntStream.of(probeKeys)
+                                .mapToObj(probeType::getTypeAt)
+                                .toArray(LogicalType[]::new));
+        final GeneratedProjection probeProjection =
+                ProjectionCodeGenerator.generateProjection(
+                        new CodeGeneratorContext(config),
+                        "RuntimeFilterProbeProjection",
+                        probeType,
+                        keyType,
+                        probeKeys);
+        return ExecNodeUtil.createTwoInputTransformation(
+                filterTransform,
+                probeTransform,
+                createTransformationName(config),
+                createTransformationDescription(config),
+                new RuntimeFilterOperator(probeProjection),
+                InternalTypeInfo.of(getOutputType()),
+                probeTransform.getParallelism());
+    }
+}
@@ -23,18 +23,26 @@ import org.apache.flink.api.dag.Transformation;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.functions.source.InputFormatSourceFunction;
+import org.apache.flink.streaming.api.transformations.OneInputTransformation;
+import org.apache.flink.streaming.api.transformations.SourceTransformation;
+import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.planner.delegation.PlannerBase;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeConfig;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeContext;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
 import org.apache.flink.table.planner.plan.nodes.exec.common.CommonExecTableSourceScan;
 import org.apache.flink.table.planner.plan.nodes.exec.spec.DynamicTableSourceSpec;
 import org.apache.flink.table.planner.plan.nodes.exec.utils.ExecNodeUtil;
+import org.apache.flink.table.runtime.operators.dynamicfiltering.DynamicFilteringDataCollectorOperatorFactory;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.table.types.logical.RowType;
 
+import java.util.Collections;
+import java.util.UUID;
+
 /**
  * Batch {@link ExecNode} to read data from an external source defined by a bounded {@link
  * ScanTableSource}.
@@ -56,6 +64,26 @@ public class BatchExecTableSourceScan extends CommonExecTableSourceScan
                 description);
     }
 
+    /**
+     * Creates a scan whose source is filtered at runtime with the data of the {@link
+     * BatchExecDynamicFilteringDataCollector} connected to the given input.
+     */
+    public BatchExecTableSourceScan(
+            ReadableConfig tableConfig,
+            DynamicTableSourceSpec tableSourceSpec,
+            InputProperty inputProperty,
+            RowType outputType,
+            String description) {
+        super(
+                ExecNodeContext.newNodeId(),
+                ExecNodeContext.newContext(BatchExecTableSourceScan.class),
+                ExecNodeContext.newPersistedConfig(BatchExecTableSourceScan.class, tableConfig),
+                tableSourceSpec,
+                Collections.singletonList(inputProperty),
+                outputType,
+                description);
+    }
+
     @Override
     protected Transformation<RowData> translateToPlanInternal(
             PlannerBase planner, ExecNodeConfig config) {
@@ -64,9 +92,41 @@ public class BatchExecTableSourceScan extends CommonExecTableSourceScan
         // the boundedness has been checked via the runtime provider already, so we can safely
         // declare all legacy transformations as bounded to make the stream graph generator happy
         ExecNodeUtil.makeLegacySourceTransformationsBounded(transformation);
+        if (!getInputEdges().isEmpty()) {
+            registerDynamicFilteringDataListener(planner, transformation);
+        }
         return transformation;
     }
 
+    /**
+     * Lets the source coordinator of the given transformation listen to the data of the dynamic
+     * filtering data collector connected to the input of this node.
+     */
+    private void registerDynamicFilteringDataListener(
+            PlannerBase planner, Transformation<RowData> transformation) {
+        final Transformation<?> collectorTransform =
+                getInputEdges().get(0).translateToPlan(planner);
+        if (!(collectorTransform instanceof OneInputTransformation)
+                || !(((OneInputTransformation<?, ?>) collectorTransform).getOperatorFactory()
+                        instanceof DynamicFilteringDataCollectorOperatorFactory)) {
+            throw new TableException(
+                    "The input of a dynamically filtered scan must be a dynamic filtering "
+                            + "data collector. This is a bug and should not happen. "
+                            + "Please file an issue.");
+        }
+        if (!(transformation instanceof SourceTransformation)) {
+            // only the coordinators of FLIP-27 sources can receive the data, all the data of
+            // other sources is read
+            return;
+        }
+
+        final String listenerId = UUID.randomUUID().toString();
+        ((SourceTransformation<?, ?, ?>) transformation).setCoordinatorListeningID(listenerId);
+        ((DynamicFilteringDataCollectorOperatorFactory)
+                        ((OneInputTransformation<?, ?>) collectorTransform).getOperatorFactory())
+                .registerDynamicFilteringDataListenerID(listenerId);
+    }
+
     @Override
     public Transformation<RowData> createInputFormatTransformation(
             StreamExecutionEnvironment env,
@@ -69,6 +69,7 @@ import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupJoinRunne
 import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupJoinWithCalcRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinWithCalcRunner;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.LookupJoinCache;
 import org.apache.flink.table.runtime.types.PlannerTypeUtils;
 import org.apache.flink.table.runtime.types.TypeInfoDataTypeConverter;
 import org.apache.flink.table.runtime.typeutils.InternalSerializers;
@@ -225,6 +226,9 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
         }
 
         boolean isLeftOuterJoin = joinType == FlinkJoinType.LEFT;
+        LookupJoinCache lookupJoinCache =
+                LookupJoinUtil.createLookupJoinCache(
+                        temporalTable, lookupKeys, inputRowType, tableSourceRowType);
         StreamOperatorFactory<RowData> operatorFactory;
         if (isAsyncEnabled) {
             operatorFactory =
@@ -237,7 +241,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             inputRowType,
                             tableSourceRowType,
                             resultRowType,
-                            isLeftOuterJoin);
+                            isLeftOuterJoin,
+                            lookupJoinCache);
         } else {
             operatorFactory =
                     createSyncLookupJoin(
@@ -250,7 +255,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             tableSourceRowType,
                             resultRowType,
                             isLeftOuterJoin,
-                            planner.getExecEnv().getConfig().isObjectReuseEnabled());
+                            planner.getExecEnv().getConfig().isObjectReuseEnabled(),
+                            lookupJoinCache);
         }
 
         Transformation<RowData> inputTransformation =
@@ -307,7 +313,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
             RowType inputRowType,
             RowType tableSourceRowType,
             RowType resultRowType,
-            boolean isLeftOuterJoin) {
+            boolean isLeftOuterJoin,
+            @Nullable LookupJoinCache lookupJoinCache) {
 
         int asyncBufferCapacity =
                 config.get(ExecutionConfigOptions.TABLE_EXEC_ASYNC_LOOKUP_BUFFER_CAPACITY);
@@ -369,7 +376,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedResultFuture,
                             InternalSerializers.create(rightRowType),
                             isLeftOuterJoin,
-                            asyncBufferCapacity);
+                            asyncBufferCapacity,
+                            lookupJoinCache);
         } else {
             // right type is the same as table source row type, because no calc after temporal table
             asyncFunc =
@@ -379,7 +387,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedResultFuture,
                             InternalSerializers.create(rightRowType),
                             isLeftOuterJoin,
-                            asyncBufferCapacity);
+                            asyncBufferCapacity,
+                            lookupJoinCache);
         }
 
         // force ORDERED output mode currently, optimize it to UNORDERED
@@ -398,7 +407,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
             RowType tableSourceRowType,
             RowType resultRowType,
             boolean isLeftOuterJoin,
-            boolean isObjectReuseEnabled) {
+            boolean isObjectReuseEnabled,
+            @Nullable LookupJoinCache lookupJoinCache) {
 
         DataTypeFactory dataTypeFactory =
                 ShortcutUtils.unwrapContext(relBuilder).getCatalogManager().getDataTypeFactory();
@@ -455,7 +465,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedCalc,
                             generatedCollector,
                             isLeftOuterJoin,
-                            rightRowType.getFieldCount());
+                            rightRowType.getFieldCount(),
+                            lookupJoinCache);
         } else {
             // right type is the same as table source row type, because no calc after temporal table
             processFunc =
@@ -463,7 +474,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedFetcher,
                             generatedCollector,
                             isLeftOuterJoin,
-                            rightRowType.getFieldCount());
+                            rightRowType.getFieldCount(),
+                            lookupJoinCache);
         }
         return SimpleOperatorFactory.of(new ProcessOperator<>(processFunc));
     }
@@ -44,6 +44,7 @@ import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeConfig;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeContext;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
 import org.apache.flink.table.planner.plan.nodes.exec.MultipleTransformationTranslator;
 import org.apache.flink.table.planner.plan.nodes.exec.spec.DynamicTableSourceSpec;
 import org.apache.flink.table.planner.plan.nodes.exec.stream.StreamExecNode;
@@ -57,6 +58,7 @@ import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -79,7 +81,25 @@ public abstract class CommonExecTableSourceScan extends ExecNodeBase<RowData>
             DynamicTableSourceSpec tableSourceSpec,
             LogicalType outputType,
             String description) {
-        super(id, context, persistedConfig, Collections.emptyList(), outputType, description);
+        this(
+                id,
+                context,
+                persistedConfig,
+                tableSourceSpec,
+                Collections.emptyList(),
+                outputType,
+                description);
+    }
+
+    protected CommonExecTableSourceScan(
+            int id,
+            ExecNodeContext context,
+            ReadableConfig persistedConfig,
+            DynamicTableSourceSpec tableSourceSpec,
+            List<InputProperty> inputProperties,
+            LogicalType outputType,
+            String description) {
+        super(id, context, persistedConfig, inputProperties, outputType, description);
         this.tableSourceSpec = tableSourceSpec;
     }
 
@@ -29,7 +29,9 @@ import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
 import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
 import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecBoundedStreamScan;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecDynamicFilteringDataCollector;
 import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecMultipleInput;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecRuntimeFilter;
 import org.apache.flink.table.planner.plan.nodes.exec.common.CommonExecExchange;
 import org.apache.flink.table.planner.plan.nodes.exec.common.CommonExecTableSourceScan;
 import org.apache.flink.table.planner.plan.nodes.exec.common.CommonExecUnion;
@@ -189,6 +191,17 @@ public class MultipleInputNodeCreationProcessor implements ExecNodeGraphProcesso
             // exchange cannot be a member of multiple input node
             return false;
         }
+        if (wrapper.execNode instanceof CommonExecTableSourceScan
+                || wrapper.execNode instanceof BatchExecDynamicFilteringDataCollector) {
+            // the input of a dynamically filtered source is its data collector, which does not
+            // send any records, so neither of them can be a member of multiple input node
+            return false;
+        }
+        if (wrapper.execNode instanceof BatchExecRuntimeFilter) {
+            // runtime filter selects its inputs itself to read the whole filter first, while a
+            // multiple input node selects the inputs of its members by their priorities
+            return false;
+        }
 
         return true;
     }
@@ -439,6 +452,11 @@ public class MultipleInputNodeCreationProcessor implements ExecNodeGraphProcesso
             StreamExecDataStreamScan scan = (StreamExecDataStreamScan) node;
             return scan.getDataStream().getTransformation() instanceof SourceTransformation;
         } else if (node instanceof CommonExecTableSourceScan) {
+            if (!node.getInputEdges().isEmpty()) {
+                // a dynamically filtered source is connected to its data collector when it is
+                // translated, so it is not chained into a multiple input node
+                return false;
+            }
             // translateToPlan will cache the transformation,
             // this is OK because sources do not have any input so the transformation will never
             // change.
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.physical.batch;
+
+import org.apache.flink.table.planner.calcite.FlinkTypeFactory;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecDynamicFilteringDataCollector;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.SingleRel;
+import org.apache.calcite.rel.type.RelDataType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.apache.flink.table.planner.utils.ShortcutUtils.unwrapTableConfig;
+
+/**
+ * Batch physical RelNode that collects the values of the dynamic filtering fields on the build
+ * side of a join and sends them to the source coordinator of a {@link
+ * BatchPhysicalDynamicFilteringTableSourceScan}.
+ *
+ * <p>The node has no real output, it is consumed by the scan it filters.
+ */
+public class BatchPhysicalDynamicFilteringDataCollector extends SingleRel
+        implements BatchPhysicalRel {
+
+    private final int[] dynamicFilteringFieldIndices;
+
+    public BatchPhysicalDynamicFilteringDataCollector(
+            RelOptCluster cluster,
+            RelTraitSet traitSet,
+            RelNode input,
+            int[] dynamicFilteringFieldIndices) {
+        super(cluster, traitSet, input);
+        this.dynamicFilteringFieldIndices = dynamicFilteringFieldIndices;
+    }
+
+    public int[] getDynamicFilteringFieldIndices() {
+        return dynamicFilteringFieldIndices;
+    }
+
+    @Override
+    protected RelDataType deriveRowType() {
+        return getInput().getRowType();
+    }
+
+    @Override
+    public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
+        return new BatchPhysicalDynamicFilteringDataCollector(
+                getCluster(), traitSet, inputs.get(0), dynamicFilteringFieldIndices);
+    }
+
+    @Override
+    public RelWriter explainTerms(RelWriter pw) {
+        List<String> fieldNames = getInput().getRowType().getFieldNames();
+        return super.explainTerms(pw)
+                .item(
+                        "fields",
+                        Arrays.stream(dynamicFilteringFieldIndices)
+                                .mapToObj(fieldNames::get)
+                                .collect(Collectors.joining(", ")));
+    }
+
+    @Override
+    public ExecNode<?> translateToExecNode() {
+        return new BatchExecDynamicFilteringDataCollector(
+                unwrapTableConfig(this),
+                dynamicFilteringFieldIndices,
+                InputProperty.DEFAULT,
+                FlinkTypeFactory.toLogicalRowType(getRowType()),
+                getRelDetailedDescription());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.physical.batch;
+
+import org.apache.flink.table.connector.source.abilities.SupportsDynamicFiltering;
+import org.apache.flink.table.planner.calcite.FlinkTypeFactory;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecTableSourceScan;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.DynamicTableSourceSpec;
+import org.apache.flink.table.planner.plan.schema.TableSourceTable;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelShuttle;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.hint.RelHint;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.table.planner.utils.ShortcutUtils.unwrapTableConfig;
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Batch physical RelNode to read data from a {@link SupportsDynamicFiltering} source, whose data
+ * is filtered at runtime with the values collected by its input, a {@link
+ * BatchPhysicalDynamicFilteringDataCollector}.
+ *
+ * <p>The input carries no data into the scan, it only expresses that the scan depends on the
+ * build side of the join the collector belongs to.
+ */
+public class BatchPhysicalDynamicFilteringTableSourceScan extends BatchPhysicalTableSourceScan {
+
+    private RelNode input;
+
+    public BatchPhysicalDynamicFilteringTableSourceScan(
+            RelOptCluster cluster,
+            RelTraitSet traitSet,
+            List<RelHint> hints,
+            TableSourceTable tableSourceTable,
+            RelNode input) {
+        super(cluster, traitSet, hints, tableSourceTable);
+        this.input = input;
+    }
+
+    public RelNode getInput() {
+        return input;
+    }
+
+    @Override
+    public List<RelNode> getInputs() {
+        return Collections.singletonList(input);
+    }
+
+    @Override
+    public void replaceInput(int ordinalInParent, RelNode p) {
+        checkArgument(ordinalInParent == 0);
+        this.input = p;
+    }
+
+    @Override
+    public RelNode accept(RelShuttle shuttle) {
+        // visit as a generic node, so that the shuttle also visits the input
+        return shuttle.visit((RelNode) this);
+    }
+
+    @Override
+    public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
+        return new BatchPhysicalDynamicFilteringTableSourceScan(
+                getCluster(), traitSet, getHints(), tableSourceTable(), inputs.get(0));
+    }
+
+    @Override
+    public BatchPhysicalTableSourceScan copy(
+            RelTraitSet traitSet, TableSourceTable tableSourceTable) {
+        return new BatchPhysicalDynamicFilteringTableSourceScan(
+                getCluster(), traitSet, getHints(), tableSourceTable, input);
+    }
+
+    @Override
+    public RelWriter explainTerms(RelWriter pw) {
+        return super.explainTerms(pw).input("input", input);
+    }
+
+    @Override
+    public ExecNode<?> translateToExecNode() {
+        final TableSourceTable tableSourceTable = tableSourceTable();
+        final DynamicTableSourceSpec tableSourceSpec =
+                new DynamicTableSourceSpec(
+                        tableSourceTable.contextResolvedTable(),
+                        Arrays.asList(tableSourceTable.abilitySpecs()));
+        tableSourceSpec.setTableSource(tableSourceTable.tableSource());
+
+        // the collector does not send any data to the scan, the edge only keeps the build side
+        // and the scan apart when the deadlocks and the multiple input nodes are resolved
+        final InputProperty inputProperty =
+                InputProperty.builder()
+                        .damBehavior(InputProperty.DamBehavior.BLOCKING)
+                        .build();
+        return new BatchExecTableSourceScan(
+                unwrapTableConfig(this),
+                tableSourceSpec,
+                inputProperty,
+                FlinkTypeFactory.toLogicalRowType(getRowType()),
+                getRelDetailedDescription());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.physical.batch;
+
+import org.apache.flink.table.planner.calcite.FlinkTypeFactory;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecLocalRuntimeFilterBuilder;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarBinaryType;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.SingleRel;
+import org.apache.calcite.rel.type.RelDataType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.apache.flink.table.planner.utils.ShortcutUtils.unwrapTableConfig;
+
+/**
+ * Batch physical RelNode that builds a bloom filter of the join keys of one build side subtask of
+ * a hash join. Its output is a single row of the number of rows and the serialized filter.
+ */
+public class BatchPhysicalLocalRuntimeFilterBuilder extends SingleRel implements BatchPhysicalRel {
+
+    private final int[] buildKeys;
+    private final int estimatedRowCount;
+    private final int maxRowCount;
+
+    public BatchPhysicalLocalRuntimeFilterBuilder(
+            RelOptCluster cluster,
+            RelTraitSet traitSet,
+            RelNode input,
+            int[] buildKeys,
+            int estimatedRowCount,
+            int maxRowCount) {
+        super(cluster, traitSet, input);
+        this.buildKeys = buildKeys;
+        this.estimatedRowCount = estimatedRowCount;
+        this.maxRowCount = maxRowCount;
+    }
+
+    @Override
+    protected RelDataType deriveRowType() {
+        RowType filterRowType =
+                RowType.of(
+                        new LogicalType[] {
+                            new IntType(false), new VarBinaryType(VarBinaryType.MAX_LENGTH)
+                        },
+                        new String[] {"rowCount", "filter"});
+        return ((FlinkTypeFactory) getCluster().getTypeFactory())
+                .buildRelNodeRowType(filterRowType);
+    }
+
+    @Override
+    public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
+        return new BatchPhysicalLocalRuntimeFilterBuilder(
+                getCluster(), traitSet, inputs.get(0), buildKeys, estimatedRowCount, maxRowCount);
+    }
+
+    @Override
+    public RelWriter explainTerms(RelWriter pw) {
+        List<String> fieldNames = getInput().getRowType().getFieldNames();
+        return super.explainTerms(pw)
+                .item(
+                        "buildKeys",
+                        Arrays.stream(buildKeys)
+                                .mapToObj(fieldNames::get)
+                                .collect(Collectors.joining(", ")))
+                .item("estimatedRowCount", estimatedRowCount)
+                .item("maxRowCount", maxRowCount);
+    }
+
+    @Override
+    public ExecNode<?> translateToExecNode() {
+        return new BatchExecLocalRuntimeFilterBuilder(
+                unwrapTableConfig(this),
+                buildKeys,
+                estimatedRowCount,
+                maxRowCount,
+                InputProperty.DEFAULT,
+                FlinkTypeFactory.toLogicalRowType(getRowType()),
+                getRelDetailedDescription());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.physical.batch;
+
+import org.apache.flink.table.planner.calcite.FlinkTypeFactory;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecRuntimeFilter;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.BiRel;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.apache.flink.table.planner.utils.ShortcutUtils.unwrapTableConfig;
+
+/**
+ * Batch physical RelNode that drops the probe side rows of a hash join whose join keys are not in
+ * the bloom filter of the build side.
+ *
+ * <p>The left input is the broadcast filter built by a {@link
+ * BatchPhysicalGlobalRuntimeFilterBuilder}, the right input is the probe side, whose rows are
+ * forwarded unchanged.
+ */
+public class BatchPhysicalRuntimeFilter extends BiRel implements BatchPhysicalRel {
+
+    private final int[] probeKeys;
+
+    public BatchPhysicalRuntimeFilter(
+            RelOptCluster cluster,
+            RelTraitSet traitSet,
+            RelNode filter,
+            RelNode probe,
+            int[] probeKeys) {
+        super(cluster, traitSet, filter, probe);
+        this.probeKeys = probeKeys;
+    }
+
+    @Override
+    protected RelDataType deriveRowType() {
+        return getRight().getRowType();
+    }
+
+    @Override
+    public double estimateRowCount(RelMetadataQuery mq) {
+        return mq.getRowCount(getRight());
+    }
+
+    @Override
+    public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
+        return new BatchPhysicalRuntimeFilter(
+                getCluster(), traitSet, inputs.get(0), inputs.get(1), probeKeys);
+    }
+
+    @Override
+    public RelWriter explainTerms(RelWriter pw) {
+        List<String> fieldNames = getRight().getRowType().getFieldNames();
+        return super.explainTerms(pw)
+                .item(
+                        "probeKeys",
+                        Arrays.stream(probeKeys)
+                                .mapToObj(fieldNames::get)
+                                .collect(Collectors.joining(", ")));
+    }
+
+    @Override
+    public ExecNode<?> translateToExecNode() {
+        // the filter is read completely before the first probe side row
+        InputProperty filterInputProperty =
+                InputProperty.builder()
+                        .requiredDistribution(InputProperty.BROADCAST_DISTRIBUTION)
+                        .damBehavior(InputProperty.DamBehavior.END_INPUT)
+                        .priority(0)
+                        .build();
+        InputProperty probeInputProperty = InputProperty.builder().priority(1).build();
+        return new BatchExecRuntimeFilter(
+                unwrapTableConfig(this),
+                probeKeys,
+                filterInputProperty,
+                probeInputProperty,
+                FlinkTypeFactory.toLogicalRowType(getRowType()),
+                getRelDetailedDescription());
+    }
+}
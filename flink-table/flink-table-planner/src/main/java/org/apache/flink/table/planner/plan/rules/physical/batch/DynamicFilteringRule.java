@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.rules.physical.batch;
+
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.connector.source.DynamicTableSource;
+import org.apache.flink.table.connector.source.abilities.SupportsDynamicFiltering;
+import org.apache.flink.table.planner.calcite.FlinkTypeFactory;
+import org.apache.flink.table.planner.plan.abilities.source.FilterPushDownSpec;
+import org.apache.flink.table.planner.plan.abilities.source.PartitionPushDownSpec;
+import org.apache.flink.table.planner.plan.abilities.source.SourceAbilitySpec;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalCalc;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalDynamicFilteringDataCollector;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalDynamicFilteringTableSourceScan;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalExchange;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalHashJoin;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalTableSourceScan;
+import org.apache.flink.table.planner.plan.schema.TableSourceTable;
+import org.apache.flink.table.planner.utils.ShortcutUtils;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.hep.HepRelVertex;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexProgram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Planner rule that pushes the join key values of the build side of a {@link
+ * BatchPhysicalHashJoin} into the probe side {@link BatchPhysicalTableSourceScan} whose source
+ * supports {@link SupportsDynamicFiltering}. The {@link
+ * OptimizerConfigOptions#TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED} need to be true.
+ *
+ * <p>Suppose we have the original physical plan:
+ *
+ * <pre>{@code
+ * BatchPhysicalHashJoin (inner or semi, build side is the dimension side)
+ * :- BatchPhysicalExchange
+ * :  +- BatchPhysicalCalc (with filter)
+ * :     +- BatchPhysicalTableSourceScan (dimension table)
+ * +- BatchPhysicalExchange
+ *    +- BatchPhysicalTableSourceScan (fact table, supporting dynamic filtering)
+ * }</pre>
+ *
+ * <p>This physical plan will be rewritten to:
+ *
+ * <pre>{@code
+ * BatchPhysicalHashJoin
+ * :- BatchPhysicalExchange
+ * :  +- BatchPhysicalCalc (with filter)
+ * :     +- BatchPhysicalTableSourceScan (dimension table)
+ * +- BatchPhysicalExchange
+ *    +- BatchPhysicalDynamicFilteringTableSourceScan (fact table)
+ *       +- BatchPhysicalDynamicFilteringDataCollector
+ *          +- BatchPhysicalCalc (with filter, reused)
+ * }</pre>
+ *
+ * <p>The probe side may contain exchanges and calcs which only forward the filtering fields
+ * between the join and the scan. The build side must contain a filter, otherwise it is unlikely
+ * that any data of the probe side can be skipped.
+ */
+public class DynamicFilteringRule extends RelOptRule {
+
+    public static final DynamicFilteringRule INSTANCE = new DynamicFilteringRule();
+
+    public DynamicFilteringRule() {
+        super(operand(BatchPhysicalHashJoin.class, any()), "DynamicFilteringRule");
+    }
+
+    @Override
+    public boolean matches(RelOptRuleCall call) {
+        if (!ShortcutUtils.unwrapTableConfig(call)
+                .get(OptimizerConfigOptions.TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED)) {
+            return false;
+        }
+        BatchPhysicalHashJoin join = call.rel(0);
+        JoinRelType joinType = join.getJoinType();
+        if (joinType != JoinRelType.INNER && joinType != JoinRelType.SEMI) {
+            return false;
+        }
+        JoinInfo joinInfo = join.analyzeCondition();
+        if (joinInfo.leftKeys.isEmpty()) {
+            return false;
+        }
+        List<RelNode> probePath = findProbePath(getProbeInput(join));
+        return probePath != null && hasFilter(getBuildInput(join));
+    }
+
+    @Override
+    public void onMatch(RelOptRuleCall call) {
+        BatchPhysicalHashJoin join = call.rel(0);
+        List<RelNode> probePath = findProbePath(getProbeInput(join));
+        BatchPhysicalTableSourceScan scan =
+                (BatchPhysicalTableSourceScan) probePath.get(probePath.size() - 1);
+        TableSourceTable tableSourceTable = scan.tableSourceTable();
+        List<String> acceptedFields =
+                ((SupportsDynamicFiltering) tableSourceTable.tableSource())
+                        .listAcceptedFilterFields();
+
+        JoinInfo joinInfo = join.analyzeCondition();
+        List<Integer> buildKeys = join.leftIsBuild() ? joinInfo.leftKeys : joinInfo.rightKeys;
+        List<Integer> probeKeys = join.leftIsBuild() ? joinInfo.rightKeys : joinInfo.leftKeys;
+        // the data is collected before it is shuffled to the join
+        RelNode buildInput = join.leftIsBuild() ? join.getLeft() : join.getRight();
+        RelNode collectorInput =
+                unwrap(buildInput) instanceof BatchPhysicalExchange
+                        ? ((BatchPhysicalExchange) unwrap(buildInput)).getInput()
+                        : buildInput;
+
+        List<String> filterFields = new ArrayList<>();
+        List<Integer> filterFieldIndices = new ArrayList<>();
+        for (int i = 0; i < probeKeys.size(); i++) {
+            int scanIndex = mapToScanIndex(probePath, probeKeys.get(i));
+            if (scanIndex < 0) {
+                continue;
+            }
+            String fieldName = scan.getRowType().getFieldNames().get(scanIndex);
+            LogicalType scanType =
+                    FlinkTypeFactory.toLogicalType(
+                            scan.getRowType().getFieldList().get(scanIndex).getType());
+            LogicalType buildType =
+                    FlinkTypeFactory.toLogicalType(
+                            collectorInput
+                                    .getRowType()
+                                    .getFieldList()
+                                    .get(buildKeys.get(i))
+                                    .getType());
+            if (acceptedFields.contains(fieldName)
+                    && !filterFields.contains(fieldName)
+                    && scanType.copy(true).equals(buildType.copy(true))) {
+                filterFields.add(fieldName);
+                filterFieldIndices.add(buildKeys.get(i));
+            }
+        }
+        if (filterFields.isEmpty()) {
+            return;
+        }
+
+        BatchPhysicalDynamicFilteringDataCollector collector =
+                new BatchPhysicalDynamicFilteringDataCollector(
+                        collectorInput.getCluster(),
+                        collectorInput.getTraitSet(),
+                        collectorInput,
+                        filterFieldIndices.stream().mapToInt(Integer::intValue).toArray());
+
+        DynamicTableSource newTableSource = tableSourceTable.tableSource().copy();
+        ((SupportsDynamicFiltering) newTableSource).applyDynamicFiltering(filterFields);
+        TableSourceTable newTableSourceTable =
+                tableSourceTable.copy(
+                        newTableSource, tableSourceTable.getStatistic(), new SourceAbilitySpec[0]);
+        RelNode newInput =
+                new BatchPhysicalDynamicFilteringTableSourceScan(
+                        scan.getCluster(),
+                        scan.getTraitSet(),
+                        scan.getHints(),
+                        newTableSourceTable,
+                        collector);
+
+        // rebuild the probe side from the scan up to the join
+        for (int i = probePath.size() - 2; i >= 0; i--) {
+            RelNode node = probePath.get(i);
+            newInput = node.copy(node.getTraitSet(), Collections.singletonList(newInput));
+        }
+        RelNode newLeft = join.leftIsBuild() ? join.getLeft() : newInput;
+        RelNode newRight = join.leftIsBuild() ? newInput : join.getRight();
+        call.transformTo(join.copy(join.getTraitSet(), Arrays.asList(newLeft, newRight)));
+    }
+
+    private static RelNode getBuildInput(BatchPhysicalHashJoin join) {
+        return unwrap(join.leftIsBuild() ? join.getLeft() : join.getRight());
+    }
+
+    private static RelNode getProbeInput(BatchPhysicalHashJoin join) {
+        return unwrap(join.leftIsBuild() ? join.getRight() : join.getLeft());
+    }
+
+    /**
+     * Returns the nodes from the probe input down to a scan which supports dynamic filtering, or
+     * null if there is no such scan. Only exchanges and calcs are allowed in between.
+     */
+    private static List<RelNode> findProbePath(RelNode probeInput) {
+        List<RelNode> path = new ArrayList<>();
+        RelNode node = probeInput;
+        while (node instanceof BatchPhysicalExchange || node instanceof BatchPhysicalCalc) {
+            path.add(node);
+            node = unwrap(node.getInput(0));
+        }
+        if (!(node instanceof BatchPhysicalTableSourceScan)
+                || node instanceof BatchPhysicalDynamicFilteringTableSourceScan) {
+            return null;
+        }
+        DynamicTableSource tableSource =
+                ((BatchPhysicalTableSourceScan) node).tableSourceTable().tableSource();
+        if (!(tableSource instanceof SupportsDynamicFiltering)) {
+            return null;
+        }
+        path.add(node);
+        return path;
+    }
+
+    /**
+     * Maps the index of a field of the probe input to the index of the field of the scan, returns
+     * -1 if the field is not forwarded from the scan as it is.
+     */
+    private static int mapToScanIndex(List<RelNode> probePath, int index) {
+        for (int i = 0; i < probePath.size() - 1; i++) {
+            RelNode node = probePath.get(i);
+            if (node instanceof BatchPhysicalCalc) {
+                RexProgram program = ((BatchPhysicalCalc) node).getProgram();
+                RexNode expr = program.expandLocalRef(program.getProjectList().get(index));
+                if (!(expr instanceof RexInputRef)) {
+                    return -1;
+                }
+                index = ((RexInputRef) expr).getIndex();
+            }
+        }
+        return index;
+    }
+
+    /** Returns whether the data of the given node is filtered, i.e. it is a selective side. */
+    private static boolean hasFilter(RelNode node) {
+        if (node instanceof BatchPhysicalCalc
+                && ((BatchPhysicalCalc) node).getProgram().getCondition() != null) {
+            return true;
+        }
+        if (node instanceof BatchPhysicalTableSourceScan) {
+            SourceAbilitySpec[] specs =
+                    ((BatchPhysicalTableSourceScan) node).tableSourceTable().abilitySpecs();
+            return Arrays.stream(specs)
+                    .anyMatch(
+                            spec ->
+                                    spec instanceof FilterPushDownSpec
+                                            || spec instanceof PartitionPushDownSpec);
+        }
+        return node.getInputs().stream().anyMatch(input -> hasFilter(unwrap(input)));
+    }
+
+    private static RelNode unwrap(RelNode node) {
+        return node instanceof HepRelVertex ? ((HepRelVertex) node).getCurrentRel() : node;
+    }
+}
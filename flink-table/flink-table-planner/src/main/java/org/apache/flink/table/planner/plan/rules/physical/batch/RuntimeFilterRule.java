@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.rules.physical.batch;
+
+import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.planner.calcite.FlinkTypeFactory;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalExchange;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalGlobalRuntimeFilterBuilder;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalHashJoin;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalLocalRuntimeFilterBuilder;
+import org.apache.flink.table.planner.plan.nodes.physical.batch.BatchPhysicalRuntimeFilter;
+import org.apache.flink.table.planner.plan.trait.FlinkRelDistribution;
+import org.apache.flink.table.planner.utils.ShortcutUtils;
+import org.apache.flink.table.types.logical.LogicalType;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.hep.HepRelVertex;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.table.api.config.OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED;
+import static org.apache.flink.table.api.config.OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT;
+import static org.apache.flink.table.api.config.OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_MIN_PROBE_ROW_COUNT;
+
+/**
+ * Planner rule that drops the probe side rows of a shuffled {@link BatchPhysicalHashJoin} which
+ * can not be joined before they are shuffled, using a bloom filter of the build side join keys.
+ * The {@link OptimizerConfigOptions#TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED} need to be true.
+ *
+ * <p>Suppose we have the original physical plan:
+ *
+ * <pre>{@code
+ * BatchPhysicalHashJoin (inner or semi)
+ * :- BatchPhysicalExchange (hash)
+ * :  +- (build side)
+ * +- BatchPhysicalExchange (hash)
+ *    +- (probe side)
+ * }</pre>
+ *
+ * <p>This physical plan will be rewritten to:
+ *
+ * <pre>{@code
+ * BatchPhysicalHashJoin
+ * :- BatchPhysicalExchange (hash)
+ * :  +- (build side)
+ * +- BatchPhysicalExchange (hash)
+ *    +- BatchPhysicalRuntimeFilter
+ *       :- BatchPhysicalExchange (broadcast)
+ *       :  +- BatchPhysicalGlobalRuntimeFilterBuilder
+ *       :     +- BatchPhysicalExchange (singleton)
+ *       :        +- BatchPhysicalLocalRuntimeFilterBuilder
+ *       :           +- (build side, reused)
+ *       +- (probe side)
+ * }</pre>
+ *
+ * <p>The rule only applies if the estimated row count of the build side is at most {@link
+ * OptimizerConfigOptions#TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT} and the estimated row
+ * count of the probe side is at least {@link
+ * OptimizerConfigOptions#TABLE_OPTIMIZER_RUNTIME_FILTER_MIN_PROBE_ROW_COUNT}. Broadcast joins do
+ * not shuffle their probe side, so they are not filtered.
+ */
+public class RuntimeFilterRule extends RelOptRule {
+
+    public static final RuntimeFilterRule INSTANCE = new RuntimeFilterRule();
+
+    public RuntimeFilterRule() {
+        super(operand(BatchPhysicalHashJoin.class, any()), "RuntimeFilterRule");
+    }
+
+    @Override
+    public boolean matches(RelOptRuleCall call) {
+        ReadableConfig config = ShortcutUtils.unwrapTableConfig(call);
+        if (!config.get(TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED)) {
+            return false;
+        }
+        BatchPhysicalHashJoin join = call.rel(0);
+        JoinRelType joinType = join.getJoinType();
+        if (join.isBroadcast()
+                || (joinType != JoinRelType.INNER && joinType != JoinRelType.SEMI)) {
+            return false;
+        }
+        JoinInfo joinInfo = join.analyzeCondition();
+        if (joinInfo.leftKeys.isEmpty() || !haveSameKeyTypes(join, joinInfo)) {
+            return false;
+        }
+
+        RelNode probeInput = unwrap(join.leftIsBuild() ? join.getRight() : join.getLeft());
+        if (!(probeInput instanceof BatchPhysicalExchange)
+                || unwrap(probeInput.getInput(0)) instanceof BatchPhysicalRuntimeFilter) {
+            return false;
+        }
+
+        RelNode buildInput = join.leftIsBuild() ? join.getLeft() : join.getRight();
+        RelMetadataQuery mq = call.getMetadataQuery();
+        Double buildRowCount = mq.getRowCount(buildInput);
+        Double probeRowCount = mq.getRowCount(probeInput);
+        int maxBuildRowCount = config.get(TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT);
+        long minProbeRowCount = config.get(TABLE_OPTIMIZER_RUNTIME_FILTER_MIN_PROBE_ROW_COUNT);
+        return buildRowCount != null
+                && probeRowCount != null
+                && buildRowCount <= maxBuildRowCount
+                && probeRowCount >= minProbeRowCount;
+    }
+
+    @Override
+    public void onMatch(RelOptRuleCall call) {
+        BatchPhysicalHashJoin join = call.rel(0);
+        RelOptCluster cluster = join.getCluster();
+        int maxBuildRowCount =
+                ShortcutUtils.unwrapTableConfig(call)
+                        .get(TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT);
+
+        JoinInfo joinInfo = join.analyzeCondition();
+        List<Integer> buildKeys = join.leftIsBuild() ? joinInfo.leftKeys : joinInfo.rightKeys;
+        List<Integer> probeKeys = join.leftIsBuild() ? joinInfo.rightKeys : joinInfo.leftKeys;
+
+        // the filter is built before the build side is shuffled to the join
+        RelNode buildInput = join.leftIsBuild() ? join.getLeft() : join.getRight();
+        RelNode builderInput =
+                unwrap(buildInput) instanceof BatchPhysicalExchange
+                        ? unwrap(buildInput).getInput(0)
+                        : buildInput;
+        double buildRowCount = call.getMetadataQuery().getRowCount(buildInput);
+        int estimatedRowCount = (int) Math.max(1, Math.min(buildRowCount, maxBuildRowCount));
+
+        RelNode localBuilder =
+                new BatchPhysicalLocalRuntimeFilterBuilder(
+                        cluster,
+                        builderInput.getTraitSet().replace(FlinkRelDistribution.ANY()),
+                        builderInput,
+                        toArray(buildKeys),
+                        estimatedRowCount,
+                        maxBuildRowCount);
+        RelNode singletonExchange =
+                new BatchPhysicalExchange(
+                        cluster,
+                        localBuilder.getTraitSet().replace(FlinkRelDistribution.SINGLETON()),
+                        localBuilder,
+                        FlinkRelDistribution.SINGLETON());
+        RelNode globalBuilder =
+                new BatchPhysicalGlobalRuntimeFilterBuilder(
+                        cluster,
+                        singletonExchange.getTraitSet(),
+                        singletonExchange,
+                        maxBuildRowCount);
+        RelNode broadcastExchange =
+                new BatchPhysicalExchange(
+                        cluster,
+                        globalBuilder
+                                .getTraitSet()
+                                .replace(FlinkRelDistribution.BROADCAST_DISTRIBUTED()),
+                        globalBuilder,
+                        FlinkRelDistribution.BROADCAST_DISTRIBUTED());
+
+        // the probe side is filtered before it is shuffled to the join
+        RelNode probeExchange = unwrap(join.leftIsBuild() ? join.getRight() : join.getLeft());
+        RelNode probe = probeExchange.getInput(0);
+        RelNode runtimeFilter =
+                new BatchPhysicalRuntimeFilter(
+                        cluster, probe.getTraitSet(), broadcastExchange, probe, toArray(probeKeys));
+        RelNode newProbeExchange =
+                probeExchange.copy(
+                        probeExchange.getTraitSet(), Collections.singletonList(runtimeFilter));
+
+        RelNode newLeft = join.leftIsBuild() ? join.getLeft() : newProbeExchange;
+        RelNode newRight = join.leftIsBuild() ? newProbeExchange : join.getRight();
+        call.transformTo(join.copy(join.getTraitSet(), Arrays.asList(newLeft, newRight)));
+    }
+
+    /** The build and probe keys are hashed the same way only if they have the same types. */
+    private static boolean haveSameKeyTypes(BatchPhysicalHashJoin join, JoinInfo joinInfo) {
+        for (int i = 0; i < joinInfo.leftKeys.size(); i++) {
+            LogicalType leftType =
+                    FlinkTypeFactory.toLogicalType(
+                            join.getLeft()
+                                    .getRowType()
+                                    .getFieldList()
+                                    .get(joinInfo.leftKeys.get(i))
+                                    .getType());
+            LogicalType rightType =
+                    FlinkTypeFactory.toLogicalType(
+                            join.getRight()
+                                    .getRowType()
+                                    .getFieldList()
+                                    .get(joinInfo.rightKeys.get(i))
+                                    .getType());
+            if (!leftType.copy(true).equals(rightType.copy(true))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] toArray(List<Integer> keys) {
+        return keys.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static RelNode unwrap(RelNode node) {
+        return node instanceof HepRelVertex ? ((HepRelVertex) node).getCurrentRel() : node;
+    }
+}
@@ -19,16 +19,30 @@
 package org.apache.flink.table.planner.plan.utils;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.io.InputFormat;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.connector.source.AsyncTableFunctionProvider;
+import org.apache.flink.table.connector.source.DynamicTableSource;
+import org.apache.flink.table.connector.source.InputFormatProvider;
 import org.apache.flink.table.connector.source.LookupTableSource;
+import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.connector.source.TableFunctionProvider;
+import org.apache.flink.table.connector.source.lookup.LookupOptions;
+import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.functions.UserDefinedFunction;
 import org.apache.flink.table.planner.plan.schema.LegacyTableSourceTable;
 import org.apache.flink.table.planner.plan.schema.TableSourceTable;
 import org.apache.flink.table.runtime.connector.source.LookupRuntimeProviderContext;
+import org.apache.flink.table.runtime.connector.source.ScanRuntimeProviderContext;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.FullLookupCache;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.LookupCache;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.LookupJoinCache;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.PartialLookupCache;
 import org.apache.flink.table.sources.LookupableTableSource;
 import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
 
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonCreator;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -40,9 +54,12 @@ import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonTyp
 import org.apache.calcite.plan.RelOptTable;
 import org.apache.calcite.rex.RexLiteral;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.IntStream;
 
@@ -191,4 +208,102 @@ public final class LookupJoinUtil {
                         "table %s is neither TableSourceTable not LegacyTableSourceTable",
                         temporalTable.getQualifiedName()));
     }
+
+    /**
+     * Creates the lookup cache configured by the {@link LookupOptions} of the temporal table, or
+     * returns {@code null} if the table doesn't use a cache.
+     */
+    @Nullable
+    public static LookupJoinCache createLookupJoinCache(
+            RelOptTable temporalTable,
+            Map<Integer, LookupKey> allLookupKeys,
+            RowType inputRowType,
+            RowType tableSourceRowType) {
+        if (!(temporalTable instanceof TableSourceTable)) {
+            // legacy lookupable table sources maintain their own caches
+            return null;
+        }
+        TableSourceTable tableSourceTable = (TableSourceTable) temporalTable;
+        Configuration options =
+                Configuration.fromMap(
+                        tableSourceTable.contextResolvedTable().getResolvedTable().getOptions());
+        LookupOptions.LookupCacheType cacheType = options.get(LookupOptions.CACHE_TYPE);
+        if (cacheType == LookupOptions.LookupCacheType.NONE) {
+            return null;
+        }
+
+        // constant lookup keys are the same for all input rows, only field references are keys
+        List<Integer> keyIndicesInTable = new ArrayList<>();
+        List<Integer> keyIndicesInInput = new ArrayList<>();
+        for (int keyIndex : getOrderedLookupKeys(allLookupKeys.keySet())) {
+            LookupKey lookupKey = allLookupKeys.get(keyIndex);
+            if (lookupKey instanceof FieldRefLookupKey) {
+                keyIndicesInTable.add(keyIndex);
+                keyIndicesInInput.add(((FieldRefLookupKey) lookupKey).index);
+            }
+        }
+        if (keyIndicesInTable.isEmpty()) {
+            return null;
+        }
+        int[] lookupKeyIndicesInTable = keyIndicesInTable.stream().mapToInt(i -> i).toArray();
+
+        LookupCache cache;
+        if (cacheType == LookupOptions.LookupCacheType.PARTIAL) {
+            PartialLookupCache.Builder builder = PartialLookupCache.newBuilder();
+            options.getOptional(LookupOptions.PARTIAL_CACHE_MAX_ROWS)
+                    .ifPresent(builder::maximumSize);
+            options.getOptional(LookupOptions.PARTIAL_CACHE_EXPIRE_AFTER_WRITE)
+                    .ifPresent(builder::expireAfterWrite);
+            options.getOptional(LookupOptions.PARTIAL_CACHE_EXPIRE_AFTER_ACCESS)
+                    .ifPresent(builder::expireAfterAccess);
+            builder.cacheMissingKey(options.get(LookupOptions.PARTIAL_CACHE_CACHE_MISSING_KEY));
+            try {
+                cache = builder.build();
+            } catch (IllegalArgumentException e) {
+                throw new TableException(
+                        String.format(
+                                "Invalid partial lookup cache options of table %s.",
+                                tableSourceTable.contextResolvedTable().getIdentifier()),
+                        e);
+            }
+        } else {
+            if (keyIndicesInTable.size() != allLookupKeys.size()) {
+                throw new TableException(
+                        String.format(
+                                "The full lookup cache of table %s doesn't support constant lookup keys.",
+                                tableSourceTable.contextResolvedTable().getIdentifier()));
+            }
+            cache =
+                    new FullLookupCache(
+                            getScanInputFormat(tableSourceTable),
+                            tableSourceRowType,
+                            lookupKeyIndicesInTable,
+                            options.get(LookupOptions.FULL_CACHE_RELOAD_INTERVAL));
+        }
+        return new LookupJoinCache(
+                cache,
+                inputRowType,
+                keyIndicesInInput.stream().mapToInt(i -> i).toArray(),
+                LookupJoinCache.keyType(tableSourceRowType, lookupKeyIndicesInTable),
+                tableSourceRowType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InputFormat<RowData, InputSplit> getScanInputFormat(
+            TableSourceTable tableSourceTable) {
+        DynamicTableSource tableSource = tableSourceTable.tableSource();
+        if (tableSource instanceof ScanTableSource) {
+            ScanTableSource.ScanRuntimeProvider provider =
+                    ((ScanTableSource) tableSource)
+                            .getScanRuntimeProvider(ScanRuntimeProviderContext.INSTANCE);
+            if (provider instanceof InputFormatProvider) {
+                return (InputFormat<RowData, InputSplit>)
+                        ((InputFormatProvider) provider).createInputFormat();
+            }
+        }
+        throw new TableException(
+                String.format(
+                        "The full lookup cache requires table %s to be scannable with an InputFormat.",
+                        tableSourceTable.contextResolvedTable().getIdentifier()));
+    }
 }
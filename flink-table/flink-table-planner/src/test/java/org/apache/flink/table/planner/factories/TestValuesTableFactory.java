@@ -57,6 +57,7 @@ import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.connector.source.SourceFunctionProvider;
 import org.apache.flink.table.connector.source.TableFunctionProvider;
 import org.apache.flink.table.connector.source.abilities.SupportsAggregatePushDown;
+import org.apache.flink.table.connector.source.abilities.SupportsDynamicFiltering;
 import org.apache.flink.table.connector.source.abilities.SupportsFilterPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsLimitPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsPartitionPushDown;
@@ -724,7 +725,8 @@ public final class TestValuesTableFactory
                     SupportsLimitPushDown,
                     SupportsPartitionPushDown,
                     SupportsReadingMetadata,
-                    SupportsAggregatePushDown {
+                    SupportsAggregatePushDown,
+                    SupportsDynamicFiltering {
 
         protected DataType producedDataType;
         protected final ChangelogMode changelogMode;
@@ -1113,6 +1115,20 @@ public final class TestValuesTableFactory
             this.data = pruneDataByRemainingPartitions(remainingPartitions, this.data);
         }
 
+        @Override
+        public List<String> listAcceptedFilterFields() {
+            if (allPartitions.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(allPartitions.get(0).keySet());
+        }
+
+        @Override
+        public void applyDynamicFiltering(List<String> candidateFilterFields) {
+            // the runtime sources of this connector can not receive the dynamic filtering data,
+            // all partitions are read
+        }
+
         private Map<Map<String, String>, Collection<Row>> pruneDataByRemainingPartitions(
                 List<Map<String, String>> remainingPartitions,
                 Map<Map<String, String>, Collection<Row>> allData) {
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.rules.physical.batch;
+
+import org.apache.flink.table.api.TableConfig;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.planner.utils.BatchTableTestUtil;
+import org.apache.flink.table.planner.utils.TableTestBase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link DynamicFilteringRule}. */
+public class DynamicFilteringRuleTest extends TableTestBase {
+
+    private final BatchTableTestUtil util = batchTestUtil(TableConfig.getDefault());
+
+    @Before
+    public void setup() {
+        TableConfig tableConfig = util.tableEnv().getConfig();
+        tableConfig.set(OptimizerConfigOptions.TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED, true);
+        tableConfig.set(
+                ExecutionConfigOptions.TABLE_EXEC_DISABLED_OPERATORS,
+                "NestedLoopJoin,SortMergeJoin");
+        util.tableEnv()
+                .executeSql(
+                        "CREATE TABLE fact (\n"
+                                + "  id BIGINT,\n"
+                                + "  amount BIGINT,\n"
+                                + "  fact_date_sk BIGINT\n"
+                                + ") PARTITIONED BY (fact_date_sk)\n"
+                                + "WITH (\n"
+                                + " 'connector' = 'values',\n"
+                                + " 'partition-list' = 'fact_date_sk:1990;fact_date_sk:1991',\n"
+                                + " 'bounded' = 'true'\n"
+                                + ")");
+        util.tableEnv()
+                .executeSql(
+                        "CREATE TABLE dim (\n"
+                                + "  id BIGINT,\n"
+                                + "  dim_date_sk BIGINT,\n"
+                                + "  dim_year INT\n"
+                                + ") WITH (\n"
+                                + " 'connector' = 'values',\n"
+                                + " 'bounded' = 'true'\n"
+                                + ")");
+    }
+
+    @Test
+    public void testInnerJoinOnPartitionKey() {
+        String plan =
+                explain(
+                        "SELECT * FROM fact, dim "
+                                + "WHERE fact_date_sk = dim_date_sk AND dim_year = 1990");
+        assertThat(plan)
+                .contains(
+                        "DynamicFilteringTableSourceScan(table=[[default_catalog, "
+                                + "default_database, fact")
+                .contains("DynamicFilteringDataCollector(fields=[dim_date_sk])");
+    }
+
+    @Test
+    public void testSemiJoinOnPartitionKey() {
+        String plan =
+                explain(
+                        "SELECT * FROM fact WHERE fact_date_sk IN "
+                                + "(SELECT dim_date_sk FROM dim WHERE dim_year = 1990)");
+        assertThat(plan).contains("DynamicFilteringDataCollector(fields=[dim_date_sk])");
+    }
+
+    @Test
+    public void testProbeSideWithProjection() {
+        String plan =
+                explain(
+                        "SELECT * FROM (SELECT fact_date_sk AS sk, amount FROM fact) f, dim "
+                                + "WHERE sk = dim_date_sk AND dim_year = 1990");
+        assertThat(plan).contains("DynamicFilteringDataCollector(fields=[dim_date_sk])");
+    }
+
+    @Test
+    public void testNoFilterOnBuildSide() {
+        String plan = explain("SELECT * FROM fact, dim WHERE fact_date_sk = dim_date_sk");
+        assertThat(plan).doesNotContain("DynamicFiltering");
+    }
+
+    @Test
+    public void testJoinOnNonPartitionKey() {
+        String plan = explain("SELECT * FROM fact, dim WHERE fact.id = dim.id AND dim_year = 1990");
+        assertThat(plan).doesNotContain("DynamicFiltering");
+    }
+
+    @Test
+    public void testJoinOnComputedKey() {
+        String plan =
+                explain(
+                        "SELECT * FROM fact, dim "
+                                + "WHERE fact_date_sk + 1 = dim_date_sk AND dim_year = 1990");
+        assertThat(plan).doesNotContain("DynamicFiltering");
+    }
+
+    @Test
+    public void testLeftOuterJoin() {
+        String plan =
+                explain(
+                        "SELECT * FROM fact LEFT JOIN dim ON fact_date_sk = dim_date_sk "
+                                + "WHERE dim_year = 1990 OR dim_year IS NULL");
+        assertThat(plan).doesNotContain("DynamicFiltering");
+    }
+
+    @Test
+    public void testDisabled() {
+        util.tableEnv()
+                .getConfig()
+                .set(OptimizerConfigOptions.TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED, false);
+        String plan =
+                explain(
+                        "SELECT * FROM fact, dim "
+                                + "WHERE fact_date_sk = dim_date_sk AND dim_year = 1990");
+        assertThat(plan).doesNotContain("DynamicFiltering");
+    }
+
+    private String explain(String query) {
+        return util.tableEnv().explainSql(query);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.rules.physical.batch;
+
+import org.apache.flink.table.api.TableConfig;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.planner.utils.BatchTableTestUtil;
+import org.apache.flink.table.planner.utils.TableTestBase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link RuntimeFilterRule}. */
+public class RuntimeFilterRuleTest extends TableTestBase {
+
+    private final BatchTableTestUtil util = batchTestUtil(TableConfig.getDefault());
+
+    @Before
+    public void setup() {
+        TableConfig tableConfig = util.tableEnv().getConfig();
+        tableConfig.set(OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED, true);
+        // the tables have no statistics, so their estimated row count is large
+        tableConfig.set(
+                OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT,
+                Integer.MAX_VALUE);
+        tableConfig.set(
+                ExecutionConfigOptions.TABLE_EXEC_DISABLED_OPERATORS,
+                "NestedLoopJoin,SortMergeJoin");
+        util.tableEnv()
+                .executeSql(
+                        "CREATE TABLE fact (\n"
+                                + "  id BIGINT,\n"
+                                + "  amount BIGINT\n"
+                                + ") WITH (\n"
+                                + " 'connector' = 'values',\n"
+                                + " 'bounded' = 'true'\n"
+                                + ")");
+        util.tableEnv()
+                .executeSql(
+                        "CREATE TABLE dim (\n"
+                                + "  id BIGINT,\n"
+                                + "  name STRING,\n"
+                                + "  dim_year INT\n"
+                                + ") WITH (\n"
+                                + " 'connector' = 'values',\n"
+                                + " 'bounded' = 'true'\n"
+                                + ")");
+    }
+
+    @Test
+    public void testInnerJoin() {
+        String plan = explain("SELECT * FROM fact, dim WHERE fact.id = dim.id AND dim_year = 1990");
+        assertThat(plan)
+                .contains("RuntimeFilter(probeKeys=[id])")
+                .contains("GlobalRuntimeFilterBuilder(maxRowCount=[2147483647])")
+                .contains("LocalRuntimeFilterBuilder(buildKeys=[id]");
+    }
+
+    @Test
+    public void testSemiJoin() {
+        String plan =
+                explain(
+                        "SELECT * FROM fact WHERE id IN "
+                                + "(SELECT id FROM dim WHERE dim_year = 1990)");
+        assertThat(plan).contains("RuntimeFilter(probeKeys=[id])");
+    }
+
+    @Test
+    public void testLeftOuterJoin() {
+        String plan =
+                explain(
+                        "SELECT * FROM fact LEFT JOIN dim ON fact.id = dim.id "
+                                + "WHERE dim_year = 1990 OR dim_year IS NULL");
+        assertThat(plan).doesNotContain("RuntimeFilter");
+    }
+
+    @Test
+    public void testBroadcastJoin() {
+        util.tableEnv()
+                .getConfig()
+                .set(
+                        OptimizerConfigOptions.TABLE_OPTIMIZER_BROADCAST_JOIN_THRESHOLD,
+                        Long.MAX_VALUE);
+        String plan = explain("SELECT * FROM fact, dim WHERE fact.id = dim.id AND dim_year = 1990");
+        assertThat(plan).doesNotContain("RuntimeFilter");
+    }
+
+    @Test
+    public void testBuildSideTooLarge() {
+        util.tableEnv()
+                .getConfig()
+                .set(
+                        OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT,
+                        1000);
+        String plan = explain("SELECT * FROM fact, dim WHERE fact.id = dim.id AND dim_year = 1990");
+        assertThat(plan).doesNotContain("RuntimeFilter");
+    }
+
+    @Test
+    public void testProbeSideTooSmall() {
+        util.tableEnv()
+                .getConfig()
+                .set(
+                        OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_MIN_PROBE_ROW_COUNT,
+                        Long.MAX_VALUE);
+        String plan = explain("SELECT * FROM fact, dim WHERE fact.id = dim.id AND dim_year = 1990");
+        assertThat(plan).doesNotContain("RuntimeFilter");
+    }
+
+    @Test
+    public void testDisabled() {
+        util.tableEnv()
+                .getConfig()
+                .set(OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED, false);
+        String plan = explain("SELECT * FROM fact, dim WHERE fact.id = dim.id AND dim_year = 1990");
+        assertThat(plan).doesNotContain("RuntimeFilter");
+    }
+
+    private String explain(String query) {
+        return util.tableEnv().explainSql(query);
+    }
+}
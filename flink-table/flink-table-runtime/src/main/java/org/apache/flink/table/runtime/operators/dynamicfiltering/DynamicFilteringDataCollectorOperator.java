@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.runtime.operators.coordination.OperatorEventGateway;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Operator which collects the distinct values of the dynamic filtering fields from the build side
+ * of a join, and sends them as {@link DynamicFilteringData} to its coordinator at the end of the
+ * input. The coordinator forwards the data to the source coordinators of the probe side.
+ *
+ * <p>If the collected data exceeds the given threshold, the collecting is stopped and the sent
+ * data is marked as not filtering, in which case the probe side reads all of its data.
+ */
+public class DynamicFilteringDataCollectorOperator extends AbstractStreamOperator<Object>
+        implements OneInputStreamOperator<RowData, Object>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(DynamicFilteringDataCollectorOperator.class);
+
+    private final RowType dynamicFilteringFieldType;
+    private final int[] dynamicFilteringFieldIndices;
+    private final long threshold;
+    private final OperatorEventGateway operatorEventGateway;
+
+    private transient InternalTypeInfo<RowData> typeInfo;
+    private transient TypeSerializer<RowData> serializer;
+    private transient RowData.FieldGetter[] fieldGetters;
+    private transient DataOutputSerializer outputView;
+
+    /** The distinct serialized rows, wrapped so that they are compared by content. */
+    private transient Set<ByteBuffer> buffer;
+
+    private transient long currentSize;
+    private transient boolean eventSent;
+
+    /**
+     * Creates the operator.
+     *
+     * @param dynamicFilteringFieldType the type of the rows sent to the source, i.e. the types of
+     *     the dynamic filtering fields in order.
+     * @param dynamicFilteringFieldIndices the indices of the dynamic filtering fields in the input.
+     * @param threshold the maximum size of the collected data in bytes.
+     * @param operatorEventGateway the gateway to the coordinator of this operator.
+     */
+    public DynamicFilteringDataCollectorOperator(
+            RowType dynamicFilteringFieldType,
+            int[] dynamicFilteringFieldIndices,
+            long threshold,
+            OperatorEventGateway operatorEventGateway) {
+        checkArgument(
+                dynamicFilteringFieldType.getFieldCount() == dynamicFilteringFieldIndices.length,
+                "The number of dynamic filtering fields does not match their type.");
+        this.dynamicFilteringFieldType = dynamicFilteringFieldType;
+        this.dynamicFilteringFieldIndices = dynamicFilteringFieldIndices;
+        this.threshold = threshold;
+        this.operatorEventGateway = checkNotNull(operatorEventGateway);
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.typeInfo = InternalTypeInfo.of(dynamicFilteringFieldType);
+        this.serializer = typeInfo.toRowSerializer();
+        this.fieldGetters = new RowData.FieldGetter[dynamicFilteringFieldIndices.length];
+        for (int i = 0; i < fieldGetters.length; i++) {
+            fieldGetters[i] =
+                    RowData.createFieldGetter(
+                            dynamicFilteringFieldType.getTypeAt(i),
+                            dynamicFilteringFieldIndices[i]);
+        }
+        this.outputView = new DataOutputSerializer(64);
+        this.buffer = new LinkedHashSet<>();
+        this.currentSize = 0L;
+        this.eventSent = false;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        if (exceedsThreshold()) {
+            return;
+        }
+
+        RowData value = element.getValue();
+        GenericRowData row = new GenericRowData(fieldGetters.length);
+        for (int i = 0; i < fieldGetters.length; i++) {
+            row.setField(i, fieldGetters[i].getFieldOrNull(value));
+        }
+
+        outputView.clear();
+        serializer.serialize(row, outputView);
+        byte[] bytes = outputView.getCopyOfBuffer();
+        if (buffer.add(ByteBuffer.wrap(bytes))) {
+            currentSize += bytes.length;
+        }
+
+        if (exceedsThreshold()) {
+            LOG.info(
+                    "The collected dynamic filtering data exceeds the threshold of {} bytes, "
+                            + "all the data of the filtered source will be read.",
+                    threshold);
+            buffer.clear();
+        }
+    }
+
+    private boolean exceedsThreshold() {
+        return threshold > 0 && currentSize > threshold;
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        if (eventSent) {
+            return;
+        }
+
+        List<byte[]> serializedData = new ArrayList<>(buffer.size());
+        for (ByteBuffer bytes : buffer) {
+            serializedData.add(bytes.array());
+        }
+        DynamicFilteringData data =
+                new DynamicFilteringData(
+                        typeInfo, dynamicFilteringFieldType, serializedData, !exceedsThreshold());
+        operatorEventGateway.sendEventToCoordinator(
+                new SourceEventWrapper(new DynamicFilteringEvent(data)));
+        eventSent = true;
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+        if (buffer != null) {
+            buffer.clear();
+        }
+    }
+}
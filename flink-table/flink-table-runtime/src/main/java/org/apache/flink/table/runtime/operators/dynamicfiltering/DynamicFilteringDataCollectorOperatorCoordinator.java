@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.CoordinatorStore;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.util.FlinkException;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The coordinator of the {@link DynamicFilteringDataCollectorOperator}. It merges the {@link
+ * DynamicFilteringData} of all the subtasks, and delivers the merged data to the source
+ * coordinators listening to its listener IDs via the {@link CoordinatorStore}.
+ *
+ * <p>A source coordinator may not be started yet when the data is complete, in which case the
+ * event is put into the store and handled by the source coordinator once it is started.
+ */
+public class DynamicFilteringDataCollectorOperatorCoordinator implements OperatorCoordinator {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(DynamicFilteringDataCollectorOperatorCoordinator.class);
+
+    private final Context context;
+    private final CoordinatorStore coordinatorStore;
+    private final Set<String> dynamicFilteringDataListenerIDs;
+
+    /** The data received from each subtask, until the data of all the subtasks is complete. */
+    private final Map<Integer, DynamicFilteringData> receivedData = new HashMap<>();
+
+    private boolean dataSent;
+
+    public DynamicFilteringDataCollectorOperatorCoordinator(
+            Context context, Set<String> dynamicFilteringDataListenerIDs) {
+        this.context = checkNotNull(context);
+        this.coordinatorStore = checkNotNull(context.getCoordinatorStore());
+        this.dynamicFilteringDataListenerIDs = checkNotNull(dynamicFilteringDataListenerIDs);
+    }
+
+    @Override
+    public void start() throws Exception {}
+
+    @Override
+    public void close() throws Exception {}
+
+    @Override
+    public void handleEventFromOperator(int subtask, OperatorEvent event) throws Exception {
+        if (!(event instanceof SourceEventWrapper)
+                || !(((SourceEventWrapper) event).getSourceEvent()
+                        instanceof DynamicFilteringEvent)) {
+            throw new FlinkException("Unrecognized Operator Event: " + event);
+        }
+        if (dataSent) {
+            // the data has been sent before a failover of the subtask, and the sources may have
+            // been already filtered with it
+            LOG.info("Ignoring the dynamic filtering data resent by subtask {}.", subtask);
+            return;
+        }
+
+        DynamicFilteringEvent filteringEvent =
+                (DynamicFilteringEvent) ((SourceEventWrapper) event).getSourceEvent();
+        receivedData.put(subtask, filteringEvent.getData());
+        if (receivedData.size() < context.currentParallelism()) {
+            return;
+        }
+
+        DynamicFilteringData mergedData = mergeData(new ArrayList<>(receivedData.values()));
+        LOG.info(
+                "Sending dynamic filtering data {} to the listeners {}.",
+                mergedData,
+                dynamicFilteringDataListenerIDs);
+        SourceEventWrapper mergedEvent =
+                new SourceEventWrapper(new DynamicFilteringEvent(mergedData));
+        for (String listenerID : dynamicFilteringDataListenerIDs) {
+            sendEvent(listenerID, mergedEvent);
+        }
+        dataSent = true;
+        receivedData.clear();
+    }
+
+    private void sendEvent(String listenerID, SourceEventWrapper event) {
+        coordinatorStore.compute(
+                listenerID,
+                (key, oldValue) -> {
+                    // the value is either the listening source coordinator, or nothing if the
+                    // source coordinator is not started yet, in which case it handles the event
+                    // once it is started
+                    if (oldValue instanceof OperatorCoordinator) {
+                        try {
+                            ((OperatorCoordinator) oldValue).handleEventFromOperator(0, event);
+                        } catch (Exception e) {
+                            throw new FlinkRuntimeException(
+                                    "Failed to send the dynamic filtering data to " + key, e);
+                        }
+                        return oldValue;
+                    }
+                    return event;
+                });
+    }
+
+    static DynamicFilteringData mergeData(List<DynamicFilteringData> dataList) {
+        DynamicFilteringData first = dataList.get(0);
+        if (dataList.size() == 1) {
+            return first;
+        }
+
+        Set<ByteBuffer> mergedRows = new LinkedHashSet<>();
+        for (DynamicFilteringData data : dataList) {
+            if (!data.isFiltering()) {
+                return data;
+            }
+            for (byte[] row : data.getSerializedData()) {
+                mergedRows.add(ByteBuffer.wrap(row));
+            }
+        }
+
+        List<byte[]> serializedData = new ArrayList<>(mergedRows.size());
+        for (ByteBuffer row : mergedRows) {
+            serializedData.add(row.array());
+        }
+        return new DynamicFilteringData(
+                first.getTypeInfo(), first.getRowType(), serializedData, true);
+    }
+
+    @Override
+    public void checkpointCoordinator(long checkpointId, CompletableFuture<byte[]> resultFuture)
+            throws Exception {
+        // the coordinator is only used in batch jobs, which are not checkpointed
+        resultFuture.complete(new byte[0]);
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) {}
+
+    @Override
+    public void resetToCheckpoint(long checkpointId, @Nullable byte[] checkpointData)
+            throws Exception {}
+
+    @Override
+    public void subtaskFailed(int subtask, @Nullable Throwable reason) {
+        receivedData.remove(subtask);
+    }
+
+    @Override
+    public void subtaskReset(int subtask, long checkpointId) {
+        receivedData.remove(subtask);
+    }
+
+    @Override
+    public void subtaskReady(int subtask, SubtaskGateway gateway) {}
+
+    /** Provider for {@link DynamicFilteringDataCollectorOperatorCoordinator}. */
+    public static class Provider implements OperatorCoordinator.Provider {
+
+        private static final long serialVersionUID = 1L;
+
+        private final OperatorID operatorID;
+        private final Set<String> dynamicFilteringDataListenerIDs;
+
+        public Provider(OperatorID operatorID, Set<String> dynamicFilteringDataListenerIDs) {
+            this.operatorID = checkNotNull(operatorID);
+            this.dynamicFilteringDataListenerIDs = checkNotNull(dynamicFilteringDataListenerIDs);
+        }
+
+        @Override
+        public OperatorID getOperatorId() {
+            return operatorID;
+        }
+
+        @Override
+        public OperatorCoordinator create(Context context) {
+            return new DynamicFilteringDataCollectorOperatorCoordinator(
+                    context, dynamicFilteringDataListenerIDs);
+        }
+    }
+}
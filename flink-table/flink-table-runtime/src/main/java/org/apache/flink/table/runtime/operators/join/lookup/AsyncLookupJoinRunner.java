@@ -31,8 +31,11 @@ import org.apache.flink.table.data.utils.JoinedRowData;
 import org.apache.flink.table.runtime.collector.TableFunctionResultFuture;
 import org.apache.flink.table.runtime.generated.GeneratedFunction;
 import org.apache.flink.table.runtime.generated.GeneratedResultFuture;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.LookupJoinCache;
 import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -49,6 +52,7 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
     private final GeneratedResultFuture<TableFunctionResultFuture<RowData>> generatedResultFuture;
     private final boolean isLeftOuterJoin;
     private final int asyncBufferCapacity;
+    @Nullable private final LookupJoinCache cache;
 
     private transient AsyncFunction<RowData, Object> fetcher;
 
@@ -73,12 +77,31 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
             RowDataSerializer rightRowSerializer,
             boolean isLeftOuterJoin,
             int asyncBufferCapacity) {
+        this(
+                generatedFetcher,
+                fetcherConverter,
+                generatedResultFuture,
+                rightRowSerializer,
+                isLeftOuterJoin,
+                asyncBufferCapacity,
+                null);
+    }
+
+    public AsyncLookupJoinRunner(
+            GeneratedFunction<AsyncFunction<RowData, Object>> generatedFetcher,
+            DataStructureConverter<RowData, Object> fetcherConverter,
+            GeneratedResultFuture<TableFunctionResultFuture<RowData>> generatedResultFuture,
+            RowDataSerializer rightRowSerializer,
+            boolean isLeftOuterJoin,
+            int asyncBufferCapacity,
+            @Nullable LookupJoinCache cache) {
         this.generatedFetcher = generatedFetcher;
         this.fetcherConverter = fetcherConverter;
         this.generatedResultFuture = generatedResultFuture;
         this.rightRowSerializer = rightRowSerializer;
         this.isLeftOuterJoin = isLeftOuterJoin;
         this.asyncBufferCapacity = asyncBufferCapacity;
+        this.cache = cache;
     }
 
     @Override
@@ -93,6 +116,10 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
 
         fetcherConverter.open(getRuntimeContext().getUserCodeClassLoader());
 
+        if (cache != null) {
+            cache.open(getRuntimeContext());
+        }
+
         // asyncBufferCapacity + 1 as the queue size in order to avoid
         // blocking on the queue when taking a collector.
         this.resultFutureBuffer = new ArrayBlockingQueue<>(asyncBufferCapacity + 1);
@@ -104,7 +131,8 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
                             createFetcherResultFuture(parameters),
                             fetcherConverter,
                             isLeftOuterJoin,
-                            rightRowSerializer.getArity());
+                            rightRowSerializer.getArity(),
+                            cache);
             // add will throw exception immediately if the queue is full which should never happen
             resultFutureBuffer.add(rf);
             allResultFutures.add(rf);
@@ -117,6 +145,18 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
         // the input row is copied when object reuse in AsyncWaitOperator
         outResultFuture.reset(input, resultFuture);
 
+        if (cache != null) {
+            RowData key = cache.createKey(input);
+            if (key != null) {
+                Collection<RowData> cachedRows = cache.getIfPresent(key);
+                if (cachedRows != null) {
+                    outResultFuture.completeWithFetchedRows(cachedRows);
+                    return;
+                }
+                outResultFuture.setCacheKey(key);
+            }
+        }
+
         // fetcher has copied the input field when object reuse is enabled
         fetcher.asyncInvoke(input, outResultFuture);
     }
@@ -141,6 +181,9 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
                 rf.close();
             }
         }
+        if (cache != null) {
+            cache.close();
+        }
     }
 
     @VisibleForTesting
@@ -171,23 +214,27 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
         private final TableFunctionResultFuture<RowData> joinConditionResultFuture;
         private final DataStructureConverter<RowData, Object> resultConverter;
         private final boolean isLeftOuterJoin;
+        @Nullable private final LookupJoinCache cache;
 
         private final DelegateResultFuture delegate;
         private final GenericRowData nullRow;
 
         private RowData leftRow;
         private ResultFuture<RowData> realOutput;
+        @Nullable private RowData cacheKey;
 
         private JoinedRowResultFuture(
                 BlockingQueue<JoinedRowResultFuture> resultFutureBuffer,
                 TableFunctionResultFuture<RowData> joinConditionResultFuture,
                 DataStructureConverter<RowData, Object> resultConverter,
                 boolean isLeftOuterJoin,
-                int rightArity) {
+                int rightArity,
+                @Nullable LookupJoinCache cache) {
             this.resultFutureBuffer = resultFutureBuffer;
             this.joinConditionResultFuture = joinConditionResultFuture;
             this.resultConverter = resultConverter;
             this.isLeftOuterJoin = isLeftOuterJoin;
+            this.cache = cache;
             this.delegate = new DelegateResultFuture();
             this.nullRow = new GenericRowData(rightArity);
         }
@@ -195,11 +242,17 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
         public void reset(RowData row, ResultFuture<RowData> realOutput) {
             this.realOutput = realOutput;
             this.leftRow = row;
+            this.cacheKey = null;
             joinConditionResultFuture.setInput(row);
             joinConditionResultFuture.setResultFuture(delegate);
             delegate.reset();
         }
 
+        /** Puts the result of the lookup into the cache under the given key on completion. */
+        public void setCacheKey(RowData cacheKey) {
+            this.cacheKey = cacheKey;
+        }
+
         @Override
         @SuppressWarnings({"unchecked", "rawtypes"})
         public void complete(Collection<Object> result) {
@@ -213,6 +266,22 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
                 }
             }
 
+            if (cache != null && cacheKey != null && rowDataCollection != null) {
+                List<RowData> copiedRows = new ArrayList<>(rowDataCollection.size());
+                for (RowData row : rowDataCollection) {
+                    copiedRows.add(cache.copyFetchedRow(row));
+                }
+                cache.put(cacheKey, copiedRows);
+                rowDataCollection = copiedRows;
+            }
+            completeWithFetchedRows(rowDataCollection);
+        }
+
+        /**
+         * Completes the lookup with rows which are already converted to the internal data
+         * structures, e.g. rows served from the cache.
+         */
+        public void completeWithFetchedRows(Collection<RowData> rowDataCollection) {
             // call condition collector first,
             // the filtered result will be routed to the delegateCollector
             try {
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup.cache;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.io.InputFormat;
+import org.apache.flink.api.common.io.RichInputFormat;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link LookupCache} which holds a full snapshot of the dimension table and reloads it
+ * periodically.
+ *
+ * <p>The snapshot is read with the {@link InputFormat} of the table source and grouped by the
+ * lookup keys. A reload builds a new snapshot in the background and replaces the current one
+ * atomically, lookups keep being served from the previous snapshot in the meantime. If a reload
+ * fails the previous snapshot is kept and the failure is reported by the {@link
+ * LookupCacheMetrics#NUM_LOAD_FAILURES} metric.
+ *
+ * <p>As the cache always contains all rows of the table, {@link #getIfPresent(RowData)} never
+ * returns {@code null} and the lookup function is not invoked at all.
+ */
+public class FullLookupCache implements LookupCache {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FullLookupCache.class);
+
+    private final InputFormat<RowData, InputSplit> inputFormat;
+    private final RowType tableRowType;
+    private final int[] lookupKeyIndices;
+    private final Duration reloadInterval;
+
+    private transient RowDataSerializer rowSerializer;
+    private transient RowDataSerializer keySerializer;
+    private transient RowData.FieldGetter[] keyFieldGetters;
+    private transient LookupCacheMetrics metrics;
+    private transient ScheduledExecutorService reloadExecutor;
+    private transient volatile Map<RowData, Collection<RowData>> snapshot;
+
+    /**
+     * @param inputFormat the input format to scan the whole dimension table
+     * @param tableRowType the type of the rows produced by the input format
+     * @param lookupKeyIndices the indices of the lookup keys in the table rows, in the same order
+     *     as the fields of the keys passed to {@link #getIfPresent(RowData)}
+     * @param reloadInterval the interval at which the snapshot is reloaded
+     */
+    public FullLookupCache(
+            InputFormat<RowData, InputSplit> inputFormat,
+            RowType tableRowType,
+            int[] lookupKeyIndices,
+            Duration reloadInterval) {
+        checkArgument(lookupKeyIndices.length > 0, "The lookup keys must not be empty.");
+        checkArgument(
+                !reloadInterval.isNegative() && !reloadInterval.isZero(),
+                "The reload interval of the full cache must be positive.");
+        this.inputFormat = checkNotNull(inputFormat);
+        this.tableRowType = checkNotNull(tableRowType);
+        this.lookupKeyIndices = lookupKeyIndices;
+        this.reloadInterval = reloadInterval;
+    }
+
+    @Override
+    public void open(RuntimeContext runtimeContext, LookupCacheMetrics metrics) throws Exception {
+        this.metrics = metrics;
+        this.rowSerializer = new RowDataSerializer(tableRowType);
+        this.keySerializer =
+                new RowDataSerializer(LookupJoinCache.keyType(tableRowType, lookupKeyIndices));
+        this.keyFieldGetters = new RowData.FieldGetter[lookupKeyIndices.length];
+        for (int i = 0; i < lookupKeyIndices.length; i++) {
+            keyFieldGetters[i] =
+                    RowData.createFieldGetter(
+                            tableRowType.getTypeAt(lookupKeyIndices[i]), lookupKeyIndices[i]);
+        }
+        if (inputFormat instanceof RichInputFormat) {
+            ((RichInputFormat<?, ?>) inputFormat).setRuntimeContext(runtimeContext);
+        }
+        inputFormat.configure(new Configuration());
+
+        // the initial load happens synchronously, so that the runner never sees an empty cache
+        this.snapshot = load();
+        this.reloadExecutor =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ExecutorThreadFactory("lookup-full-cache-reload"));
+        reloadExecutor.scheduleWithFixedDelay(
+                this::reload,
+                reloadInterval.toMillis(),
+                reloadInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Collection<RowData> getIfPresent(RowData key) {
+        return snapshot.getOrDefault(key, Collections.emptyList());
+    }
+
+    @Override
+    public void put(RowData key, Collection<RowData> rows) {
+        // the snapshot is only maintained by reloads
+    }
+
+    @Override
+    public long size() {
+        Map<RowData, Collection<RowData>> current = snapshot;
+        return current == null ? 0L : current.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+            reloadExecutor.awaitTermination(reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        snapshot = null;
+    }
+
+    @VisibleForTesting
+    void reload() {
+        try {
+            snapshot = load();
+        } catch (Exception e) {
+            metrics.loadFailed();
+            LOG.warn("Failed to reload the lookup full cache, keep serving the previous one.", e);
+        }
+    }
+
+    private Map<RowData, Collection<RowData>> load() throws Exception {
+        long start = System.currentTimeMillis();
+        Map<RowData, Collection<RowData>> newSnapshot = new HashMap<>();
+        long numRows = 0;
+        if (inputFormat instanceof RichInputFormat) {
+            ((RichInputFormat<?, ?>) inputFormat).openInputFormat();
+        }
+        try {
+            for (InputSplit split : inputFormat.createInputSplits(1)) {
+                inputFormat.open(split);
+                try {
+                    RowData reuse = new GenericRowData(tableRowType.getFieldCount());
+                    while (!inputFormat.reachedEnd()) {
+                        RowData row = inputFormat.nextRecord(reuse);
+                        if (row == null) {
+                            continue;
+                        }
+                        RowData key = extractKey(row);
+                        if (key == null) {
+                            // a null key never matches in an equi-join
+                            continue;
+                        }
+                        newSnapshot
+                                .computeIfAbsent(key, k -> new ArrayList<>())
+                                .add(rowSerializer.copy(row));
+                        numRows++;
+                    }
+                } finally {
+                    inputFormat.close();
+                }
+            }
+        } finally {
+            if (inputFormat instanceof RichInputFormat) {
+                ((RichInputFormat<?, ?>) inputFormat).closeInputFormat();
+            }
+        }
+        long loadTime = System.currentTimeMillis() - start;
+        metrics.loaded(loadTime);
+        LOG.info(
+                "Loaded {} row(s) with {} key(s) into the lookup full cache in {} ms.",
+                numRows,
+                newSnapshot.size(),
+                loadTime);
+        return newSnapshot;
+    }
+
+    private RowData extractKey(RowData row) {
+        GenericRowData key = new GenericRowData(keyFieldGetters.length);
+        for (int i = 0; i < keyFieldGetters.length; i++) {
+            Object field = keyFieldGetters[i].getFieldOrNull(row);
+            if (field == null) {
+                return null;
+            }
+            key.setField(i, field);
+        }
+        return keySerializer.toBinaryRow(key).copy();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup.cache;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.table.data.RowData;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * A cache of lookup results which is maintained by the lookup join runners in front of the lookup
+ * function of a dimension table.
+ *
+ * <p>The keys of the cache are the lookup keys in the order of the table fields, the values are
+ * the rows of the dimension table which match the key. Both keys and values are expected to be
+ * copied by the caller, the cache stores them as they are.
+ *
+ * <p>A cache instance is created on the client and shipped with the runner, all runtime resources
+ * should be created in {@link #open(RuntimeContext, LookupCacheMetrics)}.
+ */
+public interface LookupCache extends Serializable {
+
+    /** Initializes the cache, this is called in the open method of the lookup join runner. */
+    void open(RuntimeContext runtimeContext, LookupCacheMetrics metrics) throws Exception;
+
+    /**
+     * Returns the rows associated with the given key, or {@code null} if the key is not cached and
+     * has to be looked up in the external system.
+     */
+    @Nullable
+    Collection<RowData> getIfPresent(RowData key);
+
+    /** Associates the rows looked up from the external system with the given key. */
+    void put(RowData key, Collection<RowData> rows);
+
+    /** Returns the number of keys in the cache. */
+    long size();
+
+    /** Releases all resources of the cache. */
+    void close() throws Exception;
+}
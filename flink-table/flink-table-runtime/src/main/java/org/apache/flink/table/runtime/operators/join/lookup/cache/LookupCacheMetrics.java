@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup.cache;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Standard metrics of a {@link LookupCache}, registered under the {@code cache} group of the
+ * lookup join operator.
+ *
+ * <p>Hits and misses are only counted by the task thread, while loads may be reported from the
+ * reload thread of a {@link FullLookupCache} or the callback threads of an async lookup function.
+ */
+public class LookupCacheMetrics {
+
+    public static final String CACHE_GROUP_NAME = "cache";
+    public static final String HIT_COUNT = "hitCount";
+    public static final String MISS_COUNT = "missCount";
+    public static final String LOAD_COUNT = "loadCount";
+    public static final String NUM_LOAD_FAILURES = "numLoadFailures";
+    public static final String LATEST_LOAD_TIME = "latestLoadTime";
+    public static final String NUM_CACHED_RECORDS = "numCachedRecords";
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong numLoadFailures = new AtomicLong();
+    private final AtomicLong latestLoadTime = new AtomicLong();
+
+    public LookupCacheMetrics(MetricGroup operatorMetricGroup, LongSupplier numCachedRecords) {
+        MetricGroup cacheGroup = operatorMetricGroup.addGroup(CACHE_GROUP_NAME);
+        this.hitCounter = cacheGroup.counter(HIT_COUNT, new SimpleCounter());
+        this.missCounter = cacheGroup.counter(MISS_COUNT, new SimpleCounter());
+        cacheGroup.gauge(LOAD_COUNT, (Gauge<Long>) loadCount::get);
+        cacheGroup.gauge(NUM_LOAD_FAILURES, (Gauge<Long>) numLoadFailures::get);
+        cacheGroup.gauge(LATEST_LOAD_TIME, (Gauge<Long>) latestLoadTime::get);
+        cacheGroup.gauge(NUM_CACHED_RECORDS, (Gauge<Long>) numCachedRecords::getAsLong);
+    }
+
+    public void hit() {
+        hitCounter.inc();
+    }
+
+    public void miss() {
+        missCounter.inc();
+    }
+
+    /** Reports a successful load of the given duration in milliseconds. */
+    public void loaded(long loadTimeMillis) {
+        loadCount.incrementAndGet();
+        latestLoadTime.set(loadTimeMillis);
+    }
+
+    public void loadFailed() {
+        numLoadFailures.incrementAndGet();
+    }
+
+    @VisibleForTesting
+    public long getHitCount() {
+        return hitCounter.getCount();
+    }
+
+    @VisibleForTesting
+    public long getMissCount() {
+        return missCounter.getCount();
+    }
+
+    @VisibleForTesting
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+}
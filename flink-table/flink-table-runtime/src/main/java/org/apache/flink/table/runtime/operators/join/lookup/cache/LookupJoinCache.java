@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup.cache;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupJoinRunner;
+import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Binds a {@link LookupCache} to a lookup join, used by {@link LookupJoinRunner} and {@link
+ * AsyncLookupJoinRunner}.
+ *
+ * <p>The cache key of an input row is built from the input fields which are joined with the
+ * lookup keys of the dimension table, in the order of the lookup keys in the table. Constant
+ * lookup keys are not part of the cache key as they are the same for all input rows. The cached
+ * values are the rows produced by the lookup function, before any calc or join condition is
+ * applied, so a cached result can be replayed through the same path as a fetched one.
+ */
+public class LookupJoinCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LookupCache cache;
+    private final RowType inputRowType;
+    private final int[] lookupKeyIndicesInInput;
+    private final RowType keyType;
+    private final RowType fetchedRowType;
+
+    private transient RowData.FieldGetter[] keyFieldGetters;
+    private transient RowDataSerializer keySerializer;
+    private transient RowDataSerializer fetchedRowSerializer;
+    private transient LookupCacheMetrics metrics;
+
+    /**
+     * @param cache the cache holding the lookup results
+     * @param inputRowType the type of the input rows of the lookup join
+     * @param lookupKeyIndicesInInput the indices of the input fields which are joined with the
+     *     lookup keys, in the order of the lookup keys in the table
+     * @param keyType the type of the cache keys, i.e. the types of the lookup keys in the table
+     * @param fetchedRowType the type of the rows produced by the lookup function
+     */
+    public LookupJoinCache(
+            LookupCache cache,
+            RowType inputRowType,
+            int[] lookupKeyIndicesInInput,
+            RowType keyType,
+            RowType fetchedRowType) {
+        checkArgument(
+                lookupKeyIndicesInInput.length == keyType.getFieldCount(),
+                "The number of lookup keys doesn't match the key type.");
+        this.cache = checkNotNull(cache);
+        this.inputRowType = checkNotNull(inputRowType);
+        this.lookupKeyIndicesInInput = lookupKeyIndicesInInput;
+        this.keyType = keyType;
+        this.fetchedRowType = checkNotNull(fetchedRowType);
+    }
+
+    public void open(RuntimeContext runtimeContext) throws Exception {
+        this.keyFieldGetters = new RowData.FieldGetter[lookupKeyIndicesInInput.length];
+        for (int i = 0; i < lookupKeyIndicesInInput.length; i++) {
+            int index = lookupKeyIndicesInInput[i];
+            keyFieldGetters[i] = RowData.createFieldGetter(inputRowType.getTypeAt(index), index);
+        }
+        this.keySerializer = new RowDataSerializer(keyType);
+        this.fetchedRowSerializer = new RowDataSerializer(fetchedRowType);
+        this.metrics = new LookupCacheMetrics(runtimeContext.getMetricGroup(), cache::size);
+        cache.open(runtimeContext, metrics);
+    }
+
+    /**
+     * Creates the cache key of the given input row, or returns {@code null} if one of the key
+     * fields is null and the input row has to bypass the cache.
+     */
+    @Nullable
+    public RowData createKey(RowData input) {
+        GenericRowData key = new GenericRowData(keyFieldGetters.length);
+        for (int i = 0; i < keyFieldGetters.length; i++) {
+            Object field = keyFieldGetters[i].getFieldOrNull(input);
+            if (field == null) {
+                return null;
+            }
+            key.setField(i, field);
+        }
+        // copy the key, the fields of the input row may point to reused memory
+        return keySerializer.toBinaryRow(key).copy();
+    }
+
+    /**
+     * Returns the cached rows of the given key, or {@code null} if they have to be looked up. Must
+     * be called by the task thread.
+     */
+    @Nullable
+    public Collection<RowData> getIfPresent(RowData key) {
+        Collection<RowData> rows = cache.getIfPresent(key);
+        if (rows == null) {
+            metrics.miss();
+        } else {
+            metrics.hit();
+        }
+        return rows;
+    }
+
+    /**
+     * Copies a row produced by the lookup function, the lookup function may reuse the row object.
+     * The copy is safe to be stored in the cache.
+     */
+    public RowData copyFetchedRow(RowData fetchedRow) {
+        synchronized (fetchedRowSerializer) {
+            return fetchedRowSerializer.copy(fetchedRow);
+        }
+    }
+
+    /**
+     * Caches the rows looked up for the given key, the rows must have been copied by {@link
+     * #copyFetchedRow(RowData)}.
+     */
+    public void put(RowData key, Collection<RowData> copiedRows) {
+        cache.put(key, copiedRows);
+    }
+
+    public void close() throws Exception {
+        cache.close();
+    }
+
+    @VisibleForTesting
+    public LookupCache getCache() {
+        return cache;
+    }
+
+    @VisibleForTesting
+    public LookupCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Projects the given lookup key indices of the table row type to the type of cache keys. */
+    public static RowType keyType(RowType tableRowType, int[] lookupKeyIndices) {
+        LogicalType[] keyTypes = new LogicalType[lookupKeyIndices.length];
+        String[] keyNames = new String[lookupKeyIndices.length];
+        for (int i = 0; i < lookupKeyIndices.length; i++) {
+            keyTypes[i] = tableRowType.getTypeAt(lookupKeyIndices[i]);
+            keyNames[i] = tableRowType.getFieldNames().get(lookupKeyIndices[i]);
+        }
+        return RowType.of(keyTypes, keyNames);
+    }
+}
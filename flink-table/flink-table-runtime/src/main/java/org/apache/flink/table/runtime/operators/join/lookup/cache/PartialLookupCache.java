@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup.cache;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.table.data.RowData;
+
+import org.apache.flink.shaded.guava30.com.google.common.cache.Cache;
+import org.apache.flink.shaded.guava30.com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A {@link LookupCache} which caches the results of individual lookups, bounded by the number of
+ * cached keys and optionally by the time since an entry was written or accessed.
+ */
+public class PartialLookupCache implements LookupCache {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nullable private final Long maximumSize;
+    @Nullable private final Duration expireAfterWrite;
+    @Nullable private final Duration expireAfterAccess;
+    private final boolean cacheMissingKey;
+
+    private transient Cache<RowData, Collection<RowData>> cache;
+
+    private PartialLookupCache(
+            @Nullable Long maximumSize,
+            @Nullable Duration expireAfterWrite,
+            @Nullable Duration expireAfterAccess,
+            boolean cacheMissingKey) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.cacheMissingKey = cacheMissingKey;
+    }
+
+    @Override
+    public void open(RuntimeContext runtimeContext, LookupCacheMetrics metrics) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (maximumSize != null) {
+            builder.maximumSize(maximumSize);
+        }
+        if (expireAfterWrite != null) {
+            builder.expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (expireAfterAccess != null) {
+            builder.expireAfterAccess(expireAfterAccess.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        this.cache = builder.build();
+    }
+
+    @Nullable
+    @Override
+    public Collection<RowData> getIfPresent(RowData key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(RowData key, Collection<RowData> rows) {
+        if (rows.isEmpty() && !cacheMissingKey) {
+            return;
+        }
+        cache.put(key, rows);
+    }
+
+    @Override
+    public long size() {
+        return cache == null ? 0L : cache.size();
+    }
+
+    @Override
+    public void close() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /** Builder for {@link PartialLookupCache}. */
+    public static class Builder {
+
+        private Long maximumSize;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private boolean cacheMissingKey = true;
+
+        private Builder() {}
+
+        public Builder maximumSize(long maximumSize) {
+            checkArgument(maximumSize > 0, "The maximum size of the cache must be positive.");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder expireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        public Builder expireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+            return this;
+        }
+
+        public Builder cacheMissingKey(boolean cacheMissingKey) {
+            this.cacheMissingKey = cacheMissingKey;
+            return this;
+        }
+
+        public PartialLookupCache build() {
+            checkArgument(
+                    maximumSize != null || expireAfterWrite != null || expireAfterAccess != null,
+                    "The partial lookup cache must be bounded by size or time, "
+                            + "otherwise it would grow without limit.");
+            return new PartialLookupCache(
+                    maximumSize, expireAfterWrite, expireAfterAccess, cacheMissingKey);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Global runtime filter builder operator. It merges the filters built by the {@link
+ * LocalRuntimeFilterBuilderOperator}s into one global filter, and emits it at the end of the input.
+ * The operator must run with a parallelism of one, and its output is broadcast to the {@link
+ * RuntimeFilterOperator}s on the probe side.
+ *
+ * <p>If any local filter was dropped, or the total number of rows exceeds the max row count, an
+ * empty filter is emitted, which does not filter any row.
+ */
+public class GlobalRuntimeFilterBuilderOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(GlobalRuntimeFilterBuilderOperator.class);
+
+    private final int maxRowCount;
+
+    private transient byte[] mergedFilter;
+    private transient long totalRowCount;
+    private transient boolean dropped;
+
+    public GlobalRuntimeFilterBuilderOperator(int maxRowCount) {
+        this.maxRowCount = maxRowCount;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.mergedFilter = null;
+        this.totalRowCount = 0L;
+        this.dropped = false;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        if (dropped) {
+            return;
+        }
+
+        RowData filterRow = element.getValue();
+        byte[] localFilter = RuntimeFilterUtils.getSerializedFilter(filterRow);
+        totalRowCount += RuntimeFilterUtils.getRowCount(filterRow);
+        if (localFilter == null || totalRowCount > maxRowCount) {
+            dropped = true;
+            mergedFilter = null;
+        } else if (mergedFilter == null) {
+            mergedFilter = localFilter.clone();
+        } else {
+            mergedFilter = BloomFilter.mergeSerializedBloomFilters(mergedFilter, localFilter);
+        }
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        if (dropped) {
+            LOG.info(
+                    "The runtime filter is dropped as the build side has more than {} rows.",
+                    maxRowCount);
+        }
+        output.collect(
+                new StreamRecord<>(
+                        RuntimeFilterUtils.createFilterRow(
+                                (int) Math.min(totalRowCount, Integer.MAX_VALUE),
+                                dropped ? null : mergedFilter)));
+        mergedFilter = null;
+    }
+}
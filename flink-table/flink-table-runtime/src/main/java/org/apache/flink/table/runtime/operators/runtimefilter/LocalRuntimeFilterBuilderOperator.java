@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Local runtime filter builder operator. It builds a bloom filter of the join keys of the build
+ * side rows of one subtask, and emits the serialized filter at the end of the input. The filters
+ * of all the subtasks are merged by the {@link GlobalRuntimeFilterBuilderOperator}.
+ *
+ * <p>If the number of input rows exceeds the max row count, the filter would not be selective any
+ * more, so it is dropped and an empty filter is emitted, which does not filter any row.
+ */
+public class LocalRuntimeFilterBuilderOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private GeneratedProjection buildProjectionCode;
+    private final int estimatedRowCount;
+    private final int maxRowCount;
+
+    private transient Projection<RowData, BinaryRowData> buildSideProjection;
+    private transient BloomFilter filter;
+    private transient int actualRowCount;
+
+    /**
+     * Creates the operator.
+     *
+     * @param buildProjectionCode the projection of the join keys of the build side.
+     * @param estimatedRowCount the estimated number of rows of one subtask, which sizes the filter.
+     * @param maxRowCount the max number of rows of one subtask the filter is built for.
+     */
+    public LocalRuntimeFilterBuilderOperator(
+            GeneratedProjection buildProjectionCode, int estimatedRowCount, int maxRowCount) {
+        checkArgument(estimatedRowCount > 0, "estimatedRowCount should be > 0");
+        checkArgument(maxRowCount >= estimatedRowCount, "maxRowCount should be >= estimated");
+        this.buildProjectionCode = checkNotNull(buildProjectionCode);
+        this.estimatedRowCount = estimatedRowCount;
+        this.maxRowCount = maxRowCount;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open() throws Exception {
+        super.open();
+        this.buildSideProjection =
+                buildProjectionCode.newInstance(getContainingTask().getUserCodeClassLoader());
+        this.filter = RuntimeFilterUtils.createBloomFilter(estimatedRowCount);
+        this.actualRowCount = 0;
+        this.buildProjectionCode = null;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        if (filter == null) {
+            return;
+        }
+
+        filter.addHash(buildSideProjection.apply(element.getValue()).hashCode());
+        if (++actualRowCount > maxRowCount) {
+            filter = null;
+        }
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        output.collect(
+                new StreamRecord<>(
+                        RuntimeFilterUtils.createFilterRow(
+                                actualRowCount,
+                                filter == null ? null : BloomFilter.toBytes(filter))));
+        filter = null;
+    }
+}
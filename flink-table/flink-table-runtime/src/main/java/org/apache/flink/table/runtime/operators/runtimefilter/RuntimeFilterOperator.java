@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.streaming.api.operators.BoundedMultiInput;
+import org.apache.flink.streaming.api.operators.InputSelectable;
+import org.apache.flink.streaming.api.operators.InputSelection;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Runtime filter operator, which drops the probe side rows of a join whose join keys are not
+ * contained in the bloom filter built from the build side, before they are shuffled to the join.
+ * The first input is the broadcast filter of the {@link GlobalRuntimeFilterBuilderOperator}, the
+ * second input are the probe side rows, which are only read after the filter has been received.
+ *
+ * <p>The filter may let non-matching rows pass, but never drops a matching row. It can only be used
+ * for join types that drop non-matching probe side rows, i.e. inner and semi joins.
+ */
+public class RuntimeFilterOperator extends TableStreamOperator<RowData>
+        implements TwoInputStreamOperator<RowData, RowData, RowData>,
+                BoundedMultiInput,
+                InputSelectable {
+
+    private static final long serialVersionUID = 1L;
+
+    private GeneratedProjection probeProjectionCode;
+
+    private transient Projection<RowData, BinaryRowData> probeSideProjection;
+    private transient BloomFilter filter;
+    private transient boolean filterReceived;
+    private transient boolean filterInputEnded;
+    private transient Counter numFilteredRecords;
+
+    public RuntimeFilterOperator(GeneratedProjection probeProjectionCode) {
+        this.probeProjectionCode = checkNotNull(probeProjectionCode);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open() throws Exception {
+        super.open();
+        this.probeSideProjection =
+                probeProjectionCode.newInstance(getContainingTask().getUserCodeClassLoader());
+        this.filter = null;
+        this.filterReceived = false;
+        this.filterInputEnded = false;
+        this.numFilteredRecords = getMetricGroup().counter("numRuntimeFilteredRecords");
+        this.probeProjectionCode = null;
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        checkState(!filterReceived, "The runtime filter should only be received once.");
+        byte[] serializedFilter = RuntimeFilterUtils.getSerializedFilter(element.getValue());
+        filter = serializedFilter == null ? null : BloomFilter.fromBytes(serializedFilter);
+        filterReceived = true;
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        checkState(filterInputEnded, "The probe side should only be read after the filter.");
+        if (filter == null
+                || filter.testHash(probeSideProjection.apply(element.getValue()).hashCode())) {
+            output.collect(element);
+        } else {
+            numFilteredRecords.inc();
+        }
+    }
+
+    @Override
+    public InputSelection nextSelection() {
+        return filterInputEnded ? InputSelection.SECOND : InputSelection.FIRST;
+    }
+
+    @Override
+    public void endInput(int inputId) throws Exception {
+        if (inputId == 1) {
+            // without a received filter no row is filtered
+            filterInputEnded = true;
+        }
+    }
+}
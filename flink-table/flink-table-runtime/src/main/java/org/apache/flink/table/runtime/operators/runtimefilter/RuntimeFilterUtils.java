@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+
+import javax.annotation.Nullable;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Utilities for the runtime filter operators.
+ *
+ * <p>A runtime filter is shipped between the operators as a row of two fields: the number of build
+ * side rows it was built from, and the serialized {@link BloomFilter}. The filter is null if the
+ * build side has too many rows for the filter to be selective, in which case no row is filtered.
+ */
+public class RuntimeFilterUtils {
+
+    /** The expected false positive probability of the created bloom filters. */
+    static final double FALSE_POSITIVE_PROBABILITY = 0.05;
+
+    private RuntimeFilterUtils() {}
+
+    /** Creates a bloom filter sized for the given number of expected entries. */
+    static BloomFilter createBloomFilter(int expectedEntries) {
+        checkArgument(expectedEntries > 0, "expectedEntries should be > 0");
+        int numBits = BloomFilter.optimalNumOfBits(expectedEntries, FALSE_POSITIVE_PROBABILITY);
+        // round up to a multiple of a long, and at least one long
+        int byteSize = Math.max(1, (numBits + Long.SIZE - 1) / Long.SIZE) * Long.BYTES;
+        BloomFilter filter = new BloomFilter(expectedEntries, byteSize);
+        filter.setBitsLocation(MemorySegmentFactory.allocateUnpooledSegment(byteSize), 0);
+        return filter;
+    }
+
+    static RowData createFilterRow(int rowCount, @Nullable byte[] serializedFilter) {
+        return GenericRowData.of(rowCount, serializedFilter);
+    }
+
+    static int getRowCount(RowData filterRow) {
+        return filterRow.getInt(0);
+    }
+
+    @Nullable
+    static byte[] getSerializedFilter(RowData filterRow) {
+        return filterRow.isNullAt(1) ? null : filterRow.getBinary(1);
+    }
+}
@@ -210,7 +210,10 @@ public class BinaryExternalSorter implements Sorter<BinaryRowData> {
         this.compressionCodecFactory =
                 this.compressionEnable
                         ? BlockCompressionFactory.createBlockCompressionFactory(
-                                BlockCompressionFactory.CompressionFactoryName.LZ4.toString())
+                                conf.get(ExecutionConfigOptions.TABLE_EXEC_SPILL_COMPRESSION_CODEC),
+                                conf.get(
+                                        ExecutionConfigOptions
+                                                .TABLE_EXEC_SPILL_COMPRESSION_ZSTD_LEVEL))
                         : null;
         this.compressionBlockSize =
                 (int)
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.streaming.api.operators.collect.utils.MockOperatorEventGateway;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link DynamicFilteringDataCollectorOperator}. */
+public class DynamicFilteringDataCollectorOperatorTest {
+
+    private static final RowType FILTERING_TYPE =
+            RowType.of(
+                    new LogicalType[] {new VarCharType(VarCharType.MAX_LENGTH), new IntType()},
+                    new String[] {"s", "i"});
+
+    @Test
+    public void testCollectDistinctData() throws Exception {
+        MockOperatorEventGateway gateway = new MockOperatorEventGateway();
+        DynamicFilteringData data = collect(gateway, 1024 * 1024);
+
+        assertThat(data.isFiltering()).isTrue();
+        assertThat(data.getSerializedData()).hasSize(2);
+        assertThat(data.contains(GenericRowData.of(StringData.fromString("a"), 1))).isTrue();
+        assertThat(data.contains(GenericRowData.of(StringData.fromString("b"), 2))).isTrue();
+        assertThat(data.contains(GenericRowData.of(StringData.fromString("a"), 2))).isFalse();
+        assertThat(data.contains(GenericRowData.of(null, 1))).isFalse();
+    }
+
+    @Test
+    public void testExceedThreshold() throws Exception {
+        MockOperatorEventGateway gateway = new MockOperatorEventGateway();
+        DynamicFilteringData data = collect(gateway, 1);
+
+        assertThat(data.isFiltering()).isFalse();
+        assertThat(data.getSerializedData()).isEmpty();
+        assertThat(data.contains(GenericRowData.of(StringData.fromString("c"), 3))).isTrue();
+    }
+
+    @Test
+    public void testMergeData() throws Exception {
+        DynamicFilteringData first = collect(new MockOperatorEventGateway(), 1024 * 1024);
+        DynamicFilteringData second = collect(new MockOperatorEventGateway(), 1024 * 1024);
+        DynamicFilteringData nonFiltering = collect(new MockOperatorEventGateway(), 1);
+
+        DynamicFilteringData merged =
+                DynamicFilteringDataCollectorOperatorCoordinator.mergeData(
+                        Arrays.asList(first, second));
+        assertThat(merged.isFiltering()).isTrue();
+        assertThat(merged.getSerializedData()).hasSize(2);
+
+        merged =
+                DynamicFilteringDataCollectorOperatorCoordinator.mergeData(
+                        Arrays.asList(first, nonFiltering));
+        assertThat(merged.isFiltering()).isFalse();
+    }
+
+    /** Collects rows of (s, l, i) with the values of s and i sent to the gateway. */
+    private static DynamicFilteringData collect(MockOperatorEventGateway gateway, long threshold)
+            throws Exception {
+        DynamicFilteringDataCollectorOperator operator =
+                new DynamicFilteringDataCollectorOperator(
+                        FILTERING_TYPE, new int[] {0, 2}, threshold, gateway);
+        try (OneInputStreamOperatorTestHarness<RowData, Object> harness =
+                new OneInputStreamOperatorTestHarness<>(operator)) {
+            harness.setup();
+            harness.open();
+            harness.processElement(row("a", 10L, 1));
+            harness.processElement(row("b", 20L, 2));
+            harness.processElement(row("a", 30L, 1));
+            operator.endInput();
+        }
+
+        SourceEventWrapper event = (SourceEventWrapper) gateway.getNextEvent();
+        return ((DynamicFilteringEvent) event.getSourceEvent()).getData();
+    }
+
+    private static StreamRecord<RowData> row(String s, long l, int i) {
+        return new StreamRecord<>(GenericRowData.of(StringData.fromString(s), l, i));
+    }
+}
@@ -33,13 +33,20 @@ import org.apache.flink.table.runtime.generated.GeneratedCollectorWrapper;
 import org.apache.flink.table.runtime.generated.GeneratedFunctionWrapper;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinWithCalcRunner;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.LookupJoinCache;
+import org.apache.flink.table.runtime.operators.join.lookup.cache.PartialLookupCache;
 import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
 import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.IntType;
 import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
 import org.apache.flink.util.Collector;
 
 import org.junit.Test;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -49,6 +56,7 @@ import java.util.Map;
 
 import static org.apache.flink.table.data.StringData.fromString;
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
 
 /** Harness tests for {@link LookupJoinRunner} and {@link LookupJoinWithCalcRunner}. */
 public class LookupJoinHarnessTest {
@@ -160,11 +168,54 @@ public class LookupJoinHarnessTest {
         testHarness.close();
     }
 
+    @Test
+    public void testTemporalLeftJoinWithPartialCache() throws Exception {
+        LookupJoinCache cache =
+                new LookupJoinCache(
+                        PartialLookupCache.newBuilder().maximumSize(10).build(),
+                        RowType.of(new IntType(), VarCharType.STRING_TYPE),
+                        new int[] {0},
+                        RowType.of(new IntType()),
+                        RowType.of(new IntType(), VarCharType.STRING_TYPE));
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createHarness(JoinType.LEFT_JOIN, FilterOnTable.WITH_FILTER, cache);
+
+        testHarness.open();
+
+        testHarness.processElement(insertRecord(1, "a"));
+        testHarness.processElement(insertRecord(2, "b"));
+        testHarness.processElement(insertRecord(3, "c"));
+        testHarness.processElement(insertRecord(1, "d"));
+        testHarness.processElement(insertRecord(2, "e"));
+        testHarness.processElement(insertRecord(3, "f"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1, "a", 1, "Julian"));
+        expectedOutput.add(insertRecord(2, "b", null, null));
+        expectedOutput.add(insertRecord(3, "c", 3, "Jackson"));
+        expectedOutput.add(insertRecord(1, "d", 1, "Julian"));
+        expectedOutput.add(insertRecord(2, "e", null, null));
+        expectedOutput.add(insertRecord(3, "f", 3, "Jackson"));
+
+        assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        // the missing key 2 is cached as well
+        assertEquals(3, cache.getMetrics().getMissCount());
+        assertEquals(3, cache.getMetrics().getHitCount());
+        assertEquals(3, cache.getCache().size());
+        testHarness.close();
+    }
+
     // ---------------------------------------------------------------------------------
 
-    @SuppressWarnings("unchecked")
     private OneInputStreamOperatorTestHarness<RowData, RowData> createHarness(
             JoinType joinType, FilterOnTable filterOnTable) throws Exception {
+        return createHarness(joinType, filterOnTable, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OneInputStreamOperatorTestHarness<RowData, RowData> createHarness(
+            JoinType joinType, FilterOnTable filterOnTable, @Nullable LookupJoinCache cache)
+            throws Exception {
         boolean isLeftJoin = joinType == JoinType.LEFT_JOIN;
         ProcessFunction<RowData, RowData> joinRunner;
         if (filterOnTable == FilterOnTable.WITHOUT_FILTER) {
@@ -173,7 +224,8 @@ public class LookupJoinHarnessTest {
                             new GeneratedFunctionWrapper<>(new TestingFetcherFunction()),
                             new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
                             isLeftJoin,
-                            2);
+                            2,
+                            cache);
         } else {
             joinRunner =
                     new LookupJoinWithCalcRunner(
@@ -181,7 +233,8 @@ public class LookupJoinHarnessTest {
                             new GeneratedFunctionWrapper<>(new CalculateOnTemporalTable()),
                             new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
                             isLeftJoin,
-                            2);
+                            2,
+                            cache);
         }
 
         ProcessOperator<RowData, RowData> operator = new ProcessOperator<>(joinRunner);
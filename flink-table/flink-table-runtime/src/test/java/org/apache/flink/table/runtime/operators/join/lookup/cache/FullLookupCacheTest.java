@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup.cache;
+
+import org.apache.flink.api.common.io.GenericInputFormat;
+import org.apache.flink.api.common.io.InputFormat;
+import org.apache.flink.core.io.GenericInputSplit;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.apache.flink.table.data.StringData.fromString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link FullLookupCache}. */
+public class FullLookupCacheTest {
+
+    private static final RowType TABLE_TYPE =
+            RowType.of(new IntType(), VarCharType.STRING_TYPE, new IntType());
+
+    private static final List<RowData> TABLE = new ArrayList<>();
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testLoadAndReload() throws Exception {
+        TABLE.clear();
+        TABLE.addAll(
+                Arrays.asList(
+                        GenericRowData.of(1, fromString("Julian"), 10),
+                        GenericRowData.of(2, fromString("Jark"), 20),
+                        GenericRowData.of(2, fromString("Jackson"), 20),
+                        GenericRowData.of(3, fromString("Fabian"), null)));
+
+        // the lookup key is the third field of the table
+        FullLookupCache cache =
+                new FullLookupCache(
+                        (InputFormat) new TestingInputFormat(),
+                        TABLE_TYPE,
+                        new int[] {2},
+                        Duration.ofHours(1));
+        LookupCacheMetrics metrics =
+                new LookupCacheMetrics(new UnregisteredMetricsGroup(), cache::size);
+        cache.open(null, metrics);
+
+        // rows with a null key are skipped
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent(key(20))).hasSize(2);
+        assertThat(cache.getIfPresent(key(40))).isEmpty();
+        assertThat(metrics.getLoadCount()).isEqualTo(1);
+
+        TABLE.add(GenericRowData.of(4, fromString("Timo"), 40));
+        cache.reload();
+
+        assertThat(cache.getIfPresent(key(40)))
+                .containsExactly(GenericRowData.of(4, fromString("Timo"), 40));
+        assertThat(metrics.getLoadCount()).isEqualTo(2);
+        cache.close();
+    }
+
+    private static RowData key(int value) {
+        return new RowDataSerializer(RowType.of(new IntType()))
+                .toBinaryRow(GenericRowData.of(value))
+                .copy();
+    }
+
+    /** Reads the rows of {@link #TABLE} in a single split. */
+    private static class TestingInputFormat extends GenericInputFormat<RowData> {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient Iterator<RowData> iterator;
+
+        @Override
+        public GenericInputSplit[] createInputSplits(int numSplits) {
+            return new GenericInputSplit[] {new GenericInputSplit(0, 1)};
+        }
+
+        @Override
+        public void open(GenericInputSplit split) throws IOException {
+            super.open(split);
+            this.iterator = new ArrayList<>(TABLE).iterator();
+        }
+
+        @Override
+        public boolean reachedEnd() {
+            return !iterator.hasNext();
+        }
+
+        @Override
+        public RowData nextRecord(RowData reuse) {
+            return iterator.next();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup.cache;
+
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.apache.flink.table.data.StringData.fromString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Tests for {@link PartialLookupCache}. */
+public class PartialLookupCacheTest {
+
+    @Test
+    public void testEvictBySize() throws Exception {
+        PartialLookupCache cache = PartialLookupCache.newBuilder().maximumSize(2).build();
+        open(cache);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put(
+                    GenericRowData.of(i),
+                    Collections.singletonList(GenericRowData.of(i, fromString("row-" + i))));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+        assertThat(cache.getIfPresent(GenericRowData.of(9)))
+                .containsExactly(GenericRowData.of(9, fromString("row-9")));
+        cache.close();
+    }
+
+    @Test
+    public void testMissingKey() throws Exception {
+        PartialLookupCache cachingMissingKey =
+                PartialLookupCache.newBuilder().maximumSize(10).build();
+        PartialLookupCache notCachingMissingKey =
+                PartialLookupCache.newBuilder().maximumSize(10).cacheMissingKey(false).build();
+        open(cachingMissingKey);
+        open(notCachingMissingKey);
+
+        RowData key = GenericRowData.of(1);
+        cachingMissingKey.put(key, Collections.emptyList());
+        notCachingMissingKey.put(key, Collections.emptyList());
+
+        assertThat(cachingMissingKey.getIfPresent(key)).isEmpty();
+        assertThat(notCachingMissingKey.getIfPresent(key)).isNull();
+    }
+
+    @Test
+    public void testUnboundedCacheIsRejected() {
+        assertThatThrownBy(() -> PartialLookupCache.newBuilder().build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void open(LookupCache cache) throws Exception {
+        cache.open(null, new LookupCacheMetrics(new UnregisteredMetricsGroup(), cache::size));
+    }
+}
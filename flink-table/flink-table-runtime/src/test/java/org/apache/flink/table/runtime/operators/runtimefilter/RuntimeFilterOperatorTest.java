@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.join.Int2HashJoinOperatorTest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RuntimeFilterOperator}, {@link LocalRuntimeFilterBuilderOperator} and {@link
+ * GlobalRuntimeFilterBuilderOperator}.
+ */
+public class RuntimeFilterOperatorTest {
+
+    @Test
+    public void testFilterProbeSide() throws Exception {
+        RowData localFilter1 = buildLocalFilter(100, 1, 2, 3);
+        RowData localFilter2 = buildLocalFilter(100, 5);
+        RowData globalFilter = buildGlobalFilter(100, localFilter1, localFilter2);
+
+        assertThat(RuntimeFilterUtils.getRowCount(globalFilter)).isEqualTo(4);
+        assertThat(RuntimeFilterUtils.getSerializedFilter(globalFilter)).isNotNull();
+        assertThat(filter(globalFilter, 0, 1, 2, 3, 4, 5, 6)).containsExactly(1, 2, 3, 5);
+    }
+
+    @Test
+    public void testLocalFilterExceedsMaxRowCount() throws Exception {
+        RowData localFilter = buildLocalFilter(2, 1, 2, 3);
+        assertThat(RuntimeFilterUtils.getRowCount(localFilter)).isEqualTo(3);
+        assertThat(RuntimeFilterUtils.getSerializedFilter(localFilter)).isNull();
+
+        RowData globalFilter = buildGlobalFilter(100, buildLocalFilter(100, 5), localFilter);
+        assertThat(RuntimeFilterUtils.getSerializedFilter(globalFilter)).isNull();
+        assertThat(filter(globalFilter, 0, 1, 6)).containsExactly(0, 1, 6);
+    }
+
+    @Test
+    public void testGlobalFilterExceedsMaxRowCount() throws Exception {
+        RowData globalFilter =
+                buildGlobalFilter(3, buildLocalFilter(100, 1, 2), buildLocalFilter(100, 3, 4));
+        assertThat(RuntimeFilterUtils.getSerializedFilter(globalFilter)).isNull();
+        assertThat(filter(globalFilter, 0, 5)).containsExactly(0, 5);
+    }
+
+    private static RowData buildLocalFilter(int maxRowCount, int... keys) throws Exception {
+        LocalRuntimeFilterBuilderOperator operator =
+                new LocalRuntimeFilterBuilderOperator(createProjection(), maxRowCount, maxRowCount);
+        try (OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(operator)) {
+            harness.open();
+            for (int key : keys) {
+                harness.processElement(new StreamRecord<>(GenericRowData.of(key)));
+            }
+            operator.endInput();
+            return getSingleOutput(harness.extractOutputValues());
+        }
+    }
+
+    private static RowData buildGlobalFilter(int maxRowCount, RowData... localFilters)
+            throws Exception {
+        GlobalRuntimeFilterBuilderOperator operator =
+                new GlobalRuntimeFilterBuilderOperator(maxRowCount);
+        try (OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(operator)) {
+            harness.open();
+            for (RowData localFilter : localFilters) {
+                harness.processElement(new StreamRecord<>(localFilter));
+            }
+            operator.endInput();
+            return getSingleOutput(harness.extractOutputValues());
+        }
+    }
+
+    private static List<Integer> filter(RowData globalFilter, int... keys) throws Exception {
+        RuntimeFilterOperator operator = new RuntimeFilterOperator(createProjection());
+        try (TwoInputStreamOperatorTestHarness<RowData, RowData, RowData> harness =
+                new TwoInputStreamOperatorTestHarness<>(operator)) {
+            harness.open();
+            harness.processElement1(new StreamRecord<>(globalFilter));
+            operator.endInput(1);
+            for (int key : keys) {
+                harness.processElement2(new StreamRecord<>(GenericRowData.of(key)));
+            }
+            operator.endInput(2);
+
+            List<Integer> result = new ArrayList<>();
+            for (RowData row : harness.extractOutputValues()) {
+                result.add(row.getInt(0));
+            }
+            return result;
+        }
+    }
+
+    private static RowData getSingleOutput(List<RowData> output) {
+        assertThat(output).hasSize(1);
+        return output.get(0);
+    }
+
+    private static GeneratedProjection createProjection() {
+        return new GeneratedProjection("", "", new Object[0]) {
+            @Override
+            public Projection newInstance(ClassLoader classLoader) {
+                return new Int2HashJoinOperatorTest.MyProjection();
+            }
+        };
+    }
+}